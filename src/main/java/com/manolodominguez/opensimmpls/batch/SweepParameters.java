@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.batch;
+
+/**
+ * This enum defines the configuration parameters of a scenario that can be
+ * swept by TParameterSweep. Each one applies to a given kind of topology
+ * element, except the random seed, that applies to the whole scenario.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public enum SweepParameters {
+    /**
+     * Traffic generation rate of traffic generators, in Mbps.
+     */
+    TRAFFIC_GENERATION_RATE("rate"),
+    /**
+     * GoS level embedded in the packets of traffic generators, as one of the
+     * EXP_* constants defined in TAbstractPDU.
+     */
+    GOS_LEVEL("gos"),
+    /**
+     * Buffer size of LERs, LSRs, active LERs and active LSRs, in MBytes.
+     */
+    BUFFER_SIZE("buffer"),
+    /**
+     * DMGP size of active LERs and active LSRs, in KBytes.
+     */
+    DMGP_SIZE("dmgp"),
+    /**
+     * Delay of links, in nanoseconds.
+     */
+    LINK_DELAY("delay"),
+    /**
+     * Random seed of the simulation. It applies to the scenario itself, not
+     * to any topology element.
+     */
+    RANDOM_SEED("seed");
+
+    private final String parameterName;
+
+    /**
+     * This is the constructor of the enum.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param parameterName The short name of the parameter.
+     * @since 2.4
+     */
+    private SweepParameters(String parameterName) {
+        this.parameterName = parameterName;
+    }
+
+    /**
+     * This method gets the short name of the parameter, as used at command
+     * line and in the header of the results.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The short name of the parameter.
+     * @since 2.4
+     */
+    public String getParameterName() {
+        return this.parameterName;
+    }
+
+    /**
+     * This method gets the parameter that has the specified short name.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param parameterName The short name of the parameter.
+     * @return The parameter that has the specified short name. NULL, if there
+     * is no such parameter.
+     * @since 2.4
+     */
+    public static SweepParameters getParameter(String parameterName) {
+        for (SweepParameters parameter : values()) {
+            if (parameter.parameterName.equals(parameterName)) {
+                return parameter;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,362 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.batch;
+
+import com.manolodominguez.opensimmpls.io.stats.StatsExportFormats;
+import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ResourceBundle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements the command line interface used to simulate one or
+ * more scenarios without graphical user interface. Its usage is:
+ * <code>[-e] [-l] [-d] [-t] [-x csv|columnar] [-r seed] [-s parameter[@elementID]=value,value...] [-o outputDirectory] scenario.osm [scenario.osm ...]</code>,
+ * where -e enables event driven scheduling, -l makes nodes use lock-free
+ * ports, -d makes active nodes store their DMGP off-heap, -t records a binary trace of the simulation events of each scenario,
+ * -r simulates every scenario with the specified random seed instead of the
+ * one stored in it,
+ * -x exports the stats of every node for each time instant, in CSV or
+ * columnar format, -s adds an axis to a parameter sweep (see SweepParameters
+ * for the parameter names) and -o sets the directory where the stats, traces
+ * and sweep results of each scenario will be stored (the current one by
+ * default). If any axis is specified, each scenario is simulated once per
+ * point of the sweep, concurrently, and only the table of results is stored;
+ * in that case, -t and -x are not allowed.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public class TBatchCommandLine {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TBatchCommandLine.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public TBatchCommandLine() {
+        this.translations = ResourceBundle.getBundle(AvailableBundles.T_BATCH_COMMAND_LINE.getPath());
+        this.scenarioFiles = new ArrayList<>();
+        this.outputDirectory = new File(CURRENT_DIRECTORY);
+        this.eventDrivenScheduling = false;
+        this.lockFreePorts = false;
+        this.offHeapDMGP = false;
+        this.recordTraces = false;
+        this.statsExportFormat = null;
+        this.sweepAxes = new ArrayList<>();
+        this.randomSeed = null;
+    }
+
+    /**
+     * This method parses the command line arguments, simulates every
+     * specified scenario one after another and stores their stats.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param args Arguments specified at command line.
+     * @return EXIT_SUCCESS, if every scenario has been simulated and its stats
+     * stored. EXIT_BAD_USAGE, if the arguments are not valid. EXIT_LOAD_ERROR,
+     * if any scenario could not be loaded. EXIT_SAVE_ERROR, if the stats of
+     * any scenario could not be stored. If several errors happen, the highest
+     * one is returned.
+     * @since 2.4
+     */
+    public int run(String[] args) {
+        if (args == null) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        if (!parseArguments(args)) {
+            this.logger.error(this.translations.getString("usage"));
+            return EXIT_BAD_USAGE;
+        }
+        int exitCode = EXIT_SUCCESS;
+        long totalTicks = ZERO;
+        long totalWallClockTimeInNs = ZERO;
+        for (File scenarioFile : this.scenarioFiles) {
+            if (!this.sweepAxes.isEmpty()) {
+                exitCode = Math.max(exitCode, runSweep(scenarioFile));
+                continue;
+            }
+            TBatchSimulationRunner runner = new TBatchSimulationRunner(scenarioFile);
+            runner.setEventDrivenScheduling(this.eventDrivenScheduling);
+            runner.setLockFreePorts(this.lockFreePorts);
+            runner.setOffHeapDMGP(this.offHeapDMGP);
+            runner.setRandomSeed(this.randomSeed);
+            if (this.recordTraces) {
+                runner.setTraceFile(new File(this.outputDirectory, getOutputFileName(scenarioFile, TRACE_EXTENSION)));
+            }
+            if (this.statsExportFormat == StatsExportFormats.CSV) {
+                runner.setStatsExport(new File(this.outputDirectory, getOutputFileName(scenarioFile, CSV_SERIES_EXTENSION)), this.statsExportFormat);
+            } else if (this.statsExportFormat == StatsExportFormats.COLUMNAR) {
+                runner.setStatsExport(new File(this.outputDirectory, getOutputFileName(scenarioFile, COLUMNAR_SERIES_EXTENSION)), this.statsExportFormat);
+            }
+            if (!runner.load()) {
+                exitCode = Math.max(exitCode, EXIT_LOAD_ERROR);
+                continue;
+            }
+            runner.simulate();
+            if (this.recordTraces && !runner.isTraceSaved()) {
+                exitCode = Math.max(exitCode, EXIT_SAVE_ERROR);
+            }
+            if ((this.statsExportFormat != null) && !runner.isStatsExportSaved()) {
+                exitCode = Math.max(exitCode, EXIT_SAVE_ERROR);
+            }
+            File statsFile = new File(this.outputDirectory, getOutputFileName(scenarioFile, STATS_EXTENSION));
+            if (!runner.saveStats(statsFile)) {
+                exitCode = Math.max(exitCode, EXIT_SAVE_ERROR);
+            }
+            totalTicks += runner.getNumberOfTicks();
+            totalWallClockTimeInNs += runner.getWallClockTimeInNs();
+            this.logger.info(scenarioFile.getPath() + COLON
+                    + runner.getNumberOfTicks() + this.translations.getString("ticks")
+                    + runner.getSimulatedTimeInNs() + this.translations.getString("simulatedNs")
+                    + (runner.getWallClockTimeInNs() / ONE_MILLION) + this.translations.getString("wallClockMs") + COMMA
+                    + Math.round(runner.getTicksPerSecond()) + this.translations.getString("ticksPerSecond"));
+        }
+        this.logger.info(this.translations.getString("total")
+                + totalTicks + this.translations.getString("ticks")
+                + (totalWallClockTimeInNs / ONE_MILLION) + this.translations.getString("wallClockMs"));
+        return exitCode;
+    }
+
+    /**
+     * This method simulates every point of a parameter sweep over the
+     * specified scenario and stores the table of results.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param scenarioFile The OSM file of the base scenario of the sweep.
+     * @return EXIT_SUCCESS, if every point has been simulated and the results
+     * stored. EXIT_LOAD_ERROR, if the scenario could not be loaded or the
+     * sweep axes do not apply to it. EXIT_SAVE_ERROR, if any point could not
+     * be simulated or the results could not be stored.
+     * @since 2.4
+     */
+    private int runSweep(File scenarioFile) {
+        TBatchSimulationRunner loader = new TBatchSimulationRunner(scenarioFile);
+        if (!loader.load()) {
+            return EXIT_LOAD_ERROR;
+        }
+        if (this.randomSeed != null) {
+            loader.getScenario().getSimulation().setRandomSeed(this.randomSeed);
+        }
+        TParameterSweep sweep = new TParameterSweep(loader.getScenario());
+        sweep.setEventDrivenScheduling(this.eventDrivenScheduling);
+        sweep.setLockFreePorts(this.lockFreePorts);
+        sweep.setOffHeapDMGP(this.offHeapDMGP);
+        try {
+            for (TSweepAxis axis : this.sweepAxes) {
+                sweep.addAxis(axis);
+            }
+        } catch (IllegalArgumentException e) {
+            return EXIT_LOAD_ERROR;
+        }
+        int exitCode = EXIT_SUCCESS;
+        long startTime = System.nanoTime();
+        if (!sweep.run()) {
+            exitCode = EXIT_SAVE_ERROR;
+        }
+        long wallClockTimeInNs = System.nanoTime() - startTime;
+        if (!sweep.saveResults(new File(this.outputDirectory, getOutputFileName(scenarioFile, SWEEP_EXTENSION)))) {
+            exitCode = EXIT_SAVE_ERROR;
+        }
+        this.logger.info(scenarioFile.getPath() + COLON
+                + sweep.getNumberOfPoints() + this.translations.getString("sweepPoints")
+                + (wallClockTimeInNs / ONE_MILLION) + this.translations.getString("wallClockMs"));
+        return exitCode;
+    }
+
+    /**
+     * This method parses the value of a -s option: a parameter name,
+     * optionally followed by the ID of a topology element, and a comma
+     * separated list of values.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param axisDefinition The value of the -s option.
+     * @return The sweep axis. NULL, if the definition is not valid.
+     * @since 2.4
+     */
+    private TSweepAxis parseSweepAxis(String axisDefinition) {
+        int equalsPosition = axisDefinition.indexOf(AXIS_VALUES_SEPARATOR);
+        if (equalsPosition < ZERO) {
+            return null;
+        }
+        String parameterName = axisDefinition.substring(ZERO, equalsPosition);
+        int elementID = TSweepAxis.ALL_ELEMENTS;
+        try {
+            int elementPosition = parameterName.indexOf(TSweepAxis.ELEMENT_SEPARATOR);
+            if (elementPosition >= ZERO) {
+                elementID = Integer.parseInt(parameterName.substring(elementPosition + TSweepAxis.ELEMENT_SEPARATOR.length()));
+                parameterName = parameterName.substring(ZERO, elementPosition);
+            }
+            SweepParameters parameter = SweepParameters.getParameter(parameterName);
+            if (parameter == null) {
+                return null;
+            }
+            String[] valueStrings = axisDefinition.substring(equalsPosition + ONE).split(VALUES_SEPARATOR);
+            int[] values = new int[valueStrings.length];
+            for (int i = ZERO; i < valueStrings.length; i++) {
+                values[i] = Integer.parseInt(valueStrings[i].trim());
+            }
+            return new TSweepAxis(parameter, elementID, values);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * This method parses the command line arguments and stores the options
+     * and the scenario files in the corresponding attributes.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param args Arguments specified at command line.
+     * @return TRUE, if the arguments are valid. Otherwise, FALSE.
+     * @since 2.4
+     */
+    private boolean parseArguments(String[] args) {
+        int i = ZERO;
+        while (i < args.length) {
+            if (args[i].equals(EVENT_DRIVEN_OPTION)) {
+                this.eventDrivenScheduling = true;
+            } else if (args[i].equals(LOCK_FREE_PORTS_OPTION)) {
+                this.lockFreePorts = true;
+            } else if (args[i].equals(OFF_HEAP_DMGP_OPTION)) {
+                this.offHeapDMGP = true;
+            } else if (args[i].equals(TRACE_OPTION)) {
+                this.recordTraces = true;
+            } else if (args[i].equals(STATS_EXPORT_OPTION)) {
+                i++;
+                if (i == args.length) {
+                    return false;
+                }
+                if (args[i].equalsIgnoreCase(CSV_FORMAT)) {
+                    this.statsExportFormat = StatsExportFormats.CSV;
+                } else if (args[i].equalsIgnoreCase(COLUMNAR_FORMAT)) {
+                    this.statsExportFormat = StatsExportFormats.COLUMNAR;
+                } else {
+                    return false;
+                }
+            } else if (args[i].equals(RANDOM_SEED_OPTION)) {
+                i++;
+                if (i == args.length) {
+                    return false;
+                }
+                try {
+                    this.randomSeed = Long.parseLong(args[i]);
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            } else if (args[i].equals(SWEEP_OPTION)) {
+                i++;
+                if (i == args.length) {
+                    return false;
+                }
+                TSweepAxis axis = parseSweepAxis(args[i]);
+                if (axis == null) {
+                    return false;
+                }
+                this.sweepAxes.add(axis);
+            } else if (args[i].equals(OUTPUT_DIRECTORY_OPTION)) {
+                i++;
+                if (i == args.length) {
+                    return false;
+                }
+                this.outputDirectory = new File(args[i]);
+            } else if (args[i].startsWith(OPTION_PREFIX)) {
+                return false;
+            } else {
+                this.scenarioFiles.add(new File(args[i]));
+            }
+            i++;
+        }
+        if (this.scenarioFiles.isEmpty()) {
+            return false;
+        }
+        if (!this.sweepAxes.isEmpty() && (this.recordTraces || (this.statsExportFormat != null))) {
+            return false;
+        }
+        if (!this.outputDirectory.isDirectory()) {
+            this.logger.error(this.translations.getString("outputDirectoryNotFound") + this.outputDirectory.getPath());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * This method computes the name of a file where the results of the
+     * specified scenario will be stored.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param scenarioFile The OSM file of the scenario.
+     * @param extension The extension of the output file.
+     * @return The name of the output file for the specified scenario.
+     * @since 2.4
+     */
+    private String getOutputFileName(File scenarioFile, String extension) {
+        String scenarioFileName = scenarioFile.getName();
+        if (scenarioFileName.toLowerCase().endsWith(OSM_EXTENSION)) {
+            scenarioFileName = scenarioFileName.substring(ZERO, scenarioFileName.length() - OSM_EXTENSION.length());
+        }
+        return scenarioFileName + extension;
+    }
+
+    public static final int EXIT_SUCCESS = 0;
+    public static final int EXIT_BAD_USAGE = 1;
+    public static final int EXIT_LOAD_ERROR = 2;
+    public static final int EXIT_SAVE_ERROR = 3;
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final long ONE_MILLION = 1000000L;
+    private static final String CURRENT_DIRECTORY = ".";
+    private static final String OPTION_PREFIX = "-";
+    private static final String EVENT_DRIVEN_OPTION = "-e";
+    private static final String LOCK_FREE_PORTS_OPTION = "-l";
+    private static final String OFF_HEAP_DMGP_OPTION = "-d";
+    private static final String TRACE_OPTION = "-t";
+    private static final String STATS_EXPORT_OPTION = "-x";
+    private static final String RANDOM_SEED_OPTION = "-r";
+    private static final String SWEEP_OPTION = "-s";
+    private static final String OUTPUT_DIRECTORY_OPTION = "-o";
+    private static final String CSV_FORMAT = "csv";
+    private static final String COLUMNAR_FORMAT = "columnar";
+    private static final String OSM_EXTENSION = ".osm";
+    private static final String STATS_EXTENSION = ".stats.csv";
+    private static final String TRACE_EXTENSION = ".trace";
+    private static final String CSV_SERIES_EXTENSION = ".series.csv";
+    private static final String COLUMNAR_SERIES_EXTENSION = ".series.osms";
+    private static final String SWEEP_EXTENSION = ".sweep.csv";
+    private static final String AXIS_VALUES_SEPARATOR = "=";
+    private static final String VALUES_SEPARATOR = ",";
+    private static final String COLON = ": ";
+    private static final String COMMA = ", ";
+
+    private final List<File> scenarioFiles;
+    private File outputDirectory;
+    private boolean eventDrivenScheduling;
+    private boolean lockFreePorts;
+    private boolean offHeapDMGP;
+    private boolean recordTraces;
+    private StatsExportFormats statsExportFormat;
+    private final List<TSweepAxis> sweepAxes;
+    private Long randomSeed;
+    private final ResourceBundle translations;
+    private final Logger logger = LoggerFactory.getLogger(TBatchCommandLine.class);
+}
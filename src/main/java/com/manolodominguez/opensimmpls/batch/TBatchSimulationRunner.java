@@ -0,0 +1,555 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.batch;
+
+import com.manolodominguez.opensimmpls.hardware.ports.TFIFOPortSet;
+import com.manolodominguez.opensimmpls.hardware.timer.TTimer;
+import com.manolodominguez.opensimmpls.hardware.timer.TTimestamp;
+import com.manolodominguez.opensimmpls.hardware.timer.TWorkerPoolExecutionBackend;
+import com.manolodominguez.opensimmpls.io.osm.TOSMLoader;
+import com.manolodominguez.opensimmpls.io.stats.StatsExportFormats;
+import com.manolodominguez.opensimmpls.io.stats.TStatsExporter;
+import com.manolodominguez.opensimmpls.io.stats.TStatsSaver;
+import com.manolodominguez.opensimmpls.io.traces.TSimulationTraceWriter;
+import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import com.manolodominguez.opensimmpls.scenario.TActiveLERNode;
+import com.manolodominguez.opensimmpls.scenario.TActiveLSRNode;
+import com.manolodominguez.opensimmpls.scenario.TNode;
+import com.manolodominguez.opensimmpls.scenario.TScene;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.OverflowPolicies;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventBus;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.ResourceBundle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements a runner that simulates a scenario stored in a OSM
+ * file without any graphical user interface. The simulation runs as fast as
+ * possible, from the beginning to the end, using the time parameters stored
+ * in the scenario itself.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public class TBatchSimulationRunner {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TBatchSimulationRunner.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param scenarioFile The OSM file where the scenario to be simulated is
+     * stored.
+     * @since 2.4
+     */
+    public TBatchSimulationRunner(File scenarioFile) {
+        this.translations = ResourceBundle.getBundle(AvailableBundles.T_BATCH_SIMULATION_RUNNER.getPath());
+        if (scenarioFile == null) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        this.scenarioFile = scenarioFile;
+        this.scenarioName = scenarioFile.getPath();
+        this.scenario = null;
+        this.numberOfWorkers = ZERO;
+        this.randomSeed = null;
+        this.eventDrivenScheduling = false;
+        this.lockFreePorts = false;
+        this.offHeapDMGP = false;
+        this.traceFile = null;
+        this.traceSaved = false;
+        this.statsExportFile = null;
+        this.statsExportFormat = StatsExportFormats.CSV;
+        this.statsExportSaved = false;
+        this.wallClockTimeInNs = ZERO;
+    }
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TBatchSimulationRunner that simulates a scenario that is already in
+     * memory instead of loading it from an OSM file. The scenario must not be
+     * simulated by anyone else at the same time.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param scenario The scenario to be simulated.
+     * @param scenarioName The name that identifies the scenario in log
+     * messages.
+     * @since 2.4
+     */
+    public TBatchSimulationRunner(TScene scenario, String scenarioName) {
+        this.translations = ResourceBundle.getBundle(AvailableBundles.T_BATCH_SIMULATION_RUNNER.getPath());
+        if ((scenario == null) || (scenarioName == null)) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        this.scenarioFile = null;
+        this.scenarioName = scenarioName;
+        this.scenario = scenario;
+        this.numberOfWorkers = ZERO;
+        this.randomSeed = null;
+        this.eventDrivenScheduling = false;
+        this.lockFreePorts = false;
+        this.offHeapDMGP = false;
+        this.traceFile = null;
+        this.traceSaved = false;
+        this.statsExportFile = null;
+        this.statsExportFormat = StatsExportFormats.CSV;
+        this.statsExportSaved = false;
+        this.wallClockTimeInNs = ZERO;
+    }
+
+    /**
+     * This method sets the number of worker threads the timer will use to
+     * run the topology elements during each tick. This is useful when several
+     * scenarios are simulated at the same time, so that they do not compete
+     * for more processors than available.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param numberOfWorkers The number of worker threads. Zero, to keep the
+     * execution backend of the timer as is.
+     * @since 2.4
+     */
+    public void setNumberOfWorkers(int numberOfWorkers) {
+        if (numberOfWorkers < ZERO) {
+            this.logger.error(this.translations.getString("argumentOutOfRange"));
+            throw new IllegalArgumentException(this.translations.getString("argumentOutOfRange"));
+        }
+        this.numberOfWorkers = numberOfWorkers;
+    }
+
+    /**
+     * This method sets the random seed the scenario will be simulated with,
+     * instead of the one stored in the scenario itself. This allows
+     * simulating the same scenario with several seeds.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param randomSeed The random seed. NULL, to use the one stored in the
+     * scenario.
+     * @since 2.4
+     */
+    public void setRandomSeed(Long randomSeed) {
+        this.randomSeed = randomSeed;
+    }
+
+    /**
+     * This method sets whether the timer has to skip ticks in which no
+     * topology element has work to do.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param eventDrivenScheduling TRUE, if idle ticks have to be skipped.
+     * Otherwise, FALSE.
+     * @since 2.4
+     */
+    public void setEventDrivenScheduling(boolean eventDrivenScheduling) {
+        this.eventDrivenScheduling = eventDrivenScheduling;
+    }
+
+    /**
+     * This method sets whether nodes having FIFO port sets have to use
+     * lock-free ports to receive packets from links.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param lockFreePorts TRUE, if lock-free ports have to be used.
+     * Otherwise, FALSE.
+     * @since 2.4
+     */
+    public void setLockFreePorts(boolean lockFreePorts) {
+        this.lockFreePorts = lockFreePorts;
+    }
+
+    /**
+     * This method sets whether active nodes have to store GoS packets of their
+     * DMGP off-heap, in a direct buffer of exactly the configured DMGP size.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param offHeapDMGP TRUE, if the DMGP of active nodes has to be stored
+     * off-heap. Otherwise, FALSE.
+     * @since 2.4
+     */
+    public void setOffHeapDMGP(boolean offHeapDMGP) {
+        this.offHeapDMGP = offHeapDMGP;
+    }
+
+    /**
+     * This method sets the file where every simulation event will be
+     * recorded during the simulation, as a binary trace that can be replayed
+     * later.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param traceFile The file where the trace will be recorded. NULL, if no
+     * trace has to be recorded.
+     * @since 2.4
+     */
+    public void setTraceFile(File traceFile) {
+        this.traceFile = traceFile;
+    }
+
+    /**
+     * This method sets the file where the stats of every node will be
+     * exported for each time instant while the simulation runs.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param statsExportFile The file where the stats will be exported. NULL,
+     * if no stats have to be exported.
+     * @param statsExportFormat The format of the file.
+     * @since 2.4
+     */
+    public void setStatsExport(File statsExportFile, StatsExportFormats statsExportFormat) {
+        if ((statsExportFile != null) && (statsExportFormat == null)) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        this.statsExportFile = statsExportFile;
+        this.statsExportFormat = statsExportFormat;
+    }
+
+    /**
+     * This method loads the scenario from the OSM file and checks that its
+     * time parameters allow it to be simulated. If the scenario was supplied
+     * in memory, only its time parameters are checked.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return TRUE, if the scenario has been loaded and can be simulated.
+     * Otherwise, FALSE.
+     * @since 2.4
+     */
+    public boolean load() {
+        if (this.scenarioFile == null) {
+            if (!hasValidTimeParameters(this.scenario)) {
+                this.logger.error(this.translations.getString("badTimeParameters") + this.scenarioName);
+                return false;
+            }
+            return true;
+        }
+        if (!this.scenarioFile.isFile()) {
+            this.logger.error(this.translations.getString("scenarioNotFound") + this.scenarioFile.getPath());
+            return false;
+        }
+        TOSMLoader loader = new TOSMLoader();
+        if (!loader.load(this.scenarioFile)) {
+            this.logger.error(this.translations.getString("scenarioNotLoaded") + this.scenarioFile.getPath());
+            return false;
+        }
+        TScene loadedScenario = loader.getScenario();
+        if (!hasValidTimeParameters(loadedScenario)) {
+            this.logger.error(this.translations.getString("badTimeParameters") + this.scenarioFile.getPath());
+            return false;
+        }
+        this.scenario = loadedScenario;
+        return true;
+    }
+
+    /**
+     * This method checks that the time parameters of a scenario allow it to
+     * be simulated.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param scenario The scenario to be checked.
+     * @return TRUE, if the scenario can be simulated. Otherwise, FALSE.
+     * @since 2.4
+     */
+    private boolean hasValidTimeParameters(TScene scenario) {
+        long simulationLengthInNs = scenario.getSimulation().getSimulationLengthInNs();
+        long tickDurationInNs = scenario.getSimulation().getSimulationTickDurationInNs();
+        return (simulationLengthInNs > ZERO) && (tickDurationInNs > ZERO) && (tickDurationInNs <= Integer.MAX_VALUE);
+    }
+
+    /**
+     * This method simulates the previously loaded scenario and waits until
+     * the simulation finishes. The timer is configured as the simulation
+     * window would do it, but no simulation panel is attached. Once finished,
+     * the execution backend of the timer is released, so the scenario can be
+     * simulated only once.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public void simulate() {
+        if (this.scenario == null) {
+            this.logger.error(this.translations.getString("attributeNotInitialized"));
+            throw new IllegalStateException(this.translations.getString("attributeNotInitialized"));
+        }
+        long simulationLengthInNs = this.scenario.getSimulation().getSimulationLengthInNs();
+        TTimer timer = this.scenario.getTopology().getTimer();
+        if (this.randomSeed != null) {
+            this.scenario.getSimulation().setRandomSeed(this.randomSeed);
+        }
+        this.scenario.reset();
+        Iterator<TNode> nodesIterator = this.scenario.getTopology().getNodesIterator();
+        TNode node;
+        while (nodesIterator.hasNext()) {
+            node = nodesIterator.next();
+            if (node.getPorts() instanceof TFIFOPortSet) {
+                ((TFIFOPortSet) node.getPorts()).setLockFreePorts(this.lockFreePorts);
+            }
+            if (node instanceof TActiveLSRNode) {
+                ((TActiveLSRNode) node).setDMGPOffHeapStorage(this.offHeapDMGP);
+            } else if (node instanceof TActiveLERNode) {
+                ((TActiveLERNode) node).setDMGPOffHeapStorage(this.offHeapDMGP);
+            }
+        }
+        timer.setFinishTimestamp(new TTimestamp(simulationLengthInNs / ONE_MILLION, (int) (simulationLengthInNs % ONE_MILLION)));
+        timer.setTick((int) this.scenario.getSimulation().getSimulationTickDurationInNs());
+        timer.setEventDrivenScheduling(this.eventDrivenScheduling);
+        if (this.numberOfWorkers > ZERO) {
+            timer.setExecutionBackend(new TWorkerPoolExecutionBackend(this.numberOfWorkers));
+        }
+        timer.reset();
+        TSimulationTraceWriter traceWriter = startTrace();
+        TStatsExporter statsExporter = startStatsExport();
+        long startTime = System.nanoTime();
+        this.scenario.simulate();
+        timer.waitForCompletion();
+        this.wallClockTimeInNs = System.nanoTime() - startTime;
+        timer.shutdownExecutionBackend();
+        if (traceWriter != null) {
+            stopTrace(traceWriter);
+        }
+        if (statsExporter != null) {
+            stopStatsExport(statsExporter);
+        }
+    }
+
+    /**
+     * This method creates the trace file, if any, and subscribes a trace
+     * writer to the simulation event bus of the scenario. The simulation waits
+     * for the writer instead of losing events.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The trace writer or NULL, if no trace has to be recorded or the
+     * trace file cannot be created.
+     * @since 2.4
+     */
+    private TSimulationTraceWriter startTrace() {
+        this.traceSaved = false;
+        if (this.traceFile == null) {
+            return null;
+        }
+        TSimulationTraceWriter traceWriter = new TSimulationTraceWriter(this.traceFile);
+        try {
+            traceWriter.open();
+        } catch (IOException e) {
+            this.logger.error(this.translations.getString("traceNotSaved") + this.traceFile.getPath());
+            return null;
+        }
+        this.scenario.getSimulation().getSimulationEventListener().subscribe(traceWriter, TRACE_QUEUE_CAPACITY, OverflowPolicies.BLOCK);
+        return traceWriter;
+    }
+
+    /**
+     * This method waits until the trace writer has received every simulation
+     * event, unsubscribes it and closes the trace file.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param traceWriter The trace writer returned by startTrace.
+     * @since 2.4
+     */
+    private void stopTrace(TSimulationTraceWriter traceWriter) {
+        TSimulationEventBus simulationEventBus = this.scenario.getSimulation().getSimulationEventListener();
+        try {
+            simulationEventBus.waitUntilDelivered(traceWriter);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        simulationEventBus.unsubscribe(traceWriter);
+        try {
+            traceWriter.close();
+            this.traceSaved = true;
+        } catch (IOException e) {
+            this.logger.error(this.translations.getString("traceNotSaved") + this.traceFile.getPath());
+        }
+    }
+
+    /**
+     * This method creates the stats export file, if any, and makes a stats
+     * exporter listen to the stats of every node of the scenario.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The stats exporter or NULL, if no stats have to be exported or
+     * the file cannot be created.
+     * @since 2.4
+     */
+    private TStatsExporter startStatsExport() {
+        this.statsExportSaved = false;
+        if (this.statsExportFile == null) {
+            return null;
+        }
+        TStatsExporter statsExporter = new TStatsExporter(this.scenario, this.statsExportFile, this.statsExportFormat);
+        try {
+            statsExporter.open();
+        } catch (IOException e) {
+            this.logger.error(this.translations.getString("statsNotExported") + this.statsExportFile.getPath());
+            return null;
+        }
+        return statsExporter;
+    }
+
+    /**
+     * This method writes the stats the exporter still keeps in memory and
+     * closes the stats export file.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param statsExporter The stats exporter returned by startStatsExport.
+     * @since 2.4
+     */
+    private void stopStatsExport(TStatsExporter statsExporter) {
+        try {
+            statsExporter.close();
+            this.statsExportSaved = true;
+        } catch (IOException e) {
+            this.logger.error(this.translations.getString("statsNotExported") + this.statsExportFile.getPath());
+        }
+    }
+
+    /**
+     * This method saves the stats of every node of the simulated scenario to
+     * the specified file.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param outputFile The file where stats will be stored.
+     * @return TRUE, if the stats have been saved. Otherwise, FALSE.
+     * @since 2.4
+     */
+    public boolean saveStats(File outputFile) {
+        if (this.scenario == null) {
+            this.logger.error(this.translations.getString("attributeNotInitialized"));
+            throw new IllegalStateException(this.translations.getString("attributeNotInitialized"));
+        }
+        TStatsSaver statsSaver = new TStatsSaver(this.scenario);
+        return statsSaver.save(outputFile);
+    }
+
+    /**
+     * This method tells whether the trace of the latest simulation has been
+     * recorded completely.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return TRUE, if the trace has been recorded. FALSE, if no trace file
+     * was set or the trace could not be written.
+     * @since 2.4
+     */
+    public boolean isTraceSaved() {
+        return this.traceSaved;
+    }
+
+    /**
+     * This method tells whether the stats of the latest simulation have been
+     * exported completely.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return TRUE, if the stats have been exported. FALSE, if no stats export
+     * file was set or the stats could not be written.
+     * @since 2.4
+     */
+    public boolean isStatsExportSaved() {
+        return this.statsExportSaved;
+    }
+
+    /**
+     * This method gets the scenario that has been loaded.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The scenario that has been loaded. NULL, if no scenario has been
+     * loaded yet.
+     * @since 2.4
+     */
+    public TScene getScenario() {
+        return this.scenario;
+    }
+
+    /**
+     * This method gets the simulated time, in nanoseconds.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The simulated time, in nanoseconds.
+     * @since 2.4
+     */
+    public long getSimulatedTimeInNs() {
+        if (this.scenario == null) {
+            return ZERO;
+        }
+        return this.scenario.getSimulation().getSimulationLengthInNs();
+    }
+
+    /**
+     * This method gets the number of ticks the simulation consists of,
+     * including the last one, that may be shorter than the others.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The number of ticks of the simulation.
+     * @since 2.4
+     */
+    public long getNumberOfTicks() {
+        if (this.scenario == null) {
+            return ZERO;
+        }
+        long tickDurationInNs = this.scenario.getSimulation().getSimulationTickDurationInNs();
+        return (getSimulatedTimeInNs() + tickDurationInNs - ONE) / tickDurationInNs;
+    }
+
+    /**
+     * This method gets the wall clock time the latest simulation took, in
+     * nanoseconds.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The wall clock time of the latest simulation, in nanoseconds.
+     * @since 2.4
+     */
+    public long getWallClockTimeInNs() {
+        return this.wallClockTimeInNs;
+    }
+
+    /**
+     * This method gets the number of ticks simulated per wall clock second in
+     * the latest simulation.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The number of ticks simulated per wall clock second.
+     * @since 2.4
+     */
+    public double getTicksPerSecond() {
+        if (this.wallClockTimeInNs <= ZERO) {
+            return ZERO;
+        }
+        return (getNumberOfTicks() * ONE_BILLION) / this.wallClockTimeInNs;
+    }
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final long ONE_MILLION = 1000000L;
+    private static final double ONE_BILLION = 1000000000.0;
+    private static final int TRACE_QUEUE_CAPACITY = 65536;
+
+    private final File scenarioFile;
+    private final String scenarioName;
+    private TScene scenario;
+    private int numberOfWorkers;
+    private Long randomSeed;
+    private boolean eventDrivenScheduling;
+    private boolean lockFreePorts;
+    private boolean offHeapDMGP;
+    private File traceFile;
+    private boolean traceSaved;
+    private File statsExportFile;
+    private StatsExportFormats statsExportFormat;
+    private boolean statsExportSaved;
+    private long wallClockTimeInNs;
+    private final ResourceBundle translations;
+    private final Logger logger = LoggerFactory.getLogger(TBatchSimulationRunner.class);
+}
@@ -0,0 +1,621 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.batch;
+
+import com.manolodominguez.opensimmpls.commons.TCSVField;
+import com.manolodominguez.opensimmpls.io.osm.TOSMLoader;
+import com.manolodominguez.opensimmpls.io.osm.TOSMSaver;
+import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import com.manolodominguez.opensimmpls.scenario.StatsColumns;
+import com.manolodominguez.opensimmpls.scenario.TActiveLERNode;
+import com.manolodominguez.opensimmpls.scenario.TActiveLSRNode;
+import com.manolodominguez.opensimmpls.scenario.TLERNode;
+import com.manolodominguez.opensimmpls.scenario.TLSRNode;
+import com.manolodominguez.opensimmpls.scenario.TLink;
+import com.manolodominguez.opensimmpls.scenario.TNode;
+import com.manolodominguez.opensimmpls.scenario.TScene;
+import com.manolodominguez.opensimmpls.scenario.TStats;
+import com.manolodominguez.opensimmpls.scenario.TTrafficGeneratorNode;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements a parameter sweep: the same scenario is simulated
+ * once for each point of a grid of configuration parameters. The grid is
+ * defined by a set of axes; every combination of their values is a point.
+ * Each point is simulated on its own copy of the base scenario, with its own
+ * topology, timer and ID generators, so points are simulated concurrently on
+ * a bounded pool. Processors are shared among the points being simulated at
+ * the same time, so that the timers of different points do not compete for
+ * more processors than available. Once finished, the final value of every
+ * stats column of every node of every point is available as a single table.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public class TParameterSweep {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TParameterSweep without axes, so there is a single point: the base
+     * scenario as is.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param baseScenario The scenario every point is a copy of. It is not
+     * modified.
+     * @since 2.4
+     */
+    public TParameterSweep(TScene baseScenario) {
+        this.translations = ResourceBundle.getBundle(AvailableBundles.T_PARAMETER_SWEEP.getPath());
+        if (baseScenario == null) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        this.baseScenario = baseScenario;
+        this.axes = new ArrayList<>();
+        this.points = new ArrayList<>();
+        this.maxConcurrentPoints = Runtime.getRuntime().availableProcessors();
+        this.eventDrivenScheduling = false;
+        this.lockFreePorts = false;
+        this.offHeapDMGP = false;
+    }
+
+    /**
+     * This method adds an axis to the grid. The number of points is
+     * multiplied by the number of values of the axis.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param axis The axis to be added. The base scenario must have at least
+     * one element the parameter of the axis can be applied to.
+     * @since 2.4
+     */
+    public void addAxis(TSweepAxis axis) {
+        if (axis == null) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        if (applyParameter(this.baseScenario, axis, ZERO, false) == ZERO) {
+            this.logger.error(this.translations.getString("noElementToSweep") + axis.getAxisName());
+            throw new IllegalArgumentException(this.translations.getString("noElementToSweep") + axis.getAxisName());
+        }
+        this.axes.add(axis);
+    }
+
+    /**
+     * This method sets the maximum number of points that are simulated at the
+     * same time. By default, as many as available processors.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param maxConcurrentPoints The maximum number of points simulated at the
+     * same time. At least one.
+     * @since 2.4
+     */
+    public void setMaxConcurrentPoints(int maxConcurrentPoints) {
+        if (maxConcurrentPoints < ONE) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        this.maxConcurrentPoints = maxConcurrentPoints;
+    }
+
+    /**
+     * This method sets whether the timers have to skip ticks in which no
+     * topology element has work to do.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param eventDrivenScheduling TRUE, if idle ticks have to be skipped.
+     * Otherwise, FALSE.
+     * @since 2.4
+     */
+    public void setEventDrivenScheduling(boolean eventDrivenScheduling) {
+        this.eventDrivenScheduling = eventDrivenScheduling;
+    }
+
+    /**
+     * This method sets whether nodes having FIFO port sets have to use
+     * lock-free ports to receive packets from links.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param lockFreePorts TRUE, if lock-free ports have to be used.
+     * Otherwise, FALSE.
+     * @since 2.4
+     */
+    public void setLockFreePorts(boolean lockFreePorts) {
+        this.lockFreePorts = lockFreePorts;
+    }
+
+    /**
+     * This method sets whether active nodes have to store GoS packets of their
+     * DMGP off-heap, in a direct buffer of exactly the configured DMGP size.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param offHeapDMGP TRUE, if the DMGP of active nodes has to be stored
+     * off-heap. Otherwise, FALSE.
+     * @since 2.4
+     */
+    public void setOffHeapDMGP(boolean offHeapDMGP) {
+        this.offHeapDMGP = offHeapDMGP;
+    }
+
+    /**
+     * This method gets the number of points of the grid.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The number of points of the grid.
+     * @since 2.4
+     */
+    public int getNumberOfPoints() {
+        long numberOfPoints = ONE;
+        for (TSweepAxis axis : this.axes) {
+            numberOfPoints *= axis.getNumberOfValues();
+            if (numberOfPoints > Integer.MAX_VALUE) {
+                return Integer.MAX_VALUE;
+            }
+        }
+        return (int) numberOfPoints;
+    }
+
+    /**
+     * This method simulates every point of the grid and waits until all of
+     * them have finished. Results of a previous run are discarded.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return TRUE, if every point has been simulated. Otherwise, FALSE.
+     * @since 2.4
+     */
+    public boolean run() {
+        this.points.clear();
+        // The base scenario is copied once in OSM format and every point is
+        // loaded from this copy, so points do not share any object.
+        ByteArrayOutputStream baseCopy = new ByteArrayOutputStream();
+        TOSMSaver saver = new TOSMSaver(this.baseScenario);
+        if (!saver.save(baseCopy)) {
+            this.logger.error(this.translations.getString("scenarioNotCopied"));
+            return false;
+        }
+        byte[] baseScenarioOSM = baseCopy.toByteArray();
+        int numberOfPoints = getNumberOfPoints();
+        int concurrentPoints = Math.min(this.maxConcurrentPoints, numberOfPoints);
+        int workersPerPoint = Math.max(ONE, Runtime.getRuntime().availableProcessors() / concurrentPoints);
+        List<Callable<TSweepPoint>> tasks = new ArrayList<>(numberOfPoints);
+        for (int i = ZERO; i < numberOfPoints; i++) {
+            final TSweepPoint point = new TSweepPoint(i, getPointValues(i));
+            this.points.add(point);
+            tasks.add(() -> simulatePoint(point, baseScenarioOSM, workersPerPoint));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(concurrentPoints);
+        try {
+            pool.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+        boolean allPointsSimulated = true;
+        for (TSweepPoint point : this.points) {
+            allPointsSimulated &= point.simulated;
+        }
+        return allPointsSimulated;
+    }
+
+    /**
+     * This method computes the value each axis takes in the specified point.
+     * The last axis is the one that changes faster.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param pointIndex The position of the point in the grid.
+     * @return The value of each axis, in the same order as the axes were
+     * added.
+     * @since 2.4
+     */
+    public int[] getPointValues(int pointIndex) {
+        if ((pointIndex < ZERO) || (pointIndex >= getNumberOfPoints())) {
+            this.logger.error(this.translations.getString("argumentOutOfRange"));
+            throw new IllegalArgumentException(this.translations.getString("argumentOutOfRange"));
+        }
+        int[] pointValues = new int[this.axes.size()];
+        int remainder = pointIndex;
+        for (int i = this.axes.size() - ONE; i >= ZERO; i--) {
+            TSweepAxis axis = this.axes.get(i);
+            pointValues[i] = axis.getValue(remainder % axis.getNumberOfValues());
+            remainder /= axis.getNumberOfValues();
+        }
+        return pointValues;
+    }
+
+    /**
+     * This method tells whether the specified point was simulated in the
+     * latest run.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param pointIndex The position of the point in the grid.
+     * @return TRUE, if the point was simulated. Otherwise, FALSE.
+     * @since 2.4
+     */
+    public boolean isPointSimulated(int pointIndex) {
+        if ((pointIndex < ZERO) || (pointIndex >= this.points.size())) {
+            return false;
+        }
+        return this.points.get(pointIndex).simulated;
+    }
+
+    /**
+     * This method gets the final value of a stats column of a node in the
+     * specified point of the latest run.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param pointIndex The position of the point in the grid.
+     * @param nodeID The ID of the node.
+     * @param column The stats column.
+     * @return The final value of the column. NO_VALUE, if the point was not
+     * simulated or the node does not export the column.
+     * @since 2.4
+     */
+    public long getColumnValue(int pointIndex, int nodeID, StatsColumns column) {
+        if (!isPointSimulated(pointIndex)) {
+            return NO_VALUE;
+        }
+        for (TNodeResult nodeResult : this.points.get(pointIndex).nodeResults) {
+            if (nodeResult.nodeID == nodeID) {
+                for (int i = ZERO; i < nodeResult.columns.length; i++) {
+                    if (nodeResult.columns[i] == column) {
+                        return nodeResult.values[i];
+                    }
+                }
+            }
+        }
+        return NO_VALUE;
+    }
+
+    /**
+     * This method saves the results of the latest run as a semicolon
+     * separated values file. There is a line per point and node with the
+     * position of the point, the value of each axis, the wall clock time the
+     * point took, the node ID, the node name and the final value of every
+     * stats column, empty if the node does not export it. Points that could
+     * not be simulated have no line.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param outputFile The file where the results will be stored.
+     * @return TRUE, if the results have been saved. Otherwise, FALSE.
+     * @since 2.4
+     */
+    public boolean saveResults(File outputFile) {
+        if (outputFile == null) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        try (PrintStream output = new PrintStream(new FileOutputStream(outputFile), false, UTF_8)) {
+            StringBuilder line = new StringBuilder(POINT_HEADER);
+            for (TSweepAxis axis : this.axes) {
+                line.append(SEPARATOR).append(axis.getAxisName());
+            }
+            line.append(SEPARATOR).append(NODE_HEADER);
+            for (StatsColumns column : StatsColumns.values()) {
+                line.append(SEPARATOR).append(column.getColumnName());
+            }
+            output.println(line);
+            for (int i = ZERO; i < this.points.size(); i++) {
+                TSweepPoint point = this.points.get(i);
+                if (!point.simulated) {
+                    continue;
+                }
+                StringBuilder pointPrefix = new StringBuilder().append(i);
+                for (int value : point.values) {
+                    pointPrefix.append(SEPARATOR).append(value);
+                }
+                pointPrefix.append(SEPARATOR).append(point.wallClockTimeInNs / ONE_MILLION);
+                for (TNodeResult nodeResult : point.nodeResults) {
+                    String[] fields = new String[StatsColumns.values().length];
+                    for (int j = ZERO; j < nodeResult.columns.length; j++) {
+                        fields[nodeResult.columns[j].ordinal()] = Long.toString(nodeResult.values[j]);
+                    }
+                    line = new StringBuilder(pointPrefix);
+                    line.append(SEPARATOR).append(nodeResult.nodeID).append(SEPARATOR).append(TCSVField.quote(nodeResult.nodeName));
+                    for (String field : fields) {
+                        line.append(SEPARATOR);
+                        if (field != null) {
+                            line.append(field);
+                        }
+                    }
+                    output.println(line);
+                }
+            }
+            if (output.checkError()) {
+                this.logger.error(this.translations.getString("resultsNotSaved") + outputFile.getPath());
+                return false;
+            }
+        } catch (IOException e) {
+            this.logger.error(this.translations.getString("resultsNotSaved") + outputFile.getPath());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * This method simulates a point of the grid on its own copy of the base
+     * scenario and stores its results in the point itself. It runs on a
+     * thread of the pool.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param point The point to be simulated.
+     * @param baseScenarioOSM The base scenario, in OSM format.
+     * @param workersPerPoint The number of workers of the timer of the point.
+     * @return The point, once simulated.
+     * @since 2.4
+     */
+    private TSweepPoint simulatePoint(TSweepPoint point, byte[] baseScenarioOSM, int workersPerPoint) {
+        try {
+            TOSMLoader loader = new TOSMLoader();
+            if (!loader.load(new ByteArrayInputStream(baseScenarioOSM))) {
+                this.logger.error(this.translations.getString("scenarioNotCopied"));
+                return point;
+            }
+            TScene scenario = loader.getScenario();
+            for (int i = ZERO; i < this.axes.size(); i++) {
+                applyParameter(scenario, this.axes.get(i), point.values[i], true);
+            }
+            TBatchSimulationRunner runner = new TBatchSimulationRunner(scenario, POINT_HEADER + SPACE + point.index);
+            runner.setNumberOfWorkers(workersPerPoint);
+            runner.setEventDrivenScheduling(this.eventDrivenScheduling);
+            runner.setLockFreePorts(this.lockFreePorts);
+            runner.setOffHeapDMGP(this.offHeapDMGP);
+            if (!runner.load()) {
+                return point;
+            }
+            runner.simulate();
+            Iterator<TNode> nodesIterator = scenario.getTopology().getNodesIterator();
+            TNode node;
+            while (nodesIterator.hasNext()) {
+                node = nodesIterator.next();
+                if ((node != null) && (node.getStats() != null)) {
+                    point.nodeResults.add(new TNodeResult(node, node.getStats()));
+                }
+            }
+            point.wallClockTimeInNs = runner.getWallClockTimeInNs();
+            point.simulated = true;
+        } catch (RuntimeException e) {
+            this.logger.error(this.translations.getString("pointNotSimulated"), e);
+        }
+        return point;
+    }
+
+    /**
+     * This method applies the parameter of an axis to the elements of a
+     * scenario, or to the scenario itself in the case of the random seed.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param scenario The scenario whose elements will be configured.
+     * @param axis The axis whose parameter is applied.
+     * @param value The value of the parameter.
+     * @param apply TRUE, if the parameter has to be applied. FALSE, if only
+     * the elements it would be applied to have to be counted.
+     * @return The number of elements the parameter has been (or would be)
+     * applied to.
+     * @since 2.4
+     */
+    private int applyParameter(TScene scenario, TSweepAxis axis, int value, boolean apply) {
+        int numberOfElements = ZERO;
+        if (axis.getParameter() == SweepParameters.RANDOM_SEED) {
+            if (axis.getElementID() != TSweepAxis.ALL_ELEMENTS) {
+                return ZERO;
+            }
+            if (apply) {
+                scenario.getSimulation().setRandomSeed(value);
+            }
+            return ONE;
+        }
+        if (axis.getParameter() == SweepParameters.LINK_DELAY) {
+            Iterator<TLink> linksIterator = scenario.getTopology().getLinksIterator();
+            TLink link;
+            while (linksIterator.hasNext()) {
+                link = linksIterator.next();
+                if ((link != null) && axis.appliesTo(link.getID())) {
+                    if (apply) {
+                        link.setDelay(value);
+                    }
+                    numberOfElements++;
+                }
+            }
+            return numberOfElements;
+        }
+        Iterator<TNode> nodesIterator = scenario.getTopology().getNodesIterator();
+        TNode node;
+        while (nodesIterator.hasNext()) {
+            node = nodesIterator.next();
+            if ((node != null) && axis.appliesTo(node.getNodeID()) && applyParameter(node, axis.getParameter(), value, apply)) {
+                numberOfElements++;
+            }
+        }
+        return numberOfElements;
+    }
+
+    /**
+     * This method applies a parameter to a node, if the parameter makes sense
+     * for it.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param node The node to be configured.
+     * @param parameter The parameter to be applied.
+     * @param value The value of the parameter.
+     * @param apply TRUE, if the parameter has to be applied. FALSE, if it has
+     * only to be checked whether it can be applied.
+     * @return TRUE, if the parameter can be applied to the node. Otherwise,
+     * FALSE.
+     * @since 2.4
+     */
+    private boolean applyParameter(TNode node, SweepParameters parameter, int value, boolean apply) {
+        switch (parameter) {
+            case TRAFFIC_GENERATION_RATE:
+                if (node instanceof TTrafficGeneratorNode) {
+                    if (apply) {
+                        ((TTrafficGeneratorNode) node).setTrafficGenerationRate(value);
+                    }
+                    return true;
+                }
+                return false;
+            case GOS_LEVEL:
+                if (node instanceof TTrafficGeneratorNode) {
+                    if (apply) {
+                        ((TTrafficGeneratorNode) node).setGoSLevel(value);
+                    }
+                    return true;
+                }
+                return false;
+            case BUFFER_SIZE:
+                if (node instanceof TLERNode) {
+                    if (apply) {
+                        ((TLERNode) node).setBufferSizeInMBytes(value);
+                    }
+                    return true;
+                } else if (node instanceof TActiveLERNode) {
+                    if (apply) {
+                        ((TActiveLERNode) node).setBufferSizeInMBytes(value);
+                    }
+                    return true;
+                } else if (node instanceof TLSRNode) {
+                    if (apply) {
+                        ((TLSRNode) node).setBufferSizeInMBytes(value);
+                    }
+                    return true;
+                } else if (node instanceof TActiveLSRNode) {
+                    if (apply) {
+                        ((TActiveLSRNode) node).setBufferSizeInMBytes(value);
+                    }
+                    return true;
+                }
+                return false;
+            case DMGP_SIZE:
+                if (node instanceof TActiveLERNode) {
+                    if (apply) {
+                        ((TActiveLERNode) node).setDMGPSizeInKB(value);
+                    }
+                    return true;
+                } else if (node instanceof TActiveLSRNode) {
+                    if (apply) {
+                        ((TActiveLSRNode) node).setDMGPSizeInKB(value);
+                    }
+                    return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * This class implements a point of the grid: the value of each axis and,
+     * once simulated, its results.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @version 2.0
+     */
+    private static final class TSweepPoint {
+
+        /**
+         * This is the constructor of the class. It creates a new instance of
+         * TSweepPoint that has not been simulated yet.
+         *
+         * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+         * @param index The position of the point in the grid.
+         * @param values The value of each axis in this point.
+         * @since 2.4
+         */
+        TSweepPoint(int index, int[] values) {
+            this.index = index;
+            this.values = values;
+            this.nodeResults = new ArrayList<>();
+            this.wallClockTimeInNs = ZERO;
+            this.simulated = false;
+        }
+
+        private final int index;
+        private final int[] values;
+        private final List<TNodeResult> nodeResults;
+        private long wallClockTimeInNs;
+        // Written by a thread of the pool and read once the pool has
+        // finished, so invokeAll makes it visible.
+        private boolean simulated;
+    }
+
+    /**
+     * This class implements the final value of every stats column of a node
+     * in a point of the grid.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @version 2.0
+     */
+    private static final class TNodeResult {
+
+        /**
+         * This is the constructor of the class. It creates a new instance of
+         * TNodeResult with the current values of the stats of a node.
+         *
+         * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+         * @param node The node.
+         * @param stats The stats of the node.
+         * @since 2.4
+         */
+        TNodeResult(TNode node, TStats stats) {
+            this.nodeID = node.getNodeID();
+            this.nodeName = node.getName();
+            this.columns = stats.getColumns();
+            this.values = new long[this.columns.length];
+            for (int i = ZERO; i < this.columns.length; i++) {
+                this.values[i] = stats.getColumnValue(this.columns[i]);
+            }
+        }
+
+        private final int nodeID;
+        private final String nodeName;
+        private final StatsColumns[] columns;
+        private final long[] values;
+    }
+
+    public static final long NO_VALUE = -1L;
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final long ONE_MILLION = 1000000L;
+    private static final String UTF_8 = "UTF-8";
+    private static final String SEPARATOR = ";";
+    private static final String SPACE = " ";
+    private static final String POINT_HEADER = "point";
+    private static final String NODE_HEADER = "wallClockMs;nodeID;nodeName";
+
+    private final TScene baseScenario;
+    private final List<TSweepAxis> axes;
+    private final List<TSweepPoint> points;
+    private int maxConcurrentPoints;
+    private boolean eventDrivenScheduling;
+    private boolean lockFreePorts;
+    private boolean offHeapDMGP;
+    private final ResourceBundle translations;
+    private final Logger logger = LoggerFactory.getLogger(TParameterSweep.class);
+}
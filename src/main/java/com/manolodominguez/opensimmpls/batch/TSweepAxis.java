@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.batch;
+
+import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import java.util.ResourceBundle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements an axis of the grid of a parameter sweep: a
+ * configuration parameter, the topology element it is applied to and the
+ * values it has to take, one after another.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public class TSweepAxis {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TSweepAxis.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param parameter The parameter to be swept.
+     * @param elementID The ID of the node or link the parameter is applied
+     * to. ALL_ELEMENTS, to apply it to every element the parameter makes sense
+     * for.
+     * @param values The values the parameter has to take. At least one.
+     * @since 2.4
+     */
+    public TSweepAxis(SweepParameters parameter, int elementID, int[] values) {
+        this.translations = ResourceBundle.getBundle(AvailableBundles.T_PARAMETER_SWEEP.getPath());
+        if ((parameter == null) || (values == null) || (values.length == ZERO)) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        this.parameter = parameter;
+        this.elementID = elementID;
+        this.values = values.clone();
+    }
+
+    /**
+     * This method gets the parameter that is swept.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The parameter that is swept.
+     * @since 2.4
+     */
+    public SweepParameters getParameter() {
+        return this.parameter;
+    }
+
+    /**
+     * This method gets the ID of the node or link the parameter is applied
+     * to.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The ID of the node or link the parameter is applied to.
+     * ALL_ELEMENTS, if it is applied to every element the parameter makes
+     * sense for.
+     * @since 2.4
+     */
+    public int getElementID() {
+        return this.elementID;
+    }
+
+    /**
+     * This method tells whether the parameter has to be applied to the
+     * topology element having the specified ID.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param topologyElementID The ID of a node or link.
+     * @return TRUE, if the parameter has to be applied to the element.
+     * Otherwise, FALSE.
+     * @since 2.4
+     */
+    public boolean appliesTo(int topologyElementID) {
+        return (this.elementID == ALL_ELEMENTS) || (this.elementID == topologyElementID);
+    }
+
+    /**
+     * This method gets the number of values the parameter has to take.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The number of values of the axis.
+     * @since 2.4
+     */
+    public int getNumberOfValues() {
+        return this.values.length;
+    }
+
+    /**
+     * This method gets the specified value of the axis.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param index The position of the value in the axis.
+     * @return The value at the specified position.
+     * @since 2.4
+     */
+    public int getValue(int index) {
+        return this.values[index];
+    }
+
+    /**
+     * This method gets the name of the axis, as written in the header of the
+     * results: the name of the parameter, followed by the ID of the element it
+     * is applied to, if any.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The name of the axis.
+     * @since 2.4
+     */
+    public String getAxisName() {
+        if (this.elementID == ALL_ELEMENTS) {
+            return this.parameter.getParameterName();
+        }
+        return this.parameter.getParameterName() + ELEMENT_SEPARATOR + this.elementID;
+    }
+
+    public static final int ALL_ELEMENTS = -1;
+    public static final String ELEMENT_SEPARATOR = "@";
+
+    private static final int ZERO = 0;
+
+    private final SweepParameters parameter;
+    private final int elementID;
+    private final int[] values;
+    private final ResourceBundle translations;
+    private final Logger logger = LoggerFactory.getLogger(TSweepAxis.class);
+}
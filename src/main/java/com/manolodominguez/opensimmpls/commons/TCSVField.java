@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.commons;
+
+/**
+ * This class implements the quoting of fields of the CSV files written by
+ * openSimMPLS, whose fields are separated by semicolons. Free text fields,
+ * such as node names, have to be quoted so that they can be read back as a
+ * single field.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public final class TCSVField {
+
+    /**
+     * This is the constructor of the class. It is private because this class
+     * only has static members.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    private TCSVField() {
+    }
+
+    /**
+     * This method quotes a field of a CSV line if it contains a separator, a
+     * double quote or a line break, so that it can be read back as a single
+     * field. Inner double quotes are doubled.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param field The field to be quoted.
+     * @return The field, quoted if needed.
+     * @since 2.4
+     */
+    public static String quote(String field) {
+        if ((field.indexOf(SEPARATOR) < ZERO) && (field.indexOf(QUOTE_CHAR) < ZERO) && (field.indexOf(LINE_FEED) < ZERO) && (field.indexOf(CARRIAGE_RETURN) < ZERO)) {
+            return field;
+        }
+        return QUOTE + field.replace(QUOTE, QUOTE + QUOTE) + QUOTE;
+    }
+
+    private static final int ZERO = 0;
+    private static final char SEPARATOR = ';';
+    private static final String QUOTE = "\"";
+    private static final char QUOTE_CHAR = '"';
+    private static final char LINE_FEED = '\n';
+    private static final char CARRIAGE_RETURN = '\r';
+}
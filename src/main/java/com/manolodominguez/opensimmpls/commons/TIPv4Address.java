@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.commons;
+
+import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import java.util.ResourceBundle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements the conversions between the dotted decimal notation of
+ * IPv4 addresses and the 32 bits integer representation used internally by
+ * headers, ports, routing tables and DMGP. The first octet is stored in the
+ * most significant byte, so 10.0.0.1 is 0x0A000001. The dotted decimal
+ * notation is only needed to show addresses in the GUI and to store them in
+ * OSM files.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public final class TIPv4Address {
+
+    /**
+     * This is the constructor of the class. It is private because this class
+     * only has static members.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    private TIPv4Address() {
+    }
+
+    /**
+     * This method converts an IPv4 address in dotted decimal notation to its
+     * 32 bits integer representation. It does not use regular expressions nor
+     * creates intermediate objects.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param ipv4Address IPv4 address in dotted decimal notation.
+     * @return the 32 bits integer representation of the IPv4 address.
+     * @throws IllegalArgumentException if the argument is null or is not an
+     * IPv4 address in dotted decimal notation.
+     * @since 2.4
+     */
+    public static int fromString(String ipv4Address) {
+        if (ipv4Address == null) {
+            logger.error(translations.getString("badArgument"));
+            throw new IllegalArgumentException(translations.getString("badArgument"));
+        }
+        int address = ZERO;
+        int octet = ZERO;
+        int digits = ZERO;
+        int octets = ZERO;
+        char character;
+        for (int i = ZERO; i < ipv4Address.length(); i++) {
+            character = ipv4Address.charAt(i);
+            if ((character >= '0') && (character <= '9')) {
+                octet = (octet * TEN) + (character - '0');
+                digits++;
+                if ((digits > MAX_DIGITS_PER_OCTET) || (octet > MAX_OCTET_VALUE)) {
+                    logger.error(translations.getString("notAnIPv4Address"));
+                    throw new IllegalArgumentException(translations.getString("notAnIPv4Address"));
+                }
+            } else if ((character == SEPARATOR) && (digits > ZERO) && (octets < (NUMBER_OF_OCTETS - ONE))) {
+                address = (address << BITS_PER_OCTET) | octet;
+                octets++;
+                octet = ZERO;
+                digits = ZERO;
+            } else {
+                logger.error(translations.getString("notAnIPv4Address"));
+                throw new IllegalArgumentException(translations.getString("notAnIPv4Address"));
+            }
+        }
+        if ((digits == ZERO) || (octets != (NUMBER_OF_OCTETS - ONE))) {
+            logger.error(translations.getString("notAnIPv4Address"));
+            throw new IllegalArgumentException(translations.getString("notAnIPv4Address"));
+        }
+        return (address << BITS_PER_OCTET) | octet;
+    }
+
+    /**
+     * This method converts an IPv4 address in its 32 bits integer
+     * representation to dotted decimal notation.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param ipv4Address the 32 bits integer representation of the IPv4
+     * address.
+     * @return the IPv4 address in dotted decimal notation.
+     * @since 2.4
+     */
+    public static String toString(int ipv4Address) {
+        StringBuilder dottedDecimal = new StringBuilder(MAX_STRING_LENGTH);
+        for (int shift = (NUMBER_OF_OCTETS - ONE) * BITS_PER_OCTET; shift > ZERO; shift -= BITS_PER_OCTET) {
+            dottedDecimal.append((ipv4Address >>> shift) & OCTET_MASK);
+            dottedDecimal.append(SEPARATOR);
+        }
+        dottedDecimal.append(ipv4Address & OCTET_MASK);
+        return dottedDecimal.toString();
+    }
+
+    /**
+     * This method checks whether an IPv4 address can be assigned to a node of
+     * a topology, that is, whether it is in the range 10.0.0.1 -
+     * 10.255.255.254, as the ones generated by TIPv4AddressGenerator.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param ipv4Address the 32 bits integer representation of the IPv4
+     * address.
+     * @return TRUE, if the IPv4 address can be assigned to a node. Otherwise,
+     * FALSE.
+     * @since 2.4
+     */
+    public static boolean isANodeAddress(int ipv4Address) {
+        if ((ipv4Address & NETWORK_MASK) != NODES_NETWORK) {
+            return false; // Nodes addresses are from 10.0.0.0/8
+        }
+        if (ipv4Address == NODES_NETWORK) {
+            return false; // 10.0.0.0 --> Reserved for network address
+        }
+        return ipv4Address != (NODES_NETWORK | ~NETWORK_MASK); // 10.255.255.255 --> Reserved for broadcast address
+    }
+
+    /**
+     * This value (0.0.0.0) is used wherever an IPv4 address has not been
+     * specified or does not exist, as a next hop to an unreachable node. It
+     * is never assigned to a node because all nodes of a topology have an
+     * address of 10.0.0.0/8.
+     */
+    public static final int UNSPECIFIED = 0;
+
+    private static final ResourceBundle translations = ResourceBundle.getBundle(AvailableBundles.T_IPV4_ADDRESS.getPath());
+    private static final Logger logger = LoggerFactory.getLogger(TIPv4Address.class);
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final int TEN = 10;
+    private static final int NUMBER_OF_OCTETS = 4;
+    private static final int BITS_PER_OCTET = 8;
+    private static final int MAX_DIGITS_PER_OCTET = 3;
+    private static final int MAX_OCTET_VALUE = 255;
+    private static final int OCTET_MASK = 0xFF;
+    private static final int MAX_STRING_LENGTH = 15;
+    private static final char SEPARATOR = '.';
+    private static final int NETWORK_MASK = 0xFF000000;
+    private static final int NODES_NETWORK = 0x0A000000;
+}
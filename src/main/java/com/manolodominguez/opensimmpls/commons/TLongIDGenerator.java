@@ -81,6 +81,26 @@ public class TLongIDGenerator {
         return (identifier);
     }
 
+    /**
+     * This method skips the specified number of IDs, leaving the ID generator
+     * as if getNextIdentifier() had been called that number of times.
+     *
+     * @param numberOfIdentifiers the number of IDs to be skipped.
+     * @throws EIDGeneratorOverflow when the ID generator would exceed its
+     * maximum value.
+     * @since 2.4
+     */
+    synchronized public void advanceIdentifier(long numberOfIdentifiers) throws EIDGeneratorOverflow {
+        if (numberOfIdentifiers < TLongIDGenerator.DEFAULT_ID) {
+            logger.error(translations.getString("argumentOutOfRange"));
+            throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
+        } else if (identifier > (Long.MAX_VALUE - numberOfIdentifiers)) {
+            throw new EIDGeneratorOverflow();
+        } else {
+            identifier += numberOfIdentifiers;
+        }
+    }
+
     private long identifier;
     private final ResourceBundle translations;
     private final Logger logger = LoggerFactory.getLogger(TLongIDGenerator.class);
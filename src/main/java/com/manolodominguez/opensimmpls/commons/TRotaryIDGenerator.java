@@ -80,10 +80,28 @@ public class TRotaryIDGenerator {
         }
     }
 
+    /**
+     * This method skips the specified number of IDs, leaving the ID generator
+     * as if getNextIdentifier() had been called that number of times.
+     *
+     * @param numberOfIdentifiers the number of IDs to be skipped.
+     * @since 2.4
+     */
+    synchronized public void advanceIdentifier(long numberOfIdentifiers) {
+        if (numberOfIdentifiers < TRotaryIDGenerator.DEFAULT_ID) {
+            logger.error(translations.getString("argumentOutOfRange"));
+            throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
+        } else {
+            // The generator rotates through Integer.MAX_VALUE + 1 values.
+            identifier = (int) ((identifier + (numberOfIdentifiers % NUMBER_OF_VALUES)) % NUMBER_OF_VALUES);
+        }
+    }
+
     private int identifier;
 
     private final ResourceBundle translations;
     private final Logger logger = LoggerFactory.getLogger(TRotaryIDGenerator.class);
 
     private static final int DEFAULT_ID = 0;
+    private static final long NUMBER_OF_VALUES = Integer.MAX_VALUE + 1L;
 }
@@ -755,7 +755,7 @@ public class JTrafficGeneratorWindow extends JDialog {
         if (this.reconfiguration) {
             this.coordinatesPanel.setEnabled(false);
             this.coordinatesPanel.setToolTipText(null);
-            TNode node = this.topology.getNode(this.trafficGeneratorNode.getTargetIPv4Address());
+            TNode node = this.topology.getNodeWithIPv4Address(this.trafficGeneratorNode.getTargetIPv4Address());
             if (node != null) {
                 this.currentConfigTargetTrafficSinkNode = node.getName();
             }
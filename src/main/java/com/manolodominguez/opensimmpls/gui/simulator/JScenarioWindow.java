@@ -15,7 +15,7 @@
  */
 package com.manolodominguez.opensimmpls.gui.simulator;
 
-import com.manolodominguez.opensimmpls.hardware.timer.EProgressEventGeneratorOnlyAllowASingleListener;
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
 import com.manolodominguez.opensimmpls.hardware.timer.TTimestamp;
 import com.manolodominguez.opensimmpls.io.osm.TOSMSaver;
 import com.manolodominguez.opensimmpls.resources.images.AvailableImages;
@@ -70,6 +70,7 @@ import java.io.File;
 import java.util.Iterator;
 import java.util.ResourceBundle;
 import javax.swing.DefaultComboBoxModel;
+import javax.swing.JCheckBox;
 import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JComboBox;
 import javax.swing.JFileChooser;
@@ -168,6 +169,7 @@ public class JScenarioWindow extends JInternalFrame {
         this.sliderSimulationSpeedInMsPerTick = new JSlider();
         this.labelSimulationSpeedFaster = new JLabel();
         this.labelSimulationSpeedSlower = new JLabel();
+        this.checkBoxFastForward = new JCheckBox();
         this.scrollPaneSimulation = new JScrollPane();
         this.simulationPanel = new JSimulationPanel();
         this.analysisMainContainerPanel = new JPanel();
@@ -908,6 +910,17 @@ public class JScenarioWindow extends JInternalFrame {
         this.labelSimulationSpeedSlower.setForeground(new Color(102, 102, 102));
         this.labelSimulationSpeedSlower.setText(this.translations.getString("VentanaHija.Simulacion.slower"));
         this.simulationToolbarPanel.add(this.labelSimulationSpeedSlower);
+        // FIX: Do not use harcoded values. Use class constants instead
+        this.checkBoxFastForward.setFont(new Font("Dialog", 0, 10));
+        this.checkBoxFastForward.setText(this.translations.getString("VentanaHija.Simulacion.AvanceRapido"));
+        this.checkBoxFastForward.setToolTipText(this.translations.getString("VentanaHija.Simulacion.AvanceRapido.tooltip"));
+        this.checkBoxFastForward.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent evt) {
+                handleClickOnFastForward(evt);
+            }
+        });
+        this.simulationToolbarPanel.add(this.checkBoxFastForward);
         this.simulationMainContainerPanel.add(this.simulationToolbarPanel, BorderLayout.NORTH);
         this.scrollPaneSimulation.setBorder(new BevelBorder(BevelBorder.LOWERED));
         this.simulationPanel.setBorder(new EtchedBorder());
@@ -1021,12 +1034,7 @@ public class JScenarioWindow extends JInternalFrame {
         this.selectedNode = null;
         this.rightClickedElementInDesignPanel = null;
         this.progressEventListener = new TProgressEventListener(this.progressBarSimulation);
-        try {
-            this.scenario.getTopology().getTimer().addProgressEventListener(this.progressEventListener);
-        } catch (EProgressEventGeneratorOnlyAllowASingleListener e) {
-            // FIX: This is ugly
-            e.printStackTrace();
-        }
+        this.scenario.getTopology().getTimer().addProgressEventListener(this.progressEventListener);
         // FIX: Do not use harcoded values. Use class constants instead
         this.sliderSimulationSpeedInMsPerTick.setValue(150);
         // FIX: Do not use harcoded values. Use class constants instead
@@ -1336,6 +1344,18 @@ public class JScenarioWindow extends JInternalFrame {
         this.simulationPanel.setSimulationSpeedInMsPerTick(this.sliderSimulationSpeedInMsPerTick.getValue());
     }
 
+    /**
+     * This method is called when the user enables or disables fast forward in
+     * the simulation panel.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return evt The event that triggers this method
+     * @since 2.4
+     */
+    private void handleClickOnFastForward(ActionEvent evt) {
+        this.simulationPanel.setFastForward(this.checkBoxFastForward.isSelected());
+    }
+
     /**
      * This method is called when the user does click on "Hide link names"
      * option that is shown when a right click on the background of design panel
@@ -1454,12 +1474,7 @@ public class JScenarioWindow extends JInternalFrame {
         this.selectedNode = null;
         this.rightClickedElementInDesignPanel = null;
         this.progressEventListener = new TProgressEventListener(this.progressBarSimulation);
-        try {
-            scenario.getTopology().getTimer().addProgressEventListener(this.progressEventListener);
-        } catch (EProgressEventGeneratorOnlyAllowASingleListener e) {
-            // FIX: this is ugly
-            e.printStackTrace();
-        }
+        scenario.getTopology().getTimer().addProgressEventListener(this.progressEventListener);
         // FIX: Do not use harcoded values. Use class constants instead
         this.sliderOptionsSimulationLengthMs.setValue((int) (simulationLength / 1000000));
         // FIX: Do not use harcoded values. Use class constants instead
@@ -1803,7 +1818,7 @@ public class JScenarioWindow extends JInternalFrame {
             this.setCursor(new Cursor(Cursor.HAND_CURSOR));
             if (topologyElement.getElementType() == TTopologyElement.NODE) {
                 TNode node = (TNode) topologyElement;
-                this.designPanel.setToolTipText(this.translations.getString("JVentanaHija.PanelDisenio.IP") + node.getIPv4Address());
+                this.designPanel.setToolTipText(this.translations.getString("JVentanaHija.PanelDisenio.IP") + TIPv4Address.toString(node.getIPv4Address()));
             } else if (topologyElement.getElementType() == TTopologyElement.LINK) {
                 TLink link = (TLink) topologyElement;
                 this.designPanel.setToolTipText(this.translations.getString("JVentanaHija.panelDisenio.Retardo") + link.getDelay() + this.translations.getString("JVentanaHija.panelDisenio.ns"));
@@ -2472,6 +2487,12 @@ public class JScenarioWindow extends JInternalFrame {
      * @since 2.0
      */
     public void close() {
+        // The simulation could still be running. It is stopped and the
+        // current tick is waited for, so that no topology element is using
+        // the execution backend when it is shut down.
+        this.scenario.getTopology().getTimer().reset();
+        this.scenario.getTopology().getTimer().waitForCompletion();
+        this.scenario.getTopology().getTimer().shutdownExecutionBackend();
         this.setVisible(false);
         this.dispose();
     }
@@ -2787,6 +2808,7 @@ public class JScenarioWindow extends JInternalFrame {
     private JLabel labelScenarioTitle;
     private JLabel labelSimulationSpeedFaster;
     private JLabel labelSimulationSpeedSlower;
+    private JCheckBox checkBoxFastForward;
     private JLabel labelElementToAnalize;
     private JLabel labelOptionsNsTick;
     private JLabel iconContainterStartSimulation;
@@ -19,6 +19,7 @@ import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
 import com.manolodominguez.opensimmpls.resources.images.AvailableImages;
 import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
 import com.manolodominguez.opensimmpls.scenario.TInnerLink;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.OverflowPolicies;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventNodeCongested;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketDiscarded;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketGenerated;
@@ -28,6 +29,7 @@ import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEven
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketSent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketSwitched;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventRingBuffer;
 import com.manolodominguez.opensimmpls.scenario.TTopology;
 import com.manolodominguez.opensimmpls.scenario.TLink;
 import com.manolodominguez.opensimmpls.scenario.TNode;
@@ -47,7 +49,13 @@ import java.awt.image.BufferedImage;
 import java.util.Iterator;
 import java.util.ResourceBundle;
 import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.swing.JPanel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * This class implements a panel that shows the simulation of a given scenario.
@@ -107,6 +115,9 @@ public class JSimulationPanel extends JPanel {
         this.simulationSpeedInMsPerTick = 0;
         this.showLegend = false;
         this.eventsBuffersSemaphore = new TSemaphore();
+        this.incomingEvents = new TSimulationEventRingBuffer(INCOMING_EVENTS_CAPACITY, OverflowPolicies.BLOCK);
+        this.framePending = new AtomicBoolean(false);
+        this.fastForward = false;
     }
 
     /**
@@ -116,6 +127,7 @@ public class JSimulationPanel extends JPanel {
      * @since 2.0
      */
     public void reset() {
+        this.incomingEvents.clear();
         this.eventsBuffersSemaphore.setRed();
         Iterator eventsIterator = null;
         eventsIterator = this.eventsBuffer.iterator();
@@ -451,7 +463,9 @@ public class JSimulationPanel extends JPanel {
      * This method set the number of Ms between subsequents repaints of the
      * simulation. In fact this allow the user to set the simulation speed that,
      * by default is too fast as to see something clearly in the simulation
-     * panel.
+     * panel. Unless fast forward is enabled, a tick is painted in each frame
+     * and the simulation waits only when the buffer of incoming events is
+     * full.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @param simulationSpeedInMsPerTick The number of Ms that the simulation
@@ -462,9 +476,42 @@ public class JSimulationPanel extends JPanel {
         this.simulationSpeedInMsPerTick = simulationSpeedInMsPerTick;
     }
 
+    /**
+     * This method enables or disables fast forward. In fast forward, the
+     * simulation runs at full speed and, in each frame, the panel paints the
+     * last complete tick it has received; incoming events that do not fit in
+     * the buffer are sampled instead of making the simulation wait.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param fastForward TRUE, to enable fast forward. FALSE, to paint every
+     * tick.
+     * @since 2.4
+     */
+    public void setFastForward(boolean fastForward) {
+        this.fastForward = fastForward;
+        if (fastForward) {
+            this.incomingEvents.setOverflowPolicy(OverflowPolicies.SAMPLE);
+        } else {
+            this.incomingEvents.setOverflowPolicy(OverflowPolicies.BLOCK);
+        }
+    }
+
+    /**
+     * This method gets whether fast forward is enabled or not.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return TRUE, if fast forward is enabled. Otherwise, FALSE.
+     * @since 2.4
+     */
+    public boolean getFastForward() {
+        return this.fastForward;
+    }
+
     /**
      * This method queues a new simulation event to be painted in the simulation
-     * panel when needed.
+     * panel when needed. It is called from simulation threads and returns
+     * immediately unless the buffer of incoming events is full and fast
+     * forward is disabled.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @param simulationEvent a new simulation event to be painted in the
@@ -472,36 +519,98 @@ public class JSimulationPanel extends JPanel {
      * @since 2.0
      */
     public void addEvent(TSimulationEvent simulationEvent) {
+        this.incomingEvents.put(simulationEvent);
+        if (this.framePending.compareAndSet(false, true)) {
+            scheduleNextFrame(ZERO);
+        }
+    }
+
+    /**
+     * This method schedules the next frame, that will take the events that
+     * are waiting in the buffer of incoming events and repaint the panel.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param delayInMs Number of milliseconds to wait before painting the
+     * frame.
+     * @since 2.4
+     */
+    private void scheduleNextFrame(long delayInMs) {
+        FRAMES_SCHEDULER.schedule(this::paintNextFrame, delayInMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * This method takes events from the buffer of incoming events until a
+     * tick is complete or, in fast forward, until the buffer is empty. Then,
+     * it repaints the panel and schedules the next frame if there are events
+     * left. It runs in the frames thread, never in the simulation ones. If
+     * painting fails, the error is logged and the next frame is scheduled
+     * anyway so that the panel does not stop being refreshed.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    private void paintNextFrame() {
+        try {
+            boolean tickCompleted = false;
+            int remainingEvents = this.incomingEvents.getCapacity();
+            TSimulationEvent simulationEvent = this.incomingEvents.poll();
+            while (simulationEvent != null) {
+                if (queueEvent(simulationEvent)) {
+                    tickCompleted = true;
+                    if (!this.fastForward) {
+                        break;
+                    }
+                }
+                remainingEvents--;
+                if (remainingEvents == ZERO) {
+                    break;
+                }
+                simulationEvent = this.incomingEvents.poll();
+            }
+            if (tickCompleted) {
+                repaint();
+            }
+        } catch (RuntimeException e) {
+            this.logger.error(e.getMessage(), e);
+        } finally {
+            // Otherwise, framePending would remain set and no more frames
+            // would ever be painted.
+            if (this.incomingEvents.size() > ZERO) {
+                scheduleNextFrame(this.simulationSpeedInMsPerTick);
+            } else {
+                this.framePending.set(false);
+                // An event could have been added after the buffer was checked.
+                if ((this.incomingEvents.size() > ZERO) && this.framePending.compareAndSet(false, true)) {
+                    scheduleNextFrame(this.simulationSpeedInMsPerTick);
+                }
+            }
+        }
+    }
+
+    /**
+     * This method adds a simulation event to the events of the current tick.
+     * If the event belongs to a later tick, the events of the current tick
+     * become the ones to be painted.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param simulationEvent The simulation event to be added.
+     * @return TRUE, if a tick has been completed. Otherwise, FALSE.
+     * @since 2.4
+     */
+    private boolean queueEvent(TSimulationEvent simulationEvent) {
         this.eventsBuffersSemaphore.setRed();
         if (simulationEvent.getInstant() <= this.currentTick) {
             this.eventsBuffer.add(simulationEvent);
             this.eventsBuffersSemaphore.setGreen();
-        } else {
-            this.currentTick = simulationEvent.getInstant();
-            Iterator simulationEventsBufferIterator = this.simulationBuffer.iterator();
-            TSimulationEvent evento = null;
-            while (simulationEventsBufferIterator.hasNext()) {
-                simulationEventsBufferIterator.next();
-                simulationEventsBufferIterator.remove();
-            }
-            simulationEventsBufferIterator = this.eventsBuffer.iterator();
-            evento = null;
-            while (simulationEventsBufferIterator.hasNext()) {
-                evento = (TSimulationEvent) simulationEventsBufferIterator.next();
-                this.simulationBuffer.add(evento);
-                simulationEventsBufferIterator.remove();
-            }
-            this.eventsBuffersSemaphore.setGreen();
-            repaint();
-            this.eventsBuffer.add(simulationEvent);
-            try {
-                // FIX: Do not use static access to sleep() method
-                Thread.currentThread().sleep(this.simulationSpeedInMsPerTick);
-            } catch (Exception e) {
-                // FIX: This is ugly.
-                e.printStackTrace();
-            }
+            return false;
         }
+        this.currentTick = simulationEvent.getInstant();
+        this.simulationBuffer.clear();
+        this.simulationBuffer.addAll(this.eventsBuffer);
+        this.eventsBuffer.clear();
+        this.eventsBuffer.add(simulationEvent);
+        this.eventsBuffersSemaphore.setGreen();
+        return true;
     }
 
     /**
@@ -978,9 +1087,23 @@ public class JSimulationPanel extends JPanel {
     private TreeSet<TSimulationEvent> simulationBuffer;
     private long currentTick;
     private TSemaphore eventsBuffersSemaphore;
-    private int simulationSpeedInMsPerTick;
+    private volatile int simulationSpeedInMsPerTick;
+    private volatile boolean fastForward;
+    private TSimulationEventRingBuffer incomingEvents;
+    private AtomicBoolean framePending;
     private boolean showLegend;
     private ResourceBundle translations;
+    private final Logger logger = LoggerFactory.getLogger(JSimulationPanel.class);
+
+    private static final int ZERO = 0;
+    // Maximum number of events the simulation can get ahead of the panel.
+    private static final int INCOMING_EVENTS_CAPACITY = 4096;
+    // A single thread paints the frames of every simulation panel.
+    private static final ScheduledExecutorService FRAMES_SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "JSimulationPanel frames");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     private static Color LEGEND_BACKGROUND_COLOR = new Color(255, 255, 255);
     private static Color LINK_NAME_COLOR = new Color(255, 255, 230);
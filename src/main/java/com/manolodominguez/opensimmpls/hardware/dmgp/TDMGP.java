@@ -15,19 +15,25 @@
  */
 package com.manolodominguez.opensimmpls.hardware.dmgp;
 
-import java.util.TreeSet;
+import java.util.HashMap;
 import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
 import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
 import com.manolodominguez.opensimmpls.commons.TRotaryIDGenerator;
 import com.manolodominguez.opensimmpls.commons.TSemaphore;
 import com.manolodominguez.opensimmpls.commons.UnitsTranslations;
 import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import java.nio.ByteBuffer;
 import java.util.ResourceBundle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * This class implements a DMGP memory to save GoS-aware PDUs temporarily.
+ * Flows are indexed by their identifier. The monitor of the DMGP only guards
+ * that index; packets of each flow are guarded by the monitor of the flow, so
+ * requests for packets of different flows are not serialized. Optionally,
+ * packets can be stored off-heap, in a direct buffer whose size is exactly the
+ * size of the DMGP.
  *
  * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
  * @version 2.0
@@ -45,10 +51,12 @@ public class TDMGP {
         translations = ResourceBundle.getBundle(AvailableBundles.T_DMGP.getPath());
         semaphore = new TSemaphore();
         idGenerator = new TRotaryIDGenerator();
-        flows = new TreeSet<>();
+        flows = new HashMap<>();
         totalAvailablePercentage = DEFAULT_TOTAL_AVAILABLE_PERCENTAGE;
         totalDMGPSizeInKB = DEFAULT_TOTAL_DMGP_SIZE_IN_KB;
         totalAssignedOctects = DEFAULT_TOTAL_ASSIGNED_OCTECTS;
+        offHeapStorage = false;
+        slab = null;
     }
 
     /**
@@ -78,6 +86,35 @@ public class TDMGP {
         return totalDMGPSizeInKB;
     }
 
+    /**
+     * This method sets whether GoS packets have to be stored off-heap. If so,
+     * a direct buffer of the size of the DMGP is allocated and each flow
+     * stores its packets, serialized, in the region of that buffer that
+     * corresponds to the octets assigned to it. So, the heap used by the DMGP
+     * does not depend on the packets being stored. Otherwise, packets are
+     * stored as objects. Changing it empties the DMGP memory.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param offHeapStorage TRUE, if GoS packets have to be stored off-heap.
+     * Otherwise, FALSE.
+     * @since 2.4
+     */
+    public void setOffHeapStorage(boolean offHeapStorage) {
+        this.offHeapStorage = offHeapStorage;
+        reset();
+    }
+
+    /**
+     * This method checks whether GoS packets are stored off-heap.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return TRUE, if GoS packets are stored off-heap. Otherwise, FALSE.
+     * @since 2.4
+     */
+    public boolean isOffHeapStorage() {
+        return offHeapStorage;
+    }
+
     /**
      * This method look for a packet tagged as GoS within the DMGP memory.
      *
@@ -87,20 +124,11 @@ public class TDMGP {
      * @return The packet, if in the DMGP. NULL on the contrary.
      * @since 2.0
      */
-    public TMPLSPDU getPacket(int globalFlowID, int packetGoSGlobalUniqueID) {
-        TMPLSPDU wantedPacket = null;
+    public TMPLSPDU getPacket(int globalFlowID, long packetGoSGlobalUniqueID) {
         TDMGPFlowEntry requestedDMGPFlowEntry = getFlow(globalFlowID);
         // If the requested globalFlowID is already created...
         if (requestedDMGPFlowEntry != null) {
-            semaphore.setRed();
-            for (TDMGPEntry dmgpEntry : requestedDMGPFlowEntry.getEntries()) {
-                if (dmgpEntry.getPacketGoSGlobalUniqueIdentifier() == packetGoSGlobalUniqueID) {
-                    wantedPacket = dmgpEntry.getPacketClone();
-                    semaphore.setGreen();
-                    return wantedPacket;
-                }
-            }
-            semaphore.setGreen();
+            return requestedDMGPFlowEntry.getPacketClone(packetGoSGlobalUniqueID);
         }
         return null;
     }
@@ -141,9 +169,14 @@ public class TDMGP {
         flows = null;
         semaphore = new TSemaphore();
         idGenerator = new TRotaryIDGenerator();
-        flows = new TreeSet<>();
+        flows = new HashMap<>();
         totalAvailablePercentage = DEFAULT_TOTAL_AVAILABLE_PERCENTAGE;
         totalAssignedOctects = DEFAULT_TOTAL_ASSIGNED_OCTECTS;
+        if (!offHeapStorage) {
+            slab = null;
+        } else if ((slab == null) || (slab.capacity() != getDMGPSizeInOctects())) {
+            slab = ByteBuffer.allocateDirect(getDMGPSizeInOctects());
+        }
     }
 
     private int getDMGPSizeInOctects() {
@@ -156,21 +189,16 @@ public class TDMGP {
             throw new IllegalArgumentException(translations.getString("badArgument"));
         }
         TDMGPFlowEntry dmgpFlowEntry = null;
-        int globalFlowID = packet.getIPv4Header().getOriginIPv4Address().hashCode();
+        int globalFlowID = packet.getIPv4Header().getOriginIPv4Address();
         dmgpFlowEntry = getFlow(globalFlowID);
         return dmgpFlowEntry;
     }
 
     private TDMGPFlowEntry getFlow(int globalFlowID) {
         semaphore.setRed();
-        for (TDMGPFlowEntry dmgpFlowEntry : flows) {
-            if (dmgpFlowEntry.getFlowID() == globalFlowID) {
-                semaphore.setGreen();
-                return dmgpFlowEntry;
-            }
-        }
+        TDMGPFlowEntry dmgpFlowEntry = flows.get(globalFlowID);
         semaphore.setGreen();
-        return null;
+        return dmgpFlowEntry;
     }
 
     private TDMGPFlowEntry createFlow(TAbstractPDU packet) {
@@ -179,21 +207,29 @@ public class TDMGP {
             throw new IllegalArgumentException(translations.getString("badArgument"));
         }
         semaphore.setRed();
-        TDMGPFlowEntry dmgpFlowEntry = null;
-        int globalFlowID = packet.getIPv4Header().getOriginIPv4Address().hashCode();
+        int globalFlowID = packet.getIPv4Header().getOriginIPv4Address();
+        TDMGPFlowEntry dmgpFlowEntry = flows.get(globalFlowID);
+        if (dmgpFlowEntry != null) { // Created concurrently
+            semaphore.setGreen();
+            return dmgpFlowEntry;
+        }
         int percentageToBeAssigned = ZERO;
         int octectsToBeAssigned = ZERO;
         if (totalAssignedOctects < getDMGPSizeInOctects()) {
             percentageToBeAssigned = getPercentageToBeAssigned(packet);
             octectsToBeAssigned = getOctectsToBeAssigned(packet);
             if (octectsToBeAssigned > ZERO) {
+                int slabOffset = totalAssignedOctects;
                 totalAssignedOctects += octectsToBeAssigned;
                 totalAvailablePercentage -= percentageToBeAssigned;
                 dmgpFlowEntry = new TDMGPFlowEntry(idGenerator.getNextIdentifier());
                 dmgpFlowEntry.setFlowID(globalFlowID);
                 dmgpFlowEntry.setAssignedPercentage(percentageToBeAssigned);
                 dmgpFlowEntry.setAssignedOctets(octectsToBeAssigned);
-                flows.add(dmgpFlowEntry);
+                if (slab != null) {
+                    dmgpFlowEntry.setSlab(slab, slabOffset);
+                }
+                flows.put(globalFlowID, dmgpFlowEntry);
                 semaphore.setGreen();
                 return dmgpFlowEntry;
             }
@@ -276,10 +312,12 @@ public class TDMGP {
 
     private TSemaphore semaphore;
     private TRotaryIDGenerator idGenerator;
-    private TreeSet<TDMGPFlowEntry> flows;
+    private HashMap<Integer, TDMGPFlowEntry> flows;
     private int totalAvailablePercentage;
     private int totalDMGPSizeInKB;
     private int totalAssignedOctects;
+    private boolean offHeapStorage;
+    private ByteBuffer slab;
 
     private final ResourceBundle translations;
     private final Logger logger = LoggerFactory.getLogger(TDMGP.class);
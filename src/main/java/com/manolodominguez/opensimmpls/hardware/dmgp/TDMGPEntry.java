@@ -17,6 +17,7 @@ package com.manolodominguez.opensimmpls.hardware.dmgp;
 
 import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
 import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import java.nio.ByteBuffer;
 import java.util.ResourceBundle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,7 +45,12 @@ public class TDMGPEntry implements Comparable<TDMGPEntry> {
             throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
         }
         packetGoSGlobalUniqueIdentifier = DEFAULT_PACKETID;
+        packetSizeInOctets = DEFAULT_PACKET_SIZE;
         packet = null;
+        slab = null;
+        slabPosition = DEFAULT_SLAB_POSITION;
+        evicted = false;
+        newerEntry = null;
         this.arrivalOrder = arrivalOrder;
     }
 
@@ -55,7 +61,7 @@ public class TDMGPEntry implements Comparable<TDMGPEntry> {
      * @return The identifier of the GoS packet.
      * @since 2.0
      */
-    public int getPacketGoSGlobalUniqueIdentifier() {
+    public long getPacketGoSGlobalUniqueIdentifier() {
         if (packetGoSGlobalUniqueIdentifier == DEFAULT_PACKETID) {
             logger.error(translations.getString("attributeNotInitialized"));
             throw new RuntimeException(translations.getString("attributeNotInitialized"));
@@ -64,13 +70,38 @@ public class TDMGPEntry implements Comparable<TDMGPEntry> {
     }
 
     /**
-     * This method obtains the GoS packet that is stored in this entry of the
-     * DMGP memory.
+     * This method obtains the size of the GoS packet stored in this entry, as
+     * it was when the packet was inserted.
      *
-     * @return The stored GoS packet.
+     * @return The size of the GoS packet, in octets.
+     * @since 2.4
+     */
+    public int getPacketSize() {
+        if (packetSizeInOctets == DEFAULT_PACKET_SIZE) {
+            logger.error(translations.getString("attributeNotInitialized"));
+            throw new RuntimeException(translations.getString("attributeNotInitialized"));
+        }
+        return packetSizeInOctets;
+    }
+
+    /**
+     * This method obtains a clone of the GoS packet that is stored in this
+     * entry of the DMGP memory. The clone shares the TCP payload and the
+     * MPLS label stack with the stored packet until it is modified, so the
+     * stored packet remains intact. If the packet is stored in a slab, it is
+     * rebuilt from there.
+     *
+     * @return The stored GoS packet. NULL, if the entry has been evicted from
+     * the DMGP memory, as its region of the slab could have been reused.
      * @since 2.0
      */
-    public TMPLSPDU getPacketClone() {
+    public synchronized TMPLSPDU getPacketClone() {
+        if (evicted) {
+            return null;
+        }
+        if (slab != null) {
+            return TMPLSPDU.readFrom(slab, slabPosition);
+        }
         if (packet == null) {
             logger.error(translations.getString("attributeNotInitialized"));
             throw new RuntimeException(translations.getString("attributeNotInitialized"));
@@ -90,9 +121,74 @@ public class TDMGPEntry implements Comparable<TDMGPEntry> {
             throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
         }
         packet = mplsPacket.getAClon();
+        packetSizeInOctets = packet.getSize();
+        packetGoSGlobalUniqueIdentifier = mplsPacket.getIPv4Header().getGoSGlobalUniqueIdentifier();
+    }
+
+    /**
+     * This method stores the GoS packet in a slab of memory shared by all
+     * entries of the DMGP memory, instead of keeping it as an object.
+     *
+     * @param mplsPacket The packet to be inserted in this entry.
+     * @param slab The slab where the packet is going to be stored.
+     * @param slabPosition The position of the slab where the packet is going
+     * to be stored. There must be, at least, mplsPacket.getSerializedSize()
+     * free octets from this position.
+     * @since 2.4
+     */
+    public void setPacket(TMPLSPDU mplsPacket, ByteBuffer slab, int slabPosition) {
+        if ((mplsPacket == null) || (slab == null)) {
+            logger.error(translations.getString("argumentOutOfRange"));
+            throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
+        }
+        if ((slabPosition < ZERO) || ((slabPosition + mplsPacket.getSerializedSize()) > slab.capacity())) {
+            logger.error(translations.getString("argumentOutOfRange"));
+            throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
+        }
+        mplsPacket.writeTo(slab, slabPosition);
+        this.slab = slab;
+        this.slabPosition = slabPosition;
+        packet = null;
+        packetSizeInOctets = mplsPacket.getSize();
         packetGoSGlobalUniqueIdentifier = mplsPacket.getIPv4Header().getGoSGlobalUniqueIdentifier();
     }
 
+    /**
+     * This method marks this entry as evicted from the DMGP memory and
+     * releases the stored packet. It waits for any clone being read, so the
+     * region of the slab can be reused as soon as it returns.
+     *
+     * @since 2.4
+     */
+    synchronized void evict() {
+        evicted = true;
+        packet = null;
+        slab = null;
+        slabPosition = DEFAULT_SLAB_POSITION;
+    }
+
+    /**
+     * This method checks whether this entry has been evicted from the DMGP
+     * memory.
+     *
+     * @return TRUE, if the entry has been evicted. Otherwise, FALSE.
+     * @since 2.4
+     */
+    public synchronized boolean isEvicted() {
+        return evicted;
+    }
+
+    /**
+     * This method obtains the position of the slab where the GoS packet of this
+     * entry is stored.
+     *
+     * @return The position of the slab where the GoS packet is stored.
+     * @since 2.4
+     */
+    int getSlabPosition() {
+        return slabPosition;
+    }
+
     /**
      * This method allow estabishing the order number in the complete DMGP
      * memory.
@@ -104,6 +200,31 @@ public class TDMGPEntry implements Comparable<TDMGPEntry> {
         return arrivalOrder;
     }
 
+    /**
+     * This method obtains the entry of the same flow that arrived to the DMGP
+     * memory just after this one. Entries of a flow are linked in arrival
+     * order so that the oldest one can be released without searching it.
+     *
+     * @return The next newer entry of the same flow. NULL if this is the newest
+     * one.
+     * @since 2.4
+     */
+    TDMGPEntry getNewerEntry() {
+        return newerEntry;
+    }
+
+    /**
+     * This method establishes the entry of the same flow that arrived to the
+     * DMGP memory just after this one.
+     *
+     * @param newerEntry The next newer entry of the same flow. NULL if this is
+     * the newest one.
+     * @since 2.4
+     */
+    void setNewerEntry(TDMGPEntry newerEntry) {
+        this.newerEntry = newerEntry;
+    }
+
     /**
      * This method compares this DMGP entry with another to establish the oder.
      *
@@ -130,12 +251,19 @@ public class TDMGPEntry implements Comparable<TDMGPEntry> {
     private static final int THIS_LOWER = -1;
     private static final int THIS_EQUAL = 0;
     private static final int THIS_GREATER = 1;
-    private static final int DEFAULT_PACKETID = 0;
+    private static final long DEFAULT_PACKETID = 0L;
+    private static final int DEFAULT_PACKET_SIZE = -1;
+    private static final int DEFAULT_SLAB_POSITION = -1;
     private static final int ZERO = 0;
 
-    private int packetGoSGlobalUniqueIdentifier;
+    private long packetGoSGlobalUniqueIdentifier;
+    private int packetSizeInOctets;
     private final int arrivalOrder;
     private TMPLSPDU packet;
+    private ByteBuffer slab;
+    private int slabPosition;
+    private boolean evicted;
+    private TDMGPEntry newerEntry;
     private final ResourceBundle translations;
     private final Logger logger = LoggerFactory.getLogger(TDMGPEntry.class);
 }
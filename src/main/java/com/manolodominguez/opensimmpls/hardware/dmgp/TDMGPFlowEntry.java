@@ -15,19 +15,26 @@
  */
 package com.manolodominguez.opensimmpls.hardware.dmgp;
 
-import java.util.Iterator;
-import java.util.TreeSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
 import com.manolodominguez.opensimmpls.commons.TRotaryIDGenerator;
 import com.manolodominguez.opensimmpls.commons.TSemaphore;
 import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import java.nio.ByteBuffer;
 import java.util.ResourceBundle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * This class implements a flow entry for the DMGP memory. A flow includes all
- * packets that shares the same origin and target nodes.
+ * packets that shares the same origin and target nodes. Packets are indexed by
+ * their GoS global unique identifier and linked in arrival order, so both
+ * looking for a packet and releasing the oldest one do not depend on the
+ * number of packets stored. Optionally, packets can be stored in a region of
+ * a slab instead of as objects. The region is used as a ring, in the same
+ * order packets are released.
  *
  * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
  * @version 2.0
@@ -51,7 +58,13 @@ public class TDMGPFlowEntry implements Comparable<TDMGPFlowEntry> {
         assignedPercentage = DEFAULT_ASSIGNED_PERCENTAGE;
         assignedOctets = DEFAULT_ASSIGNED_OCTECTS;
         usedOctets = DEFAULT_USED_OCTECTS;
-        entries = new TreeSet<>();
+        entriesByPacketID = new HashMap<>();
+        oldestEntry = null;
+        newestEntry = null;
+        numberOfEntries = ZERO;
+        slab = null;
+        slabOffset = ZERO;
+        ringHead = ZERO;
         semaphore = new TSemaphore();
         idGenerator = new TRotaryIDGenerator();
     }
@@ -167,15 +180,72 @@ public class TDMGPFlowEntry implements Comparable<TDMGPFlowEntry> {
     }
 
     /**
-     * This method obtains the tree that contains all the packets of this flow.
+     * This method establishes the region of a slab where the packets of this
+     * flow are going to be stored, instead of keeping them as objects. The
+     * region starts at the specified offset and its size is the number of
+     * octets assigned to this flow, so this has to be set before.
      *
-     * @return The tree containing all the packets of this flow.
+     * @param slab The slab where the packets of this flow are going to be
+     * stored.
+     * @param slabOffset The first position of the region assigned to this
+     * flow.
+     * @since 2.4
+     */
+    public void setSlab(ByteBuffer slab, int slabOffset) {
+        if (slab == null) {
+            logger.error(translations.getString("badArgument"));
+            throw new IllegalArgumentException(translations.getString("badArgument"));
+        }
+        if ((slabOffset < ZERO) || ((slabOffset + getAssignedOctets()) > slab.capacity())) {
+            logger.error(translations.getString("argumentOutOfRange"));
+            throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
+        }
+        semaphore.setRed();
+        // Packets already stored as objects are released.
+        while (oldestEntry != null) {
+            usedOctets -= removeOldestEntry().getPacketSize();
+        }
+        this.slab = slab;
+        this.slabOffset = slabOffset;
+        ringHead = ZERO;
+        semaphore.setGreen();
+    }
+
+    /**
+     * This method obtains all the entries of this flow, from the oldest to the
+     * newest one.
+     *
+     * @return A list containing all the entries of this flow.
      * @since 2.0
      */
-    public TreeSet<TDMGPEntry> getEntries() {
+    public List<TDMGPEntry> getEntries() {
+        semaphore.setRed();
+        List<TDMGPEntry> entries = new ArrayList<>(numberOfEntries);
+        for (TDMGPEntry dmgpEntry = oldestEntry; dmgpEntry != null; dmgpEntry = dmgpEntry.getNewerEntry()) {
+            entries.add(dmgpEntry);
+        }
+        semaphore.setGreen();
         return entries;
     }
 
+    /**
+     * This method look for a packet of this flow within the DMGP memory.
+     *
+     * @param packetGoSGlobalUniqueID Identifier of the packet.
+     * @return A clone of the packet, if stored. NULL on the contrary.
+     * @since 2.4
+     */
+    public TMPLSPDU getPacketClone(long packetGoSGlobalUniqueID) {
+        TMPLSPDU wantedPacket = null;
+        semaphore.setRed();
+        TDMGPEntry dmgpEntry = entriesByPacketID.get(packetGoSGlobalUniqueID);
+        if (dmgpEntry != null) {
+            wantedPacket = dmgpEntry.getPacketClone();
+        }
+        semaphore.setGreen();
+        return wantedPacket;
+    }
+
     /**
      * This method contains the arrivalOrder of incoming to the DMGP.
      *
@@ -203,16 +273,69 @@ public class TDMGPFlowEntry implements Comparable<TDMGPFlowEntry> {
             throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
         }
         int releasedOctets = ZERO;
-        Iterator<TDMGPEntry> entriesIterator = entries.iterator();
-        TDMGPEntry dmgpEntry = null;
-        while ((entriesIterator.hasNext()) && (releasedOctets < octetsToBeReleased)) {
-            dmgpEntry = entriesIterator.next();
-            releasedOctets += dmgpEntry.getPacketClone().getSize();
-            entriesIterator.remove();
+        while ((oldestEntry != null) && (releasedOctets < octetsToBeReleased)) {
+            releasedOctets += removeOldestEntry().getPacketSize();
         }
         usedOctets -= releasedOctets;
     }
 
+    private void appendEntry(TDMGPEntry dmgpEntry) {
+        if (newestEntry == null) {
+            oldestEntry = dmgpEntry;
+        } else {
+            newestEntry.setNewerEntry(dmgpEntry);
+        }
+        newestEntry = dmgpEntry;
+        numberOfEntries++;
+        // If the same packet is stored more than once, the newest copy is
+        // indexed. Older copies are released before it.
+        entriesByPacketID.put(dmgpEntry.getPacketGoSGlobalUniqueIdentifier(), dmgpEntry);
+    }
+
+    private TDMGPEntry removeOldestEntry() {
+        TDMGPEntry dmgpEntry = oldestEntry;
+        oldestEntry = dmgpEntry.getNewerEntry();
+        if (oldestEntry == null) {
+            newestEntry = null;
+            ringHead = ZERO;
+        }
+        dmgpEntry.setNewerEntry(null);
+        numberOfEntries--;
+        entriesByPacketID.remove(dmgpEntry.getPacketGoSGlobalUniqueIdentifier(), dmgpEntry);
+        // Entries returned by getEntries() must not read the region of the
+        // slab once it can be reused.
+        dmgpEntry.evict();
+        return dmgpEntry;
+    }
+
+    private int allocateInSlab(int serializedSize) {
+        int ringPosition = getFreeRingPosition(serializedSize);
+        while (ringPosition == NO_FREE_RING_POSITION) {
+            usedOctets -= removeOldestEntry().getPacketSize();
+            ringPosition = getFreeRingPosition(serializedSize);
+        }
+        ringHead = ringPosition + serializedSize;
+        return slabOffset + ringPosition;
+    }
+
+    private int getFreeRingPosition(int serializedSize) {
+        if (oldestEntry == null) {
+            return ZERO;
+        }
+        int ringTail = oldestEntry.getSlabPosition() - slabOffset;
+        if (ringHead > ringTail) {
+            if ((ringHead + serializedSize) <= assignedOctets) {
+                return ringHead;
+            }
+            if (serializedSize <= ringTail) {
+                return ZERO; // Wraps around
+            }
+        } else if ((ringHead + serializedSize) <= ringTail) {
+            return ringHead;
+        }
+        return NO_FREE_RING_POSITION;
+    }
+
     /**
      * This method inserts a packet that belongs to this flow, in the tree of
      * packets. If there is available space, the packet is inserted. Otherwise
@@ -231,19 +354,23 @@ public class TDMGPFlowEntry implements Comparable<TDMGPFlowEntry> {
         }
         semaphore.setRed();
         int availableOctets = assignedOctets - usedOctets;
-        if (assignedOctets >= mplsPacket.getSize()) {
-            if (availableOctets >= mplsPacket.getSize()) {
-                TDMGPEntry dmgpEntry = new TDMGPEntry(idGenerator.getNextIdentifier());
+        int packetSize = mplsPacket.getSize();
+        int serializedSize = ZERO;
+        if (slab != null) {
+            serializedSize = mplsPacket.getSerializedSize();
+        }
+        if ((assignedOctets >= packetSize) && (assignedOctets >= serializedSize)) {
+            if (availableOctets < packetSize) {
+                releaseMemory(packetSize - availableOctets);
+            }
+            TDMGPEntry dmgpEntry = new TDMGPEntry(idGenerator.getNextIdentifier());
+            if (slab == null) {
                 dmgpEntry.setPacket(mplsPacket);
-                usedOctets += mplsPacket.getSize();
-                entries.add(dmgpEntry);
             } else {
-                releaseMemory(mplsPacket.getSize() - availableOctets);
-                TDMGPEntry dmgpEntry = new TDMGPEntry(idGenerator.getNextIdentifier());
-                dmgpEntry.setPacket(mplsPacket);
-                usedOctets += mplsPacket.getSize();
-                entries.add(dmgpEntry);
+                dmgpEntry.setPacket(mplsPacket, slab, allocateInSlab(serializedSize));
             }
+            usedOctets += packetSize;
+            appendEntry(dmgpEntry);
         } else {
             mplsPacket = null;
         }
@@ -284,13 +411,20 @@ public class TDMGPFlowEntry implements Comparable<TDMGPFlowEntry> {
     private static final int DEFAULT_ASSIGNED_PERCENTAGE = -1;
     private static final int DEFAULT_ASSIGNED_OCTECTS = -1;
     private static final int DEFAULT_USED_OCTECTS = -1;
+    private static final int NO_FREE_RING_POSITION = -1;
 
     private final int arrivalOrder;
     private int globalFlowID;
     private int assignedPercentage;
     private int assignedOctets;
     private int usedOctets;
-    private final TreeSet<TDMGPEntry> entries;
+    private final HashMap<Long, TDMGPEntry> entriesByPacketID;
+    private TDMGPEntry oldestEntry;
+    private TDMGPEntry newestEntry;
+    private int numberOfEntries;
+    private ByteBuffer slab;
+    private int slabOffset;
+    private int ringHead;
     private final TSemaphore semaphore;
     private final TRotaryIDGenerator idGenerator;
     private final ResourceBundle translations;
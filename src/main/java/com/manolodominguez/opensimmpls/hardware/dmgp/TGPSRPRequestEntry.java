@@ -15,7 +15,7 @@
  */
 package com.manolodominguez.opensimmpls.hardware.dmgp;
 
-import com.manolodominguez.opensimmpls.commons.TIPv4AddressGenerator;
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
 import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
 import java.util.LinkedList;
 import java.util.ResourceBundle;
@@ -96,7 +96,7 @@ public class TGPSRPRequestEntry implements Comparable<TGPSRPRequestEntry> {
      * @param packetGoSGlobalUniqueIdentifier The packet identifier.
      * @since 2.0
      */
-    public void setPacketGoSGlobalUniqueIdentifier(int packetGoSGlobalUniqueIdentifier) {
+    public void setPacketGoSGlobalUniqueIdentifier(long packetGoSGlobalUniqueIdentifier) {
         this.packetGoSGlobalUniqueIdentifier = packetGoSGlobalUniqueIdentifier;
     }
 
@@ -106,7 +106,7 @@ public class TGPSRPRequestEntry implements Comparable<TGPSRPRequestEntry> {
      * @return The packet identifier.
      * @since 2.0
      */
-    public int getPacketGoSGlobalUniqueIdentifier() {
+    public long getPacketGoSGlobalUniqueIdentifier() {
         if (packetGoSGlobalUniqueIdentifier == DEFAULT_PACKET_GOS_GLOBAL_UNIQUE_ID) {
             logger.error(translations.getString("attributeNotInitialized"));
             throw new RuntimeException(translations.getString("attributeNotInitialized"));
@@ -152,18 +152,14 @@ public class TGPSRPRequestEntry implements Comparable<TGPSRPRequestEntry> {
      * retransmission.
      * @since 2.0
      */
-    public void setCrossedNodeIP(String crossedNodeIP) {
-        if ((crossedNodeIP == null) || (crossedNodeIP.isEmpty())) {
+    public void setCrossedNodeIP(int crossedNodeIP) {
+        if (crossedNodeIP == TIPv4Address.UNSPECIFIED) {
             logger.error(translations.getString("badArgument"));
             throw new IllegalArgumentException(translations.getString("badArgument"));
-        } else {
-            TIPv4AddressGenerator ipv4AddresGenerator = new TIPv4AddressGenerator();
-            try {
-                ipv4AddresGenerator.setIPv4AddressIfGreater(crossedNodeIP);
-            } catch (IllegalArgumentException ex) {
-                logger.error(translations.getString("argumentOutOfRange"));
-                throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
-            }
+        }
+        if (!TIPv4Address.isANodeAddress(crossedNodeIP)) {
+            logger.error(translations.getString("argumentOutOfRange"));
+            throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
         }
         crossedNodes.addFirst(crossedNodeIP);
     }
@@ -174,10 +170,10 @@ public class TGPSRPRequestEntry implements Comparable<TGPSRPRequestEntry> {
      *
      * @return IP address of the next active node to be requested for a packet
      * retransmission. If there is not a node to be requested, this method
-     * return NULL.
+     * throws a RuntimeException.
      * @since 2.0
      */
-    public String getNextNearestCrossedActiveNodeIPv4() {
+    public int getNextNearestCrossedActiveNodeIPv4() {
         if (crossedNodes.isEmpty()) {
             logger.error(translations.getString("attributeNotInitialized"));
             throw new RuntimeException(translations.getString("attributeNotInitialized"));
@@ -203,6 +199,29 @@ public class TGPSRPRequestEntry implements Comparable<TGPSRPRequestEntry> {
         }
     }
 
+    /**
+     * This method computes how many consecutive ticks of the specified
+     * duration can elapse without this entry being retried or purged. During
+     * those ticks the only change in the entry is its timeout decreasing.
+     *
+     * @param tickDurationInNs Duration of each tick, in nanoseconds.
+     * @return Number of consecutive idle ticks for this entry.
+     * @since 2.4
+     */
+    public long getNumberOfIdleTicks(int tickDurationInNs) {
+        if (tickDurationInNs <= ZERO) {
+            logger.error(translations.getString("argumentOutOfRange"));
+            throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
+        }
+        if (crossedNodes.isEmpty()) {
+            return ZERO;
+        }
+        if (timeout == ZERO) {
+            return ZERO;
+        }
+        return (timeout - ONE) / tickDurationInNs;
+    }
+
     /**
      * This method restores the retransmission TimeOut to its original value.
      *
@@ -300,19 +319,20 @@ public class TGPSRPRequestEntry implements Comparable<TGPSRPRequestEntry> {
     private static final int THIS_GREATER = 1;
 
     private static final int DEFAULT_FLOWID = 0;
-    private static final int DEFAULT_PACKET_GOS_GLOBAL_UNIQUE_ID = 0;
+    private static final long DEFAULT_PACKET_GOS_GLOBAL_UNIQUE_ID = 0L;
     private static final int DEFAULT_OUTGOING_PORTID = -1;
 
     private static final int DEFAULT_GPSRP_TIMEOUT_NANOSECONDS = 50000;
     private static final int DEFAULT_GPSRP_ATTEMPTS = 8;
 
     private static final int ZERO = 0;
+    private static final int ONE = 1;
 
     private int timeout;
     private int globalFlowID;
-    private int packetGoSGlobalUniqueIdentifier;
+    private long packetGoSGlobalUniqueIdentifier;
     private int outgoingPortID;
-    private final LinkedList<String> crossedNodes;
+    private final LinkedList<Integer> crossedNodes;
     private final int arrivalOrder;
     private int attempts;
     private final ResourceBundle translations;
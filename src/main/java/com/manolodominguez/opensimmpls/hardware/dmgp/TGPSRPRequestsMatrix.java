@@ -18,6 +18,7 @@ package com.manolodominguez.opensimmpls.hardware.dmgp;
 import java.util.Iterator;
 import java.util.TreeSet;
 import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
 import com.manolodominguez.opensimmpls.commons.TRotaryIDGenerator;
 import com.manolodominguez.opensimmpls.commons.TSemaphore;
 import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
@@ -137,14 +138,14 @@ public class TGPSRPRequestsMatrix {
         //the origin and the target IP. Although at this moment a traffic 
         //generator can only send traffic to a single target node, this could 
         //change in the future.
-        gpsrpRequestEntry.setFlowID(mplsPacket.getIPv4Header().getOriginIPv4Address().hashCode());
+        gpsrpRequestEntry.setFlowID(mplsPacket.getIPv4Header().getOriginIPv4Address());
         gpsrpRequestEntry.setPacketGoSGlobalUniqueIdentifier(mplsPacket.getIPv4Header().getGoSGlobalUniqueIdentifier());
         int numberOfCrossedNodes = mplsPacket.getIPv4Header().getOptionsField().getNumberOfCrossedActiveNodes();
         int i = ZERO;
-        String nextIPv4 = EMPTY_STRING;
+        int nextIPv4 = TIPv4Address.UNSPECIFIED;
         for (i = ZERO; i < numberOfCrossedNodes; i++) {
             nextIPv4 = mplsPacket.getIPv4Header().getOptionsField().getCrossedActiveNode(i);
-            if (nextIPv4 != null) {
+            if (nextIPv4 != TIPv4Address.UNSPECIFIED) {
                 gpsrpRequestEntry.setCrossedNodeIP(nextIPv4);
             }
         }
@@ -160,7 +161,7 @@ public class TGPSRPRequestsMatrix {
      * @param packetGoSGlobalUniqueID Packet ID the table refers to.
      * @since 2.0
      */
-    public void removeEntry(int globalFlowID, int packetGoSGlobalUniqueID) {
+    public void removeEntry(int globalFlowID, long packetGoSGlobalUniqueID) {
         semaphore.setRed();
         Iterator<TGPSRPRequestEntry> iterator = entries.iterator();
         TGPSRPRequestEntry gpsrpRequestEntry = null;
@@ -183,7 +184,7 @@ public class TGPSRPRequestsMatrix {
      * @return Entry matching the specified arguments. Otherwise, NULL.
      * @since 2.0
      */
-    public TGPSRPRequestEntry getEntry(int globalFlowID, int packetGoSGlobalUniqueID) {
+    public TGPSRPRequestEntry getEntry(int globalFlowID, long packetGoSGlobalUniqueID) {
         semaphore.setRed();
         Iterator<TGPSRPRequestEntry> iterator = entries.iterator();
         TGPSRPRequestEntry gpsrpRequestEntry = null;
@@ -245,6 +246,51 @@ public class TGPSRPRequestsMatrix {
         semaphore.setGreen();
     }
 
+    /**
+     * This method computes how many consecutive ticks of the specified
+     * duration can elapse without any entry of the table being retried or
+     * purged.
+     *
+     * @param tickDurationInNs Duration of each tick, in nanoseconds.
+     * @param maxNumberOfIdleTicks The maximum number of ticks the caller is
+     * interested in. The returned value will never be greater than this.
+     * @return Number of consecutive idle ticks for the whole table.
+     * @since 2.4
+     */
+    public long getNumberOfIdleTicks(int tickDurationInNs, long maxNumberOfIdleTicks) {
+        if ((tickDurationInNs <= ZERO) || (maxNumberOfIdleTicks < ZERO)) {
+            logger.error(translations.getString("argumentOutOfRange"));
+            throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
+        }
+        long numberOfIdleTicks = maxNumberOfIdleTicks;
+        semaphore.setRed();
+        Iterator<TGPSRPRequestEntry> iterator = entries.iterator();
+        TGPSRPRequestEntry gpsrpRequestEntry = null;
+        while (iterator.hasNext() && (numberOfIdleTicks > ZERO)) {
+            gpsrpRequestEntry = iterator.next();
+            numberOfIdleTicks = Math.min(numberOfIdleTicks, gpsrpRequestEntry.getNumberOfIdleTicks(tickDurationInNs));
+        }
+        semaphore.setGreen();
+        return numberOfIdleTicks;
+    }
+
+    /**
+     * This method updates all entries of the table as if the specified number
+     * of idle ticks had elapsed. It must not be called with more ticks than
+     * those returned by getNumberOfIdleTicks().
+     *
+     * @param numberOfIdleTicks Number of idle ticks to be skipped.
+     * @param tickDurationInNs Duration of each tick, in nanoseconds.
+     * @since 2.4
+     */
+    public void skipIdleTicks(long numberOfIdleTicks, int tickDurationInNs) {
+        if ((numberOfIdleTicks < ZERO) || (tickDurationInNs <= ZERO)) {
+            logger.error(translations.getString("argumentOutOfRange"));
+            throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
+        }
+        decreaseTimeout((int) Math.min(numberOfIdleTicks * tickDurationInNs, Integer.MAX_VALUE));
+    }
+
     /**
      * This method obtains the outgoing port ID of a specific entry.
      *
@@ -253,7 +299,7 @@ public class TGPSRPRequestsMatrix {
      * @return Outgoing port of the entry maching the specified arguments.
      * @since 2.0
      */
-    public int getOutgoingPort(int globalFlowID, int packetGoSGlobalUniqueID) {
+    public int getOutgoingPort(int globalFlowID, long packetGoSGlobalUniqueID) {
         semaphore.setRed();
         Iterator<TGPSRPRequestEntry> iterator = entries.iterator();
         TGPSRPRequestEntry gpsrpRequestEntry = null;
@@ -277,10 +323,10 @@ public class TGPSRPRequestsMatrix {
      * @param globalFlowID Flow ID of the flow of the desired entry.
      * @param packetGoSGlobalUniqueID Packet ID of the desired entry.
      * @return IP address of the following node to be requested for a packet
-     * retransmission. Otherwise, NULL.
+     * retransmission. Otherwise, TIPv4Address.UNSPECIFIED.
      * @since 2.0
      */
-    public String getNextNearestCrossedActiveNodeIPv4(int globalFlowID, int packetGoSGlobalUniqueID) {
+    public int getNextNearestCrossedActiveNodeIPv4(int globalFlowID, long packetGoSGlobalUniqueID) {
         semaphore.setRed();
         Iterator<TGPSRPRequestEntry> iterator = entries.iterator();
         TGPSRPRequestEntry gpsrpRequestEntry = null;
@@ -294,7 +340,7 @@ public class TGPSRPRequestsMatrix {
             }
         }
         semaphore.setGreen();
-        return null;
+        return TIPv4Address.UNSPECIFIED;
     }
 
     /**
@@ -319,7 +365,6 @@ public class TGPSRPRequestsMatrix {
     }
 
     private static final int ZERO = 0;
-    private static final String EMPTY_STRING = "";
     private static final int INVALID_PORT = -1;
 
     private TreeSet<TGPSRPRequestEntry> entries;
@@ -16,6 +16,7 @@
 package com.manolodominguez.opensimmpls.hardware.ports;
 
 import static com.manolodominguez.opensimmpls.commons.UnitsTranslations.OCTETS_PER_MEGABYTE;
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
 import com.manolodominguez.opensimmpls.scenario.TLink;
 import com.manolodominguez.opensimmpls.scenario.TNode;
 import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
@@ -221,6 +222,7 @@ public class TActivePortSet extends TPortSet {
         if (portID < this.numberOfPorts) {
             if (this.ports[portID].isAvailable()) {
                 this.ports[portID].setLink(link);
+                this.indexAdjacentNode(link, portID);
             }
         }
     }
@@ -258,6 +260,7 @@ public class TActivePortSet extends TPortSet {
     @Override
     public void disconnectLinkFromPort(int portID) {
         if ((portID >= ZERO) && (portID < this.numberOfPorts)) {
+            this.unindexAdjacentNode(portID);
             this.ports[portID].disconnectLink();
         }
     }
@@ -381,22 +384,12 @@ public class TActivePortSet extends TPortSet {
      * @since 2.0
      */
     @Override
-    public TPort getLocalPortConnectedToANodeWithIPv4Address(String adjacentNodeIP) {
-        for (int i = ZERO; i < this.numberOfPorts; i++) {
-            if (!this.ports[i].isAvailable()) {
-                int targetNodeID = this.ports[i].getLink().getDestinationOfTrafficSentBy(this.parentNode);
-                if (targetNodeID == TLink.HEAD_END_NODE) {
-                    if (this.ports[i].getLink().getHeadEndNode().getIPv4Address().equals(adjacentNodeIP)) {
-                        return this.ports[i];
-                    }
-                } else {
-                    if (this.ports[i].getLink().getTailEndNode().getIPv4Address().equals(adjacentNodeIP)) {
-                        return this.ports[i];
-                    }
-                }
-            }
+    public TPort getLocalPortConnectedToANodeWithIPv4Address(int adjacentNodeIP) {
+        int portID = this.getIndexedPortID(adjacentNodeIP);
+        if (portID == NO_PORT) {
+            return null;
         }
-        return null;
+        return this.ports[portID];
     }
 
     /**
@@ -406,20 +399,16 @@ public class TActivePortSet extends TPortSet {
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @param portID The port number of the port to be queried.
      * @return IP address of the node that is connected to the specified port by
-     * a link. If the port is not connected (is available), returns NULL.
+     * a link. If the port is not connected (is available), returns
+     * TIPv4Address.UNSPECIFIED.
      * @since 2.0
      */
     @Override
-    public String getIPv4OfNodeLinkedTo(int portID) {
+    public int getIPv4OfNodeLinkedTo(int portID) {
         if ((portID >= ZERO) && (portID < this.numberOfPorts)) {
-            if (!this.ports[portID].isAvailable()) {
-                if (this.ports[portID].getLink().getHeadEndNode().getIPv4Address().equals(this.parentNode.getIPv4Address())) {
-                    return this.ports[portID].getLink().getTailEndNode().getIPv4Address();
-                }
-                return this.ports[portID].getLink().getHeadEndNode().getIPv4Address();
-            }
+            return this.getIndexedAdjacentNodeIPv4Address(portID);
         }
-        return null;
+        return TIPv4Address.UNSPECIFIED;
     }
 
     /**
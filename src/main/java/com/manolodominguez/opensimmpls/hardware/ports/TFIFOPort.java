@@ -15,10 +15,8 @@
  */
 package com.manolodominguez.opensimmpls.hardware.ports;
 
-import com.manolodominguez.opensimmpls.commons.EIDGeneratorOverflow;
 import java.util.Iterator;
 import java.util.LinkedList;
-import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketReceived;
 import com.manolodominguez.opensimmpls.scenario.TStats;
 import com.manolodominguez.opensimmpls.scenario.TNode;
 import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
@@ -129,18 +127,10 @@ public class TFIFOPort extends TPort {
         parentPortSetAux.portSetSemaphore.setRed();
         semaphore.setRed();
         TNode parentNode = parentPortSet.getParentNode();
-        long eventID = ZERO;
-        try {
-            eventID = parentNode.eventIdentifierGenerator.getNextIdentifier();
-        } catch (EIDGeneratorOverflow ex) {
-            logger.error(ex.getMessage(), ex);
-        }
-        int packetSubtype = packet.getSubtype();
         if (isUnlimitedBuffer) {
             buffer.addLast(packet);
             parentPortSetAux.increasePortSetOccupancy(packet.getSize());
-            TSimulationEventPacketReceived packetReceivedEvent = new TSimulationEventPacketReceived(parentNode, eventID, getPortSet().getParentNode().getCurrentTimeInstant(), packetSubtype, packet.getSize());
-            parentNode.simulationEventsListener.captureSimulationEvents(packetReceivedEvent);
+            generatePacketReceivedEvent(parentNode, packet);
             if (getPortSet().getParentNode().getStats() != null) {
                 getPortSet().getParentNode().getStats().addStatEntry(packet, TStats.INCOMING);
             }
@@ -148,8 +138,7 @@ public class TFIFOPort extends TPort {
             if ((parentPortSetAux.getPortSetOccupancy() + packet.getSize()) <= (parentPortSetAux.getBufferSizeInMBytes() * OCTETS_PER_MEGABYTE.getUnits())) {
                 buffer.addLast(packet);
                 parentPortSetAux.increasePortSetOccupancy(packet.getSize());
-                TSimulationEventPacketReceived packetReceivedEvent = new TSimulationEventPacketReceived(parentNode, eventID, getPortSet().getParentNode().getCurrentTimeInstant(), packetSubtype, packet.getSize());
-                parentNode.simulationEventsListener.captureSimulationEvents(packetReceivedEvent);
+                generatePacketReceivedEvent(parentNode, packet);
                 if (getPortSet().getParentNode().getStats() != null) {
                     getPortSet().getParentNode().getStats().addStatEntry(packet, TStats.INCOMING);
                 }
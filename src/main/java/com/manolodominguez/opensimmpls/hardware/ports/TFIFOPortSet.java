@@ -15,7 +15,7 @@
  */
 package com.manolodominguez.opensimmpls.hardware.ports;
 
-import com.manolodominguez.opensimmpls.commons.TIPv4AddressGenerator;
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
 import static com.manolodominguez.opensimmpls.commons.UnitsTranslations.OCTETS_PER_MEGABYTE;
 import com.manolodominguez.opensimmpls.scenario.TLink;
 import com.manolodominguez.opensimmpls.scenario.TNode;
@@ -54,12 +54,58 @@ public class TFIFOPortSet extends TPortSet {
             logger.error(translations.getString("badArgument"));
             throw new IllegalArgumentException(translations.getString("badArgument"));
         }
-        ports = new TFIFOPort[numberOfPorts];
+        ports = new TPort[numberOfPorts];
         for (int i = ZERO; i < numberOfPorts; i++) {
             ports[i] = new TFIFOPort(this, i);
             ports[i].setPortID(i);
         }
         readPort = ZERO;
+        lockFreePorts = false;
+    }
+
+    /**
+     * This method selects which kind of ports this port set uses: TFIFOPort,
+     * that serializes every access to the buffers, or TLockFreeFIFOPort, that
+     * lets the links hand packets off to the parent node without locks. Links
+     * and buffer configuration of the ports are kept. It must be called while
+     * the ports are empty, before the simulation starts.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param lockFreePorts TRUE, if the port set will use TLockFreeFIFOPort
+     * ports; otherwise, FALSE.
+     * @since 2.4
+     */
+    public void setLockFreePorts(boolean lockFreePorts) {
+        if (this.lockFreePorts == lockFreePorts) {
+            return;
+        }
+        TPort port;
+        for (int i = ZERO; i < numberOfPorts; i++) {
+            if (lockFreePorts) {
+                port = new TLockFreeFIFOPort(this, i);
+            } else {
+                port = new TFIFOPort(this, i);
+            }
+            port.setPortID(i);
+            port.setUnlimitedBuffer(ports[i].isUnlimitedBuffer());
+            if (!ports[i].isAvailable()) {
+                port.setLink(ports[i].getLink());
+            }
+            ports[i] = port;
+        }
+        this.lockFreePorts = lockFreePorts;
+    }
+
+    /**
+     * This method checks whether this port set uses TLockFreeFIFOPort ports.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return TRUE, if the port set uses TLockFreeFIFOPort ports. Otherwise,
+     * FALSE.
+     * @since 2.4
+     */
+    public boolean hasLockFreePorts() {
+        return lockFreePorts;
     }
 
     /**
@@ -182,6 +228,7 @@ public class TFIFOPortSet extends TPortSet {
         }
         if (ports[portID].isAvailable()) {
             ports[portID].setLink(link);
+            indexAdjacentNode(link, portID);
         }
     }
 
@@ -220,6 +267,7 @@ public class TFIFOPortSet extends TPortSet {
             logger.error(translations.getString("argumentOutOfRange"));
             throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
         }
+        unindexAdjacentNode(portID);
         ports[portID].disconnectLink();
     }
 
@@ -343,27 +391,16 @@ public class TFIFOPortSet extends TPortSet {
      * @since 2.0
      */
     @Override
-    public TPort getLocalPortConnectedToANodeWithIPv4Address(String adjacentNodeIPv4Address) {
-        TIPv4AddressGenerator ipv4AddressGenerator = new TIPv4AddressGenerator();
-        if (!ipv4AddressGenerator.isAValidIPv4Address(adjacentNodeIPv4Address)) {
+    public TPort getLocalPortConnectedToANodeWithIPv4Address(int adjacentNodeIPv4Address) {
+        if (!TIPv4Address.isANodeAddress(adjacentNodeIPv4Address)) {
             logger.error(translations.getString("badArgument"));
             throw new IllegalArgumentException(translations.getString("badArgument"));
         }
-        for (int i = ZERO; i < numberOfPorts; i++) {
-            if (!ports[i].isAvailable()) {
-                int targetNodeID = ports[i].getLink().getDestinationOfTrafficSentBy(parentNode);
-                if (targetNodeID == TLink.HEAD_END_NODE) {
-                    if (ports[i].getLink().getHeadEndNode().getIPv4Address().equals(adjacentNodeIPv4Address)) {
-                        return ports[i];
-                    }
-                } else {
-                    if (ports[i].getLink().getTailEndNode().getIPv4Address().equals(adjacentNodeIPv4Address)) {
-                        return ports[i];
-                    }
-                }
-            }
+        int portID = getIndexedPortID(adjacentNodeIPv4Address);
+        if (portID == NO_PORT) {
+            return null;
         }
-        return null;
+        return ports[portID];
     }
 
     /**
@@ -373,22 +410,17 @@ public class TFIFOPortSet extends TPortSet {
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @param portID The port number of the port to be queried.
      * @return IP address of the node that is connected to the specified port by
-     * a link. If the port is not connected (is available), returns NULL.
+     * a link. If the port is not connected (is available), returns
+     * TIPv4Address.UNSPECIFIED.
      * @since 2.0
      */
     @Override
-    public String getIPv4OfNodeLinkedTo(int portID) {
+    public int getIPv4OfNodeLinkedTo(int portID) {
         if ((portID < ZERO) || (portID >= numberOfPorts)) {
             logger.error(translations.getString("argumentOutOfRange"));
             throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
         }
-        if (!ports[portID].isAvailable()) {
-            if (ports[portID].getLink().getHeadEndNode().getIPv4Address().equals(parentNode.getIPv4Address())) {
-                return ports[portID].getLink().getTailEndNode().getIPv4Address();
-            }
-            return ports[portID].getLink().getHeadEndNode().getIPv4Address();
-        }
-        return null;
+        return getIndexedAdjacentNodeIPv4Address(portID);
     }
 
     /**
@@ -467,6 +499,7 @@ public class TFIFOPortSet extends TPortSet {
 
     private TPort[] ports;
     private int readPort;
+    private boolean lockFreePorts;
     private final ResourceBundle translations;
     private final Logger logger = LoggerFactory.getLogger(TFIFOPortSet.class);
 
@@ -0,0 +1,346 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.hardware.ports;
+
+import java.util.LinkedList;
+import com.manolodominguez.opensimmpls.scenario.TStats;
+import com.manolodominguez.opensimmpls.scenario.TNode;
+import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
+import static com.manolodominguez.opensimmpls.commons.UnitsTranslations.OCTETS_PER_MEGABYTE;
+import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import java.util.NoSuchElementException;
+import java.util.ResourceBundle;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements a I/O port that follow a FIFO scheme to dispatch
+ * packets, like TFIFOPort, but without locks. The link connected to the port
+ * is the only producer of packets and the parent node is the only consumer,
+ * so packets are handed off through a single-producer/single-consumer queue
+ * and the port set occupancy is checked and increased atomically. Packets
+ * that do not fit in the port set buffer are discarded, as in TFIFOPort.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public class TLockFreeFIFOPort extends TPort {
+
+    /**
+     * This method is the constructor of the class. It creates a new instance of
+     * TLockFreeFIFOPort.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     * @param portID the identifier of the port. This is the unique identifier
+     * ti distinguish the port within the parent port set.
+     * @param parentPortSet A reference to the parent port set this port belongs
+     * to.
+     */
+    public TLockFreeFIFOPort(TPortSet parentPortSet, int portID) {
+        super(parentPortSet, portID);
+        translations = ResourceBundle.getBundle(AvailableBundles.T_LOCK_FREE_FIFO_PORT.getPath());
+        if (portID < ZERO) {
+            logger.error(translations.getString("argumentOutOfRange"));
+            throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
+        }
+        if (parentPortSet == null) {
+            logger.error(translations.getString("badArgument"));
+            throw new IllegalArgumentException(translations.getString("badArgument"));
+        } else {
+            if (portID >= parentPortSet.getNumberOfPorts()) {
+                logger.error(translations.getString("argumentOutOfRange"));
+                throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
+            }
+        }
+        incomingBuffer = new TSPSCQueue<>();
+        reEnqueuedBuffer = new LinkedList<>();
+        portOccupancy = new AtomicLong(ZERO);
+        isUnlimitedBuffer = false;
+    }
+
+    /**
+     * This method allow to skip size limitation of the buffer and, hence,
+     * configure the port as an ideal port, with unlimited space.
+     *
+     * @param unlimitedBuffer TRUE if the port is going to be defined as an
+     * ideal one (unlimited space on iterator). FALSE, on the contrary.
+     * @since 2.4
+     */
+    @Override
+    public void setUnlimitedBuffer(boolean unlimitedBuffer) {
+        isUnlimitedBuffer = unlimitedBuffer;
+    }
+
+    /**
+     * This method allow to known wheter a port is configured as unlimited (as
+     * an ideal port), or not.
+     *
+     * @return TRUE if the port is defined as an ideal one (unlimited space on
+     * it). FALSE, on the contrary.
+     * @since 2.4
+     */
+    @Override
+    public boolean isUnlimitedBuffer() {
+        return isUnlimitedBuffer;
+    }
+
+    /**
+     * This method discard the packet passed as an argument from the buffer.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packet The packet to be discarded from the buffer.
+     * @since 2.4
+     */
+    @Override
+    public void discardPacket(TAbstractPDU packet) {
+        if (packet == null) {
+            logger.error(translations.getString("badArgument"));
+            throw new IllegalArgumentException(translations.getString("badArgument"));
+        }
+        getPortSet().getParentNode().discardPacket(packet);
+    }
+
+    /**
+     * This method put a new packet in the buffer of the port. It must only be
+     * called by the link connected to the port.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packet Packet to be inserted in the buffer of the port.
+     * @since 2.4
+     */
+    @Override
+    public void addPacket(TAbstractPDU packet) {
+        if (packet == null) {
+            logger.error(translations.getString("badArgument"));
+            throw new IllegalArgumentException(translations.getString("badArgument"));
+        }
+        TNode parentNode = parentPortSet.getParentNode();
+        if (reserveOccupancy(packet)) {
+            incomingBuffer.offer(packet);
+            generatePacketReceivedEvent(parentNode, packet);
+            TStats stats = parentNode.getStats();
+            if (stats != null) {
+                stats.addStatEntry(packet, TStats.INCOMING);
+            }
+        } else {
+            // Several ports of the same node can discard packets at the same
+            // time. It is safe because discarding only updates the stats and
+            // generates a simulation event, as receiving a packet does.
+            discardPacket(packet);
+        }
+    }
+
+    /**
+     * This method put a new packet in the buffer of the port. In fact, this do
+     * the same than addPacket(p) method, but does not generates simulation
+     * events but do it silently. It must only be called by the parent node.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packet The packet to be inserted in the buffer of the port.
+     * @since 2.4
+     */
+    @Override
+    public void reEnqueuePacket(TAbstractPDU packet) {
+        if (packet == null) {
+            logger.error(translations.getString("badArgument"));
+            throw new IllegalArgumentException(translations.getString("badArgument"));
+        }
+        if (reserveOccupancy(packet)) {
+            // The packet goes after every packet received so far, so these
+            // are moved out of the incoming buffer first. Packets received
+            // later will be read after the re-enqueued ones.
+            TAbstractPDU receivedPacket = incomingBuffer.poll();
+            while (receivedPacket != null) {
+                reEnqueuedBuffer.addLast(receivedPacket);
+                receivedPacket = incomingBuffer.poll();
+            }
+            reEnqueuedBuffer.addLast(packet);
+        } else {
+            discardPacket(packet);
+        }
+    }
+
+    /**
+     * This method reads an returns the next packet of the buffer according to
+     * FIFO policy. If there is not a packet to be read from the buffer, then a
+     * NoSuchElementException is thrown. It must only be called by the parent
+     * node.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The read packet
+     * @since 2.4
+     */
+    @Override
+    public TAbstractPDU getPacket() {
+        TAbstractPDU packetRead;
+        if (!reEnqueuedBuffer.isEmpty()) {
+            packetRead = reEnqueuedBuffer.removeFirst();
+        } else {
+            packetRead = incomingBuffer.poll();
+        }
+        if (packetRead == null) {
+            logger.error(translations.getString("elementDoesNotExist"));
+            throw new NoSuchElementException(translations.getString("elementDoesNotExist"));
+        }
+        portOccupancy.addAndGet(-packetRead.getSize());
+        if (!isUnlimitedBuffer) {
+            parentPortSet.decreasePortSetOccupancySize(packetRead.getSize());
+        }
+        return packetRead;
+    }
+
+    /**
+     * This method compute whether it is possible or not to switch the next
+     * packet in the buffer having the number of octets (specified as an
+     * argument) that the port can switch in the current moment. It must only
+     * be called by the parent node.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param switchableOctets The number of octets that the port can switch in
+     * this moment.
+     * @return TRUE, if we can switch the next packet of the buffer at this
+     * moment. Otherwise, FALSE.
+     * @since 2.4
+     */
+    @Override
+    public boolean canSwitchPacket(int switchableOctets) {
+        if (switchableOctets < ZERO) {
+            logger.error(translations.getString("argumentOutOfRange"));
+            throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
+        }
+        TAbstractPDU packetRead;
+        if (!reEnqueuedBuffer.isEmpty()) {
+            packetRead = reEnqueuedBuffer.getFirst();
+        } else {
+            packetRead = incomingBuffer.peek();
+        }
+        if (packetRead == null) {
+            throw new NoSuchElementException(translations.getString("elementDoesNotExist"));
+        }
+        return packetRead.getSize() <= switchableOctets;
+    }
+
+    /**
+     * This method computes the congestion level of the port.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return A number, without decimals, between 0 and 100, which will be the
+     * congestion level as a percentage.
+     * @since 2.4
+     */
+    @Override
+    public long getCongestionLevel() {
+        if (isUnlimitedBuffer) {
+            return ZERO;
+        }
+        return (parentPortSet.getPortSetOccupancy() * ONE_HUNDRED) / (parentPortSet.getBufferSizeInMBytes() * OCTETS_PER_MEGABYTE.getUnits());
+    }
+
+    /**
+     * This method checks whether there is a packet in the buffer waiting to be
+     * switched/routed, or not.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return TRUE, if there is a packet waiting to be switched/routed.
+     * Otherwise, FALSE.
+     * @since 2.4
+     */
+    @Override
+    public boolean thereIsAPacketWaiting() {
+        return getNumberOfPackets() > ZERO;
+    }
+
+    /**
+     * This method computes and returns the number of octets that are currently
+     * used by packets in the buffer of the port.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return Size, in octects, used by packets in the buffer of the port.
+     * @since 2.4
+     */
+    @Override
+    public long getOccupancy() {
+        if (isUnlimitedBuffer) {
+            return portOccupancy.get();
+        }
+        return parentPortSet.getPortSetOccupancy();
+    }
+
+    /**
+     * This method computes and returns the number of packets stored in the
+     * buffer of the port.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The total number of packets stored in the buffer of the port.
+     * @since 2.4
+     */
+    @Override
+    public int getNumberOfPackets() {
+        return reEnqueuedBuffer.size() + incomingBuffer.size();
+    }
+
+    /**
+     * This method reset attributes of the class as when created by the
+     * constructor. It must not be called while the simulation is running.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    @Override
+    public void reset() {
+        incomingBuffer = new TSPSCQueue<>();
+        reEnqueuedBuffer.clear();
+        portOccupancy.set(ZERO);
+    }
+
+    /**
+     * This method reserves room for the specified packet in the port set
+     * buffer. If the port is unlimited, room is always available.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packet The packet that needs room in the buffer.
+     * @return TRUE, if there was room for the packet and it has been reserved.
+     * Otherwise, FALSE.
+     * @since 2.4
+     */
+    private boolean reserveOccupancy(TAbstractPDU packet) {
+        if (isUnlimitedBuffer) {
+            parentPortSet.increasePortSetOccupancy(packet.getSize());
+        } else {
+            long bufferSizeInOctets = parentPortSet.getBufferSizeInMBytes() * OCTETS_PER_MEGABYTE.getUnits();
+            if (!parentPortSet.tryIncreasePortSetOccupancy(packet.getSize(), bufferSizeInOctets)) {
+                return false;
+            }
+        }
+        portOccupancy.addAndGet(packet.getSize());
+        return true;
+    }
+
+    // Fed by the link connected to the port (producer) and read by the
+    // parent node (consumer).
+    private volatile TSPSCQueue<TAbstractPDU> incomingBuffer;
+    // Only used by the parent node.
+    private final LinkedList<TAbstractPDU> reEnqueuedBuffer;
+    private final AtomicLong portOccupancy;
+    private volatile boolean isUnlimitedBuffer;
+    private final ResourceBundle translations;
+    private final Logger logger = LoggerFactory.getLogger(TLockFreeFIFOPort.class);
+
+    private static final int ZERO = 0;
+    private static final int ONE_HUNDRED = 100;
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.hardware.ports;
+
+import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
+
+/**
+ * This class implements a FIFO buffer of packets stored in a circular array.
+ * Adding or reading a packet does not allocate memory unless the array is full,
+ * in which case it doubles its size. It also keeps the number of octets used
+ * by the stored packets. This class is not thread safe; the port that owns it
+ * is in charge of that.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public class TPacketRingBuffer {
+
+    /**
+     * This is the constructor of the class. It creates a new empty instance of
+     * TPacketRingBuffer.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public TPacketRingBuffer() {
+        this.packets = new TAbstractPDU[INITIAL_CAPACITY];
+        this.head = ZERO;
+        this.numberOfPackets = ZERO;
+        this.occupancyInOctets = ZERO;
+    }
+
+    /**
+     * This method adds a packet at the end of the buffer.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packet The packet to be added.
+     * @since 2.4
+     */
+    public void addLast(TAbstractPDU packet) {
+        if (this.numberOfPackets == this.packets.length) {
+            TAbstractPDU[] newPackets = new TAbstractPDU[this.packets.length * TWO];
+            for (int i = ZERO; i < this.numberOfPackets; i++) {
+                newPackets[i] = this.packets[(this.head + i) & (this.packets.length - ONE)];
+            }
+            this.packets = newPackets;
+            this.head = ZERO;
+        }
+        this.packets[(this.head + this.numberOfPackets) & (this.packets.length - ONE)] = packet;
+        this.numberOfPackets++;
+        this.occupancyInOctets += packet.getSize();
+    }
+
+    /**
+     * This method removes and returns the packet at the beginning of the
+     * buffer.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The first packet of the buffer or NULL if the buffer is empty.
+     * @since 2.4
+     */
+    public TAbstractPDU removeFirst() {
+        if (this.numberOfPackets == ZERO) {
+            return null;
+        }
+        TAbstractPDU packet = this.packets[this.head];
+        this.packets[this.head] = null;
+        this.head = (this.head + ONE) & (this.packets.length - ONE);
+        this.numberOfPackets--;
+        this.occupancyInOctets -= packet.getSize();
+        return packet;
+    }
+
+    /**
+     * This method returns the number of packets stored in the buffer.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The number of packets stored in the buffer.
+     * @since 2.4
+     */
+    public int size() {
+        return this.numberOfPackets;
+    }
+
+    /**
+     * This method returns the number of octets used by the packets stored in
+     * the buffer.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The sum of the sizes, in octets, of the stored packets.
+     * @since 2.4
+     */
+    public long getOccupancy() {
+        return this.occupancyInOctets;
+    }
+
+    /**
+     * This method removes every packet from the buffer.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public void clear() {
+        for (int i = ZERO; i < this.numberOfPackets; i++) {
+            this.packets[(this.head + i) & (this.packets.length - ONE)] = null;
+        }
+        this.head = ZERO;
+        this.numberOfPackets = ZERO;
+        this.occupancyInOctets = ZERO;
+    }
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final int TWO = 2;
+    // It must be a power of two.
+    private static final int INITIAL_CAPACITY = 16;
+
+    private TAbstractPDU[] packets;
+    private int head;
+    private int numberOfPackets;
+    private long occupancyInOctets;
+}
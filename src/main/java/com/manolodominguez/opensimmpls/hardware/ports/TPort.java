@@ -15,8 +15,12 @@
  */
 package com.manolodominguez.opensimmpls.hardware.ports;
 
+import com.manolodominguez.opensimmpls.commons.EIDGeneratorOverflow;
 import com.manolodominguez.opensimmpls.scenario.TLink;
+import com.manolodominguez.opensimmpls.scenario.TNode;
 import com.manolodominguez.opensimmpls.scenario.TStats;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketReceived;
 import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
 import com.manolodominguez.opensimmpls.commons.TSemaphore;
 import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
@@ -224,6 +228,26 @@ public abstract class TPort {
         }
     }
 
+    /**
+     * This method generates the simulation event that shows that a packet has
+     * been received by the node this port belongs to. The event is not even
+     * created if the node does not have to generate it.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param parentNode The node this port belongs to.
+     * @param packet The packet that has been received.
+     * @since 2.4
+     */
+    protected void generatePacketReceivedEvent(TNode parentNode, TAbstractPDU packet) {
+        if (parentNode.isSimulationEventEnabled(TSimulationEvent.PACKET_RECEIVED)) {
+            try {
+                parentNode.generateSimulationEvent(new TSimulationEventPacketReceived(parentNode, parentNode.eventIdentifierGenerator.getNextIdentifier(), parentNode.getCurrentTimeInstant(), packet.getSubtype(), packet.getSize()));
+            } catch (EIDGeneratorOverflow ex) {
+                logger.error(ex.getMessage(), ex);
+            }
+        }
+    }
+
     /**
      * This method, when implemente, will discard the packet passed as an
      * argument from the buffer.
@@ -18,9 +18,12 @@ package com.manolodominguez.opensimmpls.hardware.ports;
 import com.manolodominguez.opensimmpls.scenario.TLink;
 import com.manolodominguez.opensimmpls.scenario.TNode;
 import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
 import com.manolodominguez.opensimmpls.commons.TSemaphore;
 import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import java.util.HashMap;
 import java.util.ResourceBundle;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,8 +57,10 @@ public abstract class TPortSet {
         }
         this.numberOfPorts = numberOfPorts;
         this.parentNode = parentNode;
+        adjacentNodesIPv4Addresses = new int[numberOfPorts];
+        portIDsByAdjacentNodeIPv4Address = new HashMap<>();
         portSetBufferSize = ONE;
-        portSetBufferOccupancySizeInOctets = ZERO;
+        portSetBufferOccupancySizeInOctets = new AtomicLong(ZERO);
         portSetSemaphore = new TSemaphore();
         artificiallyCongested = false;
         // FIX: occupancy seems not to be used
@@ -69,12 +74,42 @@ public abstract class TPortSet {
      * current occupancy.
      * @since 2.0
      */
-    public synchronized void increasePortSetOccupancy(long occupancyIncrement) {
+    public void increasePortSetOccupancy(long occupancyIncrement) {
         if (occupancyIncrement < ZERO) {
             logger.error(translations.getString("argumentOutOfRange"));
             throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
         }
-        portSetBufferOccupancySizeInOctets += occupancyIncrement;
+        portSetBufferOccupancySizeInOctets.addAndGet(occupancyIncrement);
+    }
+
+    /**
+     * This method increases the amount of buffer memory that is occuped only
+     * if the resulting occupancy does not exceed the specified limit. Checking
+     * and increasing is done atomically, so several ports can call it
+     * concurrently without locks.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param occupancyIncrement Size (in octets) that should be added to the
+     * current occupancy.
+     * @param occupancyLimit Maximum occupancy (in octets) allowed after the
+     * increment.
+     * @return TRUE, if the occupancy has been increased. FALSE, if it has not
+     * because the limit would have been exceeded.
+     * @since 2.4
+     */
+    public boolean tryIncreasePortSetOccupancy(long occupancyIncrement, long occupancyLimit) {
+        if (occupancyIncrement < ZERO) {
+            logger.error(translations.getString("argumentOutOfRange"));
+            throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
+        }
+        long currentOccupancy;
+        do {
+            currentOccupancy = portSetBufferOccupancySizeInOctets.get();
+            if ((currentOccupancy + occupancyIncrement) > occupancyLimit) {
+                return false;
+            }
+        } while (!portSetBufferOccupancySizeInOctets.compareAndSet(currentOccupancy, currentOccupancy + occupancyIncrement));
+        return true;
     }
 
     /**
@@ -84,12 +119,12 @@ public abstract class TPortSet {
      * from the current occupancy.
      * @since 2.0
      */
-    public synchronized void decreasePortSetOccupancySize(long occupancyDecrement) {
+    public void decreasePortSetOccupancySize(long occupancyDecrement) {
         if (occupancyDecrement < ZERO) {
             logger.error(translations.getString("argumentOutOfRange"));
             throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
         }
-        portSetBufferOccupancySizeInOctets -= occupancyDecrement;
+        portSetBufferOccupancySizeInOctets.addAndGet(-occupancyDecrement);
     }
 
     /**
@@ -99,12 +134,12 @@ public abstract class TPortSet {
      * that is occuped (in octects). that is occuped.
      * @since 2.0
      */
-    public synchronized void setPortSetOccupancySize(long portSetBufferOccupancySizeInOctets) {
+    public void setPortSetOccupancySize(long portSetBufferOccupancySizeInOctets) {
         if (portSetBufferOccupancySizeInOctets < ZERO) {
             logger.error(translations.getString("argumentOutOfRange"));
             throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
         }
-        this.portSetBufferOccupancySizeInOctets = portSetBufferOccupancySizeInOctets;
+        this.portSetBufferOccupancySizeInOctets.set(portSetBufferOccupancySizeInOctets);
     }
 
     /**
@@ -113,8 +148,8 @@ public abstract class TPortSet {
      * @return The amount of buffer memory that is occuped(in octects).
      * @since 2.0
      */
-    public synchronized long getPortSetOccupancy() {
-        return portSetBufferOccupancySizeInOctets;
+    public long getPortSetOccupancy() {
+        return portSetBufferOccupancySizeInOctets.get();
     }
 
     /**
@@ -245,7 +280,7 @@ public abstract class TPortSet {
      * connected to this port set, returns NULL.
      * @since 2.0
      */
-    public abstract TPort getLocalPortConnectedToANodeWithIPv4Address(String adjacentNodeIP);
+    public abstract TPort getLocalPortConnectedToANodeWithIPv4Address(int adjacentNodeIP);
 
     /**
      * This method, when implemented, will query a given port to obtain the IP
@@ -254,10 +289,87 @@ public abstract class TPortSet {
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @param portID The port number of the port to be queried.
      * @return IP address of the node that is connected to the specified port by
-     * a link. If the port is not connected (is available), returns NULL.
+     * a link. If the port is not connected (is available), returns
+     * TIPv4Address.UNSPECIFIED.
      * @since 2.0
      */
-    public abstract String getIPv4OfNodeLinkedTo(int portID);
+    public abstract int getIPv4OfNodeLinkedTo(int portID);
+
+    /**
+     * This method updates the indexes that allow to know, in constant time,
+     * the IPv4 address of the node connected to a port and the port connected
+     * to a node having a given IPv4 address. It has to be called by subclasses
+     * each time a link is connected to a port.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param link the link that has been connected to the port.
+     * @param portID the port number of the port the link has been connected
+     * to.
+     * @since 2.4
+     */
+    protected void indexAdjacentNode(TLink link, int portID) {
+        if ((link.getHeadEndNode() == null) || (link.getTailEndNode() == null)) {
+            return; // The link has not been configured yet
+        }
+        int adjacentNodeIPv4Address = link.getHeadEndNode().getIPv4Address();
+        if (adjacentNodeIPv4Address == parentNode.getIPv4Address()) {
+            adjacentNodeIPv4Address = link.getTailEndNode().getIPv4Address();
+        }
+        adjacentNodesIPv4Addresses[portID] = adjacentNodeIPv4Address;
+        portIDsByAdjacentNodeIPv4Address.put(adjacentNodeIPv4Address, portID);
+    }
+
+    /**
+     * This method removes from the indexes the node connected to a given port.
+     * It has to be called by subclasses each time a link is disconnected from
+     * a port.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param portID the port number of the port whose link has been
+     * disconnected.
+     * @since 2.4
+     */
+    protected void unindexAdjacentNode(int portID) {
+        if (adjacentNodesIPv4Addresses[portID] != TIPv4Address.UNSPECIFIED) {
+            portIDsByAdjacentNodeIPv4Address.remove(adjacentNodesIPv4Addresses[portID], portID);
+            adjacentNodesIPv4Addresses[portID] = TIPv4Address.UNSPECIFIED;
+        }
+    }
+
+    /**
+     * This method gets, in constant time, the IPv4 address of the node
+     * connected to a given port, according to the indexes maintained by
+     * indexAdjacentNode() and unindexAdjacentNode().
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param portID The port number of the port to be queried.
+     * @return IP address of the node that is connected to the specified port.
+     * If the port is not connected, returns TIPv4Address.UNSPECIFIED.
+     * @since 2.4
+     */
+    protected int getIndexedAdjacentNodeIPv4Address(int portID) {
+        return adjacentNodesIPv4Addresses[portID];
+    }
+
+    /**
+     * This method gets, in constant time, the port number of the port
+     * connected to the node having the specified IPv4 address, according to
+     * the indexes maintained by indexAdjacentNode() and unindexAdjacentNode().
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param adjacentNodeIPv4Address IPv4 address of the node connected to the
+     * port we are looking for.
+     * @return the port number of the port connected to the node. If there is
+     * not such port, returns NO_PORT.
+     * @since 2.4
+     */
+    protected int getIndexedPortID(int adjacentNodeIPv4Address) {
+        Integer portID = portIDsByAdjacentNodeIPv4Address.get(adjacentNodeIPv4Address);
+        if (portID == null) {
+            return NO_PORT;
+        }
+        return portID;
+    }
 
     /**
      * This method, when implemented, will compute the global congestion level
@@ -378,8 +490,10 @@ public abstract class TPortSet {
 
     protected int numberOfPorts;
     protected TNode parentNode;
+    private final int[] adjacentNodesIPv4Addresses;
+    private final HashMap<Integer, Integer> portIDsByAdjacentNodeIPv4Address;
     protected int portSetBufferSize;
-    private long portSetBufferOccupancySizeInOctets;
+    private final AtomicLong portSetBufferOccupancySizeInOctets;
     public TSemaphore portSetSemaphore;
     protected boolean artificiallyCongested;
     // FIX: occupancy seems not to be used
@@ -387,6 +501,8 @@ public abstract class TPortSet {
     private final ResourceBundle translations;
     private final Logger logger = LoggerFactory.getLogger(TPortSet.class);
 
+    protected static final int NO_PORT = -1;
+
     private static final int ZERO = 0;
     private static final int ONE = 1;
 }
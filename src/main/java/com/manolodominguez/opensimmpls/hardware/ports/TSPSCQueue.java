@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.hardware.ports;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class implements a lock-free FIFO queue for exactly one producer thread
+ * and one consumer thread at a time. Elements are stored in fixed-size array
+ * segments linked one after another: the producer fills the tail segment and
+ * links a new one when it is full, and the consumer empties the head segment
+ * and moves to the next one. Only two counters are shared, so neither side
+ * ever waits for the other. The queue does not limit the number of elements;
+ * whoever uses it must bound it (ports, for instance, bound it in octets).
+ *
+ * @param <E> Type of the elements stored in the queue.
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public class TSPSCQueue<E> {
+
+    /**
+     * This is the constructor of the class. It creates a new empty instance of
+     * TSPSCQueue.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public TSPSCQueue() {
+        TSegment<E> segment = new TSegment<>();
+        this.tailSegment = segment;
+        this.tailIndex = ZERO;
+        this.headSegment = segment;
+        this.headIndex = ZERO;
+        this.numberOfOfferedElements = new AtomicLong(ZERO);
+        this.numberOfPolledElements = new AtomicLong(ZERO);
+    }
+
+    /**
+     * This method adds an element at the end of the queue. It must only be
+     * called by the producer thread.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param element The element to be added. It must not be null.
+     * @since 2.4
+     */
+    public void offer(E element) {
+        if (this.tailIndex == SEGMENT_SIZE) {
+            TSegment<E> segment = new TSegment<>();
+            this.tailSegment.next = segment;
+            this.tailSegment = segment;
+            this.tailIndex = ZERO;
+        }
+        this.tailSegment.elements[this.tailIndex] = element;
+        this.tailIndex++;
+        // This publishes the element (and the new segment, if any) to the
+        // consumer.
+        this.numberOfOfferedElements.lazySet(this.numberOfOfferedElements.get() + ONE);
+    }
+
+    /**
+     * This method removes and returns the element at the head of the queue. It
+     * must only be called by the consumer thread.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The element at the head of the queue or NULL if the queue is
+     * empty.
+     * @since 2.4
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        if (!moveToNextElement()) {
+            return null;
+        }
+        E element = (E) this.headSegment.elements[this.headIndex];
+        this.headSegment.elements[this.headIndex] = null;
+        this.headIndex++;
+        this.numberOfPolledElements.lazySet(this.numberOfPolledElements.get() + ONE);
+        return element;
+    }
+
+    /**
+     * This method returns the element at the head of the queue without
+     * removing it. It must only be called by the consumer thread.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The element at the head of the queue or NULL if the queue is
+     * empty.
+     * @since 2.4
+     */
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        if (!moveToNextElement()) {
+            return null;
+        }
+        return (E) this.headSegment.elements[this.headIndex];
+    }
+
+    /**
+     * This method returns the number of elements in the queue. It can be
+     * called from any thread; if producer or consumer are working at the same
+     * time, the result may be already outdated when returned.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The number of elements in the queue.
+     * @since 2.4
+     */
+    public int size() {
+        long numberOfPolled = this.numberOfPolledElements.get();
+        return (int) (this.numberOfOfferedElements.get() - numberOfPolled);
+    }
+
+    /**
+     * This method checks whether the queue is empty. It can be called from any
+     * thread, with the same considerations as size().
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return TRUE, if the queue is empty. Otherwise, FALSE.
+     * @since 2.4
+     */
+    public boolean isEmpty() {
+        return size() == ZERO;
+    }
+
+    /**
+     * This method checks whether there is an element at the head of the queue
+     * and, if the head segment has been completely consumed, moves to the next
+     * one. It must only be called by the consumer thread.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return TRUE, if there is an element at the head of the queue.
+     * Otherwise, FALSE.
+     * @since 2.4
+     */
+    private boolean moveToNextElement() {
+        if (this.numberOfPolledElements.get() == this.numberOfOfferedElements.get()) {
+            return false;
+        }
+        if (this.headIndex == SEGMENT_SIZE) {
+            this.headSegment = this.headSegment.next;
+            this.headIndex = ZERO;
+        }
+        return true;
+    }
+
+    /**
+     * This class implements a segment of the queue: a fixed-size array of
+     * elements and a reference to the next segment.
+     *
+     * @param <E> Type of the elements stored in the segment.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @version 2.0
+     */
+    private static final class TSegment<E> {
+
+        private final Object[] elements = new Object[SEGMENT_SIZE];
+        private TSegment<E> next;
+    }
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final int SEGMENT_SIZE = 64;
+
+    // Only used by the producer
+    private TSegment<E> tailSegment;
+    private int tailIndex;
+    // Only used by the consumer
+    private TSegment<E> headSegment;
+    private int headIndex;
+    // Shared
+    private final AtomicLong numberOfOfferedElements;
+    private final AtomicLong numberOfPolledElements;
+}
@@ -34,4 +34,34 @@ public interface ITimerEventListener extends EventListener {
      * @param timerEvent The timer event received.
      */ 
     public void receiveTimerEvent(TTimerEvent timerEvent);
+
+    /**
+     * This method, when implemented, will compute how many consecutive timer
+     * events, starting with the next one, would not cause any observable
+     * change in the listener apart from the elapsed time. This allows the
+     * timer to skip them when running in event driven mode.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     * @param tickDurationInNs Duration of each tick, in nanoseconds.
+     * @param maxNumberOfIdleTicks The maximum number of ticks the timer is
+     * interested in. The returned value must never be greater than this.
+     * @return Number of consecutive idle ticks. Zero if the next timer event
+     * has to be delivered as usual.
+     */
+    public long getNumberOfIdleTicks(int tickDurationInNs, long maxNumberOfIdleTicks);
+
+    /**
+     * This method, when implemented, will update the listener as if it had
+     * received the specified number of consecutive timer events, all of them
+     * idle ones.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     * @param firstIdleTick The first timer event that is being skipped.
+     * @param numberOfIdleTicks Number of consecutive timer events being
+     * skipped. Never greater than the value returned by
+     * getNumberOfIdleTicks().
+     */
+    public void skipIdleTicks(TTimerEvent firstIdleTick, long numberOfIdleTicks);
 }
@@ -0,0 +1,58 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.hardware.timer;
+
+/**
+ * This interface has to be implemented by classes that want to run the work
+ * that each topology element does in a given tick of the simulation. It
+ * decouples TTimer and TTopologyElement from the way that work is mapped to
+ * threads.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public interface ITimerExecutionBackend {
+
+    /**
+     * This method, when implemented, will schedule the work a topology element
+     * has to do during the current tick. It must return without waiting for
+     * the work to be done.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param tickWork The work to be done during the current tick.
+     * @since 2.4
+     */
+    public void execute(Runnable tickWork);
+
+    /**
+     * This method, when implemented, will block the caller until all the work
+     * scheduled during the current tick has finished. Once it returns, a new
+     * tick can be started.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public void awaitTickCompletion();
+
+    /**
+     * This method, when implemented, will release the resources (threads,
+     * mainly) used by the backend. The backend cannot be used afterwards.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public void shutdown();
+}
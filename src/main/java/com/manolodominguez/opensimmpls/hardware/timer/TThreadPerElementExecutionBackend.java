@@ -0,0 +1,92 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.hardware.timer;
+
+import java.util.LinkedList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements an execution backend that creates a new thread for
+ * each topology element in each tick and joins all of them at the end of the
+ * tick. This is the way the simulator worked originally and it is kept for
+ * comparison purposes.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public class TThreadPerElementExecutionBackend implements ITimerExecutionBackend {
+
+    /**
+     * This method is the constructor of the class. It creates a new instance of
+     * TThreadPerElementExecutionBackend.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public TThreadPerElementExecutionBackend() {
+        this.threadsOfCurrentTick = new LinkedList<>();
+    }
+
+    /**
+     * This method starts a new thread that will do the work of a topology
+     * element during the current tick.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param tickWork The work to be done during the current tick.
+     * @since 2.4
+     */
+    @Override
+    public synchronized void execute(Runnable tickWork) {
+        Thread thread = new Thread(tickWork);
+        this.threadsOfCurrentTick.add(thread);
+        thread.start();
+    }
+
+    /**
+     * This method joins, one by one, all threads started during the current
+     * tick.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    @Override
+    public synchronized void awaitTickCompletion() {
+        while (!this.threadsOfCurrentTick.isEmpty()) {
+            try {
+                this.threadsOfCurrentTick.getFirst().join();
+                this.threadsOfCurrentTick.removeFirst();
+            } catch (InterruptedException e) {
+                this.logger.error(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * This method does nothing because this backend does not keep any thread
+     * alive between ticks.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    @Override
+    public void shutdown() {
+        // Do nothing. There is no thread to release.
+    }
+
+    private final LinkedList<Thread> threadsOfCurrentTick;
+    private final Logger logger = LoggerFactory.getLogger(TThreadPerElementExecutionBackend.class);
+}
@@ -17,6 +17,7 @@ package com.manolodominguez.opensimmpls.hardware.timer;
 
 import java.util.Iterator;
 import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
 import com.manolodominguez.opensimmpls.scenario.TOuterLink;
 import com.manolodominguez.opensimmpls.scenario.TInnerLink;
 import com.manolodominguez.opensimmpls.scenario.TActiveLERNode;
@@ -29,7 +30,6 @@ import com.manolodominguez.opensimmpls.scenario.TTrafficSinkNode;
 import com.manolodominguez.opensimmpls.scenario.TTrafficGeneratorNode;
 import com.manolodominguez.opensimmpls.scenario.TTopologyElement;
 import com.manolodominguez.opensimmpls.commons.EIDGeneratorOverflow;
-import com.manolodominguez.opensimmpls.gui.utils.TProgressEventListener;
 import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
 import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
 import java.util.ResourceBundle;
@@ -58,7 +58,7 @@ public class TTimer implements Runnable {
         this.thread = null;
         this.timerEventListenerNodes = new TreeSet<>();
         this.timerEventListenerLinks = new TreeSet<>();
-        this.progressEventListener = null;
+        this.progressEventListeners = new CopyOnWriteArrayList<>();
         this.longIdentifierGenerator = new TLongIDGenerator();
         this.currentTimestamp = new TTimestamp(ZERO, ZERO);
         this.previousTimestamp = new TTimestamp(ZERO, ZERO);
@@ -70,6 +70,9 @@ public class TTimer implements Runnable {
         this.running = false;
         this.isFinished = true;
         this.paused = false;
+        // The default execution backend is created on the first tick.
+        this.executionBackend = null;
+        this.eventDrivenScheduling = false;
         this.translations = ResourceBundle.getBundle(AvailableBundles.T_TIMER.getPath());
     }
 
@@ -118,6 +121,118 @@ public class TTimer implements Runnable {
         this.tickInNs = tickInNs;
     }
 
+    /**
+     * This method establishes the execution backend that will run the work
+     * that each topology element does in every tick. All topology elements
+     * already subscribed to this timer are moved to the new backend. It should
+     * not be called while the timer is running.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param executionBackend the execution backend to be used from now on.
+     * @since 2.4
+     */
+    public void setExecutionBackend(ITimerExecutionBackend executionBackend) {
+        if (executionBackend == null) {
+            this.logger.error(this.translations.getString("TReloj.ErrorBackendNulo"));
+            throw new IllegalArgumentException(this.translations.getString("TReloj.ErrorBackendNulo"));
+        }
+        ITimerExecutionBackend previousExecutionBackend = this.executionBackend;
+        this.executionBackend = executionBackend;
+        for (TTopologyElement node : this.timerEventListenerNodes) {
+            node.setExecutionBackend(executionBackend);
+        }
+        for (TTopologyElement link : this.timerEventListenerLinks) {
+            link.setExecutionBackend(executionBackend);
+        }
+        if ((previousExecutionBackend != null) && (previousExecutionBackend != executionBackend)) {
+            previousExecutionBackend.shutdown();
+        }
+    }
+
+    /**
+     * This method gets the execution backend that runs the work that each
+     * topology element does in every tick.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the execution backend currently used by this timer. NULL, if
+     * none has been set and the timer has not run any tick yet.
+     * @since 2.4
+     */
+    public ITimerExecutionBackend getExecutionBackend() {
+        return this.executionBackend;
+    }
+
+    /**
+     * This method shuts down the execution backend of this timer, if any,
+     * releasing its threads. A new default execution backend will be created
+     * if the timer runs again. It should be called once the simulation has
+     * finished or the scenario is being closed, never while the timer is
+     * running.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public void shutdownExecutionBackend() {
+        ITimerExecutionBackend previousExecutionBackend = this.executionBackend;
+        this.executionBackend = null;
+        for (TTopologyElement node : this.timerEventListenerNodes) {
+            node.setExecutionBackend(null);
+        }
+        for (TTopologyElement link : this.timerEventListenerLinks) {
+            link.setExecutionBackend(null);
+        }
+        if (previousExecutionBackend != null) {
+            previousExecutionBackend.shutdown();
+        }
+    }
+
+    /**
+     * This method creates the default execution backend, a pool of workers,
+     * unless another one has already been set. This way, a timer that never
+     * runs does not hold any thread.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    private void createDefaultExecutionBackendIfNeeded() {
+        if (this.executionBackend == null) {
+            setExecutionBackend(new TWorkerPoolExecutionBackend());
+        }
+    }
+
+    /**
+     * This method enables or disables the event driven scheduling mode. When
+     * enabled, after each tick the timer asks every topology element how many
+     * of the following ticks it would spend idle (no packet to be delivered,
+     * switched or generated and no TLDP/GPSRP timeout expiring). The timer
+     * then jumps straight to the first tick in which some element has
+     * something to do, updating elements as if the skipped ticks had been
+     * run. Simulation results are the same as in fixed tick mode, but per
+     * tick visual events (packets on fly, congestion levels) are only
+     * generated for ticks actually run. It should not be called while the
+     * timer is running.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param eventDrivenScheduling TRUE, to skip idle ticks. FALSE, to run
+     * every tick.
+     * @since 2.4
+     */
+    public void setEventDrivenScheduling(boolean eventDrivenScheduling) {
+        this.eventDrivenScheduling = eventDrivenScheduling;
+    }
+
+    /**
+     * This method checks whether the event driven scheduling mode is enabled
+     * or not.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return TRUE, if idle ticks are being skipped. Otherwise, FALSE.
+     * @since 2.4
+     */
+    public boolean isEventDrivenScheduling() {
+        return this.eventDrivenScheduling;
+    }
+
     /**
      * This method let a topology element (nodes and/or links) to subscribe the
      * timer to receive timer events.
@@ -127,6 +242,7 @@ public class TTimer implements Runnable {
      * @since 2.0
      */
     public void addTimerEventListener(TTopologyElement timerEventListener) {
+        timerEventListener.setExecutionBackend(this.executionBackend);
         if (timerEventListener.getElementType() == TTopologyElement.LINK) {
             this.timerEventListenerLinks.add(timerEventListener);
         } else {
@@ -195,34 +311,44 @@ public class TTimer implements Runnable {
 
     /**
      * This method subscribe a progress event listener to thi timer. In this
-     * way, the overall simulation progess will be known by this listener.
+     * way, the overall simulation progess will be known by this listener. Any
+     * number of progress event listeners can be subscribed at the same time.
+     * If the listener is already subscribed, nothing is done.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @param progressEventListener The progress event listener that are going
      * to receive progress events from this timer.
-     * @throws EProgressEventGeneratorOnlyAllowASingleListener It is possible to
-     * subscribe only one progress event listener at the same time. So, if you
-     * try to subscribe another one whe n there is a previous progress event
-     * listener subscribed to the timer, this ixception is thrown.
      * @since 2.0
      */
-    public void addProgressEventListener(TProgressEventListener progressEventListener) throws EProgressEventGeneratorOnlyAllowASingleListener {
-        if (this.progressEventListener == null) {
-            this.progressEventListener = progressEventListener;
-        } else {
-            throw new EProgressEventGeneratorOnlyAllowASingleListener();
+    public void addProgressEventListener(IProgressEventListener progressEventListener) {
+        if (progressEventListener != null) {
+            this.progressEventListeners.addIfAbsent(progressEventListener);
         }
     }
 
     /**
-     * This method unsubscribe the progress event listener from the timer. So,
-     * this progress event listener will stop receiving progress events.
+     * This method unsubscribe every progress event listener from the timer.
+     * So, they will stop receiving progress events.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
     public void removeProgressEventListener() {
-        this.progressEventListener = null;
+        this.progressEventListeners.clear();
+    }
+
+    /**
+     * This method unsubscribe the specified progress event listener from the
+     * timer. So, this progress event listener will stop receiving progress
+     * events. The rest of listeners are kept.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param progressEventListener The progress event listener to be
+     * unsubscribed.
+     * @since 2.4
+     */
+    public void removeProgressEventListener(IProgressEventListener progressEventListener) {
+        this.progressEventListeners.remove(progressEventListener);
     }
 
     /**
@@ -295,8 +421,8 @@ public class TTimer implements Runnable {
     }
 
     /**
-     * This method generates a new progress event an sends it to the only one
-     * listener that are subscribed to receive it.
+     * This method generates a new progress event an sends it to every
+     * listener that is subscribed to receive it.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
@@ -309,8 +435,11 @@ public class TTimer implements Runnable {
             computedProgress = Math.round((currentTime * ONE_HUNDRED) / simulationDuration);
         }
         try {
-            if (this.progressEventListener != null) {
-                this.progressEventListener.receiveProgressEvent(new TProgressEvent(this, this.longIdentifierGenerator.getNextIdentifier(), computedProgress));
+            if (!this.progressEventListeners.isEmpty()) {
+                TProgressEvent progressEvent = new TProgressEvent(this, this.longIdentifierGenerator.getNextIdentifier(), computedProgress);
+                for (IProgressEventListener listener : this.progressEventListeners) {
+                    listener.receiveProgressEvent(progressEvent);
+                }
             }
         } catch (EIDGeneratorOverflow ex) {
             this.logger.error(ex.getMessage(), ex);
@@ -408,6 +537,7 @@ public class TTimer implements Runnable {
     @Override
     public void run() {
         this.running = true;
+        createDefaultExecutionBackendIfNeeded();
         long currentSimulatedTime;
         long previousSimulatedTime;
         long simulationDuration;
@@ -445,41 +575,90 @@ public class TTimer implements Runnable {
                 this.isFinished = true;
             }
             waitUntilTimerEventListenersFinishTheirWork();
+            if (this.eventDrivenScheduling && !this.isFinished) {
+                skipIdleTicks();
+            }
         }
         this.running = false;
     }
 
+    /**
+     * This method is used in event driven scheduling mode. It computes how
+     * many of the following ticks would be idle for every topology element
+     * and, if any, updates all of them as if those ticks had been run and
+     * moves the timer forward. Only whole ticks that end before the finish
+     * timestamp are skipped, so the remaining ticks are exactly the same ones
+     * that would be run in fixed tick mode.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    private void skipIdleTicks() {
+        long currentSimulatedTime = this.currentTimestamp.getTotalAsNanoseconds();
+        long previousSimulatedTime = this.previousTimestamp.getTotalAsNanoseconds();
+        if ((currentSimulatedTime - previousSimulatedTime) != this.tickInNs) {
+            // The next tick is the last one and it is shorter.
+            return;
+        }
+        long numberOfIdleTicks = (this.finishTimestamp.getTotalAsNanoseconds() - currentSimulatedTime) / this.tickInNs;
+        Iterator<TTopologyElement> nodesIterator = this.timerEventListenerNodes.iterator();
+        while (nodesIterator.hasNext() && (numberOfIdleTicks > ZERO)) {
+            numberOfIdleTicks = nodesIterator.next().getNumberOfIdleTicks(this.tickInNs, numberOfIdleTicks);
+        }
+        Iterator<TTopologyElement> linksIterator = this.timerEventListenerLinks.iterator();
+        while (linksIterator.hasNext() && (numberOfIdleTicks > ZERO)) {
+            numberOfIdleTicks = linksIterator.next().getNumberOfIdleTicks(this.tickInNs, numberOfIdleTicks);
+        }
+        if (numberOfIdleTicks <= ZERO) {
+            return;
+        }
+        TTimestamp startOfFirstIdleTick = new TTimestamp(this.previousTimestamp.getMillisecond(), this.previousTimestamp.getNanosecond());
+        TTimestamp endOfFirstIdleTick = new TTimestamp(this.currentTimestamp.getMillisecond(), this.currentTimestamp.getNanosecond());
+        try {
+            TTimerEvent firstIdleTick = new TTimerEvent(this, this.longIdentifierGenerator.getNextIdentifier(), startOfFirstIdleTick, endOfFirstIdleTick);
+            for (TTopologyElement node : this.timerEventListenerNodes) {
+                node.skipIdleTicks(firstIdleTick, numberOfIdleTicks);
+            }
+            for (TTopologyElement link : this.timerEventListenerLinks) {
+                link.skipIdleTicks(firstIdleTick, numberOfIdleTicks);
+            }
+        } catch (EIDGeneratorOverflow ex) {
+            this.logger.error(ex.getMessage(), ex);
+            return;
+        }
+        long skippedNanoseconds = numberOfIdleTicks * this.tickInNs;
+        this.previousTimestamp.increaseMiliseconds(skippedNanoseconds / ONE_MILLION);
+        this.previousTimestamp.increaseNanoseconds((int) (skippedNanoseconds % ONE_MILLION));
+        this.currentTimestamp.increaseMiliseconds(skippedNanoseconds / ONE_MILLION);
+        this.currentTimestamp.increaseNanoseconds((int) (skippedNanoseconds % ONE_MILLION));
+    }
+
     /**
      * This method wait until all element that received a timer event have
      * consumed them. This is the way to synchronize al topology elements
-     * between timer events. This method is a synchronized one.
+     * between timer events. The execution backend knows about all the work
+     * started in the current tick, so it is in charge of detecting its end.
+     * This method is a synchronized one.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
     private synchronized void waitUntilTimerEventListenersFinishTheirWork() {
-        Iterator<TTopologyElement> nodesIterator = this.timerEventListenerNodes.iterator();
-        Iterator<TTopologyElement> linksIterator = this.timerEventListenerLinks.iterator();
-        TNode nodeAux;
-        TLink linkAux;
-        while (nodesIterator.hasNext()) {
-            nodeAux = (TNode) nodesIterator.next();
-            nodeAux.waitForCompletion();
-        }
-        while (linksIterator.hasNext()) {
-            linkAux = (TLink) linksIterator.next();
-            linkAux.waitForCompletion();
+        ITimerExecutionBackend currentExecutionBackend = this.executionBackend;
+        if (currentExecutionBackend != null) {
+            currentExecutionBackend.awaitTickCompletion();
         }
     }
 
     /**
      * This method is used by any simulator object to wait for the timer finish
-     * before doing a new operation. This method is a synchronized one.
+     * before doing a new operation. It is not a synchronized one because the
+     * timer thread needs the monitor of this timer to finish its work.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
-    public synchronized void waitForCompletion() {
+    public void waitForCompletion() {
         if (this.thread != null) {
             try {
                 this.thread.join();
@@ -503,10 +682,12 @@ public class TTimer implements Runnable {
 
     private TreeSet<TTopologyElement> timerEventListenerNodes;
     private TreeSet<TTopologyElement> timerEventListenerLinks;
-    private TProgressEventListener progressEventListener;
+    private final CopyOnWriteArrayList<IProgressEventListener> progressEventListeners;
     private TLongIDGenerator longIdentifierGenerator;
     private int tickInNs;
     private Thread thread;
+    private ITimerExecutionBackend executionBackend;
+    private boolean eventDrivenScheduling;
     private TTimestamp currentTimestamp;
     private TTimestamp previousTimestamp;
     private TTimestamp finishTimestamp;
@@ -523,4 +704,5 @@ public class TTimer implements Runnable {
     private static final int ONE_HUNDRED = 100;
     private static final int DEFAULT_TICK_LENGTH_IN_NS = 1000;
     private static final int ONE_HUNDRED_THOUSAND = 100000;
+    private static final long ONE_MILLION = 1000000;
 }
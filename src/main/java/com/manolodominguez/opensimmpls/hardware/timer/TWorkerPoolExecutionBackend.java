@@ -0,0 +1,158 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.hardware.timer;
+
+import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import java.util.ResourceBundle;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.RejectedExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements an execution backend that runs the work of all
+ * topology elements on a reusable pool of worker threads. By default, it uses
+ * a work-stealing pool with as many workers as available processors, but any
+ * other ExecutorService can be supplied. The end of each tick is detected by
+ * means of a phaser instead of joining threads one by one.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public class TWorkerPoolExecutionBackend implements ITimerExecutionBackend {
+
+    /**
+     * This method is the constructor of the class. It creates a new instance of
+     * TWorkerPoolExecutionBackend backed by a work-stealing pool with as many
+     * workers as available processors.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public TWorkerPoolExecutionBackend() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * This method is the constructor of the class. It creates a new instance of
+     * TWorkerPoolExecutionBackend backed by a work-stealing pool with the
+     * specified number of workers.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param numberOfWorkers The number of worker threads of the pool.
+     * @since 2.4
+     */
+    public TWorkerPoolExecutionBackend(int numberOfWorkers) {
+        this(new ForkJoinPool(validateNumberOfWorkers(numberOfWorkers)));
+    }
+
+    /**
+     * This method is the constructor of the class. It creates a new instance of
+     * TWorkerPoolExecutionBackend backed by the specified executor. This allows,
+     * for instance, using a virtual-thread-per-task executor on runtimes that
+     * support it.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param executor The executor that will run the work of each tick.
+     * @since 2.4
+     */
+    public TWorkerPoolExecutionBackend(ExecutorService executor) {
+        this.translations = ResourceBundle.getBundle(AvailableBundles.T_WORKER_POOL_EXECUTION_BACKEND.getPath());
+        if (executor == null) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        this.executor = executor;
+        // The party registered here is the timer itself.
+        this.tickPhaser = new Phaser(ONE);
+    }
+
+    /**
+     * This method checks that the number of workers requested for the pool is
+     * a valid one.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param numberOfWorkers The number of worker threads of the pool.
+     * @return The number of worker threads of the pool, if valid.
+     * @since 2.4
+     */
+    private static int validateNumberOfWorkers(int numberOfWorkers) {
+        if (numberOfWorkers < ONE) {
+            ResourceBundle bundle = ResourceBundle.getBundle(AvailableBundles.T_WORKER_POOL_EXECUTION_BACKEND.getPath());
+            throw new IllegalArgumentException(bundle.getString("argumentOutOfRange"));
+        }
+        return numberOfWorkers;
+    }
+
+    /**
+     * This method submits the work of a topology element to the pool. The
+     * phaser gets a new party that will arrive once the work is done.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param tickWork The work to be done during the current tick.
+     * @since 2.4
+     */
+    @Override
+    public void execute(Runnable tickWork) {
+        this.tickPhaser.register();
+        try {
+            this.executor.execute(() -> {
+                try {
+                    tickWork.run();
+                } catch (RuntimeException e) {
+                    this.logger.error(e.getMessage(), e);
+                } finally {
+                    this.tickPhaser.arriveAndDeregister();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.tickPhaser.arriveAndDeregister();
+            this.logger.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * This method blocks the timer until every piece of work submitted during
+     * the current tick has arrived at the phaser.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    @Override
+    public void awaitTickCompletion() {
+        this.tickPhaser.arriveAndAwaitAdvance();
+    }
+
+    /**
+     * This method shuts the pool down. Work already submitted is finished.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    @Override
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+    private final ExecutorService executor;
+    private final Phaser tickPhaser;
+    private ResourceBundle translations;
+    private final Logger logger = LoggerFactory.getLogger(TWorkerPoolExecutionBackend.class);
+
+    private static final int ONE = 1;
+}
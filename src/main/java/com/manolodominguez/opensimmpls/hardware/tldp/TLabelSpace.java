@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.hardware.tldp;
+
+import java.util.Arrays;
+
+/**
+ * This class implements the 20-bits label space of a switching matrix. It
+ * counts how many label entries use each label and keeps a bitmap of used
+ * labels, so that the lowest free label is found without checking every
+ * switching entry. Both arrays grow on demand up to the highest used label, so
+ * nodes that use few labels need little memory. This class is not thread safe;
+ * the switching matrix that owns it is in charge of that.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public class TLabelSpace {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TLabelSpace where every label is free.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public TLabelSpace() {
+        this.referenceCounts = new int[INITIAL_CAPACITY];
+        this.usedLabelsBitmap = new long[INITIAL_CAPACITY / BITS_PER_WORD];
+        this.firstWordWithFreeLabels = ZERO;
+        this.numberOfUsedLabels = ZERO;
+    }
+
+    /**
+     * This method states that a new label entry uses the specified label.
+     * Labels outside the label space are ignored.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param label The label used by the new label entry.
+     * @since 2.4
+     */
+    public void addReference(int label) {
+        if ((label < ZERO) || (label > TSwitchingMatrixEntry.LABEL_SPACE)) {
+            return;
+        }
+        ensureCapacity(label);
+        this.referenceCounts[label]++;
+        if (this.referenceCounts[label] == ONE) {
+            this.usedLabelsBitmap[label / BITS_PER_WORD] |= (ONE_BIT << (label % BITS_PER_WORD));
+            this.numberOfUsedLabels++;
+        }
+    }
+
+    /**
+     * This method states that a label entry no longer uses the specified
+     * label. When no label entry uses it, the label becomes free. Labels
+     * outside the label space or not in use are ignored.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param label The label that is no longer used by a label entry.
+     * @since 2.4
+     */
+    public void removeReference(int label) {
+        if (!isUsed(label)) {
+            return;
+        }
+        this.referenceCounts[label]--;
+        if (this.referenceCounts[label] == ZERO) {
+            this.usedLabelsBitmap[label / BITS_PER_WORD] &= ~(ONE_BIT << (label % BITS_PER_WORD));
+            this.numberOfUsedLabels--;
+            this.firstWordWithFreeLabels = Math.min(this.firstWordWithFreeLabels, label / BITS_PER_WORD);
+        }
+    }
+
+    /**
+     * This method checks whether any label entry uses the specified label.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param label The label to be checked.
+     * @return TRUE, if any label entry uses the specified label. Otherwise,
+     * FALSE. Labels outside the label space are never in use.
+     * @since 2.4
+     */
+    public boolean isUsed(int label) {
+        if ((label < ZERO) || (label >= this.referenceCounts.length)) {
+            return false;
+        }
+        return this.referenceCounts[label] > ZERO;
+    }
+
+    /**
+     * This method gets the lowest unreserved label that is not used by any
+     * label entry. The label is not reserved; it becomes used once a label
+     * entry uses it.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the lowest free label, or TSwitchingMatrixEntry.LABEL_UNAVAILABLE
+     * if the label space is completely used.
+     * @since 2.4
+     */
+    public int getFirstFreeLabel() {
+        int word = this.firstWordWithFreeLabels;
+        long usedLabels;
+        while (word < this.usedLabelsBitmap.length) {
+            usedLabels = this.usedLabelsBitmap[word];
+            if (word == ZERO) {
+                usedLabels |= RESERVED_LABELS_MASK;
+            }
+            if (usedLabels != ALL_LABELS_USED) {
+                break;
+            }
+            word++;
+        }
+        // Words before this one have no free labels, so next searches can
+        // start here.
+        this.firstWordWithFreeLabels = word;
+        int label;
+        if (word < this.usedLabelsBitmap.length) {
+            usedLabels = this.usedLabelsBitmap[word];
+            if (word == ZERO) {
+                usedLabels |= RESERVED_LABELS_MASK;
+            }
+            label = (word * BITS_PER_WORD) + Long.numberOfTrailingZeros(~usedLabels);
+        } else {
+            label = Math.max(word * BITS_PER_WORD, TSwitchingMatrixEntry.FIRST_UNRESERVED_LABEL);
+        }
+        if (label > TSwitchingMatrixEntry.LABEL_SPACE) {
+            return TSwitchingMatrixEntry.LABEL_UNAVAILABLE;
+        }
+        return label;
+    }
+
+    /**
+     * This method gets the number of different labels currently used by label
+     * entries.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of used labels.
+     * @since 2.4
+     */
+    public int getNumberOfUsedLabels() {
+        return this.numberOfUsedLabels;
+    }
+
+    /**
+     * This method gets the number of labels that can be assigned to label
+     * entries, that is, the label space without reserved labels.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of assignable labels.
+     * @since 2.4
+     */
+    public int getNumberOfAssignableLabels() {
+        return TSwitchingMatrixEntry.LABEL_SPACE - TSwitchingMatrixEntry.FIRST_UNRESERVED_LABEL + ONE;
+    }
+
+    /**
+     * This method gets the percentage of the assignable labels that are
+     * currently used.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the percentage (0-100) of used labels.
+     * @since 2.4
+     */
+    public double getUsagePercentage() {
+        return (this.numberOfUsedLabels * ONE_HUNDRED) / getNumberOfAssignableLabels();
+    }
+
+    /**
+     * This method frees every label, as when created by the constructor.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public void reset() {
+        this.referenceCounts = new int[INITIAL_CAPACITY];
+        this.usedLabelsBitmap = new long[INITIAL_CAPACITY / BITS_PER_WORD];
+        this.firstWordWithFreeLabels = ZERO;
+        this.numberOfUsedLabels = ZERO;
+    }
+
+    /**
+     * This method grows the internal arrays, if needed, so that the specified
+     * label fits in them.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param label The label that has to fit in the internal arrays.
+     * @since 2.4
+     */
+    private void ensureCapacity(int label) {
+        if (label < this.referenceCounts.length) {
+            return;
+        }
+        int capacity = this.referenceCounts.length;
+        while (capacity <= label) {
+            capacity *= TWO;
+        }
+        this.referenceCounts = Arrays.copyOf(this.referenceCounts, capacity);
+        this.usedLabelsBitmap = Arrays.copyOf(this.usedLabelsBitmap, capacity / BITS_PER_WORD);
+    }
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final int TWO = 2;
+    private static final double ONE_HUNDRED = 100.0;
+    private static final int BITS_PER_WORD = 64;
+    private static final int INITIAL_CAPACITY = 256;
+    private static final long ONE_BIT = 1L;
+    private static final long ALL_LABELS_USED = -1L;
+    private static final long RESERVED_LABELS_MASK = (ONE_BIT << TSwitchingMatrixEntry.FIRST_UNRESERVED_LABEL) - ONE_BIT;
+
+    private int[] referenceCounts;
+    private long[] usedLabelsBitmap;
+    private int firstWordWithFreeLabels;
+    private int numberOfUsedLabels;
+}
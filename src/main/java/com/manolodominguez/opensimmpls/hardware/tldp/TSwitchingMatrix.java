@@ -15,13 +15,21 @@
  */
 package com.manolodominguez.opensimmpls.hardware.tldp;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashSet;
 import com.manolodominguez.opensimmpls.commons.TSemaphore;
 
 /**
  * This class implements a switching matrix to be used within each node of the
- * topology.
+ * topology. Besides the entries themselves, kept in insertion order, it stores
+ * three hash indexes: one on (incoming port, label or FEC, entry type), one on
+ * local TLDP session ID and one on (upstream TLDP session ID, incoming port).
+ * So lookups do not depend on the number of entries. Labels used by label
+ * entries are tracked by a label space, so new labels are also assigned
+ * without checking every entry. Entries notify the switching matrix when any
+ * of these fields change, to keep indexes and label space up to date.
  *
  * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
  * @version 2.0
@@ -36,8 +44,14 @@ public class TSwitchingMatrix {
      * @since 2.0
      */
     public TSwitchingMatrix() {
-        this.switchingMatrix = new LinkedList<>();
+        this.switchingMatrix = new LinkedHashSet<>();
         this.semaphore = new TSemaphore();
+        this.entriesByLabelOrFEC = new HashMap<>();
+        this.entriesByLocalTLDPSessionID = new HashMap<>();
+        this.entriesByUpstreamTLDPSessionID = new HashMap<>();
+        this.labelSpace = new TLabelSpace();
+        this.indexesLock = new Object();
+        this.nextInsertionOrder = ZERO;
     }
 
     /**
@@ -63,7 +77,13 @@ public class TSwitchingMatrix {
      */
     public void addEntry(TSwitchingMatrixEntry switchingMatrixEntry) {
         this.semaphore.setRed();
-        this.switchingMatrix.addLast(switchingMatrixEntry);
+        if (this.switchingMatrix.add(switchingMatrixEntry) && (switchingMatrixEntry != null)) {
+            synchronized (this.indexesLock) {
+                switchingMatrixEntry.setSwitchingMatrix(this, this.nextInsertionOrder);
+                this.nextInsertionOrder++;
+                addToIndexes(switchingMatrixEntry);
+            }
+        }
         this.semaphore.setGreen();
     }
 
@@ -82,22 +102,7 @@ public class TSwitchingMatrix {
      * @since 2.0
      */
     public TSwitchingMatrixEntry getEntry(int incomingPortID, int labelOrFEC, int entryType) {
-        this.semaphore.setRed();
-        Iterator<TSwitchingMatrixEntry> iterator = this.switchingMatrix.iterator();
-        TSwitchingMatrixEntry switchingMatrixEntryAux;
-        while (iterator.hasNext()) {
-            switchingMatrixEntryAux = iterator.next();
-            if (switchingMatrixEntryAux.getLabelOrFEC() == labelOrFEC) {
-                if (switchingMatrixEntryAux.getIncomingPortID() == incomingPortID) {
-                    if (switchingMatrixEntryAux.getEntryType() == entryType) {
-                        this.semaphore.setGreen();
-                        return switchingMatrixEntryAux;
-                    }
-                }
-            }
-        }
-        this.semaphore.setGreen();
-        return null;
+        return getFirstEntry(this.entriesByLabelOrFEC, new TIndexKey(incomingPortID, labelOrFEC, entryType));
     }
 
     /**
@@ -112,18 +117,7 @@ public class TSwitchingMatrix {
      * @since 2.0
      */
     public TSwitchingMatrixEntry getEntry(int localTLDPSessionID) {
-        this.semaphore.setRed();
-        Iterator<TSwitchingMatrixEntry> iterator = this.switchingMatrix.iterator();
-        TSwitchingMatrixEntry switchingMatrixEntryAux;
-        while (iterator.hasNext()) {
-            switchingMatrixEntryAux = iterator.next();
-            if (switchingMatrixEntryAux.getLocalTLDPSessionID() == localTLDPSessionID) {
-                this.semaphore.setGreen();
-                return switchingMatrixEntryAux;
-            }
-        }
-        this.semaphore.setGreen();
-        return null;
+        return getFirstEntry(this.entriesByLocalTLDPSessionID, new TIndexKey(localTLDPSessionID, ZERO, ZERO));
     }
 
     /**
@@ -140,20 +134,7 @@ public class TSwitchingMatrix {
      * @since 2.0
      */
     public TSwitchingMatrixEntry getEntry(int upstreamTLDPSessionID, int incomingPortID) {
-        this.semaphore.setRed();
-        Iterator<TSwitchingMatrixEntry> iterator = this.switchingMatrix.iterator();
-        TSwitchingMatrixEntry switchingMatrixEntryAux;
-        while (iterator.hasNext()) {
-            switchingMatrixEntryAux = iterator.next();
-            if (switchingMatrixEntryAux.getUpstreamTLDPSessionID() == upstreamTLDPSessionID) {
-                if (switchingMatrixEntryAux.getIncomingPortID() == incomingPortID) {
-                    this.semaphore.setGreen();
-                    return switchingMatrixEntryAux;
-                }
-            }
-        }
-        this.semaphore.setGreen();
-        return null;
+        return getFirstEntry(this.entriesByUpstreamTLDPSessionID, new TIndexKey(upstreamTLDPSessionID, incomingPortID, ZERO));
     }
 
     /**
@@ -171,22 +152,7 @@ public class TSwitchingMatrix {
      * @since 2.0
      */
     public boolean existsEntry(int incomingPortID, int labelOrFEC, int entryType) {
-        this.semaphore.setRed();
-        Iterator<TSwitchingMatrixEntry> iterator = this.switchingMatrix.iterator();
-        TSwitchingMatrixEntry switchingMatrixEntryAux;
-        while (iterator.hasNext()) {
-            switchingMatrixEntryAux = iterator.next();
-            if (switchingMatrixEntryAux.getLabelOrFEC() == labelOrFEC) {
-                if (switchingMatrixEntryAux.getIncomingPortID() == incomingPortID) {
-                    if (switchingMatrixEntryAux.getEntryType() == entryType) {
-                        this.semaphore.setGreen();
-                        return true;
-                    }
-                }
-            }
-        }
-        this.semaphore.setGreen();
-        return false;
+        return getEntry(incomingPortID, labelOrFEC, entryType) != null;
     }
 
     /**
@@ -204,15 +170,11 @@ public class TSwitchingMatrix {
      */
     public void removeEntry(int incomingPortID, int labelOrFEC, int entryType) {
         this.semaphore.setRed();
-        Iterator<TSwitchingMatrixEntry> iterator = this.switchingMatrix.iterator();
-        TSwitchingMatrixEntry switchingMatrixEntryAux;
-        while (iterator.hasNext()) {
-            switchingMatrixEntryAux = iterator.next();
-            if (switchingMatrixEntryAux.getLabelOrFEC() == labelOrFEC) {
-                if (switchingMatrixEntryAux.getIncomingPortID() == incomingPortID) {
-                    if (switchingMatrixEntryAux.getEntryType() == entryType) {
-                        iterator.remove();
-                    }
+        synchronized (this.indexesLock) {
+            ArrayList<TSwitchingMatrixEntry> entries = this.entriesByLabelOrFEC.get(new TIndexKey(incomingPortID, labelOrFEC, entryType));
+            if (entries != null) {
+                for (TSwitchingMatrixEntry switchingMatrixEntry : new ArrayList<>(entries)) {
+                    removeFromMatrix(switchingMatrixEntry);
                 }
             }
         }
@@ -232,13 +194,13 @@ public class TSwitchingMatrix {
      */
     public void removeEntry(int localTLDPSessionID, int incomingPortID) {
         this.semaphore.setRed();
-        Iterator<TSwitchingMatrixEntry> iterator = this.switchingMatrix.iterator();
-        TSwitchingMatrixEntry switchingMatrixEntryAux;
-        while (iterator.hasNext()) {
-            switchingMatrixEntryAux = iterator.next();
-            if (switchingMatrixEntryAux.getLocalTLDPSessionID() == localTLDPSessionID) {
-                if (switchingMatrixEntryAux.getIncomingPortID() == incomingPortID) {
-                    iterator.remove();
+        synchronized (this.indexesLock) {
+            ArrayList<TSwitchingMatrixEntry> entries = this.entriesByLocalTLDPSessionID.get(new TIndexKey(localTLDPSessionID, ZERO, ZERO));
+            if (entries != null) {
+                for (TSwitchingMatrixEntry switchingMatrixEntry : new ArrayList<>(entries)) {
+                    if (switchingMatrixEntry.getIncomingPortID() == incomingPortID) {
+                        removeFromMatrix(switchingMatrixEntry);
+                    }
                 }
             }
         }
@@ -265,21 +227,10 @@ public class TSwitchingMatrix {
      * @since 2.0
      */
     public int getLabelStackOperation(int incomingPortID, int labelOrFEC, int entryType) {
-        this.semaphore.setRed();
-        Iterator<TSwitchingMatrixEntry> iterator = this.switchingMatrix.iterator();
-        TSwitchingMatrixEntry switchingMatrixEntryAux;
-        while (iterator.hasNext()) {
-            switchingMatrixEntryAux = iterator.next();
-            if (switchingMatrixEntryAux.getLabelOrFEC() == labelOrFEC) {
-                if (switchingMatrixEntryAux.getIncomingPortID() == incomingPortID) {
-                    if (switchingMatrixEntryAux.getEntryType() == entryType) {
-                        this.semaphore.setGreen();
-                        return switchingMatrixEntryAux.getLabelStackOperation();
-                    }
-                }
-            }
+        TSwitchingMatrixEntry switchingMatrixEntry = getEntry(incomingPortID, labelOrFEC, entryType);
+        if (switchingMatrixEntry != null) {
+            return switchingMatrixEntry.getLabelStackOperation();
         }
-        this.semaphore.setGreen();
         return TSwitchingMatrixEntry.UNDEFINED;
     }
 
@@ -301,21 +252,10 @@ public class TSwitchingMatrix {
      * @since 2.0
      */
     public int getOutgoingLabel(int incomingPortID, int labelOrFEC, int entryType) {
-        this.semaphore.setRed();
-        Iterator<TSwitchingMatrixEntry> iterator = this.switchingMatrix.iterator();
-        TSwitchingMatrixEntry switchingMatrixEntryAux;
-        while (iterator.hasNext()) {
-            switchingMatrixEntryAux = iterator.next();
-            if (switchingMatrixEntryAux.getLabelOrFEC() == labelOrFEC) {
-                if (switchingMatrixEntryAux.getIncomingPortID() == incomingPortID) {
-                    if (switchingMatrixEntryAux.getEntryType() == entryType) {
-                        this.semaphore.setGreen();
-                        return switchingMatrixEntryAux.getOutgoingLabel();
-                    }
-                }
-            }
+        TSwitchingMatrixEntry switchingMatrixEntry = getEntry(incomingPortID, labelOrFEC, entryType);
+        if (switchingMatrixEntry != null) {
+            return switchingMatrixEntry.getOutgoingLabel();
         }
-        this.semaphore.setGreen();
         return TSwitchingMatrixEntry.UNDEFINED;
     }
 
@@ -337,21 +277,10 @@ public class TSwitchingMatrix {
      * @since 2.0
      */
     public int getOutgoingPortID(int incomingPortID, int labelOrFEC, int entryType) {
-        this.semaphore.setRed();
-        Iterator<TSwitchingMatrixEntry> iterator = this.switchingMatrix.iterator();
-        TSwitchingMatrixEntry switchingMatrixEntryAux = null;
-        while (iterator.hasNext()) {
-            switchingMatrixEntryAux = iterator.next();
-            if (switchingMatrixEntryAux.getLabelOrFEC() == labelOrFEC) {
-                if (switchingMatrixEntryAux.getIncomingPortID() == incomingPortID) {
-                    if (switchingMatrixEntryAux.getEntryType() == entryType) {
-                        this.semaphore.setGreen();
-                        return switchingMatrixEntryAux.getOutgoingPortID();
-                    }
-                }
-            }
+        TSwitchingMatrixEntry switchingMatrixEntry = getEntry(incomingPortID, labelOrFEC, entryType);
+        if (switchingMatrixEntry != null) {
+            return switchingMatrixEntry.getOutgoingPortID();
         }
-        this.semaphore.setGreen();
         return TSwitchingMatrixEntry.UNDEFINED;
     }
 
@@ -362,29 +291,21 @@ public class TSwitchingMatrix {
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @param label The label we want to check.
      * @return TRUE if any switching entry in the switching matrix is using the
-     * specified label. Otherwise returns FALSE.
+     * specified label. Otherwise returns FALSE. Labels outside the label space
+     * are never in use.
      * @since 2.0
      */
     public boolean labelIsAlreadyUsed(int label) {
-        this.semaphore.setRed();
-        Iterator<TSwitchingMatrixEntry> iterator = this.switchingMatrix.iterator();
-        TSwitchingMatrixEntry switchingMatrixEntryAux;
-        while (iterator.hasNext()) {
-            switchingMatrixEntryAux = iterator.next();
-            if (switchingMatrixEntryAux.getLabelOrFEC() == label) {
-                if (switchingMatrixEntryAux.getEntryType() == TSwitchingMatrixEntry.LABEL_ENTRY) {
-                    this.semaphore.setGreen();
-                    return true;
-                }
-            }
+        synchronized (this.indexesLock) {
+            return this.labelSpace.isUsed(label);
         }
-        this.semaphore.setGreen();
-        return false;
     }
 
     /**
      * This method generates and returns a new 20-bits label tha is not used by
-     * any other switching entry in the switching matrix.
+     * any other switching entry in the switching matrix. It is the lowest free
+     * label; it becomes used once a label entry of this switching matrix takes
+     * it.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @return a new 20-bits label that is not used by any other switching entry
@@ -394,27 +315,22 @@ public class TSwitchingMatrix {
      * @since 2.0
      */
     public int getNewLabel() {
-        int labelAux = TSwitchingMatrixEntry.FIRST_UNRESERVED_LABEL;
-        while (labelAux <= TSwitchingMatrixEntry.LABEL_SPACE) {
-            if (!labelIsAlreadyUsed(labelAux)) {
-                return labelAux;
-            } else {
-                labelAux++;
-            }
+        synchronized (this.indexesLock) {
+            return this.labelSpace.getFirstFreeLabel();
         }
-        return TSwitchingMatrixEntry.LABEL_UNAVAILABLE;
     }
 
     /**
      * This method returns the switching entries iterator for this switching
-     * matrix.
+     * matrix. Entries are returned in the same order they were added. Removing
+     * an entry through the iterator also removes it from the indexes.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @return the switching entries iterator for this switching matrix.
      * @since 2.0
      */
     public Iterator<TSwitchingMatrixEntry> getEntriesIterator() {
-        return this.switchingMatrix.iterator();
+        return new TEntriesIterator(this.switchingMatrix.iterator());
     }
 
     /**
@@ -430,6 +346,112 @@ public class TSwitchingMatrix {
         return this.switchingMatrix.size();
     }
 
+    /**
+     * This method returns the number of different labels used by the label
+     * entries of this switching matrix.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the number of used labels.
+     * @since 2.4
+     */
+    public int getNumberOfUsedLabels() {
+        synchronized (this.indexesLock) {
+            return this.labelSpace.getNumberOfUsedLabels();
+        }
+    }
+
+    /**
+     * This method returns the percentage of the assignable label space that
+     * is used by the label entries of this switching matrix.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the percentage (0-100) of used labels.
+     * @since 2.4
+     */
+    public double getLabelSpaceUsagePercentage() {
+        synchronized (this.indexesLock) {
+            return this.labelSpace.getUsagePercentage();
+        }
+    }
+
+    /**
+     * This method checks whether there is any switching entry whose incoming
+     * or outgoing port is still undefined.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return TRUE, if there is at least one entry with an undefined port.
+     * Otherwise, FALSE.
+     * @since 2.4
+     */
+    public boolean isThereAnyEntryWithUndefinedPorts() {
+        boolean entryFound = false;
+        this.semaphore.setRed();
+        Iterator<TSwitchingMatrixEntry> iterator = this.switchingMatrix.iterator();
+        TSwitchingMatrixEntry switchingMatrixEntry = null;
+        while (iterator.hasNext() && !entryFound) {
+            switchingMatrixEntry = iterator.next();
+            if (switchingMatrixEntry == null) {
+                entryFound = true;
+            } else if ((switchingMatrixEntry.getIncomingPortID() < ZERO) || (switchingMatrixEntry.getOutgoingPortID() < ZERO)) {
+                entryFound = true;
+            }
+        }
+        this.semaphore.setGreen();
+        return entryFound;
+    }
+
+    /**
+     * This method computes how many consecutive ticks of the specified
+     * duration can elapse without any switching entry retrying its TLDP
+     * operation or being purged.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param tickDurationInNs Duration of each tick, in nanoseconds.
+     * @param maxNumberOfIdleTicks The maximum number of ticks the caller is
+     * interested in. The returned value will never be greater than this.
+     * @return Number of consecutive idle ticks for the whole switching matrix.
+     * @since 2.4
+     */
+    public long getNumberOfIdleTicks(int tickDurationInNs, long maxNumberOfIdleTicks) {
+        long numberOfIdleTicks = maxNumberOfIdleTicks;
+        this.semaphore.setRed();
+        Iterator<TSwitchingMatrixEntry> iterator = this.switchingMatrix.iterator();
+        TSwitchingMatrixEntry switchingMatrixEntry = null;
+        while (iterator.hasNext() && (numberOfIdleTicks > ZERO)) {
+            switchingMatrixEntry = iterator.next();
+            if (switchingMatrixEntry == null) {
+                numberOfIdleTicks = ZERO;
+            } else {
+                numberOfIdleTicks = Math.min(numberOfIdleTicks, switchingMatrixEntry.getNumberOfIdleTicks(tickDurationInNs));
+            }
+        }
+        this.semaphore.setGreen();
+        return numberOfIdleTicks;
+    }
+
+    /**
+     * This method updates all switching entries as if the specified number of
+     * idle ticks had elapsed. It must not be called with more ticks than those
+     * returned by getNumberOfIdleTicks().
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param numberOfIdleTicks Number of idle ticks to be skipped.
+     * @param tickDurationInNs Duration of each tick, in nanoseconds.
+     * @since 2.4
+     */
+    public void skipIdleTicks(long numberOfIdleTicks, int tickDurationInNs) {
+        this.semaphore.setRed();
+        Iterator<TSwitchingMatrixEntry> iterator = this.switchingMatrix.iterator();
+        TSwitchingMatrixEntry switchingMatrixEntry = null;
+        while (iterator.hasNext()) {
+            switchingMatrixEntry = iterator.next();
+            if (switchingMatrixEntry != null) {
+                switchingMatrixEntry.skipIdleTicks(numberOfIdleTicks, tickDurationInNs);
+            }
+        }
+        this.semaphore.setGreen();
+    }
+
     /**
      * This method clear all switching entries in stored in the switching
      * matrix, as when created by the constructor.
@@ -439,14 +461,302 @@ public class TSwitchingMatrix {
      */
     public void reset() {
         this.semaphore.setRed();
-        Iterator<TSwitchingMatrixEntry> iterator = this.switchingMatrix.iterator();
-        while (iterator.hasNext()) {
-            iterator.next();
-            iterator.remove();
+        synchronized (this.indexesLock) {
+            for (TSwitchingMatrixEntry switchingMatrixEntry : this.switchingMatrix) {
+                if (switchingMatrixEntry != null) {
+                    switchingMatrixEntry.setSwitchingMatrix(null, ZERO);
+                }
+            }
+            this.switchingMatrix.clear();
+            this.entriesByLabelOrFEC.clear();
+            this.entriesByLocalTLDPSessionID.clear();
+            this.entriesByUpstreamTLDPSessionID.clear();
+            this.labelSpace.reset();
+            this.nextInsertionOrder = ZERO;
         }
         this.semaphore.setGreen();
     }
 
-    private LinkedList<TSwitchingMatrixEntry> switchingMatrix;
+    /**
+     * This method changes the value of one of the indexed fields of an entry
+     * of this switching matrix, updating the indexes accordingly. It is called
+     * by the entry itself.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param switchingMatrixEntry The entry whose field is changing.
+     * @param key The field to be changed, as defined in TSwitchingMatrixEntry.
+     * @param value The new value of the field.
+     * @since 2.4
+     */
+    void updateEntryKey(TSwitchingMatrixEntry switchingMatrixEntry, int key, int value) {
+        synchronized (this.indexesLock) {
+            if (switchingMatrixEntry.getSwitchingMatrix() == this) {
+                removeFromIndexes(switchingMatrixEntry);
+                switchingMatrixEntry.assignKey(key, value);
+                addToIndexes(switchingMatrixEntry);
+            } else {
+                switchingMatrixEntry.assignKey(key, value);
+            }
+        }
+    }
+
+    /**
+     * This method gets the first entry, in insertion order, stored in the
+     * specified index under the specified key.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param index The index to be looked up.
+     * @param key The key of the wanted entry.
+     * @return The first entry stored under the specified key or NULL if there
+     * is not any.
+     * @since 2.4
+     */
+    private TSwitchingMatrixEntry getFirstEntry(HashMap<TIndexKey, ArrayList<TSwitchingMatrixEntry>> index, TIndexKey key) {
+        synchronized (this.indexesLock) {
+            ArrayList<TSwitchingMatrixEntry> entries = index.get(key);
+            if (entries == null) {
+                return null;
+            }
+            return entries.get(ZERO);
+        }
+    }
+
+    /**
+     * This method removes the specified entry from the switching matrix and
+     * from the indexes. The caller must hold the indexes lock.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param switchingMatrixEntry The entry to be removed.
+     * @since 2.4
+     */
+    private void removeFromMatrix(TSwitchingMatrixEntry switchingMatrixEntry) {
+        this.switchingMatrix.remove(switchingMatrixEntry);
+        removeFromIndexes(switchingMatrixEntry);
+        switchingMatrixEntry.setSwitchingMatrix(null, ZERO);
+    }
+
+    /**
+     * This method adds the specified entry to every index and, if it is a label
+     * entry, to the label space. The caller must hold the indexes lock.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param switchingMatrixEntry The entry to be indexed.
+     * @since 2.4
+     */
+    private void addToIndexes(TSwitchingMatrixEntry switchingMatrixEntry) {
+        addToIndex(this.entriesByLabelOrFEC, new TIndexKey(switchingMatrixEntry.getIncomingPortID(), switchingMatrixEntry.getLabelOrFEC(), switchingMatrixEntry.getEntryType()), switchingMatrixEntry);
+        addToIndex(this.entriesByLocalTLDPSessionID, new TIndexKey(switchingMatrixEntry.getLocalTLDPSessionID(), ZERO, ZERO), switchingMatrixEntry);
+        addToIndex(this.entriesByUpstreamTLDPSessionID, new TIndexKey(switchingMatrixEntry.getUpstreamTLDPSessionID(), switchingMatrixEntry.getIncomingPortID(), ZERO), switchingMatrixEntry);
+        if (switchingMatrixEntry.getEntryType() == TSwitchingMatrixEntry.LABEL_ENTRY) {
+            this.labelSpace.addReference(switchingMatrixEntry.getLabelOrFEC());
+        }
+    }
+
+    /**
+     * This method removes the specified entry from every index and, if it is a
+     * label entry, from the label space. The caller must hold the indexes
+     * lock.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param switchingMatrixEntry The entry to be removed from indexes.
+     * @since 2.4
+     */
+    private void removeFromIndexes(TSwitchingMatrixEntry switchingMatrixEntry) {
+        removeFromIndex(this.entriesByLabelOrFEC, new TIndexKey(switchingMatrixEntry.getIncomingPortID(), switchingMatrixEntry.getLabelOrFEC(), switchingMatrixEntry.getEntryType()), switchingMatrixEntry);
+        removeFromIndex(this.entriesByLocalTLDPSessionID, new TIndexKey(switchingMatrixEntry.getLocalTLDPSessionID(), ZERO, ZERO), switchingMatrixEntry);
+        removeFromIndex(this.entriesByUpstreamTLDPSessionID, new TIndexKey(switchingMatrixEntry.getUpstreamTLDPSessionID(), switchingMatrixEntry.getIncomingPortID(), ZERO), switchingMatrixEntry);
+        if (switchingMatrixEntry.getEntryType() == TSwitchingMatrixEntry.LABEL_ENTRY) {
+            this.labelSpace.removeReference(switchingMatrixEntry.getLabelOrFEC());
+        }
+    }
+
+    /**
+     * This method adds the specified entry to the specified index. Entries
+     * sharing the same key are kept in insertion order, so lookups return the
+     * same entry a sequential search would return.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param index The index where the entry is going to be added.
+     * @param key The key of the entry in this index.
+     * @param switchingMatrixEntry The entry to be added.
+     * @since 2.4
+     */
+    private void addToIndex(HashMap<TIndexKey, ArrayList<TSwitchingMatrixEntry>> index, TIndexKey key, TSwitchingMatrixEntry switchingMatrixEntry) {
+        ArrayList<TSwitchingMatrixEntry> entries = index.get(key);
+        if (entries == null) {
+            entries = new ArrayList<>(ONE);
+            index.put(key, entries);
+        }
+        int position = entries.size();
+        while ((position > ZERO) && (entries.get(position - ONE).getInsertionOrder() > switchingMatrixEntry.getInsertionOrder())) {
+            position--;
+        }
+        entries.add(position, switchingMatrixEntry);
+    }
+
+    /**
+     * This method removes the specified entry from the specified index.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param index The index where the entry is going to be removed from.
+     * @param key The key of the entry in this index.
+     * @param switchingMatrixEntry The entry to be removed.
+     * @since 2.4
+     */
+    private void removeFromIndex(HashMap<TIndexKey, ArrayList<TSwitchingMatrixEntry>> index, TIndexKey key, TSwitchingMatrixEntry switchingMatrixEntry) {
+        ArrayList<TSwitchingMatrixEntry> entries = index.get(key);
+        if (entries != null) {
+            entries.remove(switchingMatrixEntry);
+            if (entries.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    /**
+     * This class implements the key of the indexes of the switching matrix.
+     * It is made of up to three integer fields; unused ones are set to zero.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @version 2.0
+     */
+    private static final class TIndexKey {
+
+        /**
+         * This is the constructor of the class. It creates a new instance of
+         * TIndexKey.
+         *
+         * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+         * @param firstField First field of the key.
+         * @param secondField Second field of the key.
+         * @param thirdField Third field of the key.
+         * @since 2.4
+         */
+        TIndexKey(int firstField, int secondField, int thirdField) {
+            this.firstField = firstField;
+            this.secondField = secondField;
+            this.thirdField = thirdField;
+        }
+
+        /**
+         * This method checks whether this key is equal to another object.
+         *
+         * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+         * @param anotherObject The object to compare with.
+         * @return TRUE, if the other object is a key with the same fields.
+         * Otherwise, FALSE.
+         * @since 2.4
+         */
+        @Override
+        public boolean equals(Object anotherObject) {
+            if (this == anotherObject) {
+                return true;
+            }
+            if (!(anotherObject instanceof TIndexKey)) {
+                return false;
+            }
+            TIndexKey anotherKey = (TIndexKey) anotherObject;
+            return (this.firstField == anotherKey.firstField) && (this.secondField == anotherKey.secondField) && (this.thirdField == anotherKey.thirdField);
+        }
+
+        /**
+         * This method computes the hash code of this key.
+         *
+         * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+         * @return The hash code of this key.
+         * @since 2.4
+         */
+        @Override
+        public int hashCode() {
+            return (((this.firstField * HASH_MULTIPLIER) + this.secondField) * HASH_MULTIPLIER) + this.thirdField;
+        }
+
+        private static final int HASH_MULTIPLIER = 31;
+
+        private final int firstField;
+        private final int secondField;
+        private final int thirdField;
+    }
+
+    /**
+     * This class implements the iterator returned by getEntriesIterator(). It
+     * wraps the iterator of the entries so that removing an entry also removes
+     * it from the indexes.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @version 2.0
+     */
+    private final class TEntriesIterator implements Iterator<TSwitchingMatrixEntry> {
+
+        /**
+         * This is the constructor of the class. It creates a new instance of
+         * TEntriesIterator.
+         *
+         * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+         * @param entriesIterator The iterator of the entries to be wrapped.
+         * @since 2.4
+         */
+        TEntriesIterator(Iterator<TSwitchingMatrixEntry> entriesIterator) {
+            this.entriesIterator = entriesIterator;
+            this.currentEntry = null;
+        }
+
+        /**
+         * This method checks whether there are more entries to be returned.
+         *
+         * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+         * @return TRUE, if there are more entries. Otherwise, FALSE.
+         * @since 2.4
+         */
+        @Override
+        public boolean hasNext() {
+            return this.entriesIterator.hasNext();
+        }
+
+        /**
+         * This method returns the next entry.
+         *
+         * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+         * @return The next entry.
+         * @since 2.4
+         */
+        @Override
+        public TSwitchingMatrixEntry next() {
+            this.currentEntry = this.entriesIterator.next();
+            return this.currentEntry;
+        }
+
+        /**
+         * This method removes the latest returned entry from the switching
+         * matrix and from its indexes.
+         *
+         * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+         * @since 2.4
+         */
+        @Override
+        public void remove() {
+            synchronized (TSwitchingMatrix.this.indexesLock) {
+                this.entriesIterator.remove();
+                if (this.currentEntry != null) {
+                    removeFromIndexes(this.currentEntry);
+                    this.currentEntry.setSwitchingMatrix(null, ZERO);
+                }
+            }
+        }
+
+        private final Iterator<TSwitchingMatrixEntry> entriesIterator;
+        private TSwitchingMatrixEntry currentEntry;
+    }
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+
+    private LinkedHashSet<TSwitchingMatrixEntry> switchingMatrix;
     private TSemaphore semaphore;
+    private final HashMap<TIndexKey, ArrayList<TSwitchingMatrixEntry>> entriesByLabelOrFEC;
+    private final HashMap<TIndexKey, ArrayList<TSwitchingMatrixEntry>> entriesByLocalTLDPSessionID;
+    private final HashMap<TIndexKey, ArrayList<TSwitchingMatrixEntry>> entriesByUpstreamTLDPSessionID;
+    private final TLabelSpace labelSpace;
+    private final Object indexesLock;
+    private long nextInsertionOrder;
 }
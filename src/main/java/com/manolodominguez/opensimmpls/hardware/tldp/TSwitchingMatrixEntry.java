@@ -15,6 +15,8 @@
  */
 package com.manolodominguez.opensimmpls.hardware.tldp;
 
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
+
 /**
  * This class implements a switching matrix entry needed to manage traffic
  * forwarding.
@@ -40,12 +42,14 @@ public class TSwitchingMatrixEntry {
         this.backupLabel = TSwitchingMatrixEntry.UNDEFINED;
         this.labelStackOperation = TSwitchingMatrixEntry.UNDEFINED;
         this.entryType = TSwitchingMatrixEntry.LABEL_ENTRY;
-        this.tailEndIPv4Address = "";
+        this.tailEndIPv4Address = TIPv4Address.UNSPECIFIED;
         this.localTLDPSessionID = TSwitchingMatrixEntry.UNDEFINED;
         this.upstreamTLDPSessionID = TSwitchingMatrixEntry.UNDEFINED;
         this.timeout = TSwitchingMatrixEntry.TIMEOUT;
         this.labelRequestAttempts = TSwitchingMatrixEntry.LABEL_REQUEST_ATTEMPTS;
         this.isRequestForBackupLSP = false;
+        this.switchingMatrix = null;
+        this.insertionOrder = ZERO;
     }
 
     /**
@@ -219,6 +223,49 @@ public class TSwitchingMatrixEntry {
         }
     }
 
+    /**
+     * This method computes how many consecutive ticks of the specified
+     * duration can elapse without this entry retrying its TLDP operation or
+     * being purged. Entries that are not waiting for a TLDP operation are
+     * always idle; their timeout and attempts are simply restored each tick.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     * @param tickDurationInNs Duration of each tick, in nanoseconds.
+     * @return Number of consecutive idle ticks for this entry.
+     */
+    public long getNumberOfIdleTicks(int tickDurationInNs) {
+        if ((this.label == TSwitchingMatrixEntry.LABEL_REQUESTED) || (this.label == TSwitchingMatrixEntry.REMOVING_LABEL)) {
+            if (this.timeout > TSwitchingMatrixEntry.ZERO) {
+                return (this.timeout - TSwitchingMatrixEntry.ONE) / tickDurationInNs;
+            }
+            if ((this.label == TSwitchingMatrixEntry.LABEL_REQUESTED) && (!areThereAvailableAttempts())) {
+                return Long.MAX_VALUE;
+            }
+            return TSwitchingMatrixEntry.ZERO;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * This method updates this entry as if the specified number of idle ticks
+     * had elapsed. It must not be called with more ticks than those returned
+     * by getNumberOfIdleTicks().
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     * @param numberOfIdleTicks Number of idle ticks to be skipped.
+     * @param tickDurationInNs Duration of each tick, in nanoseconds.
+     */
+    public void skipIdleTicks(long numberOfIdleTicks, int tickDurationInNs) {
+        if ((this.label == TSwitchingMatrixEntry.LABEL_REQUESTED) || (this.label == TSwitchingMatrixEntry.REMOVING_LABEL)) {
+            decreaseTimeOut((int) Math.min(numberOfIdleTicks * tickDurationInNs, Integer.MAX_VALUE));
+        } else if (numberOfIdleTicks > TSwitchingMatrixEntry.ZERO) {
+            resetTimeOut();
+            resetAttempts();
+        }
+    }
+
     /**
      * This method check if the TLDP operation of this entry shoudl be retried.
      * To do that, both, timeout expiration and attempts availability are
@@ -249,7 +296,7 @@ public class TSwitchingMatrixEntry {
      * @since 2.0
      */
     public void setIncomingPortID(int incomingPortID) {
-        this.incomingPortID = incomingPortID;
+        setKey(TSwitchingMatrixEntry.INCOMING_PORT_ID_KEY, incomingPortID);
     }
 
     /**
@@ -271,7 +318,7 @@ public class TSwitchingMatrixEntry {
      * @since 2.0
      */
     public void setLabelOrFEC(int labelOrFEC) {
-        this.labelOrFEC = labelOrFEC;
+        setKey(TSwitchingMatrixEntry.LABEL_OR_FEC_KEY, labelOrFEC);
     }
 
     /**
@@ -427,7 +474,7 @@ public class TSwitchingMatrixEntry {
      * @since 2.0
      */
     public void setEntryType(int entryType) {
-        this.entryType = entryType;
+        setKey(TSwitchingMatrixEntry.ENTRY_TYPE_KEY, entryType);
     }
 
     /**
@@ -452,7 +499,7 @@ public class TSwitchingMatrixEntry {
      * entry is going to.
      * @since 2.0
      */
-    public String getTailEndIPv4Address() {
+    public int getTailEndIPv4Address() {
         return this.tailEndIPv4Address;
     }
 
@@ -465,7 +512,7 @@ public class TSwitchingMatrixEntry {
      * affected by this entry is going to.
      * @since 2.0
      */
-    public void setTailEndIPAddress(String tailEndIPAddress) {
+    public void setTailEndIPAddress(int tailEndIPAddress) {
         this.tailEndIPv4Address = tailEndIPAddress;
     }
 
@@ -477,7 +524,7 @@ public class TSwitchingMatrixEntry {
      * @since 2.0
      */
     public void setLocalTLDPSessionID(int localTLDPSessionID) {
-        this.localTLDPSessionID = localTLDPSessionID;
+        setKey(TSwitchingMatrixEntry.LOCAL_TLDP_SESSION_ID_KEY, localTLDPSessionID);
     }
 
     /**
@@ -502,7 +549,7 @@ public class TSwitchingMatrixEntry {
      * @since 2.0
      */
     public void setUpstreamTLDPSessionID(int upstreamTLDPSessionID) {
-        this.upstreamTLDPSessionID = upstreamTLDPSessionID;
+        setKey(TSwitchingMatrixEntry.UPSTREAM_TLDP_SESSION_ID_KEY, upstreamTLDPSessionID);
     }
 
     /**
@@ -518,6 +565,101 @@ public class TSwitchingMatrixEntry {
         return this.upstreamTLDPSessionID;
     }
 
+    /**
+     * This method sets the value of one of the fields used by the switching
+     * matrix to index this entry. If this entry belongs to a switching matrix,
+     * the change is done through it so that its indexes are kept up to date.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param key The field to be set. One of INCOMING_PORT_ID_KEY,
+     * LABEL_OR_FEC_KEY, ENTRY_TYPE_KEY, LOCAL_TLDP_SESSION_ID_KEY or
+     * UPSTREAM_TLDP_SESSION_ID_KEY.
+     * @param value The new value of the field.
+     * @since 2.4
+     */
+    private void setKey(int key, int value) {
+        TSwitchingMatrix owner = this.switchingMatrix;
+        if (owner != null) {
+            owner.updateEntryKey(this, key, value);
+        } else {
+            assignKey(key, value);
+        }
+    }
+
+    /**
+     * This method sets the value of one of the fields used by the switching
+     * matrix to index this entry, without notifying the switching matrix. It
+     * is only used by the switching matrix itself.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param key The field to be set. One of INCOMING_PORT_ID_KEY,
+     * LABEL_OR_FEC_KEY, ENTRY_TYPE_KEY, LOCAL_TLDP_SESSION_ID_KEY or
+     * UPSTREAM_TLDP_SESSION_ID_KEY.
+     * @param value The new value of the field.
+     * @since 2.4
+     */
+    void assignKey(int key, int value) {
+        switch (key) {
+            case INCOMING_PORT_ID_KEY:
+                this.incomingPortID = value;
+                break;
+            case LABEL_OR_FEC_KEY:
+                this.labelOrFEC = value;
+                break;
+            case ENTRY_TYPE_KEY:
+                this.entryType = value;
+                break;
+            case LOCAL_TLDP_SESSION_ID_KEY:
+                this.localTLDPSessionID = value;
+                break;
+            case UPSTREAM_TLDP_SESSION_ID_KEY:
+                this.upstreamTLDPSessionID = value;
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * This method sets the switching matrix this entry belongs to, and the
+     * order in which the entry was added to it.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param switchingMatrix The switching matrix this entry belongs to, or
+     * NULL if it has been removed from it.
+     * @param insertionOrder Order in which the entry was added to the
+     * switching matrix.
+     * @since 2.4
+     */
+    void setSwitchingMatrix(TSwitchingMatrix switchingMatrix, long insertionOrder) {
+        this.switchingMatrix = switchingMatrix;
+        this.insertionOrder = insertionOrder;
+    }
+
+    /**
+     * This method gets the switching matrix this entry belongs to.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The switching matrix this entry belongs to, or NULL if it does
+     * not belong to any switching matrix.
+     * @since 2.4
+     */
+    TSwitchingMatrix getSwitchingMatrix() {
+        return this.switchingMatrix;
+    }
+
+    /**
+     * This method gets the order in which this entry was added to its
+     * switching matrix.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The order in which this entry was added to its switching matrix.
+     * @since 2.4
+     */
+    long getInsertionOrder() {
+        return this.insertionOrder;
+    }
+
     /**
      * This method checks whether the current entry is configured correctly and
      * is valid, or, on the contratry, the entry is misconfiured and should not
@@ -540,7 +682,7 @@ public class TSwitchingMatrixEntry {
         if (this.getLocalTLDPSessionID() == TSwitchingMatrixEntry.UNDEFINED) {
             return false;
         }
-        if (this.getTailEndIPv4Address().equals("")) {
+        if (this.getTailEndIPv4Address() == TIPv4Address.UNSPECIFIED) {
             return false;
         }
         if (this.getOutgoingLabel() == TSwitchingMatrixEntry.UNDEFINED) {
@@ -582,8 +724,16 @@ public class TSwitchingMatrixEntry {
     private static final int TIMEOUT = 50000;
     private static final int LABEL_REQUEST_ATTEMPTS = 3;
 
+    // Fields used by the switching matrix to index entries
+    static final int INCOMING_PORT_ID_KEY = 0;
+    static final int LABEL_OR_FEC_KEY = 1;
+    static final int ENTRY_TYPE_KEY = 2;
+    static final int LOCAL_TLDP_SESSION_ID_KEY = 3;
+    static final int UPSTREAM_TLDP_SESSION_ID_KEY = 4;
+
     // Others
     private static final int ZERO = 0;
+    private static final int ONE = 1;
     
     private int incomingPortID;
     private int labelOrFEC;
@@ -593,10 +743,12 @@ public class TSwitchingMatrixEntry {
     private int backupLabel;
     private int labelStackOperation;
     private int entryType;
-    private String tailEndIPv4Address;
+    private int tailEndIPv4Address;
     private int localTLDPSessionID;
     private int upstreamTLDPSessionID;
     private boolean isRequestForBackupLSP;
     private int timeout;
     private int labelRequestAttempts;
+    private volatile TSwitchingMatrix switchingMatrix;
+    private long insertionOrder;
 }
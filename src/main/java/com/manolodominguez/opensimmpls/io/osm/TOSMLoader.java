@@ -15,11 +15,13 @@
  */
 package com.manolodominguez.opensimmpls.io.osm;
 
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
 import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import com.manolodominguez.opensimmpls.scenario.TInnerLink;
 import com.manolodominguez.opensimmpls.scenario.TOuterLink;
@@ -70,67 +72,92 @@ public class TOSMLoader {
             this.logger.error(translations.getString("badArgument"));
             throw new IllegalArgumentException("inputFile is null");
         }
+        this.scenario.setScenarioFile(inputFile);
+        if (inputFile.exists()) {
+            try {
+                return load(new FileInputStream(inputFile));
+            } catch (IOException e) {
+                this.logger.error(translations.getString("ioexceptionDescription"));
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This method loads an scenario description formated as OSM from a stream,
+     * that is closed once read. This allows, for instance, loading copies of a
+     * scenario that has been saved in memory.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param inputStream The stream where a scenario description is stored.
+     * @return true, if the stream can be correctly loaded. False on the
+     * contrary.
+     * @since 2.4
+     */
+    public boolean load(InputStream inputStream) {
+        if (inputStream == null) {
+            this.logger.error(translations.getString("badArgument"));
+            throw new IllegalArgumentException("inputStream is null");
+        }
         String stringAux = EMPTY;
         int configSection = TOSMLoader.LOOKING_FOR_A_NEW_CONFIG_SECTION;
-        this.scenario.setScenarioFile(inputFile);
         try {
-            if (inputFile.exists()) {
-                this.inputStream = new FileInputStream(inputFile);
-                this.input = new BufferedReader(new InputStreamReader(this.inputStream));
-                while ((stringAux = this.input.readLine()) != null) { // Read till EOF
-                    // This code read lines from the file, sequentially, 
-                    // untill it detects tokens that allow identifying 
-                    // different sections of the configuration file. 
-                    // Do not load blank linkes, comments and lines that
-                    // store CRC info (deprecated, but still present in some
-                    // scenarios).
-                    if ((!stringAux.equals(EMPTY)) && (!stringAux.startsWith(COMMENT_TOKEN)) && (!stringAux.startsWith(CRC_TOKEN))) {
-                        switch (configSection) {
-                            case TOSMLoader.LOOKING_FOR_A_NEW_CONFIG_SECTION:
-                                if (stringAux.startsWith(SCENE_BEGIN_TOKEN)) {
-                                    configSection = TOSMLoader.SCENARIO;
-                                } else if (stringAux.startsWith(TOPOLOGY_BEGIN_TOKEN)) {
-                                    configSection = TOSMLoader.TOPOLOGY;
-                                } else if (stringAux.startsWith(SIMULATION_BEGIN_TOKEN)) {
-                                    configSection = TOSMLoader.SIMULATION;
-                                } else if (stringAux.startsWith(ANALYSIS_BEGIN_TOKEN)) {
-                                    configSection = TOSMLoader.ANALISYS;
-                                }
-                                break;
-                            case TOSMLoader.SCENARIO:
-                                if (stringAux.startsWith(SCENE_END_TOKEN)) {
-                                    configSection = TOSMLoader.LOOKING_FOR_A_NEW_CONFIG_SECTION;
-                                } else {
-                                    loadScenario(stringAux);
-                                }
-                                break;
-                            case TOSMLoader.TOPOLOGY:
-                                if (stringAux.startsWith(TOPOLOGY_END_TOKEN)) {
-                                    configSection = TOSMLoader.LOOKING_FOR_A_NEW_CONFIG_SECTION;
-                                } else {
-                                    loadTopology(stringAux);
-                                }
-                                break;
-                            case TOSMLoader.SIMULATION:
-                                if (stringAux.startsWith(SIMULATION_END_TOKEN)) {
-                                    configSection = TOSMLoader.LOOKING_FOR_A_NEW_CONFIG_SECTION;
-                                }
-                                break;
-                            case TOSMLoader.ANALISYS:
-                                if (stringAux.startsWith(ANALYSIS_END_TOKEN)) {
-                                    configSection = TOSMLoader.LOOKING_FOR_A_NEW_CONFIG_SECTION;
-                                }
-                                break;
-                            default:
-                                break;
-                        }
+            this.inputStream = inputStream;
+            this.input = new BufferedReader(new InputStreamReader(this.inputStream));
+            while ((stringAux = this.input.readLine()) != null) { // Read till EOF
+                // This code read lines from the file, sequentially, 
+                // untill it detects tokens that allow identifying 
+                // different sections of the configuration file. 
+                // Do not load blank linkes, comments and lines that
+                // store CRC info (deprecated, but still present in some
+                // scenarios).
+                if ((!stringAux.equals(EMPTY)) && (!stringAux.startsWith(COMMENT_TOKEN)) && (!stringAux.startsWith(CRC_TOKEN))) {
+                    switch (configSection) {
+                        case TOSMLoader.LOOKING_FOR_A_NEW_CONFIG_SECTION:
+                            if (stringAux.startsWith(SCENE_BEGIN_TOKEN)) {
+                                configSection = TOSMLoader.SCENARIO;
+                            } else if (stringAux.startsWith(TOPOLOGY_BEGIN_TOKEN)) {
+                                configSection = TOSMLoader.TOPOLOGY;
+                            } else if (stringAux.startsWith(SIMULATION_BEGIN_TOKEN)) {
+                                configSection = TOSMLoader.SIMULATION;
+                            } else if (stringAux.startsWith(ANALYSIS_BEGIN_TOKEN)) {
+                                configSection = TOSMLoader.ANALISYS;
+                            }
+                            break;
+                        case TOSMLoader.SCENARIO:
+                            if (stringAux.startsWith(SCENE_END_TOKEN)) {
+                                configSection = TOSMLoader.LOOKING_FOR_A_NEW_CONFIG_SECTION;
+                            } else {
+                                loadScenario(stringAux);
+                            }
+                            break;
+                        case TOSMLoader.TOPOLOGY:
+                            if (stringAux.startsWith(TOPOLOGY_END_TOKEN)) {
+                                configSection = TOSMLoader.LOOKING_FOR_A_NEW_CONFIG_SECTION;
+                            } else {
+                                loadTopology(stringAux);
+                            }
+                            break;
+                        case TOSMLoader.SIMULATION:
+                            if (stringAux.startsWith(SIMULATION_END_TOKEN)) {
+                                configSection = TOSMLoader.LOOKING_FOR_A_NEW_CONFIG_SECTION;
+                            }
+                            break;
+                        case TOSMLoader.ANALISYS:
+                            if (stringAux.startsWith(ANALYSIS_END_TOKEN)) {
+                                configSection = TOSMLoader.LOOKING_FOR_A_NEW_CONFIG_SECTION;
+                            }
+                            break;
+                        default:
+                            break;
                     }
                 }
-                this.inputStream.close();
-                this.input.close();
-                this.scenario.setAlreadySaved(true);
-                this.scenario.setModified(false);
             }
+            this.inputStream.close();
+            this.input.close();
+            this.scenario.setAlreadySaved(true);
+            this.scenario.setModified(false);
         } catch (IOException e) {
             this.logger.error(translations.getString("ioexceptionDescription"));
             return false;
@@ -148,42 +175,42 @@ public class TOSMLoader {
             if (receiver.fromOSMString(topologyString)) {
                 this.scenario.getTopology().addNode(receiver);
                 this.scenario.getTopology().getElementsIDGenerator().setIdentifierIfGreater(receiver.getNodeID());
-                this.scenario.getTopology().getIPv4AddressGenerator().setIPv4AddressIfGreater(receiver.getIPv4Address());
+                this.scenario.getTopology().getIPv4AddressGenerator().setIPv4AddressIfGreater(TIPv4Address.toString(receiver.getIPv4Address()));
             }
         } else if (topologyString.startsWith(TRAFFIC_GENERATOR_TOKEN)) {
             TTrafficGeneratorNode sender = new TTrafficGeneratorNode(TOSMLoader.DEFAULT_TOPOLOGY_ELEMENT_ID, TOSMLoader.DEFAULT_IPV4_ADDRESS, this.scenario.getTopology().getEventIDGenerator(), this.scenario.getTopology());
             if (sender.fromOSMString(topologyString)) {
                 this.scenario.getTopology().addNode(sender);
                 this.scenario.getTopology().getElementsIDGenerator().setIdentifierIfGreater(sender.getNodeID());
-                this.scenario.getTopology().getIPv4AddressGenerator().setIPv4AddressIfGreater(sender.getIPv4Address());
+                this.scenario.getTopology().getIPv4AddressGenerator().setIPv4AddressIfGreater(TIPv4Address.toString(sender.getIPv4Address()));
             }
         } else if (topologyString.startsWith(LER_TOKEN)) {
             TLERNode ler = new TLERNode(TOSMLoader.DEFAULT_TOPOLOGY_ELEMENT_ID, TOSMLoader.DEFAULT_IPV4_ADDRESS, this.scenario.getTopology().getEventIDGenerator(), this.scenario.getTopology());
             if (ler.fromOSMString(topologyString)) {
                 this.scenario.getTopology().addNode(ler);
                 this.scenario.getTopology().getElementsIDGenerator().setIdentifierIfGreater(ler.getNodeID());
-                this.scenario.getTopology().getIPv4AddressGenerator().setIPv4AddressIfGreater(ler.getIPv4Address());
+                this.scenario.getTopology().getIPv4AddressGenerator().setIPv4AddressIfGreater(TIPv4Address.toString(ler.getIPv4Address()));
             }
         } else if (topologyString.startsWith(LERA_TOKEN)) {
             TActiveLERNode activeLER = new TActiveLERNode(TOSMLoader.DEFAULT_TOPOLOGY_ELEMENT_ID, TOSMLoader.DEFAULT_IPV4_ADDRESS, this.scenario.getTopology().getEventIDGenerator(), this.scenario.getTopology());
             if (activeLER.fromOSMString(topologyString)) {
                 this.scenario.getTopology().addNode(activeLER);
                 this.scenario.getTopology().getElementsIDGenerator().setIdentifierIfGreater(activeLER.getNodeID());
-                this.scenario.getTopology().getIPv4AddressGenerator().setIPv4AddressIfGreater(activeLER.getIPv4Address());
+                this.scenario.getTopology().getIPv4AddressGenerator().setIPv4AddressIfGreater(TIPv4Address.toString(activeLER.getIPv4Address()));
             }
         } else if (topologyString.startsWith(LSR_TOKEN)) {
             TLSRNode lsr = new TLSRNode(TOSMLoader.DEFAULT_TOPOLOGY_ELEMENT_ID, TOSMLoader.DEFAULT_IPV4_ADDRESS, this.scenario.getTopology().getEventIDGenerator(), this.scenario.getTopology());
             if (lsr.fromOSMString(topologyString)) {
                 this.scenario.getTopology().addNode(lsr);
                 this.scenario.getTopology().getElementsIDGenerator().setIdentifierIfGreater(lsr.getNodeID());
-                this.scenario.getTopology().getIPv4AddressGenerator().setIPv4AddressIfGreater(lsr.getIPv4Address());
+                this.scenario.getTopology().getIPv4AddressGenerator().setIPv4AddressIfGreater(TIPv4Address.toString(lsr.getIPv4Address()));
             }
         } else if (topologyString.startsWith(LSRA_TOKEN)) {
             TActiveLSRNode activeLSR = new TActiveLSRNode(TOSMLoader.DEFAULT_TOPOLOGY_ELEMENT_ID, TOSMLoader.DEFAULT_IPV4_ADDRESS, this.scenario.getTopology().getEventIDGenerator(), this.scenario.getTopology());
             if (activeLSR.fromOSMString(topologyString)) {
                 this.scenario.getTopology().addNode(activeLSR);
                 this.scenario.getTopology().getElementsIDGenerator().setIdentifierIfGreater(activeLSR.getNodeID());
-                this.scenario.getTopology().getIPv4AddressGenerator().setIPv4AddressIfGreater(activeLSR.getIPv4Address());
+                this.scenario.getTopology().getIPv4AddressGenerator().setIPv4AddressIfGreater(TIPv4Address.toString(activeLSR.getIPv4Address()));
             }
         } else if (topologyString.startsWith(OUTER_LINK_TOKEN)) {
             TOuterLink externalLink = new TOuterLink(TOSMLoader.DEFAULT_TOPOLOGY_ELEMENT_ID, this.scenario.getTopology().getEventIDGenerator(), this.scenario.getTopology());
@@ -283,7 +310,7 @@ public class TOSMLoader {
     private static final String DEFAULT_DESCRIPTION = EMPTY;
 
     private final TScene scenario;
-    private FileInputStream inputStream;
+    private InputStream inputStream;
     private BufferedReader input;
     private final ResourceBundle translations;
     private final Logger logger = LoggerFactory.getLogger(TOSMLoader.class);
@@ -19,6 +19,7 @@ import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintStream;
 import java.util.Iterator;
 import com.manolodominguez.opensimmpls.scenario.TScene;
@@ -72,12 +73,35 @@ public class TOSMSaver {
             this.logger.error(translations.getString("badArgument"));
             throw new IllegalArgumentException("outputFile is null");
         }
+        try {
+            return save(new FileOutputStream(outputFile));
+        } catch (IOException e) {
+            this.logger.error(translations.getString("ioexceptionDescription"));
+            return false;
+        }
+    }
+
+    /**
+     * This method saves a scenario to a stream, that is closed once written.
+     * This allows, for instance, keeping a copy of the scenario in memory.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param outputStream The stream where the scenario will be stored.
+     * @return True, if the scenario can be saved successful. Otherwise, returns
+     * false.
+     * @since 2.4
+     */
+    public boolean save(OutputStream outputStream) {
+        if (outputStream == null) {
+            this.logger.error(translations.getString("badArgument"));
+            throw new IllegalArgumentException("outputStream is null");
+        }
         try {
             TNode auxNode;
             TLink auxLink;
             Iterator<TNode> nodesIterator;
             Iterator<TLink> linksIterator;
-            this.outputStream = new FileOutputStream(outputFile);
+            this.outputStream = outputStream;
             this.output = new PrintStream(this.outputStream);
             this.output.println(this.translations.getString("TAlmacenadorOSM.asteriscos"));
             this.output.println(this.translations.getString("TAlmacenadorOSM.GeneradoPor"));
@@ -140,6 +164,10 @@ public class TOSMSaver {
             this.output.println(TOPOLOGY_END_TOKEN);
             this.outputStream.close();
             this.output.close();
+            if (this.output.checkError()) {
+                this.logger.error(translations.getString("ioexceptionDescription"));
+                return false;
+            }
         } catch (IOException e) {
             this.logger.error(translations.getString("ioexceptionDescription"));
             return false;
@@ -153,7 +181,7 @@ public class TOSMSaver {
     private static final String TOPOLOGY_END_TOKEN = "@!Topologia";
 
     private TScene scenario;
-    private FileOutputStream outputStream;
+    private OutputStream outputStream;
     private PrintStream output;
     private ResourceBundle translations;
     private final Logger logger = LoggerFactory.getLogger(TOSMSaver.class);   
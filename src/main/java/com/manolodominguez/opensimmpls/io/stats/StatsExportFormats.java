@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.stats;
+
+/**
+ * This enum defines the file formats TStatsExporter can write the stats of
+ * each time instant in.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public enum StatsExportFormats {
+    /**
+     * Semicolon separated values, one line per node and time instant, with a
+     * header line that names every column. Columns a node does not export are
+     * left empty.
+     */
+    CSV,
+    /**
+     * Binary file that describes its columns and nodes in a header, followed
+     * by chunks of consecutive time instants of a node. Inside a chunk, values
+     * are stored column after column as variable length differences to the
+     * previous value of the column, as defined in TStatsExporter.
+     */
+    COLUMNAR;
+}
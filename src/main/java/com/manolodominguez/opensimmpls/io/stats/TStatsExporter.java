@@ -0,0 +1,538 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.stats;
+
+import com.manolodominguez.opensimmpls.commons.TCSVField;
+import com.manolodominguez.opensimmpls.io.traces.TSimulationTraceFormat;
+import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import com.manolodominguez.opensimmpls.scenario.IStatsListener;
+import com.manolodominguez.opensimmpls.scenario.StatsColumns;
+import com.manolodominguez.opensimmpls.scenario.TNode;
+import com.manolodominguez.opensimmpls.scenario.TScene;
+import com.manolodominguez.opensimmpls.scenario.TStats;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.ResourceBundle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements a stats listener that writes the counters of every
+ * node of a scenario to disk for each time instant, while the simulation
+ * runs. The values of each node are kept in memory, column by column, until a
+ * chunk of CHUNK_SIZE time instants is complete; then the chunk is encoded and
+ * appended to a large direct buffer that is written to disk when it is full.
+ * So, stats of a simulation of any length can be exported using a constant
+ * amount of memory. Values are the running totals the stats charts show.
+ *
+ * Two formats are supported, as defined in StatsExportFormats. In the CSV
+ * format, the header line names every column (node ID, node name, time
+ * instant and every StatsColumns) and columns a node does not export are
+ * left empty. Node names that contain a separator, a double quote or a line
+ * break are enclosed in double quotes, with inner double quotes doubled, as
+ * in RFC 4180. The COLUMNAR format is big endian. It starts with a header:
+ * magic number, version, number of columns, the name of each column,
+ * number of nodes and, for each node, its ID, its name, its number of
+ * columns and the position of each one in the column table. Strings are
+ * stored as their length in bytes followed by their UTF-8 bytes. The header
+ * is followed by chunks. Each chunk has a fixed size header (size of the
+ * values in bytes, node ID and number of time instants) followed by the time
+ * instants and the values of each column of the node, in the order of the
+ * node description. Each value is stored as the difference to the previous
+ * one of the same column (or to zero, for the first one of the chunk),
+ * encoded as in TSimulationTraceFormat.putSignedVarLong. The file ends with a
+ * chunk size of END_OF_CHUNKS. In both formats, the time instants of a node
+ * are in chronological order, but chunks of different nodes are interleaved.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public class TStatsExporter implements IStatsListener {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TStatsExporter. Nothing is written until it is opened.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param scenario The scenario whose stats will be exported.
+     * @param outputFile The file where the stats will be written. If it
+     * exists, it is overwritten.
+     * @param format The format of the file.
+     * @since 2.4
+     */
+    public TStatsExporter(TScene scenario, File outputFile, StatsExportFormats format) {
+        this.translations = ResourceBundle.getBundle(AvailableBundles.T_STATS_EXPORTER.getPath());
+        if ((scenario == null) || (outputFile == null) || (format == null)) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        this.scenario = scenario;
+        this.outputFile = outputFile;
+        this.format = format;
+        this.chunks = Collections.emptyMap();
+        this.channel = null;
+        this.output = null;
+        this.encodedChunk = ByteBuffer.allocate(INITIAL_ENCODED_CHUNK_SIZE);
+        this.numberOfRows = ZERO;
+        this.writeException = null;
+    }
+
+    /**
+     * This method creates the output file, writes its header and starts
+     * listening to the stats of every node of the scenario. It has to be
+     * called before the simulation starts.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @throws IOException If the file cannot be created.
+     * @since 2.4
+     */
+    public synchronized void open() throws IOException {
+        if (this.channel != null) {
+            return;
+        }
+        this.channel = FileChannel.open(this.outputFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.output = ByteBuffer.allocateDirect(OUTPUT_BUFFER_SIZE);
+        this.numberOfRows = ZERO;
+        this.writeException = null;
+        Map<TStats, TChunk> newChunks = new IdentityHashMap<>();
+        List<TChunk> nodeChunks = new ArrayList<>();
+        Iterator<TNode> nodesIterator = this.scenario.getTopology().getNodesIterator();
+        TNode node;
+        while (nodesIterator.hasNext()) {
+            node = nodesIterator.next();
+            if ((node != null) && (node.getStats() != null)) {
+                TChunk chunk = new TChunk(node, node.getStats().getColumns());
+                newChunks.put(node.getStats(), chunk);
+                nodeChunks.add(chunk);
+            }
+        }
+        try {
+            if (this.format == StatsExportFormats.CSV) {
+                writeCSVHeader();
+            } else {
+                writeColumnarHeader(nodeChunks);
+            }
+        } catch (IOException e) {
+            this.channel.close();
+            this.channel = null;
+            this.output = null;
+            throw e;
+        }
+        // The map is never modified once published, so the threads of the
+        // nodes can read it without locking.
+        this.chunks = newChunks;
+        for (TStats stats : newChunks.keySet()) {
+            stats.setStatsListener(this);
+        }
+    }
+
+    /**
+     * This method stops listening to the stats of the nodes, writes the
+     * values that are still in memory and closes the output file. It has to
+     * be called once the simulation has finished.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @throws IOException If the stats cannot be written completely, either
+     * now or when a previous chunk was written.
+     * @since 2.4
+     */
+    public synchronized void close() throws IOException {
+        if (this.channel == null) {
+            return;
+        }
+        Map<TStats, TChunk> currentChunks = this.chunks;
+        try {
+            for (TStats stats : currentChunks.keySet()) {
+                stats.setStatsListener(null);
+            }
+            // A node could still be storing values in its chunk, so each
+            // chunk is closed under its lock before being written.
+            for (TChunk chunk : currentChunks.values()) {
+                synchronized (chunk) {
+                    chunk.closed = true;
+                    if (this.writeException == null) {
+                        writeChunk(chunk);
+                    }
+                }
+            }
+            if (this.writeException == null) {
+                if (this.format == StatsExportFormats.COLUMNAR) {
+                    makeRoom(Integer.BYTES);
+                    this.output.putInt(END_OF_CHUNKS);
+                }
+                writeOutput();
+            }
+        } finally {
+            this.chunks = Collections.emptyMap();
+            this.channel.close();
+            this.channel = null;
+            this.output = null;
+        }
+        if (this.writeException != null) {
+            IOException exception = this.writeException;
+            this.writeException = null;
+            throw exception;
+        }
+    }
+
+    /**
+     * This method stores the current values of the stats of a node for the
+     * specified time instant. When the chunk of the node is complete, it is
+     * written. If the stats cannot be written, the error is reported when
+     * the exporter is closed.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param stats The stats that have been grouped.
+     * @param timeInstant The time instant the stats have been grouped by.
+     * @since 2.4
+     */
+    @Override
+    public void captureStats(TStats stats, long timeInstant) {
+        TChunk chunk = this.chunks.get(stats);
+        if (chunk == null) {
+            return;
+        }
+        // Only the thread of the node stores values in its chunk, so the lock
+        // of the chunk is uncontended unless the exporter is being closed.
+        boolean chunkIsComplete;
+        synchronized (chunk) {
+            if (chunk.closed) {
+                return;
+            }
+            chunk.addRow(stats, timeInstant);
+            chunkIsComplete = (chunk.numberOfRows == CHUNK_SIZE);
+        }
+        if (chunkIsComplete) {
+            // Locks are always taken in the same order than in close().
+            synchronized (this) {
+                synchronized (chunk) {
+                    if (!chunk.closed && (this.channel != null) && (this.writeException == null)) {
+                        try {
+                            writeChunk(chunk);
+                        } catch (IOException e) {
+                            this.logger.error(this.translations.getString("ioError") + this.outputFile.getPath(), e);
+                            this.writeException = e;
+                        }
+                    }
+                    chunk.numberOfRows = ZERO;
+                }
+            }
+        }
+    }
+
+    /**
+     * This method gets the number of rows (values of a node for a time
+     * instant) written to the output file since it was opened.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The number of rows written to the output file.
+     * @since 2.4
+     */
+    public synchronized long getNumberOfRows() {
+        return this.numberOfRows;
+    }
+
+    /**
+     * This method writes the header line of a CSV file.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @throws IOException If the output buffer cannot be written.
+     * @since 2.4
+     */
+    private void writeCSVHeader() throws IOException {
+        StringBuilder header = new StringBuilder(CSV_HEADER_PREFIX);
+        for (StatsColumns column : StatsColumns.values()) {
+            header.append(SEPARATOR).append(column.getColumnName());
+        }
+        header.append(LINE_SEPARATOR);
+        put(ByteBuffer.wrap(header.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * This method writes the header of a COLUMNAR file: the column table and
+     * the description of each node.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param nodeChunks The chunks of every node whose stats are exported.
+     * @throws IOException If the output buffer cannot be written.
+     * @since 2.4
+     */
+    private void writeColumnarHeader(List<TChunk> nodeChunks) throws IOException {
+        makeRoom(Integer.BYTES * THREE);
+        this.output.putInt(MAGIC_NUMBER);
+        this.output.putInt(VERSION);
+        this.output.putInt(StatsColumns.values().length);
+        for (StatsColumns column : StatsColumns.values()) {
+            putString(column.getColumnName());
+        }
+        makeRoom(Integer.BYTES);
+        this.output.putInt(nodeChunks.size());
+        for (TChunk chunk : nodeChunks) {
+            makeRoom(Integer.BYTES);
+            this.output.putInt(chunk.node.getNodeID());
+            putString(chunk.node.getName());
+            makeRoom(Integer.BYTES * (ONE + chunk.columns.length));
+            this.output.putInt(chunk.columns.length);
+            for (StatsColumns column : chunk.columns) {
+                this.output.putInt(column.ordinal());
+            }
+        }
+    }
+
+    /**
+     * This method encodes the rows stored in a chunk in the format of the
+     * output file and appends them to the output buffer.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param chunk The chunk to be written.
+     * @throws IOException If the output buffer cannot be written.
+     * @since 2.4
+     */
+    private void writeChunk(TChunk chunk) throws IOException {
+        if (chunk.numberOfRows == ZERO) {
+            return;
+        }
+        if (this.format == StatsExportFormats.CSV) {
+            put(ByteBuffer.wrap(encodeCSVChunk(chunk).getBytes(StandardCharsets.UTF_8)));
+        } else {
+            int maximumSize = CHUNK_HEADER_SIZE + (chunk.numberOfRows * (ONE + chunk.columns.length) * MAX_VALUE_SIZE);
+            if (this.encodedChunk.capacity() < maximumSize) {
+                this.encodedChunk = ByteBuffer.allocate(maximumSize);
+            }
+            this.encodedChunk.clear();
+            this.encodedChunk.position(CHUNK_HEADER_SIZE);
+            putColumn(chunk.timeInstants, chunk.numberOfRows);
+            for (long[] columnValues : chunk.values) {
+                putColumn(columnValues, chunk.numberOfRows);
+            }
+            this.encodedChunk.putInt(ZERO, this.encodedChunk.position() - CHUNK_HEADER_SIZE);
+            this.encodedChunk.putInt(Integer.BYTES, chunk.node.getNodeID());
+            this.encodedChunk.putInt(Integer.BYTES * TWO, chunk.numberOfRows);
+            this.encodedChunk.flip();
+            put(this.encodedChunk);
+        }
+        this.numberOfRows += chunk.numberOfRows;
+        chunk.numberOfRows = ZERO;
+    }
+
+    /**
+     * This method encodes the rows stored in a chunk as CSV lines.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param chunk The chunk to be encoded.
+     * @return The CSV lines of the chunk.
+     * @since 2.4
+     */
+    private String encodeCSVChunk(TChunk chunk) {
+        // Position of the values of each column in the chunk, or -1 if the
+        // node does not export it.
+        int[] positions = new int[StatsColumns.values().length];
+        for (int i = ZERO; i < positions.length; i++) {
+            positions[i] = -ONE;
+        }
+        for (int i = ZERO; i < chunk.columns.length; i++) {
+            positions[chunk.columns[i].ordinal()] = i;
+        }
+        String linePrefix = chunk.node.getNodeID() + SEPARATOR + TCSVField.quote(chunk.node.getName()) + SEPARATOR;
+        StringBuilder lines = new StringBuilder();
+        for (int row = ZERO; row < chunk.numberOfRows; row++) {
+            lines.append(linePrefix).append(chunk.timeInstants[row]);
+            for (int position : positions) {
+                lines.append(SEPARATOR);
+                if (position >= ZERO) {
+                    lines.append(chunk.values[position][row]);
+                }
+            }
+            lines.append(LINE_SEPARATOR);
+        }
+        return lines.toString();
+    }
+
+    /**
+     * This method encodes the values of a column of a chunk at the end of the
+     * encoded chunk, as differences to the previous value.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param columnValues The values of the column.
+     * @param numberOfValues The number of values to be encoded.
+     * @since 2.4
+     */
+    private void putColumn(long[] columnValues, int numberOfValues) {
+        long previousValue = ZERO;
+        for (int i = ZERO; i < numberOfValues; i++) {
+            TSimulationTraceFormat.putSignedVarLong(this.encodedChunk, columnValues[i] - previousValue);
+            previousValue = columnValues[i];
+        }
+    }
+
+    /**
+     * This method appends a string to the output buffer, as its length in
+     * bytes followed by its UTF-8 bytes.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param string The string to be written.
+     * @throws IOException If the output buffer cannot be written.
+     * @since 2.4
+     */
+    private void putString(String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        makeRoom(Integer.BYTES);
+        this.output.putInt(bytes.length);
+        put(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * This method appends the remaining bytes of a buffer to the output
+     * buffer. Buffers larger than the output buffer are written to disk
+     * directly.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param source The buffer to be appended.
+     * @throws IOException If the output buffer cannot be written.
+     * @since 2.4
+     */
+    private void put(ByteBuffer source) throws IOException {
+        makeRoom(source.remaining());
+        if (this.output.remaining() < source.remaining()) {
+            while (source.hasRemaining()) {
+                this.channel.write(source);
+            }
+        } else {
+            this.output.put(source);
+        }
+    }
+
+    /**
+     * This method makes sure that the output buffer has room for the
+     * specified number of bytes, writing it to disk if needed.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param numberOfBytes The number of bytes that are going to be put.
+     * @throws IOException If the output buffer cannot be written.
+     * @since 2.4
+     */
+    private void makeRoom(int numberOfBytes) throws IOException {
+        if (this.output.remaining() < numberOfBytes) {
+            writeOutput();
+        }
+    }
+
+    /**
+     * This method writes the content of the output buffer to disk.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @throws IOException If the output buffer cannot be written.
+     * @since 2.4
+     */
+    private void writeOutput() throws IOException {
+        this.output.flip();
+        while (this.output.hasRemaining()) {
+            this.channel.write(this.output);
+        }
+        this.output.clear();
+    }
+
+    /**
+     * This class implements the values of a node that have not been written
+     * yet: its time instants and, column by column, its values.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @version 2.0
+     */
+    private static final class TChunk {
+
+        /**
+         * This is the constructor of the class. It creates a new instance of
+         * TChunk without rows.
+         *
+         * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+         * @param node The node the values belong to.
+         * @param columns The columns exported by the stats of the node.
+         * @since 2.4
+         */
+        TChunk(TNode node, StatsColumns[] columns) {
+            this.node = node;
+            this.columns = columns;
+            this.timeInstants = new long[CHUNK_SIZE];
+            this.values = new long[columns.length][CHUNK_SIZE];
+            this.numberOfRows = ZERO;
+            this.closed = false;
+        }
+
+        /**
+         * This method stores the current values of the stats of the node for
+         * the specified time instant.
+         *
+         * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+         * @param stats The stats of the node.
+         * @param timeInstant The time instant of the values.
+         * @since 2.4
+         */
+        void addRow(TStats stats, long timeInstant) {
+            this.timeInstants[this.numberOfRows] = timeInstant;
+            for (int i = ZERO; i < this.columns.length; i++) {
+                this.values[i][this.numberOfRows] = stats.getColumnValue(this.columns[i]);
+            }
+            this.numberOfRows++;
+        }
+
+        private final TNode node;
+        private final StatsColumns[] columns;
+        private final long[] timeInstants;
+        private final long[][] values;
+        private int numberOfRows;
+        private boolean closed;
+    }
+
+    public static final int MAGIC_NUMBER = 0x4F534D53;
+    public static final int VERSION = 1;
+    public static final int CHUNK_HEADER_SIZE = 12;
+    public static final int END_OF_CHUNKS = -1;
+    public static final int CHUNK_SIZE = 1024;
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final int TWO = 2;
+    private static final int THREE = 3;
+    private static final int MAX_VALUE_SIZE = 10;
+    private static final int INITIAL_ENCODED_CHUNK_SIZE = 64 * 1024;
+    private static final int OUTPUT_BUFFER_SIZE = 1024 * 1024;
+    private static final String SEPARATOR = ";";
+    private static final String LINE_SEPARATOR = "\n";
+    private static final String CSV_HEADER_PREFIX = "nodeID;nodeName;timeInstant";
+
+    private final TScene scenario;
+    private final File outputFile;
+    private final StatsExportFormats format;
+    private volatile Map<TStats, TChunk> chunks;
+    private FileChannel channel;
+    private ByteBuffer output;
+    private ByteBuffer encodedChunk;
+    private long numberOfRows;
+    private IOException writeException;
+    private final ResourceBundle translations;
+    private final Logger logger = LoggerFactory.getLogger(TStatsExporter.class);
+}
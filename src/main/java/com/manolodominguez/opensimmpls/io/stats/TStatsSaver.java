@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.stats;
+
+import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import com.manolodominguez.opensimmpls.scenario.TNode;
+import com.manolodominguez.opensimmpls.scenario.TScene;
+import com.manolodominguez.opensimmpls.scenario.TStats;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Iterator;
+import java.util.ResourceBundle;
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.data.general.AbstractDataset;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements a class that stores the stats of every node of a
+ * scenario to disk, as a semicolon separated values file. Each line contains
+ * the node ID, the node name, the dataset title, the series and a (x, y) pair.
+ * For bar chart datasets, the category is used as x value.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public class TStatsSaver {
+
+    /**
+     * This method is the constructor of the class. It creates a new instance of
+     * TStatsSaver.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param scenario The TScene object whose stats will be stored in disk.
+     * @since 2.4
+     */
+    public TStatsSaver(TScene scenario) {
+        this.translations = ResourceBundle.getBundle(AvailableBundles.T_STATS_SAVER.getPath());
+        if (scenario == null) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        this.scenario = scenario;
+        this.output = null;
+    }
+
+    /**
+     * This method saves the stats of every node of the scenario to a disk
+     * file.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param outputFile The file where the stats will be stored.
+     * @return True, if the stats can be saved successful. Otherwise, returns
+     * false.
+     * @since 2.4
+     */
+    public boolean save(File outputFile) {
+        if (outputFile == null) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        TNode auxNode;
+        TStats auxStats;
+        try (FileOutputStream outputStream = new FileOutputStream(outputFile); PrintStream printStream = new PrintStream(outputStream)) {
+            this.output = printStream;
+            this.output.println(HEADER);
+            Iterator<TNode> nodesIterator = this.scenario.getTopology().getNodesIterator();
+            while (nodesIterator.hasNext()) {
+                auxNode = nodesIterator.next();
+                if (auxNode != null) {
+                    auxStats = auxNode.getStats();
+                    if (auxStats != null) {
+                        for (int i = FIRST_DATASET; i <= auxStats.getNumberOfAvailableDatasets(); i++) {
+                            saveDataset(auxNode, getDatasetTitle(auxStats, i), getDataset(auxStats, i));
+                        }
+                    }
+                }
+            }
+            // PrintStream does not throw IOException, so write errors have to
+            // be checked explicitly.
+            if (this.output.checkError()) {
+                this.logger.error(this.translations.getString("ioexceptionDescription"));
+                return false;
+            }
+        } catch (IOException e) {
+            this.logger.error(this.translations.getString("ioexceptionDescription"));
+            return false;
+        } finally {
+            this.output = null;
+        }
+        return true;
+    }
+
+    /**
+     * This method writes a dataset of a given node to the output file.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param node The node the dataset belongs to.
+     * @param datasetTitle The title of the dataset.
+     * @param dataset The dataset to be written.
+     * @since 2.4
+     */
+    private void saveDataset(TNode node, String datasetTitle, AbstractDataset dataset) {
+        String linePrefix = node.getNodeID() + SEPARATOR + node.getName() + SEPARATOR + datasetTitle + SEPARATOR;
+        if (dataset instanceof XYSeriesCollection) {
+            XYSeriesCollection seriesCollection = (XYSeriesCollection) dataset;
+            for (int i = ZERO; i < seriesCollection.getSeriesCount(); i++) {
+                XYSeries series = seriesCollection.getSeries(i);
+                for (int j = ZERO; j < series.getItemCount(); j++) {
+                    this.output.println(linePrefix + series.getKey() + SEPARATOR + series.getX(j) + SEPARATOR + series.getY(j));
+                }
+            }
+        } else if (dataset instanceof DefaultCategoryDataset) {
+            DefaultCategoryDataset categoryDataset = (DefaultCategoryDataset) dataset;
+            for (int i = ZERO; i < categoryDataset.getRowCount(); i++) {
+                for (int j = ZERO; j < categoryDataset.getColumnCount(); j++) {
+                    this.output.println(linePrefix + categoryDataset.getRowKey(i) + SEPARATOR + categoryDataset.getColumnKey(j) + SEPARATOR + categoryDataset.getValue(i, j));
+                }
+            }
+        }
+    }
+
+    /**
+     * This method gets the dataset of the specified stats that has the
+     * specified position.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param stats The stats the dataset belongs to.
+     * @param datasetNumber The position of the dataset, from 1 to 6.
+     * @return The dataset at the specified position.
+     * @since 2.4
+     */
+    private AbstractDataset getDataset(TStats stats, int datasetNumber) {
+        switch (datasetNumber) {
+            case DATASET_1:
+                return stats.getDataset1();
+            case DATASET_2:
+                return stats.getDataset2();
+            case DATASET_3:
+                return stats.getDataset3();
+            case DATASET_4:
+                return stats.getDataset4();
+            case DATASET_5:
+                return stats.getDataset5();
+            case DATASET_6:
+                return stats.getDataset6();
+            default:
+                this.logger.error(this.translations.getString("argumentOutOfRange"));
+                throw new IllegalArgumentException(this.translations.getString("argumentOutOfRange"));
+        }
+    }
+
+    /**
+     * This method gets the title of the dataset of the specified stats that
+     * has the specified position.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param stats The stats the dataset belongs to.
+     * @param datasetNumber The position of the dataset, from 1 to 6.
+     * @return The title of the dataset at the specified position.
+     * @since 2.4
+     */
+    private String getDatasetTitle(TStats stats, int datasetNumber) {
+        switch (datasetNumber) {
+            case DATASET_1:
+                return stats.getTitleOfDataset1();
+            case DATASET_2:
+                return stats.getTitleOfDataset2();
+            case DATASET_3:
+                return stats.getTitleOfDataset3();
+            case DATASET_4:
+                return stats.getTitleOfDataset4();
+            case DATASET_5:
+                return stats.getTitleOfDataset5();
+            case DATASET_6:
+                return stats.getTitleOfDataset6();
+            default:
+                this.logger.error(this.translations.getString("argumentOutOfRange"));
+                throw new IllegalArgumentException(this.translations.getString("argumentOutOfRange"));
+        }
+    }
+
+    private static final int ZERO = 0;
+    private static final int FIRST_DATASET = 1;
+    private static final int DATASET_1 = 1;
+    private static final int DATASET_2 = 2;
+    private static final int DATASET_3 = 3;
+    private static final int DATASET_4 = 4;
+    private static final int DATASET_5 = 5;
+    private static final int DATASET_6 = 6;
+    private static final String SEPARATOR = ";";
+    private static final String HEADER = "nodeID;nodeName;dataset;series;x;y";
+
+    private TScene scenario;
+    private PrintStream output;
+    private ResourceBundle translations;
+    private final Logger logger = LoggerFactory.getLogger(TStatsSaver.class);
+}
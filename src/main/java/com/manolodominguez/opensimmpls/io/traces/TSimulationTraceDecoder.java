@@ -0,0 +1,314 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.traces;
+
+import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import com.manolodominguez.opensimmpls.scenario.TLink;
+import com.manolodominguez.opensimmpls.scenario.TNode;
+import com.manolodominguez.opensimmpls.scenario.TTopology;
+import com.manolodominguez.opensimmpls.scenario.TTopologyElement;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventLSPEstablished;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventLSPRemoved;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventLabelAssigned;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventLabelDenied;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventLabelReceived;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventLabelRemoved;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventLabelRequested;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventLinkBroken;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventLinkRecovered;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventNodeCongested;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketDiscarded;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketGenerated;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketOnFly;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketReceived;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketRouted;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketSent;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketSwitched;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements the decoder of the blocks of a simulation trace. A
+ * block is decompressed once and then its events are decoded one by one, as
+ * instances of the corresponding TSimulationEvent subclass whose source is a
+ * node or link of the topology the trace was recorded from. It is shared by
+ * the sequential reader and the index of traces.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public class TSimulationTraceDecoder {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TSimulationTraceDecoder without any block to decode.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param topology The topology of the scenario the trace was recorded
+     * from. Its nodes and links will be the source of the events.
+     * @since 2.4
+     */
+    public TSimulationTraceDecoder(TTopology topology) {
+        this.translations = ResourceBundle.getBundle(AvailableBundles.T_SIMULATION_TRACE_DECODER.getPath());
+        if (topology == null) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        this.nodes = new HashMap<>();
+        Iterator<TNode> nodesIterator = topology.getNodesIterator();
+        while (nodesIterator.hasNext()) {
+            TNode node = nodesIterator.next();
+            this.nodes.put(node.getNodeID(), node);
+        }
+        this.links = new HashMap<>();
+        Iterator<TLink> linksIterator = topology.getLinksIterator();
+        while (linksIterator.hasNext()) {
+            TLink link = linksIterator.next();
+            this.links.put(link.getID(), link);
+        }
+        this.inflater = new Inflater();
+        this.compressedBlock = new byte[ZERO];
+        this.uncompressedBlock = new byte[ZERO];
+        this.block = ByteBuffer.wrap(this.uncompressedBlock);
+        this.previousInstant = ZERO;
+    }
+
+    /**
+     * This method takes the compressed events of a block from the specified
+     * buffer and decompresses them. Events of the previous block that have not
+     * been decoded yet are discarded.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param source The buffer where the compressed events are, starting at
+     * its current position. Its position is moved after them.
+     * @param compressedSize The number of bytes of the compressed events.
+     * @param uncompressedSize The number of bytes of the events once
+     * decompressed.
+     * @throws IOException If the compressed events are not valid.
+     * @since 2.4
+     */
+    public void decompress(ByteBuffer source, int compressedSize, int uncompressedSize) throws IOException {
+        if ((compressedSize < ZERO) || (uncompressedSize < ZERO) || (source.remaining() < compressedSize)) {
+            throw badFormat();
+        }
+        if (this.compressedBlock.length < compressedSize) {
+            this.compressedBlock = new byte[compressedSize];
+        }
+        if (this.uncompressedBlock.length < uncompressedSize) {
+            this.uncompressedBlock = new byte[uncompressedSize];
+        }
+        source.get(this.compressedBlock, ZERO, compressedSize);
+        this.inflater.reset();
+        this.inflater.setInput(this.compressedBlock, ZERO, compressedSize);
+        try {
+            int inflatedSize = ZERO;
+            while ((inflatedSize < uncompressedSize) && (!this.inflater.finished())) {
+                int inflatedBytes = this.inflater.inflate(this.uncompressedBlock, inflatedSize, uncompressedSize - inflatedSize);
+                if ((inflatedBytes == ZERO) && (this.inflater.needsInput() || this.inflater.needsDictionary())) {
+                    throw badFormat();
+                }
+                inflatedSize += inflatedBytes;
+            }
+            if (inflatedSize != uncompressedSize) {
+                throw badFormat();
+            }
+        } catch (DataFormatException e) {
+            throw badFormat();
+        }
+        this.block = ByteBuffer.wrap(this.uncompressedBlock, ZERO, uncompressedSize);
+        this.previousInstant = ZERO;
+    }
+
+    /**
+     * This method tells whether there are events of the current block that
+     * have not been decoded yet.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return TRUE, if there are events left in the current block. Otherwise,
+     * FALSE.
+     * @since 2.4
+     */
+    public boolean hasRemaining() {
+        return this.block.hasRemaining();
+    }
+
+    /**
+     * This method discards the events of the current block that have not been
+     * decoded yet.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public void clear() {
+        this.block.limit(ZERO);
+    }
+
+    /**
+     * This method releases the resources used to decompress blocks. The
+     * decoder cannot be used anymore.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public void end() {
+        this.inflater.end();
+        clear();
+    }
+
+    /**
+     * This method decodes the next event of the current block.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The decoded event.
+     * @throws IOException If the event is not valid or its source is not in
+     * the topology.
+     * @since 2.4
+     */
+    public TSimulationEvent decode() throws IOException {
+        try {
+            int subtype = (int) TSimulationTraceFormat.getVarLong(this.block);
+            TTopologyElement source = getElement(TSimulationTraceFormat.getVarLong(this.block));
+            long eventID = TSimulationTraceFormat.getVarLong(this.block);
+            long instant = this.previousInstant + TSimulationTraceFormat.getSignedVarLong(this.block);
+            this.previousInstant = instant;
+            switch (subtype) {
+                case TSimulationEvent.PACKET_GENERATED: {
+                    int packetType = (int) TSimulationTraceFormat.getVarLong(this.block);
+                    int packetSize = (int) TSimulationTraceFormat.getVarLong(this.block);
+                    return new TSimulationEventPacketGenerated(source, eventID, instant, packetType, packetSize);
+                }
+                case TSimulationEvent.PACKET_RECEIVED: {
+                    int packetType = (int) TSimulationTraceFormat.getVarLong(this.block);
+                    int packetSize = (int) TSimulationTraceFormat.getVarLong(this.block);
+                    return new TSimulationEventPacketReceived(source, eventID, instant, packetType, packetSize);
+                }
+                case TSimulationEvent.PACKET_SENT: {
+                    return new TSimulationEventPacketSent(source, eventID, instant, (int) TSimulationTraceFormat.getVarLong(this.block));
+                }
+                case TSimulationEvent.PACKET_SWITCHED: {
+                    return new TSimulationEventPacketSwitched(source, eventID, instant, (int) TSimulationTraceFormat.getVarLong(this.block));
+                }
+                case TSimulationEvent.PACKET_DISCARDED: {
+                    return new TSimulationEventPacketDiscarded(source, eventID, instant, (int) TSimulationTraceFormat.getVarLong(this.block));
+                }
+                case TSimulationEvent.PACKET_ROUTED: {
+                    return new TSimulationEventPacketRouted(source, eventID, instant, (int) TSimulationTraceFormat.getVarLong(this.block));
+                }
+                case TSimulationEvent.PACKET_ON_FLY: {
+                    int packetType = (int) TSimulationTraceFormat.getVarLong(this.block);
+                    long transitPercentage = TSimulationTraceFormat.getVarLong(this.block);
+                    return new TSimulationEventPacketOnFly(source, eventID, instant, packetType, transitPercentage);
+                }
+                case TSimulationEvent.NODE_CONGESTED: {
+                    return new TSimulationEventNodeCongested(source, eventID, instant, TSimulationTraceFormat.getVarLong(this.block));
+                }
+                case TSimulationEvent.LINK_BROKEN: {
+                    return new TSimulationEventLinkBroken(source, eventID, instant);
+                }
+                case TSimulationEvent.LINK_RECOVERED: {
+                    return new TSimulationEventLinkRecovered(source, eventID, instant);
+                }
+                case TSimulationEvent.LABEL_REQUESTED: {
+                    return new TSimulationEventLabelRequested(source, eventID, instant);
+                }
+                case TSimulationEvent.LABEL_RECEIVED: {
+                    return new TSimulationEventLabelReceived(source, eventID, instant);
+                }
+                case TSimulationEvent.LABEL_ASSIGNED: {
+                    return new TSimulationEventLabelAssigned(source, eventID, instant);
+                }
+                case TSimulationEvent.LABEL_DENIED: {
+                    return new TSimulationEventLabelDenied(source, eventID, instant);
+                }
+                case TSimulationEvent.LABEL_REMOVED: {
+                    return new TSimulationEventLabelRemoved(source, eventID, instant);
+                }
+                case TSimulationEvent.LSP_ESTABLISHED: {
+                    return new TSimulationEventLSPEstablished(source, eventID, instant);
+                }
+                case TSimulationEvent.LSP_REMOVED: {
+                    return new TSimulationEventLSPRemoved(source, eventID, instant);
+                }
+                default: {
+                    throw badFormat();
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            throw badFormat();
+        }
+    }
+
+    /**
+     * This method gets the topology element that is stored in the trace as
+     * the source of an event.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param element The source of an event, as stored in the trace.
+     * @return The corresponding node or link of the topology.
+     * @throws IOException If the topology has no such node or link.
+     * @since 2.4
+     */
+    private TTopologyElement getElement(long element) throws IOException {
+        int elementID = (int) (element >>> ONE);
+        TTopologyElement topologyElement;
+        if ((element & ONE) == TSimulationTraceFormat.LINK) {
+            topologyElement = this.links.get(elementID);
+        } else {
+            topologyElement = this.nodes.get(elementID);
+        }
+        if (topologyElement == null) {
+            this.logger.error(this.translations.getString("unknownElement") + elementID);
+            throw new IOException(this.translations.getString("unknownElement") + elementID);
+        }
+        return topologyElement;
+    }
+
+    /**
+     * This method creates the exception that is thrown when a block is not
+     * valid.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The exception to be thrown.
+     * @since 2.4
+     */
+    private IOException badFormat() {
+        this.logger.error(this.translations.getString("badFormat"));
+        return new IOException(this.translations.getString("badFormat"));
+    }
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+
+    private final Map<Integer, TNode> nodes;
+    private final Map<Integer, TLink> links;
+    private final Inflater inflater;
+    private byte[] compressedBlock;
+    private byte[] uncompressedBlock;
+    private ByteBuffer block;
+    private long previousInstant;
+    private final ResourceBundle translations;
+    private final Logger logger = LoggerFactory.getLogger(TSimulationTraceDecoder.class);
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.traces;
+
+import com.manolodominguez.opensimmpls.scenario.TLink;
+import com.manolodominguez.opensimmpls.scenario.TNode;
+import com.manolodominguez.opensimmpls.scenario.TTopologyElement;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * This class defines the binary format of simulation traces and the variable
+ * length encoding of integers used in it. A trace starts with a file header
+ * (magic number and version) followed by blocks. Each block has a fixed size
+ * header (compressed size, uncompressed size, number of events, instant of the
+ * first event and instant of the last event) followed by its events,
+ * compressed with deflate. Inside a block, each event is stored as a sequence
+ * of variable length integers: subtype, source element (identifier and type),
+ * event identifier, instant (as the difference to the previous one) and the
+ * attributes of the subtype, if any.
+ *
+ * Since version 2, blocks are followed by an end of blocks mark and by an
+ * index: a table of blocks (offset in the file, minimum and maximum instant,
+ * running maximum of the maximum instants, running minimum, from the end, of
+ * the minimum instants, and number of events), a table of elements sorted by
+ * element (element and position and length of its postings) and the postings
+ * themselves (sorted numbers of the blocks that contain events of each
+ * element). The trace ends with a fixed size footer (offset of the index,
+ * number of blocks, number of elements and index magic number).
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public final class TSimulationTraceFormat {
+
+    /**
+     * This is the constructor of the class. It is private because this class
+     * only has static members.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    private TSimulationTraceFormat() {
+    }
+
+    /**
+     * This method writes a non negative long value using as few bytes as
+     * possible: seven bits per byte, the most significant bit telling whether
+     * more bytes follow.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param buffer The buffer where the value will be written.
+     * @param value The value to be written. Negative values take ten bytes.
+     * @since 2.4
+     */
+    public static void putVarLong(ByteBuffer buffer, long value) {
+        long remaining = value;
+        while ((remaining & ~SEVEN_BITS_MASK) != ZERO) {
+            buffer.put((byte) ((remaining & SEVEN_BITS_MASK) | CONTINUATION_BIT));
+            remaining >>>= SEVEN;
+        }
+        buffer.put((byte) remaining);
+    }
+
+    /**
+     * This method reads a long value written by putVarLong.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param buffer The buffer the value will be read from.
+     * @return The value that has been read.
+     * @throws BufferUnderflowException If the value is longer than ten bytes
+     * or the buffer ends in the middle of the value.
+     * @since 2.4
+     */
+    public static long getVarLong(ByteBuffer buffer) {
+        long value = ZERO;
+        int shift = ZERO;
+        byte currentByte;
+        do {
+            if (shift >= Long.SIZE) {
+                throw new BufferUnderflowException();
+            }
+            currentByte = buffer.get();
+            value |= (currentByte & SEVEN_BITS_MASK) << shift;
+            shift += SEVEN;
+        } while ((currentByte & CONTINUATION_BIT) != ZERO);
+        return value;
+    }
+
+    /**
+     * This method writes a long value that can be negative using as few bytes
+     * as possible. Values near to zero, either positive or negative, take few
+     * bytes.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param buffer The buffer where the value will be written.
+     * @param value The value to be written.
+     * @since 2.4
+     */
+    public static void putSignedVarLong(ByteBuffer buffer, long value) {
+        putVarLong(buffer, (value << ONE) ^ (value >> (Long.SIZE - ONE)));
+    }
+
+    /**
+     * This method reads a long value written by putSignedVarLong.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param buffer The buffer the value will be read from.
+     * @return The value that has been read.
+     * @since 2.4
+     */
+    public static long getSignedVarLong(ByteBuffer buffer) {
+        long value = getVarLong(buffer);
+        return (value >>> ONE) ^ -(value & ONE);
+    }
+
+    /**
+     * This method computes how the topology element that generated an event
+     * is stored in the trace: its identifier and, in the least significant
+     * bit, whether it is a node or a link.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param topologyElement The topology element that generated an event.
+     * @return The topology element as stored in the trace.
+     * @since 2.4
+     */
+    public static long getElementKey(TTopologyElement topologyElement) {
+        if (topologyElement.getElementType() == TTopologyElement.LINK) {
+            return (((long) ((TLink) topologyElement).getID()) << ONE) | LINK;
+        }
+        return (((long) ((TNode) topologyElement).getNodeID()) << ONE) | NODE;
+    }
+
+    // "OSMT": OpenSimMPLS trace.
+    public static final int MAGIC_NUMBER = 0x4F534D54;
+    public static final int VERSION = 2;
+    // Version 1 traces have no index. They can be read, but not queried.
+    public static final int OLDEST_VERSION = 1;
+    public static final int FILE_HEADER_SIZE = 8;
+    public static final int BLOCK_HEADER_SIZE = 28;
+    // Stored instead of the compressed size of a block after the last one.
+    public static final int END_OF_BLOCKS = -1;
+    // "OSMI": OpenSimMPLS index.
+    public static final int INDEX_MAGIC_NUMBER = 0x4F534D49;
+    public static final int BLOCK_ENTRY_SIZE = 48;
+    public static final int ELEMENT_ENTRY_SIZE = 16;
+    public static final int FOOTER_SIZE = 20;
+    // Encoding a single event never takes more bytes than this.
+    public static final int MAX_EVENT_SIZE = 64;
+    public static final int NODE = 0;
+    public static final int LINK = 1;
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final int SEVEN = 7;
+    private static final long SEVEN_BITS_MASK = 0x7FL;
+    private static final int CONTINUATION_BIT = 0x80;
+}
@@ -0,0 +1,656 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.traces;
+
+import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import com.manolodominguez.opensimmpls.scenario.TTopology;
+import com.manolodominguez.opensimmpls.scenario.TTopologyElement;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.ResourceBundle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements random access to a simulation trace through the index
+ * written at its end by TSimulationTraceWriter. The trace file is mapped into
+ * memory, so only the pages of the index and of the blocks that are actually
+ * queried are read from disk. Blocks that may contain events of the queried
+ * time range are found by binary search over the table of blocks, and blocks
+ * that contain events of the queried topology element, by binary search over
+ * its postings. So, a query takes O(log n + k), where n is the number of
+ * blocks and k the number of events in the blocks that overlap the query.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public class TSimulationTraceIndex {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TSimulationTraceIndex. Nothing is read until it is opened.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param traceFile The file the trace will be read from.
+     * @param topology The topology of the scenario the trace was recorded
+     * from. Its nodes and links will be the source of the events.
+     * @since 2.4
+     */
+    public TSimulationTraceIndex(File traceFile, TTopology topology) {
+        this.translations = ResourceBundle.getBundle(AvailableBundles.T_SIMULATION_TRACE_INDEX.getPath());
+        if ((traceFile == null) || (topology == null)) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        this.traceFile = traceFile;
+        this.topology = topology;
+        this.channel = null;
+        this.index = null;
+        this.window = null;
+        this.windowOffset = ZERO;
+        this.indexOffset = ZERO;
+        this.numberOfBlocks = ZERO;
+        this.numberOfElements = ZERO;
+        this.numberOfEvents = ZERO;
+    }
+
+    /**
+     * This method opens the trace file, checks its header and footer and maps
+     * its index into memory.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @throws IOException If the file cannot be read or it is not a trace
+     * with index.
+     * @since 2.4
+     */
+    public synchronized void open() throws IOException {
+        if (this.channel != null) {
+            return;
+        }
+        this.channel = FileChannel.open(this.traceFile.toPath(), StandardOpenOption.READ);
+        try {
+            long fileSize = this.channel.size();
+            if (fileSize < TSimulationTraceFormat.FILE_HEADER_SIZE + Integer.BYTES + TSimulationTraceFormat.FOOTER_SIZE) {
+                throw badFormat();
+            }
+            MappedByteBuffer header = this.channel.map(FileChannel.MapMode.READ_ONLY, ZERO, TSimulationTraceFormat.FILE_HEADER_SIZE);
+            // Version 1 traces have no index.
+            if ((header.getInt() != TSimulationTraceFormat.MAGIC_NUMBER) || (header.getInt() != TSimulationTraceFormat.VERSION)) {
+                throw badFormat();
+            }
+            long footerOffset = fileSize - TSimulationTraceFormat.FOOTER_SIZE;
+            MappedByteBuffer footer = this.channel.map(FileChannel.MapMode.READ_ONLY, footerOffset, TSimulationTraceFormat.FOOTER_SIZE);
+            this.indexOffset = footer.getLong();
+            this.numberOfBlocks = footer.getInt();
+            this.numberOfElements = footer.getInt();
+            if (footer.getInt() != TSimulationTraceFormat.INDEX_MAGIC_NUMBER) {
+                throw badFormat();
+            }
+            long indexSize = footerOffset - this.indexOffset;
+            long minimumIndexSize = ((long) this.numberOfBlocks * TSimulationTraceFormat.BLOCK_ENTRY_SIZE)
+                    + ((long) this.numberOfElements * TSimulationTraceFormat.ELEMENT_ENTRY_SIZE);
+            if ((this.indexOffset < TSimulationTraceFormat.FILE_HEADER_SIZE + Integer.BYTES) || (this.numberOfBlocks < ZERO)
+                    || (this.numberOfElements < ZERO) || (indexSize < minimumIndexSize) || (indexSize > Integer.MAX_VALUE)) {
+                throw badFormat();
+            }
+            this.index = this.channel.map(FileChannel.MapMode.READ_ONLY, this.indexOffset, indexSize);
+            this.numberOfEvents = ZERO;
+            for (int i = ZERO; i < this.numberOfBlocks; i++) {
+                this.numberOfEvents += this.index.getInt((i * TSimulationTraceFormat.BLOCK_ENTRY_SIZE) + EVENTS_FIELD);
+            }
+            this.window = null;
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * This method closes the trace file. Mapped memory is released when it is
+     * not referenced anymore, also by the iterators returned by this index.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @throws IOException If the file cannot be closed.
+     * @since 2.4
+     */
+    public synchronized void close() throws IOException {
+        if (this.channel == null) {
+            return;
+        }
+        try {
+            this.channel.close();
+        } finally {
+            this.channel = null;
+            this.index = null;
+            this.window = null;
+        }
+    }
+
+    /**
+     * This method gets the number of blocks of the trace.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The number of blocks of the trace.
+     * @since 2.4
+     */
+    public synchronized int getNumberOfBlocks() {
+        checkOpen();
+        return this.numberOfBlocks;
+    }
+
+    /**
+     * This method gets the number of events of the trace.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The number of events of the trace.
+     * @since 2.4
+     */
+    public synchronized long getNumberOfEvents() {
+        checkOpen();
+        return this.numberOfEvents;
+    }
+
+    /**
+     * This method gets the instant of the earliest event of the trace.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The instant of the earliest event of the trace, or
+     * Long.MAX_VALUE if the trace has no events.
+     * @since 2.4
+     */
+    public synchronized long getFirstInstant() {
+        checkOpen();
+        if (this.numberOfBlocks == ZERO) {
+            return Long.MAX_VALUE;
+        }
+        return getBlockField(ZERO, SUFFIX_MIN_INSTANT_FIELD);
+    }
+
+    /**
+     * This method gets the instant of the latest event of the trace.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The instant of the latest event of the trace, or
+     * Long.MIN_VALUE if the trace has no events.
+     * @since 2.4
+     */
+    public synchronized long getLastInstant() {
+        checkOpen();
+        if (this.numberOfBlocks == ZERO) {
+            return Long.MIN_VALUE;
+        }
+        return getBlockField(this.numberOfBlocks - ONE, PREFIX_MAX_INSTANT_FIELD);
+    }
+
+    /**
+     * This method gets the events of the trace that happened in the specified
+     * time range, in the same order they were written.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param from The beginning of the time range, inclusive.
+     * @param to The end of the time range, inclusive.
+     * @return An iterator over the events of the time range. It throws
+     * UncheckedIOException if the trace cannot be read or it is not valid.
+     * @since 2.4
+     */
+    public synchronized Iterator<TSimulationEvent> getEvents(long from, long to) {
+        checkOpen();
+        int firstBlock = getFirstBlock(from);
+        int lastBlock = getLastBlock(to);
+        return new TEventsIterator(null, NO_ELEMENT, ZERO, ZERO, firstBlock, lastBlock, from, to);
+    }
+
+    /**
+     * This method gets the events of the trace that were generated by the
+     * specified topology element in the specified time range, in the same
+     * order they were written.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param topologyElement The node or link whose events are queried.
+     * @param from The beginning of the time range, inclusive.
+     * @param to The end of the time range, inclusive.
+     * @return An iterator over the events of the topology element in the time
+     * range. It throws UncheckedIOException if the trace cannot be read or it
+     * is not valid.
+     * @since 2.4
+     */
+    public synchronized Iterator<TSimulationEvent> getEvents(TTopologyElement topologyElement, long from, long to) {
+        if (topologyElement == null) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        checkOpen();
+        long element = TSimulationTraceFormat.getElementKey(topologyElement);
+        int firstBlock = getFirstBlock(from);
+        int lastBlock = getLastBlock(to);
+        int elementEntry = findElement(element);
+        if (elementEntry < ZERO) {
+            return new TEventsIterator(null, element, ZERO, ZERO, ONE, ZERO, from, to);
+        }
+        int elementPosition = (this.numberOfBlocks * TSimulationTraceFormat.BLOCK_ENTRY_SIZE) + (elementEntry * TSimulationTraceFormat.ELEMENT_ENTRY_SIZE);
+        int postingsPosition = (this.numberOfBlocks * TSimulationTraceFormat.BLOCK_ENTRY_SIZE) + (this.numberOfElements * TSimulationTraceFormat.ELEMENT_ENTRY_SIZE);
+        int firstPosting = this.index.getInt(elementPosition + Long.BYTES);
+        int numberOfPostings = this.index.getInt(elementPosition + Long.BYTES + Integer.BYTES);
+        if ((firstPosting < ZERO) || (numberOfPostings < ZERO)
+                || (postingsPosition + (((long) firstPosting + numberOfPostings) * Integer.BYTES) > this.index.capacity())) {
+            throw new UncheckedIOException(badFormat());
+        }
+        ByteBuffer elementPostings = this.index.duplicate();
+        elementPostings.position(postingsPosition + (firstPosting * Integer.BYTES));
+        elementPostings.limit(elementPostings.position() + (numberOfPostings * Integer.BYTES));
+        elementPostings = elementPostings.slice();
+        // Skip the postings of the blocks that are before the time range.
+        int low = ZERO;
+        int high = numberOfPostings;
+        while (low < high) {
+            int middle = (low + high) >>> ONE;
+            if (elementPostings.getInt(middle * Integer.BYTES) < firstBlock) {
+                low = middle + ONE;
+            } else {
+                high = middle;
+            }
+        }
+        return new TEventsIterator(elementPostings, element, low, numberOfPostings, firstBlock, lastBlock, from, to);
+    }
+
+    /**
+     * This method gets all the events of the trace that were generated by the
+     * specified topology element, in the same order they were written.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param topologyElement The node or link whose events are queried.
+     * @return An iterator over the events of the topology element. It throws
+     * UncheckedIOException if the trace cannot be read or it is not valid.
+     * @since 2.4
+     */
+    public Iterator<TSimulationEvent> getEvents(TTopologyElement topologyElement) {
+        return getEvents(topologyElement, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * This method checks that the index has been opened.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    private void checkOpen() {
+        if (this.channel == null) {
+            this.logger.error(this.translations.getString("notOpen"));
+            throw new IllegalStateException(this.translations.getString("notOpen"));
+        }
+    }
+
+    /**
+     * This method gets a long field of an entry of the table of blocks.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param block The number of the block.
+     * @param field The offset of the field inside the entry.
+     * @return The value of the field.
+     * @since 2.4
+     */
+    private long getBlockField(int block, int field) {
+        return this.index.getLong((block * TSimulationTraceFormat.BLOCK_ENTRY_SIZE) + field);
+    }
+
+    /**
+     * This method finds the first block that may contain events at or after
+     * the specified instant, by binary search over the running maximum of the
+     * instants of the blocks.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param from The instant.
+     * @return The number of the first block that may contain events at or
+     * after the instant, or the number of blocks if there is none.
+     * @since 2.4
+     */
+    private int getFirstBlock(long from) {
+        int low = ZERO;
+        int high = this.numberOfBlocks;
+        while (low < high) {
+            int middle = (low + high) >>> ONE;
+            if (getBlockField(middle, PREFIX_MAX_INSTANT_FIELD) < from) {
+                low = middle + ONE;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * This method finds the last block that may contain events at or before
+     * the specified instant, by binary search over the running minimum, from
+     * the end, of the instants of the blocks.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param to The instant.
+     * @return The number of the last block that may contain events at or
+     * before the instant, or -1 if there is none.
+     * @since 2.4
+     */
+    private int getLastBlock(long to) {
+        int low = ZERO;
+        int high = this.numberOfBlocks;
+        while (low < high) {
+            int middle = (low + high) >>> ONE;
+            if (getBlockField(middle, SUFFIX_MIN_INSTANT_FIELD) <= to) {
+                low = middle + ONE;
+            } else {
+                high = middle;
+            }
+        }
+        return low - ONE;
+    }
+
+    /**
+     * This method finds a topology element in the table of elements, by
+     * binary search.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param element The topology element, as stored in the trace.
+     * @return The number of its entry in the table of elements, or -1 if it
+     * has no events in the trace.
+     * @since 2.4
+     */
+    private int findElement(long element) {
+        int elementsPosition = this.numberOfBlocks * TSimulationTraceFormat.BLOCK_ENTRY_SIZE;
+        int low = ZERO;
+        int high = this.numberOfElements - ONE;
+        while (low <= high) {
+            int middle = (low + high) >>> ONE;
+            long middleElement = this.index.getLong(elementsPosition + (middle * TSimulationTraceFormat.ELEMENT_ENTRY_SIZE));
+            if (middleElement < element) {
+                low = middle + ONE;
+            } else if (middleElement > element) {
+                high = middle - ONE;
+            } else {
+                return middle;
+            }
+        }
+        return -ONE;
+    }
+
+    /**
+     * This method gets the compressed events of a block, mapping the window of
+     * the trace file that contains it if it is not already mapped. Windows are
+     * large, so consecutive blocks are usually served by the same one.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param block The number of the block.
+     * @return A buffer whose content is the block, including its header.
+     * @throws IOException If the trace file cannot be mapped or the block is
+     * not valid.
+     * @since 2.4
+     */
+    private synchronized ByteBuffer getBlock(int block) throws IOException {
+        if (this.channel == null) {
+            this.logger.error(this.translations.getString("notOpen"));
+            throw new IllegalStateException(this.translations.getString("notOpen"));
+        }
+        long blockOffset = getBlockField(block, OFFSET_FIELD);
+        long blockEnd;
+        if (block < this.numberOfBlocks - ONE) {
+            blockEnd = getBlockField(block + ONE, OFFSET_FIELD);
+        } else {
+            blockEnd = this.indexOffset - Integer.BYTES;
+        }
+        if ((blockOffset < TSimulationTraceFormat.FILE_HEADER_SIZE) || (blockEnd - blockOffset < TSimulationTraceFormat.BLOCK_HEADER_SIZE)
+                || (blockEnd - blockOffset > Integer.MAX_VALUE) || (blockEnd > this.indexOffset)) {
+            throw badFormat();
+        }
+        if ((this.window == null) || (blockOffset < this.windowOffset) || (blockEnd > this.windowOffset + this.window.capacity())) {
+            long windowSize = Math.max(blockEnd - blockOffset, Math.min(WINDOW_SIZE, this.indexOffset - blockOffset));
+            this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, blockOffset, windowSize);
+            this.windowOffset = blockOffset;
+        }
+        ByteBuffer blockBuffer = this.window.duplicate();
+        blockBuffer.position((int) (blockOffset - this.windowOffset));
+        blockBuffer.limit((int) (blockEnd - this.windowOffset));
+        return blockBuffer;
+    }
+
+    /**
+     * This method creates the exception that is thrown when the trace file is
+     * not valid.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The exception to be thrown.
+     * @since 2.4
+     */
+    private IOException badFormat() {
+        this.logger.error(this.translations.getString("badFormat") + this.traceFile.getPath());
+        return new IOException(this.translations.getString("badFormat") + this.traceFile.getPath());
+    }
+
+    /**
+     * This class implements the iterator returned by the queries of the
+     * index. It visits the candidate blocks, either every block of a range or
+     * the blocks of the postings of a topology element, decompressing them one
+     * by one when needed, and returns the events that match the query.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @version 2.0
+     */
+    private final class TEventsIterator implements Iterator<TSimulationEvent> {
+
+        /**
+         * This is the constructor of the class. It creates a new instance of
+         * TEventsIterator.
+         *
+         * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+         * @param postings The postings of the queried topology element, or
+         * NULL if every block of the range is a candidate.
+         * @param element The queried topology element, as stored in the
+         * trace, or NO_ELEMENT.
+         * @param firstPosting The first posting to be visited.
+         * @param numberOfPostings The number of postings.
+         * @param firstBlock The first block that may contain events of the
+         * time range.
+         * @param lastBlock The last block that may contain events of the time
+         * range.
+         * @param from The beginning of the time range, inclusive.
+         * @param to The end of the time range, inclusive.
+         * @since 2.4
+         */
+        TEventsIterator(ByteBuffer postings, long element, int firstPosting, int numberOfPostings, int firstBlock, int lastBlock, long from, long to) {
+            this.postings = postings;
+            this.element = element;
+            this.nextPosting = firstPosting;
+            this.numberOfPostings = numberOfPostings;
+            this.nextBlock = firstBlock;
+            this.lastBlock = lastBlock;
+            this.from = from;
+            this.to = to;
+            this.decoder = null;
+            this.nextEvent = null;
+            this.finished = false;
+        }
+
+        /**
+         * This method checks whether there are more events matching the
+         * query.
+         *
+         * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+         * @return TRUE, if there are more events. Otherwise, FALSE.
+         * @since 2.4
+         */
+        @Override
+        public boolean hasNext() {
+            if ((this.nextEvent == null) && (!this.finished)) {
+                try {
+                    this.nextEvent = findNextEvent();
+                } catch (IOException e) {
+                    finish();
+                    throw new UncheckedIOException(e);
+                }
+                if (this.nextEvent == null) {
+                    finish();
+                }
+            }
+            return this.nextEvent != null;
+        }
+
+        /**
+         * This method returns the next event matching the query.
+         *
+         * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+         * @return The next event.
+         * @since 2.4
+         */
+        @Override
+        public TSimulationEvent next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            TSimulationEvent simulationEvent = this.nextEvent;
+            this.nextEvent = null;
+            return simulationEvent;
+        }
+
+        /**
+         * This method decodes events until one matches the query, moving to
+         * the next candidate block when the current one has been decoded
+         * completely.
+         *
+         * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+         * @return The next event matching the query, or NULL if there is none.
+         * @throws IOException If a block cannot be read or it is not valid.
+         * @since 2.4
+         */
+        private TSimulationEvent findNextEvent() throws IOException {
+            while (true) {
+                while ((this.decoder != null) && this.decoder.hasRemaining()) {
+                    TSimulationEvent simulationEvent = this.decoder.decode();
+                    if ((simulationEvent.getInstant() >= this.from) && (simulationEvent.getInstant() <= this.to)
+                            && ((this.element == NO_ELEMENT) || (TSimulationTraceFormat.getElementKey(simulationEvent.getSource()) == this.element))) {
+                        return simulationEvent;
+                    }
+                }
+                int block = getNextCandidateBlock();
+                if (block < ZERO) {
+                    return null;
+                }
+                if (this.decoder == null) {
+                    this.decoder = new TSimulationTraceDecoder(TSimulationTraceIndex.this.topology);
+                }
+                ByteBuffer blockBuffer = getBlock(block);
+                int compressedSize = blockBuffer.getInt();
+                int uncompressedSize = blockBuffer.getInt();
+                blockBuffer.position(blockBuffer.position() + TSimulationTraceFormat.BLOCK_HEADER_SIZE - (Integer.BYTES * TWO));
+                this.decoder.decompress(blockBuffer, compressedSize, uncompressedSize);
+            }
+        }
+
+        /**
+         * This method gets the next candidate block whose instants overlap the
+         * time range.
+         *
+         * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+         * @return The number of the block, or -1 if there are no more
+         * candidate blocks.
+         * @since 2.4
+         */
+        private int getNextCandidateBlock() {
+            while (true) {
+                int block;
+                if (this.postings == null) {
+                    if (this.nextBlock > this.lastBlock) {
+                        return -ONE;
+                    }
+                    block = this.nextBlock;
+                    this.nextBlock++;
+                } else {
+                    if (this.nextPosting >= this.numberOfPostings) {
+                        return -ONE;
+                    }
+                    block = this.postings.getInt(this.nextPosting * Integer.BYTES);
+                    this.nextPosting++;
+                    if (block > this.lastBlock) {
+                        return -ONE;
+                    }
+                }
+                synchronized (TSimulationTraceIndex.this) {
+                    checkOpen();
+                    if ((getBlockField(block, LAST_INSTANT_FIELD) >= this.from) && (getBlockField(block, FIRST_INSTANT_FIELD) <= this.to)) {
+                        return block;
+                    }
+                }
+            }
+        }
+
+        /**
+         * This method releases the decoder once the iterator has no more
+         * events.
+         *
+         * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+         * @since 2.4
+         */
+        private void finish() {
+            this.finished = true;
+            if (this.decoder != null) {
+                this.decoder.end();
+                this.decoder = null;
+            }
+        }
+
+        private final ByteBuffer postings;
+        private final long element;
+        private int nextPosting;
+        private final int numberOfPostings;
+        private int nextBlock;
+        private final int lastBlock;
+        private final long from;
+        private final long to;
+        private TSimulationTraceDecoder decoder;
+        private TSimulationEvent nextEvent;
+        private boolean finished;
+    }
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final int TWO = 2;
+    private static final long NO_ELEMENT = -1L;
+    private static final long WINDOW_SIZE = 256L * 1024 * 1024;
+    // Offsets of the fields of an entry of the table of blocks.
+    private static final int OFFSET_FIELD = 0;
+    private static final int FIRST_INSTANT_FIELD = 8;
+    private static final int LAST_INSTANT_FIELD = 16;
+    private static final int PREFIX_MAX_INSTANT_FIELD = 24;
+    private static final int SUFFIX_MIN_INSTANT_FIELD = 32;
+    private static final int EVENTS_FIELD = 40;
+
+    private final File traceFile;
+    private final TTopology topology;
+    private FileChannel channel;
+    private MappedByteBuffer index;
+    private MappedByteBuffer window;
+    private long windowOffset;
+    private long indexOffset;
+    private int numberOfBlocks;
+    private int numberOfElements;
+    private long numberOfEvents;
+    private final ResourceBundle translations;
+    private final Logger logger = LoggerFactory.getLogger(TSimulationTraceIndex.class);
+}
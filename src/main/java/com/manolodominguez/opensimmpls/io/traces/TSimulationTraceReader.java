@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.traces;
+
+import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import com.manolodominguez.opensimmpls.scenario.TTopology;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ResourceBundle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements a reader of binary trace files written by
+ * TSimulationTraceWriter. Events are decoded one by one, in the same order
+ * they were written, and their source is resolved against the topology of the
+ * scenario the trace was recorded from. Only a block of events is kept in
+ * memory at any time. The index at the end of the trace, if any, is not used;
+ * TSimulationTraceIndex uses it to query the trace.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public class TSimulationTraceReader {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TSimulationTraceReader. Nothing is read until it is opened.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param traceFile The file the trace will be read from.
+     * @param topology The topology of the scenario the trace was recorded
+     * from. Its nodes and links will be the source of the events.
+     * @since 2.4
+     */
+    public TSimulationTraceReader(File traceFile, TTopology topology) {
+        this.translations = ResourceBundle.getBundle(AvailableBundles.T_SIMULATION_TRACE_READER.getPath());
+        if ((traceFile == null) || (topology == null)) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        this.traceFile = traceFile;
+        this.topology = topology;
+        this.channel = null;
+        this.input = null;
+        this.decoder = null;
+        this.endOfBlocks = false;
+    }
+
+    /**
+     * This method opens the trace file and checks its header.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @throws IOException If the file cannot be read or it is not a trace.
+     * @since 2.4
+     */
+    public void open() throws IOException {
+        if (this.channel != null) {
+            return;
+        }
+        this.decoder = new TSimulationTraceDecoder(this.topology);
+        this.channel = FileChannel.open(this.traceFile.toPath(), StandardOpenOption.READ);
+        this.input = ByteBuffer.allocateDirect(INPUT_BUFFER_SIZE);
+        this.input.limit(ZERO);
+        this.endOfBlocks = false;
+        if ((!fill(TSimulationTraceFormat.FILE_HEADER_SIZE)) || (this.input.getInt() != TSimulationTraceFormat.MAGIC_NUMBER)) {
+            close();
+            throw badFormat();
+        }
+        int version = this.input.getInt();
+        if ((version < TSimulationTraceFormat.OLDEST_VERSION) || (version > TSimulationTraceFormat.VERSION)) {
+            close();
+            throw badFormat();
+        }
+    }
+
+    /**
+     * This method closes the trace file.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @throws IOException If the file cannot be closed.
+     * @since 2.4
+     */
+    public void close() throws IOException {
+        if (this.channel == null) {
+            return;
+        }
+        try {
+            this.channel.close();
+        } finally {
+            this.channel = null;
+            this.input = null;
+            this.decoder.end();
+            this.decoder = null;
+        }
+    }
+
+    /**
+     * This method reads the next event of the trace.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The next event of the trace or NULL if the end of the trace has
+     * been reached.
+     * @throws IOException If the trace cannot be read or it is not valid.
+     * @since 2.4
+     */
+    public TSimulationEvent readEvent() throws IOException {
+        if (this.channel == null) {
+            this.logger.error(this.translations.getString("notOpen"));
+            throw new IllegalStateException(this.translations.getString("notOpen"));
+        }
+        if ((!this.decoder.hasRemaining()) && (!readBlock())) {
+            return null;
+        }
+        return this.decoder.decode();
+    }
+
+    /**
+     * This method reads the next block of the trace and decompresses it.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return TRUE, if a new block has been read. FALSE, if the end of the
+     * trace has been reached.
+     * @throws IOException If the block cannot be read or it is not valid.
+     * @since 2.4
+     */
+    private boolean readBlock() throws IOException {
+        if (this.endOfBlocks) {
+            return false;
+        }
+        if (!fill(Integer.BYTES)) {
+            // Version 1 traces end after the last block, without any mark.
+            if (this.input.hasRemaining()) {
+                throw badFormat();
+            }
+            return false;
+        }
+        int compressedSize = this.input.getInt();
+        if (compressedSize == TSimulationTraceFormat.END_OF_BLOCKS) {
+            this.endOfBlocks = true;
+            return false;
+        }
+        if (!fill(TSimulationTraceFormat.BLOCK_HEADER_SIZE - Integer.BYTES)) {
+            throw badFormat();
+        }
+        int uncompressedSize = this.input.getInt();
+        // Number of events and instants of the block are not needed here.
+        this.input.position(this.input.position() + TSimulationTraceFormat.BLOCK_HEADER_SIZE - (Integer.BYTES * TWO));
+        if ((compressedSize < ZERO) || (!fill(compressedSize))) {
+            throw badFormat();
+        }
+        this.decoder.decompress(this.input, compressedSize, uncompressedSize);
+        return true;
+    }
+
+    /**
+     * This method makes sure that the input buffer contains, at least, the
+     * specified number of bytes, reading from the trace file if needed.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param numberOfBytes The number of bytes that are needed.
+     * @return TRUE, if the input buffer contains the specified number of
+     * bytes. FALSE, if the end of the trace file has been reached before.
+     * @throws IOException If the trace file cannot be read.
+     * @since 2.4
+     */
+    private boolean fill(int numberOfBytes) throws IOException {
+        if (this.input.remaining() >= numberOfBytes) {
+            return true;
+        }
+        if (this.input.capacity() < numberOfBytes) {
+            ByteBuffer largerInput = ByteBuffer.allocateDirect(numberOfBytes);
+            largerInput.put(this.input);
+            this.input = largerInput;
+        } else {
+            this.input.compact();
+        }
+        while (this.input.position() < numberOfBytes) {
+            if (this.channel.read(this.input) < ZERO) {
+                break;
+            }
+        }
+        this.input.flip();
+        return this.input.remaining() >= numberOfBytes;
+    }
+
+    /**
+     * This method creates the exception that is thrown when the trace file is
+     * not valid.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The exception to be thrown.
+     * @since 2.4
+     */
+    private IOException badFormat() {
+        this.logger.error(this.translations.getString("badFormat") + this.traceFile.getPath());
+        return new IOException(this.translations.getString("badFormat") + this.traceFile.getPath());
+    }
+
+    private static final int ZERO = 0;
+    private static final int TWO = 2;
+    private static final int INPUT_BUFFER_SIZE = 4 * 1024 * 1024;
+
+    private final File traceFile;
+    private final TTopology topology;
+    private FileChannel channel;
+    private ByteBuffer input;
+    private TSimulationTraceDecoder decoder;
+    private boolean endOfBlocks;
+    private final ResourceBundle translations;
+    private final Logger logger = LoggerFactory.getLogger(TSimulationTraceReader.class);
+}
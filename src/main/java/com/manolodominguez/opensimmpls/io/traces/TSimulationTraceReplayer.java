@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.traces;
+
+import com.manolodominguez.opensimmpls.gui.simulator.JSimulationPanel;
+import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import com.manolodominguez.opensimmpls.scenario.TTopology;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
+import java.io.File;
+import java.io.IOException;
+import java.util.ResourceBundle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements a replayer that reads a recorded simulation trace and
+ * feeds its events to a simulation panel, as if the simulation were running
+ * again. The panel paints them at its own pace, so the replay speed is set as
+ * usual, through the simulation speed and the fast forward of the panel.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public class TSimulationTraceReplayer implements Runnable {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TSimulationTraceReplayer.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param traceFile The file the trace will be read from.
+     * @param topology The topology of the scenario the trace was recorded
+     * from. It should be the one shown in the simulation panel.
+     * @param simulationPanel The simulation panel where the trace will be
+     * replayed.
+     * @since 2.4
+     */
+    public TSimulationTraceReplayer(File traceFile, TTopology topology, JSimulationPanel simulationPanel) {
+        this.translations = ResourceBundle.getBundle(AvailableBundles.T_SIMULATION_TRACE_REPLAYER.getPath());
+        if ((traceFile == null) || (topology == null) || (simulationPanel == null)) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        this.traceFile = traceFile;
+        this.topology = topology;
+        this.simulationPanel = simulationPanel;
+        this.replayThread = null;
+        this.running = false;
+        this.numberOfReplayedEvents = ZERO;
+    }
+
+    /**
+     * This method clears the simulation panel and starts replaying the trace
+     * from the beginning, in its own thread. If the trace is already being
+     * replayed, nothing is done.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public synchronized void start() {
+        if (this.replayThread == null) {
+            this.simulationPanel.reset();
+            this.numberOfReplayedEvents = ZERO;
+            this.running = true;
+            this.replayThread = new Thread(this, "Simulation trace replayer");
+            this.replayThread.setDaemon(true);
+            this.replayThread.start();
+        }
+    }
+
+    /**
+     * This method stops replaying the trace.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public synchronized void stop() {
+        this.running = false;
+        if (this.replayThread != null) {
+            this.replayThread.interrupt();
+            this.replayThread = null;
+        }
+    }
+
+    /**
+     * This method tells whether the trace is being replayed.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return TRUE, if the trace is being replayed. FALSE, if it has not been
+     * started, it has been stopped or it has been replayed completely.
+     * @since 2.4
+     */
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * This method gets the number of events that have been fed to the
+     * simulation panel since the replay was started.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The number of events replayed.
+     * @since 2.4
+     */
+    public long getNumberOfReplayedEvents() {
+        return this.numberOfReplayedEvents;
+    }
+
+    /**
+     * This method reads the trace and feeds its events to the simulation
+     * panel, one by one, until the end of the trace or until the replay is
+     * stopped.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    @Override
+    public void run() {
+        TSimulationTraceReader traceReader = new TSimulationTraceReader(this.traceFile, this.topology);
+        try {
+            traceReader.open();
+            TSimulationEvent simulationEvent = traceReader.readEvent();
+            while (this.running && (simulationEvent != null)) {
+                this.simulationPanel.addEvent(simulationEvent);
+                this.numberOfReplayedEvents++;
+                simulationEvent = traceReader.readEvent();
+            }
+        } catch (IOException e) {
+            this.logger.error(this.translations.getString("ioError"), e);
+        } finally {
+            try {
+                traceReader.close();
+            } catch (IOException e) {
+                this.logger.error(this.translations.getString("ioError"), e);
+            }
+            synchronized (this) {
+                if (this.replayThread == Thread.currentThread()) {
+                    this.replayThread = null;
+                    this.running = false;
+                }
+            }
+        }
+    }
+
+    private static final long ZERO = 0L;
+
+    private final File traceFile;
+    private final TTopology topology;
+    private final JSimulationPanel simulationPanel;
+    private Thread replayThread;
+    private volatile boolean running;
+    private volatile long numberOfReplayedEvents;
+    private final ResourceBundle translations;
+    private final Logger logger = LoggerFactory.getLogger(TSimulationTraceReplayer.class);
+}
@@ -0,0 +1,526 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.traces;
+
+import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.ISimulationEventListener;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventNodeCongested;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketDiscarded;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketGenerated;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketOnFly;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketReceived;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketRouted;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketSent;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketSwitched;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.zip.Deflater;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements a simulation event listener that writes every event
+ * it receives to a binary trace file, as defined in TSimulationTraceFormat.
+ * Events are encoded in memory until a block is full. Then the block is
+ * compressed and appended to a large direct buffer that is written to disk
+ * when it is full too. So, a trace of any length can be recorded using a
+ * constant amount of memory, except for the index: the instants of each block
+ * and the blocks where each topology element has events. The index is written
+ * at the end of the trace, when it is closed, so that TSimulationTraceIndex
+ * can query the trace without reading it completely. It is usually subscribed
+ * to the simulation event bus of a scenario.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public class TSimulationTraceWriter implements ISimulationEventListener {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TSimulationTraceWriter. Nothing is written until it is opened.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param traceFile The file where the trace will be written. If it
+     * exists, it is overwritten.
+     * @since 2.4
+     */
+    public TSimulationTraceWriter(File traceFile) {
+        this.translations = ResourceBundle.getBundle(AvailableBundles.T_SIMULATION_TRACE_WRITER.getPath());
+        if (traceFile == null) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        this.traceFile = traceFile;
+        this.channel = null;
+        this.output = null;
+        this.deflater = null;
+        this.uncompressedBlock = ByteBuffer.allocate(BLOCK_SIZE + TSimulationTraceFormat.MAX_EVENT_SIZE);
+        this.compressedBlock = new byte[BLOCK_SIZE];
+        this.numberOfEventsInBlock = ZERO;
+        this.numberOfEvents = ZERO;
+        this.previousInstant = ZERO;
+        this.firstInstant = ZERO;
+        this.lastInstant = ZERO;
+        this.elementsInBlock = new long[INITIAL_INDEX_CAPACITY];
+        this.writtenBytes = ZERO;
+        this.blockOffsets = new long[INITIAL_INDEX_CAPACITY];
+        this.blockFirstInstants = new long[INITIAL_INDEX_CAPACITY];
+        this.blockLastInstants = new long[INITIAL_INDEX_CAPACITY];
+        this.blockNumberOfEvents = new int[INITIAL_INDEX_CAPACITY];
+        this.numberOfBlocks = ZERO;
+        this.postings = new HashMap<>();
+        this.writeException = null;
+    }
+
+    /**
+     * This method creates the trace file and writes its header.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @throws IOException If the file cannot be created.
+     * @since 2.4
+     */
+    public synchronized void open() throws IOException {
+        if (this.channel != null) {
+            return;
+        }
+        this.channel = FileChannel.open(this.traceFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.output = ByteBuffer.allocateDirect(OUTPUT_BUFFER_SIZE);
+        this.output.putInt(TSimulationTraceFormat.MAGIC_NUMBER);
+        this.output.putInt(TSimulationTraceFormat.VERSION);
+        this.deflater = new Deflater(Deflater.BEST_SPEED);
+        this.uncompressedBlock.clear();
+        this.numberOfEventsInBlock = ZERO;
+        this.numberOfEvents = ZERO;
+        this.writtenBytes = ZERO;
+        this.numberOfBlocks = ZERO;
+        this.postings.clear();
+        this.writeException = null;
+    }
+
+    /**
+     * This method writes the events that are still in memory and the index of
+     * the trace, and closes the trace file.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @throws IOException If the trace cannot be written completely, either
+     * now or when a previous block was written.
+     * @since 2.4
+     */
+    public synchronized void close() throws IOException {
+        if (this.channel == null) {
+            return;
+        }
+        try {
+            if (this.writeException == null) {
+                writeBlock();
+                writeIndex();
+                writeOutput();
+            }
+        } finally {
+            this.postings.clear();
+            this.channel.close();
+            this.channel = null;
+            this.output = null;
+            this.deflater.end();
+            this.deflater = null;
+        }
+        if (this.writeException != null) {
+            IOException exception = this.writeException;
+            this.writeException = null;
+            throw exception;
+        }
+    }
+
+    /**
+     * This method encodes a simulation event and appends it to the trace. If
+     * the trace has not been opened, the event is ignored. If the trace
+     * cannot be written, the error is reported when the trace is closed.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param simulationEvent The simulation event to be written.
+     * @since 2.4
+     */
+    @Override
+    public synchronized void captureSimulationEvents(TSimulationEvent simulationEvent) {
+        if ((this.channel == null) || (this.writeException != null)) {
+            return;
+        }
+        encode(simulationEvent);
+        if (this.uncompressedBlock.position() >= BLOCK_SIZE) {
+            try {
+                writeBlock();
+            } catch (IOException e) {
+                this.logger.error(this.translations.getString("ioError") + this.traceFile.getPath(), e);
+                this.writeException = e;
+            }
+        }
+    }
+
+    /**
+     * This method tells whether simulation events of the specified subtype
+     * have to be delivered to this listener. Every subtype is written to the
+     * trace.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param subtype The subtype of the simulation event, as defined in
+     * TSimulationEvent.
+     * @return TRUE, always.
+     * @since 2.4
+     */
+    @Override
+    public boolean isInterestedIn(int subtype) {
+        return true;
+    }
+
+    /**
+     * This method gets the number of events written to the trace since it was
+     * opened.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The number of events written to the trace.
+     * @since 2.4
+     */
+    public synchronized long getNumberOfEvents() {
+        return this.numberOfEvents;
+    }
+
+    /**
+     * This method encodes a simulation event at the end of the current block.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param simulationEvent The simulation event to be encoded.
+     * @since 2.4
+     */
+    private void encode(TSimulationEvent simulationEvent) {
+        long instant = simulationEvent.getInstant();
+        if (this.numberOfEventsInBlock == ZERO) {
+            this.previousInstant = ZERO;
+            this.firstInstant = instant;
+            this.lastInstant = instant;
+        }
+        TSimulationTraceFormat.putVarLong(this.uncompressedBlock, simulationEvent.getSubtype());
+        long element = TSimulationTraceFormat.getElementKey(simulationEvent.getSource());
+        TSimulationTraceFormat.putVarLong(this.uncompressedBlock, element);
+        TSimulationTraceFormat.putVarLong(this.uncompressedBlock, simulationEvent.getEventID());
+        TSimulationTraceFormat.putSignedVarLong(this.uncompressedBlock, instant - this.previousInstant);
+        switch (simulationEvent.getSubtype()) {
+            case TSimulationEvent.PACKET_GENERATED: {
+                TSimulationEventPacketGenerated packetGenerated = (TSimulationEventPacketGenerated) simulationEvent;
+                TSimulationTraceFormat.putVarLong(this.uncompressedBlock, packetGenerated.getPacketType());
+                TSimulationTraceFormat.putVarLong(this.uncompressedBlock, packetGenerated.getPacketSize());
+                break;
+            }
+            case TSimulationEvent.PACKET_RECEIVED: {
+                TSimulationEventPacketReceived packetReceived = (TSimulationEventPacketReceived) simulationEvent;
+                TSimulationTraceFormat.putVarLong(this.uncompressedBlock, packetReceived.getPacketType());
+                TSimulationTraceFormat.putVarLong(this.uncompressedBlock, packetReceived.getPacketSize());
+                break;
+            }
+            case TSimulationEvent.PACKET_SENT: {
+                TSimulationTraceFormat.putVarLong(this.uncompressedBlock, ((TSimulationEventPacketSent) simulationEvent).getPacketType());
+                break;
+            }
+            case TSimulationEvent.PACKET_SWITCHED: {
+                TSimulationTraceFormat.putVarLong(this.uncompressedBlock, ((TSimulationEventPacketSwitched) simulationEvent).getPacketType());
+                break;
+            }
+            case TSimulationEvent.PACKET_DISCARDED: {
+                TSimulationTraceFormat.putVarLong(this.uncompressedBlock, ((TSimulationEventPacketDiscarded) simulationEvent).getPacketType());
+                break;
+            }
+            case TSimulationEvent.PACKET_ROUTED: {
+                TSimulationTraceFormat.putVarLong(this.uncompressedBlock, ((TSimulationEventPacketRouted) simulationEvent).getPacketType());
+                break;
+            }
+            case TSimulationEvent.PACKET_ON_FLY: {
+                TSimulationEventPacketOnFly packetOnFly = (TSimulationEventPacketOnFly) simulationEvent;
+                TSimulationTraceFormat.putVarLong(this.uncompressedBlock, packetOnFly.getPacketType());
+                TSimulationTraceFormat.putVarLong(this.uncompressedBlock, packetOnFly.getTransitPercentage());
+                break;
+            }
+            case TSimulationEvent.NODE_CONGESTED: {
+                TSimulationTraceFormat.putVarLong(this.uncompressedBlock, ((TSimulationEventNodeCongested) simulationEvent).getCongestionLevel());
+                break;
+            }
+            default: {
+                // LSP, label and link events have no more attributes.
+                break;
+            }
+        }
+        this.previousInstant = instant;
+        this.firstInstant = Math.min(this.firstInstant, instant);
+        this.lastInstant = Math.max(this.lastInstant, instant);
+        if (this.numberOfEventsInBlock == this.elementsInBlock.length) {
+            this.elementsInBlock = Arrays.copyOf(this.elementsInBlock, this.elementsInBlock.length * TWO);
+        }
+        this.elementsInBlock[this.numberOfEventsInBlock] = element;
+        this.numberOfEventsInBlock++;
+        this.numberOfEvents++;
+    }
+
+    /**
+     * This method compresses the current block and appends it to the output
+     * buffer, writing the output buffer to disk first if there is no room for
+     * the block.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @throws IOException If the output buffer cannot be written.
+     * @since 2.4
+     */
+    private void writeBlock() throws IOException {
+        if (this.numberOfEventsInBlock == ZERO) {
+            return;
+        }
+        int uncompressedSize = this.uncompressedBlock.position();
+        this.deflater.reset();
+        this.deflater.setInput(this.uncompressedBlock.array(), ZERO, uncompressedSize);
+        this.deflater.finish();
+        int compressedSize = ZERO;
+        while (!this.deflater.finished()) {
+            if (compressedSize == this.compressedBlock.length) {
+                this.compressedBlock = Arrays.copyOf(this.compressedBlock, this.compressedBlock.length * TWO);
+            }
+            compressedSize += this.deflater.deflate(this.compressedBlock, compressedSize, this.compressedBlock.length - compressedSize);
+        }
+        if (this.output.remaining() < (TSimulationTraceFormat.BLOCK_HEADER_SIZE + compressedSize)) {
+            writeOutput();
+        }
+        if (this.output.remaining() < (TSimulationTraceFormat.BLOCK_HEADER_SIZE + compressedSize)) {
+            this.output = ByteBuffer.allocateDirect(TSimulationTraceFormat.BLOCK_HEADER_SIZE + compressedSize);
+        }
+        addBlockToIndex(this.writtenBytes + this.output.position());
+        this.output.putInt(compressedSize);
+        this.output.putInt(uncompressedSize);
+        this.output.putInt(this.numberOfEventsInBlock);
+        this.output.putLong(this.firstInstant);
+        this.output.putLong(this.lastInstant);
+        this.output.put(this.compressedBlock, ZERO, compressedSize);
+        this.uncompressedBlock.clear();
+        this.numberOfEventsInBlock = ZERO;
+    }
+
+    /**
+     * This method adds the current block to the index: its offset, instants
+     * and number of events, and its number to the postings of every topology
+     * element that has events in it.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param offset The offset of the block in the trace file.
+     * @since 2.4
+     */
+    private void addBlockToIndex(long offset) {
+        if (this.numberOfBlocks == this.blockOffsets.length) {
+            int capacity = this.blockOffsets.length * TWO;
+            this.blockOffsets = Arrays.copyOf(this.blockOffsets, capacity);
+            this.blockFirstInstants = Arrays.copyOf(this.blockFirstInstants, capacity);
+            this.blockLastInstants = Arrays.copyOf(this.blockLastInstants, capacity);
+            this.blockNumberOfEvents = Arrays.copyOf(this.blockNumberOfEvents, capacity);
+        }
+        this.blockOffsets[this.numberOfBlocks] = offset;
+        this.blockFirstInstants[this.numberOfBlocks] = this.firstInstant;
+        this.blockLastInstants[this.numberOfBlocks] = this.lastInstant;
+        this.blockNumberOfEvents[this.numberOfBlocks] = this.numberOfEventsInBlock;
+        // Sorting the elements of the block is cheaper than looking each
+        // event up in the postings.
+        Arrays.sort(this.elementsInBlock, ZERO, this.numberOfEventsInBlock);
+        for (int i = ZERO; i < this.numberOfEventsInBlock; i++) {
+            if ((i == ZERO) || (this.elementsInBlock[i] != this.elementsInBlock[i - ONE])) {
+                TPostings elementPostings = this.postings.get(this.elementsInBlock[i]);
+                if (elementPostings == null) {
+                    elementPostings = new TPostings();
+                    this.postings.put(this.elementsInBlock[i], elementPostings);
+                }
+                elementPostings.add(this.numberOfBlocks);
+            }
+        }
+        this.numberOfBlocks++;
+    }
+
+    /**
+     * This method writes the end of blocks mark, the index and the footer of
+     * the trace, as defined in TSimulationTraceFormat.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @throws IOException If the output buffer cannot be written.
+     * @since 2.4
+     */
+    private void writeIndex() throws IOException {
+        makeRoom(Integer.BYTES);
+        this.output.putInt(TSimulationTraceFormat.END_OF_BLOCKS);
+        long indexOffset = this.writtenBytes + this.output.position();
+        // The running maximum and minimum of the instants allow finding by
+        // binary search the blocks that overlap a time range, even if events
+        // are not written in strict chronological order.
+        long[] suffixMinInstants = new long[this.numberOfBlocks];
+        for (int i = this.numberOfBlocks - ONE; i >= ZERO; i--) {
+            suffixMinInstants[i] = this.blockFirstInstants[i];
+            if (i < this.numberOfBlocks - ONE) {
+                suffixMinInstants[i] = Math.min(suffixMinInstants[i], suffixMinInstants[i + ONE]);
+            }
+        }
+        long prefixMaxInstant = Long.MIN_VALUE;
+        for (int i = ZERO; i < this.numberOfBlocks; i++) {
+            prefixMaxInstant = Math.max(prefixMaxInstant, this.blockLastInstants[i]);
+            makeRoom(TSimulationTraceFormat.BLOCK_ENTRY_SIZE);
+            this.output.putLong(this.blockOffsets[i]);
+            this.output.putLong(this.blockFirstInstants[i]);
+            this.output.putLong(this.blockLastInstants[i]);
+            this.output.putLong(prefixMaxInstant);
+            this.output.putLong(suffixMinInstants[i]);
+            this.output.putInt(this.blockNumberOfEvents[i]);
+            this.output.putInt(ZERO);
+        }
+        long[] elements = new long[this.postings.size()];
+        int numberOfElements = ZERO;
+        for (long element : this.postings.keySet()) {
+            elements[numberOfElements] = element;
+            numberOfElements++;
+        }
+        Arrays.sort(elements);
+        int firstPosting = ZERO;
+        for (long element : elements) {
+            TPostings elementPostings = this.postings.get(element);
+            makeRoom(TSimulationTraceFormat.ELEMENT_ENTRY_SIZE);
+            this.output.putLong(element);
+            this.output.putInt(firstPosting);
+            this.output.putInt(elementPostings.numberOfBlocks);
+            firstPosting += elementPostings.numberOfBlocks;
+        }
+        for (long element : elements) {
+            TPostings elementPostings = this.postings.get(element);
+            for (int i = ZERO; i < elementPostings.numberOfBlocks; i++) {
+                makeRoom(Integer.BYTES);
+                this.output.putInt(elementPostings.blocks[i]);
+            }
+        }
+        makeRoom(TSimulationTraceFormat.FOOTER_SIZE);
+        this.output.putLong(indexOffset);
+        this.output.putInt(this.numberOfBlocks);
+        this.output.putInt(numberOfElements);
+        this.output.putInt(TSimulationTraceFormat.INDEX_MAGIC_NUMBER);
+    }
+
+    /**
+     * This method makes sure that the output buffer has room for the
+     * specified number of bytes, writing it to disk if needed.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param numberOfBytes The number of bytes that are going to be put.
+     * @throws IOException If the output buffer cannot be written.
+     * @since 2.4
+     */
+    private void makeRoom(int numberOfBytes) throws IOException {
+        if (this.output.remaining() < numberOfBytes) {
+            writeOutput();
+        }
+    }
+
+    /**
+     * This method writes the content of the output buffer to disk.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @throws IOException If the output buffer cannot be written.
+     * @since 2.4
+     */
+    private void writeOutput() throws IOException {
+        this.output.flip();
+        while (this.output.hasRemaining()) {
+            this.writtenBytes += this.channel.write(this.output);
+        }
+        this.output.clear();
+    }
+
+    /**
+     * This class implements the postings of a topology element: the sorted
+     * numbers of the blocks where it has events.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @version 2.0
+     */
+    private static final class TPostings {
+
+        /**
+         * This is the constructor of the class. It creates a new instance of
+         * TPostings without blocks.
+         *
+         * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+         * @since 2.4
+         */
+        TPostings() {
+            this.blocks = new int[INITIAL_CAPACITY];
+            this.numberOfBlocks = ZERO;
+        }
+
+        /**
+         * This method appends a block number to the postings.
+         *
+         * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+         * @param block The number of the block. It is greater than any block
+         * number already in the postings.
+         * @since 2.4
+         */
+        void add(int block) {
+            if (this.numberOfBlocks == this.blocks.length) {
+                this.blocks = Arrays.copyOf(this.blocks, this.blocks.length * TWO);
+            }
+            this.blocks[this.numberOfBlocks] = block;
+            this.numberOfBlocks++;
+        }
+
+        private static final int INITIAL_CAPACITY = 8;
+
+        private int[] blocks;
+        private int numberOfBlocks;
+    }
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final int TWO = 2;
+    private static final int BLOCK_SIZE = 256 * 1024;
+    private static final int OUTPUT_BUFFER_SIZE = 4 * 1024 * 1024;
+    private static final int INITIAL_INDEX_CAPACITY = 1024;
+
+    private final File traceFile;
+    private FileChannel channel;
+    private ByteBuffer output;
+    private Deflater deflater;
+    private final ByteBuffer uncompressedBlock;
+    private byte[] compressedBlock;
+    private int numberOfEventsInBlock;
+    private long numberOfEvents;
+    private long previousInstant;
+    private long firstInstant;
+    private long lastInstant;
+    private long[] elementsInBlock;
+    private long writtenBytes;
+    private long[] blockOffsets;
+    private long[] blockFirstInstants;
+    private long[] blockLastInstants;
+    private int[] blockNumberOfEvents;
+    private int numberOfBlocks;
+    private final Map<Long, TPostings> postings;
+    private IOException writeException;
+    private final ResourceBundle translations;
+    private final Logger logger = LoggerFactory.getLogger(TSimulationTraceWriter.class);
+}
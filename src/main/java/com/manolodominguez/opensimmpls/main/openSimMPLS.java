@@ -15,6 +15,7 @@
  */
 package com.manolodominguez.opensimmpls.main;
 
+import com.manolodominguez.opensimmpls.batch.TBatchCommandLine;
 import com.manolodominguez.opensimmpls.commons.TIPv4AddressGenerator;
 import com.manolodominguez.opensimmpls.gui.utils.TImageBroker;
 import javax.swing.UIManager;
@@ -40,7 +41,9 @@ import org.slf4j.LoggerFactory;
 public class openSimMPLS {
 
     /**
-     * This method start OpenSimMPLS.
+     * This method start OpenSimMPLS. If any argument is specified at command
+     * line, the scenarios are simulated in batch mode, without GUI, and the
+     * process exits with the corresponding exit code.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @param args Arguments specified at command line.
@@ -50,6 +53,10 @@ public class openSimMPLS {
         if (args.length > 0) {
             final Logger logger = LoggerFactory.getLogger(openSimMPLS.class);
             logger.info("OpenSimMPLS GoS/MPLS Network Simulator. Visit https://opensimmpls.manolodominguez.com for additional info.");
+            // Arguments at command line means a batch simulation without GUI.
+            System.setProperty("java.awt.headless", "true");
+            TBatchCommandLine batchCommandLine = new TBatchCommandLine();
+            System.exit(batchCommandLine.run(args));
         } else {
             // Enable text antialiasing
             System.setProperty("awt.useSystemAAFontSettings", "on");
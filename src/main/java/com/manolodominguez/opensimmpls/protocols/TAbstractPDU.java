@@ -34,7 +34,7 @@ public abstract class TAbstractPDU implements Comparable {
      * @param targetIPv4 IP addres of this packet's receiver.
      * @since 2.0
      */
-    public TAbstractPDU(long id, String originIPv4, String targetIPv4) {
+    public TAbstractPDU(long id, int originIPv4, int targetIPv4) {
         this.id = id;
         this.IPv4Header = new TIPv4Header(originIPv4, targetIPv4);
     }
@@ -99,7 +99,7 @@ public abstract class TAbstractPDU implements Comparable {
         if (this.getID() > pdu.getID()) {
             return 1;
         } else if (this.getID() == pdu.getID()) {
-            return (this.getIPv4Header().getOriginIPv4Address().compareTo(pdu.getIPv4Header().getOriginIPv4Address()));
+            return Integer.compare(this.getIPv4Header().getOriginIPv4Address(), pdu.getIPv4Header().getOriginIPv4Address());
         } else {
             return -1;
         }
@@ -35,7 +35,7 @@ public class TGPSRPPDU extends TAbstractPDU {
      * @param targetIP IP addres of this packet's receiver.
      * @since 2.0
      */
-    public TGPSRPPDU(long id, String originIP, String targetIP) {
+    public TGPSRPPDU(long id, int originIP, int targetIP) {
         super(id, originIP, targetIP);
         this.TCPPayload = new TTCPPayload(0);
         this.GPSRPPayload = new TGPSRPPayload();
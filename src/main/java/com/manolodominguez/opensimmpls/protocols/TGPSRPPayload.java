@@ -74,7 +74,7 @@ public class TGPSRPPayload {
      * requested.
      * @since 2.0
      */
-    public void setPacketGoSGlobalUniqueID(int packetGoSGlobalUniqueID) {
+    public void setPacketGoSGlobalUniqueID(long packetGoSGlobalUniqueID) {
         this.packetGoSGlobalUniqueID = packetGoSGlobalUniqueID;
     }
 
@@ -86,7 +86,7 @@ public class TGPSRPPayload {
      * @return Packet ID of the packet whose retransmission is being requested.
      * @since 2.0
      */
-    public int getPacketGoSGlobalUniqueID() {
+    public long getPacketGoSGlobalUniqueID() {
         return this.packetGoSGlobalUniqueID;
     }
 
@@ -139,5 +139,5 @@ public class TGPSRPPayload {
 
     private int GPSRPMessageType;
     private int globalFlowID;
-    private int packetGoSGlobalUniqueID;
+    private long packetGoSGlobalUniqueID;
 }
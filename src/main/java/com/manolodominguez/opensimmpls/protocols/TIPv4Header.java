@@ -28,14 +28,17 @@ public class TIPv4Header {
      * of TIPv4Header.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
-     * @param originIP IP addres of this packet's sender.
-     * @param targetIP IP addres of this packet's receiver.
+     * @param originIP IP addres of this packet's sender, as a 32 bits integer
+     * (see TIPv4Address).
+     * @param targetIP IP addres of this packet's receiver, as a 32 bits
+     * integer (see TIPv4Address).
      * @since 2.0
      */
-    public TIPv4Header(String originIP, String targetIP) {
+    public TIPv4Header(int originIP, int targetIP) {
         this.originIP = originIP;
         this.targetIP = targetIP;
         this.IPv4OptionsField = new TIPv4OptionsField();
+        this.gosGlobalUniqueIdentifier = NO_GOS_GLOBAL_UNIQUE_IDENTIFIER;
         // FIX: create and use a constant instead of this harcoded value.
         this.TTL = 255;
     }
@@ -46,20 +49,54 @@ public class TIPv4Header {
      * proposal "Guarantee of Servico (GoS) Support over MPLS using Active
      * Techniques".
      *
+     * The identifier is the origin IPv4 address in the upper 32 bits and the
+     * packet local unique identifier in the lower 32 bits. It is computed only
+     * once, when the local unique identifier is set, so it can be read as
+     * many times as needed without any cost and it never collides for two
+     * different packets.
+     *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @return A global unique identifier of this packet within the MPLS domain.
+     * NO_GOS_GLOBAL_UNIQUE_IDENTIFIER if the packet is not a GoS packet.
      * @since 2.0
      */
-    public int getGoSGlobalUniqueIdentifier() {
-        String RawGoSGlobalUniqueIdentifier = "";
+    public long getGoSGlobalUniqueIdentifier() {
         if (this.IPv4OptionsField.isUsed()) {
-            // this.targetIP should be included in included 
-            // RawGoSGlobalUniqueIdentifier computation.
-            RawGoSGlobalUniqueIdentifier = this.originIP + this.IPv4OptionsField.getPacketLocalUniqueIdentifier();
-            return RawGoSGlobalUniqueIdentifier.hashCode();
+            return this.gosGlobalUniqueIdentifier;
         }
-        // FIX: Create and use a constant instead of this harcoded value
-        return -1;
+        return NO_GOS_GLOBAL_UNIQUE_IDENTIFIER;
+    }
+
+    /**
+     * This method sets the local unique identifier of this packet in the
+     * options field and computes the GoS global unique identifier from it and
+     * the origin IPv4 address. It should be used instead of setting the local
+     * unique identifier directly in the options field.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packetLocalUniqueIdentifier The local unique identifier for this
+     * packet, unique for all packets generated by the origin node.
+     * @since 2.4
+     */
+    public void setPacketLocalUniqueIdentifier(int packetLocalUniqueIdentifier) {
+        this.IPv4OptionsField.setPacketLocalUniqueIdentifier(packetLocalUniqueIdentifier);
+        this.gosGlobalUniqueIdentifier = composeGoSGlobalUniqueIdentifier(this.originIP, packetLocalUniqueIdentifier);
+    }
+
+    /**
+     * This method computes the GoS global unique identifier of a packet from
+     * its origin IPv4 address and its local unique identifier.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param originIPv4Address IPv4 address of the node that generated the
+     * packet, as a 32 bits integer.
+     * @param packetLocalUniqueIdentifier The local unique identifier of the
+     * packet.
+     * @return the GoS global unique identifier of the packet.
+     * @since 2.4
+     */
+    public static long composeGoSGlobalUniqueIdentifier(int originIPv4Address, int packetLocalUniqueIdentifier) {
+        return (((long) originIPv4Address) << BITS_PER_INT) | (packetLocalUniqueIdentifier & LOWER_INT_MASK);
     }
 
     /**
@@ -86,7 +123,7 @@ public class TIPv4Header {
      * @return the IP address of the sender of this packet.
      * @since 2.0
      */
-    public String getOriginIPv4Address() {
+    public int getOriginIPv4Address() {
         return this.originIP;
     }
 
@@ -97,8 +134,11 @@ public class TIPv4Header {
      * @param originIP The IP address of the sender of this packet.
      * @since 2.0
      */
-    public void setOriginIP(String originIP) {
+    public void setOriginIP(int originIP) {
         this.originIP = originIP;
+        if (this.gosGlobalUniqueIdentifier != NO_GOS_GLOBAL_UNIQUE_IDENTIFIER) {
+            this.gosGlobalUniqueIdentifier = composeGoSGlobalUniqueIdentifier(originIP, this.IPv4OptionsField.getPacketLocalUniqueIdentifier());
+        }
     }
 
     /**
@@ -108,7 +148,7 @@ public class TIPv4Header {
      * @return the IP address of the receiver of this packet.
      * @since 2.0
      */
-    public String getTailEndIPAddress() {
+    public int getTailEndIPAddress() {
         return this.targetIP;
     }
 
@@ -119,7 +159,7 @@ public class TIPv4Header {
      * @param targetIP The IP address of the receiver of this packet.
      * @since 2.0
      */
-    public void setTargetIP(String targetIP) {
+    public void setTargetIP(int targetIP) {
         this.targetIP = targetIP;
     }
 
@@ -145,6 +185,20 @@ public class TIPv4Header {
         return this.TTL;
     }
 
+    /**
+     * This method copies into this header the options field of another one,
+     * and the GoS global unique identifier derived from it.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param anotherIPv4Header the IPv4 header whose options field is going to
+     * be copied.
+     * @since 2.4
+     */
+    void copyOptionsFieldFrom(TIPv4Header anotherIPv4Header) {
+        this.IPv4OptionsField.copyFrom(anotherIPv4Header.IPv4OptionsField);
+        this.gosGlobalUniqueIdentifier = anotherIPv4Header.gosGlobalUniqueIdentifier;
+    }
+
     /**
      * This method gets the options field of this IPv4 header.
      *
@@ -156,8 +210,14 @@ public class TIPv4Header {
         return this.IPv4OptionsField;
     }
 
-    private String originIP;
-    private String targetIP;
+    public static final long NO_GOS_GLOBAL_UNIQUE_IDENTIFIER = -1L;
+
+    private static final int BITS_PER_INT = 32;
+    private static final long LOWER_INT_MASK = 0xFFFFFFFFL;
+
+    private int originIP;
+    private int targetIP;
     private int TTL;
+    private long gosGlobalUniqueIdentifier;
     private TIPv4OptionsField IPv4OptionsField;
 }
@@ -15,6 +15,8 @@
  */
 package com.manolodominguez.opensimmpls.protocols;
 
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
+
 /**
  * This class implements a specifica format of the options field of the IPv4
  * header that is needed to implement the "Guarantee of Service (GoS) support
@@ -35,9 +37,9 @@ public class TIPv4OptionsField {
     public TIPv4OptionsField() {
         // FIX: create and use class constants instead of harcoded values.
         this.requestedGoSLevel = 0;
-        this.registerOfActiveNodesCrossed = new String[TIPv4OptionsField.MAX_REGISTERED_ACTIVE_NODE_IP_ADDRESSES];
+        this.registerOfActiveNodesCrossed = new int[TIPv4OptionsField.MAX_REGISTERED_ACTIVE_NODE_IP_ADDRESSES];
         for (int i = 0; i < TIPv4OptionsField.MAX_REGISTERED_ACTIVE_NODE_IP_ADDRESSES; i++) {
-            this.registerOfActiveNodesCrossed[i] = null;
+            this.registerOfActiveNodesCrossed[i] = TIPv4Address.UNSPECIFIED;
         }
         this.optionFieldIsUsed = false;
         this.numberOfActiveNodesRegistered = 0;
@@ -122,14 +124,16 @@ public class TIPv4OptionsField {
      * This method set a unique packet identifier to this packet. This is part
      * of the "Guarantee of Service (GoS) support over MPLS using active
      * techniques" proposal. It is used to identify a given packet in the whole
-     * MPLS domain.
+     * MPLS domain. It is package-private because it has to be set through
+     * TIPv4Header.setPacketLocalUniqueIdentifier(), that also computes the GoS
+     * global unique identifier of the packet.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @param packetLocalUniqueIdentifier The local unique identifier for this
      * packet.
      * @since 2.0
      */
-    public void setPacketLocalUniqueIdentifier(int packetLocalUniqueIdentifier) {
+    void setPacketLocalUniqueIdentifier(int packetLocalUniqueIdentifier) {
         this.packetLocalUniqueIdentifier = packetLocalUniqueIdentifier;
         this.optionFieldIsUsed = true;
     }
@@ -157,7 +161,7 @@ public class TIPv4OptionsField {
      * @param crossedActiveNodeIP The IP address of a new crossed active node.
      * @since 2.0
      */
-    public void setCrossedActiveNode(String crossedActiveNodeIP) {
+    public void setCrossedActiveNode(int crossedActiveNodeIP) {
         this.hasCrossedActiveNodesIPs = true;
         this.optionFieldIsUsed = true;
         if (this.numberOfActiveNodesRegistered < MAX_REGISTERED_ACTIVE_NODE_IP_ADDRESSES) {
@@ -206,20 +210,37 @@ public class TIPv4OptionsField {
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @param registeredActiveNodeIndex Number of active nodes that this packet
      * crossed before the one whose IP address is wanted.
-     * @return IP of the desired active node.
+     * @return IP of the desired active node. TIPv4Address.UNSPECIFIED, if
+     * there is not such a node.
      * @since 2.0
      */
-    public String getCrossedActiveNode(int registeredActiveNodeIndex) {
+    public int getCrossedActiveNode(int registeredActiveNodeIndex) {
         if (registeredActiveNodeIndex < TIPv4OptionsField.MAX_REGISTERED_ACTIVE_NODE_IP_ADDRESSES) {
             return this.registerOfActiveNodesCrossed[registeredActiveNodeIndex];
         }
-        return null;
+        return TIPv4Address.UNSPECIFIED;
+    }
+
+    /**
+     * This method copies into this options field the content of another one.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param anotherOptionsField the options field to be copied.
+     * @since 2.4
+     */
+    void copyFrom(TIPv4OptionsField anotherOptionsField) {
+        this.requestedGoSLevel = anotherOptionsField.requestedGoSLevel;
+        System.arraycopy(anotherOptionsField.registerOfActiveNodesCrossed, 0, this.registerOfActiveNodesCrossed, 0, MAX_REGISTERED_ACTIVE_NODE_IP_ADDRESSES);
+        this.optionFieldIsUsed = anotherOptionsField.optionFieldIsUsed;
+        this.numberOfActiveNodesRegistered = anotherOptionsField.numberOfActiveNodesRegistered;
+        this.packetLocalUniqueIdentifier = anotherOptionsField.packetLocalUniqueIdentifier;
+        this.hasCrossedActiveNodesIPs = anotherOptionsField.hasCrossedActiveNodesIPs;
     }
 
     private static final int MAX_REGISTERED_ACTIVE_NODE_IP_ADDRESSES = 8;
 
     private int requestedGoSLevel;
-    private String[] registerOfActiveNodesCrossed;
+    private int[] registerOfActiveNodesCrossed;
     private boolean optionFieldIsUsed;
     private int numberOfActiveNodesRegistered;
     private int packetLocalUniqueIdentifier;
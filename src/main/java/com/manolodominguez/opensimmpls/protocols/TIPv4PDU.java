@@ -35,7 +35,7 @@ public class TIPv4PDU extends TAbstractPDU {
      * in bytes (octects).
      * @since 2.0
      */
-    public TIPv4PDU(long id, String originIP, String targetIP, int payloadSize) {
+    public TIPv4PDU(long id, int originIP, int targetIP, int payloadSize) {
         super(id, originIP, targetIP);
         this.TCPPayload = new TTCPPayload(payloadSize);
         this.subType = TAbstractPDU.IPV4;
@@ -38,6 +38,38 @@ public class TMPLSLabelStack {
     public TMPLSLabelStack() {
         this.stack = new LinkedList<>();
         this.idGenerator = new TIDGenerator();
+        this.sharedWithOtherStacks = false;
+    }
+
+    /**
+     * This method is a constructor of the class. It creates a new MPLS label
+     * stack that shares the labels of another one until one of them is
+     * modified.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param sharedStack the labels of the MPLS label stack being copied.
+     * @since 2.4
+     */
+    private TMPLSLabelStack(LinkedList<TMPLSLabel> sharedStack) {
+        this.stack = sharedStack;
+        this.idGenerator = new TIDGenerator();
+        this.sharedWithOtherStacks = true;
+    }
+
+    /**
+     * This method creates a copy of this MPLS label stack. Labels are not
+     * copied at this moment but shared by both stacks; each stack copies them
+     * before being modified for the first time (copy-on-write). So, copying a
+     * label stack that is not going to be modified, as those of packets stored
+     * in DMGP, does not allocate new labels.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return A copy of this MPLS label stack.
+     * @since 2.4
+     */
+    TMPLSLabelStack getACopy() {
+        this.sharedWithOtherStacks = true;
+        return new TMPLSLabelStack(this.stack);
     }
 
     /**
@@ -60,6 +92,7 @@ public class TMPLSLabelStack {
      * @since 2.0
      */
     public void pushTop(TMPLSLabel mplsLabel) {
+        copySharedLabels();
         try {
             mplsLabel.setID(this.idGenerator.getNextIdentifier());
         } catch (EIDGeneratorOverflow e) {
@@ -78,9 +111,26 @@ public class TMPLSLabelStack {
      * @since 2.0
      */
     public TMPLSLabel getTop() {
+        // The returned label can be modified by the caller.
+        copySharedLabels();
         return (TMPLSLabel) this.stack.getLast();
     }
 
+    /**
+     * This method gets a MPLS label of the MPLS label stack without removing
+     * it. Labels shared with other stacks are not copied, so the returned
+     * label must not be modified.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param position position of the MPLS label, starting from 0 at the
+     * bottom of the MPLS label stack.
+     * @return MPLS label at the specified position.
+     * @since 2.4
+     */
+    TMPLSLabel getLabel(int position) {
+        return this.stack.get(position);
+    }
+
     /**
      * This method removes the MPLS label from the top of the MPLS label stack.
      *
@@ -88,6 +138,7 @@ public class TMPLSLabelStack {
      * @since 2.0
      */
     public void popTop() {
+        copySharedLabels();
         this.stack.removeLast();
     }
 
@@ -118,6 +169,11 @@ public class TMPLSLabelStack {
      * @since 2.0
      */
     public void clear() {
+        if (this.sharedWithOtherStacks) {
+            this.stack = new LinkedList<>();
+            this.sharedWithOtherStacks = false;
+            return;
+        }
         Iterator iterator = this.stack.iterator();
         while (iterator.hasNext()) {
             iterator.next();
@@ -125,6 +181,33 @@ public class TMPLSLabelStack {
         }
     }
 
+    /**
+     * This method replaces the labels shared with other MPLS label stacks by
+     * copies owned only by this stack, if needed. Copies are pushed from the
+     * bottom to the top, so they get their identifiers in the same way they
+     * would get them if pushed one by one.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    private void copySharedLabels() {
+        if (this.sharedWithOtherStacks) {
+            LinkedList<TMPLSLabel> sharedStack = this.stack;
+            this.stack = new LinkedList<>();
+            this.sharedWithOtherStacks = false;
+            TMPLSLabel labelCopy;
+            for (TMPLSLabel sharedLabel : sharedStack) {
+                labelCopy = new TMPLSLabel();
+                labelCopy.setBoS(sharedLabel.getBoS());
+                labelCopy.setEXP(sharedLabel.getEXP());
+                labelCopy.setLabel(sharedLabel.getLabel());
+                labelCopy.setTTL(sharedLabel.getTTL());
+                this.pushTop(labelCopy);
+            }
+        }
+    }
+
     private LinkedList<TMPLSLabel> stack;
     private TIDGenerator idGenerator;
+    private boolean sharedWithOtherStacks;
 }
@@ -15,7 +15,7 @@
  */
 package com.manolodominguez.opensimmpls.protocols;
 
-import java.util.LinkedList;
+import java.nio.ByteBuffer;
 
 /**
  * This class implements a MPLS packet.
@@ -37,13 +37,35 @@ public class TMPLSPDU extends TAbstractPDU {
      * in bytes (octects).
      * @since 2.0
      */
-    public TMPLSPDU(long id, String originIP, String targetIP, int payloadSizeInOctets) {
+    public TMPLSPDU(long id, int originIP, int targetIP, int payloadSizeInOctets) {
         super(id, originIP, targetIP);
         this.tcpPayload = new TTCPPayload(payloadSizeInOctets);
         this.mplsLabelStack = new TMPLSLabelStack();
         this.subType = TAbstractPDU.MPLS;
     }
 
+    /**
+     * This method is a constructor of the class. It creates a new instance of
+     * TMPLSPDU that is a clone of the specified one. The TCP payload, that is
+     * not modified once the packet has been generated, is shared by both
+     * packets and the MPLS label stack is copied on write. So, cloning a
+     * packet only allocates a new IPv4 header.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param mplsPDU the MPLS packet to be cloned.
+     * @since 2.4
+     */
+    private TMPLSPDU(TMPLSPDU mplsPDU) {
+        super(mplsPDU.getID(), mplsPDU.getIPv4Header().getOriginIPv4Address(), mplsPDU.getIPv4Header().getTailEndIPAddress());
+        this.tcpPayload = mplsPDU.tcpPayload;
+        this.mplsLabelStack = mplsPDU.mplsLabelStack.getACopy();
+        this.subType = TAbstractPDU.MPLS;
+        // "Guarentee of Service Support over MPLS using Active Techniques" 
+        // proposal redefines the IPv4 Options field to track crossed active 
+        // nodes. Therefore it has to be cloned.
+        this.getIPv4Header().copyOptionsFieldFrom(mplsPDU.getIPv4Header());
+    }
+
     /**
      * This method creates a clone of this MPLS packet.
      *
@@ -51,70 +73,146 @@ public class TMPLSPDU extends TAbstractPDU {
      * @return An exact copy of this MPLS packet.
      */
     public TMPLSPDU getAClon() {
-        long auxID = this.getID();
-        String auxOriginIP = this.getIPv4Header().getOriginIPv4Address();
-        String auxTargetIP = this.getIPv4Header().getTailEndIPAddress();
-        // FIX: Define a class constant instead of using this harcoded value
-        int auxTCPPayloadSize = this.tcpPayload.getSize() - 20;
-        TMPLSPDU clonedMPLSPDU = new TMPLSPDU(auxID, auxOriginIP, auxTargetIP, auxTCPPayloadSize);
-        // "Guarentee of Service Support over MPLS using Active Techniques" 
-        // proposal redefines the IPv4 Options field to track crossed active 
-        // nodes. Therefore we inspect if this field is being use this way and 
-        // clone it if necessary.
-        if (this.getIPv4Header().getOptionsField().isUsed()) {
-            int auxGoSLevel = this.getIPv4Header().getOptionsField().getRequestedGoSLevel();
-            clonedMPLSPDU.getIPv4Header().getOptionsField().setRequestedGoSLevel(auxGoSLevel);
-            int auxGoSID = this.getIPv4Header().getOptionsField().getPacketLocalUniqueIdentifier();
-            clonedMPLSPDU.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(auxGoSID);
-            if (this.getIPv4Header().getOptionsField().hasCrossedActiveNodes()) {
-                int auxNumberOfCrossedActiveNodes = this.getIPv4Header().getOptionsField().getNumberOfCrossedActiveNodes();
-                int i = 0;
-                String auxCurrentCrossedActiveNodeTag = null;
-                for (i = 0; i < auxNumberOfCrossedActiveNodes; i++) {
-                    auxCurrentCrossedActiveNodeTag = this.getIPv4Header().getOptionsField().getCrossedActiveNode(i);
-                    if (auxCurrentCrossedActiveNodeTag != null) {
-                        clonedMPLSPDU.getIPv4Header().getOptionsField().setCrossedActiveNode(auxCurrentCrossedActiveNodeTag);
-                    }
-                }
-            }
+        return new TMPLSPDU(this);
+    }
+
+    /**
+     * This method returns the number of octets needed to store this MPLS
+     * packet by means of writeTo(). It is much lower than the size of the
+     * packet, because the TCP payload is not stored, only its size.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return Number of octets needed to store this packet.
+     * @since 2.4
+     */
+    public int getSerializedSize() {
+        int serializedSize = SERIALIZED_FIXED_PART_SIZE;
+        TIPv4OptionsField optionsField = this.getIPv4Header().getOptionsField();
+        if (optionsField.isUsed()) {
+            serializedSize += SERIALIZED_OPTIONS_FIELD_SIZE;
+            serializedSize += (Integer.BYTES * optionsField.getNumberOfCrossedActiveNodes());
         }
-        TMPLSLabel currentLabel = null;
-        TMPLSLabel newLocalLabel = null;
-        TMPLSLabel newLabelForClonedPDU = null;
-        LinkedList<TMPLSLabel> localLabelStack = new LinkedList<>();
-        LinkedList<TMPLSLabel> labelStackForClonedPDU = new LinkedList<>();
-        while (this.getLabelStack().getSize() > 0) {
-            currentLabel = this.getLabelStack().getTop();
-            this.getLabelStack().popTop();
-            int auxLabelID = currentLabel.getID();
-            newLocalLabel = new TMPLSLabel(auxLabelID);
-            newLocalLabel.setBoS(currentLabel.getBoS());
-            newLocalLabel.setEXP(currentLabel.getEXP());
-            newLocalLabel.setLabel(currentLabel.getLabel());
-            newLocalLabel.setTTL(currentLabel.getTTL());
-            newLabelForClonedPDU = new TMPLSLabel(auxLabelID);
-            newLabelForClonedPDU.setBoS(currentLabel.getBoS());
-            newLabelForClonedPDU.setEXP(currentLabel.getEXP());
-            newLabelForClonedPDU.setLabel(currentLabel.getLabel());
-            newLabelForClonedPDU.setTTL(currentLabel.getTTL());
-            if (localLabelStack.isEmpty()) {
-                localLabelStack.add(newLocalLabel);
-            } else {
-                localLabelStack.addFirst(newLocalLabel);
-            }
-            if (labelStackForClonedPDU.isEmpty()) {
-                labelStackForClonedPDU.add(newLabelForClonedPDU);
-            } else {
-                labelStackForClonedPDU.addFirst(newLabelForClonedPDU);
+        serializedSize += (SERIALIZED_LABEL_SIZE * this.mplsLabelStack.getSize());
+        return serializedSize;
+    }
+
+    /**
+     * This method stores this MPLS packet in a buffer, starting at the
+     * specified position. It uses absolute operations, so neither the
+     * position nor the limit of the buffer are modified and several threads
+     * can write on different regions of the same buffer. The stored packet can
+     * be rebuilt by means of readFrom().
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param buffer the buffer where the packet is going to be stored. It must
+     * have, at least, getSerializedSize() octets from the specified position.
+     * @param position the position of the buffer where the packet is going to
+     * be stored.
+     * @since 2.4
+     */
+    public void writeTo(ByteBuffer buffer, int position) {
+        int index = position;
+        buffer.putLong(index, this.getID());
+        index += Long.BYTES;
+        buffer.putInt(index, this.getIPv4Header().getOriginIPv4Address());
+        index += Integer.BYTES;
+        buffer.putInt(index, this.getIPv4Header().getTailEndIPAddress());
+        index += Integer.BYTES;
+        buffer.putInt(index, this.tcpPayload.getSize());
+        index += Integer.BYTES;
+        TIPv4OptionsField optionsField = this.getIPv4Header().getOptionsField();
+        int numberOfCrossedActiveNodes = ZERO;
+        byte flags = ZERO;
+        if (optionsField.isUsed()) {
+            flags |= OPTIONS_FIELD_USED;
+            numberOfCrossedActiveNodes = optionsField.getNumberOfCrossedActiveNodes();
+        }
+        buffer.put(index, flags);
+        index++;
+        buffer.put(index, (byte) this.mplsLabelStack.getSize());
+        index++;
+        if (optionsField.isUsed()) {
+            buffer.putInt(index, optionsField.getRequestedGoSLevel());
+            index += Integer.BYTES;
+            buffer.putInt(index, optionsField.getPacketLocalUniqueIdentifier());
+            index += Integer.BYTES;
+            buffer.put(index, (byte) numberOfCrossedActiveNodes);
+            index++;
+            for (int i = ZERO; i < numberOfCrossedActiveNodes; i++) {
+                buffer.putInt(index, optionsField.getCrossedActiveNode(i));
+                index += Integer.BYTES;
             }
         }
-        while (localLabelStack.size() > 0) {
-            this.getLabelStack().pushTop((TMPLSLabel) localLabelStack.removeFirst());
+        TMPLSLabel mplsLabel;
+        for (int i = ZERO; i < this.mplsLabelStack.getSize(); i++) {
+            mplsLabel = this.mplsLabelStack.getLabel(i);
+            buffer.putInt(index, mplsLabel.getLabel());
+            index += Integer.BYTES;
+            buffer.putInt(index, mplsLabel.getTTL());
+            index += Integer.BYTES;
+            buffer.put(index, (byte) mplsLabel.getEXP());
+            index++;
+            buffer.put(index, (byte) (mplsLabel.getBoS() ? ONE : ZERO));
+            index++;
         }
-        while (labelStackForClonedPDU.size() > 0) {
-            clonedMPLSPDU.getLabelStack().pushTop((TMPLSLabel) labelStackForClonedPDU.removeFirst());
+    }
+
+    /**
+     * This method rebuilds a MPLS packet stored in a buffer by means of
+     * writeTo(). Values are read directly from the buffer into the new packet,
+     * without intermediate copies. As getAClon(), it returns a packet of MPLS
+     * subtype with a fresh TTL in its IPv4 header.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param buffer the buffer where the packet is stored.
+     * @param position the position of the buffer where the packet is stored.
+     * @return the rebuilt MPLS packet.
+     * @since 2.4
+     */
+    public static TMPLSPDU readFrom(ByteBuffer buffer, int position) {
+        int index = position;
+        long auxID = buffer.getLong(index);
+        index += Long.BYTES;
+        int auxOriginIP = buffer.getInt(index);
+        index += Integer.BYTES;
+        int auxTargetIP = buffer.getInt(index);
+        index += Integer.BYTES;
+        TMPLSPDU mplsPDU = new TMPLSPDU(auxID, auxOriginIP, auxTargetIP, ZERO);
+        // The stored size includes the TCP header, that is the whole size of
+        // an empty TCP payload.
+        mplsPDU.tcpPayload.setSize(buffer.getInt(index) - mplsPDU.tcpPayload.getSize());
+        index += Integer.BYTES;
+        byte flags = buffer.get(index);
+        index++;
+        int numberOfLabels = buffer.get(index);
+        index++;
+        if ((flags & OPTIONS_FIELD_USED) != ZERO) {
+            TIPv4OptionsField optionsField = mplsPDU.getIPv4Header().getOptionsField();
+            optionsField.setRequestedGoSLevel(buffer.getInt(index));
+            index += Integer.BYTES;
+            mplsPDU.getIPv4Header().setPacketLocalUniqueIdentifier(buffer.getInt(index));
+            index += Integer.BYTES;
+            int numberOfCrossedActiveNodes = buffer.get(index);
+            index++;
+            for (int i = ZERO; i < numberOfCrossedActiveNodes; i++) {
+                optionsField.setCrossedActiveNode(buffer.getInt(index));
+                index += Integer.BYTES;
+            }
         }
-        return clonedMPLSPDU;
+        TMPLSLabel mplsLabel;
+        for (int i = ZERO; i < numberOfLabels; i++) {
+            mplsLabel = new TMPLSLabel();
+            mplsLabel.setLabel(buffer.getInt(index));
+            index += Integer.BYTES;
+            mplsLabel.setTTL(buffer.getInt(index));
+            index += Integer.BYTES;
+            mplsLabel.setEXP(buffer.get(index));
+            index++;
+            mplsLabel.setBoS(buffer.get(index) != ZERO);
+            index++;
+            mplsPDU.mplsLabelStack.pushTop(mplsLabel);
+        }
+        return mplsPDU;
     }
 
     /**
@@ -197,6 +295,16 @@ public class TMPLSPDU extends TAbstractPDU {
         return this.subType;
     }
 
+    // ID, origin, target, TCP payload size, flags and number of labels.
+    private static final int SERIALIZED_FIXED_PART_SIZE = Long.BYTES + (3 * Integer.BYTES) + 2;
+    // GoS level, local unique identifier and number of crossed active nodes.
+    private static final int SERIALIZED_OPTIONS_FIELD_SIZE = (2 * Integer.BYTES) + 1;
+    // Label, TTL, EXP and BoS.
+    private static final int SERIALIZED_LABEL_SIZE = (2 * Integer.BYTES) + 2;
+    private static final byte OPTIONS_FIELD_USED = 0x01;
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+
     private int subType;
     private TTCPPayload tcpPayload;
     private TMPLSLabelStack mplsLabelStack;
@@ -35,7 +35,7 @@ public class TTLDPPDU extends TAbstractPDU {
      * @param targetIP IP addres of this packet's receiver.
      * @since 2.0
      */
-    public TTLDPPDU(long id, String originIP, String targetIP) {
+    public TTLDPPDU(long id, int originIP, int targetIP) {
         super(id, originIP, targetIP);
         //FIX: Do not use harcoded values. Use class constants instead.
         this.tcpPayload = new TTCPPayload(0);
@@ -15,6 +15,8 @@
  */
 package com.manolodominguez.opensimmpls.protocols;
 
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
+
 /**
  * This class implements a TLDP (Tiny Label Distribution Protocol) packet
  * content. As defined in the proposal "Guarantee of Servico (GoS) Support over
@@ -35,7 +37,7 @@ public class TTLDPPayload {
     public TTLDPPayload() {
         this.TLDPMessageType = TTLDPPayload.LABEL_REQUEST;
         // FIX: create and use constants instead of these harcoded values
-        this.targetIPAddress = "";
+        this.targetIPAddress = TIPv4Address.UNSPECIFIED;
         this.label = 16;
         this.TLDPIdentifier = 0;
     }
@@ -89,7 +91,7 @@ public class TTLDPPayload {
      * this TLDP packet.
      * @since 2.0
      */
-    public void setTargetIPAddress(String targetIPAddress) {
+    public void setTargetIPAddress(int targetIPAddress) {
         this.targetIPAddress = targetIPAddress;
     }
 
@@ -101,7 +103,7 @@ public class TTLDPPayload {
      * @return The IP address of the node that should receive this TLDP packet.
      * @since 2.0
      */
-    public String getTailEndIPAddress() {
+    public int getTailEndIPAddress() {
         return this.targetIPAddress;
     }
 
@@ -163,7 +165,7 @@ public class TTLDPPayload {
     public static final int LABEL_REVOMAL_REQUEST_OK = -34;
 
     private int TLDPMessageType;
-    private String targetIPAddress;
+    private int targetIPAddress;
     private int label;
     private int TLDPIdentifier;
 }
@@ -35,7 +35,6 @@ public enum AvailableBundles {
     MAIN_OPENSIMMPLS("translations"),
     T_TIMER("translations"),
     E_SIMULATION_SINGLE_SUBSCRIBER("translations"),
-    E_PROGRESS_EVENT_GENERATOR_ONLY_ALLOW_A_SINGLE_LISTENER("translations"),
     LER_WINDOW("translations"),
     LSR_WINDOW("translations"),
     ACTIVE_LER_WINDOW("translations"),
@@ -70,10 +69,28 @@ public enum AvailableBundles {
     T_ROTARY_ID_GENERATOR("trotaryidgenerator"),
     T_LONG_ID_GENERATOR("tlongidgenerator"),
     T_IPV4_ADDRESS_GENERATOR("tipv4addressgenerator"),
+    T_IPV4_ADDRESS("tipv4address"),
     T_GPSRP_REQUEST_ENTRY("tgpsrprequestentry"),
     T_GPSRP_REQUESTS_MATRIX("tgpsrprequestsmatrix"),
     UNITS_TRANSLATIONS("unitstranslations"),
-    T_OSM_LOADER("osmloader");
+    T_OSM_LOADER("osmloader"),
+    T_WORKER_POOL_EXECUTION_BACKEND("tworkerpoolexecutionbackend"),
+    T_STATS_SAVER("tstatssaver"),
+    T_BATCH_SIMULATION_RUNNER("tbatchsimulationrunner"),
+    T_BATCH_COMMAND_LINE("tbatchcommandline"),
+    T_FLOYD_WARSHALL_ROUTING_TABLE("tfloydwarshallroutingtable"),
+    T_RABAN_ROUTING_ENGINE("trabanroutingengine"),
+    T_LOCK_FREE_FIFO_PORT("tlockfreefifoport"),
+    T_SIMULATION_EVENT_RING_BUFFER("tsimulationeventringbuffer"),
+    T_SIMULATION_EVENT_LISTENER("tsimulationeventlistener"),
+    T_SIMULATION_EVENT_BUS("tsimulationeventbus"),
+    T_SIMULATION_TRACE_WRITER("tsimulationtracewriter"),
+    T_SIMULATION_TRACE_READER("tsimulationtracereader"),
+    T_SIMULATION_TRACE_REPLAYER("tsimulationtracereplayer"),
+    T_SIMULATION_TRACE_DECODER("tsimulationtracedecoder"),
+    T_SIMULATION_TRACE_INDEX("tsimulationtraceindex"),
+    T_STATS_EXPORTER("tstatsexporter"),
+    T_PARAMETER_SWEEP("tparametersweep");
 
     private final String bundlePath;
     private static final String BASE_PATH = "com/manolodominguez/opensimmpls/resources/translations/";
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import java.util.EventListener;
+
+/**
+ * This interface has to be implemented by classess that wants to receive the
+ * stats of nodes each time they are grouped by time instant.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public interface IStatsListener extends EventListener {
+
+    /**
+     * This method, when implemented, will capture the stats of a node once
+     * they have been grouped by the specified time instant. It is called from
+     * the thread that runs the node, so stats of different nodes can be
+     * captured at the same time, but stats of a given node are always
+     * captured in chronological order, one instant after the other. The
+     * values of the stats have to be read before returning.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     * @param stats The stats that have been grouped.
+     * @param timeInstant The time instant the stats have been grouped by.
+     */
+    public void captureStats(TStats stats, long timeInstant);
+}
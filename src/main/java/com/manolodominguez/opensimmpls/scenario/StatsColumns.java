@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+/**
+ * This enum defines every counter that a stats collector can export for each
+ * time instant. Packet counters are identified by an entry type and a packet
+ * category, as defined in TStats and TStatsCounters; the remaining columns
+ * are the GoS retransmission counters of active nodes. Column names are not
+ * translated, so that exported files do not depend on the language of the
+ * simulator.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public enum StatsColumns {
+    INCOMING_IPV4("incomingIPv4", TStats.INCOMING, TStatsCounters.IPV4),
+    INCOMING_IPV4_GOS1("incomingIPv4GoS1", TStats.INCOMING, TStatsCounters.IPV4_GOS1),
+    INCOMING_IPV4_GOS2("incomingIPv4GoS2", TStats.INCOMING, TStatsCounters.IPV4_GOS2),
+    INCOMING_IPV4_GOS3("incomingIPv4GoS3", TStats.INCOMING, TStatsCounters.IPV4_GOS3),
+    INCOMING_MPLS("incomingMPLS", TStats.INCOMING, TStatsCounters.MPLS),
+    INCOMING_MPLS_GOS1("incomingMPLSGoS1", TStats.INCOMING, TStatsCounters.MPLS_GOS1),
+    INCOMING_MPLS_GOS2("incomingMPLSGoS2", TStats.INCOMING, TStatsCounters.MPLS_GOS2),
+    INCOMING_MPLS_GOS3("incomingMPLSGoS3", TStats.INCOMING, TStatsCounters.MPLS_GOS3),
+    INCOMING_TLDP("incomingTLDP", TStats.INCOMING, TStatsCounters.TLDP),
+    INCOMING_GPSRP("incomingGPSRP", TStats.INCOMING, TStatsCounters.GPSRP),
+    OUTGOING_IPV4("outgoingIPv4", TStats.OUTGOING, TStatsCounters.IPV4),
+    OUTGOING_IPV4_GOS1("outgoingIPv4GoS1", TStats.OUTGOING, TStatsCounters.IPV4_GOS1),
+    OUTGOING_IPV4_GOS2("outgoingIPv4GoS2", TStats.OUTGOING, TStatsCounters.IPV4_GOS2),
+    OUTGOING_IPV4_GOS3("outgoingIPv4GoS3", TStats.OUTGOING, TStatsCounters.IPV4_GOS3),
+    OUTGOING_MPLS("outgoingMPLS", TStats.OUTGOING, TStatsCounters.MPLS),
+    OUTGOING_MPLS_GOS1("outgoingMPLSGoS1", TStats.OUTGOING, TStatsCounters.MPLS_GOS1),
+    OUTGOING_MPLS_GOS2("outgoingMPLSGoS2", TStats.OUTGOING, TStatsCounters.MPLS_GOS2),
+    OUTGOING_MPLS_GOS3("outgoingMPLSGoS3", TStats.OUTGOING, TStatsCounters.MPLS_GOS3),
+    OUTGOING_TLDP("outgoingTLDP", TStats.OUTGOING, TStatsCounters.TLDP),
+    OUTGOING_GPSRP("outgoingGPSRP", TStats.OUTGOING, TStatsCounters.GPSRP),
+    DISCARDED_IPV4("discardedIPv4", TStats.BEING_DISCARDED, TStatsCounters.IPV4),
+    DISCARDED_IPV4_GOS1("discardedIPv4GoS1", TStats.BEING_DISCARDED, TStatsCounters.IPV4_GOS1),
+    DISCARDED_IPV4_GOS2("discardedIPv4GoS2", TStats.BEING_DISCARDED, TStatsCounters.IPV4_GOS2),
+    DISCARDED_IPV4_GOS3("discardedIPv4GoS3", TStats.BEING_DISCARDED, TStatsCounters.IPV4_GOS3),
+    DISCARDED_MPLS("discardedMPLS", TStats.BEING_DISCARDED, TStatsCounters.MPLS),
+    DISCARDED_MPLS_GOS1("discardedMPLSGoS1", TStats.BEING_DISCARDED, TStatsCounters.MPLS_GOS1),
+    DISCARDED_MPLS_GOS2("discardedMPLSGoS2", TStats.BEING_DISCARDED, TStatsCounters.MPLS_GOS2),
+    DISCARDED_MPLS_GOS3("discardedMPLSGoS3", TStats.BEING_DISCARDED, TStatsCounters.MPLS_GOS3),
+    DISCARDED_TLDP("discardedTLDP", TStats.BEING_DISCARDED, TStatsCounters.TLDP),
+    DISCARDED_GPSRP("discardedGPSRP", TStats.BEING_DISCARDED, TStatsCounters.GPSRP),
+    RETRANSMISSION_REQUESTS_RECEIVED("retransmissionRequestsReceived"),
+    RETRANSMISSIONS_REALIZED("retransmissionsRealized"),
+    RETRANSMISSIONS_UNREALIZED("retransmissionsUnrealized"),
+    GOS_PACKETS_LOST("gosPacketsLost"),
+    RETRANSMISSION_REQUESTS_SENT("retransmissionRequestsSent"),
+    GOS_PACKETS_RECOVERED("gosPacketsRecovered"),
+    GOS_PACKETS_UNRECOVERED("gosPacketsUnrecovered");
+
+    private final String columnName;
+    private final int entryType;
+    private final int category;
+
+    /**
+     * This is the constructor of the enum for columns that are not packet
+     * counters.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param columnName The name of the column.
+     * @since 2.4
+     */
+    private StatsColumns(String columnName) {
+        this(columnName, NO_ENTRY_TYPE, TStatsCounters.NO_CATEGORY);
+    }
+
+    /**
+     * This is the constructor of the enum for columns that are packet
+     * counters.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param columnName The name of the column.
+     * @param entryType INCOMING, OUTGOING or BEING_DISCARDED, as defined in
+     * TStats.
+     * @param category The category of the packets, as defined in
+     * TStatsCounters.
+     * @since 2.4
+     */
+    private StatsColumns(String columnName, int entryType, int category) {
+        this.columnName = columnName;
+        this.entryType = entryType;
+        this.category = category;
+    }
+
+    /**
+     * This method gets the name of the column, as written in exported files.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The name of the column.
+     * @since 2.4
+     */
+    public String getColumnName() {
+        return this.columnName;
+    }
+
+    /**
+     * This method tells whether the column is a packet counter.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return TRUE, if the column is a packet counter. Otherwise, FALSE.
+     * @since 2.4
+     */
+    public boolean isPacketCounter() {
+        return this.entryType != NO_ENTRY_TYPE;
+    }
+
+    /**
+     * This method gets the entry type counted in the column.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return INCOMING, OUTGOING or BEING_DISCARDED, as defined in TStats,
+     * for packet counters. Zero for the remaining columns.
+     * @since 2.4
+     */
+    public int getEntryType() {
+        return this.entryType;
+    }
+
+    /**
+     * This method gets the category of the packets counted in the column.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The category of the packets, as defined in TStatsCounters, for
+     * packet counters. NO_CATEGORY for the remaining columns.
+     * @since 2.4
+     */
+    public int getCategory() {
+        return this.category;
+    }
+
+    private static final int NO_ENTRY_TYPE = 0;
+}
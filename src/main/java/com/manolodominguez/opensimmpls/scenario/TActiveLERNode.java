@@ -15,6 +15,8 @@
  */
 package com.manolodominguez.opensimmpls.scenario;
 
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketSent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketGenerated;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketDiscarded;
@@ -34,7 +36,6 @@ import com.manolodominguez.opensimmpls.hardware.timer.TTimerEvent;
 import com.manolodominguez.opensimmpls.hardware.timer.ITimerEventListener;
 import com.manolodominguez.opensimmpls.hardware.ports.TActivePortSet;
 import com.manolodominguez.opensimmpls.hardware.ports.TActivePort;
-import com.manolodominguez.opensimmpls.hardware.ports.TFIFOPort;
 import com.manolodominguez.opensimmpls.hardware.dmgp.TDMGP;
 import com.manolodominguez.opensimmpls.hardware.tldp.TSwitchingMatrix;
 import com.manolodominguez.opensimmpls.hardware.tldp.TSwitchingMatrixEntry;
@@ -111,6 +112,31 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
         this.dmgp.setDMGPSizeInKB(sizeInKB);
     }
 
+    /**
+     * This method sets whether the local DMGP stores GoS packets off-heap, in
+     * a direct buffer of exactly the size of the DMGP, instead of as objects.
+     * It empties the DMGP.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param offHeapStorage TRUE, if the DMGP has to store GoS packets
+     * off-heap. Otherwise, FALSE.
+     * @since 2.4
+     */
+    public void setDMGPOffHeapStorage(boolean offHeapStorage) {
+        this.dmgp.setOffHeapStorage(offHeapStorage);
+    }
+
+    /**
+     * This method checks whether the local DMGP stores GoS packets off-heap.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return TRUE, if the DMGP stores GoS packets off-heap. Otherwise, FALSE.
+     * @since 2.4
+     */
+    public boolean isDMGPOffHeapStorage() {
+        return this.dmgp.isOffHeapStorage();
+    }
+
     /**
      * This method computes and returns the number of nanoseconds that are
      * needed to switch a single bit. This is something that depends on the
@@ -292,7 +318,9 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
     public void run() {
         // Actions to be done during the timer tick.
         try {
-            this.generateSimulationEvent(new TSimulationEventNodeCongested(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), this.getPorts().getCongestionLevel()));
+            if (this.isSimulationEventEnabled(TSimulationEvent.NODE_CONGESTED)) {
+                this.generateSimulationEvent(new TSimulationEventNodeCongested(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), this.getPorts().getCongestionLevel()));
+            }
         } catch (Exception e) {
             // FIX: this is not a good practice. Avoid.
             e.printStackTrace();
@@ -303,6 +331,57 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
         this.stats.groupStatsByTimeInstant(this.getCurrentTimeInstant());
     }
 
+    /**
+     * This method computes how many consecutive ticks, starting with the next
+     * one, this active LER would spend without doing anything observable. That is
+     * the case while it has no packet waiting in its ports and none of its TLDP or GPSRP
+     * timeouts expires.
+     *
+     * @param tickDurationInNs Duration of each tick, in nanoseconds.
+     * @param maxNumberOfIdleTicks The maximum number of ticks the timer is
+     * interested in.
+     * @return Number of consecutive idle ticks, never greater than
+     * maxNumberOfIdleTicks.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    @Override
+    public long getNumberOfIdleTicks(int tickDurationInNs, long maxNumberOfIdleTicks) {
+        if (this.ports.isThereAnyPacketToRoute() || this.isConnectedToABrokenLink()) {
+            return ZERO;
+        }
+        if (this.switchingMatrix.isThereAnyEntryWithUndefinedPorts()) {
+            // These entries are purged by checkConnectivityStatus() in the
+            // next tick.
+            return ZERO;
+        }
+        long numberOfIdleTicks = this.switchingMatrix.getNumberOfIdleTicks(tickDurationInNs, maxNumberOfIdleTicks);
+        return this.gpsrpRequests.getNumberOfIdleTicks(tickDurationInNs, numberOfIdleTicks);
+    }
+
+    /**
+     * This method updates this active LER as if it had received the specified
+     * number of idle timer events.
+     *
+     * @param firstIdleTick The first timer event that is being skipped.
+     * @param numberOfIdleTicks Number of consecutive timer events being
+     * skipped.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    @Override
+    public void skipIdleTicks(TTimerEvent firstIdleTick, long numberOfIdleTicks) {
+        int tickDurationInNs = firstIdleTick.getTickDurationInNs();
+        this.setTickDurationInNs(tickDurationInNs);
+        this.availableNanoseconds = tickDurationInNs;
+        this.resetTicksWithoutEmitting();
+        this.increaseTicksWithoutEmitting();
+        this.switchingMatrix.skipIdleTicks(numberOfIdleTicks, tickDurationInNs);
+        this.gpsrpRequests.skipIdleTicks(numberOfIdleTicks, tickDurationInNs);
+        this.stats.groupStatsByTimeInstant(firstIdleTick.getUpperLimit());
+        this.setCurrentTimeInstant(firstIdleTick.getUpperLimit() + ((numberOfIdleTicks - ONE) * tickDurationInNs));
+    }
+
     /**
      * This method check wether the connectivity to the neighbors nodes exists.
      * Let's say, this check whether a link of this node is down. If so, this
@@ -424,8 +503,8 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
         this.gpsrpRequests.getMonitor().setRed();
         Iterator gpsrpRequestsIterator = this.gpsrpRequests.getEntriesIterator();
         int globalFlowID = 0;
-        int packetGoSGlobalUniqueID = 0;
-        String targetIPv4Address = null;
+        long packetGoSGlobalUniqueID = 0;
+        int targetIPv4Address = TIPv4Address.UNSPECIFIED;
         int outgoingPortAux = 0;
         TGPSRPRequestEntry gpsrpRequestEntry = null;
         while (gpsrpRequestsIterator.hasNext()) {
@@ -500,10 +579,10 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
             // FIX: globalFlowID and packetGlobalUniqueID seems not to be used. If not necessary,
             // remove from the code.
             int globalFlowID = packet.getGPSRPPayload().getFlowID();
-            int packetGoSGlobalUniqueID = packet.getGPSRPPayload().getPacketGoSGlobalUniqueID();
-            String targetIPv4Address = packet.getIPv4Header().getTailEndIPAddress();
-            TFIFOPort outgoingPort = null;
-            if (targetIPv4Address.equals(this.getIPv4Address())) {
+            long packetGoSGlobalUniqueID = packet.getGPSRPPayload().getPacketGoSGlobalUniqueID();
+            int targetIPv4Address = packet.getIPv4Header().getTailEndIPAddress();
+            TPort outgoingPort = null;
+            if (targetIPv4Address == this.getIPv4Address()) {
                 // FIX: Convert to a switch statement
                 if (messageType == TGPSRPPayload.RETRANSMISSION_REQUEST) {
                     this.handleGPSRPRetransmissionRequest(packet, incomingPortID);
@@ -513,12 +592,14 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                     this.handleGPSRPRetransmissionOk(packet, incomingPortID);
                 }
             } else {
-                String nextHopIPv4Address = this.topology.getRABANNextHopIPv4Address(this.getIPv4Address(), targetIPv4Address);
-                outgoingPort = (TFIFOPort) this.ports.getLocalPortConnectedToANodeWithIPv4Address(nextHopIPv4Address);
+                int nextHopIPv4Address = this.topology.getRABANNextHopIPv4Address(this.getIPv4Address(), targetIPv4Address);
+                outgoingPort = this.ports.getLocalPortConnectedToANodeWithIPv4Address(nextHopIPv4Address);
                 if (outgoingPort != null) {
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -540,7 +621,7 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
      */
     public void handleGPSRPRetransmissionRequest(TGPSRPPDU packet, int incomingPortID) {
         int globalFlowID = packet.getGPSRPPayload().getFlowID();
-        int packetGoSGlobalUniqueID = packet.getGPSRPPayload().getPacketGoSGlobalUniqueID();
+        long packetGoSGlobalUniqueID = packet.getGPSRPPayload().getPacketGoSGlobalUniqueID();
         TMPLSPDU wantedPacket = (TMPLSPDU) this.dmgp.getPacket(globalFlowID, packetGoSGlobalUniqueID);
         if (wantedPacket != null) {
             this.acceptGPSRP(packet, incomingPortID);
@@ -548,7 +629,9 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
             if (outgoingPort != null) {
                 outgoingPort.putPacketOnLink(wantedPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                 try {
-                    this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), wantedPacket.getSubtype()));
+                    if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                        this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), wantedPacket.getSubtype()));
+                    }
                 } catch (Exception e) {
                     // FIX: this is not a good practice. Avoid.
                     e.printStackTrace();
@@ -569,14 +652,14 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
      */
     public void handleGPSRPRetransmissionNotPossible(TGPSRPPDU packet, int incomingPortID) {
         int globalFlowID = packet.getGPSRPPayload().getFlowID();
-        int packetGoSGlobalUniqueID = packet.getGPSRPPayload().getPacketGoSGlobalUniqueID();
+        long packetGoSGlobalUniqueID = packet.getGPSRPPayload().getPacketGoSGlobalUniqueID();
         TGPSRPRequestEntry gpsrpRequestEntry = this.gpsrpRequests.getEntry(globalFlowID, packetGoSGlobalUniqueID);
         if (gpsrpRequestEntry != null) {
             gpsrpRequestEntry.forceTimeoutReset();
             int outgoingPortAux = gpsrpRequestEntry.getOutgoingPortID();
             if (!gpsrpRequestEntry.canBePurged()) {
-                String targetIPv4Address = gpsrpRequestEntry.getNextNearestCrossedActiveNodeIPv4();
-                if (targetIPv4Address != null) {
+                int targetIPv4Address = gpsrpRequestEntry.getNextNearestCrossedActiveNodeIPv4();
+                if (targetIPv4Address != TIPv4Address.UNSPECIFIED) {
                     requestGPSRP(globalFlowID, packetGoSGlobalUniqueID, targetIPv4Address, outgoingPortAux);
                 } else {
                     this.gpsrpRequests.removeEntry(globalFlowID, packetGoSGlobalUniqueID);
@@ -597,7 +680,7 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
      */
     public void handleGPSRPRetransmissionOk(TGPSRPPDU packet, int incomingPortID) {
         int globalFlowID = packet.getGPSRPPayload().getFlowID();
-        int packetGoSGlobalUniqueID = packet.getGPSRPPayload().getPacketGoSGlobalUniqueID();
+        long packetGoSGlobalUniqueID = packet.getGPSRPPayload().getPacketGoSGlobalUniqueID();
         this.gpsrpRequests.removeEntry(globalFlowID, packetGoSGlobalUniqueID);
     }
 
@@ -619,8 +702,8 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
         if (gpsrpRequestEntry != null) {
             TActivePort outgoingPort = (TActivePort) this.ports.getPort(outgoingPortID);
             TGPSRPPDU gpsrpPacket = null;
-            String targetIPv4Address = gpsrpRequestEntry.getNextNearestCrossedActiveNodeIPv4();
-            if (targetIPv4Address != null) {
+            int targetIPv4Address = gpsrpRequestEntry.getNextNearestCrossedActiveNodeIPv4();
+            if (targetIPv4Address != TIPv4Address.UNSPECIFIED) {
                 try {
                     gpsrpPacket = new TGPSRPPDU(this.gIdent.getNextIdentifier(), this.getIPv4Address(), targetIPv4Address);
                 } catch (Exception e) {
@@ -634,8 +717,12 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                 gpsrpPacket.getGPSRPPayload().setGPSRPMessageType(TGPSRPPayload.RETRANSMISSION_REQUEST);
                 outgoingPort.putPacketOnLink(gpsrpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                 try {
-                    this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
-                    this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                    if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                        this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
+                    }
+                    if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                        this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                    }
                 } catch (Exception e) {
                     //FIX: This is not a good practice. Avoid.
                     e.printStackTrace();
@@ -659,10 +746,10 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
      * the lost packet.
      * @since 2.0
      */
-    public void requestGPSRP(int globalFlowID, int packetGoSGlobalUniqueID, String targetIPv4Address, int outgoingPortID) {
+    public void requestGPSRP(int globalFlowID, long packetGoSGlobalUniqueID, int targetIPv4Address, int outgoingPortID) {
         TActivePort outgoingPort = (TActivePort) this.ports.getPort(outgoingPortID);
         TGPSRPPDU gpsrpPacket = null;
-        if (targetIPv4Address != null) {
+        if (targetIPv4Address != TIPv4Address.UNSPECIFIED) {
             try {
                 gpsrpPacket = new TGPSRPPDU(this.gIdent.getNextIdentifier(), this.getIPv4Address(), targetIPv4Address);
             } catch (Exception e) {
@@ -676,8 +763,12 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
             gpsrpPacket.getGPSRPPayload().setGPSRPMessageType(TGPSRPPayload.RETRANSMISSION_REQUEST);
             outgoingPort.putPacketOnLink(gpsrpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
             try {
-                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
-                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                    this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
+                }
+                if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                    this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                }
             } catch (Exception e) {
                 //FIX: This is not a good practice. Avoid.
                 e.printStackTrace();
@@ -710,8 +801,12 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
             gpsrpPacket.getGPSRPPayload().setGPSRPMessageType(TGPSRPPayload.RETRANSMISION_NOT_POSSIBLE);
             outgoingPort.putPacketOnLink(gpsrpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
             try {
-                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
-                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                    this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
+                }
+                if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                    this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                }
             } catch (Exception e) {
                 //FIX: This is not a good practice. Avoid.
                 e.printStackTrace();
@@ -746,8 +841,12 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
             gpsrpPacket.getGPSRPPayload().setGPSRPMessageType(TGPSRPPayload.RETRANSMISION_OK);
             outgoingPort.putPacketOnLink(gpsrpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
             try {
-                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
-                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                    this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
+                }
+                if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                    this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                }
             } catch (Exception e) {
                 //FIX: This is not a good practice. Avoid.
                 e.printStackTrace();
@@ -772,7 +871,7 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
      */
     public void handleIPv4Packet(TIPv4PDU packet, int incomingPortID) {
         int fec = this.classifyPacket(packet);
-        String targetIPv4Address = packet.getIPv4Header().getTailEndIPAddress();
+        int targetIPv4Address = packet.getIPv4Header().getTailEndIPAddress();
         TSwitchingMatrixEntry switchingMatrixEntry = null;
         boolean requireBackupLSP = false;
         if ((packet.getIPv4Header().getOptionsField().getRequestedGoSLevel() == TAbstractPDU.EXP_LEVEL0_WITH_BACKUP_LSP)
@@ -832,7 +931,9 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                     }
                     outgoingPort.putPacketOnLink(mplsPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: Avoid this. This is not a good practice.
                         e.printStackTrace();
@@ -845,7 +946,9 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                     TPort outgoingPort = this.ports.getPort(switchingMatrixEntry.getOutgoingPortID());
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: Avoid this. This is not a good practice.
                         e.printStackTrace();
@@ -916,7 +1019,7 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
             }
         }
         int labelValue = packet.getLabelStack().getTop().getLabel();
-        String targetIPv4Address = packet.getIPv4Header().getTailEndIPAddress();
+        int targetIPv4Address = packet.getIPv4Header().getTailEndIPAddress();
         switchingMatrixEntry = this.switchingMatrix.getEntry(incomingPortID, labelValue, TSwitchingMatrixEntry.LABEL_ENTRY);
         if (switchingMatrixEntry == null) {
             switchingMatrixEntry = this.createInitialEntryInILMMatrix(packet, incomingPortID);
@@ -982,7 +1085,9 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                     }
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -1001,7 +1106,9 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                         outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     }
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -1021,7 +1128,9 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                     }
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -1030,7 +1139,9 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                     TPort outgoingPort = this.ports.getPort(switchingMatrixEntry.getOutgoingPortID());
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -1534,9 +1645,9 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
     public void sendTLDPRequestOk(TSwitchingMatrixEntry switchingMatrixEntry) {
         if (switchingMatrixEntry != null) {
             if (switchingMatrixEntry.getUpstreamTLDPSessionID() != TSwitchingMatrixEntry.UNDEFINED) {
-                String localIPv4Address = this.getIPv4Address();
-                String targetIPv4Address = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getIncomingPortID());
-                if (targetIPv4Address != null) {
+                int localIPv4Address = this.getIPv4Address();
+                int targetIPv4Address = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getIncomingPortID());
+                if (targetIPv4Address != TIPv4Address.UNSPECIFIED) {
                     TTLDPPDU tldpPacket = null;
                     try {
                         tldpPacket = new TTLDPPDU(this.gIdent.getNextIdentifier(), localIPv4Address, targetIPv4Address);
@@ -1557,8 +1668,12 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                         TPort outgoingPort = this.ports.getLocalPortConnectedToANodeWithIPv4Address(targetIPv4Address);
                         outgoingPort.putPacketOnLink(tldpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
+                            }
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             //FIX: this is not a good practice. Avoid.
                             e.printStackTrace();
@@ -1580,9 +1695,9 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
     public void sendTLDPRequestRefuse(TSwitchingMatrixEntry switchingMatrixEntry) {
         if (switchingMatrixEntry != null) {
             if (switchingMatrixEntry.getUpstreamTLDPSessionID() != TSwitchingMatrixEntry.UNDEFINED) {
-                String localIPv4Address = this.getIPv4Address();
-                String targetIPv4Address = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getIncomingPortID());
-                if (targetIPv4Address != null) {
+                int localIPv4Address = this.getIPv4Address();
+                int targetIPv4Address = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getIncomingPortID());
+                if (targetIPv4Address != TIPv4Address.UNSPECIFIED) {
                     TTLDPPDU tldpPacket = null;
                     try {
                         tldpPacket = new TTLDPPDU(this.gIdent.getNextIdentifier(), localIPv4Address, targetIPv4Address);
@@ -1603,8 +1718,12 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                         TPort outgoingPort = this.ports.getLocalPortConnectedToANodeWithIPv4Address(targetIPv4Address);
                         outgoingPort.putPacketOnLink(tldpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
+                            }
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: this is not a good practice. Avoid.
                             e.printStackTrace();
@@ -1627,9 +1746,9 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
      */
     public void sendTLDPWithdrawalOk(TSwitchingMatrixEntry switchingMatrixEntry, int portID) {
         if (switchingMatrixEntry != null) {
-            String localIPv4Address = this.getIPv4Address();
-            String targetIPv4Address = this.ports.getIPv4OfNodeLinkedTo(portID);
-            if (targetIPv4Address != null) {
+            int localIPv4Address = this.getIPv4Address();
+            int targetIPv4Address = this.ports.getIPv4OfNodeLinkedTo(portID);
+            if (targetIPv4Address != TIPv4Address.UNSPECIFIED) {
                 TTLDPPDU tldpPacket = null;
                 try {
                     tldpPacket = new TTLDPPDU(this.gIdent.getNextIdentifier(), localIPv4Address, targetIPv4Address);
@@ -1658,8 +1777,12 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                     TPort outgoingPort = this.ports.getPort(portID);
                     outgoingPort.putPacketOnLink(tldpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
-                        this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
+                        }
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                        }
                     } catch (Exception e) {
                         // FIX: this is not a good practice. Avoid.
                         e.printStackTrace();
@@ -1678,11 +1801,11 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      */
     public void requestTLDP(TSwitchingMatrixEntry switchingMatrixEntry) {
-        String localIPv4Address = this.getIPv4Address();
-        String tailEndIPv4Address = switchingMatrixEntry.getTailEndIPv4Address();
+        int localIPv4Address = this.getIPv4Address();
+        int tailEndIPv4Address = switchingMatrixEntry.getTailEndIPv4Address();
         if (switchingMatrixEntry.getOutgoingLabel() != TSwitchingMatrixEntry.LABEL_ASSIGNED) {
-            String nextHopIPv4Address = this.topology.getRABANNextHopIPv4Address(localIPv4Address, tailEndIPv4Address);
-            if (nextHopIPv4Address != null) {
+            int nextHopIPv4Address = this.topology.getRABANNextHopIPv4Address(localIPv4Address, tailEndIPv4Address);
+            if (nextHopIPv4Address != TIPv4Address.UNSPECIFIED) {
                 TTLDPPDU tldpPacket = null;
                 try {
                     tldpPacket = new TTLDPPDU(this.gIdent.getNextIdentifier(), localIPv4Address, nextHopIPv4Address);
@@ -1708,8 +1831,12 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                     if (outgoingPort != null) {
                         outgoingPort.putPacketOnLink(tldpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
+                            }
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: this is not a good practice. Avoid.
                             e.printStackTrace();
@@ -1730,12 +1857,12 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      */
     public void requestTLDPForBackupLSP(TSwitchingMatrixEntry switchingMatrixEntry) {
-        String localIPAddress = this.getIPv4Address();
-        String tailEndIPAddress = switchingMatrixEntry.getTailEndIPv4Address();
-        String nextHopToAvoidIPAddress = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getOutgoingPortID());
-        if (nextHopToAvoidIPAddress != null) {
-            String nextHopIPAddress = this.topology.getRABANNextHopIPv4Address(localIPAddress, tailEndIPAddress, nextHopToAvoidIPAddress);
-            if (nextHopIPAddress != null) {
+        int localIPAddress = this.getIPv4Address();
+        int tailEndIPAddress = switchingMatrixEntry.getTailEndIPv4Address();
+        int nextHopToAvoidIPAddress = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getOutgoingPortID());
+        if (nextHopToAvoidIPAddress != TIPv4Address.UNSPECIFIED) {
+            int nextHopIPAddress = this.topology.getRABANNextHopIPv4Address(localIPAddress, tailEndIPAddress, nextHopToAvoidIPAddress);
+            if (nextHopIPAddress != TIPv4Address.UNSPECIFIED) {
                 if (switchingMatrixEntry.getBackupOutgoingPortID() == TSwitchingMatrixEntry.UNDEFINED) {
                     if (switchingMatrixEntry.getBackupOutgoingLabel() == TSwitchingMatrixEntry.UNDEFINED) {
                         // FIX: Avoid using harcoded values. Use class constants
@@ -1744,7 +1871,7 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                             switchingMatrixEntry.setBackupOutgoingLabel(TSwitchingMatrixEntry.LABEL_REQUESTED);
                             // FIX: This conditional is redundat as the same 
                             // condition has been tested at the beginning.
-                            if (nextHopIPAddress != null) {
+                            if (nextHopIPAddress != TIPv4Address.UNSPECIFIED) {
                                 TTLDPPDU tldpPacket = null;
                                 try {
                                     tldpPacket = new TTLDPPDU(this.gIdent.getNextIdentifier(), localIPAddress, nextHopIPAddress);
@@ -1763,8 +1890,12 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                                     if (outgoingPort != null) {
                                         outgoingPort.putPacketOnLink(tldpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                                         try {
-                                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
-                                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
+                                            }
+                                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                                            }
                                         } catch (Exception e) {
                                             // FIX: this is ugly. Avoid.
                                             e.printStackTrace();
@@ -1792,10 +1923,10 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
     public void sendTLDPWithdrawal(TSwitchingMatrixEntry switchingMatrixEntry, int portID) {
         if (switchingMatrixEntry != null) {
             switchingMatrixEntry.setOutgoingLabel(TSwitchingMatrixEntry.REMOVING_LABEL);
-            String localIPv4Address = this.getIPv4Address();
-            String tailEndIPv4Address = switchingMatrixEntry.getTailEndIPv4Address();
-            String nextHopIPv4Address = this.ports.getIPv4OfNodeLinkedTo(portID);
-            if (nextHopIPv4Address != null) {
+            int localIPv4Address = this.getIPv4Address();
+            int tailEndIPv4Address = switchingMatrixEntry.getTailEndIPv4Address();
+            int nextHopIPv4Address = this.ports.getIPv4OfNodeLinkedTo(portID);
+            if (nextHopIPv4Address != TIPv4Address.UNSPECIFIED) {
                 TTLDPPDU tldpPacket = null;
                 try {
                     tldpPacket = new TTLDPPDU(this.gIdent.getNextIdentifier(), localIPv4Address, nextHopIPv4Address);
@@ -1824,8 +1955,12 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                     if (outgoingPort != null) {
                         outgoingPort.putPacketOnLink(tldpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
+                            }
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: this is ugly. Avoid.
                             e.printStackTrace();
@@ -1847,10 +1982,10 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
      */
     public void requestTLDPAfterTimeout(TSwitchingMatrixEntry switchingMatrixEntry) {
         if (switchingMatrixEntry != null) {
-            String localIPv4Address = this.getIPv4Address();
-            String tailEndIPv4Address = switchingMatrixEntry.getTailEndIPv4Address();
-            String nextHopIPv4Address = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getOutgoingPortID());
-            if (nextHopIPv4Address != null) {
+            int localIPv4Address = this.getIPv4Address();
+            int tailEndIPv4Address = switchingMatrixEntry.getTailEndIPv4Address();
+            int nextHopIPv4Address = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getOutgoingPortID());
+            if (nextHopIPv4Address != TIPv4Address.UNSPECIFIED) {
                 TTLDPPDU tldpPacket = null;
                 try {
                     tldpPacket = new TTLDPPDU(this.gIdent.getNextIdentifier(), localIPv4Address, nextHopIPv4Address);
@@ -1876,8 +2011,12 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
                     if (outgoingPort != null) {
                         outgoingPort.putPacketOnLink(tldpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
+                            }
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: this is ugly. Avoid.
                             e.printStackTrace();
@@ -1972,9 +2111,9 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
         TSwitchingMatrixEntry switchingMatrixEntry = null;
         int predecessorTLDPID = tldpPacket.getTLDPPayload().getTLDPIdentifier();
         TPort incomingPort = this.ports.getPort(incomingPortID);
-        String tailEndIPv4Address = tldpPacket.getTLDPPayload().getTailEndIPAddress();
-        String nextHopIPv4Address = this.topology.getRABANNextHopIPv4Address(this.getIPv4Address(), tailEndIPv4Address);
-        if (nextHopIPv4Address != null) {
+        int tailEndIPv4Address = tldpPacket.getTLDPPayload().getTailEndIPAddress();
+        int nextHopIPv4Address = this.topology.getRABANNextHopIPv4Address(this.getIPv4Address(), tailEndIPv4Address);
+        if (nextHopIPv4Address != TIPv4Address.UNSPECIFIED) {
             TPort outgoingPort = this.ports.getLocalPortConnectedToANodeWithIPv4Address(nextHopIPv4Address);
             int incomingLink = TLink.EXTERNAL_LINK;
             int outgoingLink = TLink.INTERNAL_LINK;
@@ -2038,10 +2177,10 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
      */
     public TSwitchingMatrixEntry createInitialEntryInFECMatrix(TIPv4PDU ipv4Packet, int incomingPortID) {
         TSwitchingMatrixEntry switchingMatrixEntry = null;
-        String localIPv4Address = this.getIPv4Address();
-        String tailEndIPv4Address = ipv4Packet.getIPv4Header().getTailEndIPAddress();
-        String outgoingPortID = this.topology.getRABANNextHopIPv4Address(localIPv4Address, tailEndIPv4Address);
-        if (outgoingPortID != null) {
+        int localIPv4Address = this.getIPv4Address();
+        int tailEndIPv4Address = ipv4Packet.getIPv4Header().getTailEndIPAddress();
+        int outgoingPortID = this.topology.getRABANNextHopIPv4Address(localIPv4Address, tailEndIPv4Address);
+        if (outgoingPortID != TIPv4Address.UNSPECIFIED) {
             TPort incomingPort = this.ports.getPort(incomingPortID);
             TPort outgoingPort = this.ports.getLocalPortConnectedToANodeWithIPv4Address(outgoingPortID);
             int incomingLink = TLink.EXTERNAL_LINK;
@@ -2102,10 +2241,10 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
      */
     public TSwitchingMatrixEntry createInitialEntryInILMMatrix(TMPLSPDU mplsPacket, int incomingPortID) {
         TSwitchingMatrixEntry switchingMatrixEntry = null;
-        String localIPv4Address = this.getIPv4Address();
-        String tailEndIPv4Address = mplsPacket.getIPv4Header().getTailEndIPAddress();
-        String nextHopIPv4Address = this.topology.getRABANNextHopIPv4Address(localIPv4Address, tailEndIPv4Address);
-        if (nextHopIPv4Address != null) {
+        int localIPv4Address = this.getIPv4Address();
+        int tailEndIPv4Address = mplsPacket.getIPv4Header().getTailEndIPAddress();
+        int nextHopIPv4Address = this.topology.getRABANNextHopIPv4Address(localIPv4Address, tailEndIPv4Address);
+        if (nextHopIPv4Address != TIPv4Address.UNSPECIFIED) {
             TPort incomingPort = this.ports.getPort(incomingPortID);
             TPort outgoingPort = this.ports.getLocalPortConnectedToANodeWithIPv4Address(nextHopIPv4Address);
             int incomingLink = TLink.EXTERNAL_LINK;
@@ -2194,7 +2333,9 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
         mplsPacket.getLabelStack().pushTop(mplsLabel);
         ipv4Packet = null;
         try {
-            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), mplsPacket.getSubtype(), mplsPacket.getSize()));
+            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), mplsPacket.getSubtype(), mplsPacket.getSize()));
+            }
         } catch (Exception e) {
             // FIX: this is ugly. Avoid.
             e.printStackTrace();
@@ -2234,7 +2375,9 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
             ipv4Packet.setSubtype(TAbstractPDU.IPV4_GOS);
         }
         try {
-            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), ipv4Packet.getSubtype(), ipv4Packet.getSize()));
+            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), ipv4Packet.getSubtype(), ipv4Packet.getSize()));
+            }
         } catch (Exception e) {
             // FIX: this is ugly. Avoid.
             e.printStackTrace();
@@ -2272,7 +2415,9 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
     @Override
     public void discardPacket(TAbstractPDU packet) {
         try {
-            this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_DISCARDED)) {
+                this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+            }
             this.stats.addStatEntry(packet, TStats.BEING_DISCARDED);
         } catch (Exception e) {
             // FIX: this is ugly. Avoid.
@@ -2284,10 +2429,9 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
     /**
      * This method gets an incoming packet as a parameter and classifies it.
      * This means that the node determines the FEC_ENTRY to wich the packet has
-     * to be associated. This values is computed as a hash of the concatenation
-     * of the origin and the target IP address. In practice, this means that
-     * packets having the same origin and target IP addresses have the same
-     * FEC_ENTRY.
+     * to be associated. This values is computed as a hash of the origin and
+     * the target IP address. In practice, this means that packets having the
+     * same origin and target IP addresses have the same FEC_ENTRY.
      *
      * @param incomingPacket the incoming packet to be classified.
      * @return The computed FEC_ENTRY to wich de incoming packet has to be
@@ -2296,13 +2440,9 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      */
     public int classifyPacket(TAbstractPDU incomingPacket) {
-        String originIPv4Address = incomingPacket.getIPv4Header().getOriginIPv4Address();
-        String tailEndIPv4Address = incomingPacket.getIPv4Header().getTailEndIPAddress();
-        String FECString = originIPv4Address + tailEndIPv4Address;
-        // FIX: According to Java documentation, hashCode() does not have a 
-        // constistent behaviour between different executions; should be changed
-        // and use a persistent mechanism.
-        return FECString.hashCode();
+        int originIPv4Address = incomingPacket.getIPv4Header().getOriginIPv4Address();
+        int tailEndIPv4Address = incomingPacket.getIPv4Header().getTailEndIPAddress();
+        return (FEC_HASH_MULTIPLIER * originIPv4Address) + tailEndIPv4Address;
     }
 
     /**
@@ -2361,7 +2501,7 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
      * @since 2.0
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      */
-    public boolean isExitActiveLER(String targetIPAddress) {
+    public boolean isExitActiveLER(int targetIPAddress) {
         TPort portAux = this.ports.getLocalPortConnectedToANodeWithIPv4Address(targetIPAddress);
         if (portAux != null) {
             if (portAux.getLink().getLinkType() == TLink.EXTERNAL_LINK) {
@@ -2480,7 +2620,7 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
         serializedElement += "#";
         serializedElement += this.getName().replace('#', ' ');
         serializedElement += "#";
-        serializedElement += this.getIPv4Address();
+        serializedElement += TIPv4Address.toString(this.getIPv4Address());
         serializedElement += "#";
         serializedElement += this.isSelected();
         serializedElement += "#";
@@ -2522,7 +2662,7 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
         }
         this.setNodeID(Integer.parseInt(elementFields[2]));
         this.setName(elementFields[3]);
-        this.setIPv4Address(elementFields[4]);
+        this.setIPv4Address(TIPv4Address.fromString(elementFields[4]));
         this.setSelected(Integer.parseInt(elementFields[5]));
         this.setShowName(Boolean.parseBoolean(elementFields[6]));
         this.setGenerateStats(Boolean.parseBoolean(elementFields[7]));
@@ -2566,6 +2706,10 @@ public class TActiveLERNode extends TNode implements ITimerEventListener, Runnab
     public static final int NAME_ALREADY_EXISTS = 2;
     public static final int ONLY_BLANK_SPACES = 3;
 
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final int FEC_HASH_MULTIPLIER = 31;
+
     private TSwitchingMatrix switchingMatrix;
     private TLongIDGenerator gIdent;
     private TIDGenerator gIdentLDP;
@@ -18,10 +18,9 @@ package com.manolodominguez.opensimmpls.scenario;
 import com.manolodominguez.opensimmpls.protocols.TGPSRPPDU;
 import com.manolodominguez.opensimmpls.protocols.TGPSRPPayload;
 import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
+import java.util.concurrent.atomic.LongAdder;
 import org.jfree.data.category.DefaultCategoryDataset;
 import org.jfree.data.general.AbstractDataset;
-import org.jfree.data.xy.XYSeries;
-import org.jfree.data.xy.XYSeriesCollection;
 
 /**
  * This class implements a statistics collector for an active LER.
@@ -39,83 +38,53 @@ public class TActiveLERStats extends TStats {
      * @since 2.0
      */
     public TActiveLERStats() {
-        this.incomingPackets = new XYSeriesCollection();
-        this.outgoingPackets = new XYSeriesCollection();
-        this.discardedPackets = new XYSeriesCollection();
-        this.outgoingIPv4Packets = new XYSeries(TStats.IPV4);
-        this.outgoingIPv4GOS1Packets = new XYSeries(TStats.IPV4_GOS1);
-        this.outgoingIPv4GOS2Packets = new XYSeries(TStats.IPV4_GOS2);
-        this.outgoingIPv4GOS3Packets = new XYSeries(TStats.IPV4_GOS3);
-        this.outgoingMPLSPackets = new XYSeries(TStats.MPLS);
-        this.outgoingMPLSGOS1Packets = new XYSeries(TStats.MPLS_GOS1);
-        this.outgoingMPLSGOS2Packets = new XYSeries(TStats.MPLS_GOS2);
-        this.outgoingMPLSGOS3Packets = new XYSeries(TStats.MPLS_GOS3);
-        this.outgoingTLDPPackets = new XYSeries(TStats.TLDP);
-        this.outgoingGPSRPPackets = new XYSeries(TStats.GPSRP);
-        this.incomingIPv4Packets = new XYSeries(TStats.IPV4);
-        this.incomingIPv4GOS1Packets = new XYSeries(TStats.IPV4_GOS1);
-        this.incomingIPv4GOS2Packets = new XYSeries(TStats.IPV4_GOS2);
-        this.incomingIPv4GOS3Packets = new XYSeries(TStats.IPV4_GOS3);
-        this.incomingMPLSPackets = new XYSeries(TStats.MPLS);
-        this.incomingMPLSGOS1Packets = new XYSeries(TStats.MPLS_GOS1);
-        this.incomingMPLSGOS2Packets = new XYSeries(TStats.MPLS_GOS2);
-        this.incomingMPLSGOS3Packets = new XYSeries(TStats.MPLS_GOS3);
-        this.incomingTLDPPackets = new XYSeries(TStats.TLDP);
-        this.incomingGPSRPPackets = new XYSeries(TStats.GPSRP);
-        this.discardedIPv4Packets = new XYSeries(TStats.IPV4);
-        this.discardedIPv4GOS1Packets = new XYSeries(TStats.IPV4_GOS1);
-        this.discardedIPv4GOS2Packets = new XYSeries(TStats.IPV4_GOS2);
-        this.discardedIPv4GOS3Packets = new XYSeries(TStats.IPV4_GOS3);
-        this.discardedMPLSPackets = new XYSeries(TStats.MPLS);
-        this.discardedMPLSGOS1Packets = new XYSeries(TStats.MPLS_GOS1);
-        this.discardedMPLSGOS2Packets = new XYSeries(TStats.MPLS_GOS2);
-        this.discardedMPLSGOS3Packets = new XYSeries(TStats.MPLS_GOS3);
-        this.discardedTLDPPackets = new XYSeries(TStats.TLDP);
-        this.discardedGPSRPPackets = new XYSeries(TStats.GPSRP);
+        this.incomingPackets = new TStatsSeriesCollection();
+        this.outgoingPackets = new TStatsSeriesCollection();
+        this.discardedPackets = new TStatsSeriesCollection();
+        this.outgoingIPv4Packets = new TStatsSeries(TStats.IPV4);
+        this.outgoingIPv4GOS1Packets = new TStatsSeries(TStats.IPV4_GOS1);
+        this.outgoingIPv4GOS2Packets = new TStatsSeries(TStats.IPV4_GOS2);
+        this.outgoingIPv4GOS3Packets = new TStatsSeries(TStats.IPV4_GOS3);
+        this.outgoingMPLSPackets = new TStatsSeries(TStats.MPLS);
+        this.outgoingMPLSGOS1Packets = new TStatsSeries(TStats.MPLS_GOS1);
+        this.outgoingMPLSGOS2Packets = new TStatsSeries(TStats.MPLS_GOS2);
+        this.outgoingMPLSGOS3Packets = new TStatsSeries(TStats.MPLS_GOS3);
+        this.outgoingTLDPPackets = new TStatsSeries(TStats.TLDP);
+        this.outgoingGPSRPPackets = new TStatsSeries(TStats.GPSRP);
+        this.incomingIPv4Packets = new TStatsSeries(TStats.IPV4);
+        this.incomingIPv4GOS1Packets = new TStatsSeries(TStats.IPV4_GOS1);
+        this.incomingIPv4GOS2Packets = new TStatsSeries(TStats.IPV4_GOS2);
+        this.incomingIPv4GOS3Packets = new TStatsSeries(TStats.IPV4_GOS3);
+        this.incomingMPLSPackets = new TStatsSeries(TStats.MPLS);
+        this.incomingMPLSGOS1Packets = new TStatsSeries(TStats.MPLS_GOS1);
+        this.incomingMPLSGOS2Packets = new TStatsSeries(TStats.MPLS_GOS2);
+        this.incomingMPLSGOS3Packets = new TStatsSeries(TStats.MPLS_GOS3);
+        this.incomingTLDPPackets = new TStatsSeries(TStats.TLDP);
+        this.incomingGPSRPPackets = new TStatsSeries(TStats.GPSRP);
+        this.discardedIPv4Packets = new TStatsSeries(TStats.IPV4);
+        this.discardedIPv4GOS1Packets = new TStatsSeries(TStats.IPV4_GOS1);
+        this.discardedIPv4GOS2Packets = new TStatsSeries(TStats.IPV4_GOS2);
+        this.discardedIPv4GOS3Packets = new TStatsSeries(TStats.IPV4_GOS3);
+        this.discardedMPLSPackets = new TStatsSeries(TStats.MPLS);
+        this.discardedMPLSGOS1Packets = new TStatsSeries(TStats.MPLS_GOS1);
+        this.discardedMPLSGOS2Packets = new TStatsSeries(TStats.MPLS_GOS2);
+        this.discardedMPLSGOS3Packets = new TStatsSeries(TStats.MPLS_GOS3);
+        this.discardedTLDPPackets = new TStatsSeries(TStats.TLDP);
+        this.discardedGPSRPPackets = new TStatsSeries(TStats.GPSRP);
         // Temporary data to be consolidated -----------
-        // FIX: Do use class constants instead of hardcoded values.
-        this.incomingIPv4PacketsOfThisTimeInstant = 0;
-        this.incomingIPv4GOS1PacketsOfThisTimeInstant = 0;
-        this.incomingIPv4GOS2PacketsOfThisTimeInstant = 0;
-        this.incomingIPv4GOS3PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSPacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS1PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS2PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS3PacketsOfThisTimeInstant = 0;
-        this.incomingTLDPPacketsOfThisTimeInstant = 0;
-        this.incomingGPSRPPacketsOfThisTimeInstant = 0;
-        this.outgoingIPv4PacketsOfThisTimeInstant = 0;
-        this.outgoingIPv4GOS1PacketsOfThisTimeInstant = 0;
-        this.outgoingIPv4GOS2PacketsOfThisTimeInstant = 0;
-        this.outgoingIPv4GOS3PacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSPacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSGOS1PacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSGOS2PacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSGOS3PacketsOfThisTimeInstant = 0;
-        this.outgoingTLDPPacketsOfThisTimeInstant = 0;
-        this.outgoingGPSRPPacketsOfThisTimeInstant = 0;
-        this.discardedIPv4PacketsOfThisTimeInstant = 0;
-        this.discardedIPv4GOS1PacketsOfThisTimeInstant = 0;
-        this.discardedIPv4GOS2PacketsOfThisTimeInstant = 0;
-        this.discardedIPv4GOS3PacketsOfThisTimeInstant = 0;
-        this.discardedMPLSPacketsOfThisTimeInstant = 0;
-        this.discardedMPLSGOS1PacketsOfThisTimeInstant = 0;
-        this.discardedMPLSGOS2PacketsOfThisTimeInstant = 0;
-        this.discardedMPLSGOS3PacketsOfThisTimeInstant = 0;
-        this.discardedTLDPPacketsOfThisTimeInstant = 0;
-        this.discardedGPSRPPacketsOfThisTimeInstant = 0;
+        this.counters = new TStatsCounters();
         // ------------------------------------------
         // FIX: Do use class constants instead of hardcoded values.
         this.retransmissionsManaged = new DefaultCategoryDataset();
-        this.retransmissionRequestsReceived = 0;
-        this.retransmissionsRealized = 0;
-        this.retransmisionsUnrealized = 0;
+        this.retransmissionRequestsReceived = new LongAdder();
+        this.retransmissionsRealized = new LongAdder();
+        this.retransmisionsUnrealized = new LongAdder();
         // FIX: Do use class constants instead of hardcoded values.
         this.localRecoveriesManaged = new DefaultCategoryDataset();
-        this.GOSPacketsLost = 0;
-        this.retransmissionRequestsSent = 0;
-        this.GOSPacketsRecovered = 0;
-        this.GOSPacketsUnrecovered = 0;
+        this.GOSPacketsLost = new LongAdder();
+        this.retransmissionRequestsSent = new LongAdder();
+        this.GOSPacketsRecovered = new LongAdder();
+        this.GOSPacketsUnrecovered = new LongAdder();
     }
 
     /**
@@ -131,7 +100,7 @@ public class TActiveLERStats extends TStats {
      */
     @Override
     public AbstractDataset getDataset1() {
-        return this.incomingPackets;
+        return this.incomingPackets.getDataset();
     }
 
     /**
@@ -147,7 +116,7 @@ public class TActiveLERStats extends TStats {
      */
     @Override
     public AbstractDataset getDataset2() {
-        return this.outgoingPackets;
+        return this.outgoingPackets.getDataset();
     }
 
     /**
@@ -163,7 +132,7 @@ public class TActiveLERStats extends TStats {
      */
     @Override
     public AbstractDataset getDataset3() {
-        return this.discardedPackets;
+        return this.discardedPackets.getDataset();
     }
 
     /**
@@ -229,143 +198,32 @@ public class TActiveLERStats extends TStats {
     @Override
     public void addStatEntry(TAbstractPDU packet, int entryType) {
         if (this.statsEnabled) {
-            int packetType = packet.getSubtype();
-            // FIX: Do use class constants instead of hardcoded values.
-            int GOSLevel = 0;
-            // FIX: Use switch statement instead of such amount of nested ifs.
-            if (packetType == TAbstractPDU.TLDP) {
-                if (entryType == TStats.OUTGOING) {
-                    this.outgoingTLDPPacketsOfThisTimeInstant++;
-                } else if (entryType == TStats.BEING_DISCARDED) {
-                    this.discardedTLDPPacketsOfThisTimeInstant++;
-                } else if (entryType == TStats.INCOMING) {
-                    this.incomingTLDPPacketsOfThisTimeInstant++;
-                }
-            } else if (packetType == TAbstractPDU.GPSRP) {
+            this.counters.increment(entryType, TStatsCounters.getCategory(packet));
+            if (packet.getSubtype() == TAbstractPDU.GPSRP) {
                 TGPSRPPDU GPSRPPacket = (TGPSRPPDU) packet;
                 int messageType = GPSRPPacket.getGPSRPPayload().getGPSRPMessageType();
                 // FIX: Use switch statement instead of such amount of nested ifs.
                 if (messageType == TGPSRPPayload.RETRANSMISSION_REQUEST) {
-                    // Use switch statement instead of such amount of nested ifs.
                     if (entryType == TStats.OUTGOING) {
-                        this.outgoingGPSRPPacketsOfThisTimeInstant++;
-                        this.retransmissionRequestsSent++;
-                    } else if (entryType == TStats.BEING_DISCARDED) {
-                        this.discardedGPSRPPacketsOfThisTimeInstant++;
+                        this.retransmissionRequestsSent.increment();
                     } else if (entryType == TStats.INCOMING) {
-                        this.incomingGPSRPPacketsOfThisTimeInstant++;
-                        this.retransmissionRequestsReceived++;
+                        this.retransmissionRequestsReceived.increment();
                     }
                 } else if (messageType == TGPSRPPayload.RETRANSMISION_NOT_POSSIBLE) {
-                    // FIX: Use switch statement instead of such amount of nested ifs.
                     if (entryType == TStats.OUTGOING) {
-                        this.outgoingGPSRPPacketsOfThisTimeInstant++;
-                        this.retransmisionsUnrealized++;
-                    } else if (entryType == TStats.BEING_DISCARDED) {
-                        this.discardedGPSRPPacketsOfThisTimeInstant++;
+                        this.retransmisionsUnrealized.increment();
                     } else if (entryType == TStats.INCOMING) {
-                        this.incomingGPSRPPacketsOfThisTimeInstant++;
-                        this.GOSPacketsUnrecovered++;
+                        this.GOSPacketsUnrecovered.increment();
                     }
                 } else if (messageType == TGPSRPPayload.RETRANSMISION_OK) {
-                    // FIX: Use switch statement instead of such amount of nested ifs.
                     if (entryType == TStats.OUTGOING) {
-                        this.outgoingGPSRPPacketsOfThisTimeInstant++;
-                        this.retransmissionsRealized++;
-                    } else if (entryType == TStats.BEING_DISCARDED) {
-                        this.discardedGPSRPPacketsOfThisTimeInstant++;
+                        this.retransmissionsRealized.increment();
                     } else if (entryType == TStats.INCOMING) {
-                        this.incomingGPSRPPacketsOfThisTimeInstant++;
-                        this.GOSPacketsRecovered++;
-                    }
-                }
-            } else if (packetType == TAbstractPDU.MPLS) {
-                // FIX: Use switch statement instead of such amount of nested ifs.
-                if (entryType == TStats.OUTGOING) {
-                    this.outgoingMPLSPacketsOfThisTimeInstant++;
-                } else if (entryType == TStats.BEING_DISCARDED) {
-                    this.discardedMPLSPacketsOfThisTimeInstant++;
-                } else if (entryType == TStats.INCOMING) {
-                    this.incomingMPLSPacketsOfThisTimeInstant++;
-                }
-            } else if (packetType == TAbstractPDU.MPLS_GOS) {
-                GOSLevel = packet.getIPv4Header().getOptionsField().getRequestedGoSLevel();
-                // FIX: Use switch statement instead of such amount of nested ifs.
-                if (entryType == TStats.OUTGOING) {
-                    if ((GOSLevel == TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL0_WITH_BACKUP_LSP)) {
-                        this.outgoingMPLSPacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL1_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL1_WITH_BACKUP_LSP)) {
-                        this.outgoingMPLSGOS1PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL2_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL2_WITH_BACKUP_LSP)) {
-                        this.outgoingMPLSGOS2PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL3_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP)) {
-                        this.outgoingMPLSGOS3PacketsOfThisTimeInstant++;
-                    }
-                } else if (entryType == TStats.BEING_DISCARDED) {
-                    this.GOSPacketsLost++;
-                    if ((GOSLevel == TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL0_WITH_BACKUP_LSP)) {
-                        this.discardedMPLSPacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL1_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL1_WITH_BACKUP_LSP)) {
-                        this.discardedMPLSGOS1PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL2_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL2_WITH_BACKUP_LSP)) {
-                        this.discardedMPLSGOS2PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL3_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP)) {
-                        this.discardedMPLSGOS3PacketsOfThisTimeInstant++;
-                    }
-                } else if (entryType == TStats.INCOMING) {
-                    if ((GOSLevel == TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL0_WITH_BACKUP_LSP)) {
-                        this.incomingMPLSPacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL1_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL1_WITH_BACKUP_LSP)) {
-                        this.incomingMPLSGOS1PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL2_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL2_WITH_BACKUP_LSP)) {
-                        this.incomingMPLSGOS2PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL3_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP)) {
-                        this.incomingMPLSGOS3PacketsOfThisTimeInstant++;
-                    }
-                }
-            } else if (packetType == TAbstractPDU.IPV4) {
-                // FIX: Use switch statement instead of such amount of nested ifs.
-                if (entryType == TStats.OUTGOING) {
-                    this.outgoingIPv4PacketsOfThisTimeInstant++;
-                } else if (entryType == TStats.BEING_DISCARDED) {
-                    this.discardedIPv4PacketsOfThisTimeInstant++;
-                } else if (entryType == TStats.INCOMING) {
-                    this.incomingIPv4PacketsOfThisTimeInstant++;
-                }
-            } else if (packetType == TAbstractPDU.IPV4_GOS) {
-                GOSLevel = packet.getIPv4Header().getOptionsField().getRequestedGoSLevel();
-                // FIX: Use switch statement instead of such amount of nested ifs.
-                if (entryType == TStats.OUTGOING) {
-                    if ((GOSLevel == TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL0_WITH_BACKUP_LSP)) {
-                        this.outgoingIPv4PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL1_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL1_WITH_BACKUP_LSP)) {
-                        this.outgoingIPv4GOS1PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL2_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL2_WITH_BACKUP_LSP)) {
-                        this.outgoingIPv4GOS2PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL3_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP)) {
-                        this.outgoingIPv4GOS3PacketsOfThisTimeInstant++;
-                    }
-                } else if (entryType == TStats.BEING_DISCARDED) {
-                    if ((GOSLevel == TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL0_WITH_BACKUP_LSP)) {
-                        this.discardedIPv4PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL1_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL1_WITH_BACKUP_LSP)) {
-                        this.discardedIPv4GOS1PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL2_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL2_WITH_BACKUP_LSP)) {
-                        this.discardedIPv4GOS2PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL3_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP)) {
-                        this.discardedIPv4GOS3PacketsOfThisTimeInstant++;
-                    }
-                } else if (entryType == TStats.INCOMING) {
-                    if ((GOSLevel == TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL0_WITH_BACKUP_LSP)) {
-                        this.incomingIPv4PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL1_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL1_WITH_BACKUP_LSP)) {
-                        this.incomingIPv4GOS1PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL2_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL2_WITH_BACKUP_LSP)) {
-                        this.incomingIPv4GOS2PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL3_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP)) {
-                        this.incomingIPv4GOS3PacketsOfThisTimeInstant++;
+                        this.GOSPacketsRecovered.increment();
                     }
                 }
+            } else if ((packet.getSubtype() == TAbstractPDU.MPLS_GOS) && (entryType == TStats.BEING_DISCARDED)) {
+                this.GOSPacketsLost.increment();
             }
         }
     }
@@ -393,81 +251,49 @@ public class TActiveLERStats extends TStats {
      */
     @Override
     public void reset() {
-        this.incomingPackets = new XYSeriesCollection();
-        this.outgoingPackets = new XYSeriesCollection();
-        this.discardedPackets = new XYSeriesCollection();
-        this.outgoingIPv4Packets = new XYSeries(TStats.IPV4);
-        this.outgoingIPv4GOS1Packets = new XYSeries(TStats.IPV4_GOS1);
-        this.outgoingIPv4GOS2Packets = new XYSeries(TStats.IPV4_GOS2);
-        this.outgoingIPv4GOS3Packets = new XYSeries(TStats.IPV4_GOS3);
-        this.outgoingMPLSPackets = new XYSeries(TStats.MPLS);
-        this.outgoingMPLSGOS1Packets = new XYSeries(TStats.MPLS_GOS1);
-        this.outgoingMPLSGOS2Packets = new XYSeries(TStats.MPLS_GOS2);
-        this.outgoingMPLSGOS3Packets = new XYSeries(TStats.MPLS_GOS3);
-        this.outgoingTLDPPackets = new XYSeries(TStats.TLDP);
-        this.outgoingGPSRPPackets = new XYSeries(TStats.GPSRP);
-        this.incomingIPv4Packets = new XYSeries(TStats.IPV4);
-        this.incomingIPv4GOS1Packets = new XYSeries(TStats.IPV4_GOS1);
-        this.incomingIPv4GOS2Packets = new XYSeries(TStats.IPV4_GOS2);
-        this.incomingIPv4GOS3Packets = new XYSeries(TStats.IPV4_GOS3);
-        this.incomingMPLSPackets = new XYSeries(TStats.MPLS);
-        this.incomingMPLSGOS1Packets = new XYSeries(TStats.MPLS_GOS1);
-        this.incomingMPLSGOS2Packets = new XYSeries(TStats.MPLS_GOS2);
-        this.incomingMPLSGOS3Packets = new XYSeries(TStats.MPLS_GOS3);
-        this.incomingTLDPPackets = new XYSeries(TStats.TLDP);
-        this.incomingGPSRPPackets = new XYSeries(TStats.GPSRP);
-        this.discardedIPv4Packets = new XYSeries(TStats.IPV4);
-        this.discardedIPv4GOS1Packets = new XYSeries(TStats.IPV4_GOS1);
-        this.discardedIPv4GOS2Packets = new XYSeries(TStats.IPV4_GOS2);
-        this.discardedIPv4GOS3Packets = new XYSeries(TStats.IPV4_GOS3);
-        this.discardedMPLSPackets = new XYSeries(TStats.MPLS);
-        this.discardedMPLSGOS1Packets = new XYSeries(TStats.MPLS_GOS1);
-        this.discardedMPLSGOS2Packets = new XYSeries(TStats.MPLS_GOS2);
-        this.discardedMPLSGOS3Packets = new XYSeries(TStats.MPLS_GOS3);
-        this.discardedTLDPPackets = new XYSeries(TStats.TLDP);
-        this.discardedGPSRPPackets = new XYSeries(TStats.GPSRP);
-        // FIX: do not use harcoded values. Use class constants instead.
-        this.incomingIPv4PacketsOfThisTimeInstant = 0;
-        this.incomingIPv4GOS1PacketsOfThisTimeInstant = 0;
-        this.incomingIPv4GOS2PacketsOfThisTimeInstant = 0;
-        this.incomingIPv4GOS3PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSPacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS1PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS2PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS3PacketsOfThisTimeInstant = 0;
-        this.incomingTLDPPacketsOfThisTimeInstant = 0;
-        this.incomingGPSRPPacketsOfThisTimeInstant = 0;
-        this.outgoingIPv4PacketsOfThisTimeInstant = 0;
-        this.outgoingIPv4GOS1PacketsOfThisTimeInstant = 0;
-        this.outgoingIPv4GOS2PacketsOfThisTimeInstant = 0;
-        this.outgoingIPv4GOS3PacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSPacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSGOS1PacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSGOS2PacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSGOS3PacketsOfThisTimeInstant = 0;
-        this.outgoingTLDPPacketsOfThisTimeInstant = 0;
-        this.outgoingGPSRPPacketsOfThisTimeInstant = 0;
-        this.discardedIPv4PacketsOfThisTimeInstant = 0;
-        this.discardedIPv4GOS1PacketsOfThisTimeInstant = 0;
-        this.discardedIPv4GOS2PacketsOfThisTimeInstant = 0;
-        this.discardedIPv4GOS3PacketsOfThisTimeInstant = 0;
-        this.discardedMPLSPacketsOfThisTimeInstant = 0;
-        this.discardedMPLSGOS1PacketsOfThisTimeInstant = 0;
-        this.discardedMPLSGOS2PacketsOfThisTimeInstant = 0;
-        this.discardedMPLSGOS3PacketsOfThisTimeInstant = 0;
-        this.discardedTLDPPacketsOfThisTimeInstant = 0;
-        this.discardedGPSRPPacketsOfThisTimeInstant = 0;
+        this.incomingPackets = new TStatsSeriesCollection();
+        this.outgoingPackets = new TStatsSeriesCollection();
+        this.discardedPackets = new TStatsSeriesCollection();
+        this.outgoingIPv4Packets = new TStatsSeries(TStats.IPV4);
+        this.outgoingIPv4GOS1Packets = new TStatsSeries(TStats.IPV4_GOS1);
+        this.outgoingIPv4GOS2Packets = new TStatsSeries(TStats.IPV4_GOS2);
+        this.outgoingIPv4GOS3Packets = new TStatsSeries(TStats.IPV4_GOS3);
+        this.outgoingMPLSPackets = new TStatsSeries(TStats.MPLS);
+        this.outgoingMPLSGOS1Packets = new TStatsSeries(TStats.MPLS_GOS1);
+        this.outgoingMPLSGOS2Packets = new TStatsSeries(TStats.MPLS_GOS2);
+        this.outgoingMPLSGOS3Packets = new TStatsSeries(TStats.MPLS_GOS3);
+        this.outgoingTLDPPackets = new TStatsSeries(TStats.TLDP);
+        this.outgoingGPSRPPackets = new TStatsSeries(TStats.GPSRP);
+        this.incomingIPv4Packets = new TStatsSeries(TStats.IPV4);
+        this.incomingIPv4GOS1Packets = new TStatsSeries(TStats.IPV4_GOS1);
+        this.incomingIPv4GOS2Packets = new TStatsSeries(TStats.IPV4_GOS2);
+        this.incomingIPv4GOS3Packets = new TStatsSeries(TStats.IPV4_GOS3);
+        this.incomingMPLSPackets = new TStatsSeries(TStats.MPLS);
+        this.incomingMPLSGOS1Packets = new TStatsSeries(TStats.MPLS_GOS1);
+        this.incomingMPLSGOS2Packets = new TStatsSeries(TStats.MPLS_GOS2);
+        this.incomingMPLSGOS3Packets = new TStatsSeries(TStats.MPLS_GOS3);
+        this.incomingTLDPPackets = new TStatsSeries(TStats.TLDP);
+        this.incomingGPSRPPackets = new TStatsSeries(TStats.GPSRP);
+        this.discardedIPv4Packets = new TStatsSeries(TStats.IPV4);
+        this.discardedIPv4GOS1Packets = new TStatsSeries(TStats.IPV4_GOS1);
+        this.discardedIPv4GOS2Packets = new TStatsSeries(TStats.IPV4_GOS2);
+        this.discardedIPv4GOS3Packets = new TStatsSeries(TStats.IPV4_GOS3);
+        this.discardedMPLSPackets = new TStatsSeries(TStats.MPLS);
+        this.discardedMPLSGOS1Packets = new TStatsSeries(TStats.MPLS_GOS1);
+        this.discardedMPLSGOS2Packets = new TStatsSeries(TStats.MPLS_GOS2);
+        this.discardedMPLSGOS3Packets = new TStatsSeries(TStats.MPLS_GOS3);
+        this.discardedTLDPPackets = new TStatsSeries(TStats.TLDP);
+        this.discardedGPSRPPackets = new TStatsSeries(TStats.GPSRP);
+        this.counters.reset();
         this.retransmissionsManaged = new DefaultCategoryDataset();
-        // FIX: do not use harcoded values. Use class constants instead.
-        this.retransmissionRequestsReceived = 0;
-        this.retransmissionsRealized = 0;
-        this.retransmisionsUnrealized = 0;
+        this.retransmissionRequestsReceived.reset();
+        this.retransmissionsRealized.reset();
+        this.retransmisionsUnrealized.reset();
         this.localRecoveriesManaged = new DefaultCategoryDataset();
-        // FIX: do not use harcoded values. Use class constants instead.
-        this.GOSPacketsLost = 0;
-        this.retransmissionRequestsSent = 0;
-        this.GOSPacketsRecovered = 0;
-        this.GOSPacketsUnrecovered = 0;
+        this.GOSPacketsLost.reset();
+        this.retransmissionRequestsSent.reset();
+        this.GOSPacketsRecovered.reset();
+        this.GOSPacketsUnrecovered.reset();
     }
 
     /**
@@ -485,410 +311,97 @@ public class TActiveLERStats extends TStats {
     @Override
     public void groupStatsByTimeInstant(long timeInstant) {
         if (this.statsEnabled) {
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.incomingIPv4PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.incomingIPv4Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingIPv4Packets.add(timeInstant - 1, 0);
-                    this.incomingIPv4Packets.add(timeInstant, this.incomingIPv4PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(this.incomingIPv4Packets);
-                } else {
-                    this.incomingIPv4Packets.add(timeInstant, this.incomingIPv4PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.incomingIPv4GOS1PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.incomingIPv4GOS1Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingIPv4GOS1Packets.add(timeInstant - 1, 0);
-                    this.incomingIPv4GOS1Packets.add(timeInstant, this.incomingIPv4GOS1PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(this.incomingIPv4GOS1Packets);
-                } else {
-                    this.incomingIPv4GOS1Packets.add(timeInstant, this.incomingIPv4GOS1PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.incomingIPv4GOS2PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.incomingIPv4GOS2Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingIPv4GOS2Packets.add(timeInstant - 1, 0);
-                    this.incomingIPv4GOS2Packets.add(timeInstant, this.incomingIPv4GOS2PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(this.incomingIPv4GOS2Packets);
-                } else {
-                    this.incomingIPv4GOS2Packets.add(timeInstant, this.incomingIPv4GOS2PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.incomingIPv4GOS3PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.incomingIPv4GOS3Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingIPv4GOS3Packets.add(timeInstant - 1, 0);
-                    this.incomingIPv4GOS3Packets.add(timeInstant, this.incomingIPv4GOS3PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(this.incomingIPv4GOS3Packets);
-                } else {
-                    this.incomingIPv4GOS3Packets.add(timeInstant, this.incomingIPv4GOS3PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.incomingMPLSPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.incomingMPLSPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingMPLSPackets.add(timeInstant - 1, 0);
-                    this.incomingMPLSPackets.add(timeInstant, this.incomingMPLSPacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(this.incomingMPLSPackets);
-                } else {
-                    this.incomingMPLSPackets.add(timeInstant, this.incomingMPLSPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.incomingMPLSGOS1PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.incomingMPLSGOS1Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingMPLSGOS1Packets.add(timeInstant - 1, 0);
-                    this.incomingMPLSGOS1Packets.add(timeInstant, this.incomingMPLSGOS1PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(this.incomingMPLSGOS1Packets);
-                } else {
-                    this.incomingMPLSGOS1Packets.add(timeInstant, this.incomingMPLSGOS1PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.incomingMPLSGOS2PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.incomingMPLSGOS2Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingMPLSGOS2Packets.add(timeInstant - 1, 0);
-                    this.incomingMPLSGOS2Packets.add(timeInstant, this.incomingMPLSGOS2PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(this.incomingMPLSGOS2Packets);
-                } else {
-                    this.incomingMPLSGOS2Packets.add(timeInstant, this.incomingMPLSGOS2PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.incomingMPLSGOS3PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.incomingMPLSGOS3Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingMPLSGOS3Packets.add(timeInstant - 1, 0);
-                    this.incomingMPLSGOS3Packets.add(timeInstant, this.incomingMPLSGOS3PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(this.incomingMPLSGOS3Packets);
-                } else {
-                    this.incomingMPLSGOS3Packets.add(timeInstant, this.incomingMPLSGOS3PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.incomingTLDPPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.incomingTLDPPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingTLDPPackets.add(timeInstant - 1, 0);
-                    this.incomingTLDPPackets.add(timeInstant, this.incomingTLDPPacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(this.incomingTLDPPackets);
-                } else {
-                    this.incomingTLDPPackets.add(timeInstant, this.incomingTLDPPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.incomingGPSRPPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.incomingGPSRPPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingGPSRPPackets.add(timeInstant - 1, 0);
-                    this.incomingGPSRPPackets.add(timeInstant, this.incomingGPSRPPacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(this.incomingGPSRPPackets);
-                } else {
-                    this.incomingGPSRPPackets.add(timeInstant, this.incomingGPSRPPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingIPv4PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingIPv4Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingIPv4Packets.add(timeInstant - 1, 0);
-                    this.outgoingIPv4Packets.add(timeInstant, this.outgoingIPv4PacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingIPv4Packets);
-                } else {
-                    this.outgoingIPv4Packets.add(timeInstant, this.outgoingIPv4PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingIPv4GOS1PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingIPv4GOS1Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingIPv4GOS1Packets.add(timeInstant - 1, 0);
-                    this.outgoingIPv4GOS1Packets.add(timeInstant, this.outgoingIPv4GOS1PacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingIPv4GOS1Packets);
-                } else {
-                    this.outgoingIPv4GOS1Packets.add(timeInstant, this.outgoingIPv4GOS1PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingIPv4GOS2PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingIPv4GOS2Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingIPv4GOS2Packets.add(timeInstant - 1, 0);
-                    this.outgoingIPv4GOS2Packets.add(timeInstant, this.outgoingIPv4GOS2PacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingIPv4GOS2Packets);
-                } else {
-                    this.outgoingIPv4GOS2Packets.add(timeInstant, this.outgoingIPv4GOS2PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingIPv4GOS3PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingIPv4GOS3Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingIPv4GOS3Packets.add(timeInstant - 1, 0);
-                    this.outgoingIPv4GOS3Packets.add(timeInstant, this.outgoingIPv4GOS3PacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingIPv4GOS3Packets);
-                } else {
-                    this.outgoingIPv4GOS3Packets.add(timeInstant, this.outgoingIPv4GOS3PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingMPLSPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingMPLSPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingMPLSPackets.add(timeInstant - 1, 0);
-                    this.outgoingMPLSPackets.add(timeInstant, this.outgoingMPLSPacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingMPLSPackets);
-                } else {
-                    this.outgoingMPLSPackets.add(timeInstant, this.outgoingMPLSPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingMPLSGOS1PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingMPLSGOS1Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingMPLSGOS1Packets.add(timeInstant - 1, 0);
-                    this.outgoingMPLSGOS1Packets.add(timeInstant, this.outgoingMPLSGOS1PacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingMPLSGOS1Packets);
-                } else {
-                    this.outgoingMPLSGOS1Packets.add(timeInstant, this.outgoingMPLSGOS1PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingMPLSGOS2PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingMPLSGOS2Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingMPLSGOS2Packets.add(timeInstant - 1, 0);
-                    this.outgoingMPLSGOS2Packets.add(timeInstant, this.outgoingMPLSGOS2PacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingMPLSGOS2Packets);
-                } else {
-                    this.outgoingMPLSGOS2Packets.add(timeInstant, this.outgoingMPLSGOS2PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingMPLSGOS3PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingMPLSGOS3Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingMPLSGOS3Packets.add(timeInstant - 1, 0);
-                    this.outgoingMPLSGOS3Packets.add(timeInstant, this.outgoingMPLSGOS3PacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingMPLSGOS3Packets);
-                } else {
-                    this.outgoingMPLSGOS3Packets.add(timeInstant, this.outgoingMPLSGOS3PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingTLDPPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingTLDPPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingTLDPPackets.add(timeInstant - 1, 0);
-                    this.outgoingTLDPPackets.add(timeInstant, this.outgoingTLDPPacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingTLDPPackets);
-                } else {
-                    this.outgoingTLDPPackets.add(timeInstant, this.outgoingTLDPPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingGPSRPPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingGPSRPPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingGPSRPPackets.add(timeInstant - 1, 0);
-                    this.outgoingGPSRPPackets.add(timeInstant, this.outgoingGPSRPPacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingGPSRPPackets);
-                } else {
-                    this.outgoingGPSRPPackets.add(timeInstant, this.outgoingGPSRPPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedIPv4PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedIPv4Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedIPv4Packets.add(timeInstant - 1, 0);
-                    this.discardedIPv4Packets.add(timeInstant, this.discardedIPv4PacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedIPv4Packets);
-                } else {
-                    this.discardedIPv4Packets.add(timeInstant, this.discardedIPv4PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedIPv4GOS1PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedIPv4GOS1Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedIPv4GOS1Packets.add(timeInstant - 1, 0);
-                    this.discardedIPv4GOS1Packets.add(timeInstant, this.discardedIPv4GOS1PacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedIPv4GOS1Packets);
-                } else {
-                    this.discardedIPv4GOS1Packets.add(timeInstant, this.discardedIPv4GOS1PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedIPv4GOS2PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedIPv4GOS2Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedIPv4GOS2Packets.add(timeInstant - 1, 0);
-                    this.discardedIPv4GOS2Packets.add(timeInstant, this.discardedIPv4GOS2PacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedIPv4GOS2Packets);
-                } else {
-                    this.discardedIPv4GOS2Packets.add(timeInstant, this.discardedIPv4GOS2PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedIPv4GOS3PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedIPv4GOS3Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedIPv4GOS3Packets.add(timeInstant - 1, 0);
-                    this.discardedIPv4GOS3Packets.add(timeInstant, this.discardedIPv4GOS3PacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedIPv4GOS3Packets);
-                } else {
-                    this.discardedIPv4GOS3Packets.add(timeInstant, this.discardedIPv4GOS3PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedMPLSPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedMPLSPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedMPLSPackets.add(timeInstant - 1, 0);
-                    this.discardedMPLSPackets.add(timeInstant, this.discardedMPLSPacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedMPLSPackets);
-                } else {
-                    this.discardedMPLSPackets.add(timeInstant, this.discardedMPLSPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedMPLSGOS1PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedMPLSGOS1Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedMPLSGOS1Packets.add(timeInstant - 1, 0);
-                    this.discardedMPLSGOS1Packets.add(timeInstant, this.discardedMPLSGOS1PacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedMPLSGOS1Packets);
-                } else {
-                    this.discardedMPLSGOS1Packets.add(timeInstant, this.discardedMPLSGOS1PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedMPLSGOS2PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedMPLSGOS2Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedMPLSGOS2Packets.add(timeInstant - 1, 0);
-                    this.discardedMPLSGOS2Packets.add(timeInstant, this.discardedMPLSGOS2PacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedMPLSGOS2Packets);
-                } else {
-                    this.discardedMPLSGOS2Packets.add(timeInstant, this.discardedMPLSGOS2PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedMPLSGOS3PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedMPLSGOS3Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedMPLSGOS3Packets.add(timeInstant - 1, 0);
-                    this.discardedMPLSGOS3Packets.add(timeInstant, this.discardedMPLSGOS3PacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedMPLSGOS3Packets);
-                } else {
-                    this.discardedMPLSGOS3Packets.add(timeInstant, this.discardedMPLSGOS3PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedTLDPPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedTLDPPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedTLDPPackets.add(timeInstant - 1, 0);
-                    this.discardedTLDPPackets.add(timeInstant, this.discardedTLDPPacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedTLDPPackets);
-                } else {
-                    this.discardedTLDPPackets.add(timeInstant, this.discardedTLDPPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedGPSRPPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedGPSRPPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedGPSRPPackets.add(timeInstant - 1, 0);
-                    this.discardedGPSRPPackets.add(timeInstant, this.discardedGPSRPPacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedGPSRPPackets);
-                } else {
-                    this.discardedGPSRPPackets.add(timeInstant, this.discardedGPSRPPacketsOfThisTimeInstant);
-                }
-            }
-
-            this.retransmissionsManaged.addValue(this.retransmissionRequestsReceived, TStats.RETRANSMISSION_REQUESTS_RECEIVED, "");
-            this.retransmissionsManaged.addValue(this.retransmissionsRealized, TStats.RETRANSMISSIONS_REALIZED, "");
-            this.retransmissionsManaged.addValue(this.retransmisionsUnrealized, TStats.RETRANSMISSIONS_UNREALIZED, "");
-            this.localRecoveriesManaged.addValue(this.GOSPacketsLost, TStats.GOS_PACKETS_LOST, "");
-            this.localRecoveriesManaged.addValue(this.retransmissionRequestsSent, TStats.RETRANSMISSION_REQUESTS_SENT, "");
-            this.localRecoveriesManaged.addValue(this.GOSPacketsRecovered, TStats.GOS_PACKETS_RECOVERED, "");
-            this.localRecoveriesManaged.addValue(this.GOSPacketsUnrecovered, TStats.GOS_PACKETS_UNRECOVERED, "");
-            int retransmissionRequestsStillUnanswered = (this.retransmissionRequestsSent - this.GOSPacketsRecovered - this.GOSPacketsUnrecovered);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.INCOMING, TStatsCounters.IPV4), this.incomingIPv4Packets, this.incomingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.INCOMING, TStatsCounters.IPV4_GOS1), this.incomingIPv4GOS1Packets, this.incomingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.INCOMING, TStatsCounters.IPV4_GOS2), this.incomingIPv4GOS2Packets, this.incomingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.INCOMING, TStatsCounters.IPV4_GOS3), this.incomingIPv4GOS3Packets, this.incomingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.INCOMING, TStatsCounters.MPLS), this.incomingMPLSPackets, this.incomingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.INCOMING, TStatsCounters.MPLS_GOS1), this.incomingMPLSGOS1Packets, this.incomingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.INCOMING, TStatsCounters.MPLS_GOS2), this.incomingMPLSGOS2Packets, this.incomingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.INCOMING, TStatsCounters.MPLS_GOS3), this.incomingMPLSGOS3Packets, this.incomingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.INCOMING, TStatsCounters.TLDP), this.incomingTLDPPackets, this.incomingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.INCOMING, TStatsCounters.GPSRP), this.incomingGPSRPPackets, this.incomingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.OUTGOING, TStatsCounters.IPV4), this.outgoingIPv4Packets, this.outgoingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.OUTGOING, TStatsCounters.IPV4_GOS1), this.outgoingIPv4GOS1Packets, this.outgoingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.OUTGOING, TStatsCounters.IPV4_GOS2), this.outgoingIPv4GOS2Packets, this.outgoingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.OUTGOING, TStatsCounters.IPV4_GOS3), this.outgoingIPv4GOS3Packets, this.outgoingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.OUTGOING, TStatsCounters.MPLS), this.outgoingMPLSPackets, this.outgoingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.OUTGOING, TStatsCounters.MPLS_GOS1), this.outgoingMPLSGOS1Packets, this.outgoingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.OUTGOING, TStatsCounters.MPLS_GOS2), this.outgoingMPLSGOS2Packets, this.outgoingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.OUTGOING, TStatsCounters.MPLS_GOS3), this.outgoingMPLSGOS3Packets, this.outgoingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.OUTGOING, TStatsCounters.TLDP), this.outgoingTLDPPackets, this.outgoingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.OUTGOING, TStatsCounters.GPSRP), this.outgoingGPSRPPackets, this.outgoingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.BEING_DISCARDED, TStatsCounters.IPV4), this.discardedIPv4Packets, this.discardedPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.BEING_DISCARDED, TStatsCounters.IPV4_GOS1), this.discardedIPv4GOS1Packets, this.discardedPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.BEING_DISCARDED, TStatsCounters.IPV4_GOS2), this.discardedIPv4GOS2Packets, this.discardedPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.BEING_DISCARDED, TStatsCounters.IPV4_GOS3), this.discardedIPv4GOS3Packets, this.discardedPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.BEING_DISCARDED, TStatsCounters.MPLS), this.discardedMPLSPackets, this.discardedPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.BEING_DISCARDED, TStatsCounters.MPLS_GOS1), this.discardedMPLSGOS1Packets, this.discardedPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.BEING_DISCARDED, TStatsCounters.MPLS_GOS2), this.discardedMPLSGOS2Packets, this.discardedPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.BEING_DISCARDED, TStatsCounters.MPLS_GOS3), this.discardedMPLSGOS3Packets, this.discardedPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.BEING_DISCARDED, TStatsCounters.TLDP), this.discardedTLDPPackets, this.discardedPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.BEING_DISCARDED, TStatsCounters.GPSRP), this.discardedGPSRPPackets, this.discardedPackets);
+
+            this.retransmissionsManaged.addValue(this.retransmissionRequestsReceived.sum(), TStats.RETRANSMISSION_REQUESTS_RECEIVED, "");
+            this.retransmissionsManaged.addValue(this.retransmissionsRealized.sum(), TStats.RETRANSMISSIONS_REALIZED, "");
+            this.retransmissionsManaged.addValue(this.retransmisionsUnrealized.sum(), TStats.RETRANSMISSIONS_UNREALIZED, "");
+            this.localRecoveriesManaged.addValue(this.GOSPacketsLost.sum(), TStats.GOS_PACKETS_LOST, "");
+            this.localRecoveriesManaged.addValue(this.retransmissionRequestsSent.sum(), TStats.RETRANSMISSION_REQUESTS_SENT, "");
+            this.localRecoveriesManaged.addValue(this.GOSPacketsRecovered.sum(), TStats.GOS_PACKETS_RECOVERED, "");
+            this.localRecoveriesManaged.addValue(this.GOSPacketsUnrecovered.sum(), TStats.GOS_PACKETS_UNRECOVERED, "");
+            long retransmissionRequestsStillUnanswered = (this.retransmissionRequestsSent.sum() - this.GOSPacketsRecovered.sum() - this.GOSPacketsUnrecovered.sum());
             // FIX: do not use harcoded values. Use class constants instead.
             if (retransmissionRequestsStillUnanswered < 0) {
                 // FIX: do not use harcoded values. Use class constants instead.
                 retransmissionRequestsStillUnanswered = 0;
             }
             this.localRecoveriesManaged.addValue(retransmissionRequestsStillUnanswered, TStats.RETRANSMISSION_REQUESTS_STILL_UNANSWERED, "");
+            notifyStatsListener(timeInstant);
+        }
+    }
+
+    /**
+     * This method returns the columns that this TActiveLERStats exports for
+     * each time instant.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the columns exported by this TActiveLERStats.
+     * @since 2.4
+     */
+    @Override
+    public StatsColumns[] getColumns() {
+        return COLUMNS.clone();
+    }
+
+    /**
+     * This method returns the current value of the specified column, that is,
+     * the running total of the counter since this TActiveLERStats was created
+     * or reset.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param column the column whose value is requested.
+     * @return the current value of the column.
+     * @since 2.4
+     */
+    @Override
+    public long getColumnValue(StatsColumns column) {
+        switch (column) {
+            case RETRANSMISSION_REQUESTS_RECEIVED:
+                return this.retransmissionRequestsReceived.sum();
+            case RETRANSMISSIONS_REALIZED:
+                return this.retransmissionsRealized.sum();
+            case RETRANSMISSIONS_UNREALIZED:
+                return this.retransmisionsUnrealized.sum();
+            case GOS_PACKETS_LOST:
+                return this.GOSPacketsLost.sum();
+            case RETRANSMISSION_REQUESTS_SENT:
+                return this.retransmissionRequestsSent.sum();
+            case GOS_PACKETS_RECOVERED:
+                return this.GOSPacketsRecovered.sum();
+            case GOS_PACKETS_UNRECOVERED:
+                return this.GOSPacketsUnrecovered.sum();
+            default:
+                return this.counters.getValue(column.getEntryType(), column.getCategory());
         }
     }
 
@@ -972,76 +485,87 @@ public class TActiveLERStats extends TStats {
         return null;
     }
 
-    private int incomingIPv4PacketsOfThisTimeInstant;
-    private int incomingIPv4GOS1PacketsOfThisTimeInstant;
-    private int incomingIPv4GOS2PacketsOfThisTimeInstant;
-    private int incomingIPv4GOS3PacketsOfThisTimeInstant;
-    private int incomingMPLSPacketsOfThisTimeInstant;
-    private int incomingMPLSGOS1PacketsOfThisTimeInstant;
-    private int incomingMPLSGOS2PacketsOfThisTimeInstant;
-    private int incomingMPLSGOS3PacketsOfThisTimeInstant;
-    private int incomingTLDPPacketsOfThisTimeInstant;
-    private int incomingGPSRPPacketsOfThisTimeInstant;
-    private int outgoingIPv4PacketsOfThisTimeInstant;
-    private int outgoingIPv4GOS1PacketsOfThisTimeInstant;
-    private int outgoingIPv4GOS2PacketsOfThisTimeInstant;
-    private int outgoingIPv4GOS3PacketsOfThisTimeInstant;
-    private int outgoingMPLSPacketsOfThisTimeInstant;
-    private int outgoingMPLSGOS1PacketsOfThisTimeInstant;
-    private int outgoingMPLSGOS2PacketsOfThisTimeInstant;
-    private int outgoingMPLSGOS3PacketsOfThisTimeInstant;
-    private int outgoingTLDPPacketsOfThisTimeInstant;
-    private int outgoingGPSRPPacketsOfThisTimeInstant;
-    private int discardedIPv4PacketsOfThisTimeInstant;
-    private int discardedIPv4GOS1PacketsOfThisTimeInstant;
-    private int discardedIPv4GOS2PacketsOfThisTimeInstant;
-    private int discardedIPv4GOS3PacketsOfThisTimeInstant;
-    private int discardedMPLSPacketsOfThisTimeInstant;
-    private int discardedMPLSGOS1PacketsOfThisTimeInstant;
-    private int discardedMPLSGOS2PacketsOfThisTimeInstant;
-    private int discardedMPLSGOS3PacketsOfThisTimeInstant;
-    private int discardedTLDPPacketsOfThisTimeInstant;
-    private int discardedGPSRPPacketsOfThisTimeInstant;
-    private XYSeriesCollection incomingPackets;
-    private XYSeriesCollection outgoingPackets;
-    private XYSeriesCollection discardedPackets;
-    private XYSeries incomingIPv4Packets;
-    private XYSeries incomingIPv4GOS1Packets;
-    private XYSeries incomingIPv4GOS2Packets;
-    private XYSeries incomingIPv4GOS3Packets;
-    private XYSeries incomingMPLSPackets;
-    private XYSeries incomingMPLSGOS1Packets;
-    private XYSeries incomingMPLSGOS2Packets;
-    private XYSeries incomingMPLSGOS3Packets;
-    private XYSeries incomingTLDPPackets;
-    private XYSeries incomingGPSRPPackets;
-    private XYSeries outgoingIPv4Packets;
-    private XYSeries outgoingIPv4GOS1Packets;
-    private XYSeries outgoingIPv4GOS2Packets;
-    private XYSeries outgoingIPv4GOS3Packets;
-    private XYSeries outgoingMPLSPackets;
-    private XYSeries outgoingMPLSGOS1Packets;
-    private XYSeries outgoingMPLSGOS2Packets;
-    private XYSeries outgoingMPLSGOS3Packets;
-    private XYSeries outgoingTLDPPackets;
-    private XYSeries outgoingGPSRPPackets;
-    private XYSeries discardedIPv4Packets;
-    private XYSeries discardedIPv4GOS1Packets;
-    private XYSeries discardedIPv4GOS2Packets;
-    private XYSeries discardedIPv4GOS3Packets;
-    private XYSeries discardedMPLSPackets;
-    private XYSeries discardedMPLSGOS1Packets;
-    private XYSeries discardedMPLSGOS2Packets;
-    private XYSeries discardedMPLSGOS3Packets;
-    private XYSeries discardedTLDPPackets;
-    private XYSeries discardedGPSRPPackets;
+    private static final StatsColumns[] COLUMNS = {
+        StatsColumns.INCOMING_IPV4,
+        StatsColumns.INCOMING_IPV4_GOS1,
+        StatsColumns.INCOMING_IPV4_GOS2,
+        StatsColumns.INCOMING_IPV4_GOS3,
+        StatsColumns.INCOMING_MPLS,
+        StatsColumns.INCOMING_MPLS_GOS1,
+        StatsColumns.INCOMING_MPLS_GOS2,
+        StatsColumns.INCOMING_MPLS_GOS3,
+        StatsColumns.INCOMING_TLDP,
+        StatsColumns.INCOMING_GPSRP,
+        StatsColumns.OUTGOING_IPV4,
+        StatsColumns.OUTGOING_IPV4_GOS1,
+        StatsColumns.OUTGOING_IPV4_GOS2,
+        StatsColumns.OUTGOING_IPV4_GOS3,
+        StatsColumns.OUTGOING_MPLS,
+        StatsColumns.OUTGOING_MPLS_GOS1,
+        StatsColumns.OUTGOING_MPLS_GOS2,
+        StatsColumns.OUTGOING_MPLS_GOS3,
+        StatsColumns.OUTGOING_TLDP,
+        StatsColumns.OUTGOING_GPSRP,
+        StatsColumns.DISCARDED_IPV4,
+        StatsColumns.DISCARDED_IPV4_GOS1,
+        StatsColumns.DISCARDED_IPV4_GOS2,
+        StatsColumns.DISCARDED_IPV4_GOS3,
+        StatsColumns.DISCARDED_MPLS,
+        StatsColumns.DISCARDED_MPLS_GOS1,
+        StatsColumns.DISCARDED_MPLS_GOS2,
+        StatsColumns.DISCARDED_MPLS_GOS3,
+        StatsColumns.DISCARDED_TLDP,
+        StatsColumns.DISCARDED_GPSRP,
+        StatsColumns.RETRANSMISSION_REQUESTS_RECEIVED,
+        StatsColumns.RETRANSMISSIONS_REALIZED,
+        StatsColumns.RETRANSMISSIONS_UNREALIZED,
+        StatsColumns.GOS_PACKETS_LOST,
+        StatsColumns.RETRANSMISSION_REQUESTS_SENT,
+        StatsColumns.GOS_PACKETS_RECOVERED,
+        StatsColumns.GOS_PACKETS_UNRECOVERED
+    };
+
+    private final TStatsCounters counters;
+    private TStatsSeriesCollection incomingPackets;
+    private TStatsSeriesCollection outgoingPackets;
+    private TStatsSeriesCollection discardedPackets;
+    private TStatsSeries incomingIPv4Packets;
+    private TStatsSeries incomingIPv4GOS1Packets;
+    private TStatsSeries incomingIPv4GOS2Packets;
+    private TStatsSeries incomingIPv4GOS3Packets;
+    private TStatsSeries incomingMPLSPackets;
+    private TStatsSeries incomingMPLSGOS1Packets;
+    private TStatsSeries incomingMPLSGOS2Packets;
+    private TStatsSeries incomingMPLSGOS3Packets;
+    private TStatsSeries incomingTLDPPackets;
+    private TStatsSeries incomingGPSRPPackets;
+    private TStatsSeries outgoingIPv4Packets;
+    private TStatsSeries outgoingIPv4GOS1Packets;
+    private TStatsSeries outgoingIPv4GOS2Packets;
+    private TStatsSeries outgoingIPv4GOS3Packets;
+    private TStatsSeries outgoingMPLSPackets;
+    private TStatsSeries outgoingMPLSGOS1Packets;
+    private TStatsSeries outgoingMPLSGOS2Packets;
+    private TStatsSeries outgoingMPLSGOS3Packets;
+    private TStatsSeries outgoingTLDPPackets;
+    private TStatsSeries outgoingGPSRPPackets;
+    private TStatsSeries discardedIPv4Packets;
+    private TStatsSeries discardedIPv4GOS1Packets;
+    private TStatsSeries discardedIPv4GOS2Packets;
+    private TStatsSeries discardedIPv4GOS3Packets;
+    private TStatsSeries discardedMPLSPackets;
+    private TStatsSeries discardedMPLSGOS1Packets;
+    private TStatsSeries discardedMPLSGOS2Packets;
+    private TStatsSeries discardedMPLSGOS3Packets;
+    private TStatsSeries discardedTLDPPackets;
+    private TStatsSeries discardedGPSRPPackets;
     private DefaultCategoryDataset retransmissionsManaged;
-    private int retransmissionRequestsReceived;
-    private int retransmissionsRealized;
-    private int retransmisionsUnrealized;
+    private final LongAdder retransmissionRequestsReceived;
+    private final LongAdder retransmissionsRealized;
+    private final LongAdder retransmisionsUnrealized;
     private DefaultCategoryDataset localRecoveriesManaged;
-    private int GOSPacketsLost;
-    private int retransmissionRequestsSent;
-    private int GOSPacketsRecovered;
-    private int GOSPacketsUnrecovered;
+    private final LongAdder GOSPacketsLost;
+    private final LongAdder retransmissionRequestsSent;
+    private final LongAdder GOSPacketsRecovered;
+    private final LongAdder GOSPacketsUnrecovered;
 }
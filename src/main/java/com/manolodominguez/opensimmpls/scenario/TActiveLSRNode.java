@@ -15,6 +15,8 @@
  */
 package com.manolodominguez.opensimmpls.scenario;
 
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketSent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketGenerated;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketDiscarded;
@@ -109,6 +111,31 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
         this.dmgp.setDMGPSizeInKB(sizeInKB);
     }
 
+    /**
+     * This method sets whether the local DMGP stores GoS packets off-heap, in
+     * a direct buffer of exactly the size of the DMGP, instead of as objects.
+     * It empties the DMGP.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param offHeapStorage TRUE, if the DMGP has to store GoS packets
+     * off-heap. Otherwise, FALSE.
+     * @since 2.4
+     */
+    public void setDMGPOffHeapStorage(boolean offHeapStorage) {
+        this.dmgp.setOffHeapStorage(offHeapStorage);
+    }
+
+    /**
+     * This method checks whether the local DMGP stores GoS packets off-heap.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return TRUE, if the DMGP stores GoS packets off-heap. Otherwise, FALSE.
+     * @since 2.4
+     */
+    public boolean isDMGPOffHeapStorage() {
+        return this.dmgp.isOffHeapStorage();
+    }
+
     /**
      * This method computes and returns the number of nanoseconds that are
      * needed to switch a single bit. This is something that depends on the
@@ -284,7 +311,9 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
     public void run() {
         // Actions to be done during the timer tick.
         try {
-            this.generateSimulationEvent(new TSimulationEventNodeCongested(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), this.getPorts().getCongestionLevel()));
+            if (this.isSimulationEventEnabled(TSimulationEvent.NODE_CONGESTED)) {
+                this.generateSimulationEvent(new TSimulationEventNodeCongested(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), this.getPorts().getCongestionLevel()));
+            }
         } catch (Exception e) {
             // FIX: this is not a good practice. Avoid.
             e.printStackTrace();
@@ -295,6 +324,52 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
         this.stats.groupStatsByTimeInstant(this.getCurrentTimeInstant());
     }
 
+    /**
+     * This method computes how many consecutive ticks, starting with the next
+     * one, this active LSR would spend without doing anything observable. That is
+     * the case while it has no packet waiting in its ports and none of its TLDP or GPSRP
+     * timeouts expires.
+     *
+     * @param tickDurationInNs Duration of each tick, in nanoseconds.
+     * @param maxNumberOfIdleTicks The maximum number of ticks the timer is
+     * interested in.
+     * @return Number of consecutive idle ticks, never greater than
+     * maxNumberOfIdleTicks.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    @Override
+    public long getNumberOfIdleTicks(int tickDurationInNs, long maxNumberOfIdleTicks) {
+        if (this.ports.isThereAnyPacketToSwitch() || this.isConnectedToABrokenLink()) {
+            return ZERO;
+        }
+        long numberOfIdleTicks = this.switchingMatrix.getNumberOfIdleTicks(tickDurationInNs, maxNumberOfIdleTicks);
+        return this.gpsrpRequests.getNumberOfIdleTicks(tickDurationInNs, numberOfIdleTicks);
+    }
+
+    /**
+     * This method updates this active LSR as if it had received the specified
+     * number of idle timer events.
+     *
+     * @param firstIdleTick The first timer event that is being skipped.
+     * @param numberOfIdleTicks Number of consecutive timer events being
+     * skipped.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    @Override
+    public void skipIdleTicks(TTimerEvent firstIdleTick, long numberOfIdleTicks) {
+        int tickDurationInNs = firstIdleTick.getTickDurationInNs();
+        this.setTickDurationInNs(tickDurationInNs);
+        this.availableNanoseconds = tickDurationInNs;
+        this.resetTicksWithoutEmitting();
+        this.increaseTicksWithoutEmitting();
+        this.switchingMatrix.skipIdleTicks(numberOfIdleTicks, tickDurationInNs);
+        this.gpsrpRequests.skipIdleTicks(numberOfIdleTicks, tickDurationInNs);
+        this.stats.groupStatsByTimeInstant(firstIdleTick.getUpperLimit());
+        this.setCurrentTimeInstant(firstIdleTick.getUpperLimit() + ((numberOfIdleTicks - ONE) * tickDurationInNs));
+    }
+
     /**
      * This method check wether the connectivity to the neighbors nodes exists.
      * Let's say, this check whether a link of this node is down. If so, this
@@ -391,8 +466,8 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
         this.gpsrpRequests.getMonitor().setRed();
         Iterator gpsrpRequestsIterator = this.gpsrpRequests.getEntriesIterator();
         int globalFlowID = 0;
-        int packetGoSGlobalUniqueID = 0;
-        String targetIPv4Address = null;
+        long packetGoSGlobalUniqueID = 0;
+        int targetIPv4Address = TIPv4Address.UNSPECIFIED;
         int outgoingPortAux = 0;
         TGPSRPRequestEntry gpsrpRequestEntry = null;
         while (gpsrpRequestsIterator.hasNext()) {
@@ -466,10 +541,10 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
             // FIX: globalFlowID and packetGlobalUniqueID seems not to be used. If not necessary,
             // remove from the code.
             int globalFlowID = packet.getGPSRPPayload().getFlowID();
-            int packetGoSGlobalUniqueID = packet.getGPSRPPayload().getPacketGoSGlobalUniqueID();
-            String targetIPv4Address = packet.getIPv4Header().getTailEndIPAddress();
+            long packetGoSGlobalUniqueID = packet.getGPSRPPayload().getPacketGoSGlobalUniqueID();
+            int targetIPv4Address = packet.getIPv4Header().getTailEndIPAddress();
             TActivePort outgoingPort = null;
-            if (targetIPv4Address.equals(this.getIPv4Address())) {
+            if (targetIPv4Address == this.getIPv4Address()) {
                 // FIX: Convert to a switch statement
                 if (messageType == TGPSRPPayload.RETRANSMISSION_REQUEST) {
                     this.handleGPSRPRetransmissionRequest(packet, incomingPortID);
@@ -479,12 +554,14 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                     this.handleGPSRPRetransmissionOk(packet, incomingPortID);
                 }
             } else {
-                String nextHopIPv4Address = this.topology.getRABANNextHopIPv4Address(this.getIPv4Address(), targetIPv4Address);
+                int nextHopIPv4Address = this.topology.getRABANNextHopIPv4Address(this.getIPv4Address(), targetIPv4Address);
                 outgoingPort = (TActivePort) this.ports.getLocalPortConnectedToANodeWithIPv4Address(nextHopIPv4Address);
                 if (outgoingPort != null) {
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -506,7 +583,7 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
      */
     public void handleGPSRPRetransmissionRequest(TGPSRPPDU packet, int incomingPortID) {
         int globalFlowID = packet.getGPSRPPayload().getFlowID();
-        int packetGoSGlobalUniqueID = packet.getGPSRPPayload().getPacketGoSGlobalUniqueID();
+        long packetGoSGlobalUniqueID = packet.getGPSRPPayload().getPacketGoSGlobalUniqueID();
         TMPLSPDU wantedPacket = (TMPLSPDU) this.dmgp.getPacket(globalFlowID, packetGoSGlobalUniqueID);
         if (wantedPacket != null) {
             this.acceptGPSRP(packet, incomingPortID);
@@ -514,7 +591,9 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
             if (outgoingPort != null) {
                 outgoingPort.putPacketOnLink(wantedPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                 try {
-                    this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), wantedPacket.getSubtype()));
+                    if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                        this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), wantedPacket.getSubtype()));
+                    }
                 } catch (Exception e) {
                     // FIX: this is not a good practice. Avoid.
                     e.printStackTrace();
@@ -535,14 +614,14 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
      */
     public void handleGPSRPRetransmissionNotPossible(TGPSRPPDU packet, int incomingPortID) {
         int globalFlowID = packet.getGPSRPPayload().getFlowID();
-        int packetGoSGlobalUniqueID = packet.getGPSRPPayload().getPacketGoSGlobalUniqueID();
+        long packetGoSGlobalUniqueID = packet.getGPSRPPayload().getPacketGoSGlobalUniqueID();
         TGPSRPRequestEntry gpsrpRequestEntry = this.gpsrpRequests.getEntry(globalFlowID, packetGoSGlobalUniqueID);
         if (gpsrpRequestEntry != null) {
             gpsrpRequestEntry.forceTimeoutReset();
             int p = gpsrpRequestEntry.getOutgoingPortID();
             if (!gpsrpRequestEntry.canBePurged()) {
-                String targetIPv4Address = gpsrpRequestEntry.getNextNearestCrossedActiveNodeIPv4();
-                if (targetIPv4Address != null) {
+                int targetIPv4Address = gpsrpRequestEntry.getNextNearestCrossedActiveNodeIPv4();
+                if (targetIPv4Address != TIPv4Address.UNSPECIFIED) {
                     requestGPSRP(globalFlowID, packetGoSGlobalUniqueID, targetIPv4Address, p);
                 } else {
                     this.gpsrpRequests.removeEntry(globalFlowID, packetGoSGlobalUniqueID);
@@ -563,7 +642,7 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
      */
     public void handleGPSRPRetransmissionOk(TGPSRPPDU packet, int incomingPortID) {
         int globalFlowID = packet.getGPSRPPayload().getFlowID();
-        int packetGoSGlobalUniqueID = packet.getGPSRPPayload().getPacketGoSGlobalUniqueID();
+        long packetGoSGlobalUniqueID = packet.getGPSRPPayload().getPacketGoSGlobalUniqueID();
         this.gpsrpRequests.removeEntry(globalFlowID, packetGoSGlobalUniqueID);
     }
 
@@ -584,8 +663,8 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
         if (gpsrpRequestEntry != null) {
             TActivePort outgoingPort = (TActivePort) ports.getPort(outgoingPortID);
             TGPSRPPDU gpsrpPacket = null;
-            String targetIPv4Address = gpsrpRequestEntry.getNextNearestCrossedActiveNodeIPv4();
-            if (targetIPv4Address != null) {
+            int targetIPv4Address = gpsrpRequestEntry.getNextNearestCrossedActiveNodeIPv4();
+            if (targetIPv4Address != TIPv4Address.UNSPECIFIED) {
                 try {
                     gpsrpPacket = new TGPSRPPDU(this.gIdent.getNextIdentifier(), this.getIPv4Address(), targetIPv4Address);
                 } catch (Exception e) {
@@ -599,8 +678,12 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                 gpsrpPacket.getGPSRPPayload().setGPSRPMessageType(TGPSRPPayload.RETRANSMISSION_REQUEST);
                 outgoingPort.putPacketOnLink(gpsrpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                 try {
-                    this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
-                    this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                    if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                        this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
+                    }
+                    if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                        this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                    }
                 } catch (Exception e) {
                     //FIX: This is not a good practice. Avoid.
                     e.printStackTrace();
@@ -624,10 +707,10 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
      * the lost packet.
      * @since 2.0
      */
-    public void requestGPSRP(int globalFlowID, int packetGlobalUniqueID, String targetIPv4Address, int outgoingPortID) {
+    public void requestGPSRP(int globalFlowID, long packetGlobalUniqueID, int targetIPv4Address, int outgoingPortID) {
         TActivePort outgoingPort = (TActivePort) this.ports.getPort(outgoingPortID);
         TGPSRPPDU gpsrpPacket = null;
-        if (targetIPv4Address != null) {
+        if (targetIPv4Address != TIPv4Address.UNSPECIFIED) {
             try {
                 gpsrpPacket = new TGPSRPPDU(this.gIdent.getNextIdentifier(), this.getIPv4Address(), targetIPv4Address);
             } catch (Exception e) {
@@ -641,8 +724,12 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
             gpsrpPacket.getGPSRPPayload().setGPSRPMessageType(TGPSRPPayload.RETRANSMISSION_REQUEST);
             outgoingPort.putPacketOnLink(gpsrpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
             try {
-                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
-                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                    this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
+                }
+                if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                    this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                }
             } catch (Exception e) {
                 //FIX: This is not a good practice. Avoid.
                 e.printStackTrace();
@@ -675,8 +762,12 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
             gpsrpPacket.getGPSRPPayload().setGPSRPMessageType(TGPSRPPayload.RETRANSMISION_NOT_POSSIBLE);
             outgoingPort.putPacketOnLink(gpsrpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
             try {
-                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
-                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                    this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
+                }
+                if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                    this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                }
             } catch (Exception e) {
                 //FIX: This is not a good practice. Avoid.
                 e.printStackTrace();
@@ -711,8 +802,12 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
             gpsrpPacket.getGPSRPPayload().setGPSRPMessageType(TGPSRPPayload.RETRANSMISION_OK);
             outgoingPort.putPacketOnLink(gpsrpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
             try {
-                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
-                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                    this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, gpsrpPacket.getSize()));
+                }
+                if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                    this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                }
             } catch (Exception e) {
                 //FIX: This is not a good practice. Avoid.
                 e.printStackTrace();
@@ -778,7 +873,7 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
         int labelValue = packet.getLabelStack().getTop().getLabel();
         // FIX: targetIPv4Address seems to be unused. Check and remove if 
         // needed
-        String targetIPv4Address = packet.getIPv4Header().getTailEndIPAddress();
+        int targetIPv4Address = packet.getIPv4Header().getTailEndIPAddress();
         switchingMatrixEntry = this.switchingMatrix.getEntry(incomingPortID, labelValue, TSwitchingMatrixEntry.LABEL_ENTRY);
         if (switchingMatrixEntry == null) {
             if (isLabeled) {
@@ -835,7 +930,9 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                     TPort outgoingPort = this.ports.getPort(switchingMatrixEntry.getOutgoingPortID());
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SWITCHED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -850,7 +947,9 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                     TPort outgoingPort = this.ports.getPort(switchingMatrixEntry.getOutgoingPortID());
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SWITCHED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -874,7 +973,9 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                         switchingMatrixEntry.setEntryAsForBackupLSP(false);
                     }
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SWITCHED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -883,7 +984,9 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                     TPort outgoingPort = this.ports.getPort(switchingMatrixEntry.getOutgoingPortID());
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SWITCHED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -1331,9 +1434,9 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
     public void sendTLDPRequestOk(TSwitchingMatrixEntry switchingMatrixEntry) {
         if (switchingMatrixEntry != null) {
             if (switchingMatrixEntry.getUpstreamTLDPSessionID() != TSwitchingMatrixEntry.UNDEFINED) {
-                String localIPv4Address = this.getIPv4Address();
-                String targetIPv4Address = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getIncomingPortID());
-                if (targetIPv4Address != null) {
+                int localIPv4Address = this.getIPv4Address();
+                int targetIPv4Address = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getIncomingPortID());
+                if (targetIPv4Address != TIPv4Address.UNSPECIFIED) {
                     TTLDPPDU newTLDPPacket = null;
                     try {
                         newTLDPPacket = new TTLDPPDU(this.gIdent.getNextIdentifier(), localIPv4Address, targetIPv4Address);
@@ -1354,8 +1457,12 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                         TPort outgoingPort = this.ports.getLocalPortConnectedToANodeWithIPv4Address(targetIPv4Address);
                         outgoingPort.putPacketOnLink(newTLDPPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
+                            }
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: this is not a good practice
                             e.printStackTrace();
@@ -1378,9 +1485,9 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
     public void sendTLDPRequestRefuse(TSwitchingMatrixEntry switchingMatrixEntry) {
         if (switchingMatrixEntry != null) {
             if (switchingMatrixEntry.getUpstreamTLDPSessionID() != TSwitchingMatrixEntry.UNDEFINED) {
-                String localIPv4Address = this.getIPv4Address();
-                String targetIPv4Address = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getIncomingPortID());
-                if (targetIPv4Address != null) {
+                int localIPv4Address = this.getIPv4Address();
+                int targetIPv4Address = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getIncomingPortID());
+                if (targetIPv4Address != TIPv4Address.UNSPECIFIED) {
                     TTLDPPDU newTLDPPacket = null;
                     try {
                         newTLDPPacket = new TTLDPPDU(this.gIdent.getNextIdentifier(), localIPv4Address, targetIPv4Address);
@@ -1401,8 +1508,12 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                         TPort outgoingPort = this.ports.getLocalPortConnectedToANodeWithIPv4Address(targetIPv4Address);
                         outgoingPort.putPacketOnLink(newTLDPPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
+                            }
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: This is not a good practice
                             e.printStackTrace();
@@ -1426,9 +1537,9 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
      */
     public void sendTLDPWithdrawalOk(TSwitchingMatrixEntry switchingMatrixEntry, int portID) {
         if (switchingMatrixEntry != null) {
-            String localIPv4Address = this.getIPv4Address();
-            String targetIPv4Address = this.ports.getIPv4OfNodeLinkedTo(portID);
-            if (targetIPv4Address != null) {
+            int localIPv4Address = this.getIPv4Address();
+            int targetIPv4Address = this.ports.getIPv4OfNodeLinkedTo(portID);
+            if (targetIPv4Address != TIPv4Address.UNSPECIFIED) {
                 TTLDPPDU newTLDPPacket = null;
                 try {
                     newTLDPPacket = new TTLDPPDU(this.gIdent.getNextIdentifier(), localIPv4Address, targetIPv4Address);
@@ -1457,8 +1568,12 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                     TPort outgoingPort = this.ports.getPort(portID);
                     outgoingPort.putPacketOnLink(newTLDPPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
-                        this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
+                        }
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice
                         e.printStackTrace();
@@ -1478,10 +1593,10 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      */
     public void requestTLDP(TSwitchingMatrixEntry switchingMatrixEntry) {
-        String localIPv4Address = this.getIPv4Address();
-        String targetIPV4Address = switchingMatrixEntry.getTailEndIPv4Address();
-        String nextHopIPAddress = this.topology.getRABANNextHopIPv4Address(localIPv4Address, targetIPV4Address);
-        if (nextHopIPAddress != null) {
+        int localIPv4Address = this.getIPv4Address();
+        int targetIPV4Address = switchingMatrixEntry.getTailEndIPv4Address();
+        int nextHopIPAddress = this.topology.getRABANNextHopIPv4Address(localIPv4Address, targetIPV4Address);
+        if (nextHopIPAddress != TIPv4Address.UNSPECIFIED) {
             TTLDPPDU newTLDPPacket = null;
             try {
                 newTLDPPacket = new TTLDPPDU(this.gIdent.getNextIdentifier(), localIPv4Address, nextHopIPAddress);
@@ -1504,8 +1619,12 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                     outgoingPort.putPacketOnLink(newTLDPPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     switchingMatrixEntry.setOutgoingPortID(outgoingPort.getPortID());
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
-                        this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
+                        }
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice
                         e.printStackTrace();
@@ -1525,11 +1644,11 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      */
     public void requestTLDPForBackupLSP(TSwitchingMatrixEntry switchingMatrixEntry) {
-        String localIPv4Address = this.getIPv4Address();
-        String targetIPv4Address = switchingMatrixEntry.getTailEndIPv4Address();
-        String currentNextHopIPv4Address = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getOutgoingPortID());
-        String backupNextHopIPv4Address = this.topology.getRABANNextHopIPv4Address(localIPv4Address, targetIPv4Address, currentNextHopIPv4Address);
-        if (backupNextHopIPv4Address != null) {
+        int localIPv4Address = this.getIPv4Address();
+        int targetIPv4Address = switchingMatrixEntry.getTailEndIPv4Address();
+        int currentNextHopIPv4Address = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getOutgoingPortID());
+        int backupNextHopIPv4Address = this.topology.getRABANNextHopIPv4Address(localIPv4Address, targetIPv4Address, currentNextHopIPv4Address);
+        if (backupNextHopIPv4Address != TIPv4Address.UNSPECIFIED) {
             if (switchingMatrixEntry.getBackupOutgoingPortID() == TSwitchingMatrixEntry.UNDEFINED) {
                 if (switchingMatrixEntry.getBackupOutgoingLabel() == TSwitchingMatrixEntry.UNDEFINED) {
                     // FIX: Do not use harcoded values. Use class constants 
@@ -1538,7 +1657,7 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                         switchingMatrixEntry.setBackupOutgoingLabel(TSwitchingMatrixEntry.LABEL_REQUESTED);
                         // FIX: The following check is unnecessary. 
                         // backupNextHopIPv4Address is never null.
-                        if (backupNextHopIPv4Address != null) {
+                        if (backupNextHopIPv4Address != TIPv4Address.UNSPECIFIED) {
                             TTLDPPDU newTLDPPacket = null;
                             try {
                                 newTLDPPacket = new TTLDPPDU(gIdent.getNextIdentifier(), localIPv4Address, backupNextHopIPv4Address);
@@ -1559,8 +1678,12 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                                 if (outgoingBackupPort != null) {
                                     outgoingBackupPort.putPacketOnLink(newTLDPPacket, outgoingBackupPort.getLink().getDestinationOfTrafficSentBy(this));
                                     try {
-                                        this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
-                                        this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
+                                        }
+                                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                                        }
                                     } catch (Exception e) {
                                         // FIX: This is not a good practice
                                         e.printStackTrace();
@@ -1588,10 +1711,10 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
     public void sendTLDPWithdrawal(TSwitchingMatrixEntry switchingMatrixEntry, int portID) {
         if (switchingMatrixEntry != null) {
             switchingMatrixEntry.setOutgoingLabel(TSwitchingMatrixEntry.REMOVING_LABEL);
-            String localIPv4Address = this.getIPv4Address();
-            String targetIPv4Address = switchingMatrixEntry.getTailEndIPv4Address();
-            String nextHopIPv4Address = this.ports.getIPv4OfNodeLinkedTo(portID);
-            if (nextHopIPv4Address != null) {
+            int localIPv4Address = this.getIPv4Address();
+            int targetIPv4Address = switchingMatrixEntry.getTailEndIPv4Address();
+            int nextHopIPv4Address = this.ports.getIPv4OfNodeLinkedTo(portID);
+            if (nextHopIPv4Address != TIPv4Address.UNSPECIFIED) {
                 TTLDPPDU newTLDPPacket = null;
                 try {
                     newTLDPPacket = new TTLDPPDU(gIdent.getNextIdentifier(), localIPv4Address, nextHopIPv4Address);
@@ -1620,8 +1743,12 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                     if (outgoingPort != null) {
                         outgoingPort.putPacketOnLink(newTLDPPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
+                            }
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: This is not a good practice
                             e.printStackTrace();
@@ -1643,10 +1770,10 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
      */
     public void requestTLDPAfterTimeout(TSwitchingMatrixEntry switchingMatrixEntry) {
         if (switchingMatrixEntry != null) {
-            String localIPv4Address = this.getIPv4Address();
-            String targetIPv4Address = switchingMatrixEntry.getTailEndIPv4Address();
-            String nextHopIPv4Address = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getOutgoingPortID());
-            if (nextHopIPv4Address != null) {
+            int localIPv4Address = this.getIPv4Address();
+            int targetIPv4Address = switchingMatrixEntry.getTailEndIPv4Address();
+            int nextHopIPv4Address = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getOutgoingPortID());
+            if (nextHopIPv4Address != TIPv4Address.UNSPECIFIED) {
                 TTLDPPDU newTLDPPacket = null;
                 try {
                     newTLDPPacket = new TTLDPPDU(this.gIdent.getNextIdentifier(), localIPv4Address, nextHopIPv4Address);
@@ -1672,8 +1799,12 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
                     if (outgoingPort != null) {
                         outgoingPort.putPacketOnLink(newTLDPPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
+                            }
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: This is not a good practice
                             e.printStackTrace();
@@ -1769,9 +1900,9 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
         int predecessorTLDPID = tldpPacket.getTLDPPayload().getTLDPIdentifier();
         // FIX: review the reason why this variable is nor used.
         TPort incomingPort = this.ports.getPort(incomingPortID);
-        String targetIPv4Address = tldpPacket.getTLDPPayload().getTailEndIPAddress();
-        String nextHopIPv4Address = this.topology.getRABANNextHopIPv4Address(this.getIPv4Address(), targetIPv4Address);
-        if (nextHopIPv4Address != null) {
+        int targetIPv4Address = tldpPacket.getTLDPPayload().getTailEndIPAddress();
+        int nextHopIPv4Address = this.topology.getRABANNextHopIPv4Address(this.getIPv4Address(), targetIPv4Address);
+        if (nextHopIPv4Address != TIPv4Address.UNSPECIFIED) {
             TPort outgoingPort = this.ports.getLocalPortConnectedToANodeWithIPv4Address(nextHopIPv4Address);
             switchingMatrixEntry = new TSwitchingMatrixEntry();
             switchingMatrixEntry.setUpstreamTLDPSessionID(predecessorTLDPID);
@@ -1808,7 +1939,9 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
     @Override
     public void discardPacket(TAbstractPDU packet) {
         try {
-            this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_DISCARDED)) {
+                this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+            }
             this.stats.addStatEntry(packet, TStats.BEING_DISCARDED);
         } catch (Exception e) {
             // FIX: this is ugly. Avoid.
@@ -1959,7 +2092,7 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
         serializedElement += "#";
         serializedElement += this.getName().replace('#', ' ');
         serializedElement += "#";
-        serializedElement += this.getIPv4Address();
+        serializedElement += TIPv4Address.toString(this.getIPv4Address());
         serializedElement += "#";
         serializedElement += this.isSelected();
         serializedElement += "#";
@@ -2001,7 +2134,7 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
         }
         this.setNodeID(Integer.parseInt(elementFields[2]));
         this.setName(elementFields[3]);
-        this.setIPv4Address(elementFields[4]);
+        this.setIPv4Address(TIPv4Address.fromString(elementFields[4]));
         this.setSelected(Integer.parseInt(elementFields[5]));
         this.setShowName(Boolean.parseBoolean(elementFields[6]));
         this.setGenerateStats(Boolean.parseBoolean(elementFields[7]));
@@ -2054,6 +2187,9 @@ public class TActiveLSRNode extends TNode implements ITimerEventListener, Runnab
     public static final int NAME_ALREADY_EXISTS = 2;
     public static final int ONLY_BLANK_SPACES = 3;
 
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+
     private TSwitchingMatrix switchingMatrix;
     private TLongIDGenerator gIdent;
     private TIDGenerator gIdentLDP;
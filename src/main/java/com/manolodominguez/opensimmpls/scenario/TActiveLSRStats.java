@@ -18,10 +18,9 @@ package com.manolodominguez.opensimmpls.scenario;
 import com.manolodominguez.opensimmpls.protocols.TGPSRPPDU;
 import com.manolodominguez.opensimmpls.protocols.TGPSRPPayload;
 import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
+import java.util.concurrent.atomic.LongAdder;
 import org.jfree.data.category.DefaultCategoryDataset;
 import org.jfree.data.general.AbstractDataset;
-import org.jfree.data.xy.XYSeries;
-import org.jfree.data.xy.XYSeriesCollection;
 
 /**
  * This class implements a statistics collector for an active LSR.
@@ -39,59 +38,41 @@ public class TActiveLSRStats extends TStats {
      * @since 2.0
      */
     public TActiveLSRStats() {
-        this.incomingPackets = new XYSeriesCollection();
-        this.outgoingPackets = new XYSeriesCollection();
-        this.discardedPackets = new XYSeriesCollection();
-        this.outgoingMPLSPackets = new XYSeries(TStats.MPLS);
-        this.outgoingMPLSGOS1Packets = new XYSeries(TStats.MPLS_GOS1);
-        this.outgoingMPLSGOS2Packets = new XYSeries(TStats.MPLS_GOS2);
-        this.outgoingMPLSGOS3Packets = new XYSeries(TStats.MPLS_GOS3);
-        this.outgoingTLDPPackets = new XYSeries(TStats.TLDP);
-        this.outgoingGPSRPPackets = new XYSeries(TStats.GPSRP);
-        this.incomingMPLSPackets = new XYSeries(TStats.MPLS);
-        this.incomingMPLSGOS1Packets = new XYSeries(TStats.MPLS_GOS1);
-        this.incomingMPLSGOS2Packets = new XYSeries(TStats.MPLS_GOS2);
-        this.incomingMPLSGOS3Packets = new XYSeries(TStats.MPLS_GOS3);
-        this.incomingTLDPPackets = new XYSeries(TStats.TLDP);
-        this.incomingGPSRPPackets = new XYSeries(TStats.GPSRP);
-        this.discardedMPLSPackets = new XYSeries(TStats.MPLS);
-        this.discardedMPLSGOS1Packets = new XYSeries(TStats.MPLS_GOS1);
-        this.discardedMPLSGOS2Packets = new XYSeries(TStats.MPLS_GOS2);
-        this.discardedMPLSGOS3Packets = new XYSeries(TStats.MPLS_GOS3);
-        this.discardedTLDPPackets = new XYSeries(TStats.TLDP);
-        this.discardedGPSRPPackets = new XYSeries(TStats.GPSRP);
+        this.incomingPackets = new TStatsSeriesCollection();
+        this.outgoingPackets = new TStatsSeriesCollection();
+        this.discardedPackets = new TStatsSeriesCollection();
+        this.outgoingMPLSPackets = new TStatsSeries(TStats.MPLS);
+        this.outgoingMPLSGOS1Packets = new TStatsSeries(TStats.MPLS_GOS1);
+        this.outgoingMPLSGOS2Packets = new TStatsSeries(TStats.MPLS_GOS2);
+        this.outgoingMPLSGOS3Packets = new TStatsSeries(TStats.MPLS_GOS3);
+        this.outgoingTLDPPackets = new TStatsSeries(TStats.TLDP);
+        this.outgoingGPSRPPackets = new TStatsSeries(TStats.GPSRP);
+        this.incomingMPLSPackets = new TStatsSeries(TStats.MPLS);
+        this.incomingMPLSGOS1Packets = new TStatsSeries(TStats.MPLS_GOS1);
+        this.incomingMPLSGOS2Packets = new TStatsSeries(TStats.MPLS_GOS2);
+        this.incomingMPLSGOS3Packets = new TStatsSeries(TStats.MPLS_GOS3);
+        this.incomingTLDPPackets = new TStatsSeries(TStats.TLDP);
+        this.incomingGPSRPPackets = new TStatsSeries(TStats.GPSRP);
+        this.discardedMPLSPackets = new TStatsSeries(TStats.MPLS);
+        this.discardedMPLSGOS1Packets = new TStatsSeries(TStats.MPLS_GOS1);
+        this.discardedMPLSGOS2Packets = new TStatsSeries(TStats.MPLS_GOS2);
+        this.discardedMPLSGOS3Packets = new TStatsSeries(TStats.MPLS_GOS3);
+        this.discardedTLDPPackets = new TStatsSeries(TStats.TLDP);
+        this.discardedGPSRPPackets = new TStatsSeries(TStats.GPSRP);
         // Temporary data to be consolidated -----------
-        // FIX: Do use class constants instead of hardcoded values.
-        this.incomingMPLSPacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS1PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS2PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS3PacketsOfThisTimeInstant = 0;
-        this.incomingTLDPPacketsOfThisTimeInstant = 0;
-        this.incomingGPSRPPacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSPacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSGOS1PacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSGOS2PacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSGOS3PacketsOfThisTimeInstant = 0;
-        this.outgoingTLDPPacketsOfThisTimeInstant = 0;
-        this.outgoingGPSRPPacketsOfThisTimeInstant = 0;
-        this.discardedMPLSPacketsOfThisTimeInstant = 0;
-        this.discardedMPLSGOS1PacketsOfThisTimeInstant = 0;
-        this.discardedMPLSGOS2PacketsOfThisTimeInstant = 0;
-        this.discardedMPLSGOS3PacketsOfThisTimeInstant = 0;
-        this.discardedTLDPPacketsOfThisTimeInstant = 0;
-        this.discardedGPSRPPacketsOfThisTimeInstant = 0;
+        this.counters = new TStatsCounters();
         // ------------------------------------------
         // FIX: Do use class constants instead of hardcoded values.
         this.retransmissionsManaged = new DefaultCategoryDataset();
-        this.retransmissionRequestsReceived = 0;
-        this.retransmissionsRealized = 0;
-        this.retransmisionsUnrealized = 0;
+        this.retransmissionRequestsReceived = new LongAdder();
+        this.retransmissionsRealized = new LongAdder();
+        this.retransmisionsUnrealized = new LongAdder();
         // FIX: Do use class constants instead of hardcoded values.
         this.localRecoveriesManaged = new DefaultCategoryDataset();
-        this.GOSPacketsLost = 0;
-        this.retransmissionRequestsSent = 0;
-        this.GOSPacketsRecovered = 0;
-        this.GOSPacketsUnrecovered = 0;
+        this.GOSPacketsLost = new LongAdder();
+        this.retransmissionRequestsSent = new LongAdder();
+        this.GOSPacketsRecovered = new LongAdder();
+        this.GOSPacketsUnrecovered = new LongAdder();
     }
 
     /**
@@ -107,7 +88,7 @@ public class TActiveLSRStats extends TStats {
      */
     @Override
     public AbstractDataset getDataset1() {
-        return this.incomingPackets;
+        return this.incomingPackets.getDataset();
     }
 
     /**
@@ -123,7 +104,7 @@ public class TActiveLSRStats extends TStats {
      */
     @Override
     public AbstractDataset getDataset2() {
-        return this.outgoingPackets;
+        return this.outgoingPackets.getDataset();
     }
 
     /**
@@ -139,7 +120,7 @@ public class TActiveLSRStats extends TStats {
      */
     @Override
     public AbstractDataset getDataset3() {
-        return this.discardedPackets;
+        return this.discardedPackets.getDataset();
     }
 
     /**
@@ -205,101 +186,32 @@ public class TActiveLSRStats extends TStats {
     @Override
     public void addStatEntry(TAbstractPDU packet, int entryType) {
         if (this.statsEnabled) {
-            int packetType = packet.getSubtype();
-            // FIX: Do use class constants instead of hardcoded values.
-            int GOSLevel = 0;
-            // FIX: Use switch statement instead of such amount of nested ifs.
-            if (packetType == TAbstractPDU.TLDP) {
-                // FIX: Use switch statement instead of such amount of nested ifs.
-                if (entryType == TStats.OUTGOING) {
-                    this.outgoingTLDPPacketsOfThisTimeInstant++;
-                } else if (entryType == TStats.BEING_DISCARDED) {
-                    this.discardedTLDPPacketsOfThisTimeInstant++;
-                } else if (entryType == TStats.INCOMING) {
-                    this.incomingTLDPPacketsOfThisTimeInstant++;
-                }
-            } else if (packetType == TAbstractPDU.GPSRP) {
+            this.counters.increment(entryType, TStatsCounters.getCategory(packet));
+            if (packet.getSubtype() == TAbstractPDU.GPSRP) {
                 TGPSRPPDU GPSRPPacket = (TGPSRPPDU) packet;
                 int messageType = GPSRPPacket.getGPSRPPayload().getGPSRPMessageType();
                 // FIX: Use switch statement instead of such amount of nested ifs.
                 if (messageType == TGPSRPPayload.RETRANSMISSION_REQUEST) {
-                    // FIX: Use switch statement instead of such amount of nested ifs.
                     if (entryType == TStats.OUTGOING) {
-                        this.outgoingGPSRPPacketsOfThisTimeInstant++;
-                        this.retransmissionRequestsSent++;
-                    } else if (entryType == TStats.BEING_DISCARDED) {
-                        this.discardedGPSRPPacketsOfThisTimeInstant++;
+                        this.retransmissionRequestsSent.increment();
                     } else if (entryType == TStats.INCOMING) {
-                        this.incomingGPSRPPacketsOfThisTimeInstant++;
-                        this.retransmissionRequestsReceived++;
+                        this.retransmissionRequestsReceived.increment();
                     }
                 } else if (messageType == TGPSRPPayload.RETRANSMISION_NOT_POSSIBLE) {
-                    // FIX: Use switch statement instead of such amount of nested ifs.
                     if (entryType == TStats.OUTGOING) {
-                        this.outgoingGPSRPPacketsOfThisTimeInstant++;
-                        this.retransmisionsUnrealized++;
-                    } else if (entryType == TStats.BEING_DISCARDED) {
-                        this.discardedGPSRPPacketsOfThisTimeInstant++;
+                        this.retransmisionsUnrealized.increment();
                     } else if (entryType == TStats.INCOMING) {
-                        this.incomingGPSRPPacketsOfThisTimeInstant++;
-                        this.GOSPacketsUnrecovered++;
+                        this.GOSPacketsUnrecovered.increment();
                     }
                 } else if (messageType == TGPSRPPayload.RETRANSMISION_OK) {
-                    // FIX: Use switch statement instead of such amount of nested ifs.
                     if (entryType == TStats.OUTGOING) {
-                        this.outgoingGPSRPPacketsOfThisTimeInstant++;
-                        this.retransmissionsRealized++;
-                    } else if (entryType == TStats.BEING_DISCARDED) {
-                        this.discardedGPSRPPacketsOfThisTimeInstant++;
+                        this.retransmissionsRealized.increment();
                     } else if (entryType == TStats.INCOMING) {
-                        this.incomingGPSRPPacketsOfThisTimeInstant++;
-                        this.GOSPacketsRecovered++;
-                    }
-                }
-            } else if (packetType == TAbstractPDU.MPLS) {
-                // FIX: Use switch statement instead of such amount of nested ifs.
-                if (entryType == TStats.OUTGOING) {
-                    this.outgoingMPLSPacketsOfThisTimeInstant++;
-                } else if (entryType == TStats.BEING_DISCARDED) {
-                    this.discardedMPLSPacketsOfThisTimeInstant++;
-                } else if (entryType == TStats.INCOMING) {
-                    this.incomingMPLSPacketsOfThisTimeInstant++;
-                }
-            } else if (packetType == TAbstractPDU.MPLS_GOS) {
-                GOSLevel = packet.getIPv4Header().getOptionsField().getRequestedGoSLevel();
-                // FIX: Use switch statement instead of such amount of nested ifs.
-                if (entryType == TStats.OUTGOING) {
-                    if ((GOSLevel == TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL0_WITH_BACKUP_LSP)) {
-                        this.outgoingMPLSPacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL1_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL1_WITH_BACKUP_LSP)) {
-                        this.outgoingMPLSGOS1PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL2_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL2_WITH_BACKUP_LSP)) {
-                        this.outgoingMPLSGOS2PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL3_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP)) {
-                        this.outgoingMPLSGOS3PacketsOfThisTimeInstant++;
-                    }
-                } else if (entryType == TStats.BEING_DISCARDED) {
-                    this.GOSPacketsLost++;
-                    if ((GOSLevel == TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL0_WITH_BACKUP_LSP)) {
-                        this.discardedMPLSPacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL1_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL1_WITH_BACKUP_LSP)) {
-                        this.discardedMPLSGOS1PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL2_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL2_WITH_BACKUP_LSP)) {
-                        this.discardedMPLSGOS2PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL3_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP)) {
-                        this.discardedMPLSGOS3PacketsOfThisTimeInstant++;
-                    }
-                } else if (entryType == TStats.INCOMING) {
-                    if ((GOSLevel == TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL0_WITH_BACKUP_LSP)) {
-                        this.incomingMPLSPacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL1_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL1_WITH_BACKUP_LSP)) {
-                        this.incomingMPLSGOS1PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL2_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL2_WITH_BACKUP_LSP)) {
-                        this.incomingMPLSGOS2PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL3_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP)) {
-                        this.incomingMPLSGOS3PacketsOfThisTimeInstant++;
+                        this.GOSPacketsRecovered.increment();
                     }
                 }
+            } else if ((packet.getSubtype() == TAbstractPDU.MPLS_GOS) && (entryType == TStats.BEING_DISCARDED)) {
+                this.GOSPacketsLost.increment();
             }
         }
     }
@@ -327,57 +239,37 @@ public class TActiveLSRStats extends TStats {
      */
     @Override
     public void reset() {
-        this.incomingPackets = new XYSeriesCollection();
-        this.outgoingPackets = new XYSeriesCollection();
-        this.discardedPackets = new XYSeriesCollection();
-        this.outgoingMPLSPackets = new XYSeries(TStats.MPLS);
-        this.outgoingMPLSGOS1Packets = new XYSeries(TStats.MPLS_GOS1);
-        this.outgoingMPLSGOS2Packets = new XYSeries(TStats.MPLS_GOS2);
-        this.outgoingMPLSGOS3Packets = new XYSeries(TStats.MPLS_GOS3);
-        this.outgoingTLDPPackets = new XYSeries(TStats.TLDP);
-        this.outgoingGPSRPPackets = new XYSeries(TStats.GPSRP);
-        this.incomingMPLSPackets = new XYSeries(TStats.MPLS);
-        this.incomingMPLSGOS1Packets = new XYSeries(TStats.MPLS_GOS1);
-        this.incomingMPLSGOS2Packets = new XYSeries(TStats.MPLS_GOS2);
-        this.incomingMPLSGOS3Packets = new XYSeries(TStats.MPLS_GOS3);
-        this.incomingTLDPPackets = new XYSeries(TStats.TLDP);
-        this.incomingGPSRPPackets = new XYSeries(TStats.GPSRP);
-        this.discardedMPLSPackets = new XYSeries(TStats.MPLS);
-        this.discardedMPLSGOS1Packets = new XYSeries(TStats.MPLS_GOS1);
-        this.discardedMPLSGOS2Packets = new XYSeries(TStats.MPLS_GOS2);
-        this.discardedMPLSGOS3Packets = new XYSeries(TStats.MPLS_GOS3);
-        this.discardedTLDPPackets = new XYSeries(TStats.TLDP);
-        this.discardedGPSRPPackets = new XYSeries(TStats.GPSRP);
-        // FIX: do not use harcoded values. Use class constants instead.
-        this.incomingMPLSPacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS1PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS2PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS3PacketsOfThisTimeInstant = 0;
-        this.incomingTLDPPacketsOfThisTimeInstant = 0;
-        this.incomingGPSRPPacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSPacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSGOS1PacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSGOS2PacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSGOS3PacketsOfThisTimeInstant = 0;
-        this.outgoingTLDPPacketsOfThisTimeInstant = 0;
-        this.outgoingGPSRPPacketsOfThisTimeInstant = 0;
-        this.discardedMPLSPacketsOfThisTimeInstant = 0;
-        this.discardedMPLSGOS1PacketsOfThisTimeInstant = 0;
-        this.discardedMPLSGOS2PacketsOfThisTimeInstant = 0;
-        this.discardedMPLSGOS3PacketsOfThisTimeInstant = 0;
-        this.discardedTLDPPacketsOfThisTimeInstant = 0;
-        this.discardedGPSRPPacketsOfThisTimeInstant = 0;
+        this.incomingPackets = new TStatsSeriesCollection();
+        this.outgoingPackets = new TStatsSeriesCollection();
+        this.discardedPackets = new TStatsSeriesCollection();
+        this.outgoingMPLSPackets = new TStatsSeries(TStats.MPLS);
+        this.outgoingMPLSGOS1Packets = new TStatsSeries(TStats.MPLS_GOS1);
+        this.outgoingMPLSGOS2Packets = new TStatsSeries(TStats.MPLS_GOS2);
+        this.outgoingMPLSGOS3Packets = new TStatsSeries(TStats.MPLS_GOS3);
+        this.outgoingTLDPPackets = new TStatsSeries(TStats.TLDP);
+        this.outgoingGPSRPPackets = new TStatsSeries(TStats.GPSRP);
+        this.incomingMPLSPackets = new TStatsSeries(TStats.MPLS);
+        this.incomingMPLSGOS1Packets = new TStatsSeries(TStats.MPLS_GOS1);
+        this.incomingMPLSGOS2Packets = new TStatsSeries(TStats.MPLS_GOS2);
+        this.incomingMPLSGOS3Packets = new TStatsSeries(TStats.MPLS_GOS3);
+        this.incomingTLDPPackets = new TStatsSeries(TStats.TLDP);
+        this.incomingGPSRPPackets = new TStatsSeries(TStats.GPSRP);
+        this.discardedMPLSPackets = new TStatsSeries(TStats.MPLS);
+        this.discardedMPLSGOS1Packets = new TStatsSeries(TStats.MPLS_GOS1);
+        this.discardedMPLSGOS2Packets = new TStatsSeries(TStats.MPLS_GOS2);
+        this.discardedMPLSGOS3Packets = new TStatsSeries(TStats.MPLS_GOS3);
+        this.discardedTLDPPackets = new TStatsSeries(TStats.TLDP);
+        this.discardedGPSRPPackets = new TStatsSeries(TStats.GPSRP);
+        this.counters.reset();
         this.retransmissionsManaged = new DefaultCategoryDataset();
-        // FIX: do not use harcoded values. Use class constants instead.
-        this.retransmissionRequestsReceived = 0;
-        this.retransmissionsRealized = 0;
-        this.retransmisionsUnrealized = 0;
+        this.retransmissionRequestsReceived.reset();
+        this.retransmissionsRealized.reset();
+        this.retransmisionsUnrealized.reset();
         this.localRecoveriesManaged = new DefaultCategoryDataset();
-        // FIX: do not use harcoded values. Use class constants instead.
-        this.GOSPacketsLost = 0;
-        this.retransmissionRequestsSent = 0;
-        this.GOSPacketsRecovered = 0;
-        this.GOSPacketsUnrecovered = 0;
+        this.GOSPacketsLost.reset();
+        this.retransmissionRequestsSent.reset();
+        this.GOSPacketsRecovered.reset();
+        this.GOSPacketsUnrecovered.reset();
     }
 
     /**
@@ -395,254 +287,85 @@ public class TActiveLSRStats extends TStats {
     @Override
     public void groupStatsByTimeInstant(long timeInstant) {
         if (this.statsEnabled) {
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.incomingMPLSPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (incomingMPLSPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingMPLSPackets.add(timeInstant - 1, 0);
-                    this.incomingMPLSPackets.add(timeInstant, this.incomingMPLSPacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(this.incomingMPLSPackets);
-                } else {
-                    this.incomingMPLSPackets.add(timeInstant, this.incomingMPLSPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.incomingMPLSGOS1PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.incomingMPLSGOS1Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingMPLSGOS1Packets.add(timeInstant - 1, 0);
-                    this.incomingMPLSGOS1Packets.add(timeInstant, this.incomingMPLSGOS1PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(this.incomingMPLSGOS1Packets);
-                } else {
-                    this.incomingMPLSGOS1Packets.add(timeInstant, this.incomingMPLSGOS1PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.incomingMPLSGOS2PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.incomingMPLSGOS2Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingMPLSGOS2Packets.add(timeInstant - 1, 0);
-                    this.incomingMPLSGOS2Packets.add(timeInstant, this.incomingMPLSGOS2PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(this.incomingMPLSGOS2Packets);
-                } else {
-                    this.incomingMPLSGOS2Packets.add(timeInstant, this.incomingMPLSGOS2PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.incomingMPLSGOS3PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.incomingMPLSGOS3Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingMPLSGOS3Packets.add(timeInstant - 1, 0);
-                    this.incomingMPLSGOS3Packets.add(timeInstant, this.incomingMPLSGOS3PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(this.incomingMPLSGOS3Packets);
-                } else {
-                    this.incomingMPLSGOS3Packets.add(timeInstant, this.incomingMPLSGOS3PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.incomingTLDPPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.incomingTLDPPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingTLDPPackets.add(timeInstant - 1, 0);
-                    this.incomingTLDPPackets.add(timeInstant, this.incomingTLDPPacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(this.incomingTLDPPackets);
-                } else {
-                    this.incomingTLDPPackets.add(timeInstant, this.incomingTLDPPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.incomingGPSRPPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (incomingGPSRPPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingGPSRPPackets.add(timeInstant - 1, 0);
-                    this.incomingGPSRPPackets.add(timeInstant, this.incomingGPSRPPacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(this.incomingGPSRPPackets);
-                } else {
-                    this.incomingGPSRPPackets.add(timeInstant, this.incomingGPSRPPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingMPLSPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingMPLSPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingMPLSPackets.add(timeInstant - 1, 0);
-                    this.outgoingMPLSPackets.add(timeInstant, this.outgoingMPLSPacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingMPLSPackets);
-                } else {
-                    this.outgoingMPLSPackets.add(timeInstant, this.outgoingMPLSPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingMPLSGOS1PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingMPLSGOS1Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingMPLSGOS1Packets.add(timeInstant - 1, 0);
-                    this.outgoingMPLSGOS1Packets.add(timeInstant, this.outgoingMPLSGOS1PacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingMPLSGOS1Packets);
-                } else {
-                    this.outgoingMPLSGOS1Packets.add(timeInstant, this.outgoingMPLSGOS1PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingMPLSGOS2PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingMPLSGOS2Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingMPLSGOS2Packets.add(timeInstant - 1, 0);
-                    this.outgoingMPLSGOS2Packets.add(timeInstant, this.outgoingMPLSGOS2PacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingMPLSGOS2Packets);
-                } else {
-                    this.outgoingMPLSGOS2Packets.add(timeInstant, this.outgoingMPLSGOS2PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingMPLSGOS3PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingMPLSGOS3Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingMPLSGOS3Packets.add(timeInstant - 1, 0);
-                    this.outgoingMPLSGOS3Packets.add(timeInstant, this.outgoingMPLSGOS3PacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingMPLSGOS3Packets);
-                } else {
-                    this.outgoingMPLSGOS3Packets.add(timeInstant, this.outgoingMPLSGOS3PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingTLDPPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingTLDPPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingTLDPPackets.add(timeInstant - 1, 0);
-                    this.outgoingTLDPPackets.add(timeInstant, this.outgoingTLDPPacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingTLDPPackets);
-                } else {
-                    this.outgoingTLDPPackets.add(timeInstant, this.outgoingTLDPPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingGPSRPPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingGPSRPPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingGPSRPPackets.add(timeInstant - 1, 0);
-                    this.outgoingGPSRPPackets.add(timeInstant, this.outgoingGPSRPPacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingGPSRPPackets);
-                } else {
-                    this.outgoingGPSRPPackets.add(timeInstant, this.outgoingGPSRPPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedMPLSPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedMPLSPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedMPLSPackets.add(timeInstant - 1, 0);
-                    this.discardedMPLSPackets.add(timeInstant, this.discardedMPLSPacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedMPLSPackets);
-                } else {
-                    this.discardedMPLSPackets.add(timeInstant, this.discardedMPLSPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedMPLSGOS1PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedMPLSGOS1Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedMPLSGOS1Packets.add(timeInstant - 1, 0);
-                    this.discardedMPLSGOS1Packets.add(timeInstant, this.discardedMPLSGOS1PacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedMPLSGOS1Packets);
-                } else {
-                    this.discardedMPLSGOS1Packets.add(timeInstant, this.discardedMPLSGOS1PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedMPLSGOS2PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedMPLSGOS2Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedMPLSGOS2Packets.add(timeInstant - 1, 0);
-                    this.discardedMPLSGOS2Packets.add(timeInstant, this.discardedMPLSGOS2PacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedMPLSGOS2Packets);
-                } else {
-                    this.discardedMPLSGOS2Packets.add(timeInstant, this.discardedMPLSGOS2PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedMPLSGOS3PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedMPLSGOS3Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedMPLSGOS3Packets.add(timeInstant - 1, 0);
-                    this.discardedMPLSGOS3Packets.add(timeInstant, this.discardedMPLSGOS3PacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedMPLSGOS3Packets);
-                } else {
-                    this.discardedMPLSGOS3Packets.add(timeInstant, this.discardedMPLSGOS3PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedTLDPPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedTLDPPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedTLDPPackets.add(timeInstant - 1, 0);
-                    this.discardedTLDPPackets.add(timeInstant, this.discardedTLDPPacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedTLDPPackets);
-                } else {
-                    this.discardedTLDPPackets.add(timeInstant, this.discardedTLDPPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedGPSRPPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedGPSRPPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedGPSRPPackets.add(timeInstant - 1, 0);
-                    this.discardedGPSRPPackets.add(timeInstant, this.discardedGPSRPPacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedGPSRPPackets);
-                } else {
-                    this.discardedGPSRPPackets.add(timeInstant, this.discardedGPSRPPacketsOfThisTimeInstant);
-                }
-            }
-
-            this.retransmissionsManaged.addValue(this.retransmissionRequestsReceived, TStats.RETRANSMISSION_REQUESTS_RECEIVED, "");
-            this.retransmissionsManaged.addValue(this.retransmissionsRealized, TStats.RETRANSMISSIONS_REALIZED, "");
-            this.retransmissionsManaged.addValue(this.retransmisionsUnrealized, TStats.RETRANSMISSIONS_UNREALIZED, "");
-            this.localRecoveriesManaged.addValue(this.GOSPacketsLost, TStats.GOS_PACKETS_LOST, "");
-            this.localRecoveriesManaged.addValue(this.retransmissionRequestsSent, TStats.RETRANSMISSION_REQUESTS_SENT, "");
-            this.localRecoveriesManaged.addValue(this.GOSPacketsRecovered, TStats.GOS_PACKETS_RECOVERED, "");
-            this.localRecoveriesManaged.addValue(this.GOSPacketsUnrecovered, TStats.GOS_PACKETS_UNRECOVERED, "");
-            int retransmissionRequestsStillUnanswered = (this.retransmissionRequestsSent - this.GOSPacketsRecovered - this.GOSPacketsUnrecovered);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.INCOMING, TStatsCounters.MPLS), this.incomingMPLSPackets, this.incomingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.INCOMING, TStatsCounters.MPLS_GOS1), this.incomingMPLSGOS1Packets, this.incomingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.INCOMING, TStatsCounters.MPLS_GOS2), this.incomingMPLSGOS2Packets, this.incomingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.INCOMING, TStatsCounters.MPLS_GOS3), this.incomingMPLSGOS3Packets, this.incomingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.INCOMING, TStatsCounters.TLDP), this.incomingTLDPPackets, this.incomingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.INCOMING, TStatsCounters.GPSRP), this.incomingGPSRPPackets, this.incomingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.OUTGOING, TStatsCounters.MPLS), this.outgoingMPLSPackets, this.outgoingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.OUTGOING, TStatsCounters.MPLS_GOS1), this.outgoingMPLSGOS1Packets, this.outgoingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.OUTGOING, TStatsCounters.MPLS_GOS2), this.outgoingMPLSGOS2Packets, this.outgoingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.OUTGOING, TStatsCounters.MPLS_GOS3), this.outgoingMPLSGOS3Packets, this.outgoingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.OUTGOING, TStatsCounters.TLDP), this.outgoingTLDPPackets, this.outgoingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.OUTGOING, TStatsCounters.GPSRP), this.outgoingGPSRPPackets, this.outgoingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.BEING_DISCARDED, TStatsCounters.MPLS), this.discardedMPLSPackets, this.discardedPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.BEING_DISCARDED, TStatsCounters.MPLS_GOS1), this.discardedMPLSGOS1Packets, this.discardedPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.BEING_DISCARDED, TStatsCounters.MPLS_GOS2), this.discardedMPLSGOS2Packets, this.discardedPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.BEING_DISCARDED, TStatsCounters.MPLS_GOS3), this.discardedMPLSGOS3Packets, this.discardedPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.BEING_DISCARDED, TStatsCounters.TLDP), this.discardedTLDPPackets, this.discardedPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.BEING_DISCARDED, TStatsCounters.GPSRP), this.discardedGPSRPPackets, this.discardedPackets);
+
+            this.retransmissionsManaged.addValue(this.retransmissionRequestsReceived.sum(), TStats.RETRANSMISSION_REQUESTS_RECEIVED, "");
+            this.retransmissionsManaged.addValue(this.retransmissionsRealized.sum(), TStats.RETRANSMISSIONS_REALIZED, "");
+            this.retransmissionsManaged.addValue(this.retransmisionsUnrealized.sum(), TStats.RETRANSMISSIONS_UNREALIZED, "");
+            this.localRecoveriesManaged.addValue(this.GOSPacketsLost.sum(), TStats.GOS_PACKETS_LOST, "");
+            this.localRecoveriesManaged.addValue(this.retransmissionRequestsSent.sum(), TStats.RETRANSMISSION_REQUESTS_SENT, "");
+            this.localRecoveriesManaged.addValue(this.GOSPacketsRecovered.sum(), TStats.GOS_PACKETS_RECOVERED, "");
+            this.localRecoveriesManaged.addValue(this.GOSPacketsUnrecovered.sum(), TStats.GOS_PACKETS_UNRECOVERED, "");
+            long retransmissionRequestsStillUnanswered = (this.retransmissionRequestsSent.sum() - this.GOSPacketsRecovered.sum() - this.GOSPacketsUnrecovered.sum());
             // FIX: do not use harcoded values. Use class constants instead.
             if (retransmissionRequestsStillUnanswered < 0) {
                 // FIX: do not use harcoded values. Use class constants instead.
                 retransmissionRequestsStillUnanswered = 0;
             }
             this.localRecoveriesManaged.addValue(retransmissionRequestsStillUnanswered, TStats.RETRANSMISSION_REQUESTS_STILL_UNANSWERED, "");
+            notifyStatsListener(timeInstant);
+        }
+    }
+
+    /**
+     * This method returns the columns that this TActiveLSRStats exports for
+     * each time instant.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the columns exported by this TActiveLSRStats.
+     * @since 2.4
+     */
+    @Override
+    public StatsColumns[] getColumns() {
+        return COLUMNS.clone();
+    }
+
+    /**
+     * This method returns the current value of the specified column, that is,
+     * the running total of the counter since this TActiveLSRStats was created
+     * or reset.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param column the column whose value is requested.
+     * @return the current value of the column.
+     * @since 2.4
+     */
+    @Override
+    public long getColumnValue(StatsColumns column) {
+        switch (column) {
+            case RETRANSMISSION_REQUESTS_RECEIVED:
+                return this.retransmissionRequestsReceived.sum();
+            case RETRANSMISSIONS_REALIZED:
+                return this.retransmissionsRealized.sum();
+            case RETRANSMISSIONS_UNREALIZED:
+                return this.retransmisionsUnrealized.sum();
+            case GOS_PACKETS_LOST:
+                return this.GOSPacketsLost.sum();
+            case RETRANSMISSION_REQUESTS_SENT:
+                return this.retransmissionRequestsSent.sum();
+            case GOS_PACKETS_RECOVERED:
+                return this.GOSPacketsRecovered.sum();
+            case GOS_PACKETS_UNRECOVERED:
+                return this.GOSPacketsUnrecovered.sum();
+            default:
+                return this.counters.getValue(column.getEntryType(), column.getCategory());
         }
     }
 
@@ -726,52 +449,63 @@ public class TActiveLSRStats extends TStats {
         return null;
     }
 
-    private int incomingMPLSPacketsOfThisTimeInstant;
-    private int incomingMPLSGOS1PacketsOfThisTimeInstant;
-    private int incomingMPLSGOS2PacketsOfThisTimeInstant;
-    private int incomingMPLSGOS3PacketsOfThisTimeInstant;
-    private int incomingTLDPPacketsOfThisTimeInstant;
-    private int incomingGPSRPPacketsOfThisTimeInstant;
-    private int outgoingMPLSPacketsOfThisTimeInstant;
-    private int outgoingMPLSGOS1PacketsOfThisTimeInstant;
-    private int outgoingMPLSGOS2PacketsOfThisTimeInstant;
-    private int outgoingMPLSGOS3PacketsOfThisTimeInstant;
-    private int outgoingTLDPPacketsOfThisTimeInstant;
-    private int outgoingGPSRPPacketsOfThisTimeInstant;
-    private int discardedMPLSPacketsOfThisTimeInstant;
-    private int discardedMPLSGOS1PacketsOfThisTimeInstant;
-    private int discardedMPLSGOS2PacketsOfThisTimeInstant;
-    private int discardedMPLSGOS3PacketsOfThisTimeInstant;
-    private int discardedTLDPPacketsOfThisTimeInstant;
-    private int discardedGPSRPPacketsOfThisTimeInstant;
-    private XYSeriesCollection incomingPackets;
-    private XYSeriesCollection outgoingPackets;
-    private XYSeriesCollection discardedPackets;
-    private XYSeries incomingMPLSPackets;
-    private XYSeries incomingMPLSGOS1Packets;
-    private XYSeries incomingMPLSGOS2Packets;
-    private XYSeries incomingMPLSGOS3Packets;
-    private XYSeries incomingTLDPPackets;
-    private XYSeries incomingGPSRPPackets;
-    private XYSeries outgoingMPLSPackets;
-    private XYSeries outgoingMPLSGOS1Packets;
-    private XYSeries outgoingMPLSGOS2Packets;
-    private XYSeries outgoingMPLSGOS3Packets;
-    private XYSeries outgoingTLDPPackets;
-    private XYSeries outgoingGPSRPPackets;
-    private XYSeries discardedMPLSPackets;
-    private XYSeries discardedMPLSGOS1Packets;
-    private XYSeries discardedMPLSGOS2Packets;
-    private XYSeries discardedMPLSGOS3Packets;
-    private XYSeries discardedTLDPPackets;
-    private XYSeries discardedGPSRPPackets;
+    private static final StatsColumns[] COLUMNS = {
+        StatsColumns.INCOMING_MPLS,
+        StatsColumns.INCOMING_MPLS_GOS1,
+        StatsColumns.INCOMING_MPLS_GOS2,
+        StatsColumns.INCOMING_MPLS_GOS3,
+        StatsColumns.INCOMING_TLDP,
+        StatsColumns.INCOMING_GPSRP,
+        StatsColumns.OUTGOING_MPLS,
+        StatsColumns.OUTGOING_MPLS_GOS1,
+        StatsColumns.OUTGOING_MPLS_GOS2,
+        StatsColumns.OUTGOING_MPLS_GOS3,
+        StatsColumns.OUTGOING_TLDP,
+        StatsColumns.OUTGOING_GPSRP,
+        StatsColumns.DISCARDED_MPLS,
+        StatsColumns.DISCARDED_MPLS_GOS1,
+        StatsColumns.DISCARDED_MPLS_GOS2,
+        StatsColumns.DISCARDED_MPLS_GOS3,
+        StatsColumns.DISCARDED_TLDP,
+        StatsColumns.DISCARDED_GPSRP,
+        StatsColumns.RETRANSMISSION_REQUESTS_RECEIVED,
+        StatsColumns.RETRANSMISSIONS_REALIZED,
+        StatsColumns.RETRANSMISSIONS_UNREALIZED,
+        StatsColumns.GOS_PACKETS_LOST,
+        StatsColumns.RETRANSMISSION_REQUESTS_SENT,
+        StatsColumns.GOS_PACKETS_RECOVERED,
+        StatsColumns.GOS_PACKETS_UNRECOVERED
+    };
+
+    private final TStatsCounters counters;
+    private TStatsSeriesCollection incomingPackets;
+    private TStatsSeriesCollection outgoingPackets;
+    private TStatsSeriesCollection discardedPackets;
+    private TStatsSeries incomingMPLSPackets;
+    private TStatsSeries incomingMPLSGOS1Packets;
+    private TStatsSeries incomingMPLSGOS2Packets;
+    private TStatsSeries incomingMPLSGOS3Packets;
+    private TStatsSeries incomingTLDPPackets;
+    private TStatsSeries incomingGPSRPPackets;
+    private TStatsSeries outgoingMPLSPackets;
+    private TStatsSeries outgoingMPLSGOS1Packets;
+    private TStatsSeries outgoingMPLSGOS2Packets;
+    private TStatsSeries outgoingMPLSGOS3Packets;
+    private TStatsSeries outgoingTLDPPackets;
+    private TStatsSeries outgoingGPSRPPackets;
+    private TStatsSeries discardedMPLSPackets;
+    private TStatsSeries discardedMPLSGOS1Packets;
+    private TStatsSeries discardedMPLSGOS2Packets;
+    private TStatsSeries discardedMPLSGOS3Packets;
+    private TStatsSeries discardedTLDPPackets;
+    private TStatsSeries discardedGPSRPPackets;
     private DefaultCategoryDataset retransmissionsManaged;
-    private int retransmissionRequestsReceived;
-    private int retransmissionsRealized;
-    private int retransmisionsUnrealized;
+    private final LongAdder retransmissionRequestsReceived;
+    private final LongAdder retransmissionsRealized;
+    private final LongAdder retransmisionsUnrealized;
     private DefaultCategoryDataset localRecoveriesManaged;
-    private int GOSPacketsLost;
-    private int retransmissionRequestsSent;
-    private int GOSPacketsRecovered;
-    private int GOSPacketsUnrecovered;
+    private final LongAdder GOSPacketsLost;
+    private final LongAdder retransmissionRequestsSent;
+    private final LongAdder GOSPacketsRecovered;
+    private final LongAdder GOSPacketsUnrecovered;
 }
@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
+import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import java.util.HashMap;
+import java.util.ResourceBundle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements an inmutable routing table that stores the result of
+ * running Floyd-Warshall algorithm over a given adjacency matrix: the minimum
+ * distance and the next hop for every pair of nodes. Once created, every
+ * query is answered in constant time and without locks, so it can be shared
+ * by all nodes until the topology changes.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public class TFloydWarshallRoutingTable {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TFloydWarshallRoutingTable and runs Floyd-Warshall algorithm to fill it.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param nodeIDs Node IDs of the nodes of the topology. The position of
+     * each node ID is the index of the corresponding node in the rest of
+     * arguments.
+     * @param ipv4Addresses IPv4 addresses of the nodes of the topology, in the
+     * same order than nodeIDs.
+     * @param adjacencyMatrix Weight of the link that joins each pair of nodes.
+     * TTopology.INFINITE_WEIGHT if there is not a usable link between them.
+     * @param joinedNodes TRUE for each pair of nodes joined by a link, even if
+     * it is broken. Otherwise, FALSE.
+     * @since 2.4
+     */
+    public TFloydWarshallRoutingTable(int[] nodeIDs, int[] ipv4Addresses, long[][] adjacencyMatrix, boolean[][] joinedNodes) {
+        this.translations = ResourceBundle.getBundle(AvailableBundles.T_FLOYD_WARSHALL_ROUTING_TABLE.getPath());
+        if ((nodeIDs == null) || (ipv4Addresses == null) || (adjacencyMatrix == null) || (joinedNodes == null)) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        int numberOfNodes = nodeIDs.length;
+        if ((ipv4Addresses.length != numberOfNodes) || (adjacencyMatrix.length != numberOfNodes) || (joinedNodes.length != numberOfNodes)) {
+            this.logger.error(this.translations.getString("argumentOutOfRange"));
+            throw new IllegalArgumentException(this.translations.getString("argumentOutOfRange"));
+        }
+        this.ipv4Addresses = ipv4Addresses.clone();
+        this.nodeIndexes = new HashMap<>();
+        this.ipv4AddressIndexes = new HashMap<>();
+        for (int i = ZERO; i < numberOfNodes; i++) {
+            this.nodeIndexes.putIfAbsent(nodeIDs[i], i);
+            this.ipv4AddressIndexes.putIfAbsent(ipv4Addresses[i], i);
+        }
+        // We compute costs matrix and paths matrix
+        this.distances = new long[numberOfNodes][numberOfNodes];
+        int[][] pathsMatrix = new int[numberOfNodes][numberOfNodes];
+        for (int i = ZERO; i < numberOfNodes; i++) {
+            for (int j = ZERO; j < numberOfNodes; j++) {
+                this.distances[i][j] = adjacencyMatrix[i][j];
+                pathsMatrix[i][j] = numberOfNodes;
+            }
+        }
+        for (int k = ZERO; k < numberOfNodes; k++) {
+            for (int i = ZERO; i < numberOfNodes; i++) {
+                if (this.distances[i][k] == TTopology.INFINITE_WEIGHT) {
+                    continue;
+                }
+                for (int j = ZERO; j < numberOfNodes; j++) {
+                    if (this.distances[k][j] != TTopology.INFINITE_WEIGHT) {
+                        if ((this.distances[i][k] + this.distances[k][j]) < this.distances[i][j]) {
+                            this.distances[i][j] = this.distances[i][k] + this.distances[k][j];
+                            pathsMatrix[i][j] = k;
+                        }
+                    }
+                }
+            }
+        }
+        // If there is a route to destination host, this step get the first hop
+        // of this route. Otherwise, nodes are adjacent or unreachable.
+        this.nextHopIDs = new int[numberOfNodes][numberOfNodes];
+        int nextHop;
+        int k;
+        for (int i = ZERO; i < numberOfNodes; i++) {
+            for (int j = ZERO; j < numberOfNodes; j++) {
+                nextHop = TTopology.TARGET_UNREACHABLE;
+                k = pathsMatrix[i][j];
+                while (k != numberOfNodes) {
+                    nextHop = k;
+                    k = pathsMatrix[i][k];
+                }
+                if (nextHop != TTopology.TARGET_UNREACHABLE) {
+                    this.nextHopIDs[i][j] = nodeIDs[nextHop];
+                } else if (joinedNodes[i][j]) {
+                    this.nextHopIDs[i][j] = nodeIDs[j];
+                } else {
+                    this.nextHopIDs[i][j] = TTopology.TARGET_UNREACHABLE;
+                }
+            }
+        }
+    }
+
+    /**
+     * This method gets the node ID of the next hop to reach the target node
+     * from the origin node.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param originNodeID node ID of the origin node.
+     * @param targetNodeID node ID of the target/destination node.
+     * @return node ID of the next hop node, that is an adjacent node of the
+     * origin node, to reach the target node with a minimum weight. If there is
+     * not a route to reach the target node, or any of the nodes is not in this
+     * routing table, TTopology.TARGET_UNREACHABLE is returned.
+     * @since 2.4
+     */
+    public int getNextHopID(int originNodeID, int targetNodeID) {
+        Integer originIndex = this.nodeIndexes.get(originNodeID);
+        Integer targetIndex = this.nodeIndexes.get(targetNodeID);
+        if ((originIndex == null) || (targetIndex == null)) {
+            return TTopology.TARGET_UNREACHABLE;
+        }
+        return this.nextHopIDs[originIndex][targetIndex];
+    }
+
+    /**
+     * This method gets the IPv4 address of the next hop to reach the target
+     * node from the origin node.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param originNodeIPv4Address IPv4 address of the origin node.
+     * @param targetNodeIPv4Address IPv4 address of the target/destination node.
+     * @return IPv4 address of the next hop node, that is an adjacent node of
+     * the origin node, to reach the target node with a minimum weight. If there
+     * is not a route to reach the target node, TIPv4Address.UNSPECIFIED is
+     * returned.
+     * @since 2.4
+     */
+    public int getNextHopIPv4Address(int originNodeIPv4Address, int targetNodeIPv4Address) {
+        Integer originIndex = this.ipv4AddressIndexes.get(originNodeIPv4Address);
+        Integer targetIndex = this.ipv4AddressIndexes.get(targetNodeIPv4Address);
+        if ((originIndex == null) || (targetIndex == null)) {
+            this.logger.error(this.translations.getString("unknownIPv4Address"));
+            throw new IllegalArgumentException(this.translations.getString("unknownIPv4Address"));
+        }
+        int nextHopID = this.nextHopIDs[originIndex][targetIndex];
+        if (nextHopID == TTopology.TARGET_UNREACHABLE) {
+            return TIPv4Address.UNSPECIFIED;
+        }
+        return this.ipv4Addresses[this.nodeIndexes.get(nextHopID)];
+    }
+
+    /**
+     * This method gets the minimum distance (sum of link weights) between the
+     * origin node and the target node.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param originNodeID node ID of the origin node.
+     * @param targetNodeID node ID of the target/destination node.
+     * @return the minimum distance between both nodes. If there is not a route
+     * to reach the target node, or any of the nodes is not in this routing
+     * table, TTopology.INFINITE_WEIGHT is returned.
+     * @since 2.4
+     */
+    public long getDistance(int originNodeID, int targetNodeID) {
+        Integer originIndex = this.nodeIndexes.get(originNodeID);
+        Integer targetIndex = this.nodeIndexes.get(targetNodeID);
+        if ((originIndex == null) || (targetIndex == null)) {
+            return TTopology.INFINITE_WEIGHT;
+        }
+        return this.distances[originIndex][targetIndex];
+    }
+
+    private static final int ZERO = 0;
+
+    private final int[] ipv4Addresses;
+    private final HashMap<Integer, Integer> nodeIndexes;
+    private final HashMap<Integer, Integer> ipv4AddressIndexes;
+    private final long[][] distances;
+    private final int[][] nextHopIDs;
+    private final ResourceBundle translations;
+    private final Logger logger = LoggerFactory.getLogger(TFloydWarshallRoutingTable.class);
+}
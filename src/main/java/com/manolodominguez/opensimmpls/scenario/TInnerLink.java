@@ -15,6 +15,7 @@
  */
 package com.manolodominguez.opensimmpls.scenario;
 
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventLSPEstablished;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventLinkBroken;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventLSPRemoved;
@@ -25,6 +26,7 @@ import java.util.Iterator;
 import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
 import com.manolodominguez.opensimmpls.hardware.timer.ITimerEventListener;
 import com.manolodominguez.opensimmpls.commons.EIDGeneratorOverflow;
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
 import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
 
 /**
@@ -99,12 +101,18 @@ public class TInnerLink extends TLink implements ITimerEventListener, Runnable {
     @Override
     public void setAsBrokenLink(boolean linkIsBroken) {
         this.linkIsBroken = linkIsBroken;
+        if (this.topology != null) {
+            // Routes computed with the previous link state are not valid.
+            this.topology.invalidateRoutingTables();
+        }
         if (this.linkIsBroken) {
             try {
                 // FIX: Use class contants instead of harcoded values
                 this.numberOfLSPs = 0;
                 this.numberOfBackupLSPs = 0;
-                this.generateSimulationEvent(new TSimulationEventLinkBroken(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant()));
+                if (this.isSimulationEventEnabled(TSimulationEvent.LINK_BROKEN)) {
+                    this.generateSimulationEvent(new TSimulationEventLinkBroken(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant()));
+                }
                 this.packetsInTransitEntriesLock.setRed();
                 TAbstractPDU packet = null;
                 TLinkBufferEntry bufferedPacketEntry = null;
@@ -116,15 +124,19 @@ public class TInnerLink extends TLink implements ITimerEventListener, Runnable {
                         // FIX: do not use harcoded values. Use class constants
                         // instead
                         if (bufferedPacketEntry.getPacketEnd() == 1) {
-                            this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this.getTailEndNode(), this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_DISCARDED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this.getTailEndNode(), this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                            }
                             // FIX: do not use harcoded values. Use class
                             // constants instead
                         } else if (bufferedPacketEntry.getPacketEnd() == 2) {
-                            this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this.getHeadEndNode(), this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_DISCARDED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this.getHeadEndNode(), this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                            }
                         }
                     }
-                    bufferedPacketEntriesIterator.remove();
                 }
+                this.removePacketsInTransit();
                 this.packetsInTransitEntriesLock.setGreen();
             } catch (EIDGeneratorOverflow e) {
                 // FIX: this is not a good practice
@@ -132,7 +144,9 @@ public class TInnerLink extends TLink implements ITimerEventListener, Runnable {
             }
         } else {
             try {
-                this.generateSimulationEvent(new TSimulationEventLinkRecovered(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant()));
+                if (this.isSimulationEventEnabled(TSimulationEvent.LINK_RECOVERED)) {
+                    this.generateSimulationEvent(new TSimulationEventLinkRecovered(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant()));
+                }
             } catch (EIDGeneratorOverflow e) {
                 // FIX: this is not a good practice
                 e.printStackTrace();
@@ -178,7 +192,9 @@ public class TInnerLink extends TLink implements ITimerEventListener, Runnable {
     public void setAsUsedByALSP() {
         this.numberOfLSPs++;
         try {
-            this.generateSimulationEvent(new TSimulationEventLSPEstablished(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant()));
+            if (this.isSimulationEventEnabled(TSimulationEvent.LSP_ESTABLISHED)) {
+                this.generateSimulationEvent(new TSimulationEventLSPEstablished(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant()));
+            }
         } catch (Exception e) {
             // FIX: this is not a good practice
             e.printStackTrace();
@@ -197,7 +213,9 @@ public class TInnerLink extends TLink implements ITimerEventListener, Runnable {
         if (this.numberOfLSPs > 0) {
             this.numberOfLSPs--;
             try {
-                this.generateSimulationEvent(new TSimulationEventLSPRemoved(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant()));
+                if (this.isSimulationEventEnabled(TSimulationEvent.LSP_REMOVED)) {
+                    this.generateSimulationEvent(new TSimulationEventLSPRemoved(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant()));
+                }
             } catch (Exception e) {
                 // FIX: this is not a good practice
                 e.printStackTrace();
@@ -244,68 +262,55 @@ public class TInnerLink extends TLink implements ITimerEventListener, Runnable {
     }
 
     /**
-     * This method pick up all packets in transit through this link and updates
-     * their remaining transit delay to the destination node.
+     * This method starts moving the packets that have entered the link since
+     * it last run and generates an event showing where every packet in transit
+     * is. The position of each packet is computed from its delivery time
+     * instant, so packets themselves are not updated. Those events are not
+     * even created if nobody is interested in them.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
     public void updateTransitDelay() {
         this.packetsInTransitEntriesLock.setRed();
-        Iterator bufferedPacketEntriesIterator = this.buffer.iterator();
-        while (bufferedPacketEntriesIterator.hasNext()) {
-            TLinkBufferEntry bufferedPacketEntry = (TLinkBufferEntry) bufferedPacketEntriesIterator.next();
-            bufferedPacketEntry.substractStepFromRemainingDelay(this.stepLength);
-            long transitPercentage = this.getCurrentTransitPercentage(bufferedPacketEntry.getTotalTransitDelay(), bufferedPacketEntry.getRemainingTransitDelay());
-            // FIX: do not use harcoded values. Use constants class instead.
-            if (bufferedPacketEntry.getPacketEnd() == 1) {
+        this.schedulePacketsInTransit(this.getCurrentTimeInstant() - this.stepLength);
+        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_ON_FLY)) {
+            Iterator bufferedPacketEntriesIterator = this.buffer.iterator();
+            while (bufferedPacketEntriesIterator.hasNext()) {
+                TLinkBufferEntry bufferedPacketEntry = (TLinkBufferEntry) bufferedPacketEntriesIterator.next();
+                long transitPercentage = this.getCurrentTransitPercentage(bufferedPacketEntry.getTotalTransitDelay(), bufferedPacketEntry.getRemainingTransitDelay(this.getCurrentTimeInstant()));
                 // FIX: do not use harcoded values. Use constants class instead.
-                transitPercentage = 100 - transitPercentage;
-            }
-            try {
-                if (bufferedPacketEntry.getPacket().getType() == TAbstractPDU.TLDP) {
-                    this.generateSimulationEvent(new TSimulationEventPacketOnFly(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, transitPercentage));
-                } else if (bufferedPacketEntry.getPacket().getType() == TAbstractPDU.MPLS) {
-                    this.generateSimulationEvent(new TSimulationEventPacketOnFly(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), bufferedPacketEntry.getPacket().getSubtype(), transitPercentage));
-                } else if (bufferedPacketEntry.getPacket().getType() == TAbstractPDU.GPSRP) {
-                    this.generateSimulationEvent(new TSimulationEventPacketOnFly(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, transitPercentage));
+                if (bufferedPacketEntry.getPacketEnd() == 1) {
+                    // FIX: do not use harcoded values. Use constants class instead.
+                    transitPercentage = 100 - transitPercentage;
+                }
+                try {
+                    if (bufferedPacketEntry.getPacket().getType() == TAbstractPDU.TLDP) {
+                        this.generateSimulationEvent(new TSimulationEventPacketOnFly(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, transitPercentage));
+                    } else if (bufferedPacketEntry.getPacket().getType() == TAbstractPDU.MPLS) {
+                        this.generateSimulationEvent(new TSimulationEventPacketOnFly(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), bufferedPacketEntry.getPacket().getSubtype(), transitPercentage));
+                    } else if (bufferedPacketEntry.getPacket().getType() == TAbstractPDU.GPSRP) {
+                        this.generateSimulationEvent(new TSimulationEventPacketOnFly(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP, transitPercentage));
+                    }
+                } catch (EIDGeneratorOverflow e) {
+                    // FIX: this is not a good practice
+                    e.printStackTrace();
                 }
-            } catch (EIDGeneratorOverflow e) {
-                // FIX: this is not a good practice
-                e.printStackTrace();
             }
         }
         this.packetsInTransitEntriesLock.setGreen();
     }
 
     /**
-     * This method pick up all packets in transit through this link and advances
-     * them to the destination node. Also, bufferedPacketEntriesIterator detects
-     * those packets that have already reached the target node.
+     * This method picks up the packets in transit through this link that reach
+     * the destination node during the current tick.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
     public void advancePacketInTransit() {
         this.packetsInTransitEntriesLock.setRed();
-        Iterator bufferedPacketEntriesIterator = this.buffer.iterator();
-        while (bufferedPacketEntriesIterator.hasNext()) {
-            TLinkBufferEntry bufferedPacketEntry = (TLinkBufferEntry) bufferedPacketEntriesIterator.next();
-            // FIX: Do not use harcoded values. Use constants class instead.
-            if (bufferedPacketEntry.getRemainingTransitDelay() <= 0) {
-                this.deliveredPacketEntriesLock.setRed();
-                this.deliveredPacketsBuffer.add(bufferedPacketEntry);
-                this.deliveredPacketEntriesLock.setGreen();
-            }
-        }
-        bufferedPacketEntriesIterator = this.buffer.iterator();
-        while (bufferedPacketEntriesIterator.hasNext()) {
-            TLinkBufferEntry bufferedPacketEntry = (TLinkBufferEntry) bufferedPacketEntriesIterator.next();
-            // FIX: Do not use harcoded values. Use constants class instead.
-            if (bufferedPacketEntry.getRemainingTransitDelay() <= 0) {
-                bufferedPacketEntriesIterator.remove();
-            }
-        }
+        this.collectPacketsReachingDestination(this.getCurrentTimeInstant() - this.stepLength, this.getCurrentTimeInstant());
         this.packetsInTransitEntriesLock.setGreen();
     }
 
@@ -400,11 +405,11 @@ public class TInnerLink extends TLink implements ITimerEventListener, Runnable {
         serializedElement += "#";
         serializedElement += this.getDelay();
         serializedElement += "#";
-        serializedElement += this.getHeadEndNode().getIPv4Address();
+        serializedElement += TIPv4Address.toString(this.getHeadEndNode().getIPv4Address());
         serializedElement += "#";
         serializedElement += this.getHeadEndNodePortID();
         serializedElement += "#";
-        serializedElement += this.getTailEndNode().getIPv4Address();
+        serializedElement += TIPv4Address.toString(this.getTailEndNode().getIPv4Address());
         serializedElement += "#";
         serializedElement += this.getTailEndNodePortID();
         serializedElement += "#";
@@ -463,14 +468,10 @@ public class TInnerLink extends TLink implements ITimerEventListener, Runnable {
     @Override
     public void reset() {
         this.packetsInTransitEntriesLock.setRed();
-        Iterator bufferedPacketEntriesIterator = this.buffer.iterator();
-        while (bufferedPacketEntriesIterator.hasNext()) {
-            bufferedPacketEntriesIterator.next();
-            bufferedPacketEntriesIterator.remove();
-        }
+        this.removePacketsInTransit();
         this.packetsInTransitEntriesLock.setGreen();
         this.deliveredPacketEntriesLock.setRed();
-        bufferedPacketEntriesIterator = this.deliveredPacketsBuffer.iterator();
+        Iterator bufferedPacketEntriesIterator = this.deliveredPacketsBuffer.iterator();
         while (bufferedPacketEntriesIterator.hasNext()) {
             bufferedPacketEntriesIterator.next();
             bufferedPacketEntriesIterator.remove();
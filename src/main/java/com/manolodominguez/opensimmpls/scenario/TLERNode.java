@@ -15,6 +15,8 @@
  */
 package com.manolodominguez.opensimmpls.scenario;
 
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketSent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketGenerated;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketDiscarded;
@@ -29,7 +31,6 @@ import com.manolodominguez.opensimmpls.protocols.TTLDPPayload;
 import com.manolodominguez.opensimmpls.protocols.TIPv4PDU;
 import com.manolodominguez.opensimmpls.hardware.timer.TTimerEvent;
 import com.manolodominguez.opensimmpls.hardware.timer.ITimerEventListener;
-import com.manolodominguez.opensimmpls.hardware.ports.TFIFOPort;
 import com.manolodominguez.opensimmpls.hardware.tldp.TSwitchingMatrix;
 import com.manolodominguez.opensimmpls.hardware.tldp.TSwitchingMatrixEntry;
 import com.manolodominguez.opensimmpls.hardware.ports.TFIFOPortSet;
@@ -256,7 +257,9 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
     public void run() {
         // Actions to be done during the timer tick.
         try {
-            this.generateSimulationEvent(new TSimulationEventNodeCongested(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), this.getPorts().getCongestionLevel()));
+            if (this.isSimulationEventEnabled(TSimulationEvent.NODE_CONGESTED)) {
+                this.generateSimulationEvent(new TSimulationEventNodeCongested(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), this.getPorts().getCongestionLevel()));
+            }
         } catch (Exception e) {
             // FIX: this is not a good practice. Avoid.
             e.printStackTrace();
@@ -267,6 +270,55 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
         this.stats.groupStatsByTimeInstant(this.getCurrentTimeInstant());
     }
 
+    /**
+     * This method computes how many consecutive ticks, starting with the next
+     * one, this LER would spend without doing anything observable. That is
+     * the case while it has no packet waiting in its ports and none of its TLDP timeouts
+     * expires.
+     *
+     * @param tickDurationInNs Duration of each tick, in nanoseconds.
+     * @param maxNumberOfIdleTicks The maximum number of ticks the timer is
+     * interested in.
+     * @return Number of consecutive idle ticks, never greater than
+     * maxNumberOfIdleTicks.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    @Override
+    public long getNumberOfIdleTicks(int tickDurationInNs, long maxNumberOfIdleTicks) {
+        if (this.ports.isThereAnyPacketToRoute() || this.isConnectedToABrokenLink()) {
+            return ZERO;
+        }
+        if (this.switchingMatrix.isThereAnyEntryWithUndefinedPorts()) {
+            // These entries are purged by checkConnectivityStatus() in the
+            // next tick.
+            return ZERO;
+        }
+        return this.switchingMatrix.getNumberOfIdleTicks(tickDurationInNs, maxNumberOfIdleTicks);
+    }
+
+    /**
+     * This method updates this LER as if it had received the specified
+     * number of idle timer events.
+     *
+     * @param firstIdleTick The first timer event that is being skipped.
+     * @param numberOfIdleTicks Number of consecutive timer events being
+     * skipped.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    @Override
+    public void skipIdleTicks(TTimerEvent firstIdleTick, long numberOfIdleTicks) {
+        int tickDurationInNs = firstIdleTick.getTickDurationInNs();
+        this.setTickDurationInNs(tickDurationInNs);
+        this.availableNanoseconds = tickDurationInNs;
+        this.resetTicksWithoutEmitting();
+        this.increaseTicksWithoutEmitting();
+        this.switchingMatrix.skipIdleTicks(numberOfIdleTicks, tickDurationInNs);
+        this.stats.groupStatsByTimeInstant(firstIdleTick.getUpperLimit());
+        this.setCurrentTimeInstant(firstIdleTick.getUpperLimit() + ((numberOfIdleTicks - ONE) * tickDurationInNs));
+    }
+
     /**
      * This method check wether the connectivity to the neighbors nodes exists.
      * Let's say, this check whether a link of this node is down. If so, this
@@ -412,20 +464,22 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
             // not necessary, remove from the code.
             int messageType = packet.getGPSRPPayload().getGPSRPMessageType();
             int globalFlowID = packet.getGPSRPPayload().getFlowID();
-            int packetGoSGlobalUniqueID = packet.getGPSRPPayload().getPacketGoSGlobalUniqueID();
-            String targetIPv4Address = packet.getIPv4Header().getTailEndIPAddress();
-            TFIFOPort outgoingPort = null;
-            if (targetIPv4Address.equals(this.getIPv4Address())) {
+            long packetGoSGlobalUniqueID = packet.getGPSRPPayload().getPacketGoSGlobalUniqueID();
+            int targetIPv4Address = packet.getIPv4Header().getTailEndIPAddress();
+            TPort outgoingPort = null;
+            if (targetIPv4Address == this.getIPv4Address()) {
                 // A LER node does not understand GPRS. So no GPRS packets can
                 // be sent to this node.
                 this.discardPacket(packet);
             } else {
-                String nextHopIPv4Address = this.topology.getFloydWarsallNextHopIPv4Address(this.getIPv4Address(), targetIPv4Address);
-                outgoingPort = (TFIFOPort) this.ports.getLocalPortConnectedToANodeWithIPv4Address(nextHopIPv4Address);
+                int nextHopIPv4Address = this.topology.getFloydWarsallNextHopIPv4Address(this.getIPv4Address(), targetIPv4Address);
+                outgoingPort = this.ports.getLocalPortConnectedToANodeWithIPv4Address(nextHopIPv4Address);
                 if (outgoingPort != null) {
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -453,7 +507,7 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
      */
     public void handleIPv4Packet(TIPv4PDU packet, int incomingPortID) {
         int fec = this.classifyPacket(packet);
-        String targetIPv4Address = packet.getIPv4Header().getTailEndIPAddress();
+        int targetIPv4Address = packet.getIPv4Header().getTailEndIPAddress();
         TSwitchingMatrixEntry switchingMatrixEntry = null;
         switchingMatrixEntry = this.switchingMatrix.getEntry(incomingPortID, fec, TSwitchingMatrixEntry.FEC_ENTRY);
         if (switchingMatrixEntry == null) {
@@ -488,7 +542,9 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
                     TMPLSPDU mplsPacket = this.createMPLSPacket(packet, switchingMatrixEntry);
                     outgoingPort.putPacketOnLink(mplsPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         e.printStackTrace();
                     }
@@ -500,7 +556,9 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
                     TPort outgoingPort = this.ports.getPort(switchingMatrixEntry.getOutgoingPortID());
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: Avoid this. This is not a good practice.
                         e.printStackTrace();
@@ -565,7 +623,7 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
             isLabeled = true;
         }
         int labelValue = packet.getLabelStack().getTop().getLabel();
-        String targetIPv4Address = packet.getIPv4Header().getTailEndIPAddress();
+        int targetIPv4Address = packet.getIPv4Header().getTailEndIPAddress();
         switchingMatrixEntry = this.switchingMatrix.getEntry(incomingPortID, labelValue, TSwitchingMatrixEntry.LABEL_ENTRY);
         if (switchingMatrixEntry == null) {
             switchingMatrixEntry = this.createInitialEntryInILMMatrix(packet, incomingPortID);
@@ -629,7 +687,9 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
                     TPort outgoingPort = this.ports.getPort(switchingMatrixEntry.getOutgoingPortID());
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -651,7 +711,9 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
                         outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     }
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -664,7 +726,9 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
                     TPort outgoingPort = this.ports.getPort(switchingMatrixEntry.getOutgoingPortID());
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -673,7 +737,9 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
                     TPort outgoingPort = this.ports.getPort(switchingMatrixEntry.getOutgoingPortID());
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -933,9 +999,9 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
     public void sendTLDPRequestOk(TSwitchingMatrixEntry switchingMatrixEntry) {
         if (switchingMatrixEntry != null) {
             if (switchingMatrixEntry.getUpstreamTLDPSessionID() != TSwitchingMatrixEntry.UNDEFINED) {
-                String localIPv4Address = this.getIPv4Address();
-                String targetIPv4Address = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getIncomingPortID());
-                if (targetIPv4Address != null) {
+                int localIPv4Address = this.getIPv4Address();
+                int targetIPv4Address = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getIncomingPortID());
+                if (targetIPv4Address != TIPv4Address.UNSPECIFIED) {
                     TTLDPPDU tldpPacket = null;
                     try {
                         tldpPacket = new TTLDPPDU(this.gIdent.getNextIdentifier(), localIPv4Address, targetIPv4Address);
@@ -956,8 +1022,12 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
                         TPort outgoingPort = this.ports.getLocalPortConnectedToANodeWithIPv4Address(targetIPv4Address);
                         outgoingPort.putPacketOnLink(tldpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
+                            }
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: this is not a good practice. Avoid.
                             e.printStackTrace();
@@ -979,9 +1049,9 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
     public void sendTLDPRequestRefuse(TSwitchingMatrixEntry switchingMatrixEntry) {
         if (switchingMatrixEntry != null) {
             if (switchingMatrixEntry.getUpstreamTLDPSessionID() != TSwitchingMatrixEntry.UNDEFINED) {
-                String localIPv4Address = this.getIPv4Address();
-                String targetIPv4Address = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getIncomingPortID());
-                if (targetIPv4Address != null) {
+                int localIPv4Address = this.getIPv4Address();
+                int targetIPv4Address = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getIncomingPortID());
+                if (targetIPv4Address != TIPv4Address.UNSPECIFIED) {
                     TTLDPPDU tldpPacket = null;
                     try {
                         tldpPacket = new TTLDPPDU(this.gIdent.getNextIdentifier(), localIPv4Address, targetIPv4Address);
@@ -1002,8 +1072,12 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
                         TPort outgoingPort = ports.getLocalPortConnectedToANodeWithIPv4Address(targetIPv4Address);
                         outgoingPort.putPacketOnLink(tldpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
+                            }
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             //FIX: this is not a good practice. Avoid.
                             e.printStackTrace();
@@ -1026,9 +1100,9 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
      */
     public void sendTLDPWithdrawalOk(TSwitchingMatrixEntry switchingMatrixEntry, int portID) {
         if (switchingMatrixEntry != null) {
-            String localIPv4Address = this.getIPv4Address();
-            String targetIPv4Address = this.ports.getIPv4OfNodeLinkedTo(portID);
-            if (targetIPv4Address != null) {
+            int localIPv4Address = this.getIPv4Address();
+            int targetIPv4Address = this.ports.getIPv4OfNodeLinkedTo(portID);
+            if (targetIPv4Address != TIPv4Address.UNSPECIFIED) {
                 TTLDPPDU tldpPacket = null;
                 try {
                     tldpPacket = new TTLDPPDU(this.gIdent.getNextIdentifier(), localIPv4Address, targetIPv4Address);
@@ -1054,8 +1128,12 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
                     TPort outgoingPort = this.ports.getPort(portID);
                     outgoingPort.putPacketOnLink(tldpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
-                        this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
+                        }
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                        }
                     } catch (Exception e) {
                         // FIX: this is not a good practice. Avoid.
                         e.printStackTrace();
@@ -1074,11 +1152,11 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      */
     public void requestTLDP(TSwitchingMatrixEntry switchingMatrixEntry) {
-        String localIPv4Address = this.getIPv4Address();
-        String tailEndIPv4Address = switchingMatrixEntry.getTailEndIPv4Address();
+        int localIPv4Address = this.getIPv4Address();
+        int tailEndIPv4Address = switchingMatrixEntry.getTailEndIPv4Address();
         if (switchingMatrixEntry.getOutgoingLabel() != TSwitchingMatrixEntry.LABEL_ASSIGNED) {
-            String nextHopIPv4Address = this.topology.getFloydWarsallNextHopIPv4Address(localIPv4Address, tailEndIPv4Address);
-            if (nextHopIPv4Address != null) {
+            int nextHopIPv4Address = this.topology.getFloydWarsallNextHopIPv4Address(localIPv4Address, tailEndIPv4Address);
+            if (nextHopIPv4Address != TIPv4Address.UNSPECIFIED) {
                 TTLDPPDU tldpPacket = null;
                 try {
                     tldpPacket = new TTLDPPDU(this.gIdent.getNextIdentifier(), localIPv4Address, nextHopIPv4Address);
@@ -1104,8 +1182,12 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
                     if (outgoingPort != null) {
                         outgoingPort.putPacketOnLink(tldpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
+                            }
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: this is not a good practice. Avoid.
                             e.printStackTrace();
@@ -1129,10 +1211,10 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
     public void sendTLDPWithdrawal(TSwitchingMatrixEntry switchingMatrixEntry, int portID) {
         if (switchingMatrixEntry != null) {
             switchingMatrixEntry.setOutgoingLabel(TSwitchingMatrixEntry.REMOVING_LABEL);
-            String localIPv4Address = this.getIPv4Address();
-            String tailEndIPv4Address = switchingMatrixEntry.getTailEndIPv4Address();
-            String nextHopIPv4Address = this.ports.getIPv4OfNodeLinkedTo(portID);
-            if (nextHopIPv4Address != null) {
+            int localIPv4Address = this.getIPv4Address();
+            int tailEndIPv4Address = switchingMatrixEntry.getTailEndIPv4Address();
+            int nextHopIPv4Address = this.ports.getIPv4OfNodeLinkedTo(portID);
+            if (nextHopIPv4Address != TIPv4Address.UNSPECIFIED) {
                 TTLDPPDU tldpPacket = null;
                 try {
                     tldpPacket = new TTLDPPDU(this.gIdent.getNextIdentifier(), localIPv4Address, nextHopIPv4Address);
@@ -1158,8 +1240,12 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
                     if (outgoingPort != null) {
                         outgoingPort.putPacketOnLink(tldpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
+                            }
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: this is ugly. Avoid.
                             e.printStackTrace();
@@ -1181,10 +1267,10 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
      */
     public void requestTLDPAfterTimeout(TSwitchingMatrixEntry switchingMatrixEntry) {
         if (switchingMatrixEntry != null) {
-            String localIPv4Address = this.getIPv4Address();
-            String tailEndIPv4Address = switchingMatrixEntry.getTailEndIPv4Address();
-            String nextHopIPv4Address = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getOutgoingPortID());
-            if (nextHopIPv4Address != null) {
+            int localIPv4Address = this.getIPv4Address();
+            int tailEndIPv4Address = switchingMatrixEntry.getTailEndIPv4Address();
+            int nextHopIPv4Address = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getOutgoingPortID());
+            if (nextHopIPv4Address != TIPv4Address.UNSPECIFIED) {
                 TTLDPPDU tldpPacket = null;
                 try {
                     tldpPacket = new TTLDPPDU(this.gIdent.getNextIdentifier(), localIPv4Address, nextHopIPv4Address);
@@ -1210,8 +1296,12 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
                     if (outgoingPort != null) {
                         outgoingPort.putPacketOnLink(tldpPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, tldpPacket.getSize()));
+                            }
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: this is ugly. Avoid.
                             e.printStackTrace();
@@ -1305,9 +1395,9 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
         TSwitchingMatrixEntry switchingMatrixEntry = null;
         int predecessorTLDPID = tldpPacket.getTLDPPayload().getTLDPIdentifier();
         TPort incomingPort = this.ports.getPort(incomingPortID);
-        String tailEndIPv4Address = tldpPacket.getTLDPPayload().getTailEndIPAddress();
-        String nextHopIPv4Address = this.topology.getFloydWarsallNextHopIPv4Address(this.getIPv4Address(), tailEndIPv4Address);
-        if (nextHopIPv4Address != null) {
+        int tailEndIPv4Address = tldpPacket.getTLDPPayload().getTailEndIPAddress();
+        int nextHopIPv4Address = this.topology.getFloydWarsallNextHopIPv4Address(this.getIPv4Address(), tailEndIPv4Address);
+        if (nextHopIPv4Address != TIPv4Address.UNSPECIFIED) {
             TPort outgoingPort = this.ports.getLocalPortConnectedToANodeWithIPv4Address(nextHopIPv4Address);
             int incomingLink = TLink.EXTERNAL_LINK;
             int outgoingLink = TLink.INTERNAL_LINK;
@@ -1370,10 +1460,10 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
      */
     public TSwitchingMatrixEntry createInitialEntryInFECMatrix(TIPv4PDU ipv4Packet, int incomingPortID) {
         TSwitchingMatrixEntry switchingMatrixEntry = null;
-        String localIPv4Address = this.getIPv4Address();
-        String tailEndIPv4Address = ipv4Packet.getIPv4Header().getTailEndIPAddress();
-        String outgoingPortID = this.topology.getFloydWarsallNextHopIPv4Address(localIPv4Address, tailEndIPv4Address);
-        if (outgoingPortID != null) {
+        int localIPv4Address = this.getIPv4Address();
+        int tailEndIPv4Address = ipv4Packet.getIPv4Header().getTailEndIPAddress();
+        int outgoingPortID = this.topology.getFloydWarsallNextHopIPv4Address(localIPv4Address, tailEndIPv4Address);
+        if (outgoingPortID != TIPv4Address.UNSPECIFIED) {
             TPort incomingPort = this.ports.getPort(incomingPortID);
             TPort outgoingPort = this.ports.getLocalPortConnectedToANodeWithIPv4Address(outgoingPortID);
             int incomingLink = TLink.EXTERNAL_LINK;
@@ -1433,10 +1523,10 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
      */
     public TSwitchingMatrixEntry createInitialEntryInILMMatrix(TMPLSPDU mplsPacket, int incomingPortID) {
         TSwitchingMatrixEntry switchingMatrixEntry = null;
-        String localIPv4Address = this.getIPv4Address();
-        String tailEndIPv4Address = mplsPacket.getIPv4Header().getTailEndIPAddress();
-        String nextHopIPv4Address = this.topology.getFloydWarsallNextHopIPv4Address(localIPv4Address, tailEndIPv4Address);
-        if (nextHopIPv4Address != null) {
+        int localIPv4Address = this.getIPv4Address();
+        int tailEndIPv4Address = mplsPacket.getIPv4Header().getTailEndIPAddress();
+        int nextHopIPv4Address = this.topology.getFloydWarsallNextHopIPv4Address(localIPv4Address, tailEndIPv4Address);
+        if (nextHopIPv4Address != TIPv4Address.UNSPECIFIED) {
             TPort incomingPort = this.ports.getPort(incomingPortID);
             TPort outgoingPort = this.ports.getLocalPortConnectedToANodeWithIPv4Address(nextHopIPv4Address);
             int incomingLink = TLink.EXTERNAL_LINK;
@@ -1520,7 +1610,9 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
         mplsPacket.getLabelStack().pushTop(mplsLabel);
         ipv4Packet = null;
         try {
-            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), mplsPacket.getSubtype(), mplsPacket.getSize()));
+            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), mplsPacket.getSubtype(), mplsPacket.getSize()));
+            }
         } catch (Exception e) {
             // FIX: this is ugly. Avoid.
             e.printStackTrace();
@@ -1560,7 +1652,9 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
             ipv4Packet.setSubtype(TAbstractPDU.IPV4);
         }
         try {
-            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), ipv4Packet.getSubtype(), ipv4Packet.getSize()));
+            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), ipv4Packet.getSubtype(), ipv4Packet.getSize()));
+            }
         } catch (Exception e) {
             // FIX: this is ugly. Avoid.
             e.printStackTrace();
@@ -1598,7 +1692,9 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
     @Override
     public void discardPacket(TAbstractPDU packet) {
         try {
-            this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_DISCARDED)) {
+                this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+            }
             this.stats.addStatEntry(packet, TStats.BEING_DISCARDED);
         } catch (Exception e) {
             // FIX: this is ugly. Avoid.
@@ -1610,10 +1706,9 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
     /**
      * This method gets an incoming packet as a parameter and classifies it.
      * This means that the node determines the FEC_ENTRY to wich the packet has
-     * to be associated. This values is computed as a hash of the concatenation
-     * of the origin and the target IP address. In practice, this means that
-     * packets having the same origin and target IP addresses have the same
-     * FEC_ENTRY.
+     * to be associated. This values is computed as a hash of the origin and
+     * the target IP address. In practice, this means that packets having the
+     * same origin and target IP addresses have the same FEC_ENTRY.
      *
      * @param incomingPacket the incoming packet to be classified.
      * @return The computed FEC_ENTRY to wich de incoming packet has to be
@@ -1622,13 +1717,9 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      */
     public int classifyPacket(TAbstractPDU incomingPacket) {
-        String originIPv4Address = incomingPacket.getIPv4Header().getOriginIPv4Address();
-        String tailEndIPv4Address = incomingPacket.getIPv4Header().getTailEndIPAddress();
-        String FECString = originIPv4Address + tailEndIPv4Address;
-        // FIX: According to Java documentation, hashCode() does not have a 
-        // constistent behaviour between different executions; should be changed
-        // and use a persistent mechanism.
-        return FECString.hashCode();
+        int originIPv4Address = incomingPacket.getIPv4Header().getOriginIPv4Address();
+        int tailEndIPv4Address = incomingPacket.getIPv4Header().getTailEndIPAddress();
+        return (FEC_HASH_MULTIPLIER * originIPv4Address) + tailEndIPv4Address;
     }
 
     /**
@@ -1687,7 +1778,7 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
      * @since 2.0
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      */
-    public boolean isExitLER(String targetIPAddress) {
+    public boolean isExitLER(int targetIPAddress) {
         TPort portAux = this.ports.getLocalPortConnectedToANodeWithIPv4Address(targetIPAddress);
         if (portAux != null) {
             if (portAux.getLink().getLinkType() == TLink.EXTERNAL_LINK) {
@@ -1802,7 +1893,7 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
         serializedElement += "#";
         serializedElement += this.getName().replace('#', ' ');
         serializedElement += "#";
-        serializedElement += this.getIPv4Address();
+        serializedElement += TIPv4Address.toString(this.getIPv4Address());
         serializedElement += "#";
         serializedElement += this.isSelected();
         serializedElement += "#";
@@ -1842,7 +1933,7 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
         }
         this.setNodeID(Integer.parseInt(elementFields[2]));
         this.setName(elementFields[3]);
-        this.setIPv4Address(elementFields[4]);
+        this.setIPv4Address(TIPv4Address.fromString(elementFields[4]));
         this.setSelected(Integer.parseInt(elementFields[5]));
         this.setShowName(Boolean.parseBoolean(elementFields[6]));
         this.setGenerateStats(Boolean.parseBoolean(elementFields[7]));
@@ -1903,6 +1994,10 @@ public class TLERNode extends TNode implements ITimerEventListener, Runnable {
     public static final int NAME_ALREADY_EXISTS = 2;
     public static final int ONLY_BLANK_SPACES = 3;
 
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final int FEC_HASH_MULTIPLIER = 31;
+
     private TSwitchingMatrix switchingMatrix;
     private TLongIDGenerator gIdent;
     private TIDGenerator gIdentLDP;
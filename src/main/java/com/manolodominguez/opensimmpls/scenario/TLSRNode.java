@@ -15,6 +15,8 @@
  */
 package com.manolodominguez.opensimmpls.scenario;
 
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketSent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketGenerated;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketDiscarded;
@@ -29,7 +31,6 @@ import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
 import com.manolodominguez.opensimmpls.protocols.TTLDPPayload;
 import com.manolodominguez.opensimmpls.hardware.timer.TTimerEvent;
 import com.manolodominguez.opensimmpls.hardware.timer.ITimerEventListener;
-import com.manolodominguez.opensimmpls.hardware.ports.TFIFOPort;
 import com.manolodominguez.opensimmpls.hardware.tldp.TSwitchingMatrix;
 import com.manolodominguez.opensimmpls.hardware.tldp.TSwitchingMatrixEntry;
 import com.manolodominguez.opensimmpls.hardware.ports.TFIFOPortSet;
@@ -251,7 +252,9 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
     public void run() {
         // Actions to be done during the timer tick.
         try {
-            this.generateSimulationEvent(new TSimulationEventNodeCongested(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), this.getPorts().getCongestionLevel()));
+            if (this.isSimulationEventEnabled(TSimulationEvent.NODE_CONGESTED)) {
+                this.generateSimulationEvent(new TSimulationEventNodeCongested(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), this.getPorts().getCongestionLevel()));
+            }
         } catch (Exception e) {
             // FIX: this is not a good practice. Avoid.
             e.printStackTrace();
@@ -263,6 +266,50 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
         // Acciones a llevar a cabo durante el tic.
     }
 
+    /**
+     * This method computes how many consecutive ticks, starting with the next
+     * one, this LSR would spend without doing anything observable. That is
+     * the case while it has no packet waiting in its ports and none of its TLDP timeouts
+     * expires.
+     *
+     * @param tickDurationInNs Duration of each tick, in nanoseconds.
+     * @param maxNumberOfIdleTicks The maximum number of ticks the timer is
+     * interested in.
+     * @return Number of consecutive idle ticks, never greater than
+     * maxNumberOfIdleTicks.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    @Override
+    public long getNumberOfIdleTicks(int tickDurationInNs, long maxNumberOfIdleTicks) {
+        if (this.ports.isThereAnyPacketToSwitch() || this.isConnectedToABrokenLink()) {
+            return ZERO;
+        }
+        return this.switchingMatrix.getNumberOfIdleTicks(tickDurationInNs, maxNumberOfIdleTicks);
+    }
+
+    /**
+     * This method updates this LSR as if it had received the specified
+     * number of idle timer events.
+     *
+     * @param firstIdleTick The first timer event that is being skipped.
+     * @param numberOfIdleTicks Number of consecutive timer events being
+     * skipped.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    @Override
+    public void skipIdleTicks(TTimerEvent firstIdleTick, long numberOfIdleTicks) {
+        int tickDurationInNs = firstIdleTick.getTickDurationInNs();
+        this.setTickDurationInNs(tickDurationInNs);
+        this.availableNanoseconds = tickDurationInNs;
+        this.resetTicksWithoutEmitting();
+        this.increaseTicksWithoutEmitting();
+        this.switchingMatrix.skipIdleTicks(numberOfIdleTicks, tickDurationInNs);
+        this.stats.groupStatsByTimeInstant(firstIdleTick.getUpperLimit());
+        this.setCurrentTimeInstant(firstIdleTick.getUpperLimit() + ((numberOfIdleTicks - ONE) * tickDurationInNs));
+    }
+
     /**
      * This method check wether the connectivity to the neighbors nodes exists.
      * Let's say, this check whether a link of this node is down. If so, this
@@ -373,20 +420,22 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
             // not necessary, remove from the code.
             int messageType = packet.getGPSRPPayload().getGPSRPMessageType();
             int globalFlowID = packet.getGPSRPPayload().getFlowID();
-            int packetGoSGlobalUniqueID = packet.getGPSRPPayload().getPacketGoSGlobalUniqueID();
-            String targetIPv4Address = packet.getIPv4Header().getTailEndIPAddress();
-            TFIFOPort outgoingPort = null;
-            if (targetIPv4Address.equals(this.getIPv4Address())) {
+            long packetGoSGlobalUniqueID = packet.getGPSRPPayload().getPacketGoSGlobalUniqueID();
+            int targetIPv4Address = packet.getIPv4Header().getTailEndIPAddress();
+            TPort outgoingPort = null;
+            if (targetIPv4Address == this.getIPv4Address()) {
                 // A LSR is unable to handle GPSRP packets, so if one is 
                 // received, it has to be discarded.
                 this.discardPacket(packet);
             } else {
-                String nextHopIPv4Address = this.topology.getFloydWarsallNextHopIPv4Address(this.getIPv4Address(), targetIPv4Address);
-                outgoingPort = (TFIFOPort) this.ports.getLocalPortConnectedToANodeWithIPv4Address(nextHopIPv4Address);
+                int nextHopIPv4Address = this.topology.getFloydWarsallNextHopIPv4Address(this.getIPv4Address(), targetIPv4Address);
+                outgoingPort = this.ports.getLocalPortConnectedToANodeWithIPv4Address(nextHopIPv4Address);
                 if (outgoingPort != null) {
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_ROUTED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketRouted(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.GPSRP));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -447,7 +496,7 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
         int labelValue = packet.getLabelStack().getTop().getLabel();
         // FIX: targetIPv4Address seems to be unused. Check and remove if 
         // needed
-        String targetIPv4Address = packet.getIPv4Header().getTailEndIPAddress();
+        int targetIPv4Address = packet.getIPv4Header().getTailEndIPAddress();
         switchingMatrixEntry = this.switchingMatrix.getEntry(incomingPortID, labelValue, TSwitchingMatrixEntry.LABEL_ENTRY);
         if (switchingMatrixEntry == null) {
             if (isLabeled) {
@@ -500,7 +549,9 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
                     TPort outgoingPort = ports.getPort(switchingMatrixEntry.getOutgoingPortID());
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SWITCHED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -513,7 +564,9 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
                     TPort outgoingPort = ports.getPort(switchingMatrixEntry.getOutgoingPortID());
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SWITCHED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -532,7 +585,9 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
                         switchingMatrixEntry.setEntryAsForBackupLSP(false);
                     }
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SWITCHED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -541,7 +596,9 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
                     TPort outgoingPort = ports.getPort(switchingMatrixEntry.getOutgoingPortID());
                     outgoingPort.putPacketOnLink(packet, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SWITCHED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSwitched(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice. Avoid.
                         e.printStackTrace();
@@ -782,9 +839,9 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
     public void sendTLDPRequestOk(TSwitchingMatrixEntry switchingMatrixEntry) {
         if (switchingMatrixEntry != null) {
             if (switchingMatrixEntry.getUpstreamTLDPSessionID() != TSwitchingMatrixEntry.UNDEFINED) {
-                String localIPv4Address = this.getIPv4Address();
-                String targetIPv4Address = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getIncomingPortID());
-                if (targetIPv4Address != null) {
+                int localIPv4Address = this.getIPv4Address();
+                int targetIPv4Address = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getIncomingPortID());
+                if (targetIPv4Address != TIPv4Address.UNSPECIFIED) {
                     TTLDPPDU newTLDPPacket = null;
                     try {
                         newTLDPPacket = new TTLDPPDU(this.gIdent.getNextIdentifier(), localIPv4Address, targetIPv4Address);
@@ -805,8 +862,12 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
                         TPort outgoingPort = ports.getLocalPortConnectedToANodeWithIPv4Address(targetIPv4Address);
                         outgoingPort.putPacketOnLink(newTLDPPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
+                            }
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: this is not a good practice
                             e.printStackTrace();
@@ -829,9 +890,9 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
     public void sendTLDPRequestRefuse(TSwitchingMatrixEntry switchingMatrixEntry) {
         if (switchingMatrixEntry != null) {
             if (switchingMatrixEntry.getUpstreamTLDPSessionID() != TSwitchingMatrixEntry.UNDEFINED) {
-                String localIPv4Address = this.getIPv4Address();
-                String targetIPv4Address = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getIncomingPortID());
-                if (targetIPv4Address != null) {
+                int localIPv4Address = this.getIPv4Address();
+                int targetIPv4Address = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getIncomingPortID());
+                if (targetIPv4Address != TIPv4Address.UNSPECIFIED) {
                     TTLDPPDU newTLDPPacket = null;
                     try {
                         newTLDPPacket = new TTLDPPDU(this.gIdent.getNextIdentifier(), localIPv4Address, targetIPv4Address);
@@ -852,8 +913,12 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
                         TPort outgoingPort = ports.getLocalPortConnectedToANodeWithIPv4Address(targetIPv4Address);
                         outgoingPort.putPacketOnLink(newTLDPPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
+                            }
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: This is not a good practice
                             e.printStackTrace();
@@ -877,9 +942,9 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
      */
     public void sendTLDPWithdrawalOk(TSwitchingMatrixEntry switchingMatrixEntry, int portID) {
         if (switchingMatrixEntry != null) {
-            String localIPv4Address = this.getIPv4Address();
-            String targetIPv4Address = this.ports.getIPv4OfNodeLinkedTo(portID);
-            if (targetIPv4Address != null) {
+            int localIPv4Address = this.getIPv4Address();
+            int targetIPv4Address = this.ports.getIPv4OfNodeLinkedTo(portID);
+            if (targetIPv4Address != TIPv4Address.UNSPECIFIED) {
                 TTLDPPDU newTLDPPacket = null;
                 try {
                     newTLDPPacket = new TTLDPPDU(this.gIdent.getNextIdentifier(), localIPv4Address, targetIPv4Address);
@@ -905,8 +970,12 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
                     TPort outgoingPort = ports.getPort(portID);
                     outgoingPort.putPacketOnLink(newTLDPPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
-                        this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
+                        }
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice
                         e.printStackTrace();
@@ -926,10 +995,10 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      */
     public void requestTLDP(TSwitchingMatrixEntry switchingMatrixEntry) {
-        String localIPv4Address = this.getIPv4Address();
-        String targetIPV4Address = switchingMatrixEntry.getTailEndIPv4Address();
-        String nextHopIPAddress = this.topology.getFloydWarsallNextHopIPv4Address(localIPv4Address, targetIPV4Address);
-        if (nextHopIPAddress != null) {
+        int localIPv4Address = this.getIPv4Address();
+        int targetIPV4Address = switchingMatrixEntry.getTailEndIPv4Address();
+        int nextHopIPAddress = this.topology.getFloydWarsallNextHopIPv4Address(localIPv4Address, targetIPV4Address);
+        if (nextHopIPAddress != TIPv4Address.UNSPECIFIED) {
             TTLDPPDU newTLDPPacket = null;
             try {
                 newTLDPPacket = new TTLDPPDU(this.gIdent.getNextIdentifier(), localIPv4Address, nextHopIPAddress);
@@ -951,8 +1020,12 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
                 if (outgoingPort != null) {
                     outgoingPort.putPacketOnLink(newTLDPPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                     try {
-                        this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
-                        this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
+                        }
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                        }
                     } catch (Exception e) {
                         // FIX: This is not a good practice
                         e.printStackTrace();
@@ -977,10 +1050,10 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
         if (switchingMatrixEntry != null) {
             if (switchingMatrixEntry.getUpstreamTLDPSessionID() != TSwitchingMatrixEntry.UNDEFINED) {
                 switchingMatrixEntry.setOutgoingLabel(TSwitchingMatrixEntry.REMOVING_LABEL);
-                String localIPv4Address = this.getIPv4Address();
-                String targetIPv4Address = switchingMatrixEntry.getTailEndIPv4Address();
-                String nextHopIPv4Address = this.ports.getIPv4OfNodeLinkedTo(portID);
-                if (nextHopIPv4Address != null) {
+                int localIPv4Address = this.getIPv4Address();
+                int targetIPv4Address = switchingMatrixEntry.getTailEndIPv4Address();
+                int nextHopIPv4Address = this.ports.getIPv4OfNodeLinkedTo(portID);
+                if (nextHopIPv4Address != TIPv4Address.UNSPECIFIED) {
                     TTLDPPDU newTLDPPacket = null;
                     try {
                         newTLDPPacket = new TTLDPPDU(this.gIdent.getNextIdentifier(), localIPv4Address, nextHopIPv4Address);
@@ -1006,8 +1079,12 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
                         if (outgoingPort != null) {
                             outgoingPort.putPacketOnLink(newTLDPPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                             try {
-                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
-                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                                if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                                    this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
+                                }
+                                if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                                    this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                                }
                             } catch (Exception e) {
                                 // FIX: This is not a good practice
                                 e.printStackTrace();
@@ -1030,10 +1107,10 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
      */
     public void requestTLDPAfterTimeout(TSwitchingMatrixEntry switchingMatrixEntry) {
         if (switchingMatrixEntry != null) {
-            String localIPv4Address = this.getIPv4Address();
-            String targetIPv4Address = switchingMatrixEntry.getTailEndIPv4Address();
-            String nextHopIPv4Address = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getOutgoingPortID());
-            if (nextHopIPv4Address != null) {
+            int localIPv4Address = this.getIPv4Address();
+            int targetIPv4Address = switchingMatrixEntry.getTailEndIPv4Address();
+            int nextHopIPv4Address = this.ports.getIPv4OfNodeLinkedTo(switchingMatrixEntry.getOutgoingPortID());
+            if (nextHopIPv4Address != TIPv4Address.UNSPECIFIED) {
                 TTLDPPDU newTLDPPacket = null;
                 try {
                     newTLDPPacket = new TTLDPPDU(this.gIdent.getNextIdentifier(), localIPv4Address, nextHopIPv4Address);
@@ -1059,8 +1136,12 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
                     if (outgoingPort != null) {
                         outgoingPort.putPacketOnLink(newTLDPPacket, outgoingPort.getLink().getDestinationOfTrafficSentBy(this));
                         try {
-                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
-                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP, newTLDPPacket.getSize()));
+                            }
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), TAbstractPDU.TLDP));
+                            }
                         } catch (Exception e) {
                             // FIX: This is not a good practice
                             e.printStackTrace();
@@ -1155,9 +1236,9 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
         int predecessorTLDPID = tldpPacket.getTLDPPayload().getTLDPIdentifier();
         // FIX: review the reason why this variable is nor used.
         TPort incomingPort = this.ports.getPort(incomingPortID);
-        String targetIPv4Address = tldpPacket.getTLDPPayload().getTailEndIPAddress();
-        String nextHopIPv4Address = this.topology.getFloydWarsallNextHopIPv4Address(this.getIPv4Address(), targetIPv4Address);
-        if (nextHopIPv4Address != null) {
+        int targetIPv4Address = tldpPacket.getTLDPPayload().getTailEndIPAddress();
+        int nextHopIPv4Address = this.topology.getFloydWarsallNextHopIPv4Address(this.getIPv4Address(), targetIPv4Address);
+        if (nextHopIPv4Address != TIPv4Address.UNSPECIFIED) {
             TPort outgoingPort = this.ports.getLocalPortConnectedToANodeWithIPv4Address(nextHopIPv4Address);
             switchingMatrixEntry = new TSwitchingMatrixEntry();
             switchingMatrixEntry.setUpstreamTLDPSessionID(predecessorTLDPID);
@@ -1194,7 +1275,9 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
     @Override
     public void discardPacket(TAbstractPDU packet) {
         try {
-            this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_DISCARDED)) {
+                this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+            }
             this.stats.addStatEntry(packet, TStats.BEING_DISCARDED);
         } catch (Exception e) {
             // FIX: this is ugly. Avoid.
@@ -1215,6 +1298,17 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
         return this.ports;
     }
 
+    /**
+     * This method gets the switching matrix of the node.
+     *
+     * @return the switching matrix of this node.
+     * @since 2.4
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     */
+    public TSwitchingMatrix getSwitchingMatrix() {
+        return this.switchingMatrix;
+    }
+
     /**
      * This method checks whether the node has available ports or not.
      *
@@ -1345,7 +1439,7 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
         serializedElement += "#";
         serializedElement += this.getName().replace('#', ' ');
         serializedElement += "#";
-        serializedElement += this.getIPv4Address();
+        serializedElement += TIPv4Address.toString(this.getIPv4Address());
         serializedElement += "#";
         serializedElement += this.isSelected();
         serializedElement += "#";
@@ -1385,7 +1479,7 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
         }
         this.setNodeID(Integer.parseInt(elementFields[2]));
         this.setName(elementFields[3]);
-        this.setIPv4Address(elementFields[4]);
+        this.setIPv4Address(TIPv4Address.fromString(elementFields[4]));
         this.setSelected(Integer.parseInt(elementFields[5]));
         this.setShowName(Boolean.parseBoolean(elementFields[6]));
         this.setGenerateStats(Boolean.parseBoolean(elementFields[7]));
@@ -1439,6 +1533,9 @@ public class TLSRNode extends TNode implements ITimerEventListener, Runnable {
     public static final int NAME_ALREADY_EXISTS = 2;
     public static final int ONLY_BLANK_SPACES = 3;
 
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+
     private TSwitchingMatrix switchingMatrix;
     private TLongIDGenerator gIdent;
     private TIDGenerator gIdentLDP;
@@ -22,7 +22,9 @@ import com.manolodominguez.opensimmpls.hardware.ports.TPortSet;
 import com.manolodominguez.opensimmpls.commons.TSemaphore;
 import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
 import java.awt.Point;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
@@ -59,6 +61,8 @@ public abstract class TLink extends TTopologyElement implements Comparable, ITim
         this.tailEndNodePortID = -1;
         this.buffer = Collections.synchronizedSortedSet(new TreeSet<>());
         this.deliveredPacketsBuffer = new TreeSet<>();
+        this.unscheduledPacketEntries = new ArrayList<>();
+        this.packetsInTransitWheel = new TLinkTimingWheel();
         this.packetsInTransitEntriesLock = new TSemaphore();
         this.deliveredPacketEntriesLock = new TSemaphore();
         this.topology = topology;
@@ -514,10 +518,73 @@ public abstract class TLink extends TTopologyElement implements Comparable, ITim
      */
     public void deliverPacketToNode(TAbstractPDU packet, int endNode) {
         this.packetsInTransitEntriesLock.setRed();
-        this.buffer.add(new TLinkBufferEntry(packet, this.getDelay(), endNode));
+        TLinkBufferEntry bufferedPacketEntry = new TLinkBufferEntry(packet, this.getDelay(), endNode);
+        if (this.buffer.add(bufferedPacketEntry)) {
+            this.unscheduledPacketEntries.add(bufferedPacketEntry);
+        }
         this.packetsInTransitEntriesLock.setGreen();
     }
 
+    /**
+     * This method computes the delivery time instant of the packets that have
+     * entered the link since it last run and stores them in the timing wheel.
+     * Packets start moving at the beginning of the first tick the link runs
+     * after they have entered it. It has to be called while holding the lock
+     * of packets in transit.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param startTimeInstant Beginning of the tick in which the packets start
+     * moving, in nanoseconds.
+     * @since 2.4
+     */
+    protected void schedulePacketsInTransit(long startTimeInstant) {
+        if (this.unscheduledPacketEntries.isEmpty()) {
+            return;
+        }
+        this.packetsInTransitWheel.setSlotDuration(this.getTickDurationInNs());
+        for (TLinkBufferEntry bufferedPacketEntry : this.unscheduledPacketEntries) {
+            bufferedPacketEntry.setDeliveryTimeInstant(startTimeInstant + bufferedPacketEntry.getTotalTransitDelay());
+            this.packetsInTransitWheel.add(bufferedPacketEntry);
+        }
+        this.unscheduledPacketEntries.clear();
+    }
+
+    /**
+     * This method moves the packets that reach their destination during the
+     * specified tick from the set of packets in transit to the set of
+     * delivered packets. It has to be called while holding the lock of packets
+     * in transit.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param lowerLimit Beginning of the tick, in nanoseconds.
+     * @param upperLimit End of the tick, in nanoseconds.
+     * @since 2.4
+     */
+    protected void collectPacketsReachingDestination(long lowerLimit, long upperLimit) {
+        this.deliveredPacketEntriesLock.setRed();
+        this.dueEntries.clear();
+        this.packetsInTransitWheel.removeDueEntries(lowerLimit, upperLimit, this.dueEntries);
+        for (TLinkBufferEntry bufferedPacketEntry : this.dueEntries) {
+            this.buffer.remove(bufferedPacketEntry);
+            this.deliveredPacketsBuffer.add(bufferedPacketEntry);
+        }
+        this.dueEntries.clear();
+        this.deliveredPacketEntriesLock.setGreen();
+    }
+
+    /**
+     * This method removes every packet in transit through the link. It has to
+     * be called while holding the lock of packets in transit.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    protected void removePacketsInTransit() {
+        this.buffer.clear();
+        this.unscheduledPacketEntries.clear();
+        this.packetsInTransitWheel.clear();
+    }
+
     /**
      * This method gets the current number of packet in tranit through this link
      * that have not reached their destionation yet.
@@ -666,6 +733,68 @@ public abstract class TLink extends TTopologyElement implements Comparable, ITim
     @Override
     public abstract void run();
 
+    /**
+     * This method computes how many consecutive ticks, starting with the next
+     * one, this link would spend without delivering any packet. Packets in
+     * transit only see their remaining transit delay decreased during those
+     * ticks.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param tickDurationInNs Duration of each tick, in nanoseconds.
+     * @param maxNumberOfIdleTicks The maximum number of ticks the timer is
+     * interested in.
+     * @return Number of consecutive idle ticks, never greater than
+     * maxNumberOfIdleTicks.
+     * @since 2.4
+     */
+    @Override
+    public long getNumberOfIdleTicks(int tickDurationInNs, long maxNumberOfIdleTicks) {
+        long numberOfIdleTicks = maxNumberOfIdleTicks;
+        this.deliveredPacketEntriesLock.setRed();
+        if (!this.deliveredPacketsBuffer.isEmpty()) {
+            numberOfIdleTicks = TLink.ZERO;
+        }
+        this.deliveredPacketEntriesLock.setGreen();
+        this.packetsInTransitEntriesLock.setRed();
+        long currentTimeInstant = this.getCurrentTimeInstant();
+        Iterator<TLinkBufferEntry> bufferedPacketEntriesIterator = this.unscheduledPacketEntries.iterator();
+        while (bufferedPacketEntriesIterator.hasNext() && (numberOfIdleTicks > TLink.ZERO)) {
+            numberOfIdleTicks = Math.min(numberOfIdleTicks, bufferedPacketEntriesIterator.next().getNumberOfIdleTicks(tickDurationInNs, currentTimeInstant));
+        }
+        long earliestDeliveryTimeInstant = this.packetsInTransitWheel.getEarliestDeliveryTimeInstant(currentTimeInstant);
+        if ((numberOfIdleTicks > TLink.ZERO) && (earliestDeliveryTimeInstant != Long.MAX_VALUE)) {
+            if (earliestDeliveryTimeInstant <= currentTimeInstant) {
+                numberOfIdleTicks = TLink.ZERO;
+            } else {
+                numberOfIdleTicks = Math.min(numberOfIdleTicks, (earliestDeliveryTimeInstant - currentTimeInstant - TLink.ONE) / tickDurationInNs);
+            }
+        }
+        this.packetsInTransitEntriesLock.setGreen();
+        return numberOfIdleTicks;
+    }
+
+    /**
+     * This method updates the link as if it had received the specified number
+     * of idle timer events. Packets in transit do not need to be updated
+     * because their delivery time instant does not change; those that entered
+     * the link during the last tick start moving in the first skipped tick.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param firstIdleTick The first timer event that is being skipped.
+     * @param numberOfIdleTicks Number of consecutive timer events being
+     * skipped.
+     * @since 2.4
+     */
+    @Override
+    public void skipIdleTicks(TTimerEvent firstIdleTick, long numberOfIdleTicks) {
+        int tickDurationInNs = firstIdleTick.getTickDurationInNs();
+        this.setTickDurationInNs(tickDurationInNs);
+        this.setCurrentTimeInstant(firstIdleTick.getUpperLimit() + ((numberOfIdleTicks - TLink.ONE) * tickDurationInNs));
+        this.packetsInTransitEntriesLock.setRed();
+        this.schedulePacketsInTransit(firstIdleTick.getUpperLimit() - tickDurationInNs);
+        this.packetsInTransitEntriesLock.setGreen();
+    }
+
     /**
      * This method gets the weight of this link to be used by the standard
      * routing algorithm. To be implemented by all subclasses.
@@ -762,6 +891,9 @@ public abstract class TLink extends TTopologyElement implements Comparable, ITim
     public static final int HEAD_END_NODE = 1;
     public static final int TAIL_END_NODE = 2;
 
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+
     private int identifier;
     private TNode headEndNode;
     private TNode tailEndNode;
@@ -773,6 +905,10 @@ public abstract class TLink extends TTopologyElement implements Comparable, ITim
 
     protected SortedSet<TLinkBufferEntry> buffer;
     protected TreeSet<TLinkBufferEntry> deliveredPacketsBuffer;
+    // Packets in transit that have not started moving yet.
+    private final ArrayList<TLinkBufferEntry> unscheduledPacketEntries;
+    private final TLinkTimingWheel packetsInTransitWheel;
+    private final ArrayList<TLinkBufferEntry> dueEntries = new ArrayList<>();
     protected TSemaphore packetsInTransitEntriesLock;
     protected TSemaphore deliveredPacketEntriesLock;
     protected TTopology topology;
@@ -41,8 +41,8 @@ public class TLinkBufferEntry implements Comparable {
      * @since 2.0
      */
     public TLinkBufferEntry(TAbstractPDU packet, long totalTransitDelay, int packetEnd) {
-        this.remainingTransitDelay = totalTransitDelay;
         this.initialTotalTransitDelay = totalTransitDelay;
+        this.deliveryTimeInstant = UNSCHEDULED;
         this.packet = packet;
         this.packetEnd = packetEnd;
     }
@@ -112,39 +112,78 @@ public class TLinkBufferEntry implements Comparable {
      * @since 2.0
      */
     public void setTotalTransitDelay(long totalTransitDelay) {
-        this.remainingTransitDelay = totalTransitDelay;
         this.initialTotalTransitDelay = totalTransitDelay;
+        this.deliveryTimeInstant = UNSCHEDULED;
+    }
+
+    /**
+     * This method sets the time instant, in nanoseconds, at which the packet
+     * reaches the target node. It is computed by the link once it starts
+     * moving the packet.
+     *
+     * @param deliveryTimeInstant the time instant, in nanoseconds, at which
+     * the packet reaches the target node.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public void setDeliveryTimeInstant(long deliveryTimeInstant) {
+        this.deliveryTimeInstant = deliveryTimeInstant;
+    }
+
+    /**
+     * This method gets the time instant, in nanoseconds, at which the packet
+     * reaches the target node.
+     *
+     * @return the time instant, in nanoseconds, at which the packet reaches
+     * the target node, or TLinkBufferEntry.UNSCHEDULED if the link has not
+     * started moving the packet yet.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public long getDeliveryTimeInstant() {
+        return this.deliveryTimeInstant;
     }
 
     /**
      * This method gets the remaining transit delay the packet has to be in the
      * link before being delivered to the target node (in nanoseconds).
      *
+     * @param currentTimeInstant The current time instant of the link, in
+     * nanoseconds.
      * @return the remaining transit delay the packet has to be in the link
      * before being delivered to the target node (in nanoseconds).
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
-     * @since 2.0
+     * @since 2.4
      */
-    public long getRemainingTransitDelay() {
-        return this.remainingTransitDelay;
+    public long getRemainingTransitDelay(long currentTimeInstant) {
+        if (this.deliveryTimeInstant == UNSCHEDULED) {
+            return this.initialTotalTransitDelay;
+        }
+        if (this.deliveryTimeInstant <= currentTimeInstant) {
+            return ZERO;
+        }
+        return this.deliveryTimeInstant - currentTimeInstant;
     }
 
     /**
-     * This method decreases "step" nanoseconds from the remaining transis delay
-     * of this packet. Once the remaning transit delay is zero, the packet can
-     * be delivered to the target node.
+     * This method computes how many consecutive ticks of the specified
+     * duration this packet will remain in the link before its remaining
+     * transit delay expires.
      *
-     * @param step A given number of nanoseconds to be substracted from the
-     * remaining transit delay.
+     * @param tickDurationInNs Duration of each tick, in nanoseconds.
+     * @param currentTimeInstant The current time instant of the link, in
+     * nanoseconds.
+     * @return Number of consecutive ticks after which the packet will still
+     * be in transit.
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
-     * @since 2.0
+     * @since 2.4
      */
-    public void substractStepFromRemainingDelay(long step) {
-        this.remainingTransitDelay -= step;
-        // FIX: use class constant instead of harcoded values
-        if (this.remainingTransitDelay < 0) {
-            this.remainingTransitDelay = 0;
+    public long getNumberOfIdleTicks(int tickDurationInNs, long currentTimeInstant) {
+        long remainingTransitDelay = getRemainingTransitDelay(currentTimeInstant);
+        if (remainingTransitDelay <= ZERO) {
+            return ZERO;
         }
+        return (remainingTransitDelay - ONE) / tickDurationInNs;
     }
 
     /**
@@ -179,8 +218,13 @@ public class TLinkBufferEntry implements Comparable {
         return this.packetEnd;
     }
 
+    public static final long UNSCHEDULED = -1;
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+
     private TAbstractPDU packet;
     private int packetEnd;
-    private long remainingTransitDelay;
     private long initialTotalTransitDelay;
+    private long deliveryTimeInstant;
 }
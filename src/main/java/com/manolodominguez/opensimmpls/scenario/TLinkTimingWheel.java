@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * This class implements a hashed timing wheel that stores the packets in
+ * transit through a link by delivery time instant. Each slot of the wheel
+ * covers a fixed interval of time and the wheel wraps around, so an entry is
+ * stored in the slot that corresponds to its delivery time instant modulo the
+ * wheel length. This way, collecting the packets that reach their destination
+ * during a tick only requires visiting the slots that cover that tick instead
+ * of every packet in transit.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public class TLinkTimingWheel {
+
+    /**
+     * This is the constructor of the class. It creates a new empty instance of
+     * TLinkTimingWheel.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public TLinkTimingWheel() {
+        this.slots = new ArrayList<>(NUMBER_OF_SLOTS);
+        for (int i = ZERO; i < NUMBER_OF_SLOTS; i++) {
+            this.slots.add(new ArrayList<>());
+        }
+        this.slotDurationInNs = DEFAULT_SLOT_DURATION_IN_NS;
+        this.numberOfEntries = ZERO;
+    }
+
+    /**
+     * This method sets the interval of time covered by each slot of the wheel.
+     * It does not change which entries are collected when, only how many
+     * slots have to be visited to collect them, so it should be the tick
+     * duration. If the wheel is not empty, its entries are redistributed.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param slotDurationInNs The interval of time covered by each slot, in
+     * nanoseconds.
+     * @since 2.4
+     */
+    public void setSlotDuration(long slotDurationInNs) {
+        if ((slotDurationInNs <= ZERO) || (slotDurationInNs == this.slotDurationInNs)) {
+            return;
+        }
+        ArrayList<TLinkBufferEntry> entries = new ArrayList<>(this.numberOfEntries);
+        for (ArrayList<TLinkBufferEntry> slot : this.slots) {
+            entries.addAll(slot);
+            slot.clear();
+        }
+        this.slotDurationInNs = slotDurationInNs;
+        for (TLinkBufferEntry entry : entries) {
+            this.slots.get(getSlotIndex(entry.getDeliveryTimeInstant())).add(entry);
+        }
+    }
+
+    /**
+     * This method adds to the wheel an entry whose delivery time instant has
+     * already been set.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param entry The link buffer entry to be added.
+     * @since 2.4
+     */
+    public void add(TLinkBufferEntry entry) {
+        this.slots.get(getSlotIndex(entry.getDeliveryTimeInstant())).add(entry);
+        this.numberOfEntries++;
+    }
+
+    /**
+     * This method removes from the wheel every entry that is delivered during
+     * the specified tick, that is, every entry whose delivery time instant is
+     * not after the end of the tick, and adds it to the specified collection.
+     * Entries delivered before the beginning of the tick are supposed to have
+     * been removed in previous ticks.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param lowerLimit Beginning of the tick, in nanoseconds (exclusive).
+     * @param upperLimit End of the tick, in nanoseconds (inclusive).
+     * @param dueEntries Collection where removed entries are added.
+     * @since 2.4
+     */
+    public void removeDueEntries(long lowerLimit, long upperLimit, Collection<TLinkBufferEntry> dueEntries) {
+        if ((this.numberOfEntries == ZERO) || (upperLimit <= lowerLimit)) {
+            return;
+        }
+        long firstSlot = Math.floorDiv(lowerLimit, this.slotDurationInNs);
+        long lastSlot = Math.floorDiv(upperLimit - ONE, this.slotDurationInNs);
+        long numberOfSlotsToVisit = Math.min((lastSlot - firstSlot) + ONE, NUMBER_OF_SLOTS);
+        for (long i = ZERO; i < numberOfSlotsToVisit; i++) {
+            ArrayList<TLinkBufferEntry> slot = this.slots.get((int) ((firstSlot + i) & SLOT_MASK));
+            int numberOfRemainingEntries = ZERO;
+            for (int j = ZERO; j < slot.size(); j++) {
+                TLinkBufferEntry entry = slot.get(j);
+                if (entry.getDeliveryTimeInstant() <= upperLimit) {
+                    dueEntries.add(entry);
+                    this.numberOfEntries--;
+                } else {
+                    slot.set(numberOfRemainingEntries, entry);
+                    numberOfRemainingEntries++;
+                }
+            }
+            while (slot.size() > numberOfRemainingEntries) {
+                slot.remove(slot.size() - ONE);
+            }
+        }
+    }
+
+    /**
+     * This method gets the earliest delivery time instant of the entries in
+     * the wheel. Slots are visited in time order starting after the specified
+     * time instant, so usually only a few of them are visited.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param currentTimeInstant Time instant, in nanoseconds, before which no
+     * entry is supposed to be delivered.
+     * @return The earliest delivery time instant, or Long.MAX_VALUE if the
+     * wheel is empty.
+     * @since 2.4
+     */
+    public long getEarliestDeliveryTimeInstant(long currentTimeInstant) {
+        long earliestDeliveryTimeInstant = Long.MAX_VALUE;
+        if (this.numberOfEntries == ZERO) {
+            return earliestDeliveryTimeInstant;
+        }
+        long firstSlot = Math.floorDiv(currentTimeInstant, this.slotDurationInNs);
+        for (long i = ZERO; i < NUMBER_OF_SLOTS; i++) {
+            // Entries of this slot delivered before this instant are in the
+            // current turn of the wheel. The rest are, at least, one turn
+            // ahead of any other entry in the current turn.
+            long endOfSlotInCurrentTurn = (firstSlot + i + ONE) * this.slotDurationInNs;
+            boolean entryInCurrentTurn = false;
+            for (TLinkBufferEntry entry : this.slots.get((int) ((firstSlot + i) & SLOT_MASK))) {
+                earliestDeliveryTimeInstant = Math.min(earliestDeliveryTimeInstant, entry.getDeliveryTimeInstant());
+                if (entry.getDeliveryTimeInstant() <= endOfSlotInCurrentTurn) {
+                    entryInCurrentTurn = true;
+                }
+            }
+            if (entryInCurrentTurn) {
+                return earliestDeliveryTimeInstant;
+            }
+        }
+        return earliestDeliveryTimeInstant;
+    }
+
+    /**
+     * This method gets the number of entries in the wheel.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The number of entries in the wheel.
+     * @since 2.4
+     */
+    public int size() {
+        return this.numberOfEntries;
+    }
+
+    /**
+     * This method removes every entry from the wheel.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public void clear() {
+        for (ArrayList<TLinkBufferEntry> slot : this.slots) {
+            slot.clear();
+        }
+        this.numberOfEntries = ZERO;
+    }
+
+    /**
+     * This method computes the slot where an entry with the specified delivery
+     * time instant is stored. A slot covers the interval (start, end] so that
+     * an entry is in the same slot as the tick it is delivered in.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param deliveryTimeInstant Delivery time instant, in nanoseconds.
+     * @return The index of the slot.
+     * @since 2.4
+     */
+    private int getSlotIndex(long deliveryTimeInstant) {
+        return (int) (Math.floorDiv(deliveryTimeInstant - ONE, this.slotDurationInNs) & SLOT_MASK);
+    }
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    // It must be a power of two.
+    private static final int NUMBER_OF_SLOTS = 256;
+    private static final long SLOT_MASK = NUMBER_OF_SLOTS - ONE;
+    private static final long DEFAULT_SLOT_DURATION_IN_NS = 1000;
+
+    private final ArrayList<ArrayList<TLinkBufferEntry>> slots;
+    private long slotDurationInNs;
+    private int numberOfEntries;
+}
@@ -20,7 +20,7 @@ import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
 import com.manolodominguez.opensimmpls.hardware.timer.TTimerEvent;
 import com.manolodominguez.opensimmpls.hardware.timer.ITimerEventListener;
 import com.manolodominguez.opensimmpls.hardware.ports.TPortSet;
-import com.manolodominguez.opensimmpls.commons.TSemaphore;
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
 import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
 import java.awt.Point;
 
@@ -40,7 +40,8 @@ public abstract class TNode extends TTopologyElement implements Comparable, ITim
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      * @param nodeID The node identifier that is unique in the topology.
-     * @param ipv4Address IPv4 address of the node.
+     * @param ipv4Address IPv4 address of the node, in dotted decimal
+     * notation.
      * @param identifierGenerator An identifier generator that will be used to
      * generate unique identifiers for events.
      * @param topology Topology the node belongs to.
@@ -53,9 +54,8 @@ public abstract class TNode extends TTopologyElement implements Comparable, ITim
         this.name = "";
         this.selected = UNSELECTED;
         this.showName = false;
-        this.ipv4Address = ipv4Address;
+        this.ipv4Address = TIPv4Address.fromString(ipv4Address);
         this.ports = null;
-        this.lock = new TSemaphore();
         this.topology = topology;
         this.generateStatistics = false;
         this.availableNanoseconds = 0;
@@ -271,22 +271,22 @@ public abstract class TNode extends TTopologyElement implements Comparable, ITim
     /**
      * This method sets the IPv4 address of the node.
      *
-     * @return the IPv4 address of the node.
+     * @return the IPv4 address of the node, as a 32 bits integer.
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
-    public String getIPv4Address() {
+    public int getIPv4Address() {
         return this.ipv4Address;
     }
 
     /**
      * This method gets the IPv4 address of the node.
      *
-     * @param ipv4Address the IPv4 address of the node.
+     * @param ipv4Address the IPv4 address of the node, as a 32 bits integer.
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
-    public void setIPv4Address(String ipv4Address) {
+    public void setIPv4Address(int ipv4Address) {
         this.ipv4Address = ipv4Address;
     }
 
@@ -307,10 +307,8 @@ public abstract class TNode extends TTopologyElement implements Comparable, ITim
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
-    public synchronized void putPacket(TAbstractPDU packet, int portID) {
-        lock.setRed();
+    public void putPacket(TAbstractPDU packet, int portID) {
         this.ports.getPort(portID).addPacket(packet);
-        lock.setGreen();
     }
 
     /**
@@ -324,6 +322,18 @@ public abstract class TNode extends TTopologyElement implements Comparable, ITim
         this.ticksWithoutEmittingBeforeAlert++;
     }
 
+    /**
+     * This method increases the number of ticks that the node has been without
+     * emitting a packet in the specified amount.
+     *
+     * @param numberOfTicks the number of ticks to be added.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public void increaseTicksWithoutEmitting(long numberOfTicks) {
+        this.ticksWithoutEmittingBeforeAlert += numberOfTicks;
+    }
+
     /**
      * This method sets to 0 the number of ticks that the node has been without
      * emitting a packet.
@@ -348,6 +358,28 @@ public abstract class TNode extends TTopologyElement implements Comparable, ITim
         return this.ticksWithoutEmittingBeforeAlert;
     }
 
+    /**
+     * This method checks whether any of the ports of this node is connected to
+     * a broken link.
+     *
+     * @return TRUE, if at least one of the links connected to the node is
+     * broken. Otherwise, FALSE.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public boolean isConnectedToABrokenLink() {
+        TLink linkAux = null;
+        for (int i = 0; i < this.ports.getNumberOfPorts(); i++) {
+            if (this.ports.getPort(i) != null) {
+                linkAux = this.ports.getPort(i).getLink();
+                if ((linkAux != null) && (linkAux.isBroken())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * This method discard a packet from this node.
      *
@@ -549,8 +581,7 @@ public abstract class TNode extends TTopologyElement implements Comparable, ITim
     private String name;
     private Point screenPosition;
     private boolean showName;
-    private String ipv4Address;
-    private TSemaphore lock;
+    private int ipv4Address;
     private boolean generateStatistics;
     // FIX: Do not use harcoded values. Use class constant.
     private int ticksWithoutEmittingBeforeAlert = 0;
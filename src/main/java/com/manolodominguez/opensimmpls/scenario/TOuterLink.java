@@ -15,6 +15,7 @@
  */
 package com.manolodominguez.opensimmpls.scenario;
 
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventLinkBroken;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketDiscarded;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventLinkRecovered;
@@ -24,6 +25,7 @@ import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
 import com.manolodominguez.opensimmpls.hardware.timer.TTimerEvent;
 import com.manolodominguez.opensimmpls.hardware.timer.ITimerEventListener;
 import com.manolodominguez.opensimmpls.commons.EIDGeneratorOverflow;
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
 import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
 
 /**
@@ -95,9 +97,15 @@ public class TOuterLink extends TLink implements ITimerEventListener, Runnable {
     @Override
     public void setAsBrokenLink(boolean linkIsBroken) {
         this.linkIsBroken = linkIsBroken;
+        if (this.topology != null) {
+            // Routes computed with the previous link state are not valid.
+            this.topology.invalidateRoutingTables();
+        }
         if (this.linkIsBroken) {
             try {
-                this.generateSimulationEvent(new TSimulationEventLinkBroken(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant()));
+                if (this.isSimulationEventEnabled(TSimulationEvent.LINK_BROKEN)) {
+                    this.generateSimulationEvent(new TSimulationEventLinkBroken(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant()));
+                }
                 this.packetsInTransitEntriesLock.setRed();
                 TAbstractPDU packet = null;
                 TLinkBufferEntry bufferedPacketEntry = null;
@@ -109,15 +117,19 @@ public class TOuterLink extends TLink implements ITimerEventListener, Runnable {
                         // FIX: do not use harcoded values. Use constants class
                         // instead
                         if (bufferedPacketEntry.getPacketEnd() == 1) {
-                            this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this.getTailEndNode(), this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_DISCARDED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this.getTailEndNode(), this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                            }
                             // FIX: do not use harcoded values. Use constants class
                             // instead
                         } else if (bufferedPacketEntry.getPacketEnd() == 2) {
-                            this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this.getHeadEndNode(), this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_DISCARDED)) {
+                                this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this.getHeadEndNode(), this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+                            }
                         }
                     }
-                    bufferedPacketEntriesIterator.remove();
                 }
+                this.removePacketsInTransit();
                 this.packetsInTransitEntriesLock.setGreen();
             } catch (EIDGeneratorOverflow e) {
                 // FIX: this is not a good practice
@@ -125,7 +137,9 @@ public class TOuterLink extends TLink implements ITimerEventListener, Runnable {
             }
         } else {
             try {
-                this.generateSimulationEvent(new TSimulationEventLinkRecovered(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant()));
+                if (this.isSimulationEventEnabled(TSimulationEvent.LINK_RECOVERED)) {
+                    this.generateSimulationEvent(new TSimulationEventLinkRecovered(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant()));
+                }
             } catch (EIDGeneratorOverflow e) {
                 // FIX: this is not a good practice
                 e.printStackTrace();
@@ -149,62 +163,49 @@ public class TOuterLink extends TLink implements ITimerEventListener, Runnable {
     }
 
     /**
-     * This method pick up all packets in transit through this link and updates
-     * their remaining transit delay to the destination node.
+     * This method starts moving the packets that have entered the link since
+     * it last run and generates an event showing where every packet in transit
+     * is. The position of each packet is computed from its delivery time
+     * instant, so packets themselves are not updated. Those events are not
+     * even created if nobody is interested in them.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
     public void updateTransitDelay() {
         this.packetsInTransitEntriesLock.setRed();
-        Iterator bufferedPacketEntriesIterator = this.buffer.iterator();
-        while (bufferedPacketEntriesIterator.hasNext()) {
-            TLinkBufferEntry bufferedPacketEntry = (TLinkBufferEntry) bufferedPacketEntriesIterator.next();
-            bufferedPacketEntry.substractStepFromRemainingDelay(this.stepLength);
-            long transitPercentage = this.getCurrentTransitPercentage(bufferedPacketEntry.getTotalTransitDelay(), bufferedPacketEntry.getRemainingTransitDelay());
-            // FIX: do not use harcoded values. Use constants class instead.
-            if (bufferedPacketEntry.getPacketEnd() == 1) {
+        this.schedulePacketsInTransit(this.getCurrentTimeInstant() - this.stepLength);
+        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_ON_FLY)) {
+            Iterator bufferedPacketEntriesIterator = this.buffer.iterator();
+            while (bufferedPacketEntriesIterator.hasNext()) {
+                TLinkBufferEntry bufferedPacketEntry = (TLinkBufferEntry) bufferedPacketEntriesIterator.next();
+                long transitPercentage = this.getCurrentTransitPercentage(bufferedPacketEntry.getTotalTransitDelay(), bufferedPacketEntry.getRemainingTransitDelay(this.getCurrentTimeInstant()));
                 // FIX: do not use harcoded values. Use constants class instead.
-                transitPercentage = 100 - transitPercentage;
-            }
-            try {
-                this.generateSimulationEvent(new TSimulationEventPacketOnFly(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), bufferedPacketEntry.getPacket().getSubtype(), transitPercentage));
-            } catch (EIDGeneratorOverflow e) {
-                // FIX: This is not a good practice.
-                e.printStackTrace();
+                if (bufferedPacketEntry.getPacketEnd() == 1) {
+                    // FIX: do not use harcoded values. Use constants class instead.
+                    transitPercentage = 100 - transitPercentage;
+                }
+                try {
+                    this.generateSimulationEvent(new TSimulationEventPacketOnFly(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), bufferedPacketEntry.getPacket().getSubtype(), transitPercentage));
+                } catch (EIDGeneratorOverflow e) {
+                    // FIX: This is not a good practice.
+                    e.printStackTrace();
+                }
             }
         }
         this.packetsInTransitEntriesLock.setGreen();
     }
 
     /**
-     * This method pick up all packets in transit through this link and advances
-     * them to the destination node. Also, it detects those packets that have
-     * already reached the target node.
+     * This method picks up the packets in transit through this link that reach
+     * the destination node during the current tick.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
     public void advancePacketInTransit() {
         this.packetsInTransitEntriesLock.setRed();
-        Iterator bufferedPacketEntriesIterator = this.buffer.iterator();
-        while (bufferedPacketEntriesIterator.hasNext()) {
-            TLinkBufferEntry bufferedPacketEntry = (TLinkBufferEntry) bufferedPacketEntriesIterator.next();
-            // FIX: Do not use harcoded values. Use constants class instead.
-            if (bufferedPacketEntry.getRemainingTransitDelay() <= 0) {
-                this.deliveredPacketEntriesLock.setRed();
-                this.deliveredPacketsBuffer.add(bufferedPacketEntry);
-                this.deliveredPacketEntriesLock.setGreen();
-            }
-        }
-        bufferedPacketEntriesIterator = this.buffer.iterator();
-        while (bufferedPacketEntriesIterator.hasNext()) {
-            TLinkBufferEntry bufferedPacketEntry = (TLinkBufferEntry) bufferedPacketEntriesIterator.next();
-            // FIX: Do not use harcoded values. Use constants class instead.
-            if (bufferedPacketEntry.getRemainingTransitDelay() <= 0) {
-                bufferedPacketEntriesIterator.remove();
-            }
-        }
+        this.collectPacketsReachingDestination(this.getCurrentTimeInstant() - this.stepLength, this.getCurrentTimeInstant());
         this.packetsInTransitEntriesLock.setGreen();
     }
 
@@ -299,11 +300,11 @@ public class TOuterLink extends TLink implements ITimerEventListener, Runnable {
         serializedElement += "#";
         serializedElement += this.getDelay();
         serializedElement += "#";
-        serializedElement += this.getHeadEndNode().getIPv4Address();
+        serializedElement += TIPv4Address.toString(this.getHeadEndNode().getIPv4Address());
         serializedElement += "#";
         serializedElement += this.getHeadEndNodePortID();
         serializedElement += "#";
-        serializedElement += this.getTailEndNode().getIPv4Address();
+        serializedElement += TIPv4Address.toString(this.getTailEndNode().getIPv4Address());
         serializedElement += "#";
         serializedElement += this.getTailEndNodePortID();
         serializedElement += "#";
@@ -362,11 +363,7 @@ public class TOuterLink extends TLink implements ITimerEventListener, Runnable {
     @Override
     public void reset() {
         this.packetsInTransitEntriesLock.setRed();
-        Iterator bufferedPacketEntriesIterator = this.buffer.iterator();
-        while (bufferedPacketEntriesIterator.hasNext()) {
-            bufferedPacketEntriesIterator.next();
-            bufferedPacketEntriesIterator.remove();
-        }
+        this.removePacketsInTransit();
         this.packetsInTransitEntriesLock.setGreen();
         this.deliveredPacketEntriesLock.setRed();
         Iterator deliveredPacketEntriesIterator = this.deliveredPacketsBuffer.iterator();
@@ -0,0 +1,364 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
+import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.PriorityQueue;
+import java.util.ResourceBundle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements the route computation of RABAN algorithm. It stores
+ * the structure of the topology (which nodes are joined by which links) as
+ * adjacency lists, that only change when the topology changes. RABAN weights,
+ * instead, change continuously with the number of LSPs, the packets in
+ * transit and the routing weight of nodes, so they are read from links only
+ * when they are needed, running Dijkstra algorithm from the origin node each
+ * time a route is requested. See "Guarentee of Service (GoS) support over MPLS
+ * using Active Techniques" proposal to know more of RABAN.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public class TRABANRoutingEngine {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TRABANRoutingEngine for the specified nodes and links.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param nodes Nodes of the topology.
+     * @param links Links of the topology. If several links join the same
+     * nodes, only the first one is taken into account, as
+     * TTopology.getLinkThatJoins() does.
+     * @since 2.4
+     */
+    public TRABANRoutingEngine(TNode[] nodes, TLink[] links) {
+        this.translations = ResourceBundle.getBundle(AvailableBundles.T_RABAN_ROUTING_ENGINE.getPath());
+        if ((nodes == null) || (links == null)) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        int numberOfNodes = nodes.length;
+        this.nodeIDs = new int[numberOfNodes];
+        this.ipv4Addresses = new int[numberOfNodes];
+        this.nodeIndexes = new HashMap<>();
+        this.ipv4AddressIndexes = new HashMap<>();
+        for (int i = ZERO; i < numberOfNodes; i++) {
+            this.nodeIDs[i] = nodes[i].getNodeID();
+            this.ipv4Addresses[i] = nodes[i].getIPv4Address();
+            this.nodeIndexes.putIfAbsent(this.nodeIDs[i], i);
+            this.ipv4AddressIndexes.putIfAbsent(this.ipv4Addresses[i], i);
+        }
+        ArrayList<ArrayList<Integer>> neighbours = new ArrayList<>(numberOfNodes);
+        ArrayList<ArrayList<TLink>> incidentLinks = new ArrayList<>(numberOfNodes);
+        for (int i = ZERO; i < numberOfNodes; i++) {
+            neighbours.add(new ArrayList<>());
+            incidentLinks.add(new ArrayList<>());
+        }
+        Integer headEndIndex;
+        Integer tailEndIndex;
+        for (TLink link : links) {
+            headEndIndex = this.nodeIndexes.get(link.getHeadEndNode().getNodeID());
+            tailEndIndex = this.nodeIndexes.get(link.getTailEndNode().getNodeID());
+            if ((headEndIndex != null) && (tailEndIndex != null) && (!headEndIndex.equals(tailEndIndex))) {
+                if (!neighbours.get(headEndIndex).contains(tailEndIndex)) {
+                    neighbours.get(headEndIndex).add(tailEndIndex);
+                    incidentLinks.get(headEndIndex).add(link);
+                    neighbours.get(tailEndIndex).add(headEndIndex);
+                    incidentLinks.get(tailEndIndex).add(link);
+                }
+            }
+        }
+        this.neighbourIndexes = new int[numberOfNodes][];
+        this.neighbourLinks = new TLink[numberOfNodes][];
+        for (int i = ZERO; i < numberOfNodes; i++) {
+            this.neighbourIndexes[i] = new int[neighbours.get(i).size()];
+            for (int j = ZERO; j < this.neighbourIndexes[i].length; j++) {
+                this.neighbourIndexes[i][j] = neighbours.get(i).get(j);
+            }
+            this.neighbourLinks[i] = incidentLinks.get(i).toArray(new TLink[incidentLinks.get(i).size()]);
+        }
+    }
+
+    /**
+     * This method computes the next hop node ID to reach the target node from
+     * the origin node, using current RABAN weights of links.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param originNodeID node ID of the origin node.
+     * @param targetNodeID node ID of the target/destination node.
+     * @return node ID of the next hop node, that is an adjacent node of the
+     * origin node, to reach the target node with a minimum RABAN weight. If
+     * there is not a route to reach the target node, or any of the nodes is
+     * unknown, TTopology.TARGET_UNREACHABLE is returned.
+     * @since 2.4
+     */
+    public int getNextHopID(int originNodeID, int targetNodeID) {
+        Integer originIndex = this.nodeIndexes.get(originNodeID);
+        Integer targetIndex = this.nodeIndexes.get(targetNodeID);
+        if ((originIndex == null) || (targetIndex == null)) {
+            return TTopology.TARGET_UNREACHABLE;
+        }
+        return computeNextHopID(originIndex, targetIndex, NO_NODE_TO_AVOID);
+    }
+
+    /**
+     * This method computes the next hop node ID to reach the target node from
+     * the origin node, using current RABAN weights of links and without using
+     * the link that joins the origin node and the node to avoid.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param originNodeID node ID of the origin node.
+     * @param targetNodeID node ID of the target/destination node.
+     * @param nodeToAvoidID node ID of the node that should not be chosen as
+     * next hop. If it is the origin or the target node, nothing is avoided.
+     * @return node ID of the next hop node, that is an adjacent node of the
+     * origin node, to reach the target node with a minimum RABAN weight. If
+     * there is not a route to reach the target node, or any of the nodes is
+     * unknown, TTopology.TARGET_UNREACHABLE is returned.
+     * @since 2.4
+     */
+    public int getNextHopID(int originNodeID, int targetNodeID, int nodeToAvoidID) {
+        Integer originIndex = this.nodeIndexes.get(originNodeID);
+        Integer targetIndex = this.nodeIndexes.get(targetNodeID);
+        Integer nodeToAvoidIndex = this.nodeIndexes.get(nodeToAvoidID);
+        if ((originIndex == null) || (targetIndex == null)) {
+            return TTopology.TARGET_UNREACHABLE;
+        }
+        if ((nodeToAvoidIndex == null) || nodeToAvoidIndex.equals(originIndex) || nodeToAvoidIndex.equals(targetIndex)) {
+            return computeNextHopID(originIndex, targetIndex, NO_NODE_TO_AVOID);
+        }
+        return computeNextHopID(originIndex, targetIndex, nodeToAvoidIndex);
+    }
+
+    /**
+     * This method computes the next hop IPv4 address to reach the target node
+     * from the origin node, using current RABAN weights of links.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param originNodeIPv4Address IPv4 address of the origin node.
+     * @param targetNodeIPv4Address IPv4 address of the target/destination node.
+     * @return IPv4 address of the next hop node, that is an adjacent node of
+     * the origin node, to reach the target node with a minimum RABAN weight.
+     * If there is not a route to reach the target node,
+     * TIPv4Address.UNSPECIFIED is returned.
+     * @since 2.4
+     */
+    public int getNextHopIPv4Address(int originNodeIPv4Address, int targetNodeIPv4Address) {
+        int originIndex = getIndex(originNodeIPv4Address);
+        int targetIndex = getIndex(targetNodeIPv4Address);
+        return getIPv4Address(computeNextHopID(originIndex, targetIndex, NO_NODE_TO_AVOID));
+    }
+
+    /**
+     * This method computes the next hop IPv4 address to reach the target node
+     * from the origin node, using current RABAN weights of links and without
+     * using the link that joins the origin node and the node to avoid.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param originNodeIPv4Address IPv4 address of the origin node.
+     * @param targetNodeIPv4Address IPv4 address of the target/destination node.
+     * @param nodeToAvoidIPv4Address IPv4 address of the node that should not
+     * be chosen as next hop. If it is the origin or the target node, nothing is
+     * avoided.
+     * @return IPv4 address of the next hop node, that is an adjacent node of
+     * the origin node, to reach the target node with a minimum RABAN weight.
+     * If there is not a route to reach the target node,
+     * TIPv4Address.UNSPECIFIED is returned.
+     * @since 2.4
+     */
+    public int getNextHopIPv4Address(int originNodeIPv4Address, int targetNodeIPv4Address, int nodeToAvoidIPv4Address) {
+        int originIndex = getIndex(originNodeIPv4Address);
+        int targetIndex = getIndex(targetNodeIPv4Address);
+        int nodeToAvoidIndex = getIndex(nodeToAvoidIPv4Address);
+        if ((nodeToAvoidIndex == originIndex) || (nodeToAvoidIndex == targetIndex)) {
+            nodeToAvoidIndex = NO_NODE_TO_AVOID;
+        }
+        return getIPv4Address(computeNextHopID(originIndex, targetIndex, nodeToAvoidIndex));
+    }
+
+    /**
+     * This method runs Dijkstra algorithm from the origin node, reading the
+     * current RABAN weight of each link as it is reached, and stops as soon as
+     * the target node is settled. Broken links are not used.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param originIndex index of the origin node.
+     * @param targetIndex index of the target node.
+     * @param nodeToAvoidIndex index of the node whose link with the origin
+     * node must not be used, or NO_NODE_TO_AVOID.
+     * @return node ID of the next hop node or TTopology.TARGET_UNREACHABLE.
+     * @since 2.4
+     */
+    private int computeNextHopID(int originIndex, int targetIndex, int nodeToAvoidIndex) {
+        if (originIndex == targetIndex) {
+            return TTopology.TARGET_UNREACHABLE;
+        }
+        int numberOfNodes = this.nodeIDs.length;
+        long[] distances = new long[numberOfNodes];
+        int[] firstHops = new int[numberOfNodes];
+        boolean[] settled = new boolean[numberOfNodes];
+        Arrays.fill(distances, TTopology.INFINITE_WEIGHT);
+        Arrays.fill(firstHops, TTopology.TARGET_UNREACHABLE);
+        PriorityQueue<TQueueEntry> queue = new PriorityQueue<>();
+        distances[originIndex] = ZERO;
+        queue.add(new TQueueEntry(originIndex, ZERO));
+        TQueueEntry entry;
+        int current;
+        int neighbour;
+        long distance;
+        while (!queue.isEmpty()) {
+            entry = queue.poll();
+            current = entry.nodeIndex;
+            if (settled[current]) {
+                continue;
+            }
+            settled[current] = true;
+            if (current == targetIndex) {
+                break;
+            }
+            for (int i = ZERO; i < this.neighbourIndexes[current].length; i++) {
+                neighbour = this.neighbourIndexes[current][i];
+                if (settled[neighbour] || this.neighbourLinks[current][i].isBroken()) {
+                    continue;
+                }
+                if ((current == originIndex) && (neighbour == nodeToAvoidIndex)) {
+                    continue;
+                }
+                distance = distances[current] + this.neighbourLinks[current][i].getRABANWeight();
+                if (distance < distances[neighbour]) {
+                    distances[neighbour] = distance;
+                    if (current == originIndex) {
+                        firstHops[neighbour] = this.nodeIDs[neighbour];
+                    } else {
+                        firstHops[neighbour] = firstHops[current];
+                    }
+                    queue.add(new TQueueEntry(neighbour, distance));
+                }
+            }
+        }
+        if (firstHops[targetIndex] != TTopology.TARGET_UNREACHABLE) {
+            return firstHops[targetIndex];
+        }
+        // There is not a route, but if origin and target are joined by a link
+        // (even a broken one), the target is returned as next hop.
+        for (int i = ZERO; i < this.neighbourIndexes[originIndex].length; i++) {
+            if (this.neighbourIndexes[originIndex][i] == targetIndex) {
+                return this.nodeIDs[targetIndex];
+            }
+        }
+        return TTopology.TARGET_UNREACHABLE;
+    }
+
+    /**
+     * This method gets the index of the node that has the specified IPv4
+     * address.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param ipv4Address IPv4 address of the node.
+     * @return the index of the node that has the specified IPv4 address.
+     * @since 2.4
+     */
+    private int getIndex(int ipv4Address) {
+        Integer index = this.ipv4AddressIndexes.get(ipv4Address);
+        if (index == null) {
+            this.logger.error(this.translations.getString("unknownIPv4Address"));
+            throw new IllegalArgumentException(this.translations.getString("unknownIPv4Address"));
+        }
+        return index;
+    }
+
+    /**
+     * This method gets the IPv4 address of the node that has the specified
+     * node ID.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param nodeID node ID of the node, or TTopology.TARGET_UNREACHABLE.
+     * @return the IPv4 address of the node. TIPv4Address.UNSPECIFIED, if the
+     * node ID is TTopology.TARGET_UNREACHABLE.
+     * @since 2.4
+     */
+    private int getIPv4Address(int nodeID) {
+        if (nodeID == TTopology.TARGET_UNREACHABLE) {
+            return TIPv4Address.UNSPECIFIED;
+        }
+        return this.ipv4Addresses[this.nodeIndexes.get(nodeID)];
+    }
+
+    /**
+     * This class implements an entry of the priority queue used by Dijkstra
+     * algorithm. Entries are sorted by distance and then by node index, so
+     * results do not depend on the insertion order.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @version 2.0
+     */
+    private static class TQueueEntry implements Comparable<TQueueEntry> {
+
+        /**
+         * This is the constructor of the class. It creates a new instance of
+         * TQueueEntry.
+         *
+         * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+         * @param nodeIndex index of the node.
+         * @param distance distance from the origin node to the node.
+         * @since 2.4
+         */
+        TQueueEntry(int nodeIndex, long distance) {
+            this.nodeIndex = nodeIndex;
+            this.distance = distance;
+        }
+
+        /**
+         * This method compares this entry with another one.
+         *
+         * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+         * @param anotherEntry the entry to compare with.
+         * @return -1, 0 or 1, depending on whether this entry is lesser, equal
+         * or greater than the other one.
+         * @since 2.4
+         */
+        @Override
+        public int compareTo(TQueueEntry anotherEntry) {
+            if (this.distance != anotherEntry.distance) {
+                return Long.compare(this.distance, anotherEntry.distance);
+            }
+            return Integer.compare(this.nodeIndex, anotherEntry.nodeIndex);
+        }
+
+        private final int nodeIndex;
+        private final long distance;
+    }
+
+    public static final int NO_NODE_TO_AVOID = -1;
+
+    private static final int ZERO = 0;
+
+    private final int[] nodeIDs;
+    private final int[] ipv4Addresses;
+    private final HashMap<Integer, Integer> nodeIndexes;
+    private final HashMap<Integer, Integer> ipv4AddressIndexes;
+    private final int[][] neighbourIndexes;
+    private final TLink[][] neighbourLinks;
+    private final ResourceBundle translations;
+    private final Logger logger = LoggerFactory.getLogger(TRABANRoutingEngine.class);
+}
@@ -16,7 +16,8 @@
 package com.manolodominguez.opensimmpls.scenario;
 
 import com.manolodominguez.opensimmpls.gui.simulator.JSimulationPanel;
-import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventListener;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventBus;
+import java.util.SplittableRandom;
 
 /**
  * This class implements a container of simulation events that also link the
@@ -39,10 +40,11 @@ public class TSimulation {
      */
     public TSimulation(TScene scenario) {
         this.parentScenario = scenario;
-        this.simulationEventListener = new TSimulationEventListener();
+        this.simulationEventListener = new TSimulationEventBus();
         // FIX: Use class constants instead of harcoded values.
         this.simulationLengthInNs = 500;
         this.simulationTickDurationInNs = 1;
+        this.randomSeed = DEFAULT_RANDOM_SEED;
     }
 
     /**
@@ -127,9 +129,57 @@ public class TSimulation {
         String serializedTimeParameters = "#Temporizacion#";
         serializedTimeParameters += this.simulationLengthInNs + "#";
         serializedTimeParameters += this.simulationTickDurationInNs + "#";
+        serializedTimeParameters += this.randomSeed + "#";
         return serializedTimeParameters;
     }
 
+    /**
+     * This method sets the seed every random number generator of the
+     * simulation is derived from. The same scenario simulated with the same
+     * seed generates exactly the same random numbers. It takes effect the next
+     * time the scenario is reset.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param randomSeed The seed of the simulation.
+     * @since 2.4
+     */
+    public void setRandomSeed(long randomSeed) {
+        this.randomSeed = randomSeed;
+    }
+
+    /**
+     * This method gets the seed every random number generator of the
+     * simulation is derived from.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The seed of the simulation.
+     * @since 2.4
+     */
+    public long getRandomSeed() {
+        return this.randomSeed;
+    }
+
+    /**
+     * This method creates the random number generator of a topology element.
+     * Its sequence depends only on the seed of the simulation and on the ID of
+     * the element, so each element gets its own independent stream and the
+     * numbers it draws do not depend on how threads are scheduled.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param elementID The ID of the topology element.
+     * @return A new random number generator for the topology element.
+     * @since 2.4
+     */
+    public SplittableRandom createRandomGenerator(long elementID) {
+        // The seed of each stream is scrambled, so that streams of elements
+        // having consecutive IDs do not overlap.
+        long streamSeed = this.randomSeed + (elementID * GOLDEN_GAMMA);
+        streamSeed = (streamSeed ^ (streamSeed >>> MIX_SHIFT)) * MIX_MULTIPLIER_1;
+        streamSeed = (streamSeed ^ (streamSeed >>> MIX_SHIFT)) * MIX_MULTIPLIER_2;
+        streamSeed = streamSeed ^ (streamSeed >>> MIX_SHIFT);
+        return new SplittableRandom(streamSeed);
+    }
+
     /**
      * This method configure this instance from the configuration values
      * contained in a serialized string.
@@ -143,30 +193,46 @@ public class TSimulation {
     public boolean unmarshallTimeParameters(String serializedTimeParameters) {
         String[] timeParametersFields = serializedTimeParameters.split("#");
         // FIX: Do not use harcoded values. Use class constants instead.
-        if (timeParametersFields.length != 4) {
+        // Scenarios saved before the random seed was stored do not have it, so
+        // they are simulated with the default one.
+        if ((timeParametersFields.length != 4) && (timeParametersFields.length != 5)) {
             return false;
         }
         this.simulationLengthInNs = Integer.valueOf(timeParametersFields[2]).longValue();
         this.simulationTickDurationInNs = Integer.valueOf(timeParametersFields[3]).longValue();
+        if (timeParametersFields.length == 5) {
+            this.randomSeed = Long.parseLong(timeParametersFields[4]);
+        } else {
+            this.randomSeed = DEFAULT_RANDOM_SEED;
+        }
         return true;
     }
 
     /**
      * This methods gets the simulation event collector that contains the
-     * simulation events tha have happened.
+     * simulation events tha have happened. It is a bus, so any number of
+     * listeners can subscribe to it besides the simulation panel.
      *
      * @return the simulation event collector that contains the simulation
      * events tha have happened.
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
-    public TSimulationEventListener getSimulationEventListener() {
+    public TSimulationEventBus getSimulationEventListener() {
         return this.simulationEventListener;
     }
 
+    public static final long DEFAULT_RANDOM_SEED = 0L;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long MIX_MULTIPLIER_1 = 0xFF51AFD7ED558CCDL;
+    private static final long MIX_MULTIPLIER_2 = 0xC4CEB9FE1A85EC53L;
+    private static final int MIX_SHIFT = 33;
+
     private long simulationLengthInNs;
     private long simulationTickDurationInNs;
+    private long randomSeed;
 
     private TScene parentScenario;
-    private TSimulationEventListener simulationEventListener;
+    private TSimulationEventBus simulationEventListener;
 }
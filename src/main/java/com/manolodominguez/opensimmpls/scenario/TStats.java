@@ -36,6 +36,7 @@ public abstract class TStats {
      */
     public TStats() {
         this.statsEnabled = false;
+        this.statsListener = null;
     }
 
     /**
@@ -220,7 +221,86 @@ public abstract class TStats {
      */
     public abstract void reset();
 
+    /**
+     * This abstract method once implemented will return the columns that this
+     * TStats exports for each time instant, always in the same order.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the columns exported by this TStats.
+     * @since 2.4
+     */
+    public abstract StatsColumns[] getColumns();
+
+    /**
+     * This abstract method once implemented will return the current value of
+     * the specified column, that is, the running total of the counter since
+     * the stats were created or reset.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param column the column whose value is requested.
+     * @return the current value of the column.
+     * @since 2.4
+     */
+    public abstract long getColumnValue(StatsColumns column);
+
+    /**
+     * This method sets the listener that will capture these stats each time
+     * they are grouped by time instant. It has to be set before the
+     * simulation starts.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param statsListener the listener of these stats. NULL, if nobody has to
+     * capture them.
+     * @since 2.4
+     */
+    public void setStatsListener(IStatsListener statsListener) {
+        this.statsListener = statsListener;
+    }
+
+    /**
+     * This method notifies the listener, if any, that these stats have been
+     * grouped by the specified time instant. Subclasses call it at the end of
+     * groupStatsByTimeInstant().
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param timeInstant the time instant the stats have been grouped by.
+     * @since 2.4
+     */
+    protected void notifyStatsListener(long timeInstant) {
+        IStatsListener currentStatsListener = this.statsListener;
+        if (currentStatsListener != null) {
+            currentStatsListener.captureStats(this, timeInstant);
+        }
+    }
+
+    /**
+     * This method adds the value of a packet counter to its series, for the
+     * specified time instant, if there is something to show. The first time a
+     * value is added to the series, it is preceded by a zero at the previous
+     * time instant and the series is added to the specified collection.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param timeInstant the time instant (in simulation terms) of the value.
+     * @param counterValue the value of the packet counter.
+     * @param series the series the value has to be added to.
+     * @param collection the collection that contains, or will contain, the
+     * series.
+     * @since 2.4
+     */
+    protected void addCounterToSeries(long timeInstant, long counterValue, TStatsSeries series, TStatsSeriesCollection collection) {
+        if (counterValue > 0) {
+            if (series.getItemCount() == 0) {
+                series.add(timeInstant - 1, 0);
+                series.add(timeInstant, counterValue);
+                collection.addSeries(series);
+            } else {
+                series.add(timeInstant, counterValue);
+            }
+        }
+    }
+
     protected boolean statsEnabled;
+    private volatile IStatsListener statsListener;
 
     // Strings related to stats.
     public static final String IPV4 = java.util.ResourceBundle.getBundle("com/manolodominguez/opensimmpls/resources/translations/translations").getString("TEstadisticas.IPv4");
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class implements the packet counters of a stats collector, indexed by
+ * entry type (incoming, outgoing or being discarded) and packet category
+ * (packet type and GoS level) in a flat array. Packets are counted by link
+ * delivery threads and by the thread of the node at the same time, so each
+ * counter is a LongAdder: increments do not contend with each other and none
+ * of them is lost. Counters are read once per tick, when stats are grouped by
+ * time instant.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public class TStatsCounters {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TStatsCounters with every counter set to zero.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public TStatsCounters() {
+        this.counters = new LongAdder[NUMBER_OF_ENTRY_TYPES * NUMBER_OF_CATEGORIES];
+        for (int i = ZERO; i < this.counters.length; i++) {
+            this.counters[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * This method gets the category of a packet: its type and, for GoS
+     * packets, its GoS level.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param packet The packet.
+     * @return The category of the packet, as defined in this class, or
+     * NO_CATEGORY if it is not counted.
+     * @since 2.4
+     */
+    public static int getCategory(TAbstractPDU packet) {
+        switch (packet.getSubtype()) {
+            case TAbstractPDU.IPV4:
+                return IPV4;
+            case TAbstractPDU.MPLS:
+                return MPLS;
+            case TAbstractPDU.TLDP:
+                return TLDP;
+            case TAbstractPDU.GPSRP:
+                return GPSRP;
+            case TAbstractPDU.IPV4_GOS:
+                return getGoSCategory(IPV4, packet.getIPv4Header().getOptionsField().getRequestedGoSLevel());
+            case TAbstractPDU.MPLS_GOS:
+                return getGoSCategory(MPLS, packet.getIPv4Header().getOptionsField().getRequestedGoSLevel());
+            default:
+                return NO_CATEGORY;
+        }
+    }
+
+    /**
+     * This method increments the counter of the specified entry type and
+     * packet category.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param entryType INCOMING, OUTGOING or BEING_DISCARDED, as defined in
+     * TStats.
+     * @param category The category of the packet, as returned by
+     * getCategory(). If it is NO_CATEGORY, nothing is counted.
+     * @since 2.4
+     */
+    public void increment(int entryType, int category) {
+        int position = getPosition(entryType, category);
+        if (position >= ZERO) {
+            this.counters[position].increment();
+        }
+    }
+
+    /**
+     * This method gets the value of the counter of the specified entry type
+     * and packet category, that is, the number of packets counted since the
+     * counters were created or reset.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param entryType INCOMING, OUTGOING or BEING_DISCARDED, as defined in
+     * TStats.
+     * @param category The category of the packets, as defined in this class.
+     * @return The value of the counter.
+     * @since 2.4
+     */
+    public long getValue(int entryType, int category) {
+        int position = getPosition(entryType, category);
+        if (position < ZERO) {
+            return ZERO;
+        }
+        return this.counters[position].sum();
+    }
+
+    /**
+     * This method sets every counter to zero.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public void reset() {
+        for (LongAdder counter : this.counters) {
+            counter.reset();
+        }
+    }
+
+    /**
+     * This method gets the category of a GoS packet from its base category
+     * and its requested GoS level. GoS level 0 packets are counted as packets
+     * without GoS.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param baseCategory IPV4 or MPLS.
+     * @param requestedGoSLevel The GoS level requested by the packet, with or
+     * without backup LSP, as defined in TAbstractPDU.
+     * @return The category of the packet, or NO_CATEGORY if the GoS level is
+     * not valid.
+     * @since 2.4
+     */
+    private static int getGoSCategory(int baseCategory, int requestedGoSLevel) {
+        if ((requestedGoSLevel < TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP) || (requestedGoSLevel > TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP)) {
+            return NO_CATEGORY;
+        }
+        return baseCategory + (requestedGoSLevel % NUMBER_OF_GOS_LEVELS);
+    }
+
+    /**
+     * This method gets the position in the flat array of the counter of the
+     * specified entry type and packet category.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param entryType INCOMING, OUTGOING or BEING_DISCARDED, as defined in
+     * TStats.
+     * @param category The category of the packets, as defined in this class.
+     * @return The position of the counter, or -1 if there is no such counter.
+     * @since 2.4
+     */
+    private static int getPosition(int entryType, int category) {
+        // INCOMING, OUTGOING and BEING_DISCARDED are -1, -2 and -3.
+        int entryTypeIndex = -entryType - ONE;
+        if ((entryTypeIndex < ZERO) || (entryTypeIndex >= NUMBER_OF_ENTRY_TYPES) || (category < ZERO) || (category >= NUMBER_OF_CATEGORIES)) {
+            return -ONE;
+        }
+        return (entryTypeIndex * NUMBER_OF_CATEGORIES) + category;
+    }
+
+    // Packet categories. GoS categories of a packet type are consecutive.
+    public static final int NO_CATEGORY = -1;
+    public static final int IPV4 = 0;
+    public static final int IPV4_GOS1 = 1;
+    public static final int IPV4_GOS2 = 2;
+    public static final int IPV4_GOS3 = 3;
+    public static final int MPLS = 4;
+    public static final int MPLS_GOS1 = 5;
+    public static final int MPLS_GOS2 = 6;
+    public static final int MPLS_GOS3 = 7;
+    public static final int TLDP = 8;
+    public static final int GPSRP = 9;
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final int NUMBER_OF_ENTRY_TYPES = 3;
+    private static final int NUMBER_OF_CATEGORIES = 10;
+    private static final int NUMBER_OF_GOS_LEVELS = 4;
+
+    private final LongAdder[] counters;
+}
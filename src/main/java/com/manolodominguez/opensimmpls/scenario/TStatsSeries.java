@@ -0,0 +1,284 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import java.util.Arrays;
+import org.jfree.data.xy.XYSeries;
+
+/**
+ * This class implements a bounded time series of stats. Each value is stored
+ * at several resolutions: raw, as added, and in buckets of 1 us, 1 ms and 1 s
+ * of simulation time. Stats are cumulative counters, so each bucket keeps the
+ * last value added within it, not the sum of them; this way every resolution
+ * shows the same curve, and a rolled up series never goes above the last raw
+ * value. Every resolution is kept in a ring buffer of
+ * primitive values with a fixed maximum capacity, so the memory used does not
+ * depend on the length of the simulation; when a ring buffer is full, the
+ * oldest values of that resolution are overwritten. The JFreeChart series is
+ * only materialised when it is requested, at the finest resolution that still
+ * covers the whole simulation, and from then on it is kept up to date at that
+ * resolution.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public class TStatsSeries {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TStatsSeries without values.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param key The name of the series, as shown in charts.
+     * @since 2.4
+     */
+    public TStatsSeries(String key) {
+        this.key = key;
+        this.levels = new TLevel[BUCKET_WIDTHS.length];
+        for (int i = RAW; i < BUCKET_WIDTHS.length; i++) {
+            this.levels[i] = new TLevel(BUCKET_WIDTHS[i]);
+        }
+        this.itemCount = ZERO;
+        this.series = null;
+        this.seriesLevel = RAW;
+    }
+
+    /**
+     * This method gets the name of the series.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The name of the series.
+     * @since 2.4
+     */
+    public String getKey() {
+        return this.key;
+    }
+
+    /**
+     * This method adds a value to the series, at every resolution. Values are
+     * expected to be added in chronological order.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param instant The time instant of the value, in nanoseconds.
+     * @param value The value.
+     * @since 2.4
+     */
+    public synchronized void add(long instant, long value) {
+        for (TLevel level : this.levels) {
+            level.add(instant, value);
+        }
+        if (this.itemCount < Integer.MAX_VALUE) {
+            this.itemCount++;
+        }
+        if (this.series != null) {
+            TLevel level = this.levels[this.seriesLevel];
+            if (this.seriesLevel == RAW) {
+                this.series.add(instant, value);
+            } else if ((this.series.getItemCount() > ZERO) && (this.series.getX(this.series.getItemCount() - ONE).longValue() == level.openBucket)) {
+                this.series.updateByIndex(this.series.getItemCount() - ONE, level.openValue);
+            } else {
+                this.series.add(level.openBucket, level.openValue);
+            }
+        }
+    }
+
+    /**
+     * This method gets the number of values that have been added to the
+     * series, including those that are not stored anymore at the raw
+     * resolution.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The number of values added to the series, up to
+     * Integer.MAX_VALUE.
+     * @since 2.4
+     */
+    public synchronized int getItemCount() {
+        return this.itemCount;
+    }
+
+    /**
+     * This method gets the finest resolution that still covers every value
+     * added to the series or, if none does, the coarsest one.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The width, in nanoseconds, of the buckets of the resolution.
+     * Zero for the raw resolution.
+     * @since 2.4
+     */
+    public synchronized long getResolution() {
+        return BUCKET_WIDTHS[getFinestCompleteLevel()];
+    }
+
+    /**
+     * This method gets the series as a JFreeChart series. It is materialised
+     * the first time it is requested, at the resolution returned by
+     * getResolution(), and then kept up to date at that resolution, up to the
+     * capacity of a resolution.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The series as a JFreeChart series.
+     * @since 2.4
+     */
+    public synchronized XYSeries getSeries() {
+        if (this.series == null) {
+            this.seriesLevel = getFinestCompleteLevel();
+            TLevel level = this.levels[this.seriesLevel];
+            // Values are sorted already, so there is no need to sort them
+            // again on each addition.
+            XYSeries newSeries = new XYSeries(this.key, false, true);
+            newSeries.setMaximumItemCount(CAPACITY + ONE);
+            for (int i = ZERO; i < level.size; i++) {
+                int position = (level.first + i) % level.instants.length;
+                newSeries.add(level.instants[position], level.values[position], false);
+            }
+            if (level.hasOpenBucket) {
+                newSeries.add(level.openBucket, level.openValue, false);
+            }
+            newSeries.fireSeriesChanged();
+            this.series = newSeries;
+        }
+        return this.series;
+    }
+
+    /**
+     * This method gets the finest resolution that still covers every value
+     * added to the series or, if none does, the coarsest one.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The position of the resolution in BUCKET_WIDTHS.
+     * @since 2.4
+     */
+    private int getFinestCompleteLevel() {
+        for (int i = RAW; i < this.levels.length; i++) {
+            if (!this.levels[i].overwritten) {
+                return i;
+            }
+        }
+        return this.levels.length - ONE;
+    }
+
+    /**
+     * This class implements a resolution of the series: a ring buffer of
+     * instants and values and, for bucketed resolutions, the bucket that is
+     * still open and the last value added to it.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @version 2.0
+     */
+    private static final class TLevel {
+
+        /**
+         * This is the constructor of the class. It creates a new instance of
+         * TLevel without values. Its ring buffer grows as needed, up to
+         * CAPACITY values.
+         *
+         * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+         * @param bucketWidth The width of the buckets, in nanoseconds, or
+         * zero for the raw resolution.
+         * @since 2.4
+         */
+        TLevel(long bucketWidth) {
+            this.bucketWidth = bucketWidth;
+            this.instants = new long[INITIAL_CAPACITY];
+            this.values = new long[INITIAL_CAPACITY];
+            this.first = ZERO;
+            this.size = ZERO;
+            this.overwritten = false;
+            this.hasOpenBucket = false;
+            this.openBucket = ZERO;
+            this.openValue = ZERO;
+        }
+
+        /**
+         * This method adds a value to this resolution.
+         *
+         * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+         * @param instant The time instant of the value, in nanoseconds.
+         * @param value The value.
+         * @since 2.4
+         */
+        void add(long instant, long value) {
+            if (this.bucketWidth == RAW_WIDTH) {
+                push(instant, value);
+                return;
+            }
+            long bucket = Math.floorDiv(instant, this.bucketWidth) * this.bucketWidth;
+            if (this.hasOpenBucket && (bucket == this.openBucket)) {
+                this.openValue = value;
+                return;
+            }
+            if (this.hasOpenBucket) {
+                push(this.openBucket, this.openValue);
+            }
+            this.hasOpenBucket = true;
+            this.openBucket = bucket;
+            this.openValue = value;
+        }
+
+        /**
+         * This method appends a value to the ring buffer, overwriting the
+         * oldest one if the ring buffer is full.
+         *
+         * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+         * @param instant The time instant of the value, in nanoseconds.
+         * @param value The value.
+         * @since 2.4
+         */
+        private void push(long instant, long value) {
+            if ((this.size == this.instants.length) && (this.size < CAPACITY)) {
+                int newCapacity = Math.min(this.instants.length * TWO, CAPACITY);
+                this.instants = Arrays.copyOf(this.instants, newCapacity);
+                this.values = Arrays.copyOf(this.values, newCapacity);
+            }
+            if (this.size == this.instants.length) {
+                this.instants[this.first] = instant;
+                this.values[this.first] = value;
+                this.first = (this.first + ONE) % this.instants.length;
+                this.overwritten = true;
+            } else {
+                this.instants[this.size] = instant;
+                this.values[this.size] = value;
+                this.size++;
+            }
+        }
+
+        private final long bucketWidth;
+        private long[] instants;
+        private long[] values;
+        private int first;
+        private int size;
+        private boolean overwritten;
+        private boolean hasOpenBucket;
+        private long openBucket;
+        private long openValue;
+    }
+
+    // Raw values and buckets of 1 us, 1 ms and 1 s, in nanoseconds.
+    private static final long RAW_WIDTH = 0L;
+    private static final long[] BUCKET_WIDTHS = {RAW_WIDTH, 1000L, 1000000L, 1000000000L};
+    private static final int RAW = 0;
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final int TWO = 2;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int CAPACITY = 16384;
+
+    private final String key;
+    private final TLevel[] levels;
+    private int itemCount;
+    private XYSeries series;
+    private int seriesLevel;
+}
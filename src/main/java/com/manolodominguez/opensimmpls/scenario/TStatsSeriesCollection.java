@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import java.util.ArrayList;
+import org.jfree.data.xy.XYSeriesCollection;
+
+/**
+ * This class implements a collection of stats series that is shown as a
+ * single chart. The JFreeChart dataset is only materialised when it is
+ * requested, usually because an analysis chart has been opened; from then on,
+ * series added to the collection are added to the dataset too.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public class TStatsSeriesCollection {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TStatsSeriesCollection without series.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public TStatsSeriesCollection() {
+        this.series = new ArrayList<>();
+        this.dataset = null;
+    }
+
+    /**
+     * This method adds a series to the collection.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param newSeries The series to be added.
+     * @since 2.4
+     */
+    public synchronized void addSeries(TStatsSeries newSeries) {
+        this.series.add(newSeries);
+        if (this.dataset != null) {
+            this.dataset.addSeries(newSeries.getSeries());
+        }
+    }
+
+    /**
+     * This method gets the number of series of the collection.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The number of series of the collection.
+     * @since 2.4
+     */
+    public synchronized int getSeriesCount() {
+        return this.series.size();
+    }
+
+    /**
+     * This method gets the series at the specified position of the
+     * collection, in the order they were added.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param position The position of the series.
+     * @return The series at the specified position.
+     * @since 2.4
+     */
+    public synchronized TStatsSeries getSeries(int position) {
+        return this.series.get(position);
+    }
+
+    /**
+     * This method gets the collection as a JFreeChart dataset, materialising
+     * it the first time it is requested.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The collection as a JFreeChart dataset.
+     * @since 2.4
+     */
+    public synchronized XYSeriesCollection getDataset() {
+        if (this.dataset == null) {
+            XYSeriesCollection newDataset = new XYSeriesCollection();
+            for (TStatsSeries statsSeries : this.series) {
+                newDataset.addSeries(statsSeries.getSeries());
+            }
+            this.dataset = newDataset;
+        }
+        return this.dataset;
+    }
+
+    private final ArrayList<TStatsSeries> series;
+    private XYSeriesCollection dataset;
+}
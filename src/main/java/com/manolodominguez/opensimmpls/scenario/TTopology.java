@@ -17,12 +17,14 @@ package com.manolodominguez.opensimmpls.scenario;
 
 import com.manolodominguez.opensimmpls.scenario.simulationevents.ESimulationSingleSubscriber;
 import com.manolodominguez.opensimmpls.hardware.timer.TTimer;
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
 import com.manolodominguez.opensimmpls.commons.TIPv4AddressGenerator;
-import com.manolodominguez.opensimmpls.commons.TSemaphore;
 import com.manolodominguez.opensimmpls.commons.TIDGenerator;
 import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
 import java.awt.Point;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.SplittableRandom;
 import java.util.TreeSet;
 
 /**
@@ -46,14 +48,16 @@ public class TTopology {
      */
     public TTopology(TScene parentScenario) {
         this.nodes = new TreeSet<>();
+        this.nodesByIPv4Address = new HashMap<>();
         this.links = new TreeSet<>();
         this.timer = new TTimer();
         this.parentScenario = parentScenario;
         this.eventIDGenerator = new TLongIDGenerator();
         this.elementsIDGenerator = new TIDGenerator();
         this.ipv4AddressGenerator = new TIPv4AddressGenerator();
-        this.floydWarshallAlgorithmLock = new TSemaphore();
-        this.rabanAlgorithmLock = new TSemaphore();
+        this.floydWarshallRoutingTable = null;
+        this.routingTablesLock = new Object();
+        this.rabanRoutingEngine = null;
     }
 
     /**
@@ -64,7 +68,6 @@ public class TTopology {
      * @since 2.0
      */
     public void reset() {
-        this.floydWarshallAlgorithmLock.setRed();
         Iterator nodesIterator;
         nodesIterator = this.nodes.iterator();
         TTopologyElement topologyElement;
@@ -79,8 +82,7 @@ public class TTopology {
         }
         this.timer.reset();
         this.eventIDGenerator.reset();
-        this.floydWarshallAlgorithmLock.setGreen();
-        this.rabanAlgorithmLock.setGreen();
+        invalidateRoutingTables();
     }
 
     /**
@@ -92,6 +94,8 @@ public class TTopology {
      */
     public void addNode(TNode node) {
         this.nodes.add(node);
+        this.nodesByIPv4Address.put(node.getIPv4Address(), node);
+        invalidateRoutingTables();
         this.timer.addTimerEventListener(node);
         try {
             node.addSimulationListener(this.parentScenario.getSimulation().getSimulationEventListener());
@@ -118,9 +122,11 @@ public class TTopology {
             if (node.getNodeID() == nodeID) {
                 node.markForDeletionAsTimerEventListener(true);
                 nodesIterator.remove();
+                this.nodesByIPv4Address.remove(node.getIPv4Address(), node);
                 done = true;
             }
         }
+        invalidateRoutingTables();
         this.timer.purgeTimerEventListenersMarkedForDeletion();
     }
 
@@ -148,7 +154,8 @@ public class TTopology {
 
     /**
      * This method gets a node from the topology corresponding to the IPv4
-     * address specified as an argument.
+     * address specified as an argument, in dotted decimal notation. It is only
+     * intended to be used when loading OSM files or from the GUI.
      *
      * @param ipv4Address the IPv4 address of the node to be returned.
      * @return a node from the topology corresponding to the IPv4 address
@@ -157,15 +164,22 @@ public class TTopology {
      * @since 2.0
      */
     public TNode getNode(String ipv4Address) {
-        TNode node = null;
-        Iterator nodesIterator = this.nodes.iterator();
-        while (nodesIterator.hasNext()) {
-            node = (TNode) nodesIterator.next();
-            if (node.getIPv4Address().equals(ipv4Address)) {
-                return node;
-            }
-        }
-        return null;
+        return getNodeWithIPv4Address(TIPv4Address.fromString(ipv4Address));
+    }
+
+    /**
+     * This method gets a node from the topology corresponding to the IPv4
+     * address specified as an argument, in constant time.
+     *
+     * @param ipv4Address the IPv4 address of the node to be returned, as a 32
+     * bits integer.
+     * @return a node from the topology corresponding to the IPv4 address
+     * specified as an argument. NULL if there is not such node.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public TNode getNodeWithIPv4Address(int ipv4Address) {
+        return this.nodesByIPv4Address.get(ipv4Address);
     }
 
     /**
@@ -265,7 +279,7 @@ public class TTopology {
             node = (TNode) nodesIterator.next();
             if (node.getNodeType() == TNode.TRAFFIC_GENERATOR) {
                 trafficeGeneratorNode = (TTrafficGeneratorNode) node;
-                if (trafficeGeneratorNode.getTargetIPv4Address().equals(trafficSinkNode.getIPv4Address())) {
+                if (trafficeGeneratorNode.getTargetIPv4Address() == trafficSinkNode.getIPv4Address()) {
                     return true;
                 }
             }
@@ -383,6 +397,7 @@ public class TTopology {
      */
     public void addLink(TLink link) {
         this.links.add(link);
+        invalidateRoutingTables();
         this.timer.addTimerEventListener(link);
         try {
             link.addSimulationListener(this.parentScenario.getSimulation().getSimulationEventListener());
@@ -413,6 +428,7 @@ public class TTopology {
                 done = true;
             }
         }
+        invalidateRoutingTables();
         this.timer.purgeTimerEventListenersMarkedForDeletion();
     }
 
@@ -509,6 +525,7 @@ public class TTopology {
                 done = true;
             }
         }
+        invalidateRoutingTables();
     }
 
     /**
@@ -581,6 +598,7 @@ public class TTopology {
                 linksIterator.remove();
             }
         }
+        invalidateRoutingTables();
         TTopology.this.removeNode(nodeID);
         this.timer.purgeTimerEventListenersMarkedForDeletion();
     }
@@ -641,6 +659,8 @@ public class TTopology {
             node.markForDeletionAsTimerEventListener(true);
             elementsIterator.remove();
         }
+        this.nodesByIPv4Address.clear();
+        invalidateRoutingTables();
         this.timer.purgeTimerEventListenersMarkedForDeletion();
     }
 
@@ -681,6 +701,19 @@ public class TTopology {
         return this.timer;
     }
 
+    /**
+     * This method creates the random number generator of a topology element,
+     * derived from the random seed of the simulation of the scenario.
+     *
+     * @param elementID The ID of the topology element.
+     * @return A new random number generator for the topology element.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public SplittableRandom createRandomGenerator(long elementID) {
+        return this.parentScenario.getSimulation().createRandomGenerator(elementID);
+    }
+
     /**
      * This method computes the minimum delay of all point-to-point links in the
      * topology.
@@ -831,54 +864,115 @@ public class TTopology {
     }
 
     /**
-     * This method runs Floyd-Warshall algorithm to compute the next hop node ID
-     * to reach the target node (whose node ID is specified as an argument) from
-     * a given origin node (whose node ID is specified as an argument, too).
-     * This algorithm is the "traditional" one where link delay are used to
-     * route packets through a network.
+     * This method discards the routing table computed by Floyd-Warshall
+     * algorithm and the structure used by RABAN algorithm, so they will be
+     * computed again the next time they are needed. It has to be called
+     * whenever nodes or links are added or removed and whenever a link is
+     * broken or recovered.
      *
-     * @param originNodeID node ID of the origin node.
-     * @param targetNodeID node ID of the target/destination node.
-     * @return node ID of the next hop node, that is an adjacent node of the
-     * origin node, to reach the target node with a minimum delay, according to
-     * Floyd-Warsall algorithm. If there is not a route to reach the target
-     * node, TTopology.TARGET_UNREACHABLE is returned.
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
-     * @since 2.0
+     * @since 2.4
+     */
+    public void invalidateRoutingTables() {
+        synchronized (this.routingTablesLock) {
+            this.floydWarshallRoutingTable = null;
+            this.rabanRoutingEngine = null;
+        }
+    }
+
+    /**
+     * This method gets the engine that computes routes using RABAN algorithm
+     * for the current structure of the topology. If it has been invalidated
+     * since the latest time it was created, it is created again. RABAN weights
+     * are not stored in the engine; they are read from links each time a route
+     * is computed.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the engine that computes routes using RABAN algorithm for the
+     * current structure of the topology.
+     * @since 2.4
+     */
+    public TRABANRoutingEngine getRABANRoutingEngine() {
+        TRABANRoutingEngine routingEngine = this.rabanRoutingEngine;
+        if (routingEngine == null) {
+            synchronized (this.routingTablesLock) {
+                routingEngine = this.rabanRoutingEngine;
+                if (routingEngine == null) {
+                    routingEngine = new TRABANRoutingEngine(this.nodes.toArray(new TNode[this.nodes.size()]), this.links.toArray(new TLink[this.links.size()]));
+                    this.rabanRoutingEngine = routingEngine;
+                }
+            }
+        }
+        return routingEngine;
+    }
+
+    /**
+     * This method gets the routing table computed by Floyd-Warshall algorithm
+     * for the current state of the topology. If it has been invalidated since
+     * the latest time it was computed, it is computed again. Otherwise, the
+     * same routing table is returned without taking any lock.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the routing table computed by Floyd-Warshall algorithm for the
+     * current state of the topology.
+     * @since 2.4
      */
-    public synchronized int getFloydWarshallNextHopID(int originNodeID, int targetNodeID) {
-        this.floydWarshallAlgorithmLock.setRed();
+    public TFloydWarshallRoutingTable getFloydWarshallRoutingTable() {
+        TFloydWarshallRoutingTable routingTable = this.floydWarshallRoutingTable;
+        if (routingTable == null) {
+            synchronized (this.routingTablesLock) {
+                routingTable = this.floydWarshallRoutingTable;
+                if (routingTable == null) {
+                    routingTable = computeFloydWarshallRoutingTable();
+                    this.floydWarshallRoutingTable = routingTable;
+                }
+            }
+        }
+        return routingTable;
+    }
+
+    /**
+     * This method runs Floyd-Warshall algorithm over the current state of the
+     * topology. The adjacency matrix is built iterating links only once. As
+     * getLinkThatJoins() does, if several links join the same nodes, the first
+     * one is the only one taken into account.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return a new routing table computed by Floyd-Warshall algorithm.
+     * @since 2.4
+     */
+    private TFloydWarshallRoutingTable computeFloydWarshallRoutingTable() {
         int currentNumberOfNodes = this.nodes.size();
-        int tmpOrigin = 0;
-        int tmpDestination = 0;
         // We compute equivalences betweeen indexes and node IDs to be used 
         // when computing the adjacency matrix. This is needed because node IDs 
         // cannot be used as indexes of the adjacency matrix. It's an index 
         // translation.
         int[] equivalenceMatrix = new int[currentNumberOfNodes];
+        int[] ipv4Addresses = new int[currentNumberOfNodes];
+        HashMap<Integer, Integer> nodeIndexes = new HashMap<>();
         int i = 0;
-        TNode node = null;
-        Iterator nodesIterator = this.getNodesIterator();
-        while (nodesIterator.hasNext()) {
-            node = (TNode) nodesIterator.next();
+        for (TNode node : this.nodes) {
             equivalenceMatrix[i] = node.getNodeID();
-            if (equivalenceMatrix[i] == originNodeID) {
-                tmpOrigin = i;
-            } else if (equivalenceMatrix[i] == targetNodeID) {
-                tmpDestination = i;
-            }
+            ipv4Addresses[i] = node.getIPv4Address();
+            nodeIndexes.putIfAbsent(node.getNodeID(), i);
             i++;
         }
         // We compute adjacency matrix
-        TLink link = null;
         long[][] adjacencyMatrix = new long[currentNumberOfNodes][currentNumberOfNodes];
-        int j = 0;
+        boolean[][] joinedNodes = new boolean[currentNumberOfNodes][currentNumberOfNodes];
+        Integer headEndIndex;
+        Integer tailEndIndex;
+        for (TLink link : this.links) {
+            headEndIndex = nodeIndexes.get(link.getHeadEndNode().getNodeID());
+            tailEndIndex = nodeIndexes.get(link.getTailEndNode().getNodeID());
+            if ((headEndIndex != null) && (tailEndIndex != null)) {
+                setAdjacency(adjacencyMatrix, joinedNodes, headEndIndex, tailEndIndex, link);
+                setAdjacency(adjacencyMatrix, joinedNodes, tailEndIndex, headEndIndex, link);
+            }
+        }
         for (i = 0; i < currentNumberOfNodes; i++) {
-            for (j = 0; j < currentNumberOfNodes; j++) {
-                link = getLinkThatJoins(equivalenceMatrix[i], equivalenceMatrix[j]);
-                if ((link == null) || ((link != null) && (link.isBroken()))) {
-                    // If there is not a link joining node i and j. Or if this
-                    // link exists but is down at this moment:
+            for (int j = 0; j < currentNumberOfNodes; j++) {
+                if (!joinedNodes[i][j]) {
                     if (i == j) {
                         // It's the same node.
                         adjacencyMatrix[i][j] = 0;
@@ -886,125 +980,116 @@ public class TTopology {
                         // It's impossible to reach i from j or viceversa.
                         adjacencyMatrix[i][j] = TTopology.INFINITE_WEIGHT;
                     }
-                } else if (link.getLinkType() == TLink.EXTERNAL_LINK) {
-                    // We put the link weight in the adjacency matrix
-                    TOuterLink externalLink = (TOuterLink) link;
-                    adjacencyMatrix[i][j] = externalLink.getWeight();
-                } else {
-                    // We put the link weight in the adjacency matrix
-                    TInnerLink internalLink = (TInnerLink) link;
-                    adjacencyMatrix[i][j] = internalLink.getWeight();
-                }
-            }
-        }
-        // We compute costs matrix and paths matrix
-        long[][] costsMatrix = new long[currentNumberOfNodes][currentNumberOfNodes];
-        int[][] pathsMatrix = new int[currentNumberOfNodes][currentNumberOfNodes];
-        int k = 0;
-        for (i = 0; i < currentNumberOfNodes; i++) {
-            for (j = 0; j < currentNumberOfNodes; j++) {
-                costsMatrix[i][j] = adjacencyMatrix[i][j];
-                pathsMatrix[i][j] = currentNumberOfNodes;
-            }
-        }
-        for (k = 0; k < currentNumberOfNodes; k++) {
-            for (i = 0; i < currentNumberOfNodes; i++) {
-                for (j = 0; j < currentNumberOfNodes; j++) {
-                    if (!((costsMatrix[i][k] == TTopology.INFINITE_WEIGHT) || (costsMatrix[k][j] == TTopology.INFINITE_WEIGHT))) {
-                        if ((costsMatrix[i][k] + costsMatrix[k][j]) < costsMatrix[i][j]) {
-                            costsMatrix[i][j] = costsMatrix[i][k] + costsMatrix[k][j];
-                            pathsMatrix[i][j] = k;
-                        }
-                    }
                 }
             }
         }
-        // If there is a route to destination host, this step get the first hop
-        // of this route.
-        int nextHop = TTopology.TARGET_UNREACHABLE;
-        k = pathsMatrix[tmpOrigin][tmpDestination];
-        while (k != currentNumberOfNodes) {
-            nextHop = k;
-            k = pathsMatrix[tmpOrigin][k];
+        return new TFloydWarshallRoutingTable(equivalenceMatrix, ipv4Addresses, adjacencyMatrix, joinedNodes);
+    }
+
+    /**
+     * This method puts the weight of a link in the position of the adjacency
+     * matrix that corresponds to the nodes it joins, unless another link
+     * joining the same nodes has been found before.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param adjacencyMatrix the adjacency matrix being computed.
+     * @param joinedNodes the matrix of nodes joined by a link being computed.
+     * @param i index of the first node joined by the link.
+     * @param j index of the second node joined by the link.
+     * @param link the link that joins both nodes.
+     * @since 2.4
+     */
+    private void setAdjacency(long[][] adjacencyMatrix, boolean[][] joinedNodes, int i, int j, TLink link) {
+        if (joinedNodes[i][j]) {
+            return;
         }
-        // We check wether there is not route to host or they are adjacents
-        if (nextHop == TTopology.TARGET_UNREACHABLE) {
-            TLink linkAux = this.getLinkThatJoins(originNodeID, targetNodeID);
-            if (linkAux != null) {
-                nextHop = targetNodeID;
+        joinedNodes[i][j] = true;
+        if (link.isBroken()) {
+            // The link exists but is down at this moment.
+            if (i == j) {
+                adjacencyMatrix[i][j] = 0;
+            } else {
+                adjacencyMatrix[i][j] = TTopology.INFINITE_WEIGHT;
             }
         } else {
-            nextHop = equivalenceMatrix[nextHop];
+            // We put the link weight in the adjacency matrix
+            adjacencyMatrix[i][j] = link.getWeight();
         }
-        this.floydWarshallAlgorithmLock.setGreen();
-        return nextHop;
     }
 
     /**
-     * This method runs Floyd-Warshall algorithm to compute the next hop IPv4
-     * address to reach the target node (whose IPv4 address is specified as an
-     * argument) from a given origin node (whose IPv4 address is specified as an
-     * argument, too). This algorithm is the "traditional" one where link delay
-     * are used to route packets through a network.
+     * This method gets the next hop node ID to reach the target node (whose
+     * node ID is specified as an argument) from a given origin node (whose node
+     * ID is specified as an argument, too), according to Floyd-Warshall
+     * algorithm. This algorithm is the "traditional" one where link delay are
+     * used to route packets through a network. Routes are taken from a routing
+     * table that is computed only when the topology changes.
+     *
+     * @param originNodeID node ID of the origin node.
+     * @param targetNodeID node ID of the target/destination node.
+     * @return node ID of the next hop node, that is an adjacent node of the
+     * origin node, to reach the target node with a minimum delay, according to
+     * Floyd-Warsall algorithm. If there is not a route to reach the target
+     * node, TTopology.TARGET_UNREACHABLE is returned.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.0
+     */
+    public int getFloydWarshallNextHopID(int originNodeID, int targetNodeID) {
+        return getFloydWarshallRoutingTable().getNextHopID(originNodeID, targetNodeID);
+    }
+
+    /**
+     * This method gets the next hop IPv4 address to reach the target node
+     * (whose IPv4 address is specified as an argument) from a given origin node
+     * (whose IPv4 address is specified as an argument, too), according to
+     * Floyd-Warshall algorithm. This algorithm is the "traditional" one where
+     * link delay are used to route packets through a network. Routes are taken
+     * from a routing table that is computed only when the topology changes.
      *
      * @param originNodeIPv4Address IPv4 address of the origin node.
      * @param targetNodeIPv4Address IPv4 address of the target/destination node.
      * @return IPv4 address of the next hop node, that is an adjacent node of
      * the origin node, to reach the target node with a minimum delay, according
      * to Floyd-Warsall algorithm. If there is not a route to reach the target
-     * node, NULL is returned.
+     * node, TIPv4Address.UNSPECIFIED is returned.
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
-    public synchronized String getFloydWarsallNextHopIPv4Address(String originNodeIPv4Address, String targetNodeIPv4Address) {
-        int originNodeID = this.getNode(originNodeIPv4Address).getNodeID();
-        int destinationID = this.getNode(targetNodeIPv4Address).getNodeID();
-        int nextHopID = getFloydWarshallNextHopID(originNodeID, destinationID);
-        TNode node = this.getNode(nextHopID);
-        if (node != null) {
-            return node.getIPv4Address();
-        }
-        return null;
+    public int getFloydWarsallNextHopIPv4Address(int originNodeIPv4Address, int targetNodeIPv4Address) {
+        return getFloydWarshallRoutingTable().getNextHopIPv4Address(originNodeIPv4Address, targetNodeIPv4Address);
     }
 
     /**
-     * This method runs RABAN algorithm (a variant of Floyd-Warsall algorithm)
-     * to compute the next hop IPv4 address to reach the target node (whose IPv4
-     * address is specified as an argument) from a given origin node (whose IPv4
-     * address is specified as an argument, too). This algorithm takes into
-     * account lots of data instead of only "delay", to balance the traffic
-     * through a network. See "Guarentee of Service (GoS) support over MPLS
-     * using Active Techniques" proposal so know more of RABAN.
+     * This method runs RABAN algorithm to compute the next hop IPv4 address to
+     * reach the target node (whose IPv4 address is specified as an argument)
+     * from a given origin node (whose IPv4 address is specified as an argument,
+     * too). This algorithm takes into account lots of data instead of only
+     * "delay", to balance the traffic through a network. See "Guarentee of
+     * Service (GoS) support over MPLS using Active Techniques" proposal so know
+     * more of RABAN.
      *
      * @param originNodeIPv4Address IPv4 address of the origin node.
      * @param targetNodeIPv4Address IPv4 address of the target/destination node.
      * @return IPv4 address of the next hop node, that is an adjacent node of
      * the origin node, to reach the target node with a minimum RABAN weight,
      * according to RABAN algorithm. If there is not a route to reach the target
-     * node, NULL is returned.
+     * node, TIPv4Address.UNSPECIFIED is returned.
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
-    public synchronized String getRABANNextHopIPv4Address(String originNodeIPv4Address, String targetNodeIPv4Address) {
-        int originNodeID = this.getNode(originNodeIPv4Address).getNodeID();
-        int destinationNodeID = this.getNode(targetNodeIPv4Address).getNodeID();
-        int nextHopID = TTopology.this.getRABANNextHopID(originNodeID, destinationNodeID);
-        TNode node = this.getNode(nextHopID);
-        if (node != null) {
-            return node.getIPv4Address();
-        }
-        return null;
+    public int getRABANNextHopIPv4Address(int originNodeIPv4Address, int targetNodeIPv4Address) {
+        return getRABANRoutingEngine().getNextHopIPv4Address(originNodeIPv4Address, targetNodeIPv4Address);
     }
 
     /**
-     * This method runs RABAN algorithm (a variant of Floyd-Warsall algorithm)
-     * to compute the next hop IPv4 address to reach the target node (whose IPv4
-     * address is specified as an argument) from a given origin node (whose IPv4
-     * address is specified as an argument, too); also, it avoid choosing the
-     * node specified by nodeToAvoidIPv4Address as next hop. This algorithm
-     * takes into account lots of data instead of only "delay", to balance the
-     * traffic through a network. See "Guarentee of Service (GoS) support over
-     * MPLS using Active Techniques" proposal so know more of RABAN.
+     * This method runs RABAN algorithm to compute the next hop IPv4 address to
+     * reach the target node (whose IPv4 address is specified as an argument)
+     * from a given origin node (whose IPv4 address is specified as an argument,
+     * too); also, it avoid choosing the node specified by
+     * nodeToAvoidIPv4Address as next hop. This algorithm takes into account
+     * lots of data instead of only "delay", to balance the traffic through a
+     * network. See "Guarentee of Service (GoS) support over MPLS using Active
+     * Techniques" proposal so know more of RABAN.
      *
      * @param originNodeIPv4Address IPv4 address of the origin node.
      * @param targetNodeIPv4Address IPv4 address of the target/destination node.
@@ -1014,30 +1099,22 @@ public class TTopology {
      * @return IPv4 address of the next hop node, that is an adjacent node of
      * the origin node, to reach the target node with a minimum RABAN weight,
      * according to RABAN algorithm. If there is not a route to reach the target
-     * node, NULL is returned.
+     * node, TIPv4Address.UNSPECIFIED is returned.
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
-    public synchronized String getRABANNextHopIPv4Address(String originNodeIPv4Address, String targetNodeIPv4Address, String nodeToAvoidIPv4Address) {
-        int originNodeID = this.getNode(originNodeIPv4Address).getNodeID();
-        int destinationNodeID = this.getNode(targetNodeIPv4Address).getNodeID();
-        int nodeToAvoidID = this.getNode(nodeToAvoidIPv4Address).getNodeID();
-        int nextHopID = getNextHopIDUsingRABAN(originNodeID, destinationNodeID, nodeToAvoidID);
-        TNode node = this.getNode(nextHopID);
-        if (node != null) {
-            return node.getIPv4Address();
-        }
-        return null;
+    public int getRABANNextHopIPv4Address(int originNodeIPv4Address, int targetNodeIPv4Address, int nodeToAvoidIPv4Address) {
+        return getRABANRoutingEngine().getNextHopIPv4Address(originNodeIPv4Address, targetNodeIPv4Address, nodeToAvoidIPv4Address);
     }
 
     /**
-     * This method runs RABAN algorithm (a variant of Floyd-Warsall algorithm)
-     * to compute the next hop node ID to reach the target node (whose node ID
-     * is specified as an argument) from a given origin node (whose node ID is
-     * specified as an argument, too). This algorithm takes into account lots of
-     * data instead of only "delay", to balance the traffic through a network.
-     * See "Guarentee of Service (GoS) support over MPLS using Active
-     * Techniques" proposal so know more of RABAN.
+     * This method runs RABAN algorithm to compute the next hop node ID to
+     * reach the target node (whose node ID is specified as an argument) from a
+     * given origin node (whose node ID is specified as an argument, too). This
+     * algorithm takes into account lots of data instead of only "delay", to
+     * balance the traffic through a network. See "Guarentee of Service (GoS)
+     * support over MPLS using Active Techniques" proposal so know more of
+     * RABAN.
      *
      * @param originNodeID node ID of the origin node.
      * @param targetNodeID node ID of the target/destination node.
@@ -1048,103 +1125,19 @@ public class TTopology {
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
-    public synchronized int getRABANNextHopID(int originNodeID, int targetNodeID) {
-        this.rabanAlgorithmLock.setRed();
-        int currentNumberOfNodes = this.nodes.size();
-        int tmpOrigin = 0;
-        int tmpDestination = 0;
-        // We compute equivalences betweeen indexes and node IDs to be used 
-        // when computing the adjacency matrix. This is needed because node IDs 
-        // cannot be used as indexes of the adjacency matrix. It's an index 
-        // translation.
-        int[] equivalenceMatrix = new int[currentNumberOfNodes];
-        int i = 0;
-        TNode node = null;
-        Iterator nodesIterator = this.getNodesIterator();
-        while (nodesIterator.hasNext()) {
-            node = (TNode) nodesIterator.next();
-            equivalenceMatrix[i] = node.getNodeID();
-            if (equivalenceMatrix[i] == originNodeID) {
-                tmpOrigin = i;
-            } else if (equivalenceMatrix[i] == targetNodeID) {
-                tmpDestination = i;
-            }
-            i++;
-        }
-        // We compute adjacency matrix
-        TLink link = null;
-        long[][] adjacencyMatrix = new long[currentNumberOfNodes][currentNumberOfNodes];
-        int j = 0;
-        for (i = 0; i < currentNumberOfNodes; i++) {
-            for (j = 0; j < currentNumberOfNodes; j++) {
-                link = getLinkThatJoins(equivalenceMatrix[i], equivalenceMatrix[j]);
-                if ((link == null) || ((link != null) && (link.isBroken()))) {
-                    if (i == j) {
-                        adjacencyMatrix[i][j] = 0;
-                    } else {
-                        adjacencyMatrix[i][j] = TTopology.INFINITE_WEIGHT;
-                    }
-                } else if (link.getLinkType() == TLink.EXTERNAL_LINK) {
-                    TOuterLink externalLink = (TOuterLink) link;
-                    adjacencyMatrix[i][j] = externalLink.getRABANWeight();
-                } else {
-                    TInnerLink internalLink = (TInnerLink) link;
-                    adjacencyMatrix[i][j] = internalLink.getRABANWeight();
-                }
-            }
-        }
-        // We compute costs matrix and paths matrix
-        long[][] costsMatrix = new long[currentNumberOfNodes][currentNumberOfNodes];
-        int[][] pathsMatrix = new int[currentNumberOfNodes][currentNumberOfNodes];
-        int k = 0;
-        for (i = 0; i < currentNumberOfNodes; i++) {
-            for (j = 0; j < currentNumberOfNodes; j++) {
-                costsMatrix[i][j] = adjacencyMatrix[i][j];
-                pathsMatrix[i][j] = currentNumberOfNodes;
-            }
-        }
-        for (k = 0; k < currentNumberOfNodes; k++) {
-            for (i = 0; i < currentNumberOfNodes; i++) {
-                for (j = 0; j < currentNumberOfNodes; j++) {
-                    if (!((costsMatrix[i][k] == TTopology.INFINITE_WEIGHT) || (costsMatrix[k][j] == TTopology.INFINITE_WEIGHT))) {
-                        if ((costsMatrix[i][k] + costsMatrix[k][j]) < costsMatrix[i][j]) {
-                            costsMatrix[i][j] = costsMatrix[i][k] + costsMatrix[k][j];
-                            pathsMatrix[i][j] = k;
-                        }
-                    }
-                }
-            }
-        }
-        // If there is a route to destination host, this step get the first hop
-        // of this route.
-        int nextHop = TTopology.TARGET_UNREACHABLE;
-        k = pathsMatrix[tmpOrigin][tmpDestination];
-        while (k != currentNumberOfNodes) {
-            nextHop = k;
-            k = pathsMatrix[tmpOrigin][k];
-        }
-        // We check wether there is not route to host or they are adjacents
-        if (nextHop == TTopology.TARGET_UNREACHABLE) {
-            TLink linkAux = this.getLinkThatJoins(originNodeID, targetNodeID);
-            if (linkAux != null) {
-                nextHop = targetNodeID;
-            }
-        } else {
-            nextHop = equivalenceMatrix[nextHop];
-        }
-        this.rabanAlgorithmLock.setGreen();
-        return nextHop;
+    public int getRABANNextHopID(int originNodeID, int targetNodeID) {
+        return getRABANRoutingEngine().getNextHopID(originNodeID, targetNodeID);
     }
 
     /**
-     * This method runs RABAN algorithm (a variant of Floyd-Warsall algorithm)
-     * to compute the next hop node ID to reach the target node (whose node ID
-     * is specified as an argument) from a given origin node (whose node ID is
-     * specified as an argument, too); also, it avoid choosing the node
-     * specified by nodeToAvoidID node ID as next hop. This algorithm takes into
-     * account lots of data instead of only "delay", to balance the traffic
-     * through a network. See "Guarentee of Service (GoS) support over MPLS
-     * using Active Techniques" proposal so know more of RABAN.
+     * This method runs RABAN algorithm to compute the next hop node ID to
+     * reach the target node (whose node ID is specified as an argument) from a
+     * given origin node (whose node ID is specified as an argument, too); also,
+     * it avoid choosing the node specified by nodeToAvoidID node ID as next
+     * hop. This algorithm takes into account lots of data instead of only
+     * "delay", to balance the traffic through a network. See "Guarentee of
+     * Service (GoS) support over MPLS using Active Techniques" proposal so know
+     * more of RABAN.
      *
      * @param originNodeID node ID of the origin node.
      * @param targetNodeID node ID of the target/destination node.
@@ -1157,104 +1150,8 @@ public class TTopology {
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
-    public synchronized int getNextHopIDUsingRABAN(int originNodeID, int targetNodeID, int nodeToAvoidID) {
-        this.rabanAlgorithmLock.setRed();
-        int currentNumberOfNodes = this.nodes.size();
-        int tmpOrigin = 0;
-        int tmpDestination = 0;
-        int tmpNodeToAvoidID = 0;
-        // We compute equivalences betweeen indexes and node IDs to be used 
-        // when computing the adjacency matrix. This is needed because node IDs 
-        // cannot be used as indexes of the adjacency matrix. It's an index 
-        // translation.
-        int[] equivalenceMatrix = new int[currentNumberOfNodes];
-        int i = 0;
-        TNode node = null;
-        Iterator nodesIterator = this.getNodesIterator();
-        while (nodesIterator.hasNext()) {
-            node = (TNode) nodesIterator.next();
-            equivalenceMatrix[i] = node.getNodeID();
-            if (equivalenceMatrix[i] == originNodeID) {
-                tmpOrigin = i;
-            } else if (equivalenceMatrix[i] == targetNodeID) {
-                tmpDestination = i;
-            } else if (equivalenceMatrix[i] == nodeToAvoidID) {
-                tmpNodeToAvoidID = i;
-            }
-            i++;
-        }
-        // We compute adjacency matrix
-        TLink link = null;
-        long[][] adjacencyMatrix = new long[currentNumberOfNodes][currentNumberOfNodes];
-        int j = 0;
-        for (i = 0; i < currentNumberOfNodes; i++) {
-            for (j = 0; j < currentNumberOfNodes; j++) {
-                link = getLinkThatJoins(equivalenceMatrix[i], equivalenceMatrix[j]);
-                if ((link == null) || ((link != null) && (link.isBroken()))) {
-                    if (i == j) {
-                        adjacencyMatrix[i][j] = 0;
-                    } else {
-                        adjacencyMatrix[i][j] = TTopology.INFINITE_WEIGHT;
-                    }
-                } else if (link.getLinkType() == TLink.EXTERNAL_LINK) {
-                    TOuterLink externalLink = (TOuterLink) link;
-                    adjacencyMatrix[i][j] = externalLink.getRABANWeight();
-                } else {
-                    TInnerLink internalLink = (TInnerLink) link;
-                    adjacencyMatrix[i][j] = internalLink.getRABANWeight();
-                }
-                // He we avoid to choose the specified undesired node as next
-                // hop. Let's say, we avoid to include the undesired node in
-                // the computed route to destination.
-                if ((i == tmpOrigin) && (j == tmpNodeToAvoidID)) {
-                    adjacencyMatrix[i][j] = TTopology.INFINITE_WEIGHT;
-                }
-                if ((i == tmpNodeToAvoidID) && (j == tmpOrigin)) {
-                    adjacencyMatrix[i][j] = TTopology.INFINITE_WEIGHT;
-                }
-            }
-        }
-        // We compute costs matrix and paths matrix
-        long[][] costsMatrix = new long[currentNumberOfNodes][currentNumberOfNodes];
-        int[][] pathsMatrix = new int[currentNumberOfNodes][currentNumberOfNodes];
-        int k = 0;
-        for (i = 0; i < currentNumberOfNodes; i++) {
-            for (j = 0; j < currentNumberOfNodes; j++) {
-                costsMatrix[i][j] = adjacencyMatrix[i][j];
-                pathsMatrix[i][j] = currentNumberOfNodes;
-            }
-        }
-        for (k = 0; k < currentNumberOfNodes; k++) {
-            for (i = 0; i < currentNumberOfNodes; i++) {
-                for (j = 0; j < currentNumberOfNodes; j++) {
-                    if (!((costsMatrix[i][k] == TTopology.INFINITE_WEIGHT) || (costsMatrix[k][j] == TTopology.INFINITE_WEIGHT))) {
-                        if ((costsMatrix[i][k] + costsMatrix[k][j]) < costsMatrix[i][j]) {
-                            costsMatrix[i][j] = costsMatrix[i][k] + costsMatrix[k][j];
-                            pathsMatrix[i][j] = k;
-                        }
-                    }
-                }
-            }
-        }
-        // If there is a route to destination host, this step get the first hop
-        // of this route.
-        int nextHop = TTopology.TARGET_UNREACHABLE;
-        k = pathsMatrix[tmpOrigin][tmpDestination];
-        while (k != currentNumberOfNodes) {
-            nextHop = k;
-            k = pathsMatrix[tmpOrigin][k];
-        }
-        // We check wether there is not route to host or they are adjacents
-        if (nextHop == TTopology.TARGET_UNREACHABLE) {
-            TLink linkAux = this.getLinkThatJoins(originNodeID, targetNodeID);
-            if (linkAux != null) {
-                nextHop = targetNodeID;
-            }
-        } else {
-            nextHop = equivalenceMatrix[nextHop];
-        }
-        this.rabanAlgorithmLock.setGreen();
-        return nextHop;
+    public int getNextHopIDUsingRABAN(int originNodeID, int targetNodeID, int nodeToAvoidID) {
+        return getRABANRoutingEngine().getNextHopID(originNodeID, targetNodeID, nodeToAvoidID);
     }
 
     public static final long INFINITE_WEIGHT = 9223372036854775806L;
@@ -1262,12 +1159,14 @@ public class TTopology {
     public static final int TARGET_UNREACHABLE = -1;
 
     private TreeSet<TNode> nodes;
+    private final HashMap<Integer, TNode> nodesByIPv4Address;
     private TreeSet<TLink> links;
     private TTimer timer;
     private TScene parentScenario;
     private TLongIDGenerator eventIDGenerator;
     private TIDGenerator elementsIDGenerator;
     private TIPv4AddressGenerator ipv4AddressGenerator;
-    private TSemaphore floydWarshallAlgorithmLock;
-    private TSemaphore rabanAlgorithmLock;
+    private volatile TFloydWarshallRoutingTable floydWarshallRoutingTable;
+    private final Object routingTablesLock;
+    private volatile TRABANRoutingEngine rabanRoutingEngine;
 }
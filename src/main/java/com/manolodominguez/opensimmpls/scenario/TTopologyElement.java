@@ -19,6 +19,7 @@ import com.manolodominguez.opensimmpls.scenario.simulationevents.ESimulationSing
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
 import com.manolodominguez.opensimmpls.hardware.timer.TTimerEvent;
 import com.manolodominguez.opensimmpls.hardware.timer.ITimerEventListener;
+import com.manolodominguez.opensimmpls.hardware.timer.ITimerExecutionBackend;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventListener;
 import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
 import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
@@ -47,7 +48,9 @@ public abstract class TTopologyElement implements ITimerEventListener, Runnable
         this.elementType = elementType;
         this.markForDeletionAsTimerEventListener = false;
         this.elementThread = null;
+        this.executionBackend = null;
         this.simulationEventsListener = null;
+        this.simulationEventsMask = TSimulationEventListener.ALL_SUBTYPES;
         this.eventIdentifierGenerator = eventIdentifierGenerator;
         this.availableNanoseconds = 0;
         this.alive = true;
@@ -210,14 +213,31 @@ public abstract class TTopologyElement implements ITimerEventListener, Runnable
     }
 
     /**
-     * This method starts the independent thread that governs the topology
-     * element.
+     * This method sets the execution backend that will run the work of this
+     * topology element in each tick. It is set by the timer when the element
+     * subscribes to it.
+     *
+     * @param executionBackend the execution backend that will run the work of
+     * this topology element. If null, a new thread will be created each tick.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public void setExecutionBackend(ITimerExecutionBackend executionBackend) {
+        this.executionBackend = executionBackend;
+    }
+
+    /**
+     * This method starts the work of the topology element for the current
+     * tick. If an execution backend has been set, the work is handed to it.
+     * Otherwise, an independent thread is started.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
     public synchronized void startOperation() {
-        if (elementThread == null) {
+        if (this.executionBackend != null) {
+            this.executionBackend.execute(this);
+        } else if (elementThread == null) {
             elementThread = new Thread(this);
             this.elementThread.start();
         } else if (!elementThread.isAlive()) {
@@ -247,7 +267,9 @@ public abstract class TTopologyElement implements ITimerEventListener, Runnable
 
     /**
      * This methods sets the simulation events listener of this element. This
-     * listener will collect the simulation of thi topology element.
+     * listener will collect the simulation of thi topology element. Usually,
+     * it is the simulation event bus of the scenario, so that any number of
+     * listeners can subscribe to it instead.
      *
      * @param simulationEventsListener the simulation event listener that will
      * collect wimulation events generated by the topology element.
@@ -291,6 +313,49 @@ public abstract class TTopologyElement implements ITimerEventListener, Runnable
         }
     }
 
+    /**
+     * This method sets whether this topology element has to generate
+     * simulation events of the specified subtype or not. By default, every
+     * subtype is generated as long as the simulation event listener consumes
+     * it.
+     *
+     * @param subtype The subtype of the simulation event, as defined in
+     * TSimulationEvent.
+     * @param enabled TRUE, if events of the specified subtype have to be
+     * generated. Otherwise, FALSE.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public synchronized void setSimulationEventEnabled(int subtype, boolean enabled) {
+        if (enabled) {
+            this.simulationEventsMask |= TSimulationEventListener.getSubtypeMask(subtype);
+        } else {
+            this.simulationEventsMask &= ~TSimulationEventListener.getSubtypeMask(subtype);
+        }
+    }
+
+    /**
+     * This method checks whether a simulation event of the specified subtype
+     * has to be generated or not. It has to be called before creating the
+     * event so that events that are not going to be consumed are never
+     * created.
+     *
+     * @param subtype The subtype of the simulation event, as defined in
+     * TSimulationEvent.
+     * @return TRUE, if this topology element has a simulation event listener
+     * interested in events of the specified subtype and they are enabled for
+     * this topology element. Otherwise, FALSE.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public boolean isSimulationEventEnabled(int subtype) {
+        if ((this.simulationEventsMask & (ONE << subtype)) == ZERO) {
+            return false;
+        }
+        TSimulationEventListener listener = this.simulationEventsListener;
+        return (listener != null) && listener.isInterestedIn(subtype);
+    }
+
     /**
      * This is an abstract method that once implemented will check whether the
      * topology element is alive or not.
@@ -327,6 +392,36 @@ public abstract class TTopologyElement implements ITimerEventListener, Runnable
     @Override
     public abstract void receiveTimerEvent(TTimerEvent timerEvent);
 
+    /**
+     * This is an abstract method that once implemented will compute how many
+     * consecutive ticks, starting with the next one, the topology element
+     * would spend without doing anything observable.
+     *
+     * @param tickDurationInNs Duration of each tick, in nanoseconds.
+     * @param maxNumberOfIdleTicks The maximum number of ticks the timer is
+     * interested in.
+     * @return Number of consecutive idle ticks, never greater than
+     * maxNumberOfIdleTicks.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    @Override
+    public abstract long getNumberOfIdleTicks(int tickDurationInNs, long maxNumberOfIdleTicks);
+
+    /**
+     * This is an abstract method that once implemented will update the
+     * topology element as if it had received the specified number of idle
+     * timer events.
+     *
+     * @param firstIdleTick The first timer event that is being skipped.
+     * @param numberOfIdleTicks Number of consecutive timer events being
+     * skipped.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    @Override
+    public abstract void skipIdleTicks(TTimerEvent firstIdleTick, long numberOfIdleTicks);
+
     /**
      * This is an abstract method that once implemented will start the thread of
      * the topology element.
@@ -399,10 +494,15 @@ public abstract class TTopologyElement implements ITimerEventListener, Runnable
     public static final int LINK = 0;
     public static final int NODE = 1;
 
+    private static final long ZERO = 0L;
+    private static final long ONE = 1L;
+
     private int elementType;
     private boolean markForDeletionAsTimerEventListener;
     private Thread elementThread;
+    private ITimerExecutionBackend executionBackend;
     public TSimulationEventListener simulationEventsListener;
+    private volatile long simulationEventsMask;
     public TLongIDGenerator eventIdentifierGenerator;
     // FIX: put this attribute as private, not protected.
     protected double availableNanoseconds;
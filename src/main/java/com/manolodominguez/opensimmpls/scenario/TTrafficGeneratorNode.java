@@ -15,6 +15,7 @@
  */
 package com.manolodominguez.opensimmpls.scenario;
 
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketSent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketGenerated;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketDiscarded;
@@ -29,11 +30,12 @@ import com.manolodominguez.opensimmpls.hardware.ports.TFIFOPortSet;
 import com.manolodominguez.opensimmpls.hardware.ports.TPort;
 import com.manolodominguez.opensimmpls.hardware.ports.TPortSet;
 import com.manolodominguez.opensimmpls.commons.EIDGeneratorOverflow;
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
 import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
 import com.manolodominguez.opensimmpls.commons.TRotaryIDGenerator;
 import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
 import java.awt.Point;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.ResourceBundle;
 
 /**
@@ -63,17 +65,18 @@ public class TTrafficGeneratorNode extends TNode implements ITimerEventListener,
         this.setPorts(super.DEFAULT_NUM_PORTS_TRAFFIC_GENERATOR);
         this.identifierGenerator = new TLongIDGenerator();
         this.packetGoSdentifierGenerator = new TRotaryIDGenerator();
-        this.targetIPv4Address = "";
+        this.targetIPv4Address = TIPv4Address.UNSPECIFIED;
         // FIX: Use class constants instead of harcoded values for all cases.
         this.trafficGenerationRate = 10;
         this.trafficGenerationMode = TTrafficGeneratorNode.CONSTANT_TRAFFIC_RATE;
         this.encapsulateOverMPLS = false;
         this.gosLevel = 0;
         this.requestBackupLSP = false;
-        this.randomNumberGenerator = new Random();
+        this.randomNumberGenerator = topology.createRandomGenerator(nodeID);
         this.sendingLabel = (16 + randomNumberGenerator.nextInt(1000000));
         this.constantPayloadSizeInBytes = 0;
         this.variablePayloadSizeInBytes = 0;
+        this.nextPacketHeaderSizeInBytes = TTrafficGeneratorNode.UNKNOWN_HEADER_SIZE;
         this.stats = new TTrafficGeneratorStats();
         // FIX: This method is overridable. Avoid using this method to update
         // the number of ports or make it final.
@@ -131,11 +134,12 @@ public class TTrafficGeneratorNode extends TNode implements ITimerEventListener,
      * will receive the traffice generated by this TSenderNode.
      *
      * @return IPv4 address of the node that will receive the traffice generated
-     * by this TSenderNode.
+     * by this TSenderNode. TIPv4Address.UNSPECIFIED if the target node has not
+     * been set.
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      */
-    public String getTargetIPv4Address() {
+    public int getTargetIPv4Address() {
         return this.targetIPv4Address;
     }
 
@@ -342,12 +346,15 @@ public class TTrafficGeneratorNode extends TNode implements ITimerEventListener,
     public void run() {
         // Actions to be done during the timer tick.
         try {
-            this.generateSimulationEvent(new TSimulationEventNodeCongested(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), 0));
+            if (this.isSimulationEventEnabled(TSimulationEvent.NODE_CONGESTED)) {
+                this.generateSimulationEvent(new TSimulationEventNodeCongested(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), 0));
+            }
         } catch (Exception e) {
             // FIX: this is not a good practice. Avoid.
             e.printStackTrace();
         }
         TAbstractPDU packetAux = createEmptyPacket();
+        this.nextPacketHeaderSizeInBytes = getNextPacketHeaderSizeInBytes(packetAux);
         boolean aPacketWasGenerated = false;
         while (getMaxTransmittableOctetsWithCurrentAvailableNs() > getNextPacketTotalSizeInBytes(packetAux)) {
             aPacketWasGenerated = true;
@@ -362,6 +369,94 @@ public class TTrafficGeneratorNode extends TNode implements ITimerEventListener,
         this.stats.groupStatsByTimeInstant(this.getCurrentTimeInstant());
     }
 
+    /**
+     * This method computes how many consecutive ticks, starting with the next
+     * one, this traffic generator would spend accumulating nanoseconds without
+     * being able to emit the next packet.
+     *
+     * @param tickDurationInNs Duration of each tick, in nanoseconds.
+     * @param maxNumberOfIdleTicks The maximum number of ticks the timer is
+     * interested in.
+     * @return Number of consecutive idle ticks, never greater than
+     * maxNumberOfIdleTicks.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    @Override
+    public long getNumberOfIdleTicks(int tickDurationInNs, long maxNumberOfIdleTicks) {
+        if (this.nextPacketHeaderSizeInBytes == TTrafficGeneratorNode.UNKNOWN_HEADER_SIZE) {
+            // Not a single tick has been run yet.
+            return ZERO;
+        }
+        int nextPacketTotalSizeInBytes = getNextPacketPayloadSizeInBytes() + this.nextPacketHeaderSizeInBytes;
+        // The next packet is emitted in the first tick whose accumulated
+        // nanoseconds allow more than nextPacketTotalSizeInBytes octets, that
+        // is, at least (nextPacketTotalSizeInBytes + 1) * 8 bits.
+        double requiredNanoseconds = (double) (nextPacketTotalSizeInBytes + ONE) * BITS_PER_OCTET * getRequiredNsPerBit();
+        double estimatedTicks = Math.ceil((requiredNanoseconds - this.availableNanoseconds) / (double) tickDurationInNs);
+        if (Double.isNaN(estimatedTicks) || (estimatedTicks > ((double) maxNumberOfIdleTicks + TWO))) {
+            return maxNumberOfIdleTicks;
+        }
+        // The estimation is adjusted using the same rounding used in a tick by
+        // tick simulation. It never differs in more than one tick.
+        long ticksUntilEmission = Math.max(ONE, (long) estimatedTicks);
+        while ((ticksUntilEmission > ONE) && canEmitNextPacketAfterTicks(ticksUntilEmission - ONE, tickDurationInNs, nextPacketTotalSizeInBytes)) {
+            ticksUntilEmission--;
+        }
+        while (!canEmitNextPacketAfterTicks(ticksUntilEmission, tickDurationInNs, nextPacketTotalSizeInBytes)) {
+            ticksUntilEmission++;
+        }
+        return Math.min(ticksUntilEmission - ONE, maxNumberOfIdleTicks);
+    }
+
+    /**
+     * This method checks whether the next packet could be emitted once the
+     * specified number of ticks were accumulated to the available nanoseconds.
+     *
+     * @param numberOfTicks Number of ticks to be accumulated.
+     * @param tickDurationInNs Duration of each tick, in nanoseconds.
+     * @param nextPacketTotalSizeInBytes Size of the next packet, in octets.
+     * @return true, if the next packet could be emitted. Otherwise, false.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    private boolean canEmitNextPacketAfterTicks(long numberOfTicks, int tickDurationInNs, int nextPacketTotalSizeInBytes) {
+        double availableNanosecondsAux = this.availableNanoseconds + (double) (numberOfTicks * tickDurationInNs);
+        return getMaxTransmittableOctets(availableNanosecondsAux) > nextPacketTotalSizeInBytes;
+    }
+
+    /**
+     * This method updates this traffic generator as if it had received the
+     * specified number of idle timer events.
+     *
+     * @param firstIdleTick The first timer event that is being skipped.
+     * @param numberOfIdleTicks Number of consecutive timer events being
+     * skipped.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    @Override
+    public void skipIdleTicks(TTimerEvent firstIdleTick, long numberOfIdleTicks) {
+        int tickDurationInNs = firstIdleTick.getTickDurationInNs();
+        this.setTickDurationInNs(tickDurationInNs);
+        // Each tick creates an empty packet that consumes identifiers. They
+        // are skipped here too so that next packets get the same identifiers
+        // as in a tick by tick simulation.
+        try {
+            this.identifierGenerator.advanceIdentifier(numberOfIdleTicks);
+            if (this.getRequiredEXPValue() != TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP) {
+                this.packetGoSdentifierGenerator.advanceIdentifier(numberOfIdleTicks);
+            }
+        } catch (EIDGeneratorOverflow e) {
+            // FIX: This is ugly. Avoid.
+            e.printStackTrace();
+        }
+        this.availableNanoseconds += (double) (numberOfIdleTicks * tickDurationInNs);
+        this.increaseTicksWithoutEmitting(numberOfIdleTicks);
+        this.stats.groupStatsByTimeInstant(firstIdleTick.getUpperLimit());
+        this.setCurrentTimeInstant(firstIdleTick.getUpperLimit() + ((numberOfIdleTicks - ONE) * tickDurationInNs));
+    }
+
     /**
      * This method gets the payload size of the next packet, according to the
      * generation mode selected for this sender.
@@ -447,13 +542,17 @@ public class TTrafficGeneratorNode extends TNode implements ITimerEventListener,
                             TIPv4PDU ipv4Packet = (TIPv4PDU) packetWithPayload;
                             packetType = ipv4Packet.getSubtype();
                         }
-                        this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packetType, packetWithPayload.getSize()));
-                        this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packetType));
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_GENERATED)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketGenerated(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packetType, packetWithPayload.getSize()));
+                        }
+                        if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+                            this.generateSimulationEvent(new TSimulationEventPacketSent(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packetType));
+                        }
                     } catch (Exception e) {
                         // FIX: this is not a good practice. Avoid.
                         e.printStackTrace();
                     }
-                    if (this.topology.getFloydWarsallNextHopIPv4Address(this.getIPv4Address(), this.getTargetIPv4Address()) != null) {
+                    if (this.topology.getFloydWarsallNextHopIPv4Address(this.getIPv4Address(), this.getTargetIPv4Address()) != TIPv4Address.UNSPECIFIED) {
                         port.putPacketOnLink(packetWithPayload, port.getLink().getDestinationOfTrafficSentBy(this));
                     } else {
                         discardPacket(packetWithPayload);
@@ -510,9 +609,22 @@ public class TTrafficGeneratorNode extends TNode implements ITimerEventListener,
      * @since 2.0
      */
     public int getMaxTransmittableBitsWithCurrentAvailableNs() {
+        return getMaxTransmittableBits(this.availableNanoseconds);
+    }
+
+    /**
+     * This method gets the number of bits that this sender could generate with
+     * the specified number of nanoseconds.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param nanoseconds The number of nanoseconds available.
+     * @return The number of bits that could be generated.
+     * @since 2.4
+     */
+    private int getMaxTransmittableBits(double nanoseconds) {
         double requiredNsPerBit = getRequiredNsPerBit();
-        double maxTransmittableBitsWithCurrentAvailableNs = (double) ((double) this.availableNanoseconds / (double) requiredNsPerBit);
-        return (int) maxTransmittableBitsWithCurrentAvailableNs;
+        double maxTransmittableBits = (double) ((double) nanoseconds / (double) requiredNsPerBit);
+        return (int) maxTransmittableBits;
     }
 
     /**
@@ -526,9 +638,22 @@ public class TTrafficGeneratorNode extends TNode implements ITimerEventListener,
      * @since 2.0
      */
     public int getMaxTransmittableOctetsWithCurrentAvailableNs() {
+        return getMaxTransmittableOctets(this.availableNanoseconds);
+    }
+
+    /**
+     * This method gets the number of octects that this sender could generate
+     * with the specified number of nanoseconds.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param nanoseconds The number of nanoseconds available.
+     * @return The number of octects that could be generated.
+     * @since 2.4
+     */
+    private int getMaxTransmittableOctets(double nanoseconds) {
         // FIX: Do not use harcoded values. Use class constants instead.
-        double maxTransmittableOctetsWithCurrentAvailableNs = ((double) getMaxTransmittableBitsWithCurrentAvailableNs() / (double) 8.0);
-        return (int) maxTransmittableOctetsWithCurrentAvailableNs;
+        double maxTransmittableOctets = ((double) getMaxTransmittableBits(nanoseconds) / (double) 8.0);
+        return (int) maxTransmittableOctets;
     }
 
     /**
@@ -664,7 +789,7 @@ public class TTrafficGeneratorNode extends TNode implements ITimerEventListener,
                     TMPLSPDU mplsPacket = new TMPLSPDU(identifierGenerator.getNextIdentifier(), getIPv4Address(), this.targetIPv4Address, 0);
                     mplsPacket.setSubtype(TAbstractPDU.MPLS_GOS);
                     mplsPacket.getIPv4Header().getOptionsField().setRequestedGoSLevel(requiredEXPValue);
-                    mplsPacket.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(this.packetGoSdentifierGenerator.getNextIdentifier());
+                    mplsPacket.getIPv4Header().setPacketLocalUniqueIdentifier(this.packetGoSdentifierGenerator.getNextIdentifier());
                     TMPLSLabel bottomOutgoingMPLSLabel = new TMPLSLabel();
                     // FIX: Use class constants instead of harcoded values
                     bottomOutgoingMPLSLabel.setBoS(true);
@@ -690,7 +815,7 @@ public class TTrafficGeneratorNode extends TNode implements ITimerEventListener,
                 TIPv4PDU ipv4Packet = new TIPv4PDU(identifierGenerator.getNextIdentifier(), getIPv4Address(), this.targetIPv4Address, 0);
                 ipv4Packet.setSubtype(TAbstractPDU.IPV4_GOS);
                 ipv4Packet.getIPv4Header().getOptionsField().setRequestedGoSLevel(requiredEXPValue);
-                ipv4Packet.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(this.packetGoSdentifierGenerator.getNextIdentifier());
+                ipv4Packet.getIPv4Header().setPacketLocalUniqueIdentifier(this.packetGoSdentifierGenerator.getNextIdentifier());
                 return ipv4Packet;
             }
         } catch (EIDGeneratorOverflow e) {
@@ -710,7 +835,9 @@ public class TTrafficGeneratorNode extends TNode implements ITimerEventListener,
     @Override
     public void discardPacket(TAbstractPDU packet) {
         try {
-            this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+            if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_DISCARDED)) {
+                this.generateSimulationEvent(new TSimulationEventPacketDiscarded(this, this.eventIdentifierGenerator.getNextIdentifier(), this.getCurrentTimeInstant(), packet.getSubtype()));
+            }
             this.stats.addStatEntry(packet, TStats.BEING_DISCARDED);
         } catch (Exception e) {
             // FIX: This is ugly. Avoid.
@@ -811,10 +938,7 @@ public class TTrafficGeneratorNode extends TNode implements ITimerEventListener,
             }
         }
 
-        if (this.getTargetIPv4Address() == null) {
-            return TTrafficGeneratorNode.TARGET_UNREACHABLE;
-        }
-        if (this.getTargetIPv4Address().equals("")) {
+        if (this.getTargetIPv4Address() == TIPv4Address.UNSPECIFIED) {
             return TTrafficGeneratorNode.TARGET_UNREACHABLE;
         }
         this.setWellConfigured(true);
@@ -862,7 +986,7 @@ public class TTrafficGeneratorNode extends TNode implements ITimerEventListener,
         serializedElement += "#";
         serializedElement += this.getName().replace('#', ' ');
         serializedElement += "#";
-        serializedElement += this.getIPv4Address();
+        serializedElement += TIPv4Address.toString(this.getIPv4Address());
         serializedElement += "#";
         serializedElement += this.isSelected();
         serializedElement += "#";
@@ -874,7 +998,9 @@ public class TTrafficGeneratorNode extends TNode implements ITimerEventListener,
         serializedElement += "#";
         serializedElement += this.getScreenPosition().y;
         serializedElement += "#";
-        serializedElement += this.getTargetIPv4Address();
+        if (this.getTargetIPv4Address() != TIPv4Address.UNSPECIFIED) {
+            serializedElement += TIPv4Address.toString(this.getTargetIPv4Address());
+        }
         serializedElement += "#";
         serializedElement += this.isRequestingBackupLSP();
         serializedElement += "#";
@@ -912,14 +1038,18 @@ public class TTrafficGeneratorNode extends TNode implements ITimerEventListener,
         }
         this.setNodeID(Integer.parseInt(elementFields[2]));
         this.setName(elementFields[3]);
-        this.setIPv4Address(elementFields[4]);
+        this.setIPv4Address(TIPv4Address.fromString(elementFields[4]));
         this.setSelected(Integer.parseInt(elementFields[5]));
         this.setShowName(Boolean.parseBoolean(elementFields[6]));
         this.setGenerateStats(Boolean.parseBoolean(elementFields[7]));
         int posX = Integer.parseInt(elementFields[8]);
         int posY = Integer.parseInt(elementFields[9]);
         this.setScreenPosition(new Point(posX + 24, posY + 24));
-        this.targetIPv4Address = elementFields[10];
+        if (elementFields[10].equals("")) {
+            this.targetIPv4Address = TIPv4Address.UNSPECIFIED;
+        } else {
+            this.targetIPv4Address = TIPv4Address.fromString(elementFields[10]);
+        }
         this.setRequestBackupLSP(Boolean.parseBoolean(elementFields[11]));
         this.setGoSLevel(Integer.parseInt(elementFields[12]));
         this.encapsulateOverMPLS(Boolean.parseBoolean(elementFields[13]));
@@ -938,6 +1068,12 @@ public class TTrafficGeneratorNode extends TNode implements ITimerEventListener,
      */
     @Override
     public void reset() {
+        // The random stream is derived again from the ID of the node and the
+        // seed of the simulation, so that every simulation of the scenario
+        // draws the same numbers.
+        this.randomNumberGenerator = this.topology.createRandomGenerator(this.getNodeID());
+        this.sendingLabel = (16 + randomNumberGenerator.nextInt(1000000));
+        this.nextPacketHeaderSizeInBytes = TTrafficGeneratorNode.UNKNOWN_HEADER_SIZE;
         this.identifierGenerator.reset();
         this.packetGoSdentifierGenerator.reset();
         this.ports.reset();
@@ -983,17 +1119,18 @@ public class TTrafficGeneratorNode extends TNode implements ITimerEventListener,
     public void runGPSRP(TMPLSPDU mplsPacket, int outgoingPortID) {
     }
 
-    private String targetIPv4Address;
+    private int targetIPv4Address;
     private int trafficGenerationRate;
     private int trafficGenerationMode;
     private boolean encapsulateOverMPLS;
     private int gosLevel;
     private boolean requestBackupLSP;
-    private Random randomNumberGenerator;
+    private SplittableRandom randomNumberGenerator;
     private int sendingLabel;
     private TRotaryIDGenerator packetGoSdentifierGenerator;
     private int constantPayloadSizeInBytes;
     private int variablePayloadSizeInBytes;
+    private int nextPacketHeaderSizeInBytes;
     private TLongIDGenerator identifierGenerator;
 
     public TTrafficGeneratorStats stats;
@@ -1007,5 +1144,11 @@ public class TTrafficGeneratorNode extends TNode implements ITimerEventListener,
     public static final int ONLY_BLANK_SPACES = 3;
     public static final int TARGET_UNREACHABLE = 4;
 
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+    private static final int TWO = 2;
+    private static final int BITS_PER_OCTET = 8;
+    private static final int UNKNOWN_HEADER_SIZE = -1;
+
     private ResourceBundle translations;
 }
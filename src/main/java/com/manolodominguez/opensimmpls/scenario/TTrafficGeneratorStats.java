@@ -17,8 +17,6 @@ package com.manolodominguez.opensimmpls.scenario;
 
 import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
 import org.jfree.data.general.AbstractDataset;
-import org.jfree.data.xy.XYSeries;
-import org.jfree.data.xy.XYSeriesCollection;
 
 /**
  * This class implements a statistics collector for a traffic generator node.
@@ -36,42 +34,26 @@ public class TTrafficGeneratorStats extends TStats {
      * @since 2.0
      */
     public TTrafficGeneratorStats() {
-        this.outgoingPackets = new XYSeriesCollection();
-        this.discardedPackets = new XYSeriesCollection();
-        this.outgoingIPv4Packets = new XYSeries(TStats.IPV4);
-        this.outgoingIPv4GOS1Packets = new XYSeries(TStats.IPV4_GOS1);
-        this.outgoingIPv4GOS2Packets = new XYSeries(TStats.IPV4_GOS2);
-        this.outgoingIPv4GOS3Packets = new XYSeries(TStats.IPV4_GOS3);
-        this.outgoingMPLSPackets = new XYSeries(TStats.MPLS);
-        this.outgoingMPLSGOS1Packets = new XYSeries(TStats.MPLS_GOS1);
-        this.outgoingMPLSGOS2Packets = new XYSeries(TStats.MPLS_GOS2);
-        this.outgoingMPLSGOS3Packets = new XYSeries(TStats.MPLS_GOS3);
-        this.discardedIPv4Packets = new XYSeries(TStats.IPV4);
-        this.discardedIPv4GOS1Packets = new XYSeries(TStats.IPV4_GOS1);
-        this.discardedIPv4GOS2Packets = new XYSeries(TStats.IPV4_GOS2);
-        this.discardedIPv4GOS3Packets = new XYSeries(TStats.IPV4_GOS3);
-        this.discardedMPLSPackets = new XYSeries(TStats.MPLS);
-        this.discardedMPLSGOS1Packets = new XYSeries(TStats.MPLS_GOS1);
-        this.discardedMPLSGOS2Packets = new XYSeries(TStats.MPLS_GOS2);
-        this.discardedMPLSGOS3Packets = new XYSeries(TStats.MPLS_GOS3);
+        this.outgoingPackets = new TStatsSeriesCollection();
+        this.discardedPackets = new TStatsSeriesCollection();
+        this.outgoingIPv4Packets = new TStatsSeries(TStats.IPV4);
+        this.outgoingIPv4GOS1Packets = new TStatsSeries(TStats.IPV4_GOS1);
+        this.outgoingIPv4GOS2Packets = new TStatsSeries(TStats.IPV4_GOS2);
+        this.outgoingIPv4GOS3Packets = new TStatsSeries(TStats.IPV4_GOS3);
+        this.outgoingMPLSPackets = new TStatsSeries(TStats.MPLS);
+        this.outgoingMPLSGOS1Packets = new TStatsSeries(TStats.MPLS_GOS1);
+        this.outgoingMPLSGOS2Packets = new TStatsSeries(TStats.MPLS_GOS2);
+        this.outgoingMPLSGOS3Packets = new TStatsSeries(TStats.MPLS_GOS3);
+        this.discardedIPv4Packets = new TStatsSeries(TStats.IPV4);
+        this.discardedIPv4GOS1Packets = new TStatsSeries(TStats.IPV4_GOS1);
+        this.discardedIPv4GOS2Packets = new TStatsSeries(TStats.IPV4_GOS2);
+        this.discardedIPv4GOS3Packets = new TStatsSeries(TStats.IPV4_GOS3);
+        this.discardedMPLSPackets = new TStatsSeries(TStats.MPLS);
+        this.discardedMPLSGOS1Packets = new TStatsSeries(TStats.MPLS_GOS1);
+        this.discardedMPLSGOS2Packets = new TStatsSeries(TStats.MPLS_GOS2);
+        this.discardedMPLSGOS3Packets = new TStatsSeries(TStats.MPLS_GOS3);
         // Temporary data to be consolidated -----------
-        // FIX: Do use class constants instead of hardcoded values.
-        this.outgoingIPv4PacketsOfThisTimeInstant = 0;
-        this.outgoingIPv4GOS1PacketsOfThisTimeInstant = 0;
-        this.outgoingIPv4GOS2PacketsOfThisTimeInstant = 0;
-        this.outgoingIPv4GOS3PacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSPacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSGOS1PacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSGOS2PacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSGOS3PacketsOfThisTimeInstant = 0;
-        this.discardedIPv4PacketsOfThisTimeInstant = 0;
-        this.discardedIPv4GOS1PacketsOfThisTimeInstant = 0;
-        this.discardedIPv4GOS2PacketsOfThisTimeInstant = 0;
-        this.discardedIPv4GOS3PacketsOfThisTimeInstant = 0;
-        this.discardedMPLSPacketsOfThisTimeInstant = 0;
-        this.discardedMPLSGOS1PacketsOfThisTimeInstant = 0;
-        this.discardedMPLSGOS2PacketsOfThisTimeInstant = 0;
-        this.discardedMPLSGOS3PacketsOfThisTimeInstant = 0;
+        this.counters = new TStatsCounters();
         // ------------------------------------------
     }
 
@@ -88,7 +70,7 @@ public class TTrafficGeneratorStats extends TStats {
      */
     @Override
     public AbstractDataset getDataset1() {
-        return this.outgoingPackets;
+        return this.outgoingPackets.getDataset();
     }
 
     /**
@@ -104,7 +86,7 @@ public class TTrafficGeneratorStats extends TStats {
      */
     @Override
     public AbstractDataset getDataset2() {
-        return this.discardedPackets;
+        return this.discardedPackets.getDataset();
     }
 
     /**
@@ -186,69 +168,7 @@ public class TTrafficGeneratorStats extends TStats {
     @Override
     public void addStatEntry(TAbstractPDU packet, int entryType) {
         if (this.statsEnabled) {
-            int packetType = packet.getSubtype();
-            // FIX: Do use class constants instead of hardcoded values.
-            int GOSLevel = 0;
-            // FIX: Use switch statement instead of such amount of nested ifs.
-            if (packetType == TAbstractPDU.MPLS) {
-                if (entryType == TStats.OUTGOING) {
-                    this.outgoingMPLSPacketsOfThisTimeInstant++;
-                } else if (entryType == TStats.BEING_DISCARDED) {
-                    this.discardedMPLSPacketsOfThisTimeInstant++;
-                }
-            } else if (packetType == TAbstractPDU.MPLS_GOS) {
-                GOSLevel = packet.getIPv4Header().getOptionsField().getRequestedGoSLevel();
-                if (entryType == TStats.OUTGOING) {
-                    if ((GOSLevel == TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL0_WITH_BACKUP_LSP)) {
-                        this.outgoingMPLSPacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL1_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL1_WITH_BACKUP_LSP)) {
-                        this.outgoingMPLSGOS1PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL2_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL2_WITH_BACKUP_LSP)) {
-                        this.outgoingMPLSGOS2PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL3_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP)) {
-                        this.outgoingMPLSGOS3PacketsOfThisTimeInstant++;
-                    }
-                } else if (entryType == TStats.BEING_DISCARDED) {
-                    if ((GOSLevel == TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL0_WITH_BACKUP_LSP)) {
-                        this.discardedMPLSPacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL1_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL1_WITH_BACKUP_LSP)) {
-                        this.discardedMPLSGOS1PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL2_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL2_WITH_BACKUP_LSP)) {
-                        this.discardedMPLSGOS2PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL3_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP)) {
-                        this.discardedMPLSGOS3PacketsOfThisTimeInstant++;
-                    }
-                }
-            } else if (packetType == TAbstractPDU.IPV4) {
-                if (entryType == TStats.OUTGOING) {
-                    this.outgoingIPv4PacketsOfThisTimeInstant++;
-                } else if (entryType == TStats.BEING_DISCARDED) {
-                    this.discardedIPv4PacketsOfThisTimeInstant++;
-                }
-            } else if (packetType == TAbstractPDU.IPV4_GOS) {
-                GOSLevel = packet.getIPv4Header().getOptionsField().getRequestedGoSLevel();
-                if (entryType == TStats.OUTGOING) {
-                    if ((GOSLevel == TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL0_WITH_BACKUP_LSP)) {
-                        this.outgoingIPv4PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL1_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL1_WITH_BACKUP_LSP)) {
-                        this.outgoingIPv4GOS1PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL2_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL2_WITH_BACKUP_LSP)) {
-                        this.outgoingIPv4GOS2PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL3_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP)) {
-                        this.outgoingIPv4GOS3PacketsOfThisTimeInstant++;
-                    }
-                } else if (entryType == TStats.BEING_DISCARDED) {
-                    if ((GOSLevel == TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL0_WITH_BACKUP_LSP)) {
-                        this.discardedIPv4PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL1_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL1_WITH_BACKUP_LSP)) {
-                        this.discardedIPv4GOS1PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL2_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL2_WITH_BACKUP_LSP)) {
-                        this.discardedIPv4GOS2PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL3_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP)) {
-                        this.discardedIPv4GOS3PacketsOfThisTimeInstant++;
-                    }
-                }
-            }
+            this.counters.increment(entryType, TStatsCounters.getCategory(packet));
         }
     }
 
@@ -275,41 +195,25 @@ public class TTrafficGeneratorStats extends TStats {
      */
     @Override
     public void reset() {
-        this.outgoingPackets = new XYSeriesCollection();
-        this.discardedPackets = new XYSeriesCollection();
-        this.outgoingIPv4Packets = new XYSeries(TStats.IPV4);
-        this.outgoingIPv4GOS1Packets = new XYSeries(TStats.IPV4_GOS1);
-        this.outgoingIPv4GOS2Packets = new XYSeries(TStats.IPV4_GOS2);
-        this.outgoingIPv4GOS3Packets = new XYSeries(TStats.IPV4_GOS3);
-        this.outgoingMPLSPackets = new XYSeries(TStats.MPLS);
-        this.outgoingMPLSGOS1Packets = new XYSeries(TStats.MPLS_GOS1);
-        this.outgoingMPLSGOS2Packets = new XYSeries(TStats.MPLS_GOS2);
-        this.outgoingMPLSGOS3Packets = new XYSeries(TStats.MPLS_GOS3);
-        this.discardedIPv4Packets = new XYSeries(TStats.IPV4);
-        this.discardedIPv4GOS1Packets = new XYSeries(TStats.IPV4_GOS1);
-        this.discardedIPv4GOS2Packets = new XYSeries(TStats.IPV4_GOS2);
-        this.discardedIPv4GOS3Packets = new XYSeries(TStats.IPV4_GOS3);
-        this.discardedMPLSPackets = new XYSeries(TStats.MPLS);
-        this.discardedMPLSGOS1Packets = new XYSeries(TStats.MPLS_GOS1);
-        this.discardedMPLSGOS2Packets = new XYSeries(TStats.MPLS_GOS2);
-        this.discardedMPLSGOS3Packets = new XYSeries(TStats.MPLS_GOS3);
-        // FIX: do not use harcoded values. Use class constants instead.
-        this.outgoingIPv4PacketsOfThisTimeInstant = 0;
-        this.outgoingIPv4GOS1PacketsOfThisTimeInstant = 0;
-        this.outgoingIPv4GOS2PacketsOfThisTimeInstant = 0;
-        this.outgoingIPv4GOS3PacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSPacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSGOS1PacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSGOS2PacketsOfThisTimeInstant = 0;
-        this.outgoingMPLSGOS3PacketsOfThisTimeInstant = 0;
-        this.discardedIPv4PacketsOfThisTimeInstant = 0;
-        this.discardedIPv4GOS1PacketsOfThisTimeInstant = 0;
-        this.discardedIPv4GOS2PacketsOfThisTimeInstant = 0;
-        this.discardedIPv4GOS3PacketsOfThisTimeInstant = 0;
-        this.discardedMPLSPacketsOfThisTimeInstant = 0;
-        this.discardedMPLSGOS1PacketsOfThisTimeInstant = 0;
-        this.discardedMPLSGOS2PacketsOfThisTimeInstant = 0;
-        this.discardedMPLSGOS3PacketsOfThisTimeInstant = 0;
+        this.outgoingPackets = new TStatsSeriesCollection();
+        this.discardedPackets = new TStatsSeriesCollection();
+        this.outgoingIPv4Packets = new TStatsSeries(TStats.IPV4);
+        this.outgoingIPv4GOS1Packets = new TStatsSeries(TStats.IPV4_GOS1);
+        this.outgoingIPv4GOS2Packets = new TStatsSeries(TStats.IPV4_GOS2);
+        this.outgoingIPv4GOS3Packets = new TStatsSeries(TStats.IPV4_GOS3);
+        this.outgoingMPLSPackets = new TStatsSeries(TStats.MPLS);
+        this.outgoingMPLSGOS1Packets = new TStatsSeries(TStats.MPLS_GOS1);
+        this.outgoingMPLSGOS2Packets = new TStatsSeries(TStats.MPLS_GOS2);
+        this.outgoingMPLSGOS3Packets = new TStatsSeries(TStats.MPLS_GOS3);
+        this.discardedIPv4Packets = new TStatsSeries(TStats.IPV4);
+        this.discardedIPv4GOS1Packets = new TStatsSeries(TStats.IPV4_GOS1);
+        this.discardedIPv4GOS2Packets = new TStatsSeries(TStats.IPV4_GOS2);
+        this.discardedIPv4GOS3Packets = new TStatsSeries(TStats.IPV4_GOS3);
+        this.discardedMPLSPackets = new TStatsSeries(TStats.MPLS);
+        this.discardedMPLSGOS1Packets = new TStatsSeries(TStats.MPLS_GOS1);
+        this.discardedMPLSGOS2Packets = new TStatsSeries(TStats.MPLS_GOS2);
+        this.discardedMPLSGOS3Packets = new TStatsSeries(TStats.MPLS_GOS3);
+        this.counters.reset();
     }
 
     /**
@@ -327,214 +231,52 @@ public class TTrafficGeneratorStats extends TStats {
     @Override
     public void groupStatsByTimeInstant(long timeInstant) {
         if (this.statsEnabled) {
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingIPv4PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (outgoingIPv4Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingIPv4Packets.add(timeInstant - 1, 0);
-                    this.outgoingIPv4Packets.add(timeInstant, this.outgoingIPv4PacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingIPv4Packets);
-                } else {
-                    this.outgoingIPv4Packets.add(timeInstant, this.outgoingIPv4PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingIPv4GOS1PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingIPv4GOS1Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingIPv4GOS1Packets.add(timeInstant - 1, 0);
-                    this.outgoingIPv4GOS1Packets.add(timeInstant, this.outgoingIPv4GOS1PacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingIPv4GOS1Packets);
-                } else {
-                    this.outgoingIPv4GOS1Packets.add(timeInstant, this.outgoingIPv4GOS1PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingIPv4GOS2PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingIPv4GOS2Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingIPv4GOS2Packets.add(timeInstant - 1, 0);
-                    this.outgoingIPv4GOS2Packets.add(timeInstant, this.outgoingIPv4GOS2PacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingIPv4GOS2Packets);
-                } else {
-                    this.outgoingIPv4GOS2Packets.add(timeInstant, this.outgoingIPv4GOS2PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingIPv4GOS3PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingIPv4GOS3Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingIPv4GOS3Packets.add(timeInstant - 1, 0);
-                    this.outgoingIPv4GOS3Packets.add(timeInstant, this.outgoingIPv4GOS3PacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingIPv4GOS3Packets);
-                } else {
-                    this.outgoingIPv4GOS3Packets.add(timeInstant, this.outgoingIPv4GOS3PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingMPLSPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingMPLSPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingMPLSPackets.add(timeInstant - 1, 0);
-                    this.outgoingMPLSPackets.add(timeInstant, this.outgoingMPLSPacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingMPLSPackets);
-                } else {
-                    this.outgoingMPLSPackets.add(timeInstant, this.outgoingMPLSPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingMPLSGOS1PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingMPLSGOS1Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingMPLSGOS1Packets.add(timeInstant - 1, 0);
-                    this.outgoingMPLSGOS1Packets.add(timeInstant, this.outgoingMPLSGOS1PacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingMPLSGOS1Packets);
-                } else {
-                    this.outgoingMPLSGOS1Packets.add(timeInstant, this.outgoingMPLSGOS1PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingMPLSGOS2PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingMPLSGOS2Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingMPLSGOS2Packets.add(timeInstant - 1, 0);
-                    this.outgoingMPLSGOS2Packets.add(timeInstant, this.outgoingMPLSGOS2PacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingMPLSGOS2Packets);
-                } else {
-                    this.outgoingMPLSGOS2Packets.add(timeInstant, this.outgoingMPLSGOS2PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.outgoingMPLSGOS3PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.outgoingMPLSGOS3Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.outgoingMPLSGOS3Packets.add(timeInstant - 1, 0);
-                    this.outgoingMPLSGOS3Packets.add(timeInstant, this.outgoingMPLSGOS3PacketsOfThisTimeInstant);
-                    this.outgoingPackets.addSeries(this.outgoingMPLSGOS3Packets);
-                } else {
-                    this.outgoingMPLSGOS3Packets.add(timeInstant, this.outgoingMPLSGOS3PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedIPv4PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedIPv4Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedIPv4Packets.add(timeInstant - 1, 0);
-                    this.discardedIPv4Packets.add(timeInstant, this.discardedIPv4PacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedIPv4Packets);
-                } else {
-                    this.discardedIPv4Packets.add(timeInstant, this.discardedIPv4PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedIPv4GOS1PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedIPv4GOS1Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedIPv4GOS1Packets.add(timeInstant - 1, 0);
-                    this.discardedIPv4GOS1Packets.add(timeInstant, this.discardedIPv4GOS1PacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedIPv4GOS1Packets);
-                } else {
-                    this.discardedIPv4GOS1Packets.add(timeInstant, this.discardedIPv4GOS1PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedIPv4GOS2PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedIPv4GOS2Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedIPv4GOS2Packets.add(timeInstant - 1, 0);
-                    this.discardedIPv4GOS2Packets.add(timeInstant, this.discardedIPv4GOS2PacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedIPv4GOS2Packets);
-                } else {
-                    this.discardedIPv4GOS2Packets.add(timeInstant, this.discardedIPv4GOS2PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedIPv4GOS3PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedIPv4GOS3Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedIPv4GOS3Packets.add(timeInstant - 1, 0);
-                    this.discardedIPv4GOS3Packets.add(timeInstant, this.discardedIPv4GOS3PacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedIPv4GOS3Packets);
-                } else {
-                    this.discardedIPv4GOS3Packets.add(timeInstant, this.discardedIPv4GOS3PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedMPLSPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedMPLSPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedMPLSPackets.add(timeInstant - 1, 0);
-                    this.discardedMPLSPackets.add(timeInstant, this.discardedMPLSPacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedMPLSPackets);
-                } else {
-                    this.discardedMPLSPackets.add(timeInstant, this.discardedMPLSPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedMPLSGOS1PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedMPLSGOS1Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedMPLSGOS1Packets.add(timeInstant - 1, 0);
-                    this.discardedMPLSGOS1Packets.add(timeInstant, this.discardedMPLSGOS1PacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedMPLSGOS1Packets);
-                } else {
-                    this.discardedMPLSGOS1Packets.add(timeInstant, this.discardedMPLSGOS1PacketsOfThisTimeInstant);
-                }
-            }
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.OUTGOING, TStatsCounters.IPV4), this.outgoingIPv4Packets, this.outgoingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.OUTGOING, TStatsCounters.IPV4_GOS1), this.outgoingIPv4GOS1Packets, this.outgoingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.OUTGOING, TStatsCounters.IPV4_GOS2), this.outgoingIPv4GOS2Packets, this.outgoingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.OUTGOING, TStatsCounters.IPV4_GOS3), this.outgoingIPv4GOS3Packets, this.outgoingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.OUTGOING, TStatsCounters.MPLS), this.outgoingMPLSPackets, this.outgoingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.OUTGOING, TStatsCounters.MPLS_GOS1), this.outgoingMPLSGOS1Packets, this.outgoingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.OUTGOING, TStatsCounters.MPLS_GOS2), this.outgoingMPLSGOS2Packets, this.outgoingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.OUTGOING, TStatsCounters.MPLS_GOS3), this.outgoingMPLSGOS3Packets, this.outgoingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.BEING_DISCARDED, TStatsCounters.IPV4), this.discardedIPv4Packets, this.discardedPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.BEING_DISCARDED, TStatsCounters.IPV4_GOS1), this.discardedIPv4GOS1Packets, this.discardedPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.BEING_DISCARDED, TStatsCounters.IPV4_GOS2), this.discardedIPv4GOS2Packets, this.discardedPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.BEING_DISCARDED, TStatsCounters.IPV4_GOS3), this.discardedIPv4GOS3Packets, this.discardedPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.BEING_DISCARDED, TStatsCounters.MPLS), this.discardedMPLSPackets, this.discardedPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.BEING_DISCARDED, TStatsCounters.MPLS_GOS1), this.discardedMPLSGOS1Packets, this.discardedPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.BEING_DISCARDED, TStatsCounters.MPLS_GOS2), this.discardedMPLSGOS2Packets, this.discardedPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.BEING_DISCARDED, TStatsCounters.MPLS_GOS3), this.discardedMPLSGOS3Packets, this.discardedPackets);
+            notifyStatsListener(timeInstant);
+        }
+    }
 
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedMPLSGOS2PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedMPLSGOS2Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedMPLSGOS2Packets.add(timeInstant - 1, 0);
-                    this.discardedMPLSGOS2Packets.add(timeInstant, this.discardedMPLSGOS2PacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedMPLSGOS2Packets);
-                } else {
-                    this.discardedMPLSGOS2Packets.add(timeInstant, this.discardedMPLSGOS2PacketsOfThisTimeInstant);
-                }
-            }
+    /**
+     * This method returns the columns that this TTrafficGeneratorStats exports
+     * for each time instant.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the columns exported by this TTrafficGeneratorStats.
+     * @since 2.4
+     */
+    @Override
+    public StatsColumns[] getColumns() {
+        return COLUMNS.clone();
+    }
 
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (this.discardedMPLSGOS3PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (this.discardedMPLSGOS3Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.discardedMPLSGOS3Packets.add(timeInstant - 1, 0);
-                    this.discardedMPLSGOS3Packets.add(timeInstant, this.discardedMPLSGOS3PacketsOfThisTimeInstant);
-                    this.discardedPackets.addSeries(this.discardedMPLSGOS3Packets);
-                } else {
-                    this.discardedMPLSGOS3Packets.add(timeInstant, this.discardedMPLSGOS3PacketsOfThisTimeInstant);
-                }
-            }
-        }
+    /**
+     * This method returns the current value of the specified column, that is,
+     * the running total of the counter since this TTrafficGeneratorStats was
+     * created or reset.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param column the column whose value is requested.
+     * @return the current value of the column.
+     * @since 2.4
+     */
+    @Override
+    public long getColumnValue(StatsColumns column) {
+        return this.counters.getValue(column.getEntryType(), column.getCategory());
     }
 
     /**
@@ -625,38 +367,42 @@ public class TTrafficGeneratorStats extends TStats {
         return null;
     }
 
-    private int outgoingIPv4PacketsOfThisTimeInstant;
-    private int outgoingIPv4GOS1PacketsOfThisTimeInstant;
-    private int outgoingIPv4GOS2PacketsOfThisTimeInstant;
-    private int outgoingIPv4GOS3PacketsOfThisTimeInstant;
-    private int outgoingMPLSPacketsOfThisTimeInstant;
-    private int outgoingMPLSGOS1PacketsOfThisTimeInstant;
-    private int outgoingMPLSGOS2PacketsOfThisTimeInstant;
-    private int outgoingMPLSGOS3PacketsOfThisTimeInstant;
-    private int discardedIPv4PacketsOfThisTimeInstant;
-    private int discardedIPv4GOS1PacketsOfThisTimeInstant;
-    private int discardedIPv4GOS2PacketsOfThisTimeInstant;
-    private int discardedIPv4GOS3PacketsOfThisTimeInstant;
-    private int discardedMPLSPacketsOfThisTimeInstant;
-    private int discardedMPLSGOS1PacketsOfThisTimeInstant;
-    private int discardedMPLSGOS2PacketsOfThisTimeInstant;
-    private int discardedMPLSGOS3PacketsOfThisTimeInstant;
-    private XYSeriesCollection outgoingPackets;
-    private XYSeriesCollection discardedPackets;
-    private XYSeries outgoingIPv4Packets;
-    private XYSeries outgoingIPv4GOS1Packets;
-    private XYSeries outgoingIPv4GOS2Packets;
-    private XYSeries outgoingIPv4GOS3Packets;
-    private XYSeries outgoingMPLSPackets;
-    private XYSeries outgoingMPLSGOS1Packets;
-    private XYSeries outgoingMPLSGOS2Packets;
-    private XYSeries outgoingMPLSGOS3Packets;
-    private XYSeries discardedIPv4Packets;
-    private XYSeries discardedIPv4GOS1Packets;
-    private XYSeries discardedIPv4GOS2Packets;
-    private XYSeries discardedIPv4GOS3Packets;
-    private XYSeries discardedMPLSPackets;
-    private XYSeries discardedMPLSGOS1Packets;
-    private XYSeries discardedMPLSGOS2Packets;
-    private XYSeries discardedMPLSGOS3Packets;
+    private static final StatsColumns[] COLUMNS = {
+        StatsColumns.OUTGOING_IPV4,
+        StatsColumns.OUTGOING_IPV4_GOS1,
+        StatsColumns.OUTGOING_IPV4_GOS2,
+        StatsColumns.OUTGOING_IPV4_GOS3,
+        StatsColumns.OUTGOING_MPLS,
+        StatsColumns.OUTGOING_MPLS_GOS1,
+        StatsColumns.OUTGOING_MPLS_GOS2,
+        StatsColumns.OUTGOING_MPLS_GOS3,
+        StatsColumns.DISCARDED_IPV4,
+        StatsColumns.DISCARDED_IPV4_GOS1,
+        StatsColumns.DISCARDED_IPV4_GOS2,
+        StatsColumns.DISCARDED_IPV4_GOS3,
+        StatsColumns.DISCARDED_MPLS,
+        StatsColumns.DISCARDED_MPLS_GOS1,
+        StatsColumns.DISCARDED_MPLS_GOS2,
+        StatsColumns.DISCARDED_MPLS_GOS3
+    };
+
+    private final TStatsCounters counters;
+    private TStatsSeriesCollection outgoingPackets;
+    private TStatsSeriesCollection discardedPackets;
+    private TStatsSeries outgoingIPv4Packets;
+    private TStatsSeries outgoingIPv4GOS1Packets;
+    private TStatsSeries outgoingIPv4GOS2Packets;
+    private TStatsSeries outgoingIPv4GOS3Packets;
+    private TStatsSeries outgoingMPLSPackets;
+    private TStatsSeries outgoingMPLSGOS1Packets;
+    private TStatsSeries outgoingMPLSGOS2Packets;
+    private TStatsSeries outgoingMPLSGOS3Packets;
+    private TStatsSeries discardedIPv4Packets;
+    private TStatsSeries discardedIPv4GOS1Packets;
+    private TStatsSeries discardedIPv4GOS2Packets;
+    private TStatsSeries discardedIPv4GOS3Packets;
+    private TStatsSeries discardedMPLSPackets;
+    private TStatsSeries discardedMPLSGOS1Packets;
+    private TStatsSeries discardedMPLSGOS2Packets;
+    private TStatsSeries discardedMPLSGOS3Packets;
 }
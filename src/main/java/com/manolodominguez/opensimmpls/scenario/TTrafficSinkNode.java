@@ -15,6 +15,7 @@
  */
 package com.manolodominguez.opensimmpls.scenario;
 
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
 import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketReceived;
 import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
 import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
@@ -23,6 +24,7 @@ import com.manolodominguez.opensimmpls.hardware.timer.ITimerEventListener;
 import com.manolodominguez.opensimmpls.hardware.ports.TFIFOPortSet;
 import com.manolodominguez.opensimmpls.hardware.ports.TPort;
 import com.manolodominguez.opensimmpls.hardware.ports.TPortSet;
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
 import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
 import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
 import java.awt.Point;
@@ -114,6 +116,45 @@ public class TTrafficSinkNode extends TNode implements ITimerEventListener, Runn
         this.stats.groupStatsByTimeInstant(this.getCurrentTimeInstant());
     }
 
+    /**
+     * This method computes how many consecutive ticks, starting with the next
+     * one, this traffic sink would spend without doing anything observable.
+     * That is the case while it has no packet waiting to be received.
+     *
+     * @param tickDurationInNs Duration of each tick, in nanoseconds.
+     * @param maxNumberOfIdleTicks The maximum number of ticks the timer is
+     * interested in.
+     * @return Number of consecutive idle ticks, never greater than
+     * maxNumberOfIdleTicks.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    @Override
+    public long getNumberOfIdleTicks(int tickDurationInNs, long maxNumberOfIdleTicks) {
+        if (this.ports.isThereAnyPacketToRoute()) {
+            return ZERO;
+        }
+        return maxNumberOfIdleTicks;
+    }
+
+    /**
+     * This method updates this traffic sink as if it had received the
+     * specified number of idle timer events.
+     *
+     * @param firstIdleTick The first timer event that is being skipped.
+     * @param numberOfIdleTicks Number of consecutive timer events being
+     * skipped.
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    @Override
+    public void skipIdleTicks(TTimerEvent firstIdleTick, long numberOfIdleTicks) {
+        int tickDurationInNs = firstIdleTick.getTickDurationInNs();
+        this.setTickDurationInNs(tickDurationInNs);
+        this.stats.groupStatsByTimeInstant(firstIdleTick.getUpperLimit());
+        this.setCurrentTimeInstant(firstIdleTick.getUpperLimit() + ((numberOfIdleTicks - ONE) * tickDurationInNs));
+    }
+
     /**
      * This method receives, while possible, packets from the receiving buffer.
      *
@@ -131,18 +172,20 @@ public class TTrafficSinkNode extends TNode implements ITimerEventListener, Runn
         if (incomingPort != null) {
             while (incomingPort.thereIsAPacketWaiting()) {
                 incomingPacket = incomingPort.getPacket();
-                try {
-                    eventID = this.eventIdentifierGenerator.getNextIdentifier();
-                } catch (Exception e) {
-                    // FIX: This is ugly
-                    e.printStackTrace();
-                }
                 // FIX: The following line has no effects as the method called
                 // does nothing. Check whether it is needed or not. If needed, 
                 // do not use harcoded values. Use class constants instead.
                 this.accountPacket(incomingPacket, true);
-                packetReceivedEvent = new TSimulationEventPacketReceived(this, eventID, this.getCurrentTimeInstant(), eventType, incomingPacket.getSize());
-                this.simulationEventsListener.captureSimulationEvents(packetReceivedEvent);
+                if (this.isSimulationEventEnabled(TSimulationEvent.PACKET_RECEIVED)) {
+                    try {
+                        eventID = this.eventIdentifierGenerator.getNextIdentifier();
+                    } catch (Exception e) {
+                        // FIX: This is ugly
+                        e.printStackTrace();
+                    }
+                    packetReceivedEvent = new TSimulationEventPacketReceived(this, eventID, this.getCurrentTimeInstant(), eventType, incomingPacket.getSize());
+                    this.generateSimulationEvent(packetReceivedEvent);
+                }
                 incomingPacket = null;
             }
         }
@@ -309,7 +352,7 @@ public class TTrafficSinkNode extends TNode implements ITimerEventListener, Runn
         serializedElement += "#";
         serializedElement += this.getName().replace('#', ' ');
         serializedElement += "#";
-        serializedElement += this.getIPv4Address();
+        serializedElement += TIPv4Address.toString(this.getIPv4Address());
         serializedElement += "#";
         serializedElement += this.isSelected();
         serializedElement += "#";
@@ -346,7 +389,7 @@ public class TTrafficSinkNode extends TNode implements ITimerEventListener, Runn
         }
         this.setNodeID(Integer.parseInt(elementFields[2]));
         this.setName(elementFields[3]);
-        this.setIPv4Address(elementFields[4]);
+        this.setIPv4Address(TIPv4Address.fromString(elementFields[4]));
         this.setSelected(Integer.parseInt(elementFields[5]));
         this.setShowName(Boolean.valueOf(elementFields[6]));
         this.setGenerateStats(Boolean.valueOf(elementFields[7]));
@@ -415,6 +458,9 @@ public class TTrafficSinkNode extends TNode implements ITimerEventListener, Runn
     public static final int NAME_ALREADY_EXISTS = 2;
     public static final int ONLY_BLANK_SPACES = 3;
 
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+
     private TTrafficSinkStats stats;
     private ResourceBundle translations;
 }
@@ -17,8 +17,6 @@ package com.manolodominguez.opensimmpls.scenario;
 
 import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
 import org.jfree.data.general.AbstractDataset;
-import org.jfree.data.xy.XYSeries;
-import org.jfree.data.xy.XYSeriesCollection;
 
 /**
  * This class implements a statistics collector for a receiver node.
@@ -36,27 +34,18 @@ public class TTrafficSinkStats extends TStats {
      * @since 2.0
      */
     public TTrafficSinkStats() {
-        this.incomingPackets = new XYSeriesCollection();
-        this.incomingIPv4Packets = new XYSeries(TStats.IPV4);
-        this.incomingIPv4GOS1Packets = new XYSeries(TStats.IPV4_GOS1);
-        this.incomingIPv4GOS2Packets = new XYSeries(TStats.IPV4_GOS2);
-        this.incomingIPv4GOS3Packets = new XYSeries(TStats.IPV4_GOS3);
-        this.incomingMPLSPackets = new XYSeries(TStats.MPLS);
-        this.incomingMPLSGOS1Packets = new XYSeries(TStats.MPLS_GOS1);
-        this.incomingMPLSGOS2Packets = new XYSeries(TStats.MPLS_GOS2);
-        this.incomingMPLSGOS3Packets = new XYSeries(TStats.MPLS_GOS3);
-        this.incomingGPSRPPackets = new XYSeries(TStats.GPSRP);
+        this.incomingPackets = new TStatsSeriesCollection();
+        this.incomingIPv4Packets = new TStatsSeries(TStats.IPV4);
+        this.incomingIPv4GOS1Packets = new TStatsSeries(TStats.IPV4_GOS1);
+        this.incomingIPv4GOS2Packets = new TStatsSeries(TStats.IPV4_GOS2);
+        this.incomingIPv4GOS3Packets = new TStatsSeries(TStats.IPV4_GOS3);
+        this.incomingMPLSPackets = new TStatsSeries(TStats.MPLS);
+        this.incomingMPLSGOS1Packets = new TStatsSeries(TStats.MPLS_GOS1);
+        this.incomingMPLSGOS2Packets = new TStatsSeries(TStats.MPLS_GOS2);
+        this.incomingMPLSGOS3Packets = new TStatsSeries(TStats.MPLS_GOS3);
+        this.incomingGPSRPPackets = new TStatsSeries(TStats.GPSRP);
         // Temporary data to be consolidated -----------
-        // FIX: Do use class constants instead of hardcoded values.
-        this.incomingIPv4PacketsOfThisTimeInstant = 0;
-        this.incomingIPv4GOS1PacketsOfThisTimeInstant = 0;
-        this.incomingIPv4GOS2PacketsOfThisTimeInstant = 0;
-        this.incomingIPv4GOS3PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSPacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS1PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS2PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS3PacketsOfThisTimeInstant = 0;
-        this.incomingGPSRPPacketsOfThisTimeInstant = 0;
+        this.counters = new TStatsCounters();
         // ------------------------------------------
     }
 
@@ -73,7 +62,7 @@ public class TTrafficSinkStats extends TStats {
      */
     @Override
     public AbstractDataset getDataset1() {
-        return this.incomingPackets;
+        return this.incomingPackets.getDataset();
     }
 
     /**
@@ -161,49 +150,7 @@ public class TTrafficSinkStats extends TStats {
     @Override
     public void addStatEntry(TAbstractPDU packet, int entryType) {
         if (this.statsEnabled) {
-            int packetType = packet.getSubtype();
-            // FIX: Do use class constants instead of hardcoded values.
-            int GOSLevel = 0;
-            // FIX: Use switch statement instead of such amount of nested ifs.
-            if (packetType == TAbstractPDU.GPSRP) {
-                if (entryType == TStats.INCOMING) {
-                    this.incomingGPSRPPacketsOfThisTimeInstant++;
-                }
-            } else if (packetType == TAbstractPDU.MPLS) {
-                if (entryType == TStats.INCOMING) {
-                    this.incomingMPLSPacketsOfThisTimeInstant++;
-                }
-            } else if (packetType == TAbstractPDU.MPLS_GOS) {
-                GOSLevel = packet.getIPv4Header().getOptionsField().getRequestedGoSLevel();
-                if (entryType == TStats.INCOMING) {
-                    if ((GOSLevel == TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL0_WITH_BACKUP_LSP)) {
-                        this.incomingMPLSPacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL1_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL1_WITH_BACKUP_LSP)) {
-                        this.incomingMPLSGOS1PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL2_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL2_WITH_BACKUP_LSP)) {
-                        this.incomingMPLSGOS2PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL3_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP)) {
-                        this.incomingMPLSGOS3PacketsOfThisTimeInstant++;
-                    }
-                }
-            } else if (packetType == TAbstractPDU.IPV4) {
-                if (entryType == TStats.INCOMING) {
-                    this.incomingIPv4PacketsOfThisTimeInstant++;
-                }
-            } else if (packetType == TAbstractPDU.IPV4_GOS) {
-                GOSLevel = packet.getIPv4Header().getOptionsField().getRequestedGoSLevel();
-                if (entryType == TStats.INCOMING) {
-                    if ((GOSLevel == TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL0_WITH_BACKUP_LSP)) {
-                        this.incomingIPv4PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL1_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL1_WITH_BACKUP_LSP)) {
-                        this.incomingIPv4GOS1PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL2_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL2_WITH_BACKUP_LSP)) {
-                        this.incomingIPv4GOS2PacketsOfThisTimeInstant++;
-                    } else if ((GOSLevel == TAbstractPDU.EXP_LEVEL3_WITHOUT_BACKUP_LSP) || (GOSLevel == TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP)) {
-                        this.incomingIPv4GOS3PacketsOfThisTimeInstant++;
-                    }
-                }
-            }
+            this.counters.increment(entryType, TStatsCounters.getCategory(packet));
         }
     }
 
@@ -230,26 +177,17 @@ public class TTrafficSinkStats extends TStats {
      */
     @Override
     public void reset() {
-        this.incomingPackets = new XYSeriesCollection();
-        this.incomingIPv4Packets = new XYSeries(TStats.IPV4);
-        this.incomingIPv4GOS1Packets = new XYSeries(TStats.IPV4_GOS1);
-        this.incomingIPv4GOS2Packets = new XYSeries(TStats.IPV4_GOS2);
-        this.incomingIPv4GOS3Packets = new XYSeries(TStats.IPV4_GOS3);
-        this.incomingMPLSPackets = new XYSeries(TStats.MPLS);
-        this.incomingMPLSGOS1Packets = new XYSeries(TStats.MPLS_GOS1);
-        this.incomingMPLSGOS2Packets = new XYSeries(TStats.MPLS_GOS2);
-        this.incomingMPLSGOS3Packets = new XYSeries(TStats.MPLS_GOS3);
-        this.incomingGPSRPPackets = new XYSeries(TStats.GPSRP);
-        // FIX: do not use harcoded values. Use class constants instead.
-        this.incomingIPv4PacketsOfThisTimeInstant = 0;
-        this.incomingIPv4GOS1PacketsOfThisTimeInstant = 0;
-        this.incomingIPv4GOS2PacketsOfThisTimeInstant = 0;
-        this.incomingIPv4GOS3PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSPacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS1PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS2PacketsOfThisTimeInstant = 0;
-        this.incomingMPLSGOS3PacketsOfThisTimeInstant = 0;
-        this.incomingGPSRPPacketsOfThisTimeInstant = 0;
+        this.incomingPackets = new TStatsSeriesCollection();
+        this.incomingIPv4Packets = new TStatsSeries(TStats.IPV4);
+        this.incomingIPv4GOS1Packets = new TStatsSeries(TStats.IPV4_GOS1);
+        this.incomingIPv4GOS2Packets = new TStatsSeries(TStats.IPV4_GOS2);
+        this.incomingIPv4GOS3Packets = new TStatsSeries(TStats.IPV4_GOS3);
+        this.incomingMPLSPackets = new TStatsSeries(TStats.MPLS);
+        this.incomingMPLSGOS1Packets = new TStatsSeries(TStats.MPLS_GOS1);
+        this.incomingMPLSGOS2Packets = new TStatsSeries(TStats.MPLS_GOS2);
+        this.incomingMPLSGOS3Packets = new TStatsSeries(TStats.MPLS_GOS3);
+        this.incomingGPSRPPackets = new TStatsSeries(TStats.GPSRP);
+        this.counters.reset();
     }
 
     /**
@@ -267,123 +205,45 @@ public class TTrafficSinkStats extends TStats {
     @Override
     public void groupStatsByTimeInstant(long timeInstant) {
         if (this.statsEnabled) {
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (incomingIPv4PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (incomingIPv4Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingIPv4Packets.add(timeInstant - 1, 0);
-                    this.incomingIPv4Packets.add(timeInstant, incomingIPv4PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(incomingIPv4Packets);
-                } else {
-                    this.incomingIPv4Packets.add(timeInstant, incomingIPv4PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (incomingIPv4GOS1PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (incomingIPv4GOS1Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingIPv4GOS1Packets.add(timeInstant - 1, 0);
-                    this.incomingIPv4GOS1Packets.add(timeInstant, incomingIPv4GOS1PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(incomingIPv4GOS1Packets);
-                } else {
-                    this.incomingIPv4GOS1Packets.add(timeInstant, incomingIPv4GOS1PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (incomingIPv4GOS2PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (incomingIPv4GOS2Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingIPv4GOS2Packets.add(timeInstant - 1, 0);
-                    this.incomingIPv4GOS2Packets.add(timeInstant, incomingIPv4GOS2PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(incomingIPv4GOS2Packets);
-                } else {
-                    this.incomingIPv4GOS2Packets.add(timeInstant, incomingIPv4GOS2PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (incomingIPv4GOS3PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (incomingIPv4GOS3Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingIPv4GOS3Packets.add(timeInstant - 1, 0);
-                    this.incomingIPv4GOS3Packets.add(timeInstant, incomingIPv4GOS3PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(incomingIPv4GOS3Packets);
-                } else {
-                    this.incomingIPv4GOS3Packets.add(timeInstant, incomingIPv4GOS3PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (incomingMPLSPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (incomingMPLSPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingMPLSPackets.add(timeInstant - 1, 0);
-                    this.incomingMPLSPackets.add(timeInstant, incomingMPLSPacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(incomingMPLSPackets);
-                } else {
-                    this.incomingMPLSPackets.add(timeInstant, incomingMPLSPacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (incomingMPLSGOS1PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (incomingMPLSGOS1Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingMPLSGOS1Packets.add(timeInstant - 1, 0);
-                    this.incomingMPLSGOS1Packets.add(timeInstant, incomingMPLSGOS1PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(incomingMPLSGOS1Packets);
-                } else {
-                    this.incomingMPLSGOS1Packets.add(timeInstant, incomingMPLSGOS1PacketsOfThisTimeInstant);
-                }
-            }
-
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (incomingMPLSGOS2PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (incomingMPLSGOS2Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingMPLSGOS2Packets.add(timeInstant - 1, 0);
-                    this.incomingMPLSGOS2Packets.add(timeInstant, incomingMPLSGOS2PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(incomingMPLSGOS2Packets);
-                } else {
-                    this.incomingMPLSGOS2Packets.add(timeInstant, incomingMPLSGOS2PacketsOfThisTimeInstant);
-                }
-            }
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.INCOMING, TStatsCounters.IPV4), this.incomingIPv4Packets, this.incomingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.INCOMING, TStatsCounters.IPV4_GOS1), this.incomingIPv4GOS1Packets, this.incomingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.INCOMING, TStatsCounters.IPV4_GOS2), this.incomingIPv4GOS2Packets, this.incomingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.INCOMING, TStatsCounters.IPV4_GOS3), this.incomingIPv4GOS3Packets, this.incomingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.INCOMING, TStatsCounters.MPLS), this.incomingMPLSPackets, this.incomingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.INCOMING, TStatsCounters.MPLS_GOS1), this.incomingMPLSGOS1Packets, this.incomingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.INCOMING, TStatsCounters.MPLS_GOS2), this.incomingMPLSGOS2Packets, this.incomingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.INCOMING, TStatsCounters.MPLS_GOS3), this.incomingMPLSGOS3Packets, this.incomingPackets);
+            addCounterToSeries(timeInstant, this.counters.getValue(TStats.INCOMING, TStatsCounters.GPSRP), this.incomingGPSRPPackets, this.incomingPackets);
+            notifyStatsListener(timeInstant);
+        }
+    }
 
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (incomingMPLSGOS3PacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (incomingMPLSGOS3Packets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingMPLSGOS3Packets.add(timeInstant - 1, 0);
-                    this.incomingMPLSGOS3Packets.add(timeInstant, incomingMPLSGOS3PacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(incomingMPLSGOS3Packets);
-                } else {
-                    this.incomingMPLSGOS3Packets.add(timeInstant, incomingMPLSGOS3PacketsOfThisTimeInstant);
-                }
-            }
+    /**
+     * This method returns the columns that this TTrafficSinkStats exports for
+     * each time instant.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the columns exported by this TTrafficSinkStats.
+     * @since 2.4
+     */
+    @Override
+    public StatsColumns[] getColumns() {
+        return COLUMNS.clone();
+    }
 
-            // FIX: do not use harcoded values. Use class constants instead.
-            if (incomingGPSRPPacketsOfThisTimeInstant > 0) {
-                // FIX: do not use harcoded values. Use class constants instead.
-                if (incomingGPSRPPackets.getItemCount() == 0) {
-                    // FIX: do not use harcoded values. Use class constants instead.
-                    this.incomingGPSRPPackets.add(timeInstant - 1, 0);
-                    this.incomingGPSRPPackets.add(timeInstant, incomingGPSRPPacketsOfThisTimeInstant);
-                    this.incomingPackets.addSeries(incomingGPSRPPackets);
-                } else {
-                    this.incomingGPSRPPackets.add(timeInstant, incomingGPSRPPacketsOfThisTimeInstant);
-                }
-            }
-        }
+    /**
+     * This method returns the current value of the specified column, that is,
+     * the running total of the counter since this TTrafficSinkStats was created
+     * or reset.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param column the column whose value is requested.
+     * @return the current value of the column.
+     * @since 2.4
+     */
+    @Override
+    public long getColumnValue(StatsColumns column) {
+        return this.counters.getValue(column.getEntryType(), column.getCategory());
     }
 
     /**
@@ -469,23 +329,27 @@ public class TTrafficSinkStats extends TStats {
         return null;
     }
 
-    private int incomingIPv4PacketsOfThisTimeInstant;
-    private int incomingIPv4GOS1PacketsOfThisTimeInstant;
-    private int incomingIPv4GOS2PacketsOfThisTimeInstant;
-    private int incomingIPv4GOS3PacketsOfThisTimeInstant;
-    private int incomingMPLSPacketsOfThisTimeInstant;
-    private int incomingMPLSGOS1PacketsOfThisTimeInstant;
-    private int incomingMPLSGOS2PacketsOfThisTimeInstant;
-    private int incomingMPLSGOS3PacketsOfThisTimeInstant;
-    private int incomingGPSRPPacketsOfThisTimeInstant;
-    private XYSeriesCollection incomingPackets;
-    private XYSeries incomingIPv4Packets;
-    private XYSeries incomingIPv4GOS1Packets;
-    private XYSeries incomingIPv4GOS2Packets;
-    private XYSeries incomingIPv4GOS3Packets;
-    private XYSeries incomingMPLSPackets;
-    private XYSeries incomingMPLSGOS1Packets;
-    private XYSeries incomingMPLSGOS2Packets;
-    private XYSeries incomingMPLSGOS3Packets;
-    private XYSeries incomingGPSRPPackets;
+    private static final StatsColumns[] COLUMNS = {
+        StatsColumns.INCOMING_IPV4,
+        StatsColumns.INCOMING_IPV4_GOS1,
+        StatsColumns.INCOMING_IPV4_GOS2,
+        StatsColumns.INCOMING_IPV4_GOS3,
+        StatsColumns.INCOMING_MPLS,
+        StatsColumns.INCOMING_MPLS_GOS1,
+        StatsColumns.INCOMING_MPLS_GOS2,
+        StatsColumns.INCOMING_MPLS_GOS3,
+        StatsColumns.INCOMING_GPSRP
+    };
+
+    private final TStatsCounters counters;
+    private TStatsSeriesCollection incomingPackets;
+    private TStatsSeries incomingIPv4Packets;
+    private TStatsSeries incomingIPv4GOS1Packets;
+    private TStatsSeries incomingIPv4GOS2Packets;
+    private TStatsSeries incomingIPv4GOS3Packets;
+    private TStatsSeries incomingMPLSPackets;
+    private TStatsSeries incomingMPLSGOS1Packets;
+    private TStatsSeries incomingMPLSGOS2Packets;
+    private TStatsSeries incomingMPLSGOS3Packets;
+    private TStatsSeries incomingGPSRPPackets;
 }
@@ -34,4 +34,19 @@ public interface ISimulationEventListener extends EventListener {
      * @param simulationEvent The simulation event received.
      */
     public void captureSimulationEvents(TSimulationEvent simulationEvent);
+
+    /**
+     * This method, when implemented, will tell whether simulation events of
+     * the specified subtype are consumed by the listener or not. Topology
+     * elements check it before creating an event, so events that nobody is
+     * going to consume are never created.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     * @param subtype The subtype of the simulation event, as defined in
+     * TSimulationEvent.
+     * @return TRUE, if events of the specified subtype have to be delivered
+     * to the listener. Otherwise, FALSE.
+     */
+    public boolean isInterestedIn(int subtype);
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario.simulationevents;
+
+/**
+ * This enum defines what a simulation event ring buffer does when a new event
+ * is put in it and there is no room for it.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public enum OverflowPolicies {
+    /**
+     * The producer waits until the consumer makes room for the new event. No
+     * event is lost, but the simulation is slowed down to the pace of the
+     * consumer.
+     */
+    BLOCK,
+    /**
+     * The oldest event in the buffer is discarded to make room for the new
+     * one, so the buffer always holds the most recent events.
+     */
+    DROP_OLDEST,
+    /**
+     * The new event is discarded and so are the following ones until the
+     * consumer empties the buffer. This way, the consumer receives complete
+     * bursts of consecutive events separated by gaps, instead of a sliding
+     * window whose first tick is usually incomplete.
+     */
+    SAMPLE;
+}
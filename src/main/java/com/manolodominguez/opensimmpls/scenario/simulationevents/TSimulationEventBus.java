@@ -0,0 +1,300 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario.simulationevents;
+
+import com.manolodominguez.opensimmpls.gui.simulator.JSimulationPanel;
+import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import java.util.Arrays;
+import java.util.ResourceBundle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements a publish/subscribe bus of simulation events. Topology
+ * elements publish their events to the bus as if it were their only listener
+ * and the bus delivers them to any number of subscribers. Each subscriber has
+ * its own bounded queue and its own thread, so a slow subscriber does not
+ * delay the simulation nor the rest of subscribers, unless it has chosen to
+ * block when its queue is full. When a simulation panel is set, the bus
+ * subscribes a simulation event listener that displays events on it.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public class TSimulationEventBus extends TSimulationEventListener {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TSimulationEventBus without subscribers.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public TSimulationEventBus() {
+        super();
+        this.translations = ResourceBundle.getBundle(AvailableBundles.T_SIMULATION_EVENT_BUS.getPath());
+        this.subscriptions = new TSimulationEventSubscription[ZERO];
+        this.simulationPanelListener = new TSimulationEventListener();
+    }
+
+    /**
+     * This method establishes the simulation panel where simulation events
+     * will be displayed. The listener that displays them is subscribed to the
+     * bus and the simulation waits for it when its queue is full, because the
+     * simulation panel paints every tick. If the simulation panel is NULL, the
+     * listener is unsubscribed.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param simulationPanel The simulation panel where simulation events will
+     * be displayed.
+     * @since 2.4
+     */
+    @Override
+    public synchronized void setSimulationPanel(JSimulationPanel simulationPanel) {
+        this.simulationPanelListener.setSimulationPanel(simulationPanel);
+        if (simulationPanel != null) {
+            subscribe(this.simulationPanelListener, SIMULATION_PANEL_QUEUE_CAPACITY, OverflowPolicies.BLOCK);
+        } else {
+            unsubscribe(this.simulationPanelListener);
+        }
+    }
+
+    /**
+     * This method sets whether simulation events of the specified subtype
+     * have to be displayed in the simulation panel or not. The rest of
+     * subscribers decide by themselves.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param subtype The subtype of the simulation event, as defined in
+     * TSimulationEvent.
+     * @param interested TRUE, if events of the specified subtype have to be
+     * displayed. Otherwise, FALSE.
+     * @since 2.4
+     */
+    @Override
+    public void setInterestedIn(int subtype, boolean interested) {
+        this.simulationPanelListener.setInterestedIn(subtype, interested);
+    }
+
+    /**
+     * This method subscribes a listener to the bus. Its queue can hold up to
+     * DEFAULT_QUEUE_CAPACITY events and, if it is full, the oldest ones are
+     * discarded. If the listener is already subscribed, nothing is done.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param subscriber The listener that will receive simulation events.
+     * @since 2.4
+     */
+    public void subscribe(ISimulationEventListener subscriber) {
+        subscribe(subscriber, DEFAULT_QUEUE_CAPACITY, OverflowPolicies.DROP_OLDEST);
+    }
+
+    /**
+     * This method subscribes a listener to the bus with the specified queue
+     * capacity and overflow policy. If the listener is already subscribed,
+     * nothing is done.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param subscriber The listener that will receive simulation events.
+     * @param queueCapacity The maximum number of events that can be waiting to
+     * be delivered to the listener.
+     * @param overflowPolicy What to do when an event is published and the
+     * queue of the listener is full. BLOCK makes the simulation wait for the
+     * listener.
+     * @since 2.4
+     */
+    public synchronized void subscribe(ISimulationEventListener subscriber, int queueCapacity, OverflowPolicies overflowPolicy) {
+        if (subscriber == null) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        if (getSubscription(subscriber) != null) {
+            return;
+        }
+        TSimulationEventSubscription subscription = new TSimulationEventSubscription(subscriber, queueCapacity, overflowPolicy);
+        subscription.start();
+        TSimulationEventSubscription[] newSubscriptions = Arrays.copyOf(this.subscriptions, this.subscriptions.length + ONE);
+        newSubscriptions[this.subscriptions.length] = subscription;
+        this.subscriptions = newSubscriptions;
+    }
+
+    /**
+     * This method unsubscribes a listener from the bus. Events that were still
+     * waiting to be delivered to it are discarded.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param subscriber The listener that will stop receiving simulation
+     * events.
+     * @since 2.4
+     */
+    public synchronized void unsubscribe(ISimulationEventListener subscriber) {
+        TSimulationEventSubscription subscription = getSubscription(subscriber);
+        if (subscription == null) {
+            return;
+        }
+        subscription.stop();
+        TSimulationEventSubscription[] newSubscriptions = new TSimulationEventSubscription[this.subscriptions.length - ONE];
+        int i = ZERO;
+        for (TSimulationEventSubscription currentSubscription : this.subscriptions) {
+            if (currentSubscription != subscription) {
+                newSubscriptions[i] = currentSubscription;
+                i++;
+            }
+        }
+        this.subscriptions = newSubscriptions;
+    }
+
+    /**
+     * This method checks whether a listener is subscribed to the bus.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param subscriber The listener to check.
+     * @return TRUE, if the listener is subscribed. Otherwise, FALSE.
+     * @since 2.4
+     */
+    public boolean isSubscribed(ISimulationEventListener subscriber) {
+        return getSubscription(subscriber) != null;
+    }
+
+    /**
+     * This method gets the number of listeners subscribed to the bus.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The number of subscribed listeners.
+     * @since 2.4
+     */
+    public int getNumberOfSubscribers() {
+        return this.subscriptions.length;
+    }
+
+    /**
+     * This method waits until every event published so far has been delivered
+     * to the specified listener. It is useful to know when a listener that
+     * writes events somewhere has received all of them.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param subscriber A listener subscribed to the bus.
+     * @throws InterruptedException If the caller is interrupted while it is
+     * waiting.
+     * @since 2.4
+     */
+    public void waitUntilDelivered(ISimulationEventListener subscriber) throws InterruptedException {
+        TSimulationEventSubscription subscription = getSubscription(subscriber);
+        if (subscription != null) {
+            subscription.waitUntilDelivered();
+        }
+    }
+
+    /**
+     * This method gets the number of events that have not been delivered to a
+     * listener because its queue was full.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param subscriber A listener subscribed to the bus.
+     * @return The number of events discarded for the listener, or zero if it
+     * is not subscribed.
+     * @since 2.4
+     */
+    public long getNumberOfDiscardedEvents(ISimulationEventListener subscriber) {
+        TSimulationEventSubscription subscription = getSubscription(subscriber);
+        if (subscription == null) {
+            return ZERO;
+        }
+        return subscription.getPendingEvents().getNumberOfDiscardedEvents();
+    }
+
+    /**
+     * This method publishes a simulation event. It is queued for every
+     * subscriber interested in its subtype.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param simulationEvent The simulation event to be published.
+     * @since 2.4
+     */
+    @Override
+    public void captureSimulationEvents(TSimulationEvent simulationEvent) {
+        for (TSimulationEventSubscription subscription : this.subscriptions) {
+            subscription.publish(simulationEvent);
+        }
+    }
+
+    /**
+     * This method tells whether any subscriber is interested in simulation
+     * events of the specified subtype. If none is, topology elements do not
+     * create those events at all.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param subtype The subtype of the simulation event, as defined in
+     * TSimulationEvent.
+     * @return TRUE, if at least a subscriber is interested in events of the
+     * specified subtype. Otherwise, FALSE.
+     * @since 2.4
+     */
+    @Override
+    public boolean isInterestedIn(int subtype) {
+        for (TSimulationEventSubscription subscription : this.subscriptions) {
+            if (subscription.getSubscriber().isInterestedIn(subtype)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * This method discards the events that are waiting to be delivered to
+     * every subscriber. Subscriptions are kept.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    @Override
+    public void reset() {
+        for (TSimulationEventSubscription subscription : this.subscriptions) {
+            subscription.getPendingEvents().clear();
+        }
+        this.simulationPanelListener.reset();
+    }
+
+    /**
+     * This method gets the subscription of the specified listener.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param subscriber A listener.
+     * @return The subscription of the listener, or NULL if it is not
+     * subscribed.
+     * @since 2.4
+     */
+    private TSimulationEventSubscription getSubscription(ISimulationEventListener subscriber) {
+        for (TSimulationEventSubscription subscription : this.subscriptions) {
+            if (subscription.getSubscriber() == subscriber) {
+                return subscription;
+            }
+        }
+        return null;
+    }
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 65536;
+
+    private static final int SIMULATION_PANEL_QUEUE_CAPACITY = 4096;
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+
+    // Replaced, never modified, so that publishing does not need locks.
+    private volatile TSimulationEventSubscription[] subscriptions;
+    private final TSimulationEventListener simulationPanelListener;
+    private final ResourceBundle translations;
+    private final Logger logger = LoggerFactory.getLogger(TSimulationEventBus.class);
+}
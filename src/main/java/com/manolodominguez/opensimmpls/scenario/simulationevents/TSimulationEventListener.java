@@ -16,9 +16,13 @@
 package com.manolodominguez.opensimmpls.scenario.simulationevents;
 
 import java.util.Iterator;
+import java.util.ResourceBundle;
 import java.util.TreeSet;
 import com.manolodominguez.opensimmpls.gui.simulator.JSimulationPanel;
 import com.manolodominguez.opensimmpls.commons.TSemaphore;
+import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * This class implements a simulation event listener that will receive
@@ -40,6 +44,7 @@ public class TSimulationEventListener implements ISimulationEventListener {
         this.simulationEventsBuffer = new TreeSet();
         this.eventsSemaphore = new TSemaphore();
         this.simulationPanel = null;
+        this.interestMask = ALL_SUBTYPES;
     }
 
     /**
@@ -54,84 +59,148 @@ public class TSimulationEventListener implements ISimulationEventListener {
         this.simulationPanel = simulationPanel;
     }
 
+    /**
+     * This method sets whether simulation events of the specified subtype
+     * have to be delivered to this listener or not. By default, every subtype
+     * is delivered.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     * @param subtype The subtype of the simulation event, as defined in
+     * TSimulationEvent.
+     * @param interested TRUE, if events of the specified subtype have to be
+     * delivered. Otherwise, FALSE.
+     */
+    public synchronized void setInterestedIn(int subtype, boolean interested) {
+        if (interested) {
+            this.interestMask |= getSubtypeMask(subtype);
+        } else {
+            this.interestMask &= ~getSubtypeMask(subtype);
+        }
+    }
+
+    /**
+     * This method tells whether simulation events of the specified subtype
+     * are consumed by this listener or not. They are not consumed if they
+     * have been disabled or if there is no simulation panel where to display
+     * them (headless simulations).
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     * @param subtype The subtype of the simulation event, as defined in
+     * TSimulationEvent.
+     * @return TRUE, if events of the specified subtype have to be delivered
+     * to this listener. Otherwise, FALSE.
+     */
+    @Override
+    public boolean isInterestedIn(int subtype) {
+        return ((this.interestMask & (ONE << subtype)) != ZERO) && (this.simulationPanel != null);
+    }
+
+    /**
+     * This method computes the bit that represents the specified simulation
+     * event subtype in an interest mask.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     * @param subtype The subtype of the simulation event, as defined in
+     * TSimulationEvent.
+     * @return A mask where only the bit of the specified subtype is set.
+     */
+    public static long getSubtypeMask(int subtype) {
+        if ((subtype < ZERO) || (subtype >= Long.SIZE)) {
+            logger.error(translations.getString("argumentOutOfRange"));
+            throw new IllegalArgumentException(translations.getString("argumentOutOfRange"));
+        }
+        return ONE << subtype;
+    }
+
     /**
      * This method, when implemented, will capture simulation events. It also
-     * delivers them to the simulation panel to be displayed.
+     * delivers them to the simulation panel to be displayed. If no simulation
+     * panel has been set (headless simulations), events are discarded. It is
+     * not synchronized because the simulation panel queues events in a buffer
+     * that supports many concurrent producers and paints them later, on its
+     * own thread.
      *
      * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
      * @since 2.0
      * @param simulationEvent The simulation event received.
      */
     @Override
-    public synchronized void captureSimulationEvents(TSimulationEvent simulationEvent) {
+    public void captureSimulationEvents(TSimulationEvent simulationEvent) {
+        JSimulationPanel simulationPanel = this.simulationPanel;
+        if (simulationPanel == null) {
+            return;
+        }
         // FIX: If nothing different is done... is it neccesary a switch?
         switch (simulationEvent.getSubtype()) {
             case TSimulationEvent.PACKET_GENERATED: {
-                this.simulationPanel.addEvent(simulationEvent);
+                simulationPanel.addEvent(simulationEvent);
                 break;
             }
             case TSimulationEvent.PACKET_SENT: {
-                this.simulationPanel.addEvent(simulationEvent);
+                simulationPanel.addEvent(simulationEvent);
                 break;
             }
             case TSimulationEvent.PACKET_RECEIVED: {
-                this.simulationPanel.addEvent(simulationEvent);
+                simulationPanel.addEvent(simulationEvent);
                 break;
             }
             case TSimulationEvent.PACKET_SWITCHED: {
-                this.simulationPanel.addEvent(simulationEvent);
+                simulationPanel.addEvent(simulationEvent);
                 break;
             }
             case TSimulationEvent.PACKET_DISCARDED: {
-                this.simulationPanel.addEvent(simulationEvent);
+                simulationPanel.addEvent(simulationEvent);
                 break;
             }
             case TSimulationEvent.PACKET_ON_FLY: {
-                this.simulationPanel.addEvent(simulationEvent);
+                simulationPanel.addEvent(simulationEvent);
                 break;
             }
             case TSimulationEvent.PACKET_ROUTED: {
-                this.simulationPanel.addEvent(simulationEvent);
+                simulationPanel.addEvent(simulationEvent);
                 break;
             }
             case TSimulationEvent.LSP_ESTABLISHED: {
-                this.simulationPanel.addEvent(simulationEvent);
+                simulationPanel.addEvent(simulationEvent);
                 break;
             }
             case TSimulationEvent.LSP_REMOVED: {
-                this.simulationPanel.addEvent(simulationEvent);
+                simulationPanel.addEvent(simulationEvent);
                 break;
             }
             case TSimulationEvent.LABEL_ASSIGNED: {
-                this.simulationPanel.addEvent(simulationEvent);
+                simulationPanel.addEvent(simulationEvent);
                 break;
             }
             case TSimulationEvent.LABEL_DENIED: {
-                this.simulationPanel.addEvent(simulationEvent);
+                simulationPanel.addEvent(simulationEvent);
                 break;
             }
             case TSimulationEvent.LABEL_REMOVED: {
-                this.simulationPanel.addEvent(simulationEvent);
+                simulationPanel.addEvent(simulationEvent);
                 break;
             }
             case TSimulationEvent.LABEL_RECEIVED: {
-                this.simulationPanel.addEvent(simulationEvent);
+                simulationPanel.addEvent(simulationEvent);
                 break;
             }
             case TSimulationEvent.LABEL_REQUESTED: {
-                this.simulationPanel.addEvent(simulationEvent);
+                simulationPanel.addEvent(simulationEvent);
                 break;
             }
             case TSimulationEvent.NODE_CONGESTED: {
-                this.simulationPanel.addEvent(simulationEvent);
+                simulationPanel.addEvent(simulationEvent);
                 break;
             }
             case TSimulationEvent.LINK_BROKEN: {
-                this.simulationPanel.addEvent(simulationEvent);
+                simulationPanel.addEvent(simulationEvent);
                 break;
             }
             case TSimulationEvent.LINK_RECOVERED: {
-                this.simulationPanel.addEvent(simulationEvent);
+                simulationPanel.addEvent(simulationEvent);
                 break;
             }
         }
@@ -155,7 +224,15 @@ public class TSimulationEventListener implements ISimulationEventListener {
         this.eventsSemaphore.setGreen();
     }
 
+    public static final long ALL_SUBTYPES = -1L;
+
+    private static final long ZERO = 0L;
+    private static final long ONE = 1L;
+    private static final ResourceBundle translations = ResourceBundle.getBundle(AvailableBundles.T_SIMULATION_EVENT_LISTENER.getPath());
+    private static final Logger logger = LoggerFactory.getLogger(TSimulationEventListener.class);
+
     private TSemaphore eventsSemaphore;
     private TreeSet simulationEventsBuffer;
-    private JSimulationPanel simulationPanel;
+    private volatile JSimulationPanel simulationPanel;
+    private volatile long interestMask;
 }
@@ -57,6 +57,17 @@ public class TSimulationEventPacketReceived extends TSimulationEvent {
         return this.packetType;
     }
 
+    /**
+     * This method gets the size of the packet received.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return the size of the packet received, in bytes.
+     * @since 2.4
+     */
+    public int getPacketSize() {
+        return this.packetSize;
+    }
+
     /**
      * This method gets the subtype of this simulation event. One of the
      * constants of TSimulationEvent.
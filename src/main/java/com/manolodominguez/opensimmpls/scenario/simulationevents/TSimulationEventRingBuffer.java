@@ -0,0 +1,290 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario.simulationevents;
+
+import com.manolodominguez.opensimmpls.resources.translations.AvailableBundles;
+import java.util.ResourceBundle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements a bounded ring buffer of simulation events. Many
+ * simulation threads can put events in it while a single consumer, usually
+ * the simulation panel, takes them out at its own pace. What happens when the
+ * buffer is full depends on the overflow policy, that can be changed at any
+ * moment. Putting or taking an event does not allocate memory. The consumer
+ * can either poll the buffer or wait for events.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public class TSimulationEventRingBuffer {
+
+    /**
+     * This is the constructor of the class. It creates a new empty instance of
+     * TSimulationEventRingBuffer.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param capacity The maximum number of events the buffer can hold.
+     * @param overflowPolicy What to do when an event is put in the buffer and
+     * the buffer is full.
+     * @since 2.4
+     */
+    public TSimulationEventRingBuffer(int capacity, OverflowPolicies overflowPolicy) {
+        this.translations = ResourceBundle.getBundle(AvailableBundles.T_SIMULATION_EVENT_RING_BUFFER.getPath());
+        if (capacity < ONE) {
+            this.logger.error(this.translations.getString("argumentOutOfRange"));
+            throw new IllegalArgumentException(this.translations.getString("argumentOutOfRange"));
+        }
+        if (overflowPolicy == null) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        this.events = new TSimulationEvent[capacity];
+        this.head = ZERO;
+        this.numberOfEvents = ZERO;
+        this.numberOfDiscardedEvents = ZERO;
+        this.numberOfWaitingProducers = ZERO;
+        this.consumerWaiting = false;
+        this.consumerBusy = false;
+        this.sampling = false;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * This method puts a simulation event at the end of the buffer. If the
+     * buffer is full, the overflow policy decides whether the caller waits,
+     * the oldest event is discarded or the new event is discarded.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param simulationEvent The simulation event to be put in the buffer.
+     * @return TRUE, if the event has been stored. FALSE if it has been
+     * discarded.
+     * @since 2.4
+     */
+    public synchronized boolean put(TSimulationEvent simulationEvent) {
+        if (simulationEvent == null) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        while (this.numberOfEvents == this.events.length) {
+            switch (this.overflowPolicy) {
+                case DROP_OLDEST: {
+                    this.events[this.head] = null;
+                    this.head = (this.head + ONE) % this.events.length;
+                    this.numberOfEvents--;
+                    this.numberOfDiscardedEvents++;
+                    break;
+                }
+                case SAMPLE: {
+                    this.sampling = true;
+                    this.numberOfDiscardedEvents++;
+                    return false;
+                }
+                default: {
+                    this.numberOfWaitingProducers++;
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        this.numberOfDiscardedEvents++;
+                        return false;
+                    } finally {
+                        this.numberOfWaitingProducers--;
+                    }
+                    break;
+                }
+            }
+        }
+        if (this.sampling) {
+            this.numberOfDiscardedEvents++;
+            return false;
+        }
+        this.events[(this.head + this.numberOfEvents) % this.events.length] = simulationEvent;
+        this.numberOfEvents++;
+        if (this.consumerWaiting) {
+            notifyAll();
+        }
+        return true;
+    }
+
+    /**
+     * This method takes the simulation event at the beginning of the buffer
+     * out of it. If the buffer is empty, it waits until an event is put in it.
+     * Calling it again means that the consumer has finished with the previous
+     * event.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The oldest event in the buffer.
+     * @throws InterruptedException If the consumer is interrupted while it is
+     * waiting.
+     * @since 2.4
+     */
+    public synchronized TSimulationEvent take() throws InterruptedException {
+        this.consumerBusy = false;
+        while (this.numberOfEvents == ZERO) {
+            this.consumerWaiting = true;
+            // Wakes up threads waiting for the consumer to be done, if any.
+            notifyAll();
+            try {
+                wait();
+            } finally {
+                this.consumerWaiting = false;
+            }
+        }
+        this.consumerBusy = true;
+        return poll();
+    }
+
+    /**
+     * This method waits until the buffer is empty and the consumer has
+     * finished with the last event it took.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @throws InterruptedException If the caller is interrupted while it is
+     * waiting.
+     * @since 2.4
+     */
+    public synchronized void waitUntilConsumed() throws InterruptedException {
+        while ((this.numberOfEvents > ZERO) || this.consumerBusy) {
+            wait();
+        }
+    }
+
+    /**
+     * This method takes the simulation event at the beginning of the buffer
+     * out of it. It never waits.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The oldest event in the buffer or NULL if the buffer is empty.
+     * @since 2.4
+     */
+    public synchronized TSimulationEvent poll() {
+        if (this.numberOfEvents == ZERO) {
+            return null;
+        }
+        TSimulationEvent simulationEvent = this.events[this.head];
+        this.events[this.head] = null;
+        this.head = (this.head + ONE) % this.events.length;
+        this.numberOfEvents--;
+        if (this.numberOfEvents == ZERO) {
+            this.sampling = false;
+        }
+        if (this.numberOfWaitingProducers > ZERO) {
+            notifyAll();
+        }
+        return simulationEvent;
+    }
+
+    /**
+     * This method changes the overflow policy of the buffer. Producers that
+     * were waiting for room, if any, apply the new policy right away.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param overflowPolicy What to do when an event is put in the buffer and
+     * the buffer is full.
+     * @since 2.4
+     */
+    public synchronized void setOverflowPolicy(OverflowPolicies overflowPolicy) {
+        if (overflowPolicy == null) {
+            this.logger.error(this.translations.getString("badArgument"));
+            throw new IllegalArgumentException(this.translations.getString("badArgument"));
+        }
+        this.overflowPolicy = overflowPolicy;
+        this.sampling = false;
+        notifyAll();
+    }
+
+    /**
+     * This method gets the overflow policy of the buffer.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return What to do when an event is put in the buffer and the buffer is
+     * full.
+     * @since 2.4
+     */
+    public synchronized OverflowPolicies getOverflowPolicy() {
+        return this.overflowPolicy;
+    }
+
+    /**
+     * This method gets the number of events stored in the buffer.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The number of events stored in the buffer.
+     * @since 2.4
+     */
+    public synchronized int size() {
+        return this.numberOfEvents;
+    }
+
+    /**
+     * This method gets the maximum number of events the buffer can hold.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The maximum number of events the buffer can hold.
+     * @since 2.4
+     */
+    public int getCapacity() {
+        return this.events.length;
+    }
+
+    /**
+     * This method gets the number of events that have been discarded because
+     * the buffer was full, since it was created or cleared.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The number of discarded events.
+     * @since 2.4
+     */
+    public synchronized long getNumberOfDiscardedEvents() {
+        return this.numberOfDiscardedEvents;
+    }
+
+    /**
+     * This method removes every event from the buffer and wakes up producers
+     * that were waiting for room, if any.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public synchronized void clear() {
+        for (int i = ZERO; i < this.numberOfEvents; i++) {
+            this.events[(this.head + i) % this.events.length] = null;
+        }
+        this.head = ZERO;
+        this.numberOfEvents = ZERO;
+        this.numberOfDiscardedEvents = ZERO;
+        this.consumerBusy = false;
+        this.sampling = false;
+        notifyAll();
+    }
+
+    private static final int ZERO = 0;
+    private static final int ONE = 1;
+
+    private final TSimulationEvent[] events;
+    private int head;
+    private int numberOfEvents;
+    private long numberOfDiscardedEvents;
+    private int numberOfWaitingProducers;
+    private boolean consumerWaiting;
+    private boolean consumerBusy;
+    private boolean sampling;
+    private OverflowPolicies overflowPolicy;
+    private final ResourceBundle translations;
+    private final Logger logger = LoggerFactory.getLogger(TSimulationEventRingBuffer.class);
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario.simulationevents;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class implements the subscription of a simulation event listener to a
+ * simulation event bus. It has its own bounded queue of pending events and its
+ * own thread that delivers them to the listener, so a slow listener only
+ * delays its own events.
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ * @version 2.0
+ */
+public class TSimulationEventSubscription implements Runnable {
+
+    /**
+     * This is the constructor of the class. It creates a new instance of
+     * TSimulationEventSubscription. Events are not delivered until the
+     * subscription is started.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param subscriber The listener that will receive the events.
+     * @param queueCapacity The maximum number of events that can be waiting to
+     * be delivered to the listener.
+     * @param overflowPolicy What to do when an event is published and the
+     * queue is full.
+     * @since 2.4
+     */
+    public TSimulationEventSubscription(ISimulationEventListener subscriber, int queueCapacity, OverflowPolicies overflowPolicy) {
+        this.subscriber = subscriber;
+        this.pendingEvents = new TSimulationEventRingBuffer(queueCapacity, overflowPolicy);
+        this.overflowPolicy = overflowPolicy;
+        this.deliveryThread = null;
+        this.running = false;
+        this.stopped = false;
+    }
+
+    /**
+     * This method starts the thread that delivers queued events to the
+     * listener.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public synchronized void start() {
+        if (this.deliveryThread == null) {
+            if (this.stopped) {
+                this.pendingEvents.setOverflowPolicy(this.overflowPolicy);
+                this.stopped = false;
+            }
+            this.running = true;
+            this.deliveryThread = new Thread(this, "Simulation events to " + this.subscriber.getClass().getSimpleName());
+            this.deliveryThread.setDaemon(true);
+            this.deliveryThread.start();
+        }
+    }
+
+    /**
+     * This method stops the thread that delivers queued events to the
+     * listener. Events that were still queued are discarded, and so are the
+     * events published from then on, so that a producer never waits for a
+     * listener that will not take its events anymore.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    public synchronized void stop() {
+        this.stopped = true;
+        this.running = false;
+        // A producer that is already waiting for room, or that checked the
+        // flag just before it was set, must not wait either.
+        this.pendingEvents.setOverflowPolicy(OverflowPolicies.DROP_OLDEST);
+        if (this.deliveryThread != null) {
+            this.deliveryThread.interrupt();
+            this.deliveryThread = null;
+        }
+        this.pendingEvents.clear();
+    }
+
+    /**
+     * This method queues a simulation event to be delivered to the listener,
+     * if the listener is interested in its subtype and the subscription has
+     * not been stopped.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @param simulationEvent The simulation event to be delivered.
+     * @since 2.4
+     */
+    public void publish(TSimulationEvent simulationEvent) {
+        if (!this.stopped && this.subscriber.isInterestedIn(simulationEvent.getSubtype())) {
+            this.pendingEvents.put(simulationEvent);
+        }
+    }
+
+    /**
+     * This method waits until every event queued so far has been delivered to
+     * the listener.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @throws InterruptedException If the caller is interrupted while it is
+     * waiting.
+     * @since 2.4
+     */
+    public void waitUntilDelivered() throws InterruptedException {
+        this.pendingEvents.waitUntilConsumed();
+    }
+
+    /**
+     * This method delivers queued events to the listener, one by one, until
+     * the subscription is stopped.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @since 2.4
+     */
+    @Override
+    public void run() {
+        while (this.running) {
+            try {
+                this.subscriber.captureSimulationEvents(this.pendingEvents.take());
+            } catch (InterruptedException e) {
+                // The subscription has been stopped.
+                return;
+            } catch (RuntimeException e) {
+                this.logger.error(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * This method gets the listener that receives the events of this
+     * subscription.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The listener that receives the events.
+     * @since 2.4
+     */
+    public ISimulationEventListener getSubscriber() {
+        return this.subscriber;
+    }
+
+    /**
+     * This method gets the queue of events waiting to be delivered to the
+     * listener.
+     *
+     * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+     * @return The queue of events waiting to be delivered.
+     * @since 2.4
+     */
+    public TSimulationEventRingBuffer getPendingEvents() {
+        return this.pendingEvents;
+    }
+
+    private final ISimulationEventListener subscriber;
+    private final TSimulationEventRingBuffer pendingEvents;
+    private final OverflowPolicies overflowPolicy;
+    private Thread deliveryThread;
+    private volatile boolean running;
+    private volatile boolean stopped;
+    private final Logger logger = LoggerFactory.getLogger(TSimulationEventSubscription.class);
+}
@@ -0,0 +1,136 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.batch;
+
+import com.manolodominguez.opensimmpls.scenario.StatsColumns;
+import com.manolodominguez.opensimmpls.scenario.TNode;
+import com.manolodominguez.opensimmpls.scenario.TStats;
+import java.io.File;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TBatchSimulationRunnerTest {
+
+    public TBatchSimulationRunnerTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * Test of constructor method, of class TBatchSimulationRunner.
+     */
+    @Test
+    public void testConstructorWhenScenarioFileIsNull() {
+        System.out.println("Test constructor");
+        assertThrows(IllegalArgumentException.class, () -> {
+            TBatchSimulationRunner instance = new TBatchSimulationRunner(null); // Should throw an exception
+        });
+    }
+
+    /**
+     * Test of load method, of class TBatchSimulationRunner.
+     */
+    @Test
+    public void testLoadWhenScenarioFileDoesNotExist() {
+        System.out.println("Test load()");
+        TBatchSimulationRunner instance = new TBatchSimulationRunner(new File("nonExistentScenario.osm"));
+        assertFalse(instance.load());
+        assertNull(instance.getScenario());
+        assertEquals(0, instance.getNumberOfTicks());
+    }
+
+    /**
+     * Test of simulate method, of class TBatchSimulationRunner.
+     */
+    @Test
+    public void testSimulateWhenScenarioIsNotLoaded() {
+        System.out.println("Test simulate()");
+        TBatchSimulationRunner instance = new TBatchSimulationRunner(new File("nonExistentScenario.osm"));
+        assertThrows(IllegalStateException.class, () -> {
+            instance.simulate(); // Should throw an exception
+        });
+    }
+
+    /**
+     * Test of getTicksPerSecond method, of class TBatchSimulationRunner.
+     */
+    @Test
+    public void testGetTicksPerSecondWhenNotSimulated() {
+        System.out.println("Test getTicksPerSecond()");
+        TBatchSimulationRunner instance = new TBatchSimulationRunner(new File("nonExistentScenario.osm"));
+        assertEquals(0, instance.getWallClockTimeInNs());
+        assertEquals(0.0, instance.getTicksPerSecond());
+    }
+
+    /**
+     * Test of setEventDrivenScheduling method, of class TBatchSimulationRunner.
+     */
+    @Test
+    public void testSimulateWithEventDrivenScheduling() {
+        System.out.println("Test setEventDrivenScheduling()");
+        Map<String, Long> fixedTickStats = simulateAndGetStats(false);
+        Map<String, Long> eventDrivenStats = simulateAndGetStats(true);
+        assertFalse(fixedTickStats.isEmpty());
+        assertTrue(fixedTickStats.values().stream().anyMatch(value -> value > 0));
+        // Skipping idle ticks should not change the final stats at all
+        assertEquals(fixedTickStats, eventDrivenStats);
+    }
+
+    private Map<String, Long> simulateAndGetStats(boolean eventDrivenScheduling) {
+        TBatchSimulationRunner instance = new TBatchSimulationRunner(new File("examples/RABANEffect.osm"));
+        assertTrue(instance.load());
+        instance.setRandomSeed(1L);
+        instance.setEventDrivenScheduling(eventDrivenScheduling);
+        instance.simulate();
+        Map<String, Long> stats = new HashMap<>();
+        Iterator<TNode> nodesIterator = instance.getScenario().getTopology().getNodesIterator();
+        while (nodesIterator.hasNext()) {
+            TNode node = nodesIterator.next();
+            TStats nodeStats = node.getStats();
+            if (nodeStats != null) {
+                for (StatsColumns column : nodeStats.getColumns()) {
+                    stats.put(node.getNodeID() + ";" + column.name(), nodeStats.getColumnValue(column));
+                }
+            }
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.batch;
+
+import com.manolodominguez.opensimmpls.scenario.StatsColumns;
+import com.manolodominguez.opensimmpls.scenario.TLSRNode;
+import com.manolodominguez.opensimmpls.scenario.TScene;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author manolodd
+ */
+public class TParameterSweepTest {
+
+    public TParameterSweepTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * Test of constructor, of class TParameterSweep, when the scenario is
+     * null.
+     */
+    @Test
+    public void testConstructorWhenScenarioIsNull() {
+        System.out.println("Test constructor when scenario is null");
+        assertThrows(IllegalArgumentException.class, () -> {
+            TParameterSweep instance = new TParameterSweep(null);
+        });
+    }
+
+    /**
+     * Test of addAxis method, of class TParameterSweep, when the scenario has
+     * no element the parameter can be applied to.
+     */
+    @Test
+    public void testAddAxisWhenNoElementToSweep() {
+        System.out.println("Test addAxis when there is no element to sweep");
+        TScene scenario = createScenario();
+        TParameterSweep instance = new TParameterSweep(scenario);
+        assertThrows(IllegalArgumentException.class, () -> {
+            instance.addAxis(new TSweepAxis(SweepParameters.TRAFFIC_GENERATION_RATE, TSweepAxis.ALL_ELEMENTS, new int[]{1000}));
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            instance.addAxis(new TSweepAxis(SweepParameters.BUFFER_SIZE, 99, new int[]{1}));
+        });
+    }
+
+    /**
+     * Test of getPointValues method, of class TParameterSweep. Every
+     * combination of values is a point and the last axis changes faster.
+     */
+    @Test
+    public void testGetPointValues() {
+        System.out.println("Test getPointValues");
+        TScene scenario = createScenario();
+        TParameterSweep instance = new TParameterSweep(scenario);
+        instance.addAxis(new TSweepAxis(SweepParameters.BUFFER_SIZE, TSweepAxis.ALL_ELEMENTS, new int[]{1, 2, 3}));
+        instance.addAxis(new TSweepAxis(SweepParameters.BUFFER_SIZE, 1, new int[]{10, 20}));
+        boolean worksFine = true;
+        if (instance.getNumberOfPoints() != 6) {
+            worksFine &= false;
+        }
+        int[][] expectedValues = {{1, 10}, {1, 20}, {2, 10}, {2, 20}, {3, 10}, {3, 20}};
+        for (int i = 0; i < expectedValues.length; i++) {
+            int[] pointValues = instance.getPointValues(i);
+            if ((pointValues[0] != expectedValues[i][0]) || (pointValues[1] != expectedValues[i][1])) {
+                worksFine &= false;
+            }
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of run method, of class TParameterSweep. Every point is simulated
+     * on its own copy of the scenario, concurrently, and the base scenario is
+     * not modified.
+     */
+    @Test
+    public void testRun() throws IOException {
+        System.out.println("Test run");
+        TScene scenario = createScenario();
+        TParameterSweep instance = new TParameterSweep(scenario);
+        instance.addAxis(new TSweepAxis(SweepParameters.BUFFER_SIZE, TSweepAxis.ALL_ELEMENTS, new int[]{1, 2, 4, 8}));
+        instance.setMaxConcurrentPoints(2);
+        boolean worksFine = true;
+        if (!instance.run()) {
+            worksFine &= false;
+        }
+        for (int i = 0; i < instance.getNumberOfPoints(); i++) {
+            if (!instance.isPointSimulated(i) || (instance.getColumnValue(i, 1, StatsColumns.INCOMING_MPLS) != 0)) {
+                worksFine &= false;
+            }
+            if (instance.getColumnValue(i, 1, StatsColumns.GOS_PACKETS_LOST) != TParameterSweep.NO_VALUE) {
+                worksFine &= false;
+            }
+        }
+        if (((TLSRNode) scenario.getTopology().getNode(1)).getBufferSizeInMBytes() != 1) {
+            worksFine &= false;
+        }
+        File resultsFile = File.createTempFile("opensimmpls", ".sweep.csv");
+        resultsFile.deleteOnExit();
+        if (!instance.saveResults(resultsFile)) {
+            worksFine &= false;
+        }
+        List<String> lines = Files.readAllLines(resultsFile.toPath(), StandardCharsets.UTF_8);
+        if ((lines.size() != 5) || !lines.get(0).startsWith("point;buffer;wallClockMs;nodeID;nodeName;")) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of saveResults method, of class TParameterSweep, when a node name
+     * contains the separator. The name is quoted, so it is read back as a
+     * single field.
+     */
+    @Test
+    public void testSaveResultsWhenNodeNameHasSeparator() throws IOException {
+        System.out.println("Test saveResults when a node name has the separator");
+        TScene scenario = createScenario();
+        scenario.getTopology().getNode(1).setName("LSR;1");
+        TParameterSweep instance = new TParameterSweep(scenario);
+        instance.addAxis(new TSweepAxis(SweepParameters.BUFFER_SIZE, TSweepAxis.ALL_ELEMENTS, new int[]{1}));
+        boolean worksFine = true;
+        if (!instance.run()) {
+            worksFine &= false;
+        }
+        File resultsFile = File.createTempFile("opensimmpls", ".sweep.csv");
+        resultsFile.deleteOnExit();
+        if (!instance.saveResults(resultsFile)) {
+            worksFine &= false;
+        }
+        List<String> lines = Files.readAllLines(resultsFile.toPath(), StandardCharsets.UTF_8);
+        if ((lines.size() != 2) || !lines.get(1).contains(";1;\"LSR;1\";")) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    private TScene createScenario() {
+        TScene scenario = new TScene();
+        scenario.getSimulation().setSimulationLengthInNs(1000);
+        scenario.getSimulation().setSimulationTickDurationInNs(100);
+        TLSRNode node = new TLSRNode(1, "10.0.0.1", scenario.getTopology().getEventIDGenerator(), scenario.getTopology());
+        node.setName("LSR");
+        node.setBufferSizeInMBytes(1);
+        scenario.getTopology().addNode(node);
+        return scenario;
+    }
+}
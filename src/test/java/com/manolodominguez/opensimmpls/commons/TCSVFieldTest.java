@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.commons;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TCSVFieldTest {
+
+    public TCSVFieldTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * Test of quote method, of class TCSVField.
+     */
+    @Test
+    public void testQuote() {
+        System.out.println("Test quote");
+        assertEquals("LSR1", TCSVField.quote("LSR1"));
+        assertEquals("\"LSR;1\"", TCSVField.quote("LSR;1"));
+        assertEquals("\"LSR \"\"1\"\"\"", TCSVField.quote("LSR \"1\""));
+        assertEquals("\"LSR\n1\"", TCSVField.quote("LSR\n1"));
+        assertEquals("\"LSR\r1\"", TCSVField.quote("LSR\r1"));
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.commons;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TIPv4AddressTest {
+
+    public TIPv4AddressTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * Test of fromString method, of class TIPv4Address.
+     */
+    @Test
+    public void testFromString() {
+        System.out.println("Test fromString");
+        assertEquals(0x0A000001, TIPv4Address.fromString("10.0.0.1"));
+        assertEquals(0x0AFFFFFE, TIPv4Address.fromString("10.255.255.254"));
+        assertEquals(0xFFFFFFFF, TIPv4Address.fromString("255.255.255.255"));
+        assertEquals(TIPv4Address.UNSPECIFIED, TIPv4Address.fromString("0.0.0.0"));
+    }
+
+    /**
+     * Test of fromString method, of class TIPv4Address.
+     */
+    @Test
+    public void testFromStringWhenInvalid() {
+        System.out.println("Test fromString");
+        String[] invalidAddresses = {"", "This is not a valid IP", "10.0.0", "10.0.0.1.1", "10..0.1", ".10.0.0.1",
+            "10.0.0.1.", "10.256.0.0", "10.0.256.0", "10.0.0.256", "10.-1.0.0", "10.0.0.0001"};
+        for (String invalidAddress : invalidAddresses) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                TIPv4Address.fromString(invalidAddress); // Should throw an exception
+            });
+        }
+    }
+
+    /**
+     * Test of fromString method, of class TIPv4Address.
+     */
+    @Test
+    public void testFromStringWhenNull() {
+        System.out.println("Test fromString");
+        assertThrows(IllegalArgumentException.class, () -> {
+            TIPv4Address.fromString(null); // Should throw an exception
+        });
+    }
+
+    /**
+     * Test of toString method, of class TIPv4Address.
+     */
+    @Test
+    public void testToString() {
+        System.out.println("Test toString");
+        assertEquals("10.0.0.1", TIPv4Address.toString(0x0A000001));
+        assertEquals("255.255.255.255", TIPv4Address.toString(0xFFFFFFFF));
+        assertEquals("10.1.3.2", TIPv4Address.toString(TIPv4Address.fromString("10.1.3.2")));
+    }
+
+    /**
+     * Test of isANodeAddress method, of class TIPv4Address.
+     */
+    @Test
+    public void testIsANodeAddress() {
+        System.out.println("Test isANodeAddress");
+        assertTrue(TIPv4Address.isANodeAddress(TIPv4Address.fromString("10.0.0.1")));
+        assertTrue(TIPv4Address.isANodeAddress(TIPv4Address.fromString("10.255.255.254")));
+        assertFalse(TIPv4Address.isANodeAddress(TIPv4Address.UNSPECIFIED));
+        assertFalse(TIPv4Address.isANodeAddress(TIPv4Address.fromString("10.0.0.0")));
+        assertFalse(TIPv4Address.isANodeAddress(TIPv4Address.fromString("10.255.255.255")));
+        assertFalse(TIPv4Address.isANodeAddress(TIPv4Address.fromString("12.0.0.1")));
+    }
+}
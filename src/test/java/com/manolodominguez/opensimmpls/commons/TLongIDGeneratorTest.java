@@ -168,4 +168,46 @@ public class TLongIDGeneratorTest {
             instance.setIdentifier(-2); // This is lower than DEFAULT_ID and should throws an exception
         });
     }
+
+    /**
+     * Test of advanceIdentifier method, of class TLongIDGenerator.
+     */
+    @Test
+    public void testAdvanceIdentifier() {
+        try {
+            System.out.println("testing advanceIdentifier()");
+            TLongIDGenerator instance = new TLongIDGenerator();
+            instance.getNextIdentifier(); // should return 1L. Next 2L
+            instance.advanceIdentifier(5L); // Skips 2L, 3L, 4L, 5L and 6L. Next 7L
+            assertEquals(7L, instance.getNextIdentifier());
+        } catch (EIDGeneratorOverflow ex) {
+            Logger.getLogger(TLongIDGeneratorTest.class.getName()).log(Level.SEVERE, null, ex);
+            fail("Unexpected EIDGeneratorOverflow thrown");
+        }
+    }
+
+    /**
+     * Test of advanceIdentifier method, of class TLongIDGenerator.
+     */
+    @Test
+    public void testAdvanceIdentifierOverflow() {
+        System.out.println("testing advanceIdentifier() with overflow");
+        assertThrows(EIDGeneratorOverflow.class, () -> {
+            TLongIDGenerator instance = new TLongIDGenerator();
+            instance.setIdentifier(Long.MAX_VALUE - 1);
+            instance.advanceIdentifier(2L); // should throw an exception
+        });
+    }
+
+    /**
+     * Test of advanceIdentifier method, of class TLongIDGenerator.
+     */
+    @Test
+    public void testAdvanceIdentifierWhenNegative() {
+        System.out.println("testing advanceIdentifier() when argument is negative");
+        assertThrows(IllegalArgumentException.class, () -> {
+            TLongIDGenerator instance = new TLongIDGenerator();
+            instance.advanceIdentifier(-2L); // Should throws an exception
+        });
+    }
 }
@@ -138,4 +138,40 @@ public class TRotaryIDGeneratorTest {
             instance.setIdentifier(-2); // This is lower than DEFAULT_ID and should throws an exception
         });
     }
+
+    /**
+     * Test of advanceIdentifier method, of class TRotaryIDGenerator.
+     */
+    @Test
+    public void testAdvanceIdentifier() {
+        System.out.println("testing advanceIdentifier()");
+        TRotaryIDGenerator instance = new TRotaryIDGenerator();
+        instance.getNextIdentifier(); // should return 1. Next 2
+        instance.advanceIdentifier(5); // Skips 2, 3, 4, 5 and 6. Next 7
+        assertEquals(7, instance.getNextIdentifier());
+    }
+
+    /**
+     * Test of advanceIdentifier method, of class TRotaryIDGenerator.
+     */
+    @Test
+    public void testAdvanceIdentifierRestart() {
+        System.out.println("testing advanceIdentifier() restart");
+        TRotaryIDGenerator instance = new TRotaryIDGenerator();
+        instance.setIdentifier(Integer.MAX_VALUE - 1);
+        instance.advanceIdentifier(2); // Skips Integer.MAX_VALUE and 0. Next 1
+        assertEquals(1, instance.getNextIdentifier());
+    }
+
+    /**
+     * Test of advanceIdentifier method, of class TRotaryIDGenerator.
+     */
+    @Test
+    public void testAdvanceIdentifierWhenNegative() {
+        System.out.println("testing advanceIdentifier() when argument is negative");
+        assertThrows(IllegalArgumentException.class, () -> {
+            TRotaryIDGenerator instance = new TRotaryIDGenerator();
+            instance.advanceIdentifier(-2); // Should throws an exception
+        });
+    }
 }
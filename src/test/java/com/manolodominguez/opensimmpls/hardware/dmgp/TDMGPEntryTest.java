@@ -15,6 +15,8 @@
  */
 package com.manolodominguez.opensimmpls.hardware.dmgp;
 
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
+import com.manolodominguez.opensimmpls.protocols.TMPLSLabel;
 import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -72,13 +74,33 @@ public class TDMGPEntryTest {
     public void testGetPacketGoSGlobalUniqueIdentifier() {
         System.out.println("Test getPacketGoSGlobalUniqueIdentifier()");
         TDMGPEntry instance = new TDMGPEntry(345); // It could be any other
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         instance.setPacket(mplsPacket1);
-        int result = instance.getPacketGoSGlobalUniqueIdentifier();
-        int expectedGoSGlobalUniqueIdentifier = mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier();
+        long result = instance.getPacketGoSGlobalUniqueIdentifier();
+        long expectedGoSGlobalUniqueIdentifier = mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier();
         assertEquals(expectedGoSGlobalUniqueIdentifier, result);
     }
 
+    /**
+     * Test of getPacketGoSGlobalUniqueIdentifier method, of class TDMGPEntry.
+     */
+    @Test
+    public void testGetPacketGoSGlobalUniqueIdentifierOfPacketsFromDifferentOrigins() {
+        System.out.println("Test getPacketGoSGlobalUniqueIdentifier()");
+        TDMGPEntry instance1 = new TDMGPEntry(345); // It could be any other
+        TDMGPEntry instance2 = new TDMGPEntry(346); // It could be any other
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.3"), 1024);
+        mplsPacket1.getIPv4Header().setPacketLocalUniqueIdentifier(7);
+        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, TIPv4Address.fromString("10.0.0.2"), TIPv4Address.fromString("10.0.0.3"), 1024);
+        mplsPacket2.getIPv4Header().setPacketLocalUniqueIdentifier(7);
+        instance1.setPacket(mplsPacket1);
+        instance2.setPacket(mplsPacket2);
+        // Same local identifier, but different origin. Identifiers must differ.
+        assertTrue(instance1.getPacketGoSGlobalUniqueIdentifier() != instance2.getPacketGoSGlobalUniqueIdentifier());
+        assertEquals(0x0A00000100000007L, instance1.getPacketGoSGlobalUniqueIdentifier());
+        assertEquals(0x0A00000200000007L, instance2.getPacketGoSGlobalUniqueIdentifier());
+    }
+
     /**
      * Test of getPacketGoSGlobalUniqueIdentifier method, of class TDMGPEntry.
      */
@@ -98,15 +120,15 @@ public class TDMGPEntryTest {
     public void testGetPacketClone() {
         System.out.println("Test getPacketClone()");
         TDMGPEntry instance = new TDMGPEntry(345); // It could be any other
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         instance.setPacket(mplsPacket1);
         TMPLSPDU returnedPacket = instance.getPacketClone();
         boolean worksFine = true;
         if (returnedPacket == null) {
             worksFine = false;
-        } else if (!returnedPacket.getIPv4Header().getOriginIPv4Address().equals("10.0.0.1")) {
+        } else if (returnedPacket.getIPv4Header().getOriginIPv4Address() != TIPv4Address.fromString("10.0.0.1")) {
             worksFine = false;
-        } else if (!returnedPacket.getIPv4Header().getTailEndIPAddress().equals("10.0.0.2")) {
+        } else if (returnedPacket.getIPv4Header().getTailEndIPAddress() != TIPv4Address.fromString("10.0.0.2")) {
             worksFine = false;
         } else if (returnedPacket.getTCPPayload().getSize() != 1044) { // Inludes TPC header
             worksFine = false;
@@ -128,6 +150,60 @@ public class TDMGPEntryTest {
         });
     }
 
+    /**
+     * Test of getPacketClone method, of class TDMGPEntry.
+     */
+    @Test
+    public void testGetPacketCloneDoesNotModifyStoredPacket() {
+        System.out.println("Test getPacketClone()");
+        TDMGPEntry instance = new TDMGPEntry(345); // It could be any other
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+        TMPLSLabel mplsLabel = new TMPLSLabel();
+        mplsLabel.setLabel(16);
+        mplsPacket1.getLabelStack().pushTop(mplsLabel);
+        instance.setPacket(mplsPacket1);
+        // Modifying the original packet and a clone must not modify the stored
+        // packet.
+        mplsPacket1.getLabelStack().getTop().setLabel(17);
+        mplsPacket1.getIPv4Header().getOptionsField().setCrossedActiveNode(TIPv4Address.fromString("10.0.0.3"));
+        TMPLSPDU returnedPacket1 = instance.getPacketClone();
+        returnedPacket1.getLabelStack().getTop().setLabel(18);
+        returnedPacket1.getLabelStack().pushTop(new TMPLSLabel());
+        TMPLSPDU returnedPacket2 = instance.getPacketClone();
+        assertEquals(1, returnedPacket2.getLabelStack().getSize());
+        assertEquals(16, returnedPacket2.getLabelStack().getTop().getLabel());
+        assertEquals(0, returnedPacket2.getIPv4Header().getOptionsField().getNumberOfCrossedActiveNodes());
+        assertEquals(2, returnedPacket1.getLabelStack().getSize());
+        assertEquals(17, mplsPacket1.getLabelStack().getTop().getLabel());
+    }
+
+    /**
+     * Test of getPacketSize method, of class TDMGPEntry.
+     */
+    @Test
+    public void testGetPacketSize() {
+        System.out.println("Test getPacketSize()");
+        TDMGPEntry instance = new TDMGPEntry(345); // It could be any other
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+        mplsPacket1.getLabelStack().pushTop(new TMPLSLabel());
+        int expectedSize = mplsPacket1.getSize();
+        instance.setPacket(mplsPacket1);
+        mplsPacket1.getLabelStack().pushTop(new TMPLSLabel());
+        assertEquals(expectedSize, instance.getPacketSize());
+    }
+
+    /**
+     * Test of getPacketSize method, of class TDMGPEntry.
+     */
+    @Test
+    public void testGetPacketSizeWhenNotInitialized() {
+        System.out.println("Test getPacketSize()");
+        TDMGPEntry instance = new TDMGPEntry(345); // It could be any other
+        assertThrows(RuntimeException.class, () -> {
+            instance.getPacketSize(); // Should throw an exception. It's not initialized
+        });
+    }
+
     /**
      * Test of setPacket method, of class TDMGPEntry.
      */
@@ -135,15 +211,15 @@ public class TDMGPEntryTest {
     public void testSetPacket() {
         System.out.println("Test setPacket()");
         TDMGPEntry instance = new TDMGPEntry(345); // It could be any other
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         instance.setPacket(mplsPacket1);
         TMPLSPDU returnedPacket = instance.getPacketClone();
         boolean worksFine = true;
         if (returnedPacket == null) {
             worksFine = false;
-        } else if (!returnedPacket.getIPv4Header().getOriginIPv4Address().equals("10.0.0.1")) {
+        } else if (returnedPacket.getIPv4Header().getOriginIPv4Address() != TIPv4Address.fromString("10.0.0.1")) {
             worksFine = false;
-        } else if (!returnedPacket.getIPv4Header().getTailEndIPAddress().equals("10.0.0.2")) {
+        } else if (returnedPacket.getIPv4Header().getTailEndIPAddress() != TIPv4Address.fromString("10.0.0.2")) {
             worksFine = false;
         } else if (returnedPacket.getTCPPayload().getSize() != 1044) { // Inludes TPC header
             worksFine = false;
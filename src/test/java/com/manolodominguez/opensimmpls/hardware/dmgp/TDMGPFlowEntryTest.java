@@ -15,8 +15,12 @@
  */
 package com.manolodominguez.opensimmpls.hardware.dmgp;
 
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
 import com.manolodominguez.opensimmpls.commons.TSemaphore;
+import com.manolodominguez.opensimmpls.protocols.TIPv4Header;
 import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
+import java.nio.ByteBuffer;
+import java.util.List;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -277,15 +281,15 @@ public class TDMGPFlowEntryTest {
      */
     @Test
     public void testGetEntries() {
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
-        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, "10.0.0.1", "10.0.0.2", 1024);
-        TMPLSPDU mplsPacket3 = new TMPLSPDU(3, "10.0.0.1", "10.0.0.2", 1024);
-        TMPLSPDU mplsPacket4 = new TMPLSPDU(4, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+        TMPLSPDU mplsPacket3 = new TMPLSPDU(3, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+        TMPLSPDU mplsPacket4 = new TMPLSPDU(4, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         TDMGPFlowEntry instance = new TDMGPFlowEntry(465);
         instance.setAssignedOctets(1024 * 1024);
         instance.setAssignedPercentage(100);
         instance.setUsedOctets(0);
-        instance.setFlowID("10.0.0.1".hashCode());
+        instance.setFlowID(TIPv4Address.fromString("10.0.0.1"));
         instance.addPacket(mplsPacket1);
         instance.addPacket(mplsPacket2);
         instance.addPacket(mplsPacket3);
@@ -332,13 +336,13 @@ public class TDMGPFlowEntryTest {
     public void testAddPacket() {
         System.out.println("Test addPacket()");
         boolean worksFine = true;
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         TMPLSPDU auxMPLSPacket;
         TDMGPFlowEntry instance = new TDMGPFlowEntry(465);
         instance.setAssignedOctets(1024 * 1024);
         instance.setAssignedPercentage(100);
         instance.setUsedOctets(0);
-        instance.setFlowID("10.0.0.1".hashCode());
+        instance.setFlowID(TIPv4Address.fromString("10.0.0.1"));
         instance.addPacket(mplsPacket1);
         if (instance.getEntries().size() != 1) {
             worksFine = false;
@@ -346,10 +350,10 @@ public class TDMGPFlowEntryTest {
         for (TDMGPEntry entry : instance.getEntries()) {
             auxMPLSPacket = entry.getPacketClone();
             if (auxMPLSPacket.getID() == 1) {
-                if (!auxMPLSPacket.getIPv4Header().getOriginIPv4Address().equals("10.0.0.1")) {
+                if (auxMPLSPacket.getIPv4Header().getOriginIPv4Address() != TIPv4Address.fromString("10.0.0.1")) {
                     worksFine = false;
                 }
-                if (!auxMPLSPacket.getIPv4Header().getTailEndIPAddress().equals("10.0.0.2")) {
+                if (auxMPLSPacket.getIPv4Header().getTailEndIPAddress() != TIPv4Address.fromString("10.0.0.2")) {
                     worksFine = false;
                 }
                 if (auxMPLSPacket.getSize() != 1064) { // TCP Payload + IPv4 header + MPLS label stack
@@ -367,7 +371,7 @@ public class TDMGPFlowEntryTest {
                 if (instance.getArrivalOrder() != 465) {
                     worksFine = false;
                 }
-                if (instance.getFlowID() != "10.0.0.1".hashCode()) {
+                if (instance.getFlowID() != TIPv4Address.fromString("10.0.0.1")) {
                     worksFine = false;
                 }
             } else {
@@ -384,14 +388,14 @@ public class TDMGPFlowEntryTest {
     public void testAddPacketWhenMemoryFull() {
         System.out.println("Test addPacket()");
         boolean worksFine = true;
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1100);
-        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, "10.0.0.1", "10.0.0.2", 1100);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1100);
+        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1100);
         TMPLSPDU auxMPLSPacket;
         TDMGPFlowEntry instance = new TDMGPFlowEntry(465);
         instance.setAssignedOctets(1024 * 2);
         instance.setAssignedPercentage(100);
         instance.setUsedOctets(0);
-        instance.setFlowID("10.0.0.1".hashCode());
+        instance.setFlowID(TIPv4Address.fromString("10.0.0.1"));
         instance.addPacket(mplsPacket1); // This packet can be added
         instance.addPacket(mplsPacket2); // No enough memory to store this packet. mplsPacket 1 is removed before.
         // At this point, only mplsPacket2 should be in the TDMGPFlowEntry
@@ -401,10 +405,10 @@ public class TDMGPFlowEntryTest {
         for (TDMGPEntry entry : instance.getEntries()) {
             auxMPLSPacket = entry.getPacketClone();
             if (auxMPLSPacket.getID() == 2) {
-                if (!auxMPLSPacket.getIPv4Header().getOriginIPv4Address().equals("10.0.0.1")) {
+                if (auxMPLSPacket.getIPv4Header().getOriginIPv4Address() != TIPv4Address.fromString("10.0.0.1")) {
                     worksFine = false;
                 }
-                if (!auxMPLSPacket.getIPv4Header().getTailEndIPAddress().equals("10.0.0.2")) {
+                if (auxMPLSPacket.getIPv4Header().getTailEndIPAddress() != TIPv4Address.fromString("10.0.0.2")) {
                     worksFine = false;
                 }
                 if (auxMPLSPacket.getSize() != 1140) { // TCP Payload + IPv4 header + MPLS label stack
@@ -422,7 +426,7 @@ public class TDMGPFlowEntryTest {
                 if (instance.getArrivalOrder() != 465) {
                     worksFine = false;
                 }
-                if (instance.getFlowID() != "10.0.0.1".hashCode()) {
+                if (instance.getFlowID() != TIPv4Address.fromString("10.0.0.1")) {
                     worksFine = false;
                 }
             } else {
@@ -432,6 +436,169 @@ public class TDMGPFlowEntryTest {
         assertTrue(worksFine);
     }
 
+    /**
+     * Test of addPacket method, of class TDMGPFlowEntry.
+     */
+    @Test
+    public void testAddPacketReleasesOldestPacketsFirst() {
+        System.out.println("Test addPacket()");
+        TMPLSPDU[] mplsPackets = new TMPLSPDU[5];
+        for (int i = 0; i < mplsPackets.length; i++) {
+            mplsPackets[i] = new TMPLSPDU(i, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
+            mplsPackets[i].getIPv4Header().setPacketLocalUniqueIdentifier(i);
+        }
+        int packetSize = mplsPackets[0].getSize();
+        TDMGPFlowEntry instance = new TDMGPFlowEntry(465);
+        instance.setAssignedOctets(packetSize * 3);
+        instance.setAssignedPercentage(100);
+        instance.setUsedOctets(0);
+        instance.setFlowID(TIPv4Address.fromString("10.0.0.1"));
+        for (TMPLSPDU mplsPacket : mplsPackets) {
+            instance.addPacket(mplsPacket);
+        }
+        // Only the three newest packets fit in the memory assigned to the flow
+        assertEquals(packetSize * 3, instance.getUsedOctets());
+        assertEquals(3, instance.getEntries().size());
+        long expectedID = 2;
+        for (TDMGPEntry entry : instance.getEntries()) {
+            assertEquals(expectedID, entry.getPacketClone().getID());
+            expectedID++;
+        }
+        assertNull(instance.getPacketClone(mplsPackets[1].getIPv4Header().getGoSGlobalUniqueIdentifier()));
+        assertEquals(2, instance.getPacketClone(mplsPackets[2].getIPv4Header().getGoSGlobalUniqueIdentifier()).getID());
+        assertEquals(4, instance.getPacketClone(mplsPackets[4].getIPv4Header().getGoSGlobalUniqueIdentifier()).getID());
+    }
+
+    /**
+     * Test of addPacket method, of class TDMGPFlowEntry.
+     */
+    @Test
+    public void testAddPacketWhenSlabWrapsAround() {
+        System.out.println("Test addPacket()");
+        TMPLSPDU[] mplsPackets = new TMPLSPDU[6];
+        for (int i = 0; i < mplsPackets.length; i++) {
+            mplsPackets[i] = new TMPLSPDU(i, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 0);
+            mplsPackets[i].getIPv4Header().setPacketLocalUniqueIdentifier(i);
+        }
+        int packetSize = mplsPackets[0].getSize();
+        int assignedOctets = (packetSize * 2) + 4;
+        ByteBuffer slab = ByteBuffer.allocateDirect(assignedOctets + 10);
+        TDMGPFlowEntry instance = new TDMGPFlowEntry(465);
+        instance.setAssignedOctets(assignedOctets);
+        instance.setAssignedPercentage(100);
+        instance.setUsedOctets(0);
+        instance.setFlowID(TIPv4Address.fromString("10.0.0.1"));
+        instance.setSlab(slab, 10);
+        for (TMPLSPDU mplsPacket : mplsPackets) {
+            instance.addPacket(mplsPacket);
+            // Only the two newest packets fit in the memory assigned to the flow
+            assertEquals(mplsPacket.getID(), instance.getPacketClone(mplsPacket.getIPv4Header().getGoSGlobalUniqueIdentifier()).getID());
+        }
+        assertEquals(packetSize * 2, instance.getUsedOctets());
+        assertEquals(2, instance.getEntries().size());
+        assertNull(instance.getPacketClone(mplsPackets[3].getIPv4Header().getGoSGlobalUniqueIdentifier()));
+        TMPLSPDU result = instance.getPacketClone(mplsPackets[4].getIPv4Header().getGoSGlobalUniqueIdentifier());
+        assertEquals(4, result.getID());
+        assertEquals(packetSize, result.getSize());
+        assertEquals(mplsPackets[4].getIPv4Header().getGoSGlobalUniqueIdentifier(), result.getIPv4Header().getGoSGlobalUniqueIdentifier());
+        for (TDMGPEntry entry : instance.getEntries()) {
+            assertTrue(entry.getSlabPosition() >= 10);
+            assertTrue((entry.getSlabPosition() + mplsPackets[0].getSerializedSize()) <= (assignedOctets + 10));
+        }
+    }
+
+    /**
+     * Test of getEntries method, of class TDMGPFlowEntry, when the entries
+     * are evicted after being obtained.
+     */
+    @Test
+    public void testGetEntriesWhenEvictedFromSlab() {
+        System.out.println("Test getEntries()");
+        TMPLSPDU[] mplsPackets = new TMPLSPDU[4];
+        for (int i = 0; i < mplsPackets.length; i++) {
+            mplsPackets[i] = new TMPLSPDU(i, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 0);
+            mplsPackets[i].getIPv4Header().setPacketLocalUniqueIdentifier(i);
+        }
+        int assignedOctets = mplsPackets[0].getSize() * 2;
+        ByteBuffer slab = ByteBuffer.allocateDirect(assignedOctets);
+        TDMGPFlowEntry instance = new TDMGPFlowEntry(465);
+        instance.setAssignedOctets(assignedOctets);
+        instance.setAssignedPercentage(100);
+        instance.setUsedOctets(0);
+        instance.setFlowID(TIPv4Address.fromString("10.0.0.1"));
+        instance.setSlab(slab, 0);
+        instance.addPacket(mplsPackets[0]);
+        instance.addPacket(mplsPackets[1]);
+        List<TDMGPEntry> entries = instance.getEntries();
+        assertEquals(2, entries.size());
+        assertFalse(entries.get(0).isEvicted());
+        // The regions of both packets are reused by the new ones
+        instance.addPacket(mplsPackets[2]);
+        instance.addPacket(mplsPackets[3]);
+        for (TDMGPEntry entry : entries) {
+            assertTrue(entry.isEvicted());
+            assertNull(entry.getPacketClone());
+        }
+        for (TDMGPEntry entry : instance.getEntries()) {
+            assertFalse(entry.isEvicted());
+            assertNotNull(entry.getPacketClone());
+        }
+    }
+
+    /**
+     * Test of setSlab method, of class TDMGPFlowEntry.
+     */
+    @Test
+    public void testSetSlabWhenRegionOutOfSlab() {
+        System.out.println("Test setSlab()");
+        TDMGPFlowEntry instance = new TDMGPFlowEntry(465);
+        instance.setAssignedOctets(1024);
+        ByteBuffer slab = ByteBuffer.allocateDirect(1024);
+        assertThrows(IllegalArgumentException.class, () -> {
+            instance.setSlab(slab, 1); // Should throw an exception
+        });
+    }
+
+    /**
+     * Test of getPacketClone method, of class TDMGPFlowEntry.
+     */
+    @Test
+    public void testGetPacketClone() {
+        System.out.println("Test getPacketClone()");
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+        mplsPacket1.getIPv4Header().setPacketLocalUniqueIdentifier(1);
+        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+        mplsPacket2.getIPv4Header().setPacketLocalUniqueIdentifier(2);
+        TDMGPFlowEntry instance = new TDMGPFlowEntry(465);
+        instance.setAssignedOctets(1024 * 1024);
+        instance.setAssignedPercentage(100);
+        instance.setUsedOctets(0);
+        instance.setFlowID(TIPv4Address.fromString("10.0.0.1"));
+        instance.addPacket(mplsPacket1);
+        instance.addPacket(mplsPacket2);
+        TMPLSPDU result = instance.getPacketClone(mplsPacket2.getIPv4Header().getGoSGlobalUniqueIdentifier());
+        assertNotNull(result);
+        assertEquals(2, result.getID());
+        assertNotSame(mplsPacket2, result);
+    }
+
+    /**
+     * Test of getPacketClone method, of class TDMGPFlowEntry.
+     */
+    @Test
+    public void testGetPacketCloneWhenNotFound() {
+        System.out.println("Test getPacketClone()");
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+        mplsPacket1.getIPv4Header().setPacketLocalUniqueIdentifier(1);
+        TDMGPFlowEntry instance = new TDMGPFlowEntry(465);
+        instance.setAssignedOctets(1024 * 1024);
+        instance.setAssignedPercentage(100);
+        instance.setUsedOctets(0);
+        instance.setFlowID(TIPv4Address.fromString("10.0.0.1"));
+        instance.addPacket(mplsPacket1);
+        assertNull(instance.getPacketClone(TIPv4Header.composeGoSGlobalUniqueIdentifier(TIPv4Address.fromString("10.0.0.1"), 2)));
+    }
+
     /**
      * Test of addPacket method, of class TDMGPFlowEntry.
      */
@@ -15,6 +15,7 @@
  */
 package com.manolodominguez.opensimmpls.hardware.dmgp;
 
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
 import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
 import com.manolodominguez.opensimmpls.protocols.TMPLSLabel;
 import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
@@ -110,10 +111,10 @@ public class TDMGPTest {
         TDMGP instance = new TDMGP();
         instance.setDMGPSizeInKB(10);
                
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket1.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket1.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket1.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(1);
+        mplsPacket1.getIPv4Header().setPacketLocalUniqueIdentifier(1);
         TMPLSLabel bottomOutgoingMPLSLabel1 = new TMPLSLabel();
         bottomOutgoingMPLSLabel1.setBoS(true);
         bottomOutgoingMPLSLabel1.setEXP(0);
@@ -129,10 +130,77 @@ public class TDMGPTest {
 
         instance.addPacket(mplsPacket1);
         
-        TMPLSPDU result = instance.getPacket("10.0.0.1".hashCode(), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier());
+        TMPLSPDU result = instance.getPacket(TIPv4Address.fromString("10.0.0.1"), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier());
         assertTrue(result instanceof TMPLSPDU);
     }
 
+    /**
+     * Test of getPacket method, of class TDMGP.
+     */
+    @Test
+    public void testGetPacketWhenOffHeapStorage() {
+        System.out.println("Test getPacket");
+
+        TDMGP instance = new TDMGP();
+        instance.setDMGPSizeInKB(10);
+        instance.setOffHeapStorage(true);
+
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
+        mplsPacket1.setSubtype(TAbstractPDU.MPLS_GOS);
+        mplsPacket1.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
+        mplsPacket1.getIPv4Header().setPacketLocalUniqueIdentifier(1);
+        mplsPacket1.getIPv4Header().getOptionsField().setCrossedActiveNode(TIPv4Address.fromString("10.0.0.3"));
+        TMPLSLabel bottomOutgoingMPLSLabel1 = new TMPLSLabel();
+        bottomOutgoingMPLSLabel1.setBoS(true);
+        bottomOutgoingMPLSLabel1.setEXP(0);
+        bottomOutgoingMPLSLabel1.setLabel(123);
+        bottomOutgoingMPLSLabel1.setTTL(mplsPacket1.getIPv4Header().getTTL());
+        TMPLSLabel upperOutgoingMPLSLabel1 = new TMPLSLabel();
+        upperOutgoingMPLSLabel1.setBoS(false);
+        upperOutgoingMPLSLabel1.setEXP(mplsPacket1.getIPv4Header().getOptionsField().getRequestedGoSLevel());
+        upperOutgoingMPLSLabel1.setLabel(1);
+        upperOutgoingMPLSLabel1.setTTL(mplsPacket1.getIPv4Header().getTTL());
+        mplsPacket1.getLabelStack().pushTop(bottomOutgoingMPLSLabel1);
+        mplsPacket1.getLabelStack().pushTop(upperOutgoingMPLSLabel1);
+
+        instance.addPacket(mplsPacket1);
+        // The stored packet must not change with the original one
+        mplsPacket1.getLabelStack().getTop().setLabel(2);
+
+        TMPLSPDU result = instance.getPacket(TIPv4Address.fromString("10.0.0.1"), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier());
+        assertNotNull(result);
+        assertEquals(1, result.getID());
+        assertEquals(TIPv4Address.fromString("10.0.0.1"), result.getIPv4Header().getOriginIPv4Address());
+        assertEquals(TIPv4Address.fromString("10.0.0.2"), result.getIPv4Header().getTailEndIPAddress());
+        assertEquals(mplsPacket1.getSize(), result.getSize());
+        assertEquals(mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier(), result.getIPv4Header().getGoSGlobalUniqueIdentifier());
+        assertEquals(7, result.getIPv4Header().getOptionsField().getRequestedGoSLevel());
+        assertEquals(1, result.getIPv4Header().getOptionsField().getNumberOfCrossedActiveNodes());
+        assertEquals(TIPv4Address.fromString("10.0.0.3"), result.getIPv4Header().getOptionsField().getCrossedActiveNode(0));
+        assertEquals(2, result.getLabelStack().getSize());
+        assertEquals(1, result.getLabelStack().getTop().getLabel());
+        assertEquals(7, result.getLabelStack().getTop().getEXP());
+        assertFalse(result.getLabelStack().getTop().getBoS());
+        result.getLabelStack().popTop();
+        assertEquals(123, result.getLabelStack().getTop().getLabel());
+        assertEquals(mplsPacket1.getIPv4Header().getTTL(), result.getLabelStack().getTop().getTTL());
+        assertTrue(result.getLabelStack().getTop().getBoS());
+    }
+
+    /**
+     * Test of setOffHeapStorage method, of class TDMGP.
+     */
+    @Test
+    public void testSetOffHeapStorage() {
+        System.out.println("Test setOffHeapStorage");
+        TDMGP instance = new TDMGP();
+        assertFalse(instance.isOffHeapStorage());
+        instance.setOffHeapStorage(true);
+        assertTrue(instance.isOffHeapStorage());
+        instance.setOffHeapStorage(false);
+        assertFalse(instance.isOffHeapStorage());
+    }
+
     /**
      * Test of getPacket method, of class TDMGP.
      */
@@ -143,10 +211,10 @@ public class TDMGPTest {
         TDMGP instance = new TDMGP();
         instance.setDMGPSizeInKB(10);
                
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket1.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket1.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket1.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(1);
+        mplsPacket1.getIPv4Header().setPacketLocalUniqueIdentifier(1);
         TMPLSLabel bottomOutgoingMPLSLabel1 = new TMPLSLabel();
         bottomOutgoingMPLSLabel1.setBoS(true);
         bottomOutgoingMPLSLabel1.setEXP(0);
@@ -162,7 +230,7 @@ public class TDMGPTest {
 
         instance.addPacket(mplsPacket1);
         
-        TMPLSPDU result = instance.getPacket("10.0.0.45".hashCode(), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier());
+        TMPLSPDU result = instance.getPacket(TIPv4Address.fromString("10.0.0.45"), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier());
         assertEquals(null, result);
     }
 
@@ -175,10 +243,10 @@ public class TDMGPTest {
         TDMGP instance = new TDMGP();
         instance.setDMGPSizeInKB(10);
                
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket1.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket1.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket1.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(1);
+        mplsPacket1.getIPv4Header().setPacketLocalUniqueIdentifier(1);
         TMPLSLabel bottomOutgoingMPLSLabel1 = new TMPLSLabel();
         bottomOutgoingMPLSLabel1.setBoS(true);
         bottomOutgoingMPLSLabel1.setEXP(0);
@@ -194,7 +262,7 @@ public class TDMGPTest {
 
         instance.addPacket(mplsPacket1);
         
-        TMPLSPDU result = instance.getPacket("10.0.0.1".hashCode(), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier());
+        TMPLSPDU result = instance.getPacket(TIPv4Address.fromString("10.0.0.1"), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier());
         assertTrue(result instanceof TMPLSPDU);
     }
 
@@ -220,10 +288,10 @@ public class TDMGPTest {
         TDMGP instance = new TDMGP();
         instance.setDMGPSizeInKB(1);
                
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket1.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket1.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket1.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(1);
+        mplsPacket1.getIPv4Header().setPacketLocalUniqueIdentifier(1);
         TMPLSLabel bottomOutgoingMPLSLabel1 = new TMPLSLabel();
         bottomOutgoingMPLSLabel1.setBoS(true);
         bottomOutgoingMPLSLabel1.setEXP(0);
@@ -239,7 +307,7 @@ public class TDMGPTest {
 
         instance.addPacket(mplsPacket1);
         
-        TMPLSPDU result = instance.getPacket("10.0.0.1".hashCode(), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier());
+        TMPLSPDU result = instance.getPacket(TIPv4Address.fromString("10.0.0.1"), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier());
         assertEquals(null, result);
     }
 
@@ -15,6 +15,7 @@
  */
 package com.manolodominguez.opensimmpls.hardware.dmgp;
 
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -213,8 +214,8 @@ public class TGPSRPRequestEntryTest {
         System.out.println("Test setCrossedNodeIP");
         int arrivalOrder = 345; // It could be any other
         TGPSRPRequestEntry instance = new TGPSRPRequestEntry(arrivalOrder);
-        instance.setCrossedNodeIP("10.0.0.1");
-        assertEquals("10.0.0.1", instance.getNextNearestCrossedActiveNodeIPv4());
+        instance.setCrossedNodeIP(TIPv4Address.fromString("10.0.0.1"));
+        assertEquals(TIPv4Address.fromString("10.0.0.1"), instance.getNextNearestCrossedActiveNodeIPv4());
     }
 
     /**
@@ -226,12 +227,12 @@ public class TGPSRPRequestEntryTest {
         boolean worksFine = true;
         int arrivalOrder = 345; // It could be any other
         TGPSRPRequestEntry instance = new TGPSRPRequestEntry(arrivalOrder);
-        instance.setCrossedNodeIP("10.0.0.1");
-        instance.setCrossedNodeIP("10.0.0.2");
-        if (!instance.getNextNearestCrossedActiveNodeIPv4().equals("10.0.0.2")) {
+        instance.setCrossedNodeIP(TIPv4Address.fromString("10.0.0.1"));
+        instance.setCrossedNodeIP(TIPv4Address.fromString("10.0.0.2"));
+        if (instance.getNextNearestCrossedActiveNodeIPv4() != TIPv4Address.fromString("10.0.0.2")) {
             worksFine = false;
         }
-        if (!instance.getNextNearestCrossedActiveNodeIPv4().equals("10.0.0.1")) {
+        if (instance.getNextNearestCrossedActiveNodeIPv4() != TIPv4Address.fromString("10.0.0.1")) {
             worksFine = false;
         }
         assertTrue(worksFine);
@@ -241,25 +242,12 @@ public class TGPSRPRequestEntryTest {
      * Test of setCrossedNodeIP method, of class TGPSRPRequestEntry.
      */
     @Test
-    public void testSetCrossedNodeIPWhenEmpty() {
+    public void testSetCrossedNodeIPWhenUnspecified() {
         System.out.println("Test setCrossedNodeIP");
         int arrivalOrder = 345; // It could be any other
         TGPSRPRequestEntry instance = new TGPSRPRequestEntry(arrivalOrder);
         assertThrows(RuntimeException.class, () -> {
-            instance.setCrossedNodeIP("");// Should throw an exception. It's not initialized
-        });
-    }
-
-    /**
-     * Test of setCrossedNodeIP method, of class TGPSRPRequestEntry.
-     */
-    @Test
-    public void testSetCrossedNodeIPWhenNull() {
-        System.out.println("Test setCrossedNodeIP");
-        int arrivalOrder = 345; // It could be any other
-        TGPSRPRequestEntry instance = new TGPSRPRequestEntry(arrivalOrder);
-        assertThrows(RuntimeException.class, () -> {
-            instance.setCrossedNodeIP(null);// Should throw an exception. It's not initialized
+            instance.setCrossedNodeIP(TIPv4Address.UNSPECIFIED);// Should throw an exception
         });
     }
 
@@ -273,61 +261,25 @@ public class TGPSRPRequestEntryTest {
         int arrivalOrder = 345; // It could be any other
         TGPSRPRequestEntry instance = new TGPSRPRequestEntry(arrivalOrder);
         try {
-            instance.setCrossedNodeIP("This is not a valid IP");
-            worksFine = false;
-        } catch (RuntimeException ex) {
-            worksFine &= true;
-        }
-        try {
-            instance.setCrossedNodeIP("10.0.0.0");
-            worksFine = false;
-        } catch (RuntimeException ex) {
-            worksFine &= true;
-        }
-        try {
-            instance.setCrossedNodeIP("10.255.255.255");
-            worksFine = false;
-        } catch (RuntimeException ex) {
-            worksFine &= true;
-        }
-        try {
-            instance.setCrossedNodeIP("10.256.0.0");
-            worksFine = false;
-        } catch (RuntimeException ex) {
-            worksFine &= true;
-        }
-        try {
-            instance.setCrossedNodeIP("10.0.256.0");
-            worksFine = false;
-        } catch (RuntimeException ex) {
-            worksFine &= true;
-        }
-        try {
-            instance.setCrossedNodeIP("10.0.0.256");
+            instance.setCrossedNodeIP(TIPv4Address.fromString("10.0.0.0"));
             worksFine = false;
         } catch (RuntimeException ex) {
             worksFine &= true;
         }
         try {
-            instance.setCrossedNodeIP("12.0.0.1");
+            instance.setCrossedNodeIP(TIPv4Address.fromString("10.255.255.255"));
             worksFine = false;
         } catch (RuntimeException ex) {
             worksFine &= true;
         }
         try {
-            instance.setCrossedNodeIP("10.-1.0.0");
+            instance.setCrossedNodeIP(TIPv4Address.fromString("12.0.0.1"));
             worksFine = false;
         } catch (RuntimeException ex) {
             worksFine &= true;
         }
         try {
-            instance.setCrossedNodeIP("10.0.-1.0");
-            worksFine = false;
-        } catch (RuntimeException ex) {
-            worksFine &= true;
-        }
-        try {
-            instance.setCrossedNodeIP("10.0.0.-1");
+            instance.setCrossedNodeIP(0xFFFFFFFF);
             worksFine = false;
         } catch (RuntimeException ex) {
             worksFine &= true;
@@ -344,8 +296,8 @@ public class TGPSRPRequestEntryTest {
         System.out.println("Test getNextNearestCrossedNodeIPv4()");
         int arrivalOrder = 345; // It could be any other
         TGPSRPRequestEntry instance = new TGPSRPRequestEntry(arrivalOrder);
-        instance.setCrossedNodeIP("10.0.0.1");
-        assertTrue(instance.getNextNearestCrossedActiveNodeIPv4().equals("10.0.0.1"));
+        instance.setCrossedNodeIP(TIPv4Address.fromString("10.0.0.1"));
+        assertEquals(TIPv4Address.fromString("10.0.0.1"), instance.getNextNearestCrossedActiveNodeIPv4());
     }
 
     /**
@@ -371,7 +323,7 @@ public class TGPSRPRequestEntryTest {
         boolean result = true;
         int arrivalOrder = 345; // It could be any other
         TGPSRPRequestEntry instance = new TGPSRPRequestEntry(arrivalOrder);
-        instance.setCrossedNodeIP("10.0.0.1");
+        instance.setCrossedNodeIP(TIPv4Address.fromString("10.0.0.1"));
         instance.decreaseTimeout(50000); // Attempts 8, Timeout = 0
         instance.resetTimeoutAndDecreaseAttempts(); // Attempts 7, Timeout = 50.000
         instance.decreaseTimeout(50000); // // Attempts 7, Timeout = 0
@@ -425,7 +377,7 @@ public class TGPSRPRequestEntryTest {
         boolean result = true;
         int arrivalOrder = 345; // It could be any other
         TGPSRPRequestEntry instance = new TGPSRPRequestEntry(arrivalOrder);
-        instance.setCrossedNodeIP("10.0.0.1");
+        instance.setCrossedNodeIP(TIPv4Address.fromString("10.0.0.1"));
         instance.decreaseTimeout(50000); // Attempts 8, Timeout = 0
         instance.resetTimeoutAndDecreaseAttempts(); // Attempts 7, Timeout = 50.000
         instance.decreaseTimeout(50000); // // Attempts 7, Timeout = 0
@@ -456,7 +408,7 @@ public class TGPSRPRequestEntryTest {
         boolean result = true;
         int arrivalOrder = 345; // It could be any other
         TGPSRPRequestEntry instance = new TGPSRPRequestEntry(arrivalOrder);
-        instance.setCrossedNodeIP("10.0.0.1");
+        instance.setCrossedNodeIP(TIPv4Address.fromString("10.0.0.1"));
         instance.forceTimeoutReset(); // Attempts 7, Timeout = 50.000
         instance.forceTimeoutReset(); // Attempts 6, Timeout = 50.000
         instance.forceTimeoutReset(); // Attempts 5, Timeout = 50.000
@@ -480,7 +432,7 @@ public class TGPSRPRequestEntryTest {
         System.out.println("Test isRetriable");
         int arrivalOrder = 345; // It could be any other
         TGPSRPRequestEntry instance = new TGPSRPRequestEntry(arrivalOrder);
-        instance.setCrossedNodeIP("10.0.0.1");
+        instance.setCrossedNodeIP(TIPv4Address.fromString("10.0.0.1"));
         // At this poing, Attempts = 8 and Timeout = 50.000 so, not retriable
         assertFalse(instance.isRetriable());
     }
@@ -507,7 +459,7 @@ public class TGPSRPRequestEntryTest {
         System.out.println("Test isRetriable");
         int arrivalOrder = 345; // It could be any other
         TGPSRPRequestEntry instance = new TGPSRPRequestEntry(arrivalOrder);
-        instance.setCrossedNodeIP("10.0.0.1");
+        instance.setCrossedNodeIP(TIPv4Address.fromString("10.0.0.1"));
         instance.decreaseTimeout(50000); // Attempts 8, Timeout = 0 --> Retriable
         assertTrue(instance.isRetriable());
     }
@@ -520,7 +472,7 @@ public class TGPSRPRequestEntryTest {
         System.out.println("Test canBePurged");
         int arrivalOrder = 345; // It could be any other
         TGPSRPRequestEntry instance = new TGPSRPRequestEntry(arrivalOrder);
-        instance.setCrossedNodeIP("10.0.0.1");
+        instance.setCrossedNodeIP(TIPv4Address.fromString("10.0.0.1"));
         instance.forceTimeoutReset(); // Attempts 7, Timeout = 50.000
         instance.forceTimeoutReset(); // Attempts 6, Timeout = 50.000
         instance.forceTimeoutReset(); // Attempts 5, Timeout = 50.000
@@ -543,7 +495,7 @@ public class TGPSRPRequestEntryTest {
         boolean result = false;
         int arrivalOrder = 345; // It could be any other
         TGPSRPRequestEntry instance = new TGPSRPRequestEntry(arrivalOrder);
-        instance.setCrossedNodeIP("10.0.0.1");
+        instance.setCrossedNodeIP(TIPv4Address.fromString("10.0.0.1"));
         // There are crossed nodes
         result |= instance.canBePurged(); // Attempts 8, Timeout = 50.000 --> Cannot be purged
         instance.decreaseTimeout(50000); // Attempts 8, Timeout = 0 --> Cannot be purged
@@ -600,6 +552,53 @@ public class TGPSRPRequestEntryTest {
         assertEquals(true, worksFineInAllCases);
     }
 
+    /**
+     * Test of getNumberOfIdleTicks method, of class TGPSRPRequestEntry.
+     */
+    @Test
+    public void testGetNumberOfIdleTicks() {
+        System.out.println("Test getNumberOfIdleTicks");
+        boolean worksFineInAllCases = true;
+        int arrivalOrder = 345; // It could be any other
+        TGPSRPRequestEntry instance = new TGPSRPRequestEntry(arrivalOrder);
+        instance.setCrossedNodeIP(TIPv4Address.fromString("10.0.0.1")); // Attempts 8, Timeout = 50.000
+        if (instance.getNumberOfIdleTicks(100) != 499) { // The tick 500 makes the timeout expire
+            worksFineInAllCases = false;
+        }
+        if (instance.getNumberOfIdleTicks(300) != 166) { // 166 x 300 = 49.800
+            worksFineInAllCases = false;
+        }
+        instance.decreaseTimeout(50000); // Attempts 8, Timeout = 0
+        if (instance.getNumberOfIdleTicks(100) != 0) { // Should be retried in the next tick
+            worksFineInAllCases = false;
+        }
+        assertTrue(worksFineInAllCases);
+    }
+
+    /**
+     * Test of getNumberOfIdleTicks method, of class TGPSRPRequestEntry.
+     */
+    @Test
+    public void testGetNumberOfIdleTicksWhenNotCrossedNodes() {
+        System.out.println("Test getNumberOfIdleTicks");
+        int arrivalOrder = 345; // It could be any other
+        TGPSRPRequestEntry instance = new TGPSRPRequestEntry(arrivalOrder);
+        assertEquals(0, instance.getNumberOfIdleTicks(100)); // Should be purged in the next tick
+    }
+
+    /**
+     * Test of getNumberOfIdleTicks method, of class TGPSRPRequestEntry.
+     */
+    @Test
+    public void testGetNumberOfIdleTicksWhenOutOfRange() {
+        System.out.println("Test getNumberOfIdleTicks");
+        int arrivalOrder = 345; // It could be any other
+        TGPSRPRequestEntry instance = new TGPSRPRequestEntry(arrivalOrder);
+        assertThrows(RuntimeException.class, () -> {
+            instance.getNumberOfIdleTicks(0); // Not possible. Should throws an exception
+        });
+    }
+
     /**
      * Test of compareTo method, of class TGPSRPRequestEntry.
      */
@@ -15,6 +15,7 @@
  */
 package com.manolodominguez.opensimmpls.hardware.dmgp;
 
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
 import com.manolodominguez.opensimmpls.commons.TSemaphore;
 import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
 import com.manolodominguez.opensimmpls.protocols.TMPLSLabel;
@@ -69,7 +70,7 @@ public class TGPSRPRequestsMatrixTest {
     public void testReset() {
         System.out.println("Test reset");
         TGPSRPRequestsMatrix instance = new TGPSRPRequestsMatrix();
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         instance.addEntry(mplsPacket, 0);
         instance.reset();
         assertFalse(instance.getEntriesIterator().hasNext());
@@ -83,15 +84,15 @@ public class TGPSRPRequestsMatrixTest {
         System.out.println("Test updateOutgoingPort");
         boolean worksFine = true;
         TGPSRPRequestsMatrix instance = new TGPSRPRequestsMatrix();
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
-        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, "10.0.0.1", "10.0.0.2", 1024);
-        TMPLSPDU mplsPacket3 = new TMPLSPDU(3, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+        TMPLSPDU mplsPacket3 = new TMPLSPDU(3, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         instance.addEntry(mplsPacket1, 0);
         instance.addEntry(mplsPacket1, 1);
         instance.addEntry(mplsPacket1, 2);
-        TGPSRPRequestEntry entry1 = instance.getEntry("10.0.0.1".hashCode(), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier());
-        TGPSRPRequestEntry entry2 = instance.getEntry("10.0.0.1".hashCode(), mplsPacket2.getIPv4Header().getGoSGlobalUniqueIdentifier());
-        TGPSRPRequestEntry entry3 = instance.getEntry("10.0.0.1".hashCode(), mplsPacket3.getIPv4Header().getGoSGlobalUniqueIdentifier());
+        TGPSRPRequestEntry entry1 = instance.getEntry(TIPv4Address.fromString("10.0.0.1"), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier());
+        TGPSRPRequestEntry entry2 = instance.getEntry(TIPv4Address.fromString("10.0.0.1"), mplsPacket2.getIPv4Header().getGoSGlobalUniqueIdentifier());
+        TGPSRPRequestEntry entry3 = instance.getEntry(TIPv4Address.fromString("10.0.0.1"), mplsPacket3.getIPv4Header().getGoSGlobalUniqueIdentifier());
         if ((entry1 != null) && (entry2 != null) && (entry3 != null)) {
             instance.updateOutgoingPort(0, 2);
             instance.updateOutgoingPort(1, 2);
@@ -111,7 +112,7 @@ public class TGPSRPRequestsMatrixTest {
     public void testUpdateOutgoingPortWhenOutOfRange1() {
         System.out.println("Test updateOutgoingPort");
         TGPSRPRequestsMatrix instance = new TGPSRPRequestsMatrix();
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         instance.addEntry(mplsPacket1, 0);
         assertThrows(RuntimeException.class, () -> {
             instance.updateOutgoingPort(-1, 2); // Not possible. Should throws an exception
@@ -125,7 +126,7 @@ public class TGPSRPRequestsMatrixTest {
     public void testUpdateOutgoingPortWhenOutOfRange2() {
         System.out.println("Test updateOutgoingPort");
         TGPSRPRequestsMatrix instance = new TGPSRPRequestsMatrix();
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         instance.addEntry(mplsPacket1, 0);
         assertThrows(RuntimeException.class, () -> {
             instance.updateOutgoingPort(0, -1); // Not possible. Should throws an exception
@@ -143,10 +144,10 @@ public class TGPSRPRequestsMatrixTest {
         int numberOfEntries = 0;
         TGPSRPRequestsMatrix instance = new TGPSRPRequestsMatrix();
 
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket1.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket1.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket1.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(1);
+        mplsPacket1.getIPv4Header().setPacketLocalUniqueIdentifier(1);
         TMPLSLabel bottomOutgoingMPLSLabel1 = new TMPLSLabel();
         bottomOutgoingMPLSLabel1.setBoS(true);
         bottomOutgoingMPLSLabel1.setEXP(0);
@@ -160,10 +161,10 @@ public class TGPSRPRequestsMatrixTest {
         mplsPacket1.getLabelStack().pushTop(bottomOutgoingMPLSLabel1);
         mplsPacket1.getLabelStack().pushTop(upperOutgoingMPLSLabel1);
 
-        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket2.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket2.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket2.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(2);
+        mplsPacket2.getIPv4Header().setPacketLocalUniqueIdentifier(2);
         TMPLSLabel bottomOutgoingMPLSLabel2 = new TMPLSLabel();
         bottomOutgoingMPLSLabel2.setBoS(true);
         bottomOutgoingMPLSLabel2.setEXP(0);
@@ -177,10 +178,10 @@ public class TGPSRPRequestsMatrixTest {
         mplsPacket2.getLabelStack().pushTop(bottomOutgoingMPLSLabel2);
         mplsPacket2.getLabelStack().pushTop(upperOutgoingMPLSLabel2);
 
-        TMPLSPDU mplsPacket3 = new TMPLSPDU(3, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket3 = new TMPLSPDU(3, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket3.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket3.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket3.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(3);
+        mplsPacket3.getIPv4Header().setPacketLocalUniqueIdentifier(3);
         TMPLSLabel bottomOutgoingMPLSLabel3 = new TMPLSLabel();
         bottomOutgoingMPLSLabel3.setBoS(true);
         bottomOutgoingMPLSLabel3.setEXP(0);
@@ -218,10 +219,10 @@ public class TGPSRPRequestsMatrixTest {
 
         TGPSRPRequestsMatrix instance = new TGPSRPRequestsMatrix();
 
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket1.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket1.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket1.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(1);
+        mplsPacket1.getIPv4Header().setPacketLocalUniqueIdentifier(1);
         TMPLSLabel bottomOutgoingMPLSLabel1 = new TMPLSLabel();
         bottomOutgoingMPLSLabel1.setBoS(true);
         bottomOutgoingMPLSLabel1.setEXP(0);
@@ -252,10 +253,10 @@ public class TGPSRPRequestsMatrixTest {
         int numberOfEntries = 0;
         TGPSRPRequestsMatrix instance = new TGPSRPRequestsMatrix();
 
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket1.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket1.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket1.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(1);
+        mplsPacket1.getIPv4Header().setPacketLocalUniqueIdentifier(1);
         TMPLSLabel bottomOutgoingMPLSLabel1 = new TMPLSLabel();
         bottomOutgoingMPLSLabel1.setBoS(true);
         bottomOutgoingMPLSLabel1.setEXP(0);
@@ -269,10 +270,10 @@ public class TGPSRPRequestsMatrixTest {
         mplsPacket1.getLabelStack().pushTop(bottomOutgoingMPLSLabel1);
         mplsPacket1.getLabelStack().pushTop(upperOutgoingMPLSLabel1);
 
-        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket2.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket2.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket2.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(2);
+        mplsPacket2.getIPv4Header().setPacketLocalUniqueIdentifier(2);
         TMPLSLabel bottomOutgoingMPLSLabel2 = new TMPLSLabel();
         bottomOutgoingMPLSLabel2.setBoS(true);
         bottomOutgoingMPLSLabel2.setEXP(0);
@@ -299,8 +300,8 @@ public class TGPSRPRequestsMatrixTest {
             worksFine = false;
         }
 
-        TGPSRPRequestEntry auxEntry1 = instance.getEntry("10.0.0.1".hashCode(), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier());
-        TGPSRPRequestEntry auxEntry2 = instance.getEntry("10.0.0.1".hashCode(), mplsPacket2.getIPv4Header().getGoSGlobalUniqueIdentifier());
+        TGPSRPRequestEntry auxEntry1 = instance.getEntry(TIPv4Address.fromString("10.0.0.1"), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier());
+        TGPSRPRequestEntry auxEntry2 = instance.getEntry(TIPv4Address.fromString("10.0.0.1"), mplsPacket2.getIPv4Header().getGoSGlobalUniqueIdentifier());
 
         if ((auxEntry1 == null) || (auxEntry2 == null)) {
             worksFine = false;
@@ -329,10 +330,10 @@ public class TGPSRPRequestsMatrixTest {
         System.out.println("Test addEntry");
         TGPSRPRequestsMatrix instance = new TGPSRPRequestsMatrix();
 
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket1.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket1.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket1.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(1);
+        mplsPacket1.getIPv4Header().setPacketLocalUniqueIdentifier(1);
         TMPLSLabel bottomOutgoingMPLSLabel1 = new TMPLSLabel();
         bottomOutgoingMPLSLabel1.setBoS(true);
         bottomOutgoingMPLSLabel1.setEXP(0);
@@ -361,10 +362,10 @@ public class TGPSRPRequestsMatrixTest {
         int numberOfEntries = 0;
         TGPSRPRequestsMatrix instance = new TGPSRPRequestsMatrix();
 
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket1.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket1.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket1.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(1);
+        mplsPacket1.getIPv4Header().setPacketLocalUniqueIdentifier(1);
         TMPLSLabel bottomOutgoingMPLSLabel1 = new TMPLSLabel();
         bottomOutgoingMPLSLabel1.setBoS(true);
         bottomOutgoingMPLSLabel1.setEXP(0);
@@ -380,7 +381,7 @@ public class TGPSRPRequestsMatrixTest {
 
         instance.addEntry(mplsPacket1, 0);
 
-        instance.removeEntry("10.0.0.1".hashCode(), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier());
+        instance.removeEntry(TIPv4Address.fromString("10.0.0.1"), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier());
 
         Iterator<TGPSRPRequestEntry> iterator = instance.getEntriesIterator();
         while (iterator.hasNext()) {
@@ -399,10 +400,10 @@ public class TGPSRPRequestsMatrixTest {
 
         TGPSRPRequestsMatrix instance = new TGPSRPRequestsMatrix();
 
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket1.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket1.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket1.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(1);
+        mplsPacket1.getIPv4Header().setPacketLocalUniqueIdentifier(1);
         TMPLSLabel bottomOutgoingMPLSLabel1 = new TMPLSLabel();
         bottomOutgoingMPLSLabel1.setBoS(true);
         bottomOutgoingMPLSLabel1.setEXP(0);
@@ -416,10 +417,10 @@ public class TGPSRPRequestsMatrixTest {
         mplsPacket1.getLabelStack().pushTop(bottomOutgoingMPLSLabel1);
         mplsPacket1.getLabelStack().pushTop(upperOutgoingMPLSLabel1);
 
-        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket2.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket2.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket2.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(2);
+        mplsPacket2.getIPv4Header().setPacketLocalUniqueIdentifier(2);
         TMPLSLabel bottomOutgoingMPLSLabel2 = new TMPLSLabel();
         bottomOutgoingMPLSLabel2.setBoS(true);
         bottomOutgoingMPLSLabel2.setEXP(0);
@@ -433,10 +434,10 @@ public class TGPSRPRequestsMatrixTest {
         mplsPacket2.getLabelStack().pushTop(bottomOutgoingMPLSLabel2);
         mplsPacket2.getLabelStack().pushTop(upperOutgoingMPLSLabel2);
 
-        TMPLSPDU mplsPacket3 = new TMPLSPDU(3, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket3 = new TMPLSPDU(3, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket3.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket3.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket3.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(3);
+        mplsPacket3.getIPv4Header().setPacketLocalUniqueIdentifier(3);
         TMPLSLabel bottomOutgoingMPLSLabel3 = new TMPLSLabel();
         bottomOutgoingMPLSLabel3.setBoS(true);
         bottomOutgoingMPLSLabel3.setEXP(0);
@@ -454,7 +455,7 @@ public class TGPSRPRequestsMatrixTest {
         instance.addEntry(mplsPacket2, 2);
         instance.addEntry(mplsPacket3, 3);
 
-        TGPSRPRequestEntry auxEntry = instance.getEntry("10.0.0.1".hashCode(), mplsPacket2.getIPv4Header().getGoSGlobalUniqueIdentifier());
+        TGPSRPRequestEntry auxEntry = instance.getEntry(TIPv4Address.fromString("10.0.0.1"), mplsPacket2.getIPv4Header().getGoSGlobalUniqueIdentifier());
 
         assertEquals(2, auxEntry.getOutgoingPortID());
     }
@@ -468,10 +469,10 @@ public class TGPSRPRequestsMatrixTest {
 
         TGPSRPRequestsMatrix instance = new TGPSRPRequestsMatrix();
 
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket1.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket1.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket1.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(1);
+        mplsPacket1.getIPv4Header().setPacketLocalUniqueIdentifier(1);
         TMPLSLabel bottomOutgoingMPLSLabel1 = new TMPLSLabel();
         bottomOutgoingMPLSLabel1.setBoS(true);
         bottomOutgoingMPLSLabel1.setEXP(0);
@@ -487,7 +488,7 @@ public class TGPSRPRequestsMatrixTest {
 
         instance.addEntry(mplsPacket1, 0);
 
-        TGPSRPRequestEntry auxEntry = instance.getEntry("10.0.0.2".hashCode(), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier());
+        TGPSRPRequestEntry auxEntry = instance.getEntry(TIPv4Address.fromString("10.0.0.2"), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier());
 
         assertEquals(null, auxEntry);
     }
@@ -502,10 +503,10 @@ public class TGPSRPRequestsMatrixTest {
         int numberOfEntries = 0;
         TGPSRPRequestsMatrix instance = new TGPSRPRequestsMatrix();
 
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket1.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket1.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket1.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(1);
+        mplsPacket1.getIPv4Header().setPacketLocalUniqueIdentifier(1);
         TMPLSLabel bottomOutgoingMPLSLabel1 = new TMPLSLabel();
         bottomOutgoingMPLSLabel1.setBoS(true);
         bottomOutgoingMPLSLabel1.setEXP(0);
@@ -518,12 +519,12 @@ public class TGPSRPRequestsMatrixTest {
         upperOutgoingMPLSLabel1.setTTL(mplsPacket1.getIPv4Header().getTTL());
         mplsPacket1.getLabelStack().pushTop(bottomOutgoingMPLSLabel1);
         mplsPacket1.getLabelStack().pushTop(upperOutgoingMPLSLabel1);
-        mplsPacket1.getIPv4Header().getOptionsField().setCrossedActiveNode("10.0.0.3");
+        mplsPacket1.getIPv4Header().getOptionsField().setCrossedActiveNode(TIPv4Address.fromString("10.0.0.3"));
 
-        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket2.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket2.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket2.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(2);
+        mplsPacket2.getIPv4Header().setPacketLocalUniqueIdentifier(2);
         TMPLSLabel bottomOutgoingMPLSLabel2 = new TMPLSLabel();
         bottomOutgoingMPLSLabel2.setBoS(true);
         bottomOutgoingMPLSLabel2.setEXP(0);
@@ -536,12 +537,12 @@ public class TGPSRPRequestsMatrixTest {
         upperOutgoingMPLSLabel2.setTTL(mplsPacket2.getIPv4Header().getTTL());
         mplsPacket2.getLabelStack().pushTop(bottomOutgoingMPLSLabel2);
         mplsPacket2.getLabelStack().pushTop(upperOutgoingMPLSLabel2);
-        mplsPacket2.getIPv4Header().getOptionsField().setCrossedActiveNode("10.0.0.3");
+        mplsPacket2.getIPv4Header().getOptionsField().setCrossedActiveNode(TIPv4Address.fromString("10.0.0.3"));
 
-        TMPLSPDU mplsPacket3 = new TMPLSPDU(3, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket3 = new TMPLSPDU(3, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket3.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket3.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket3.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(3);
+        mplsPacket3.getIPv4Header().setPacketLocalUniqueIdentifier(3);
         TMPLSLabel bottomOutgoingMPLSLabel3 = new TMPLSLabel();
         bottomOutgoingMPLSLabel3.setBoS(true);
         bottomOutgoingMPLSLabel3.setEXP(0);
@@ -554,7 +555,7 @@ public class TGPSRPRequestsMatrixTest {
         upperOutgoingMPLSLabel3.setTTL(mplsPacket3.getIPv4Header().getTTL());
         mplsPacket3.getLabelStack().pushTop(bottomOutgoingMPLSLabel3);
         mplsPacket3.getLabelStack().pushTop(upperOutgoingMPLSLabel3);
-        mplsPacket3.getIPv4Header().getOptionsField().setCrossedActiveNode("10.0.0.3");
+        mplsPacket3.getIPv4Header().getOptionsField().setCrossedActiveNode(TIPv4Address.fromString("10.0.0.3"));
 
         instance.addEntry(mplsPacket1, 0);
         instance.addEntry(mplsPacket2, 1);
@@ -597,10 +598,10 @@ public class TGPSRPRequestsMatrixTest {
         boolean worksFine = true;
         TGPSRPRequestsMatrix instance = new TGPSRPRequestsMatrix();
 
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket1.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket1.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket1.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(1);
+        mplsPacket1.getIPv4Header().setPacketLocalUniqueIdentifier(1);
         TMPLSLabel bottomOutgoingMPLSLabel1 = new TMPLSLabel();
         bottomOutgoingMPLSLabel1.setBoS(true);
         bottomOutgoingMPLSLabel1.setEXP(0);
@@ -613,12 +614,12 @@ public class TGPSRPRequestsMatrixTest {
         upperOutgoingMPLSLabel1.setTTL(mplsPacket1.getIPv4Header().getTTL());
         mplsPacket1.getLabelStack().pushTop(bottomOutgoingMPLSLabel1);
         mplsPacket1.getLabelStack().pushTop(upperOutgoingMPLSLabel1);
-        mplsPacket1.getIPv4Header().getOptionsField().setCrossedActiveNode("10.0.0.3");
+        mplsPacket1.getIPv4Header().getOptionsField().setCrossedActiveNode(TIPv4Address.fromString("10.0.0.3"));
 
-        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket2.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket2.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket2.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(2);
+        mplsPacket2.getIPv4Header().setPacketLocalUniqueIdentifier(2);
         TMPLSLabel bottomOutgoingMPLSLabel2 = new TMPLSLabel();
         bottomOutgoingMPLSLabel2.setBoS(true);
         bottomOutgoingMPLSLabel2.setEXP(0);
@@ -631,12 +632,12 @@ public class TGPSRPRequestsMatrixTest {
         upperOutgoingMPLSLabel2.setTTL(mplsPacket2.getIPv4Header().getTTL());
         mplsPacket2.getLabelStack().pushTop(bottomOutgoingMPLSLabel2);
         mplsPacket2.getLabelStack().pushTop(upperOutgoingMPLSLabel2);
-        mplsPacket2.getIPv4Header().getOptionsField().setCrossedActiveNode("10.0.0.3");
+        mplsPacket2.getIPv4Header().getOptionsField().setCrossedActiveNode(TIPv4Address.fromString("10.0.0.3"));
 
-        TMPLSPDU mplsPacket3 = new TMPLSPDU(3, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket3 = new TMPLSPDU(3, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket3.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket3.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket3.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(3);
+        mplsPacket3.getIPv4Header().setPacketLocalUniqueIdentifier(3);
         TMPLSLabel bottomOutgoingMPLSLabel3 = new TMPLSLabel();
         bottomOutgoingMPLSLabel3.setBoS(true);
         bottomOutgoingMPLSLabel3.setEXP(0);
@@ -649,7 +650,7 @@ public class TGPSRPRequestsMatrixTest {
         upperOutgoingMPLSLabel3.setTTL(mplsPacket3.getIPv4Header().getTTL());
         mplsPacket3.getLabelStack().pushTop(bottomOutgoingMPLSLabel3);
         mplsPacket3.getLabelStack().pushTop(upperOutgoingMPLSLabel3);
-        mplsPacket3.getIPv4Header().getOptionsField().setCrossedActiveNode("10.0.0.3");
+        mplsPacket3.getIPv4Header().getOptionsField().setCrossedActiveNode(TIPv4Address.fromString("10.0.0.3"));
 
         instance.addEntry(mplsPacket1, 0);
         instance.addEntry(mplsPacket2, 1);
@@ -695,10 +696,10 @@ public class TGPSRPRequestsMatrixTest {
 
         TGPSRPRequestsMatrix instance = new TGPSRPRequestsMatrix();
 
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket1.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket1.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket1.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(1);
+        mplsPacket1.getIPv4Header().setPacketLocalUniqueIdentifier(1);
         TMPLSLabel bottomOutgoingMPLSLabel1 = new TMPLSLabel();
         bottomOutgoingMPLSLabel1.setBoS(true);
         bottomOutgoingMPLSLabel1.setEXP(0);
@@ -711,7 +712,7 @@ public class TGPSRPRequestsMatrixTest {
         upperOutgoingMPLSLabel1.setTTL(mplsPacket1.getIPv4Header().getTTL());
         mplsPacket1.getLabelStack().pushTop(bottomOutgoingMPLSLabel1);
         mplsPacket1.getLabelStack().pushTop(upperOutgoingMPLSLabel1);
-        mplsPacket1.getIPv4Header().getOptionsField().setCrossedActiveNode("10.0.0.3");
+        mplsPacket1.getIPv4Header().getOptionsField().setCrossedActiveNode(TIPv4Address.fromString("10.0.0.3"));
 
         instance.addEntry(mplsPacket1, 0);
 
@@ -729,10 +730,10 @@ public class TGPSRPRequestsMatrixTest {
 
         TGPSRPRequestsMatrix instance = new TGPSRPRequestsMatrix();
 
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket1.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket1.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket1.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(1);
+        mplsPacket1.getIPv4Header().setPacketLocalUniqueIdentifier(1);
         TMPLSLabel bottomOutgoingMPLSLabel1 = new TMPLSLabel();
         bottomOutgoingMPLSLabel1.setBoS(true);
         bottomOutgoingMPLSLabel1.setEXP(0);
@@ -746,10 +747,10 @@ public class TGPSRPRequestsMatrixTest {
         mplsPacket1.getLabelStack().pushTop(bottomOutgoingMPLSLabel1);
         mplsPacket1.getLabelStack().pushTop(upperOutgoingMPLSLabel1);
 
-        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket2.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket2.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket2.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(2);
+        mplsPacket2.getIPv4Header().setPacketLocalUniqueIdentifier(2);
         TMPLSLabel bottomOutgoingMPLSLabel2 = new TMPLSLabel();
         bottomOutgoingMPLSLabel2.setBoS(true);
         bottomOutgoingMPLSLabel2.setEXP(0);
@@ -763,10 +764,10 @@ public class TGPSRPRequestsMatrixTest {
         mplsPacket2.getLabelStack().pushTop(bottomOutgoingMPLSLabel2);
         mplsPacket2.getLabelStack().pushTop(upperOutgoingMPLSLabel2);
 
-        TMPLSPDU mplsPacket3 = new TMPLSPDU(3, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket3 = new TMPLSPDU(3, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket3.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket3.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket3.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(3);
+        mplsPacket3.getIPv4Header().setPacketLocalUniqueIdentifier(3);
         TMPLSLabel bottomOutgoingMPLSLabel3 = new TMPLSLabel();
         bottomOutgoingMPLSLabel3.setBoS(true);
         bottomOutgoingMPLSLabel3.setEXP(0);
@@ -784,13 +785,13 @@ public class TGPSRPRequestsMatrixTest {
         instance.addEntry(mplsPacket2, 1);
         instance.addEntry(mplsPacket3, 2);
 
-        int packet1GoSGlobalID = mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier();
-        int packet2GoSGlobalID = mplsPacket2.getIPv4Header().getGoSGlobalUniqueIdentifier();
-        int packet3GoSGlobalID = mplsPacket3.getIPv4Header().getGoSGlobalUniqueIdentifier();
+        long packet1GoSGlobalID = mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier();
+        long packet2GoSGlobalID = mplsPacket2.getIPv4Header().getGoSGlobalUniqueIdentifier();
+        long packet3GoSGlobalID = mplsPacket3.getIPv4Header().getGoSGlobalUniqueIdentifier();
         
-        int outgoingPortID1 = instance.getOutgoingPort("10.0.0.1".hashCode(), packet1GoSGlobalID);
-        int outgoingPortID2 = instance.getOutgoingPort("10.0.0.1".hashCode(), packet2GoSGlobalID);
-        int outgoingPortID3 = instance.getOutgoingPort("10.0.0.1".hashCode(), packet3GoSGlobalID);
+        int outgoingPortID1 = instance.getOutgoingPort(TIPv4Address.fromString("10.0.0.1"), packet1GoSGlobalID);
+        int outgoingPortID2 = instance.getOutgoingPort(TIPv4Address.fromString("10.0.0.1"), packet2GoSGlobalID);
+        int outgoingPortID3 = instance.getOutgoingPort(TIPv4Address.fromString("10.0.0.1"), packet3GoSGlobalID);
         
         
         assertTrue((outgoingPortID1 == 0) || (outgoingPortID2 == 1) || (outgoingPortID3 == 2));
@@ -805,10 +806,10 @@ public class TGPSRPRequestsMatrixTest {
 
         TGPSRPRequestsMatrix instance = new TGPSRPRequestsMatrix();
 
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket1.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket1.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket1.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(1);
+        mplsPacket1.getIPv4Header().setPacketLocalUniqueIdentifier(1);
         TMPLSLabel bottomOutgoingMPLSLabel1 = new TMPLSLabel();
         bottomOutgoingMPLSLabel1.setBoS(true);
         bottomOutgoingMPLSLabel1.setEXP(0);
@@ -824,7 +825,7 @@ public class TGPSRPRequestsMatrixTest {
 
         instance.addEntry(mplsPacket1, 0);
 
-        assertEquals(-1, instance.getOutgoingPort("10.0.0.10".hashCode(), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier()));
+        assertEquals(-1, instance.getOutgoingPort(TIPv4Address.fromString("10.0.0.10"), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier()));
     }
 
     /**
@@ -838,10 +839,10 @@ public class TGPSRPRequestsMatrixTest {
         boolean worksFine = true;
         TGPSRPRequestsMatrix instance = new TGPSRPRequestsMatrix();
 
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.10", 100);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.10"), 100);
         mplsPacket1.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket1.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket1.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(1);
+        mplsPacket1.getIPv4Header().setPacketLocalUniqueIdentifier(1);
         TMPLSLabel bottomOutgoingMPLSLabel1 = new TMPLSLabel();
         bottomOutgoingMPLSLabel1.setBoS(true);
         bottomOutgoingMPLSLabel1.setEXP(0);
@@ -854,39 +855,39 @@ public class TGPSRPRequestsMatrixTest {
         upperOutgoingMPLSLabel1.setTTL(mplsPacket1.getIPv4Header().getTTL());
         mplsPacket1.getLabelStack().pushTop(bottomOutgoingMPLSLabel1);
         mplsPacket1.getLabelStack().pushTop(upperOutgoingMPLSLabel1);
-        mplsPacket1.getIPv4Header().getOptionsField().setCrossedActiveNode("10.0.0.2");
-        mplsPacket1.getIPv4Header().getOptionsField().setCrossedActiveNode("10.0.0.4");
-        mplsPacket1.getIPv4Header().getOptionsField().setCrossedActiveNode("10.0.0.6");
+        mplsPacket1.getIPv4Header().getOptionsField().setCrossedActiveNode(TIPv4Address.fromString("10.0.0.2"));
+        mplsPacket1.getIPv4Header().getOptionsField().setCrossedActiveNode(TIPv4Address.fromString("10.0.0.4"));
+        mplsPacket1.getIPv4Header().getOptionsField().setCrossedActiveNode(TIPv4Address.fromString("10.0.0.6"));
 
         instance.addEntry(mplsPacket1, 0);
 
-        String auxIPv4Address = null;
+        int auxIPv4Address = TIPv4Address.UNSPECIFIED;
 
-        auxIPv4Address = instance.getNextNearestCrossedActiveNodeIPv4("10.0.0.1".hashCode(), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier());
-        if (auxIPv4Address == null) {
+        auxIPv4Address = instance.getNextNearestCrossedActiveNodeIPv4(TIPv4Address.fromString("10.0.0.1"), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier());
+        if (auxIPv4Address == TIPv4Address.UNSPECIFIED) {
             worksFine = false;
         } else {
-            if (!auxIPv4Address.equals("10.0.0.6")) {
+            if (auxIPv4Address != TIPv4Address.fromString("10.0.0.6")) {
                 worksFine = false;
             } else {
                 worksFine &= true;
             }
         }
-        auxIPv4Address = instance.getNextNearestCrossedActiveNodeIPv4("10.0.0.1".hashCode(), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier());
-        if (auxIPv4Address == null) {
+        auxIPv4Address = instance.getNextNearestCrossedActiveNodeIPv4(TIPv4Address.fromString("10.0.0.1"), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier());
+        if (auxIPv4Address == TIPv4Address.UNSPECIFIED) {
             worksFine = false;
         } else {
-            if (!auxIPv4Address.equals("10.0.0.4")) {
+            if (auxIPv4Address != TIPv4Address.fromString("10.0.0.4")) {
                 worksFine = false;
             } else {
                 worksFine &= true;
             }
         }
-        auxIPv4Address = instance.getNextNearestCrossedActiveNodeIPv4("10.0.0.1".hashCode(), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier());
-        if (auxIPv4Address == null) {
+        auxIPv4Address = instance.getNextNearestCrossedActiveNodeIPv4(TIPv4Address.fromString("10.0.0.1"), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier());
+        if (auxIPv4Address == TIPv4Address.UNSPECIFIED) {
             worksFine = false;
         } else {
-            if (!auxIPv4Address.equals("10.0.0.2")) {
+            if (auxIPv4Address != TIPv4Address.fromString("10.0.0.2")) {
                 worksFine = false;
             } else {
                 worksFine &= true;
@@ -906,10 +907,10 @@ public class TGPSRPRequestsMatrixTest {
         boolean worksFine = true;
         TGPSRPRequestsMatrix instance = new TGPSRPRequestsMatrix();
 
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.10", 100);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.10"), 100);
         mplsPacket1.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket1.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket1.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(1);
+        mplsPacket1.getIPv4Header().setPacketLocalUniqueIdentifier(1);
         TMPLSLabel bottomOutgoingMPLSLabel1 = new TMPLSLabel();
         bottomOutgoingMPLSLabel1.setBoS(true);
         bottomOutgoingMPLSLabel1.setEXP(0);
@@ -922,11 +923,11 @@ public class TGPSRPRequestsMatrixTest {
         upperOutgoingMPLSLabel1.setTTL(mplsPacket1.getIPv4Header().getTTL());
         mplsPacket1.getLabelStack().pushTop(bottomOutgoingMPLSLabel1);
         mplsPacket1.getLabelStack().pushTop(upperOutgoingMPLSLabel1);
-        mplsPacket1.getIPv4Header().getOptionsField().setCrossedActiveNode("10.0.0.2");
+        mplsPacket1.getIPv4Header().getOptionsField().setCrossedActiveNode(TIPv4Address.fromString("10.0.0.2"));
 
         instance.addEntry(mplsPacket1, 0);
 
-        assertEquals(null, instance.getNextNearestCrossedActiveNodeIPv4("10.0.0.50".hashCode(), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier()));
+        assertEquals(TIPv4Address.UNSPECIFIED, instance.getNextNearestCrossedActiveNodeIPv4(TIPv4Address.fromString("10.0.0.50"), mplsPacket1.getIPv4Header().getGoSGlobalUniqueIdentifier()));
     }
 
     /**
@@ -940,10 +941,10 @@ public class TGPSRPRequestsMatrixTest {
         int numberOfEntries = 0;
         TGPSRPRequestsMatrix instance = new TGPSRPRequestsMatrix();
 
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket1.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket1.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket1.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(1);
+        mplsPacket1.getIPv4Header().setPacketLocalUniqueIdentifier(1);
         TMPLSLabel bottomOutgoingMPLSLabel1 = new TMPLSLabel();
         bottomOutgoingMPLSLabel1.setBoS(true);
         bottomOutgoingMPLSLabel1.setEXP(0);
@@ -957,10 +958,10 @@ public class TGPSRPRequestsMatrixTest {
         mplsPacket1.getLabelStack().pushTop(bottomOutgoingMPLSLabel1);
         mplsPacket1.getLabelStack().pushTop(upperOutgoingMPLSLabel1);
 
-        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket2.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket2.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket2.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(2);
+        mplsPacket2.getIPv4Header().setPacketLocalUniqueIdentifier(2);
         TMPLSLabel bottomOutgoingMPLSLabel2 = new TMPLSLabel();
         bottomOutgoingMPLSLabel2.setBoS(true);
         bottomOutgoingMPLSLabel2.setEXP(0);
@@ -974,10 +975,10 @@ public class TGPSRPRequestsMatrixTest {
         mplsPacket2.getLabelStack().pushTop(bottomOutgoingMPLSLabel2);
         mplsPacket2.getLabelStack().pushTop(upperOutgoingMPLSLabel2);
 
-        TMPLSPDU mplsPacket3 = new TMPLSPDU(3, "10.0.0.1", "10.0.0.2", 100);
+        TMPLSPDU mplsPacket3 = new TMPLSPDU(3, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 100);
         mplsPacket3.setSubtype(TAbstractPDU.MPLS_GOS);
         mplsPacket3.getIPv4Header().getOptionsField().setRequestedGoSLevel(7);
-        mplsPacket3.getIPv4Header().getOptionsField().setPacketLocalUniqueIdentifier(3);
+        mplsPacket3.getIPv4Header().setPacketLocalUniqueIdentifier(3);
         TMPLSLabel bottomOutgoingMPLSLabel3 = new TMPLSLabel();
         bottomOutgoingMPLSLabel3.setBoS(true);
         bottomOutgoingMPLSLabel3.setEXP(0);
@@ -15,6 +15,7 @@
  */
 package com.manolodominguez.opensimmpls.hardware.ports;
 
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
 import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
 import com.manolodominguez.opensimmpls.gui.simulator.JSimulationPanel;
 import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
@@ -490,7 +491,7 @@ public class TActivePortTest {
 
         // Here we habe two nodes linked by a link on the port 0 of each one.
         //Creates a new MPLS packet directed to tail end node.
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         // Put packet on link connected to port 0 of head en node.
         assertThrows(IllegalArgumentException.class, () -> {
             // Should throws an exception because the specified end node is neither
@@ -539,7 +540,7 @@ public class TActivePortTest {
 
         // Here we habe two nodes linked by a link on the port 0 of each one.
         //Creates a new MPLS packet directed to tail end node.
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         // Put packet on link connected to port 0 of head en node.
         assertThrows(IllegalArgumentException.class, () -> {
             // Should throws an exception because the specified end node is neither
@@ -589,7 +590,7 @@ public class TActivePortTest {
         // Here we habe two nodes linked by a link on the port 0 of each one.
         boolean worksFine = true;
         //Creates a new MPLS packet directed to tail end node.
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         if (internalLink.getNumberOfPacketInTransit() != 0) {
             worksFine &= false;
         }
@@ -631,7 +632,7 @@ public class TActivePortTest {
         JSimulationPanel simulationPanel = new JSimulationPanel();
         tailEndNode.simulationEventsListener.setSimulationPanel(simulationPanel);
         //Creates a new MPLS packet directed to tail end node.
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         TMPLSLabel outgoingMPLSLabel = new TMPLSLabel();
         outgoingMPLSLabel.setBoS(true);
         outgoingMPLSLabel.setEXP(0);
@@ -700,7 +701,7 @@ public class TActivePortTest {
         JSimulationPanel simulationPanel = new JSimulationPanel();
         tailEndNode.simulationEventsListener.setSimulationPanel(simulationPanel);
         //Creates a new MPLS packet directed to tail end node.
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         assertDoesNotThrow(() -> {
             tailEndNode.getPorts().getPort(0).discardPacket(mplsPacket);
         });
@@ -740,7 +741,7 @@ public class TActivePortTest {
         if (tailEndNode.getPorts().getPort(0).getNumberOfPackets() != 0) {
             worksFine &= false;
         }
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         TMPLSLabel outgoingMPLSLabel = new TMPLSLabel();
         outgoingMPLSLabel.setBoS(true);
         outgoingMPLSLabel.setEXP(0);
@@ -790,7 +791,7 @@ public class TActivePortTest {
         if (tailEndNode.getPorts().getPort(0).getNumberOfPackets() != 0) {
             worksFine &= false;
         }
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         TMPLSLabel outgoingMPLSLabel = new TMPLSLabel();
         outgoingMPLSLabel.setBoS(true);
         outgoingMPLSLabel.setEXP(0);
@@ -839,7 +840,7 @@ public class TActivePortTest {
             worksFine &= false;
         }
         // We create a MPLS packet big enough to make the buffer overflow
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 10240000);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 10240000);
         TMPLSLabel outgoingMPLSLabel = new TMPLSLabel();
         outgoingMPLSLabel.setBoS(true);
         outgoingMPLSLabel.setEXP(0);
@@ -868,7 +869,7 @@ public class TActivePortTest {
         if (tailEndNode.getPorts().getPort(0).getNumberOfPackets() != 0) {
             worksFine &= false;
         }
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         TMPLSLabel outgoingMPLSLabel = new TMPLSLabel();
         outgoingMPLSLabel.setBoS(true);
         outgoingMPLSLabel.setEXP(0);
@@ -918,7 +919,7 @@ public class TActivePortTest {
         if (tailEndNode.getPorts().getPort(0).getNumberOfPackets() != 0) {
             worksFine &= false;
         }
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         TMPLSLabel outgoingMPLSLabel = new TMPLSLabel();
         outgoingMPLSLabel.setBoS(true);
         outgoingMPLSLabel.setEXP(0);
@@ -936,6 +937,60 @@ public class TActivePortTest {
         assertTrue(worksFine);
     }
 
+    /**
+     * Test of getPacket method, of class TActivePort. Packets with higher
+     * priority are read more times per round than packets without priority,
+     * and packets with the same priority are read in FIFO order.
+     */
+    @Test
+    public void testGetPacketWhenSeveralPriorities() {
+        System.out.println("test getPacket");
+        TScene scenario = new TScene();  //Creates an scenario
+        TTopology topology = new TTopology(scenario); //Creates a topology
+        TActiveLSRNode tailEndNode = new TActiveLSRNode(2, "10.0.0.2", new TLongIDGenerator(), topology); //Creates a node
+        tailEndNode.setName("Dummy tail end node name");
+        topology.addNode(tailEndNode); // Adds tail end node to the topology
+        TMPLSPDU[] withoutPriorityPackets = new TMPLSPDU[3];
+        TMPLSPDU[] priority7Packets = new TMPLSPDU[3];
+        for (int i = 0; i < 3; i++) {
+            withoutPriorityPackets[i] = new TMPLSPDU(i, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+            TMPLSLabel outgoingMPLSLabel = new TMPLSLabel();
+            outgoingMPLSLabel.setBoS(true);
+            outgoingMPLSLabel.setEXP(0);
+            outgoingMPLSLabel.setLabel(50); // A valid and unreserved label
+            outgoingMPLSLabel.setTTL(withoutPriorityPackets[i].getIPv4Header().getTTL());
+            withoutPriorityPackets[i].getLabelStack().pushTop(outgoingMPLSLabel);
+            tailEndNode.getPorts().getPort(0).reEnqueuePacket(withoutPriorityPackets[i]);
+        }
+        for (int i = 0; i < 3; i++) {
+            priority7Packets[i] = new TMPLSPDU(i + 3, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+            TMPLSLabel outgoingMPLSLabel = new TMPLSLabel();
+            outgoingMPLSLabel.setBoS(true);
+            outgoingMPLSLabel.setEXP(TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP);
+            outgoingMPLSLabel.setLabel(1); // GoS packet
+            outgoingMPLSLabel.setTTL(priority7Packets[i].getIPv4Header().getTTL());
+            priority7Packets[i].getLabelStack().pushTop(outgoingMPLSLabel);
+            tailEndNode.getPorts().getPort(0).reEnqueuePacket(priority7Packets[i]);
+        }
+        boolean worksFine = true;
+        if (tailEndNode.getPorts().getPort(0).getNumberOfPackets() != 6) {
+            worksFine &= false;
+        }
+        // Buffer 0 allows a single read per round; buffer 7 allows eight.
+        if (tailEndNode.getPorts().getPort(0).getPacket() != withoutPriorityPackets[0]) {
+            worksFine &= false;
+        }
+        for (int i = 0; i < 3; i++) {
+            if (tailEndNode.getPorts().getPort(0).getPacket() != priority7Packets[i]) {
+                worksFine &= false;
+            }
+        }
+        if (tailEndNode.getPorts().getPort(0).getNumberOfPackets() != 2) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
     /**
      * Test of getPacket method, of class TActivePort.
      */
@@ -971,7 +1026,7 @@ public class TActivePortTest {
         //Creates a new MPLS packet directed to tail end node.
         // a 1024 octets payload means an active packet with a total size of 
         // 1068 octects
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         TMPLSLabel outgoingMPLSLabel = new TMPLSLabel();
         outgoingMPLSLabel.setBoS(true);
         outgoingMPLSLabel.setEXP(0);
@@ -996,7 +1051,7 @@ public class TActivePortTest {
         JSimulationPanel simulationPanel = new JSimulationPanel();
         tailEndNode.simulationEventsListener.setSimulationPanel(simulationPanel);
         //Creates a new MPLS packet directed to tail end node.
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 65535);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 65535);
         TMPLSLabel outgoingMPLSLabel = new TMPLSLabel();
         outgoingMPLSLabel.setBoS(true);
         outgoingMPLSLabel.setEXP(0);
@@ -1022,7 +1077,7 @@ public class TActivePortTest {
         JSimulationPanel simulationPanel = new JSimulationPanel();
         tailEndNode.simulationEventsListener.setSimulationPanel(simulationPanel);
         //Creates a new MPLS packet directed to tail end node.
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 65535);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 65535);
         TMPLSLabel outgoingMPLSLabel = new TMPLSLabel();
         outgoingMPLSLabel.setBoS(true);
         outgoingMPLSLabel.setEXP(0);
@@ -1047,7 +1102,7 @@ public class TActivePortTest {
         JSimulationPanel simulationPanel = new JSimulationPanel();
         tailEndNode.simulationEventsListener.setSimulationPanel(simulationPanel);
         //Creates a new MPLS packet directed to tail end node.
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         TMPLSLabel outgoingMPLSLabel = new TMPLSLabel();
         outgoingMPLSLabel.setBoS(true);
         outgoingMPLSLabel.setEXP(0);
@@ -1093,7 +1148,7 @@ public class TActivePortTest {
         if (tailEndNode.getPorts().getPort(0).getOccupancy() != 0L) {
             worksFine &= false;
         }
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         TMPLSLabel outgoingMPLSLabel = new TMPLSLabel();
         outgoingMPLSLabel.setBoS(true);
         outgoingMPLSLabel.setEXP(0);
@@ -1125,14 +1180,14 @@ public class TActivePortTest {
         if (tailEndNode.getPorts().getPort(0).getNumberOfPackets() != 0) {
             worksFine &= false;
         }
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         TMPLSLabel outgoingMPLSLabel = new TMPLSLabel();
         outgoingMPLSLabel.setBoS(true);
         outgoingMPLSLabel.setEXP(0);
         outgoingMPLSLabel.setLabel(50); // A valid and unreserved label
         outgoingMPLSLabel.setTTL(mplsPacket.getIPv4Header().getTTL());
         mplsPacket.getLabelStack().pushTop(outgoingMPLSLabel);
-        TMPLSPDU mplsPacket2 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket2 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         TMPLSLabel outgoingMPLSLabel2 = new TMPLSLabel();
         outgoingMPLSLabel2.setBoS(true);
         outgoingMPLSLabel2.setEXP(0);
@@ -1165,7 +1220,7 @@ public class TActivePortTest {
         if (tailEndNode.getPorts().getPort(0).getNumberOfPackets() != 0) {
             worksFine &= false;
         }
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         TMPLSLabel outgoingMPLSLabel1 = new TMPLSLabel();
         outgoingMPLSLabel1.setBoS(true);
         outgoingMPLSLabel1.setEXP(TAbstractPDU.EXP_LEVEL0_WITHOUT_BACKUP_LSP);
@@ -1173,7 +1228,7 @@ public class TActivePortTest {
         outgoingMPLSLabel1.setTTL(mplsPacket1.getIPv4Header().getTTL());
         mplsPacket1.getLabelStack().pushTop(outgoingMPLSLabel1);
 
-        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         TMPLSLabel outgoingMPLSLabel2 = new TMPLSLabel();
         outgoingMPLSLabel2.setBoS(true);
         outgoingMPLSLabel2.setEXP(TAbstractPDU.EXP_LEVEL1_WITHOUT_BACKUP_LSP);
@@ -1181,7 +1236,7 @@ public class TActivePortTest {
         outgoingMPLSLabel2.setTTL(mplsPacket2.getIPv4Header().getTTL());
         mplsPacket2.getLabelStack().pushTop(outgoingMPLSLabel2);
 
-        TMPLSPDU mplsPacket3 = new TMPLSPDU(3, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket3 = new TMPLSPDU(3, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         TMPLSLabel outgoingMPLSLabel3 = new TMPLSLabel();
         outgoingMPLSLabel3.setBoS(true);
         outgoingMPLSLabel3.setEXP(TAbstractPDU.EXP_LEVEL2_WITHOUT_BACKUP_LSP);
@@ -1189,7 +1244,7 @@ public class TActivePortTest {
         outgoingMPLSLabel3.setTTL(mplsPacket3.getIPv4Header().getTTL());
         mplsPacket3.getLabelStack().pushTop(outgoingMPLSLabel3);
 
-        TMPLSPDU mplsPacket4 = new TMPLSPDU(4, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket4 = new TMPLSPDU(4, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         TMPLSLabel outgoingMPLSLabel4 = new TMPLSLabel();
         outgoingMPLSLabel4.setBoS(true);
         outgoingMPLSLabel4.setEXP(TAbstractPDU.EXP_LEVEL3_WITHOUT_BACKUP_LSP);
@@ -1197,7 +1252,7 @@ public class TActivePortTest {
         outgoingMPLSLabel4.setTTL(mplsPacket4.getIPv4Header().getTTL());
         mplsPacket4.getLabelStack().pushTop(outgoingMPLSLabel4);
 
-        TMPLSPDU mplsPacket5 = new TMPLSPDU(5, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket5 = new TMPLSPDU(5, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         TMPLSLabel outgoingMPLSLabel5 = new TMPLSLabel();
         outgoingMPLSLabel5.setBoS(true);
         outgoingMPLSLabel5.setEXP(TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP);
@@ -5,6 +5,7 @@
  */
 package com.manolodominguez.opensimmpls.hardware.ports;
 
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
 import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
 import com.manolodominguez.opensimmpls.gui.simulator.JSimulationPanel;
 import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
@@ -648,7 +649,7 @@ public class TFIFOPortSetTest {
         tailEndNode.simulationEventsListener.setSimulationPanel(simulationPanel);
         //Creates a new MPLS packet directed to tail end node.
         boolean worksFine = true;
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         for (int i = 0; i < tailEndNode.getPorts().getNumberOfPorts(); i++) {
             tailEndNode.getPorts().getPort(i).reEnqueuePacket(mplsPacket); // put a packet in each port
             if (tailEndNode.getPorts().getPort(i).getNumberOfPackets() != 1) { // check that packets are there
@@ -693,7 +694,7 @@ public class TFIFOPortSetTest {
         JSimulationPanel simulationPanel = new JSimulationPanel();
         tailEndNode.simulationEventsListener.setSimulationPanel(simulationPanel);
         //Creates a new MPLS packet directed to tail end node.
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         for (int i = 0; i < tailEndNode.getPorts().getNumberOfPorts(); i++) {
             tailEndNode.getPorts().getPort(i).reEnqueuePacket(mplsPacket); // put a packet in each port
         }
@@ -727,7 +728,7 @@ public class TFIFOPortSetTest {
         JSimulationPanel simulationPanel = new JSimulationPanel();
         tailEndNode.simulationEventsListener.setSimulationPanel(simulationPanel);
         //Creates a new MPLS packet directed to tail end node.
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         for (int i = 0; i < tailEndNode.getPorts().getNumberOfPorts(); i++) {
             tailEndNode.getPorts().getPort(i).reEnqueuePacket(mplsPacket); // put a packet in each port
         }
@@ -762,7 +763,7 @@ public class TFIFOPortSetTest {
         tailEndNode.simulationEventsListener.setSimulationPanel(simulationPanel);
         //Creates a new MPLS packet directed to tail end node.
         // a 1024 octets payload means a packet with a total size of 1064 octects
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         tailEndNode.getPorts().getPort(0).reEnqueuePacket(mplsPacket);
         assertTrue(tailEndNode.getPorts().canSwitchPacket(1064));
     }
@@ -782,7 +783,7 @@ public class TFIFOPortSetTest {
         tailEndNode.simulationEventsListener.setSimulationPanel(simulationPanel);
         //Creates a new MPLS packet directed to tail end node.
         // a 1024 octets payload means a packet with a total size of 1064 octects
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         tailEndNode.getPorts().getPort(0).reEnqueuePacket(mplsPacket);
         assertThrows(IllegalArgumentException.class, () -> {
             tailEndNode.getPorts().canSwitchPacket(-1); //throws an exception
@@ -804,7 +805,7 @@ public class TFIFOPortSetTest {
         tailEndNode.simulationEventsListener.setSimulationPanel(simulationPanel);
         //Creates a new MPLS packet directed to tail end node.
         // a 1024 octets payload means a packet with a total size of 1064 octects
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         tailEndNode.getPorts().getPort(0).reEnqueuePacket(mplsPacket);
         assertFalse(tailEndNode.getPorts().canSwitchPacket(1063));
     }
@@ -907,7 +908,7 @@ public class TFIFOPortSetTest {
 
         internalLink.configure(linkConfig, topology, false);
 
-        assertEquals(4, parentNode.getPorts().getLocalPortConnectedToANodeWithIPv4Address("10.0.0.2").getPortID());
+        assertEquals(4, parentNode.getPorts().getLocalPortConnectedToANodeWithIPv4Address(TIPv4Address.fromString("10.0.0.2")).getPortID());
     }
 
     /**
@@ -951,7 +952,7 @@ public class TFIFOPortSetTest {
 
         // Node with IP "10.1.3.2" is not connected to the parent node, therefore, 
         // null should be returned
-        assertNull(parentNode.getPorts().getLocalPortConnectedToANodeWithIPv4Address("10.1.3.2"));
+        assertNull(parentNode.getPorts().getLocalPortConnectedToANodeWithIPv4Address(TIPv4Address.fromString("10.1.3.2")));
     }
 
     /**
@@ -994,7 +995,7 @@ public class TFIFOPortSetTest {
 
         // Node connected to port 4 of parent node is "anotherNode" that has
         // IPv4 = 10.0.0.2
-        assertTrue(parentNode.getPorts().getIPv4OfNodeLinkedTo(4).equals("10.0.0.2"));
+        assertEquals(TIPv4Address.fromString("10.0.0.2"), parentNode.getPorts().getIPv4OfNodeLinkedTo(4));
     }
 
     /**
@@ -1037,7 +1038,7 @@ public class TFIFOPortSetTest {
 
         // No node is connected to port 0 of parent node, so null is returned 
         // as IPv4
-        assertNull(parentNode.getPorts().getIPv4OfNodeLinkedTo(0));
+        assertEquals(TIPv4Address.UNSPECIFIED, parentNode.getPorts().getIPv4OfNodeLinkedTo(0));
     }
 
     /**
@@ -1088,7 +1089,7 @@ public class TFIFOPortSetTest {
         JSimulationPanel simulationPanel = new JSimulationPanel();
         tailEndNode.simulationEventsListener.setSimulationPanel(simulationPanel);
         //Creates a new MPLS packet directed to tail end node.
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 65535);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 65535);
         tailEndNode.getPorts().getPort(0).reEnqueuePacket(mplsPacket);
         assertTrue(tailEndNode.getPorts().getCongestionLevel() > 0L);
     }
@@ -1108,7 +1109,7 @@ public class TFIFOPortSetTest {
         JSimulationPanel simulationPanel = new JSimulationPanel();
         tailEndNode.simulationEventsListener.setSimulationPanel(simulationPanel);
         //Creates a new MPLS packet directed to tail end node.
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 65535);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 65535);
         tailEndNode.getPorts().getPort(0).reEnqueuePacket(mplsPacket);
         assertFalse(tailEndNode.getPorts().getCongestionLevel() > 0L);
     }
@@ -1133,7 +1134,7 @@ public class TFIFOPortSetTest {
         }
         // Creates a packet with a size enough to make getCongestionLevel() be
         // greater than zero
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 102400);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 102400);
         instance.getPorts().getPort(0).addPacket(mplsPacket1);
         instance.getPorts().setPortSetOccupancySize(mplsPacket1.getSize());
         if (instance.getPorts().getCongestionLevel() <= 0L) {
@@ -1179,4 +1180,82 @@ public class TFIFOPortSetTest {
         assertTrue(instance.isCongestedArtificially());
     }
 
+    /**
+     * Test of tryIncreasePortSetOccupancy method, of class TFIFOPortSet.
+     */
+    @Test
+    public void testTryIncreasePortSetOccupancy() {
+        System.out.println("tryIncreasePortSetOccupancy");
+        TScene scenario = new TScene();
+        TTopology topology = new TTopology(scenario);
+        TLSRNode node = new TLSRNode(1, "10.0.0.1", new TLongIDGenerator(), topology);
+        TFIFOPortSet instance = new TFIFOPortSet(8, node); // Occupancy is 0 here
+        boolean worksFine = true;
+        if (!instance.tryIncreasePortSetOccupancy(100, 150)) { // 100 <= 150
+            worksFine &= false;
+        }
+        if (instance.tryIncreasePortSetOccupancy(100, 150)) { // 200 > 150
+            worksFine &= false;
+        }
+        if (!instance.tryIncreasePortSetOccupancy(50, 150)) { // 150 <= 150
+            worksFine &= false;
+        }
+        if (instance.getPortSetOccupancy() != 150) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of tryIncreasePortSetOccupancy method, of class TFIFOPortSet.
+     */
+    @Test
+    public void testTryIncreasePortSetOccupancyWhenNegativeIncrement() {
+        System.out.println("tryIncreasePortSetOccupancy");
+        TScene scenario = new TScene();
+        TTopology topology = new TTopology(scenario);
+        TLSRNode node = new TLSRNode(1, "10.0.0.1", new TLongIDGenerator(), topology);
+        TFIFOPortSet instance = new TFIFOPortSet(8, node); // Occupancy is 0 here
+        assertThrows(IllegalArgumentException.class, () -> {
+            instance.tryIncreasePortSetOccupancy(-1, 150); // This should thrown an exception
+        });
+    }
+
+    /**
+     * Test of setLockFreePorts method, of class TFIFOPortSet.
+     */
+    @Test
+    public void testSetLockFreePorts() {
+        System.out.println("setLockFreePorts");
+        TScene scenario = new TScene();
+        TTopology topology = new TTopology(scenario);
+        TLSRNode node = new TLSRNode(1, "10.0.0.1", new TLongIDGenerator(), topology);
+        TFIFOPortSet instance = new TFIFOPortSet(8, node);
+        instance.setUnlimitedBuffer(true);
+        boolean worksFine = true;
+        if (instance.hasLockFreePorts()) { // By default ports are TFIFOPort
+            worksFine &= false;
+        }
+        instance.setLockFreePorts(true);
+        if (!instance.hasLockFreePorts()) {
+            worksFine &= false;
+        }
+        for (int i = 0; i < 8; i++) {
+            if (!(instance.getPort(i) instanceof TLockFreeFIFOPort)) {
+                worksFine &= false;
+            }
+            if (instance.getPort(i).getPortID() != i) {
+                worksFine &= false;
+            }
+            if (!instance.getPort(i).isUnlimitedBuffer()) { // Configuration is kept
+                worksFine &= false;
+            }
+        }
+        instance.setLockFreePorts(false);
+        if (!(instance.getPort(0) instanceof TFIFOPort) || instance.hasLockFreePorts()) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
 }
@@ -15,6 +15,7 @@
  */
 package com.manolodominguez.opensimmpls.hardware.ports;
 
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
 import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
 import com.manolodominguez.opensimmpls.gui.simulator.JSimulationPanel;
 import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
@@ -487,7 +488,7 @@ public class TFIFOPortTest {
 
         // Here we habe two nodes linked by a link on the port 0 of each one.
         //Creates a new MPLS packet directed to tail end node.
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         // Put packet on link connected to port 0 of head en node.
         assertThrows(IllegalArgumentException.class, () -> {
             // Should throws an exception because the specified end node is neither
@@ -536,7 +537,7 @@ public class TFIFOPortTest {
 
         // Here we habe two nodes linked by a link on the port 0 of each one.
         //Creates a new MPLS packet directed to tail end node.
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         // Put packet on link connected to port 0 of head en node.
         assertThrows(IllegalArgumentException.class, () -> {
             // Should throws an exception because the specified end node is neither
@@ -586,7 +587,7 @@ public class TFIFOPortTest {
         // Here we habe two nodes linked by a link on the port 0 of each one.
         boolean worksFine = true;
         //Creates a new MPLS packet directed to tail end node.
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         if (internalLink.getNumberOfPacketInTransit() != 0) {
             worksFine &= false;
         }
@@ -656,7 +657,7 @@ public class TFIFOPortTest {
         JSimulationPanel simulationPanel = new JSimulationPanel();
         tailEndNode.simulationEventsListener.setSimulationPanel(simulationPanel);
         //Creates a new MPLS packet directed to tail end node.
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         assertDoesNotThrow(() -> {
             tailEndNode.getPorts().getPort(0).discardPacket(mplsPacket);
         });
@@ -696,7 +697,7 @@ public class TFIFOPortTest {
         if (tailEndNode.getPorts().getPort(0).getNumberOfPackets() != 0) {
             worksFine &= false;
         }
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         tailEndNode.getPorts().getPort(0).addPacket(mplsPacket);
         if (tailEndNode.getPorts().getPort(0).getNumberOfPackets() != 1) {
             worksFine &= false;
@@ -740,7 +741,7 @@ public class TFIFOPortTest {
         if (tailEndNode.getPorts().getPort(0).getNumberOfPackets() != 0) {
             worksFine &= false;
         }
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         tailEndNode.getPorts().getPort(0).reEnqueuePacket(mplsPacket);
         if (tailEndNode.getPorts().getPort(0).getNumberOfPackets() != 1) {
             worksFine &= false;
@@ -784,7 +785,7 @@ public class TFIFOPortTest {
         if (tailEndNode.getPorts().getPort(0).getNumberOfPackets() != 0) {
             worksFine &= false;
         }
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         tailEndNode.getPorts().getPort(0).reEnqueuePacket(mplsPacket);
         if (tailEndNode.getPorts().getPort(0).getNumberOfPackets() != 1) {
             worksFine &= false;
@@ -830,7 +831,7 @@ public class TFIFOPortTest {
         tailEndNode.simulationEventsListener.setSimulationPanel(simulationPanel);
         //Creates a new MPLS packet directed to tail end node.
         // a 1024 octets payload means a packet with a total size of 1064 octects
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         tailEndNode.getPorts().getPort(0).reEnqueuePacket(mplsPacket);
         assertTrue(tailEndNode.getPorts().getPort(0).canSwitchPacket(1064));
     }
@@ -850,7 +851,7 @@ public class TFIFOPortTest {
         tailEndNode.simulationEventsListener.setSimulationPanel(simulationPanel);
         //Creates a new MPLS packet directed to tail end node.
         // a 1024 octets payload means a packet with a total size of 1064 octects
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         tailEndNode.getPorts().getPort(0).reEnqueuePacket(mplsPacket);
         assertFalse(tailEndNode.getPorts().getPort(0).canSwitchPacket(1063));
     }
@@ -870,7 +871,7 @@ public class TFIFOPortTest {
         tailEndNode.simulationEventsListener.setSimulationPanel(simulationPanel);
         //Creates a new MPLS packet directed to tail end node.
         // a 1024 octets payload means a packet with a total size of 1064 octects
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         tailEndNode.getPorts().getPort(0).reEnqueuePacket(mplsPacket);
         assertThrows(IllegalArgumentException.class, () -> {
             tailEndNode.getPorts().getPort(0).canSwitchPacket(-1); //throws an exception
@@ -891,7 +892,7 @@ public class TFIFOPortTest {
         JSimulationPanel simulationPanel = new JSimulationPanel();
         tailEndNode.simulationEventsListener.setSimulationPanel(simulationPanel);
         //Creates a new MPLS packet directed to tail end node.
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 65535);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 65535);
         tailEndNode.getPorts().getPort(0).reEnqueuePacket(mplsPacket);
         assertTrue(tailEndNode.getPorts().getPort(0).getCongestionLevel() > 0L);
     }
@@ -911,7 +912,7 @@ public class TFIFOPortTest {
         JSimulationPanel simulationPanel = new JSimulationPanel();
         tailEndNode.simulationEventsListener.setSimulationPanel(simulationPanel);
         //Creates a new MPLS packet directed to tail end node.
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 65535);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 65535);
         tailEndNode.getPorts().getPort(0).reEnqueuePacket(mplsPacket);
         assertFalse(tailEndNode.getPorts().getPort(0).getCongestionLevel() > 0L);
     }
@@ -930,7 +931,7 @@ public class TFIFOPortTest {
         JSimulationPanel simulationPanel = new JSimulationPanel();
         tailEndNode.simulationEventsListener.setSimulationPanel(simulationPanel);
         //Creates a new MPLS packet directed to tail end node.
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         tailEndNode.getPorts().getPort(0).reEnqueuePacket(mplsPacket);
         assertTrue(tailEndNode.getPorts().getPort(0).thereIsAPacketWaiting());
     }
@@ -970,7 +971,7 @@ public class TFIFOPortTest {
         if (tailEndNode.getPorts().getPort(0).getOccupancy() != 0L) {
             worksFine &= false;
         }
-        TMPLSPDU mplsPacket = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         tailEndNode.getPorts().getPort(0).addPacket(mplsPacket);
         if (tailEndNode.getPorts().getPort(0).getOccupancy() == 0L) {
             worksFine &= false;
@@ -996,8 +997,8 @@ public class TFIFOPortTest {
         if (tailEndNode.getPorts().getPort(0).getNumberOfPackets() != 0) {
             worksFine &= false;
         }
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
-        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         tailEndNode.getPorts().getPort(0).addPacket(mplsPacket1);
         tailEndNode.getPorts().getPort(0).addPacket(mplsPacket2);
         if (tailEndNode.getPorts().getPort(0).getNumberOfPackets() != 2) {
@@ -1024,11 +1025,11 @@ public class TFIFOPortTest {
         if (tailEndNode.getPorts().getPort(0).getNumberOfPackets() != 0) {
             worksFine &= false;
         }
-        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, "10.0.0.1", "10.0.0.2", 1024);
-        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, "10.0.0.1", "10.0.0.2", 1024);
-        TMPLSPDU mplsPacket3 = new TMPLSPDU(3, "10.0.0.1", "10.0.0.2", 1024);
-        TMPLSPDU mplsPacket4 = new TMPLSPDU(4, "10.0.0.1", "10.0.0.2", 1024);
-        TMPLSPDU mplsPacket5 = new TMPLSPDU(5, "10.0.0.1", "10.0.0.2", 1024);
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+        TMPLSPDU mplsPacket3 = new TMPLSPDU(3, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+        TMPLSPDU mplsPacket4 = new TMPLSPDU(4, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+        TMPLSPDU mplsPacket5 = new TMPLSPDU(5, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
         tailEndNode.getPorts().getPort(0).addPacket(mplsPacket1);
         tailEndNode.getPorts().getPort(0).addPacket(mplsPacket2);
         tailEndNode.getPorts().getPort(0).addPacket(mplsPacket3);
@@ -0,0 +1,316 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.hardware.ports;
+
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
+import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
+import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
+import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
+import com.manolodominguez.opensimmpls.scenario.TLSRNode;
+import com.manolodominguez.opensimmpls.scenario.TScene;
+import com.manolodominguez.opensimmpls.scenario.TTopology;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author manolodd
+ */
+public class TLockFreeFIFOPortTest {
+
+    public TLockFreeFIFOPortTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * Creates a node whose port set uses lock-free ports.
+     */
+    private TLSRNode createNode() {
+        TScene scenario = new TScene();  //Creates an scenario
+        TTopology topology = new TTopology(scenario); //Creates a topology
+        TLSRNode node = new TLSRNode(2, "10.0.0.2", new TLongIDGenerator(), topology); //Creates a node
+        node.setName("Dummy node name");
+        topology.addNode(node); // Adds the node to the topology
+        ((TFIFOPortSet) node.getPorts()).setLockFreePorts(true);
+        return node;
+    }
+
+    /**
+     * Test constructor, of class TLockFreeFIFOPort.
+     */
+    @Test
+    public void testConstructor() {
+        System.out.println("test Constructor");
+        TScene scenario = new TScene();
+        TTopology topology = new TTopology(scenario);
+        TLSRNode node = new TLSRNode(1, "10.0.0.1", new TLongIDGenerator(), topology);
+        TFIFOPortSet portSet = new TFIFOPortSet(8, node);
+        TLockFreeFIFOPort instance = new TLockFreeFIFOPort(portSet, 0);
+        boolean worksFine = true;
+        if (instance.getLink() != null) {
+            worksFine &= false;
+        }
+        if (instance.getPortSet() != portSet) { //comparing reference
+            worksFine &= false;
+        }
+        if (instance.isUnlimitedBuffer()) {
+            worksFine &= false;
+        }
+        if (instance.getNumberOfPackets() != 0) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test constructor, of class TLockFreeFIFOPort.
+     */
+    @Test
+    public void testConstructorWhenPortSetIsNull() {
+        System.out.println("test Constructor");
+        assertThrows(IllegalArgumentException.class, () -> {
+            TLockFreeFIFOPort instance = new TLockFreeFIFOPort(null, 0);
+        });
+    }
+
+    /**
+     * Test constructor, of class TLockFreeFIFOPort.
+     */
+    @Test
+    public void testConstructorWhenPortIsOutOfRange() {
+        System.out.println("test Constructor");
+        TScene scenario = new TScene();
+        TTopology topology = new TTopology(scenario);
+        TLSRNode node = new TLSRNode(1, "10.0.0.1", new TLongIDGenerator(), topology);
+        TFIFOPortSet portSet = new TFIFOPortSet(8, node);
+        assertThrows(IllegalArgumentException.class, () -> {
+            TLockFreeFIFOPort instance = new TLockFreeFIFOPort(portSet, 8);
+        });
+    }
+
+    /**
+     * Test of addPacket and getPacket methods, of class TLockFreeFIFOPort.
+     */
+    @Test
+    public void testAddPacketAndGetPacket() {
+        System.out.println("test addPacket and getPacket");
+        TLSRNode node = createNode();
+        TPort instance = node.getPorts().getPort(0);
+        boolean worksFine = true;
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+        instance.addPacket(mplsPacket1);
+        instance.addPacket(mplsPacket2);
+        if (instance.getNumberOfPackets() != 2) {
+            worksFine &= false;
+        }
+        if (node.getPorts().getPortSetOccupancy() != (mplsPacket1.getSize() + mplsPacket2.getSize())) {
+            worksFine &= false;
+        }
+        if (instance.getPacket() != mplsPacket1) {
+            worksFine &= false;
+        }
+        if (instance.getPacket() != mplsPacket2) {
+            worksFine &= false;
+        }
+        if (instance.thereIsAPacketWaiting()) {
+            worksFine &= false;
+        }
+        if (node.getPorts().getPortSetOccupancy() != 0) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of addPacket method, of class TLockFreeFIFOPort.
+     */
+    @Test
+    public void testAddPacketWhenPacketIsNull() {
+        System.out.println("test addPacket");
+        TLSRNode node = createNode();
+        assertThrows(IllegalArgumentException.class, () -> {
+            node.getPorts().getPort(0).addPacket(null);
+        });
+    }
+
+    /**
+     * Test of addPacket method, of class TLockFreeFIFOPort, when the port set
+     * buffer is full.
+     */
+    @Test
+    public void testAddPacketWhenBufferIsFull() {
+        System.out.println("test addPacket");
+        TLSRNode node = createNode();
+        TPort instance = node.getPorts().getPort(0);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+        // The packet fits in the buffer only if nothing else is there.
+        node.getPorts().setPortSetOccupancySize((1024 * 1024) - mplsPacket.getSize() + 1);
+        instance.addPacket(mplsPacket);
+        assertEquals(0, instance.getNumberOfPackets());
+    }
+
+    /**
+     * Test of reEnqueuePacket method, of class TLockFreeFIFOPort. A
+     * re-enqueued packet is read after the packets already received.
+     */
+    @Test
+    public void testReEnqueuePacket() {
+        System.out.println("test reEnqueuePacket");
+        TLSRNode node = createNode();
+        TPort instance = node.getPorts().getPort(0);
+        boolean worksFine = true;
+        TMPLSPDU mplsPacket1 = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+        TMPLSPDU mplsPacket2 = new TMPLSPDU(2, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+        TMPLSPDU mplsPacket3 = new TMPLSPDU(3, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+        instance.addPacket(mplsPacket1);
+        instance.addPacket(mplsPacket2);
+        TAbstractPDU packetRead = instance.getPacket();
+        instance.reEnqueuePacket(packetRead);
+        instance.addPacket(mplsPacket3);
+        if (instance.getNumberOfPackets() != 3) {
+            worksFine &= false;
+        }
+        if (instance.getPacket() != mplsPacket2) {
+            worksFine &= false;
+        }
+        if (instance.getPacket() != mplsPacket1) {
+            worksFine &= false;
+        }
+        if (instance.getPacket() != mplsPacket3) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of reEnqueuePacket method, of class TLockFreeFIFOPort.
+     */
+    @Test
+    public void testReEnqueuePacketWhenPacketIsNull() {
+        System.out.println("test reEnqueuePacket");
+        TLSRNode node = createNode();
+        assertThrows(IllegalArgumentException.class, () -> {
+            node.getPorts().getPort(0).reEnqueuePacket(null);
+        });
+    }
+
+    /**
+     * Test of getPacket method, of class TLockFreeFIFOPort.
+     */
+    @Test
+    public void testGetPacketWhenNoPacketAvailable() {
+        System.out.println("test getPacket");
+        TLSRNode node = createNode();
+        assertThrows(NoSuchElementException.class, () -> {
+            node.getPorts().getPort(0).getPacket();
+        });
+    }
+
+    /**
+     * Test of canSwitchPacket method, of class TLockFreeFIFOPort.
+     */
+    @Test
+    public void testCanSwitchPacket() {
+        System.out.println("test canSwitchPacket");
+        TLSRNode node = createNode();
+        // a 1024 octets payload means a packet with a total size of 1064 octects
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+        node.getPorts().getPort(0).addPacket(mplsPacket);
+        boolean worksFine = true;
+        if (!node.getPorts().getPort(0).canSwitchPacket(1064)) {
+            worksFine &= false;
+        }
+        if (node.getPorts().getPort(0).canSwitchPacket(1063)) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of canSwitchPacket method, of class TLockFreeFIFOPort.
+     */
+    @Test
+    public void testCanSwitchPacketWhenOutOfRange() {
+        System.out.println("test canSwitchPacket");
+        TLSRNode node = createNode();
+        assertThrows(IllegalArgumentException.class, () -> {
+            node.getPorts().getPort(0).canSwitchPacket(-1); //throws an exception
+        });
+    }
+
+    /**
+     * Test of getOccupancy method, of class TLockFreeFIFOPort, when the port
+     * is unlimited.
+     */
+    @Test
+    public void testGetOccupancyWhenUnlimited() {
+        System.out.println("test getOccupancy");
+        TLSRNode node = createNode();
+        node.getPorts().setUnlimitedBuffer(true);
+        TPort instance = node.getPorts().getPort(0);
+        TMPLSPDU mplsPacket = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+        boolean worksFine = true;
+        instance.addPacket(mplsPacket);
+        if (instance.getOccupancy() != mplsPacket.getSize()) {
+            worksFine &= false;
+        }
+        if (instance.getCongestionLevel() != 0) {
+            worksFine &= false;
+        }
+        instance.getPacket();
+        if (instance.getOccupancy() != 0) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of reset method, of class TLockFreeFIFOPort.
+     */
+    @Test
+    public void testReset() {
+        System.out.println("test reset");
+        TLSRNode node = createNode();
+        TPort instance = node.getPorts().getPort(0);
+        for (int i = 0; i < 5; i++) {
+            instance.addPacket(new TMPLSPDU(i, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024));
+        }
+        instance.reEnqueuePacket(instance.getPacket());
+        instance.reset();
+        assertFalse(instance.thereIsAPacketWaiting());
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.hardware.ports;
+
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
+import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author manolodd
+ */
+public class TPacketRingBufferTest {
+
+    public TPacketRingBufferTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * Test of constructor, of class TPacketRingBuffer.
+     */
+    @Test
+    public void testConstructor() {
+        System.out.println("Test constructor");
+        TPacketRingBuffer instance = new TPacketRingBuffer();
+        boolean worksFine = true;
+        if (instance.size() != 0) {
+            worksFine &= false;
+        }
+        if (instance.getOccupancy() != 0) {
+            worksFine &= false;
+        }
+        if (instance.removeFirst() != null) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of addLast and removeFirst methods, of class TPacketRingBuffer.
+     * Packets are added and removed alternately so that the buffer wraps
+     * around and also has to grow.
+     */
+    @Test
+    public void testAddLastAndRemoveFirst() {
+        System.out.println("Test addLast and removeFirst");
+        TPacketRingBuffer instance = new TPacketRingBuffer();
+        TMPLSPDU[] packets = new TMPLSPDU[100];
+        for (int i = 0; i < packets.length; i++) {
+            packets[i] = new TMPLSPDU(i, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+        }
+        boolean worksFine = true;
+        int nextToRemove = 0;
+        for (int i = 0; i < packets.length; i++) {
+            instance.addLast(packets[i]);
+            if ((i % 3) == 0) {
+                if (instance.removeFirst() != packets[nextToRemove]) {
+                    worksFine &= false;
+                }
+                nextToRemove++;
+            }
+        }
+        if (instance.size() != (packets.length - nextToRemove)) {
+            worksFine &= false;
+        }
+        if (instance.getOccupancy() != ((long) instance.size() * packets[0].getSize())) {
+            worksFine &= false;
+        }
+        while (nextToRemove < packets.length) {
+            if (instance.removeFirst() != packets[nextToRemove]) {
+                worksFine &= false;
+            }
+            nextToRemove++;
+        }
+        if (instance.size() != 0) {
+            worksFine &= false;
+        }
+        if (instance.getOccupancy() != 0) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of clear method, of class TPacketRingBuffer.
+     */
+    @Test
+    public void testClear() {
+        System.out.println("Test clear");
+        TPacketRingBuffer instance = new TPacketRingBuffer();
+        for (int i = 0; i < 20; i++) {
+            instance.addLast(new TMPLSPDU(i, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024));
+        }
+        instance.clear();
+        boolean worksFine = true;
+        if (instance.size() != 0) {
+            worksFine &= false;
+        }
+        if (instance.getOccupancy() != 0) {
+            worksFine &= false;
+        }
+        if (instance.removeFirst() != null) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.hardware.ports;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author manolodd
+ */
+public class TSPSCQueueTest {
+
+    public TSPSCQueueTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * Test of constructor, of class TSPSCQueue.
+     */
+    @Test
+    public void testConstructor() {
+        System.out.println("Test constructor");
+        TSPSCQueue<Integer> instance = new TSPSCQueue<>();
+        boolean worksFine = true;
+        if (!instance.isEmpty()) {
+            worksFine &= false;
+        }
+        if (instance.size() != 0) {
+            worksFine &= false;
+        }
+        if (instance.poll() != null) {
+            worksFine &= false;
+        }
+        if (instance.peek() != null) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of offer and poll methods, of class TSPSCQueue. More elements than
+     * a segment can store are used, so that several segments are linked.
+     */
+    @Test
+    public void testOfferAndPoll() {
+        System.out.println("Test offer and poll");
+        TSPSCQueue<Integer> instance = new TSPSCQueue<>();
+        boolean worksFine = true;
+        for (int i = 0; i < 1000; i++) {
+            instance.offer(i);
+        }
+        if (instance.size() != 1000) {
+            worksFine &= false;
+        }
+        for (int i = 0; i < 1000; i++) {
+            if (instance.peek() != i) {
+                worksFine &= false;
+            }
+            if (instance.poll() != i) {
+                worksFine &= false;
+            }
+        }
+        if (!instance.isEmpty()) {
+            worksFine &= false;
+        }
+        if (instance.poll() != null) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of offer and poll methods, of class TSPSCQueue, when a producer
+     * thread and a consumer thread work at the same time.
+     */
+    @Test
+    public void testOfferAndPollConcurrently() throws InterruptedException {
+        System.out.println("Test offer and poll concurrently");
+        TSPSCQueue<Integer> instance = new TSPSCQueue<>();
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 100000; i++) {
+                instance.offer(i);
+            }
+        });
+        producer.start();
+        boolean worksFine = true;
+        int expected = 0;
+        Integer element;
+        while (expected < 100000) {
+            element = instance.poll();
+            if (element != null) {
+                if (element != expected) {
+                    worksFine &= false;
+                }
+                expected++;
+            }
+        }
+        producer.join();
+        if (!instance.isEmpty()) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+}
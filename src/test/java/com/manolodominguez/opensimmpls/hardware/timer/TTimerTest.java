@@ -0,0 +1,87 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.hardware.timer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TTimerTest {
+
+    public TTimerTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+
+    /**
+     * Test of constructor method, of class TTimer.
+     */
+    @Test
+    public void testConstructor() {
+        System.out.println("Test constructor");
+        TTimer instance = new TTimer();
+        assertNull(instance.getExecutionBackend()); // Created on the first tick
+    }
+
+    /**
+     * Test of shutdownExecutionBackend method, of class TTimer.
+     */
+    @Test
+    public void testShutdownExecutionBackend() {
+        System.out.println("Test shutdownExecutionBackend()");
+        TTimer instance = new TTimer();
+        instance.setExecutionBackend(new TWorkerPoolExecutionBackend(1));
+        assertNotNull(instance.getExecutionBackend());
+        instance.shutdownExecutionBackend();
+        assertNull(instance.getExecutionBackend());
+        instance.shutdownExecutionBackend(); // Nothing to shut down. Should not fail
+        assertNull(instance.getExecutionBackend());
+    }
+
+    /**
+     * Test of setExecutionBackend method, of class TTimer.
+     */
+    @Test
+    public void testSetExecutionBackendWhenNull() {
+        System.out.println("Test setExecutionBackend()");
+        TTimer instance = new TTimer();
+        assertThrows(IllegalArgumentException.class, () -> {
+            instance.setExecutionBackend(null); // Should throw an exception
+        });
+    }
+}
@@ -0,0 +1,113 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.hardware.timer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TWorkerPoolExecutionBackendTest {
+
+    public TWorkerPoolExecutionBackendTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * Test of constructor method, of class TWorkerPoolExecutionBackend.
+     */
+    @Test
+    public void testConstructorWhenNumberOfWorkersIsNotPositive() {
+        System.out.println("Test constructor");
+        assertThrows(IllegalArgumentException.class, () -> {
+            TWorkerPoolExecutionBackend instance = new TWorkerPoolExecutionBackend(0); // Should throw an exception
+        });
+    }
+
+    /**
+     * Test of awaitTickCompletion method, of class
+     * TWorkerPoolExecutionBackend.
+     */
+    @Test
+    public void testAwaitTickCompletion() {
+        System.out.println("Test awaitTickCompletion()");
+        TWorkerPoolExecutionBackend instance = new TWorkerPoolExecutionBackend(2);
+        AtomicInteger finishedWork = new AtomicInteger(0);
+        for (int tick = 1; tick <= 50; tick++) {
+            for (int element = 0; element < 20; element++) {
+                instance.execute(() -> {
+                    finishedWork.incrementAndGet();
+                });
+            }
+            instance.awaitTickCompletion();
+            assertEquals(tick * 20, finishedWork.get());
+        }
+        instance.shutdown();
+    }
+
+    /**
+     * Test of awaitTickCompletion method, of class
+     * TWorkerPoolExecutionBackend.
+     */
+    @Test
+    public void testAwaitTickCompletionWhenWorkFails() {
+        System.out.println("Test awaitTickCompletion()");
+        TWorkerPoolExecutionBackend instance = new TWorkerPoolExecutionBackend(2);
+        instance.execute(() -> {
+            throw new IllegalStateException();
+        });
+        assertDoesNotThrow(() -> {
+            instance.awaitTickCompletion();
+        });
+        instance.shutdown();
+    }
+
+    /**
+     * Test of awaitTickCompletion method, of class
+     * TWorkerPoolExecutionBackend.
+     */
+    @Test
+    public void testAwaitTickCompletionWhenNoWork() {
+        System.out.println("Test awaitTickCompletion()");
+        TWorkerPoolExecutionBackend instance = new TWorkerPoolExecutionBackend(1);
+        assertDoesNotThrow(() -> {
+            instance.awaitTickCompletion();
+        });
+        instance.shutdown();
+    }
+}
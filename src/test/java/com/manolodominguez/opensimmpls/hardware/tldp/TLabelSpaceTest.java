@@ -0,0 +1,132 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.hardware.tldp;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TLabelSpaceTest {
+
+    public TLabelSpaceTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * Test of constructor method, of class TLabelSpace.
+     */
+    @Test
+    public void testConstructor() {
+        System.out.println("Test constructor");
+        TLabelSpace instance = new TLabelSpace();
+        assertEquals(0, instance.getNumberOfUsedLabels());
+        assertEquals(TSwitchingMatrixEntry.FIRST_UNRESERVED_LABEL, instance.getFirstFreeLabel());
+    }
+
+    /**
+     * Test of getFirstFreeLabel method, of class TLabelSpace.
+     */
+    @Test
+    public void testGetFirstFreeLabel() {
+        System.out.println("Test getFirstFreeLabel");
+        TLabelSpace instance = new TLabelSpace();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(TSwitchingMatrixEntry.FIRST_UNRESERVED_LABEL + i, instance.getFirstFreeLabel());
+            instance.addReference(instance.getFirstFreeLabel());
+        }
+        instance.removeReference(500);
+        instance.removeReference(100);
+        assertEquals(100, instance.getFirstFreeLabel());
+        instance.addReference(100);
+        assertEquals(500, instance.getFirstFreeLabel());
+        instance.addReference(500);
+        assertEquals(TSwitchingMatrixEntry.FIRST_UNRESERVED_LABEL + 1000, instance.getFirstFreeLabel());
+    }
+
+    /**
+     * Test of getFirstFreeLabel method, of class TLabelSpace.
+     */
+    @Test
+    public void testGetFirstFreeLabelWhenLabelSpaceIsFull() {
+        System.out.println("Test getFirstFreeLabel");
+        TLabelSpace instance = new TLabelSpace();
+        for (int i = TSwitchingMatrixEntry.FIRST_UNRESERVED_LABEL; i <= TSwitchingMatrixEntry.LABEL_SPACE; i++) {
+            instance.addReference(i);
+        }
+        assertEquals(TSwitchingMatrixEntry.LABEL_UNAVAILABLE, instance.getFirstFreeLabel());
+        assertEquals(100.0, instance.getUsagePercentage(), 0.0);
+        instance.removeReference(TSwitchingMatrixEntry.LABEL_SPACE);
+        assertEquals(TSwitchingMatrixEntry.LABEL_SPACE, instance.getFirstFreeLabel());
+    }
+
+    /**
+     * Test of removeReference method, of class TLabelSpace.
+     */
+    @Test
+    public void testRemoveReferenceWhenLabelIsShared() {
+        System.out.println("Test removeReference");
+        TLabelSpace instance = new TLabelSpace();
+        instance.addReference(16);
+        instance.addReference(16);
+        instance.removeReference(16);
+        assertTrue(instance.isUsed(16));
+        assertEquals(1, instance.getNumberOfUsedLabels());
+        instance.removeReference(16);
+        assertFalse(instance.isUsed(16));
+        assertEquals(0, instance.getNumberOfUsedLabels());
+        // Not used or out of range labels are ignored.
+        instance.removeReference(16);
+        instance.addReference(TSwitchingMatrixEntry.UNDEFINED);
+        assertEquals(0, instance.getNumberOfUsedLabels());
+    }
+
+    /**
+     * Test of reset method, of class TLabelSpace.
+     */
+    @Test
+    public void testReset() {
+        System.out.println("Test reset");
+        TLabelSpace instance = new TLabelSpace();
+        instance.addReference(16);
+        instance.addReference(5000);
+        instance.reset();
+        assertFalse(instance.isUsed(5000));
+        assertEquals(0, instance.getNumberOfUsedLabels());
+        assertEquals(16, instance.getFirstFreeLabel());
+    }
+}
@@ -0,0 +1,229 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.hardware.tldp;
+
+import java.util.Iterator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TSwitchingMatrixTest {
+
+    public TSwitchingMatrixTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * Creates a label entry with the specified incoming port, label and TLDP
+     * session IDs.
+     */
+    private TSwitchingMatrixEntry createEntry(int incomingPortID, int label, int localTLDPSessionID, int upstreamTLDPSessionID) {
+        TSwitchingMatrixEntry entry = new TSwitchingMatrixEntry();
+        entry.setIncomingPortID(incomingPortID);
+        entry.setLabelOrFEC(label);
+        entry.setEntryType(TSwitchingMatrixEntry.LABEL_ENTRY);
+        entry.setLocalTLDPSessionID(localTLDPSessionID);
+        entry.setUpstreamTLDPSessionID(upstreamTLDPSessionID);
+        entry.setOutgoingPortID(incomingPortID + 1);
+        entry.setOutgoingLabel(label + 100);
+        entry.setLabelStackOperation(TSwitchingMatrixEntry.SWAP_LABEL);
+        return entry;
+    }
+
+    /**
+     * Test of constructor method, of class TSwitchingMatrix.
+     */
+    @Test
+    public void testConstructor() {
+        System.out.println("Test constructor");
+        TSwitchingMatrix instance = new TSwitchingMatrix();
+        assertFalse(instance.getEntriesIterator().hasNext());
+        assertEquals(0, instance.getNumberOfEntries());
+    }
+
+    /**
+     * Test of getEntry method, of class TSwitchingMatrix.
+     */
+    @Test
+    public void testGetEntry() {
+        System.out.println("Test getEntry");
+        TSwitchingMatrix instance = new TSwitchingMatrix();
+        TSwitchingMatrixEntry entry1 = createEntry(0, 16, 1, 11);
+        TSwitchingMatrixEntry entry2 = createEntry(1, 16, 2, 12);
+        instance.addEntry(entry1);
+        instance.addEntry(entry2);
+        assertSame(entry1, instance.getEntry(0, 16, TSwitchingMatrixEntry.LABEL_ENTRY));
+        assertSame(entry2, instance.getEntry(1, 16, TSwitchingMatrixEntry.LABEL_ENTRY));
+        assertNull(instance.getEntry(0, 16, TSwitchingMatrixEntry.FEC_ENTRY));
+        assertSame(entry2, instance.getEntry(2));
+        assertSame(entry1, instance.getEntry(11, 0));
+        assertNull(instance.getEntry(11, 1));
+        assertTrue(instance.existsEntry(1, 16, TSwitchingMatrixEntry.LABEL_ENTRY));
+        assertEquals(2, instance.getOutgoingPortID(1, 16, TSwitchingMatrixEntry.LABEL_ENTRY));
+        assertEquals(116, instance.getOutgoingLabel(1, 16, TSwitchingMatrixEntry.LABEL_ENTRY));
+        assertEquals(TSwitchingMatrixEntry.SWAP_LABEL, instance.getLabelStackOperation(1, 16, TSwitchingMatrixEntry.LABEL_ENTRY));
+        assertEquals(TSwitchingMatrixEntry.UNDEFINED, instance.getOutgoingPortID(5, 16, TSwitchingMatrixEntry.LABEL_ENTRY));
+    }
+
+    /**
+     * Test of getEntry method, of class TSwitchingMatrix.
+     */
+    @Test
+    public void testGetEntryWhenSeveralEntriesMatch() {
+        System.out.println("Test getEntry");
+        TSwitchingMatrix instance = new TSwitchingMatrix();
+        TSwitchingMatrixEntry entry1 = createEntry(0, TSwitchingMatrixEntry.UNDEFINED, 1, 11);
+        TSwitchingMatrixEntry entry2 = createEntry(0, 17, 2, 12);
+        TSwitchingMatrixEntry entry3 = createEntry(0, TSwitchingMatrixEntry.UNDEFINED, 3, 13);
+        instance.addEntry(entry1);
+        instance.addEntry(entry2);
+        instance.addEntry(entry3);
+        // The first added entry is returned, as a sequential search would do.
+        assertSame(entry1, instance.getEntry(0, TSwitchingMatrixEntry.UNDEFINED, TSwitchingMatrixEntry.LABEL_ENTRY));
+        entry2.setLabelOrFEC(TSwitchingMatrixEntry.UNDEFINED);
+        entry1.setLabelOrFEC(16);
+        assertSame(entry2, instance.getEntry(0, TSwitchingMatrixEntry.UNDEFINED, TSwitchingMatrixEntry.LABEL_ENTRY));
+    }
+
+    /**
+     * Test of getEntry method, of class TSwitchingMatrix.
+     */
+    @Test
+    public void testGetEntryWhenEntryChanges() {
+        System.out.println("Test getEntry");
+        TSwitchingMatrix instance = new TSwitchingMatrix();
+        TSwitchingMatrixEntry entry = createEntry(0, TSwitchingMatrixEntry.UNDEFINED, 1, 11);
+        instance.addEntry(entry);
+        entry.setLabelOrFEC(20);
+        entry.setIncomingPortID(3);
+        entry.setLocalTLDPSessionID(5);
+        entry.setUpstreamTLDPSessionID(15);
+        assertNull(instance.getEntry(0, TSwitchingMatrixEntry.UNDEFINED, TSwitchingMatrixEntry.LABEL_ENTRY));
+        assertSame(entry, instance.getEntry(3, 20, TSwitchingMatrixEntry.LABEL_ENTRY));
+        assertNull(instance.getEntry(1));
+        assertSame(entry, instance.getEntry(5));
+        assertNull(instance.getEntry(11, 0));
+        assertSame(entry, instance.getEntry(15, 3));
+    }
+
+    /**
+     * Test of removeEntry method, of class TSwitchingMatrix.
+     */
+    @Test
+    public void testRemoveEntry() {
+        System.out.println("Test removeEntry");
+        TSwitchingMatrix instance = new TSwitchingMatrix();
+        TSwitchingMatrixEntry entry1 = createEntry(0, 16, 1, 11);
+        TSwitchingMatrixEntry entry2 = createEntry(1, 17, 2, 12);
+        instance.addEntry(entry1);
+        instance.addEntry(entry2);
+        instance.removeEntry(0, 16, TSwitchingMatrixEntry.LABEL_ENTRY);
+        assertNull(instance.getEntry(1));
+        assertNull(instance.getEntry(11, 0));
+        instance.removeEntry(2, 0);
+        assertSame(entry2, instance.getEntry(2));
+        instance.removeEntry(2, 1);
+        assertNull(instance.getEntry(1, 17, TSwitchingMatrixEntry.LABEL_ENTRY));
+        assertEquals(0, instance.getNumberOfEntries());
+        // Removed entries can be modified without affecting the matrix.
+        entry1.setLocalTLDPSessionID(2);
+        assertNull(instance.getEntry(2));
+    }
+
+    /**
+     * Test of getEntriesIterator method, of class TSwitchingMatrix.
+     */
+    @Test
+    public void testGetEntriesIterator() {
+        System.out.println("Test getEntriesIterator");
+        TSwitchingMatrix instance = new TSwitchingMatrix();
+        TSwitchingMatrixEntry entry1 = createEntry(0, 16, 1, 11);
+        TSwitchingMatrixEntry entry2 = createEntry(1, 17, 2, 12);
+        instance.addEntry(entry1);
+        instance.addEntry(entry2);
+        Iterator<TSwitchingMatrixEntry> iterator = instance.getEntriesIterator();
+        assertSame(entry1, iterator.next());
+        iterator.remove();
+        assertSame(entry2, iterator.next());
+        assertFalse(iterator.hasNext());
+        assertNull(instance.getEntry(0, 16, TSwitchingMatrixEntry.LABEL_ENTRY));
+        assertNull(instance.getEntry(1));
+        assertEquals(1, instance.getNumberOfEntries());
+    }
+
+    /**
+     * Test of getNewLabel method, of class TSwitchingMatrix.
+     */
+    @Test
+    public void testGetNewLabel() {
+        System.out.println("Test getNewLabel");
+        TSwitchingMatrix instance = new TSwitchingMatrix();
+        assertEquals(TSwitchingMatrixEntry.FIRST_UNRESERVED_LABEL, instance.getNewLabel());
+        TSwitchingMatrixEntry entry1 = createEntry(0, TSwitchingMatrixEntry.UNDEFINED, 1, 11);
+        TSwitchingMatrixEntry entry2 = createEntry(0, TSwitchingMatrixEntry.UNDEFINED, 2, 12);
+        instance.addEntry(entry1);
+        instance.addEntry(entry2);
+        entry1.setLabelOrFEC(instance.getNewLabel());
+        entry2.setLabelOrFEC(instance.getNewLabel());
+        assertEquals(16, entry1.getLabelOrFEC());
+        assertEquals(17, entry2.getLabelOrFEC());
+        assertTrue(instance.labelIsAlreadyUsed(17));
+        assertEquals(2, instance.getNumberOfUsedLabels());
+        instance.removeEntry(0, 16, TSwitchingMatrixEntry.LABEL_ENTRY);
+        assertFalse(instance.labelIsAlreadyUsed(16));
+        assertEquals(16, instance.getNewLabel());
+        // FEC entries do not use labels.
+        entry2.setEntryType(TSwitchingMatrixEntry.FEC_ENTRY);
+        assertFalse(instance.labelIsAlreadyUsed(17));
+        assertEquals(0.0, instance.getLabelSpaceUsagePercentage(), 0.0);
+    }
+
+    /**
+     * Test of reset method, of class TSwitchingMatrix.
+     */
+    @Test
+    public void testReset() {
+        System.out.println("Test reset");
+        TSwitchingMatrix instance = new TSwitchingMatrix();
+        instance.addEntry(createEntry(0, 16, 1, 11));
+        instance.reset();
+        assertFalse(instance.getEntriesIterator().hasNext());
+        assertNull(instance.getEntry(0, 16, TSwitchingMatrixEntry.LABEL_ENTRY));
+        assertNull(instance.getEntry(1));
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.stats;
+
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
+import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
+import com.manolodominguez.opensimmpls.io.traces.TSimulationTraceFormat;
+import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
+import com.manolodominguez.opensimmpls.scenario.StatsColumns;
+import com.manolodominguez.opensimmpls.scenario.TLSRNode;
+import com.manolodominguez.opensimmpls.scenario.TScene;
+import com.manolodominguez.opensimmpls.scenario.TStats;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author manolodd
+ */
+public class TStatsExporterTest {
+
+    public TStatsExporterTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * Test of constructor, of class TStatsExporter, when the scenario is
+     * null.
+     */
+    @Test
+    public void testConstructorWhenScenarioIsNull() {
+        System.out.println("Test constructor when scenario is null");
+        assertThrows(IllegalArgumentException.class, () -> {
+            TStatsExporter instance = new TStatsExporter(null, new File("stats.csv"), StatsExportFormats.CSV);
+        });
+    }
+
+    /**
+     * Test of constructor, of class TStatsExporter, when the format is null.
+     */
+    @Test
+    public void testConstructorWhenFormatIsNull() {
+        System.out.println("Test constructor when format is null");
+        assertThrows(IllegalArgumentException.class, () -> {
+            TStatsExporter instance = new TStatsExporter(new TScene(), new File("stats.csv"), null);
+        });
+    }
+
+    /**
+     * Test of captureStats method, of class TStatsExporter, in CSV format.
+     * There is a line per time instant with the running totals of the node,
+     * and empty values for columns the node does not export.
+     */
+    @Test
+    public void testCaptureStatsCSV() throws IOException {
+        System.out.println("Test captureStats in CSV format");
+        TScene scenario = new TScene();
+        TLSRNode node = new TLSRNode(1, "10.0.0.1", new TLongIDGenerator(), scenario.getTopology());
+        scenario.getTopology().addNode(node);
+        TStats stats = node.getStats();
+        stats.setStatsEnabled(true);
+        File outputFile = File.createTempFile("opensimmpls", ".series.csv");
+        outputFile.deleteOnExit();
+        TStatsExporter instance = new TStatsExporter(scenario, outputFile, StatsExportFormats.CSV);
+        instance.open();
+        int numberOfInstants = TStatsExporter.CHUNK_SIZE * 2 + 10;
+        for (int i = 0; i < numberOfInstants; i++) {
+            stats.addStatEntry(new TMPLSPDU(i, TIPv4Address.fromString("10.0.0.2"), TIPv4Address.fromString("10.0.0.3"), 1024), TStats.INCOMING);
+            stats.groupStatsByTimeInstant(i * 100L);
+        }
+        instance.close();
+        boolean worksFine = true;
+        if (instance.getNumberOfRows() != numberOfInstants) {
+            worksFine &= false;
+        }
+        List<String> lines = Files.readAllLines(outputFile.toPath(), StandardCharsets.UTF_8);
+        if (lines.size() != numberOfInstants + 1) {
+            worksFine &= false;
+        }
+        String[] header = lines.get(0).split(";", -1);
+        if ((header.length != StatsColumns.values().length + 3) || !header[3 + StatsColumns.INCOMING_MPLS.ordinal()].equals("incomingMPLS")) {
+            worksFine &= false;
+        }
+        for (int i = 0; i < numberOfInstants; i++) {
+            String[] values = lines.get(i + 1).split(";", -1);
+            if ((values.length != header.length) || !values[0].equals("1") || !values[2].equals(Long.toString(i * 100L))) {
+                worksFine &= false;
+            } else {
+                if (!values[3 + StatsColumns.INCOMING_MPLS.ordinal()].equals(Integer.toString(i + 1))) {
+                    worksFine &= false;
+                }
+                if (!values[3 + StatsColumns.GOS_PACKETS_LOST.ordinal()].isEmpty()) {
+                    worksFine &= false;
+                }
+            }
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of captureStats method, of class TStatsExporter, in CSV format,
+     * when the name of the node contains separators and double quotes.
+     */
+    @Test
+    public void testCaptureStatsCSVWhenNodeNameNeedsQuoting() throws IOException {
+        System.out.println("Test captureStats in CSV format when node name needs quoting");
+        TScene scenario = new TScene();
+        TLSRNode node = new TLSRNode(1, "10.0.0.1", new TLongIDGenerator(), scenario.getTopology());
+        node.setName("LSR;\"core\"");
+        scenario.getTopology().addNode(node);
+        TStats stats = node.getStats();
+        stats.setStatsEnabled(true);
+        File outputFile = File.createTempFile("opensimmpls", ".series.csv");
+        outputFile.deleteOnExit();
+        TStatsExporter instance = new TStatsExporter(scenario, outputFile, StatsExportFormats.CSV);
+        instance.open();
+        stats.addStatEntry(new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.2"), TIPv4Address.fromString("10.0.0.3"), 1024), TStats.INCOMING);
+        stats.groupStatsByTimeInstant(100L);
+        instance.close();
+        List<String> lines = Files.readAllLines(outputFile.toPath(), StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).startsWith("1;\"LSR;\"\"core\"\"\";100;"));
+    }
+
+    /**
+     * Test of captureStats method, of class TStatsExporter, when it is called
+     * by a node after the exporter has been closed.
+     */
+    @Test
+    public void testCaptureStatsAfterClose() throws IOException {
+        System.out.println("Test captureStats after close");
+        TScene scenario = new TScene();
+        TLSRNode node = new TLSRNode(1, "10.0.0.1", new TLongIDGenerator(), scenario.getTopology());
+        scenario.getTopology().addNode(node);
+        TStats stats = node.getStats();
+        stats.setStatsEnabled(true);
+        File outputFile = File.createTempFile("opensimmpls", ".series.csv");
+        outputFile.deleteOnExit();
+        TStatsExporter instance = new TStatsExporter(scenario, outputFile, StatsExportFormats.CSV);
+        instance.open();
+        stats.groupStatsByTimeInstant(100L);
+        instance.close();
+        for (int i = 0; i < TStatsExporter.CHUNK_SIZE; i++) {
+            instance.captureStats(stats, 200L + i); // Should be ignored
+        }
+        assertEquals(1, instance.getNumberOfRows());
+        assertEquals(2, Files.readAllLines(outputFile.toPath(), StandardCharsets.UTF_8).size());
+    }
+
+    /**
+     * Test of captureStats method, of class TStatsExporter, in COLUMNAR
+     * format. The header describes every column and node, and chunks hold
+     * consecutive time instants as differences to the previous value.
+     */
+    @Test
+    public void testCaptureStatsColumnar() throws IOException {
+        System.out.println("Test captureStats in COLUMNAR format");
+        TScene scenario = new TScene();
+        TLSRNode node = new TLSRNode(7, "10.0.0.1", new TLongIDGenerator(), scenario.getTopology());
+        scenario.getTopology().addNode(node);
+        TStats stats = node.getStats();
+        stats.setStatsEnabled(true);
+        File outputFile = File.createTempFile("opensimmpls", ".series.osms");
+        outputFile.deleteOnExit();
+        TStatsExporter instance = new TStatsExporter(scenario, outputFile, StatsExportFormats.COLUMNAR);
+        instance.open();
+        int numberOfInstants = TStatsExporter.CHUNK_SIZE + 10;
+        for (int i = 0; i < numberOfInstants; i++) {
+            stats.addStatEntry(new TMPLSPDU(i, TIPv4Address.fromString("10.0.0.2"), TIPv4Address.fromString("10.0.0.3"), 1024), TStats.INCOMING);
+            stats.groupStatsByTimeInstant(i * 100L);
+        }
+        instance.close();
+        boolean worksFine = true;
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(outputFile.toPath()));
+        if ((buffer.getInt() != TStatsExporter.MAGIC_NUMBER) || (buffer.getInt() != TStatsExporter.VERSION)) {
+            worksFine &= false;
+        }
+        if (buffer.getInt() != StatsColumns.values().length) {
+            worksFine &= false;
+        }
+        for (StatsColumns column : StatsColumns.values()) {
+            byte[] name = new byte[buffer.getInt()];
+            buffer.get(name);
+            if (!new String(name, StandardCharsets.UTF_8).equals(column.getColumnName())) {
+                worksFine &= false;
+            }
+        }
+        if ((buffer.getInt() != 1) || (buffer.getInt() != 7)) {
+            worksFine &= false;
+        }
+        byte[] nodeName = new byte[buffer.getInt()];
+        buffer.get(nodeName);
+        StatsColumns[] columns = stats.getColumns();
+        int incomingMPLSPosition = -1;
+        if (buffer.getInt() != columns.length) {
+            worksFine &= false;
+        }
+        for (int i = 0; i < columns.length; i++) {
+            if (buffer.getInt() != columns[i].ordinal()) {
+                worksFine &= false;
+            }
+            if (columns[i] == StatsColumns.INCOMING_MPLS) {
+                incomingMPLSPosition = i;
+            }
+        }
+        int readInstants = 0;
+        int chunkSize = buffer.getInt();
+        while (chunkSize != TStatsExporter.END_OF_CHUNKS) {
+            int chunkEnd = buffer.position() + TStatsExporter.CHUNK_HEADER_SIZE - Integer.BYTES + chunkSize;
+            int numberOfRows;
+            if (buffer.getInt() != 7) {
+                worksFine &= false;
+            }
+            numberOfRows = buffer.getInt();
+            long[][] values = new long[columns.length + 1][numberOfRows];
+            for (int column = 0; column <= columns.length; column++) {
+                long value = 0;
+                for (int row = 0; row < numberOfRows; row++) {
+                    value += TSimulationTraceFormat.getSignedVarLong(buffer);
+                    values[column][row] = value;
+                }
+            }
+            if (buffer.position() != chunkEnd) {
+                worksFine &= false;
+            }
+            for (int row = 0; row < numberOfRows; row++) {
+                if (values[0][row] != (readInstants + row) * 100L) {
+                    worksFine &= false;
+                }
+                if (values[incomingMPLSPosition + 1][row] != readInstants + row + 1) {
+                    worksFine &= false;
+                }
+            }
+            readInstants += numberOfRows;
+            chunkSize = buffer.getInt();
+        }
+        if ((readInstants != numberOfInstants) || buffer.hasRemaining()) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+}
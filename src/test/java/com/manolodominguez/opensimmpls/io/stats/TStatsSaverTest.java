@@ -0,0 +1,106 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.stats;
+
+import com.manolodominguez.opensimmpls.scenario.TScene;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TStatsSaverTest {
+
+    public TStatsSaverTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * Test of constructor, of class TStatsSaver, when the scenario is null.
+     */
+    @Test
+    public void testConstructorWhenScenarioIsNull() {
+        System.out.println("Test constructor when scenario is null");
+        assertThrows(IllegalArgumentException.class, () -> {
+            TStatsSaver instance = new TStatsSaver(null); // Should throw an exception
+        });
+    }
+
+    /**
+     * Test of save method, of class TStatsSaver, when the output file is null.
+     */
+    @Test
+    public void testSaveWhenOutputFileIsNull() {
+        System.out.println("Test save() when output file is null");
+        TStatsSaver instance = new TStatsSaver(new TScene());
+        assertThrows(IllegalArgumentException.class, () -> {
+            instance.save(null); // Should throw an exception
+        });
+    }
+
+    /**
+     * Test of save method, of class TStatsSaver.
+     */
+    @Test
+    public void testSave() throws IOException {
+        System.out.println("Test save()");
+        File outputFile = File.createTempFile("stats", ".csv");
+        outputFile.deleteOnExit();
+        TStatsSaver instance = new TStatsSaver(new TScene());
+        assertTrue(instance.save(outputFile));
+        List<String> lines = Files.readAllLines(outputFile.toPath(), StandardCharsets.UTF_8);
+        assertEquals(1, lines.size()); // Only the header, as there are no nodes
+        assertEquals("nodeID;nodeName;dataset;series;x;y", lines.get(0));
+    }
+
+    /**
+     * Test of save method, of class TStatsSaver, when the output file cannot
+     * be written.
+     */
+    @Test
+    public void testSaveWhenOutputFileCannotBeWritten() throws IOException {
+        System.out.println("Test save() when output file cannot be written");
+        File outputDirectory = Files.createTempDirectory("stats").toFile();
+        outputDirectory.deleteOnExit();
+        TStatsSaver instance = new TStatsSaver(new TScene());
+        assertFalse(instance.save(outputDirectory)); // A directory cannot be opened as a file
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.traces;
+
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author manolodd
+ */
+public class TSimulationTraceFormatTest {
+
+    public TSimulationTraceFormatTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * Test of putVarLong and getVarLong methods, of class
+     * TSimulationTraceFormat.
+     */
+    @Test
+    public void testPutAndGetVarLong() {
+        System.out.println("Test putVarLong and getVarLong");
+        long[] values = {0L, 1L, 127L, 128L, 16383L, 16384L, Integer.MAX_VALUE, Long.MAX_VALUE, -1L};
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        for (long value : values) {
+            TSimulationTraceFormat.putVarLong(buffer, value);
+        }
+        boolean worksFine = true;
+        // Small values take a single byte.
+        if (buffer.get(0) != 0) {
+            worksFine &= false;
+        }
+        buffer.flip();
+        for (long value : values) {
+            if (TSimulationTraceFormat.getVarLong(buffer) != value) {
+                worksFine &= false;
+            }
+        }
+        if (buffer.hasRemaining()) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of putSignedVarLong and getSignedVarLong methods, of class
+     * TSimulationTraceFormat.
+     */
+    @Test
+    public void testPutAndGetSignedVarLong() {
+        System.out.println("Test putSignedVarLong and getSignedVarLong");
+        long[] values = {0L, -1L, 1L, -64L, 63L, Long.MIN_VALUE, Long.MAX_VALUE};
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        TSimulationTraceFormat.putSignedVarLong(buffer, -1L);
+        boolean worksFine = true;
+        // Small negative values take a single byte too.
+        if (buffer.position() != 1) {
+            worksFine &= false;
+        }
+        buffer.clear();
+        for (long value : values) {
+            TSimulationTraceFormat.putSignedVarLong(buffer, value);
+        }
+        buffer.flip();
+        for (long value : values) {
+            if (TSimulationTraceFormat.getSignedVarLong(buffer) != value) {
+                worksFine &= false;
+            }
+        }
+        assertTrue(worksFine);
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.traces;
+
+import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
+import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
+import com.manolodominguez.opensimmpls.scenario.TLSRNode;
+import com.manolodominguez.opensimmpls.scenario.TScene;
+import com.manolodominguez.opensimmpls.scenario.TTopology;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventLabelRequested;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketGenerated;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author manolodd
+ */
+public class TSimulationTraceIndexTest {
+
+    public TSimulationTraceIndexTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * Test of constructor, of class TSimulationTraceIndex, when the file is
+     * null.
+     */
+    @Test
+    public void testConstructorWhenFileIsNull() {
+        System.out.println("Test constructor when file is null");
+        assertThrows(IllegalArgumentException.class, () -> {
+            TSimulationTraceIndex instance = new TSimulationTraceIndex(null, new TTopology(new TScene()));
+        });
+    }
+
+    /**
+     * Test of getEvents methods, of class TSimulationTraceIndex. Time range and
+     * topology element queries return exactly the events that match them, in
+     * the same order they were written, from a trace with several blocks.
+     */
+    @Test
+    public void testGetEvents() throws IOException {
+        System.out.println("Test getEvents");
+        TScene scenario = new TScene();
+        TTopology topology = new TTopology(scenario);
+        TLSRNode node1 = new TLSRNode(1, "10.0.0.1", new TLongIDGenerator(), topology);
+        TLSRNode node2 = new TLSRNode(2, "10.0.0.2", new TLongIDGenerator(), topology);
+        TLSRNode node3 = new TLSRNode(3, "10.0.0.3", new TLongIDGenerator(), topology);
+        topology.addNode(node1);
+        topology.addNode(node2);
+        topology.addNode(node3);
+        File traceFile = File.createTempFile("opensimmpls", ".trace");
+        traceFile.deleteOnExit();
+        TSimulationTraceWriter writer = new TSimulationTraceWriter(traceFile);
+        writer.open();
+        int numberOfTicks = 100000;
+        for (int i = 0; i < numberOfTicks; i++) {
+            writer.captureSimulationEvents(new TSimulationEventPacketGenerated(node1, i, i * 100L, TAbstractPDU.IPV4, 1024));
+            // Node 2 only has events in the second half of the trace.
+            if (i >= numberOfTicks / 2) {
+                writer.captureSimulationEvents(new TSimulationEventLabelRequested(node2, i, (i * 100L) + 50));
+            }
+        }
+        writer.close();
+        TSimulationTraceIndex instance = new TSimulationTraceIndex(traceFile, topology);
+        instance.open();
+        boolean worksFine = true;
+        if ((instance.getNumberOfEvents() != numberOfTicks + (numberOfTicks / 2)) || (instance.getNumberOfBlocks() < 2)) {
+            worksFine &= false;
+        }
+        if ((instance.getFirstInstant() != 0) || (instance.getLastInstant() != ((numberOfTicks - 1) * 100L) + 50)) {
+            worksFine &= false;
+        }
+        // Events of every element between 40 ms and 41 ms.
+        Iterator<TSimulationEvent> events = instance.getEvents(4000000L, 4100000L);
+        int numberOfEvents = 0;
+        long previousInstant = Long.MIN_VALUE;
+        while (events.hasNext()) {
+            TSimulationEvent simulationEvent = events.next();
+            if ((simulationEvent.getInstant() < 4000000L) || (simulationEvent.getInstant() > 4100000L)
+                    || (simulationEvent.getInstant() < previousInstant) || (simulationEvent.getSource() != node1)) {
+                worksFine &= false;
+            }
+            previousInstant = simulationEvent.getInstant();
+            numberOfEvents++;
+        }
+        if (numberOfEvents != 1001) {
+            worksFine &= false;
+        }
+        // Events of node 2 between 60 ms and 61 ms.
+        events = instance.getEvents(node2, 6000000L, 6100000L);
+        numberOfEvents = 0;
+        while (events.hasNext()) {
+            TSimulationEvent simulationEvent = events.next();
+            if ((simulationEvent.getSource() != node2) || (simulationEvent.getSubtype() != TSimulationEvent.LABEL_REQUESTED)
+                    || (simulationEvent.getInstant() != 6000050L + (numberOfEvents * 100L))) {
+                worksFine &= false;
+            }
+            numberOfEvents++;
+        }
+        if (numberOfEvents != 1000) {
+            worksFine &= false;
+        }
+        // Every event of node 2 and no event of node 2 in the first half.
+        numberOfEvents = 0;
+        events = instance.getEvents(node2);
+        while (events.hasNext()) {
+            events.next();
+            numberOfEvents++;
+        }
+        if (numberOfEvents != numberOfTicks / 2) {
+            worksFine &= false;
+        }
+        if (instance.getEvents(node2, 0L, 4000000L).hasNext()) {
+            worksFine &= false;
+        }
+        // Node 3 has no events and the time range is after the trace.
+        if (instance.getEvents(node3).hasNext() || instance.getEvents(numberOfTicks * 100L, Long.MAX_VALUE).hasNext()) {
+            worksFine &= false;
+        }
+        instance.close();
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of getEvents method, of class TSimulationTraceIndex, when the index
+     * has not been opened.
+     */
+    @Test
+    public void testGetEventsWhenNotOpen() throws IOException {
+        System.out.println("Test getEvents when not open");
+        TSimulationTraceIndex instance = new TSimulationTraceIndex(new File("not-opened.trace"), new TTopology(new TScene()));
+        assertThrows(IllegalStateException.class, () -> {
+            instance.getEvents(0L, 1L);
+        });
+    }
+
+    /**
+     * Test of open method, of class TSimulationTraceIndex, when the file is
+     * not a trace.
+     */
+    @Test
+    public void testOpenWhenFileIsNotATrace() throws IOException {
+        System.out.println("Test open when file is not a trace");
+        File notATraceFile = File.createTempFile("opensimmpls", ".osm");
+        notATraceFile.deleteOnExit();
+        try (FileOutputStream output = new FileOutputStream(notATraceFile)) {
+            output.write("// Not a trace, but long enough to have a footer".getBytes());
+        }
+        TSimulationTraceIndex instance = new TSimulationTraceIndex(notATraceFile, new TTopology(new TScene()));
+        assertThrows(IOException.class, () -> {
+            instance.open();
+        });
+    }
+}
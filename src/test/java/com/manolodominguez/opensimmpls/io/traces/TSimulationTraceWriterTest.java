@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.io.traces;
+
+import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
+import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
+import com.manolodominguez.opensimmpls.scenario.TLSRNode;
+import com.manolodominguez.opensimmpls.scenario.TScene;
+import com.manolodominguez.opensimmpls.scenario.TTopology;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEvent;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventLabelRequested;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventNodeCongested;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketGenerated;
+import com.manolodominguez.opensimmpls.scenario.simulationevents.TSimulationEventPacketOnFly;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author manolodd
+ */
+public class TSimulationTraceWriterTest {
+
+    public TSimulationTraceWriterTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * Test of constructor, of class TSimulationTraceWriter, when the file is
+     * null.
+     */
+    @Test
+    public void testConstructorWhenFileIsNull() {
+        System.out.println("Test constructor when file is null");
+        assertThrows(IllegalArgumentException.class, () -> {
+            TSimulationTraceWriter instance = new TSimulationTraceWriter(null);
+        });
+    }
+
+    /**
+     * Test of captureSimulationEvents method, of class TSimulationTraceWriter.
+     * Events written to a trace are read back by TSimulationTraceReader with
+     * the same attributes, in the same order. There are enough events to fill
+     * several blocks.
+     */
+    @Test
+    public void testCaptureSimulationEvents() throws IOException {
+        System.out.println("Test captureSimulationEvents");
+        TScene scenario = new TScene();
+        TTopology topology = new TTopology(scenario);
+        TLSRNode node1 = new TLSRNode(1, "10.0.0.1", new TLongIDGenerator(), topology);
+        TLSRNode node2 = new TLSRNode(2, "10.0.0.2", new TLongIDGenerator(), topology);
+        topology.addNode(node1);
+        topology.addNode(node2);
+        File traceFile = File.createTempFile("opensimmpls", ".trace");
+        traceFile.deleteOnExit();
+        TSimulationTraceWriter instance = new TSimulationTraceWriter(traceFile);
+        instance.open();
+        int numberOfTicks = 50000;
+        for (int i = 0; i < numberOfTicks; i++) {
+            instance.captureSimulationEvents(new TSimulationEventPacketGenerated(node1, i, i * 100L, TAbstractPDU.IPV4, 1024 + i));
+            instance.captureSimulationEvents(new TSimulationEventPacketOnFly(node2, i, (i * 100L) + 50, TAbstractPDU.MPLS, i % 100));
+            instance.captureSimulationEvents(new TSimulationEventNodeCongested(node2, i, (i * 100L) + 25, i % 100));
+            instance.captureSimulationEvents(new TSimulationEventLabelRequested(node1, i, (i * 100L) + 75));
+        }
+        instance.close();
+        boolean worksFine = true;
+        if (instance.getNumberOfEvents() != numberOfTicks * 4) {
+            worksFine &= false;
+        }
+        TSimulationTraceReader reader = new TSimulationTraceReader(traceFile, topology);
+        reader.open();
+        for (int i = 0; i < numberOfTicks; i++) {
+            TSimulationEventPacketGenerated packetGenerated = (TSimulationEventPacketGenerated) reader.readEvent();
+            if ((packetGenerated.getSource() != node1) || (packetGenerated.getEventID() != i) || (packetGenerated.getInstant() != i * 100L)
+                    || (packetGenerated.getPacketType() != TAbstractPDU.IPV4) || (packetGenerated.getPacketSize() != 1024 + i)) {
+                worksFine &= false;
+            }
+            TSimulationEventPacketOnFly packetOnFly = (TSimulationEventPacketOnFly) reader.readEvent();
+            if ((packetOnFly.getSource() != node2) || (packetOnFly.getInstant() != (i * 100L) + 50)
+                    || (packetOnFly.getPacketType() != TAbstractPDU.MPLS) || (packetOnFly.getTransitPercentage() != i % 100)) {
+                worksFine &= false;
+            }
+            TSimulationEventNodeCongested nodeCongested = (TSimulationEventNodeCongested) reader.readEvent();
+            if ((nodeCongested.getInstant() != (i * 100L) + 25) || (nodeCongested.getCongestionLevel() != i % 100)) {
+                worksFine &= false;
+            }
+            TSimulationEvent labelRequested = reader.readEvent();
+            if ((labelRequested.getSubtype() != TSimulationEvent.LABEL_REQUESTED) || (labelRequested.getInstant() != (i * 100L) + 75)) {
+                worksFine &= false;
+            }
+        }
+        if (reader.readEvent() != null) {
+            worksFine &= false;
+        }
+        reader.close();
+        // The trace is much smaller than the events in memory.
+        if (traceFile.length() > numberOfTicks * 4 * 8) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of TSimulationTraceReader, when the file is not a trace.
+     */
+    @Test
+    public void testReadWhenFileIsNotATrace() throws IOException {
+        System.out.println("Test read when file is not a trace");
+        File notATraceFile = File.createTempFile("opensimmpls", ".osm");
+        notATraceFile.deleteOnExit();
+        try (FileOutputStream output = new FileOutputStream(notATraceFile)) {
+            output.write("// Not a trace".getBytes());
+        }
+        TSimulationTraceReader reader = new TSimulationTraceReader(notATraceFile, new TTopology(new TScene()));
+        assertThrows(IOException.class, () -> {
+            reader.open();
+        });
+    }
+}
@@ -0,0 +1,146 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TFloydWarshallRoutingTableTest {
+
+    public TFloydWarshallRoutingTableTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * Creates a routing table for the topology 10 - 20 - 30 plus a slower
+     * direct link 10 - 30 and a broken link 30 - 40.
+     */
+    private TFloydWarshallRoutingTable createRoutingTable() {
+        long inf = TTopology.INFINITE_WEIGHT;
+        int[] nodeIDs = {10, 20, 30, 40};
+        int[] ipv4Addresses = {TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), TIPv4Address.fromString("10.0.0.3"), TIPv4Address.fromString("10.0.0.4")};
+        long[][] adjacencyMatrix = {
+            {0, 1, 5, inf},
+            {1, 0, 1, inf},
+            {5, 1, 0, inf},
+            {inf, inf, inf, 0}};
+        boolean[][] joinedNodes = {
+            {false, true, true, false},
+            {true, false, true, false},
+            {true, true, false, true},
+            {false, false, true, false}};
+        return new TFloydWarshallRoutingTable(nodeIDs, ipv4Addresses, adjacencyMatrix, joinedNodes);
+    }
+
+    /**
+     * Test of constructor method, of class TFloydWarshallRoutingTable.
+     */
+    @Test
+    public void testConstructorWhenArgumentIsNull() {
+        System.out.println("Test constructor");
+        assertThrows(IllegalArgumentException.class, () -> {
+            TFloydWarshallRoutingTable instance = new TFloydWarshallRoutingTable(null, new int[0], new long[0][0], new boolean[0][0]); // Should throw an exception
+        });
+    }
+
+    /**
+     * Test of constructor method, of class TFloydWarshallRoutingTable.
+     */
+    @Test
+    public void testConstructorWhenSizesDoNotMatch() {
+        System.out.println("Test constructor");
+        assertThrows(IllegalArgumentException.class, () -> {
+            TFloydWarshallRoutingTable instance = new TFloydWarshallRoutingTable(new int[2], new int[2], new long[1][1], new boolean[2][2]); // Should throw an exception
+        });
+    }
+
+    /**
+     * Test of getNextHopID method, of class TFloydWarshallRoutingTable.
+     */
+    @Test
+    public void testGetNextHopID() {
+        System.out.println("Test getNextHopID");
+        TFloydWarshallRoutingTable instance = createRoutingTable();
+        assertEquals(20, instance.getNextHopID(10, 30));
+        assertEquals(20, instance.getNextHopID(30, 10));
+        assertEquals(30, instance.getNextHopID(20, 30));
+        // Joined by a broken link and no other route: the link is returned.
+        assertEquals(40, instance.getNextHopID(30, 40));
+        assertEquals(TTopology.TARGET_UNREACHABLE, instance.getNextHopID(10, 40));
+        assertEquals(TTopology.TARGET_UNREACHABLE, instance.getNextHopID(10, 99));
+    }
+
+    /**
+     * Test of getNextHopIPv4Address method, of class
+     * TFloydWarshallRoutingTable.
+     */
+    @Test
+    public void testGetNextHopIPv4Address() {
+        System.out.println("Test getNextHopIPv4Address");
+        TFloydWarshallRoutingTable instance = createRoutingTable();
+        assertEquals(TIPv4Address.fromString("10.0.0.2"), instance.getNextHopIPv4Address(TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.3")));
+        assertEquals(TIPv4Address.UNSPECIFIED, instance.getNextHopIPv4Address(TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.4")));
+    }
+
+    /**
+     * Test of getNextHopIPv4Address method, of class
+     * TFloydWarshallRoutingTable.
+     */
+    @Test
+    public void testGetNextHopIPv4AddressWhenAddressIsUnknown() {
+        System.out.println("Test getNextHopIPv4Address");
+        TFloydWarshallRoutingTable instance = createRoutingTable();
+        assertThrows(IllegalArgumentException.class, () -> {
+            instance.getNextHopIPv4Address(TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.99")); // Should throw an exception
+        });
+    }
+
+    /**
+     * Test of getDistance method, of class TFloydWarshallRoutingTable.
+     */
+    @Test
+    public void testGetDistance() {
+        System.out.println("Test getDistance");
+        TFloydWarshallRoutingTable instance = createRoutingTable();
+        assertEquals(2, instance.getDistance(10, 30));
+        assertEquals(0, instance.getDistance(20, 20));
+        assertEquals(TTopology.INFINITE_WEIGHT, instance.getDistance(10, 40));
+    }
+}
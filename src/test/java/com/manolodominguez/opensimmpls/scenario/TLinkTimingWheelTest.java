@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
+import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
+import java.util.ArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author manolodd
+ */
+public class TLinkTimingWheelTest {
+
+    public TLinkTimingWheelTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * Creates a link buffer entry that is delivered at the specified time
+     * instant.
+     */
+    private TLinkBufferEntry createEntry(int packetID, long deliveryTimeInstant) {
+        TMPLSPDU mplsPacket = new TMPLSPDU(packetID, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+        TLinkBufferEntry entry = new TLinkBufferEntry(mplsPacket, deliveryTimeInstant, TLink.TAIL_END_NODE);
+        entry.setDeliveryTimeInstant(deliveryTimeInstant);
+        return entry;
+    }
+
+    /**
+     * Test of constructor, of class TLinkTimingWheel.
+     */
+    @Test
+    public void testConstructor() {
+        System.out.println("Test constructor");
+        TLinkTimingWheel instance = new TLinkTimingWheel();
+        boolean worksFine = true;
+        if (instance.size() != 0) {
+            worksFine &= false;
+        }
+        if (instance.getEarliestDeliveryTimeInstant(0) != Long.MAX_VALUE) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of removeDueEntries method, of class TLinkTimingWheel. Entries are
+     * collected in the tick that includes their delivery time instant, also
+     * when they are more than a whole turn of the wheel ahead.
+     */
+    @Test
+    public void testRemoveDueEntries() {
+        System.out.println("Test removeDueEntries");
+        TLinkTimingWheel instance = new TLinkTimingWheel();
+        instance.setSlotDuration(100);
+        TLinkBufferEntry entry1 = createEntry(1, 100);
+        TLinkBufferEntry entry2 = createEntry(2, 101);
+        TLinkBufferEntry entry3 = createEntry(3, 100 + (256 * 100));
+        instance.add(entry1);
+        instance.add(entry2);
+        instance.add(entry3);
+        boolean worksFine = true;
+        ArrayList<TLinkBufferEntry> dueEntries = new ArrayList<>();
+        instance.removeDueEntries(0, 100, dueEntries);
+        if ((dueEntries.size() != 1) || (dueEntries.get(0) != entry1)) {
+            worksFine &= false;
+        }
+        dueEntries.clear();
+        instance.removeDueEntries(100, 200, dueEntries);
+        if ((dueEntries.size() != 1) || (dueEntries.get(0) != entry2)) {
+            worksFine &= false;
+        }
+        dueEntries.clear();
+        // Visits every slot, but entry3 is not due yet.
+        instance.removeDueEntries(200, 25000, dueEntries);
+        if (!dueEntries.isEmpty()) {
+            worksFine &= false;
+        }
+        instance.removeDueEntries(25000, 25700, dueEntries);
+        if ((dueEntries.size() != 1) || (dueEntries.get(0) != entry3)) {
+            worksFine &= false;
+        }
+        if (instance.size() != 0) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of getEarliestDeliveryTimeInstant method, of class
+     * TLinkTimingWheel.
+     */
+    @Test
+    public void testGetEarliestDeliveryTimeInstant() {
+        System.out.println("Test getEarliestDeliveryTimeInstant");
+        TLinkTimingWheel instance = new TLinkTimingWheel();
+        instance.setSlotDuration(100);
+        // Same slot than the next one, but a turn later.
+        instance.add(createEntry(1, 650 + (256 * 100)));
+        instance.add(createEntry(2, 650));
+        instance.add(createEntry(3, 40000));
+        boolean worksFine = true;
+        if (instance.getEarliestDeliveryTimeInstant(300) != 650) {
+            worksFine &= false;
+        }
+        ArrayList<TLinkBufferEntry> dueEntries = new ArrayList<>();
+        instance.removeDueEntries(300, 700, dueEntries);
+        if (instance.getEarliestDeliveryTimeInstant(700) != (650 + (256 * 100))) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of setSlotDuration method, of class TLinkTimingWheel.
+     */
+    @Test
+    public void testSetSlotDuration() {
+        System.out.println("Test setSlotDuration");
+        TLinkTimingWheel instance = new TLinkTimingWheel();
+        instance.setSlotDuration(100);
+        TLinkBufferEntry entry = createEntry(1, 1050);
+        instance.add(entry);
+        instance.setSlotDuration(7);
+        boolean worksFine = true;
+        ArrayList<TLinkBufferEntry> dueEntries = new ArrayList<>();
+        instance.removeDueEntries(1043, 1050, dueEntries);
+        if ((dueEntries.size() != 1) || (dueEntries.get(0) != entry)) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of clear method, of class TLinkTimingWheel.
+     */
+    @Test
+    public void testClear() {
+        System.out.println("Test clear");
+        TLinkTimingWheel instance = new TLinkTimingWheel();
+        for (int i = 1; i <= 10; i++) {
+            instance.add(createEntry(i, i * 1000));
+        }
+        instance.clear();
+        ArrayList<TLinkBufferEntry> dueEntries = new ArrayList<>();
+        instance.removeDueEntries(0, 20000, dueEntries);
+        boolean worksFine = true;
+        if (instance.size() != 0) {
+            worksFine &= false;
+        }
+        if (!dueEntries.isEmpty()) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+}
@@ -0,0 +1,172 @@
+/* 
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
+import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TRABANRoutingEngineTest {
+
+    public TRABANRoutingEngineTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+        TScene scenario = new TScene();
+        TTopology topology = new TTopology(scenario);
+        TLongIDGenerator longIDGenerator = new TLongIDGenerator();
+        this.nodes = new TNode[4];
+        for (int i = 0; i < this.nodes.length; i++) {
+            this.nodes[i] = new TLSRNode((i + 1) * 10, "10.0.0." + (i + 1), longIDGenerator, topology);
+        }
+        this.links = new TLink[4];
+        this.links[0] = createLink(1, this.nodes[0], this.nodes[1], 1, topology, longIDGenerator);
+        this.links[1] = createLink(2, this.nodes[1], this.nodes[2], 1, topology, longIDGenerator);
+        this.links[2] = createLink(3, this.nodes[0], this.nodes[2], 5, topology, longIDGenerator);
+        this.links[3] = createLink(4, this.nodes[2], this.nodes[3], 1, topology, longIDGenerator);
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * Creates a link whose RABAN weight is its delay. Topology: 10 - 20 - 30
+     * plus a slower direct link 10 - 30 and a link 30 - 40.
+     */
+    private TLink createLink(int linkID, TNode headEndNode, TNode tailEndNode, int delay, TTopology topology, TLongIDGenerator longIDGenerator) {
+        TOuterLink link = new TOuterLink(linkID, longIDGenerator, topology);
+        link.setHeadEndNode(headEndNode);
+        link.setTailEndNode(tailEndNode);
+        link.setDelay(delay);
+        return link;
+    }
+
+    /**
+     * Test of constructor method, of class TRABANRoutingEngine.
+     */
+    @Test
+    public void testConstructorWhenArgumentIsNull() {
+        System.out.println("Test constructor");
+        assertThrows(IllegalArgumentException.class, () -> {
+            TRABANRoutingEngine instance = new TRABANRoutingEngine(null, new TLink[0]); // Should throw an exception
+        });
+    }
+
+    /**
+     * Test of getNextHopID method, of class TRABANRoutingEngine.
+     */
+    @Test
+    public void testGetNextHopID() {
+        System.out.println("Test getNextHopID");
+        TRABANRoutingEngine instance = new TRABANRoutingEngine(this.nodes, this.links);
+        assertEquals(20, instance.getNextHopID(10, 30));
+        assertEquals(20, instance.getNextHopID(30, 10));
+        assertEquals(20, instance.getNextHopID(10, 40));
+        assertEquals(TTopology.TARGET_UNREACHABLE, instance.getNextHopID(10, 10));
+        assertEquals(TTopology.TARGET_UNREACHABLE, instance.getNextHopID(10, 99));
+    }
+
+    /**
+     * Test of getNextHopID method, of class TRABANRoutingEngine.
+     */
+    @Test
+    public void testGetNextHopIDWhenWeightsChange() {
+        System.out.println("Test getNextHopID");
+        TRABANRoutingEngine instance = new TRABANRoutingEngine(this.nodes, this.links);
+        assertEquals(20, instance.getNextHopID(10, 30));
+        // Weights are read when the route is computed, not when the engine is
+        // created.
+        this.links[1].setDelay(10);
+        assertEquals(30, instance.getNextHopID(10, 30));
+        assertEquals(30, instance.getNextHopID(10, 40));
+    }
+
+    /**
+     * Test of getNextHopID method, of class TRABANRoutingEngine.
+     */
+    @Test
+    public void testGetNextHopIDWhenLinkIsBroken() {
+        System.out.println("Test getNextHopID");
+        TRABANRoutingEngine instance = new TRABANRoutingEngine(this.nodes, this.links);
+        this.links[0].setAsBrokenLink(true);
+        assertEquals(30, instance.getNextHopID(10, 20));
+        this.links[3].setAsBrokenLink(true);
+        // Joined by a broken link and no other route: the link is returned.
+        assertEquals(40, instance.getNextHopID(30, 40));
+        assertEquals(TTopology.TARGET_UNREACHABLE, instance.getNextHopID(10, 40));
+    }
+
+    /**
+     * Test of getNextHopID method, of class TRABANRoutingEngine.
+     */
+    @Test
+    public void testGetNextHopIDAvoidingANode() {
+        System.out.println("Test getNextHopID");
+        TRABANRoutingEngine instance = new TRABANRoutingEngine(this.nodes, this.links);
+        assertEquals(30, instance.getNextHopID(10, 40, 20));
+        assertEquals(20, instance.getNextHopID(10, 40, 30));
+        // The target node is never avoided.
+        assertEquals(20, instance.getNextHopID(10, 20, 20));
+        assertEquals(20, instance.getNextHopID(10, 40, TRABANRoutingEngine.NO_NODE_TO_AVOID));
+    }
+
+    /**
+     * Test of getNextHopIPv4Address method, of class TRABANRoutingEngine.
+     */
+    @Test
+    public void testGetNextHopIPv4Address() {
+        System.out.println("Test getNextHopIPv4Address");
+        TRABANRoutingEngine instance = new TRABANRoutingEngine(this.nodes, this.links);
+        assertEquals(TIPv4Address.fromString("10.0.0.2"), instance.getNextHopIPv4Address(TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.3")));
+        assertEquals(TIPv4Address.fromString("10.0.0.3"), instance.getNextHopIPv4Address(TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.3"), TIPv4Address.fromString("10.0.0.2")));
+        this.links[3].setAsBrokenLink(true);
+        assertEquals(TIPv4Address.UNSPECIFIED, instance.getNextHopIPv4Address(TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.4")));
+    }
+
+    /**
+     * Test of getNextHopIPv4Address method, of class TRABANRoutingEngine.
+     */
+    @Test
+    public void testGetNextHopIPv4AddressWhenAddressIsUnknown() {
+        System.out.println("Test getNextHopIPv4Address");
+        TRABANRoutingEngine instance = new TRABANRoutingEngine(this.nodes, this.links);
+        assertThrows(IllegalArgumentException.class, () -> {
+            instance.getNextHopIPv4Address(TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.99")); // Should throw an exception
+        });
+    }
+
+    private TNode[] nodes;
+    private TLink[] links;
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author manolodd
+ */
+public class TSimulationTest {
+
+    public TSimulationTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * Test of marshallTimeParameters and unmarshallTimeParameters methods, of
+     * class TSimulation. The random seed is stored with the time parameters.
+     */
+    @Test
+    public void testMarshallTimeParameters() {
+        System.out.println("Test marshallTimeParameters");
+        TSimulation instance = new TSimulation(new TScene());
+        instance.setSimulationLengthInNs(2000);
+        instance.setSimulationTickDurationInNs(50);
+        instance.setRandomSeed(-1234567890123L);
+        TSimulation copy = new TSimulation(new TScene());
+        boolean worksFine = true;
+        if (!copy.unmarshallTimeParameters(instance.marshallTimeParameters())) {
+            worksFine &= false;
+        }
+        if ((copy.getSimulationLengthInNs() != 2000) || (copy.getSimulationTickDurationInNs() != 50) || (copy.getRandomSeed() != -1234567890123L)) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of unmarshallTimeParameters method, of class TSimulation, when the
+     * scenario was saved without random seed.
+     */
+    @Test
+    public void testUnmarshallTimeParametersWithoutRandomSeed() {
+        System.out.println("Test unmarshallTimeParameters without random seed");
+        TSimulation instance = new TSimulation(new TScene());
+        instance.setRandomSeed(99);
+        boolean worksFine = true;
+        if (!instance.unmarshallTimeParameters("#Temporizacion#2000#50#")) {
+            worksFine &= false;
+        }
+        if ((instance.getSimulationLengthInNs() != 2000) || (instance.getRandomSeed() != TSimulation.DEFAULT_RANDOM_SEED)) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of createRandomGenerator method, of class TSimulation. The stream
+     * of an element depends only on the seed and the ID of the element.
+     */
+    @Test
+    public void testCreateRandomGenerator() {
+        System.out.println("Test createRandomGenerator");
+        TSimulation instance = new TSimulation(new TScene());
+        instance.setRandomSeed(7);
+        SplittableRandom first = instance.createRandomGenerator(3);
+        SplittableRandom second = instance.createRandomGenerator(3);
+        SplittableRandom otherElement = instance.createRandomGenerator(4);
+        boolean worksFine = true;
+        boolean allEqualToOtherElement = true;
+        for (int i = 0; i < 1000; i++) {
+            long value = first.nextLong();
+            if (value != second.nextLong()) {
+                worksFine &= false;
+            }
+            allEqualToOtherElement &= (value == otherElement.nextLong());
+        }
+        if (allEqualToOtherElement) {
+            worksFine &= false;
+        }
+        long firstValueWithSeed7 = instance.createRandomGenerator(3).nextLong();
+        instance.setRandomSeed(8);
+        if (instance.createRandomGenerator(3).nextLong() == firstValueWithSeed7) {
+            worksFine &= false;
+        }
+        SplittableRandom sameSeed = new TSimulation(new TScene()).createRandomGenerator(3);
+        instance.setRandomSeed(TSimulation.DEFAULT_RANDOM_SEED);
+        if (sameSeed.nextLong() != instance.createRandomGenerator(3).nextLong()) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
+import com.manolodominguez.opensimmpls.protocols.TAbstractPDU;
+import com.manolodominguez.opensimmpls.protocols.TMPLSPDU;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author manolodd
+ */
+public class TStatsCountersTest {
+
+    public TStatsCountersTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * Test of getCategory method, of class TStatsCounters.
+     */
+    @Test
+    public void testGetCategory() {
+        System.out.println("Test getCategory");
+        boolean worksFine = true;
+        TMPLSPDU packet = new TMPLSPDU(1, TIPv4Address.fromString("10.0.0.1"), TIPv4Address.fromString("10.0.0.2"), 1024);
+        if (TStatsCounters.getCategory(packet) != TStatsCounters.MPLS) {
+            worksFine &= false;
+        }
+        packet.setSubtype(TAbstractPDU.MPLS_GOS);
+        packet.getIPv4Header().getOptionsField().setRequestedGoSLevel(TAbstractPDU.EXP_LEVEL0_WITH_BACKUP_LSP);
+        if (TStatsCounters.getCategory(packet) != TStatsCounters.MPLS) {
+            worksFine &= false;
+        }
+        packet.getIPv4Header().getOptionsField().setRequestedGoSLevel(TAbstractPDU.EXP_LEVEL2_WITHOUT_BACKUP_LSP);
+        if (TStatsCounters.getCategory(packet) != TStatsCounters.MPLS_GOS2) {
+            worksFine &= false;
+        }
+        packet.getIPv4Header().getOptionsField().setRequestedGoSLevel(TAbstractPDU.EXP_LEVEL3_WITH_BACKUP_LSP);
+        if (TStatsCounters.getCategory(packet) != TStatsCounters.MPLS_GOS3) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of increment method, of class TStatsCounters. Increments made from
+     * several threads at the same time are not lost.
+     */
+    @Test
+    public void testIncrementConcurrently() throws InterruptedException {
+        System.out.println("Test increment concurrently");
+        TStatsCounters instance = new TStatsCounters();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 100000; j++) {
+                    instance.increment(TStats.INCOMING, TStatsCounters.MPLS);
+                    instance.increment(TStats.BEING_DISCARDED, TStatsCounters.IPV4_GOS1);
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        boolean worksFine = true;
+        if (instance.getValue(TStats.INCOMING, TStatsCounters.MPLS) != 400000) {
+            worksFine &= false;
+        }
+        if (instance.getValue(TStats.BEING_DISCARDED, TStatsCounters.IPV4_GOS1) != 400000) {
+            worksFine &= false;
+        }
+        if (instance.getValue(TStats.OUTGOING, TStatsCounters.MPLS) != 0) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of reset method, of class TStatsCounters.
+     */
+    @Test
+    public void testReset() {
+        System.out.println("Test reset");
+        TStatsCounters instance = new TStatsCounters();
+        instance.increment(TStats.OUTGOING, TStatsCounters.TLDP);
+        instance.increment(TStats.OUTGOING, TStatsCounters.NO_CATEGORY);
+        boolean worksFine = true;
+        if (instance.getValue(TStats.OUTGOING, TStatsCounters.TLDP) != 1) {
+            worksFine &= false;
+        }
+        instance.reset();
+        if (instance.getValue(TStats.OUTGOING, TStatsCounters.TLDP) != 0) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author manolodd
+ */
+public class TStatsSeriesTest {
+
+    public TStatsSeriesTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * Test of getSeries method, of class TStatsSeries. Short series are
+     * materialised with every value, as added.
+     */
+    @Test
+    public void testGetSeries() {
+        System.out.println("Test getSeries");
+        TStatsSeries instance = new TStatsSeries(TStats.MPLS);
+        for (int i = 0; i < 1000; i++) {
+            instance.add(i * 100L, i % 7);
+        }
+        boolean worksFine = true;
+        if ((instance.getItemCount() != 1000) || (instance.getResolution() != 0)) {
+            worksFine &= false;
+        }
+        XYSeries series = instance.getSeries();
+        if ((series.getItemCount() != 1000) || (!series.getKey().equals(TStats.MPLS))) {
+            worksFine &= false;
+        }
+        for (int i = 0; i < series.getItemCount(); i++) {
+            if ((series.getX(i).longValue() != i * 100L) || (series.getY(i).longValue() != i % 7)) {
+                worksFine &= false;
+            }
+        }
+        // The materialised series is kept up to date.
+        instance.add(100000L, 5);
+        if ((series.getItemCount() != 1001) || (series.getY(1000).longValue() != 5)) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of getSeries method, of class TStatsSeries, when there are more
+     * values than a resolution can store. The series is materialised in
+     * buckets that cover every value and keep the last value of each bucket.
+     */
+    @Test
+    public void testGetSeriesWhenDownsampled() {
+        System.out.println("Test getSeries when downsampled");
+        TStatsSeries instance = new TStatsSeries(TStats.MPLS);
+        for (int i = 0; i < 100000; i++) {
+            instance.add(i * 100L, i % 7);
+        }
+        boolean worksFine = true;
+        if ((instance.getItemCount() != 100000) || (instance.getResolution() != 1000L)) {
+            worksFine &= false;
+        }
+        XYSeries series = instance.getSeries();
+        if (series.getItemCount() != 10000) {
+            worksFine &= false;
+        }
+        for (int i = 0; i < series.getItemCount(); i++) {
+            if ((series.getX(i).longValue() != i * 1000L) || (series.getY(i).longValue() != ((i * 10) + 9) % 7)) {
+                worksFine &= false;
+            }
+        }
+        // A new value in the last bucket replaces it; a later one adds a new
+        // bucket.
+        instance.add(9999950L, 10);
+        instance.add(10000000L, 3);
+        if ((series.getItemCount() != 10001) || (series.getY(9999).longValue() != 10) || (series.getY(10000).longValue() != 3)) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of getSeries method, of class TStatsSeries, when an increasing
+     * counter is added past the capacity of a resolution. The rolled up series
+     * is still monotonic and never goes above the last raw value.
+     */
+    @Test
+    public void testGetSeriesWhenDownsampledCounter() {
+        System.out.println("Test getSeries when downsampled counter");
+        TStatsSeries instance = new TStatsSeries(TStats.MPLS);
+        long counter = 0;
+        for (int i = 0; i < 100000; i++) {
+            counter += i % 3;
+            instance.add(i * 100L, counter);
+        }
+        boolean worksFine = true;
+        if (instance.getResolution() == 0) {
+            worksFine &= false;
+        }
+        XYSeries series = instance.getSeries();
+        for (int i = 0; i < series.getItemCount(); i++) {
+            if (series.getY(i).longValue() > counter) {
+                worksFine &= false;
+            }
+            if ((i > 0) && (series.getY(i).longValue() < series.getY(i - 1).longValue())) {
+                worksFine &= false;
+            }
+        }
+        if (series.getY(series.getItemCount() - 1).longValue() != counter) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of getDataset method, of class TStatsSeriesCollection. The dataset
+     * is materialised when requested and series added later are added to it.
+     */
+    @Test
+    public void testGetDataset() {
+        System.out.println("Test getDataset");
+        TStatsSeriesCollection instance = new TStatsSeriesCollection();
+        TStatsSeries mpls = new TStatsSeries(TStats.MPLS);
+        TStatsSeries tldp = new TStatsSeries(TStats.TLDP);
+        mpls.add(1L, 1L);
+        instance.addSeries(mpls);
+        XYSeriesCollection dataset = instance.getDataset();
+        boolean worksFine = true;
+        if ((dataset.getSeriesCount() != 1) || (dataset.getSeries(0) != mpls.getSeries())) {
+            worksFine &= false;
+        }
+        tldp.add(2L, 2L);
+        instance.addSeries(tldp);
+        if ((dataset.getSeriesCount() != 2) || (instance.getDataset() != dataset) || (instance.getSeriesCount() != 2)) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+}
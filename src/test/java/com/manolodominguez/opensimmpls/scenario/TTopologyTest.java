@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario;
+
+import com.manolodominguez.opensimmpls.commons.TIPv4Address;
+import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com
+ */
+public class TTopologyTest {
+
+    public TTopologyTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+        TScene scenario = new TScene();
+        this.topology = new TTopology(scenario);
+        TLongIDGenerator longIDGenerator = new TLongIDGenerator();
+        this.nodes = new TNode[2];
+        for (int i = 0; i < this.nodes.length; i++) {
+            this.nodes[i] = new TLSRNode(i + 1, "10.0.0." + (i + 1), longIDGenerator, this.topology);
+            this.topology.addNode(this.nodes[i]);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * Test of getNodeWithIPv4Address method, of class TTopology.
+     */
+    @Test
+    public void testGetNodeWithIPv4Address() {
+        System.out.println("Test getNodeWithIPv4Address");
+        assertSame(this.nodes[0], this.topology.getNodeWithIPv4Address(TIPv4Address.fromString("10.0.0.1")));
+        assertSame(this.nodes[1], this.topology.getNode("10.0.0.2"));
+        assertNull(this.topology.getNodeWithIPv4Address(TIPv4Address.fromString("10.0.0.3")));
+    }
+
+    /**
+     * Test of disconnectNodeAndRemove method, of class TTopology.
+     */
+    @Test
+    public void testDisconnectNodeAndRemove() {
+        System.out.println("Test disconnectNodeAndRemove");
+        this.topology.disconnectNodeAndRemove(1);
+        assertNull(this.topology.getNodeWithIPv4Address(TIPv4Address.fromString("10.0.0.1")));
+        assertSame(this.nodes[1], this.topology.getNodeWithIPv4Address(TIPv4Address.fromString("10.0.0.2")));
+    }
+
+    /**
+     * Test of removeAllElements method, of class TTopology.
+     */
+    @Test
+    public void testRemoveAllElements() {
+        System.out.println("Test removeAllElements");
+        this.topology.removeAllElements();
+        assertNull(this.topology.getNodeWithIPv4Address(TIPv4Address.fromString("10.0.0.1")));
+        assertNull(this.topology.getNode("10.0.0.2"));
+        // A new node can reuse the address of a removed one
+        TNode newNode = new TLSRNode(3, "10.0.0.1", new TLongIDGenerator(), this.topology);
+        this.topology.addNode(newNode);
+        assertSame(newNode, this.topology.getNodeWithIPv4Address(TIPv4Address.fromString("10.0.0.1")));
+    }
+
+    private TTopology topology;
+    private TNode[] nodes;
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario.simulationevents;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author manolodd
+ */
+public class TSimulationEventBusTest {
+
+    public TSimulationEventBusTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * A subscriber that counts the events it receives and is interested only
+     * in the specified subtype.
+     */
+    private static class TCountingSubscriber implements ISimulationEventListener {
+
+        TCountingSubscriber(int subtype, int expectedEvents) {
+            this.subtype = subtype;
+            this.received = new AtomicInteger();
+            this.done = new CountDownLatch(expectedEvents);
+        }
+
+        @Override
+        public void captureSimulationEvents(TSimulationEvent simulationEvent) {
+            this.received.incrementAndGet();
+            this.done.countDown();
+        }
+
+        @Override
+        public boolean isInterestedIn(int subtype) {
+            return subtype == this.subtype;
+        }
+
+        private final int subtype;
+        private final AtomicInteger received;
+        private final CountDownLatch done;
+    }
+
+    /**
+     * Test of subscribe and captureSimulationEvents methods, of class
+     * TSimulationEventBus. Every subscriber receives every event.
+     */
+    @Test
+    public void testCaptureSimulationEvents() throws InterruptedException {
+        System.out.println("Test captureSimulationEvents");
+        TSimulationEventBus instance = new TSimulationEventBus();
+        TCountingSubscriber first = new TCountingSubscriber(TSimulationEvent.LINK_BROKEN, 100);
+        TCountingSubscriber second = new TCountingSubscriber(TSimulationEvent.LINK_BROKEN, 100);
+        instance.subscribe(first);
+        instance.subscribe(second);
+        instance.subscribe(second);
+        boolean worksFine = true;
+        if (instance.getNumberOfSubscribers() != 2) {
+            worksFine &= false;
+        }
+        for (int i = 0; i < 100; i++) {
+            instance.captureSimulationEvents(new TSimulationEventLinkBroken(this, i, i));
+        }
+        if (!first.done.await(5, TimeUnit.SECONDS)) {
+            worksFine &= false;
+        }
+        if (!second.done.await(5, TimeUnit.SECONDS)) {
+            worksFine &= false;
+        }
+        instance.unsubscribe(first);
+        instance.unsubscribe(second);
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of isInterestedIn method, of class TSimulationEventBus. The bus is
+     * interested in a subtype if any subscriber is, and it only delivers
+     * events to the subscribers that are interested in them.
+     */
+    @Test
+    public void testIsInterestedIn() throws InterruptedException {
+        System.out.println("Test isInterestedIn");
+        TSimulationEventBus instance = new TSimulationEventBus();
+        boolean worksFine = true;
+        if (instance.isInterestedIn(TSimulationEvent.LINK_BROKEN)) {
+            worksFine &= false;
+        }
+        TCountingSubscriber brokenLinks = new TCountingSubscriber(TSimulationEvent.LINK_BROKEN, 1);
+        TCountingSubscriber recoveredLinks = new TCountingSubscriber(TSimulationEvent.LINK_RECOVERED, 1);
+        instance.subscribe(brokenLinks);
+        instance.subscribe(recoveredLinks);
+        if (!instance.isInterestedIn(TSimulationEvent.LINK_BROKEN)) {
+            worksFine &= false;
+        }
+        if (!instance.isInterestedIn(TSimulationEvent.LINK_RECOVERED)) {
+            worksFine &= false;
+        }
+        if (instance.isInterestedIn(TSimulationEvent.PACKET_SENT)) {
+            worksFine &= false;
+        }
+        instance.captureSimulationEvents(new TSimulationEventLinkBroken(this, 1, 1));
+        if (!brokenLinks.done.await(5, TimeUnit.SECONDS)) {
+            worksFine &= false;
+        }
+        if (recoveredLinks.received.get() != 0) {
+            worksFine &= false;
+        }
+        instance.unsubscribe(recoveredLinks);
+        if (instance.isInterestedIn(TSimulationEvent.LINK_RECOVERED)) {
+            worksFine &= false;
+        }
+        instance.unsubscribe(brokenLinks);
+        if (instance.getNumberOfSubscribers() != 0) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of captureSimulationEvents method, of class TSimulationEventBus,
+     * when a subscriber is stuck. The other subscriber and the publisher keep
+     * going and the events of the stuck one are discarded.
+     */
+    @Test
+    public void testCaptureSimulationEventsWhenASubscriberIsStuck() throws InterruptedException {
+        System.out.println("Test captureSimulationEvents when a subscriber is stuck");
+        TSimulationEventBus instance = new TSimulationEventBus();
+        CountDownLatch release = new CountDownLatch(1);
+        ISimulationEventListener stuck = new ISimulationEventListener() {
+            @Override
+            public void captureSimulationEvents(TSimulationEvent simulationEvent) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public boolean isInterestedIn(int subtype) {
+                return true;
+            }
+        };
+        TCountingSubscriber fast = new TCountingSubscriber(TSimulationEvent.LINK_BROKEN, 1000);
+        instance.subscribe(stuck, 10, OverflowPolicies.DROP_OLDEST);
+        instance.subscribe(fast);
+        for (int i = 0; i < 1000; i++) {
+            instance.captureSimulationEvents(new TSimulationEventLinkBroken(this, i, i));
+        }
+        boolean worksFine = true;
+        if (!fast.done.await(5, TimeUnit.SECONDS)) {
+            worksFine &= false;
+        }
+        if (instance.getNumberOfDiscardedEvents(stuck) < 1000 - 10 - 1) {
+            worksFine &= false;
+        }
+        if (instance.getNumberOfDiscardedEvents(fast) != 0) {
+            worksFine &= false;
+        }
+        release.countDown();
+        instance.unsubscribe(stuck);
+        instance.unsubscribe(fast);
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of waitUntilDelivered method, of class TSimulationEventBus. When it
+     * returns, the subscriber has received every published event.
+     */
+    @Test
+    public void testWaitUntilDelivered() throws InterruptedException {
+        System.out.println("Test waitUntilDelivered");
+        TSimulationEventBus instance = new TSimulationEventBus();
+        TCountingSubscriber subscriber = new TCountingSubscriber(TSimulationEvent.LINK_BROKEN, 10000);
+        instance.subscribe(subscriber, 16, OverflowPolicies.BLOCK);
+        for (int i = 0; i < 10000; i++) {
+            instance.captureSimulationEvents(new TSimulationEventLinkBroken(this, i, i));
+        }
+        instance.waitUntilDelivered(subscriber);
+        boolean worksFine = true;
+        if (subscriber.received.get() != 10000) {
+            worksFine &= false;
+        }
+        instance.unsubscribe(subscriber);
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of subscribe method, of class TSimulationEventBus, when the
+     * subscriber is null.
+     */
+    @Test
+    public void testSubscribeWhenNull() {
+        System.out.println("Test subscribe when null");
+        TSimulationEventBus instance = new TSimulationEventBus();
+        assertThrows(IllegalArgumentException.class, () -> {
+            instance.subscribe(null);
+        });
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario.simulationevents;
+
+import com.manolodominguez.opensimmpls.commons.TLongIDGenerator;
+import com.manolodominguez.opensimmpls.scenario.TLSRNode;
+import com.manolodominguez.opensimmpls.scenario.TScene;
+import com.manolodominguez.opensimmpls.scenario.TTopology;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author manolodd
+ */
+public class TSimulationEventListenerTest {
+
+    public TSimulationEventListenerTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * Test of getSubtypeMask method, of class TSimulationEventListener.
+     */
+    @Test
+    public void testGetSubtypeMask() {
+        System.out.println("Test getSubtypeMask");
+        boolean worksFine = true;
+        if (TSimulationEventListener.getSubtypeMask(TSimulationEvent.PACKET_GENERATED) != 1L) {
+            worksFine &= false;
+        }
+        if (TSimulationEventListener.getSubtypeMask(TSimulationEvent.PACKET_ROUTED) != (1L << 30)) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of getSubtypeMask method, of class TSimulationEventListener, when
+     * the subtype is out of range.
+     */
+    @Test
+    public void testGetSubtypeMaskWhenOutOfRange() {
+        System.out.println("Test getSubtypeMask when out of range");
+        assertThrows(IllegalArgumentException.class, () -> {
+            TSimulationEventListener.getSubtypeMask(64);
+        });
+    }
+
+    /**
+     * Test of isInterestedIn method, of class TSimulationEventListener. Without
+     * a simulation panel, no event is consumed.
+     */
+    @Test
+    public void testIsInterestedInWhenThereIsNoSimulationPanel() {
+        System.out.println("Test isInterestedIn when there is no simulation panel");
+        TSimulationEventListener instance = new TSimulationEventListener();
+        boolean worksFine = true;
+        if (instance.isInterestedIn(TSimulationEvent.PACKET_SENT)) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of the interest mask of topology elements. Only subtypes that are
+     * enabled for the element and consumed by its listener are generated.
+     */
+    @Test
+    public void testIsSimulationEventEnabled() throws Exception {
+        System.out.println("Test isSimulationEventEnabled");
+        TScene scenario = new TScene();
+        TTopology topology = new TTopology(scenario);
+        TLSRNode node = new TLSRNode(1, "10.0.0.1", new TLongIDGenerator(), topology);
+        boolean worksFine = true;
+        node.removeSimulationEventListener();
+        if (node.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+            worksFine &= false;
+        }
+        node.addSimulationListener(new TSimulationEventListener() {
+            @Override
+            public boolean isInterestedIn(int subtype) {
+                return subtype != TSimulationEvent.PACKET_ON_FLY;
+            }
+        });
+        if (!node.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+            worksFine &= false;
+        }
+        if (node.isSimulationEventEnabled(TSimulationEvent.PACKET_ON_FLY)) {
+            worksFine &= false;
+        }
+        node.setSimulationEventEnabled(TSimulationEvent.PACKET_SENT, false);
+        if (node.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+            worksFine &= false;
+        }
+        if (!node.isSimulationEventEnabled(TSimulationEvent.NODE_CONGESTED)) {
+            worksFine &= false;
+        }
+        node.setSimulationEventEnabled(TSimulationEvent.PACKET_SENT, true);
+        if (!node.isSimulationEventEnabled(TSimulationEvent.PACKET_SENT)) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+}
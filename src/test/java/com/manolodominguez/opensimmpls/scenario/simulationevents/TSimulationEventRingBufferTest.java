@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario.simulationevents;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author manolodd
+ */
+public class TSimulationEventRingBufferTest {
+
+    public TSimulationEventRingBufferTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * Creates a simulation event with the specified identifier.
+     */
+    private TSimulationEvent createEvent(long eventID) {
+        return new TSimulationEventLinkBroken(this, eventID, eventID);
+    }
+
+    /**
+     * Test of constructor, of class TSimulationEventRingBuffer.
+     */
+    @Test
+    public void testConstructor() {
+        System.out.println("Test constructor");
+        TSimulationEventRingBuffer instance = new TSimulationEventRingBuffer(4, OverflowPolicies.BLOCK);
+        boolean worksFine = true;
+        if (instance.size() != 0) {
+            worksFine &= false;
+        }
+        if (instance.getCapacity() != 4) {
+            worksFine &= false;
+        }
+        if (instance.getOverflowPolicy() != OverflowPolicies.BLOCK) {
+            worksFine &= false;
+        }
+        if (instance.poll() != null) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of constructor, of class TSimulationEventRingBuffer, when the
+     * capacity is not valid.
+     */
+    @Test
+    public void testConstructorWhenCapacityIsNotValid() {
+        System.out.println("Test constructor when capacity is not valid");
+        assertThrows(IllegalArgumentException.class, () -> {
+            TSimulationEventRingBuffer instance = new TSimulationEventRingBuffer(0, OverflowPolicies.BLOCK);
+        });
+    }
+
+    /**
+     * Test of put and poll methods, of class TSimulationEventRingBuffer.
+     * Events are put and taken alternately so that the buffer wraps around.
+     */
+    @Test
+    public void testPutAndPoll() {
+        System.out.println("Test put and poll");
+        TSimulationEventRingBuffer instance = new TSimulationEventRingBuffer(5, OverflowPolicies.BLOCK);
+        TSimulationEvent[] events = new TSimulationEvent[30];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = createEvent(i);
+        }
+        boolean worksFine = true;
+        int nextToPoll = 0;
+        for (int i = 0; i < events.length; i++) {
+            if (!instance.put(events[i])) {
+                worksFine &= false;
+            }
+            if ((i % 2) == 0) {
+                if (instance.poll() != events[nextToPoll]) {
+                    worksFine &= false;
+                }
+                nextToPoll++;
+            }
+            if (instance.size() == instance.getCapacity()) {
+                while (instance.size() > 0) {
+                    if (instance.poll() != events[nextToPoll]) {
+                        worksFine &= false;
+                    }
+                    nextToPoll++;
+                }
+            }
+        }
+        while (nextToPoll < events.length) {
+            if (instance.poll() != events[nextToPoll]) {
+                worksFine &= false;
+            }
+            nextToPoll++;
+        }
+        if (instance.getNumberOfDiscardedEvents() != 0) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of put method, of class TSimulationEventRingBuffer, when the buffer
+     * is full and the overflow policy is DROP_OLDEST.
+     */
+    @Test
+    public void testPutWhenDropOldest() {
+        System.out.println("Test put when drop oldest");
+        TSimulationEventRingBuffer instance = new TSimulationEventRingBuffer(3, OverflowPolicies.DROP_OLDEST);
+        for (int i = 0; i < 5; i++) {
+            instance.put(createEvent(i));
+        }
+        boolean worksFine = true;
+        if (instance.getNumberOfDiscardedEvents() != 2) {
+            worksFine &= false;
+        }
+        for (int i = 2; i < 5; i++) {
+            if (instance.poll().getEventID() != i) {
+                worksFine &= false;
+            }
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of put method, of class TSimulationEventRingBuffer, when the buffer
+     * is full and the overflow policy is SAMPLE. Events are discarded until
+     * the buffer is emptied.
+     */
+    @Test
+    public void testPutWhenSample() {
+        System.out.println("Test put when sample");
+        TSimulationEventRingBuffer instance = new TSimulationEventRingBuffer(3, OverflowPolicies.SAMPLE);
+        for (int i = 0; i < 4; i++) {
+            instance.put(createEvent(i));
+        }
+        boolean worksFine = true;
+        instance.poll();
+        // There is room, but the buffer has not been emptied yet.
+        if (instance.put(createEvent(4))) {
+            worksFine &= false;
+        }
+        instance.poll();
+        instance.poll();
+        if (!instance.put(createEvent(5))) {
+            worksFine &= false;
+        }
+        if (instance.poll().getEventID() != 5) {
+            worksFine &= false;
+        }
+        if (instance.getNumberOfDiscardedEvents() != 2) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of put method, of class TSimulationEventRingBuffer, when the buffer
+     * is full and the overflow policy is BLOCK. The producer waits until the
+     * consumer makes room.
+     */
+    @Test
+    public void testPutWhenBlock() throws InterruptedException {
+        System.out.println("Test put when block");
+        TSimulationEventRingBuffer instance = new TSimulationEventRingBuffer(2, OverflowPolicies.BLOCK);
+        instance.put(createEvent(0));
+        instance.put(createEvent(1));
+        Thread producer = new Thread(() -> {
+            instance.put(createEvent(2));
+        });
+        producer.start();
+        producer.join(200);
+        boolean worksFine = true;
+        if (!producer.isAlive()) {
+            worksFine &= false;
+        }
+        if (instance.poll().getEventID() != 0) {
+            worksFine &= false;
+        }
+        producer.join(5000);
+        if (producer.isAlive()) {
+            worksFine &= false;
+        }
+        if (instance.poll().getEventID() != 1) {
+            worksFine &= false;
+        }
+        if (instance.poll().getEventID() != 2) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of setOverflowPolicy method, of class TSimulationEventRingBuffer.
+     * A producer that is waiting for room applies the new policy.
+     */
+    @Test
+    public void testSetOverflowPolicy() throws InterruptedException {
+        System.out.println("Test setOverflowPolicy");
+        TSimulationEventRingBuffer instance = new TSimulationEventRingBuffer(1, OverflowPolicies.BLOCK);
+        instance.put(createEvent(0));
+        Thread producer = new Thread(() -> {
+            instance.put(createEvent(1));
+        });
+        producer.start();
+        producer.join(100);
+        instance.setOverflowPolicy(OverflowPolicies.DROP_OLDEST);
+        producer.join(5000);
+        boolean worksFine = true;
+        if (producer.isAlive()) {
+            worksFine &= false;
+        }
+        if (instance.poll().getEventID() != 1) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of clear method, of class TSimulationEventRingBuffer.
+     */
+    @Test
+    public void testClear() {
+        System.out.println("Test clear");
+        TSimulationEventRingBuffer instance = new TSimulationEventRingBuffer(3, OverflowPolicies.DROP_OLDEST);
+        for (int i = 0; i < 10; i++) {
+            instance.put(createEvent(i));
+        }
+        instance.clear();
+        boolean worksFine = true;
+        if (instance.size() != 0) {
+            worksFine &= false;
+        }
+        if (instance.getNumberOfDiscardedEvents() != 0) {
+            worksFine &= false;
+        }
+        if (instance.poll() != null) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) Manuel Domínguez Dorado - ingeniero@ManoloDominguez.com.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manolodominguez.opensimmpls.scenario.simulationevents;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author manolodd
+ */
+public class TSimulationEventSubscriptionTest {
+
+    public TSimulationEventSubscriptionTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+    }
+
+    @AfterEach
+    public void tearDown() {
+    }
+
+    /**
+     * A subscriber that is interested in every event and does nothing with
+     * them.
+     */
+    private static class TIdleSubscriber implements ISimulationEventListener {
+
+        @Override
+        public void captureSimulationEvents(TSimulationEvent simulationEvent) {
+        }
+
+        @Override
+        public boolean isInterestedIn(int subtype) {
+            return true;
+        }
+    }
+
+    /**
+     * Test of publish method, of class TSimulationEventSubscription, when the
+     * subscription has been stopped. With the BLOCK policy and nobody taking
+     * events, the producer returns instead of waiting forever.
+     */
+    @Test
+    public void testPublishWhenStopped() throws InterruptedException {
+        System.out.println("Test publish when stopped");
+        TSimulationEventSubscription instance = new TSimulationEventSubscription(new TIdleSubscriber(), 1, OverflowPolicies.BLOCK);
+        instance.start();
+        instance.stop();
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 10; i++) {
+                instance.publish(new TSimulationEventLinkBroken(this, i, i));
+            }
+        });
+        producer.setDaemon(true);
+        producer.start();
+        producer.join(5000);
+        boolean worksFine = true;
+        if (producer.isAlive() || (instance.getPendingEvents().size() != 0)) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+
+    /**
+     * Test of stop method, of class TSimulationEventSubscription, when a
+     * producer is waiting for room with the BLOCK policy. The producer is
+     * released.
+     */
+    @Test
+    public void testStopWhenAProducerIsWaiting() throws InterruptedException {
+        System.out.println("Test stop when a producer is waiting");
+        TSimulationEventSubscription instance = new TSimulationEventSubscription(new TIdleSubscriber(), 1, OverflowPolicies.BLOCK);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 10; i++) {
+                instance.publish(new TSimulationEventLinkBroken(this, i, i));
+            }
+        });
+        producer.setDaemon(true);
+        producer.start();
+        // The subscription is not started, so the producer waits once the
+        // queue is full.
+        producer.join(200);
+        boolean worksFine = true;
+        if (!producer.isAlive()) {
+            worksFine &= false;
+        }
+        instance.stop();
+        producer.join(5000);
+        if (producer.isAlive()) {
+            worksFine &= false;
+        }
+        assertTrue(worksFine);
+    }
+}